@@ -45,14 +45,14 @@
  */ 
 package org.rcsb.ks.controllers.app;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.FileReader;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URL;
 import java.net.URLConnection;
 import java.util.ArrayList;
@@ -114,6 +114,12 @@ public class SlideShow extends Thread
 
 	private boolean threadSuspended = false;
 
+	/**
+	 * Reads the structures of the next slides in the background, see
+	 * getLookAhead().
+	 */
+	private StructurePreloader preloader = null;
+
 	public SlideShow(String args[])
 	{
 		getMoleculeDirLoc();
@@ -313,19 +319,27 @@ public class SlideShow extends Thread
 						 System.out.println(" loading from www.rcsb.org: " + pdbidvalue);
 							URLConnection connection = fileurl.openConnection();
 					        connection.addRequestProperty("User-agent", "Mozilla/4.0 (compatible; MSIE 6.0;Windows NT 5.1; SV1)");
-							InputStream stream = connection.getInputStream();
-							BufferedInputStream in = new BufferedInputStream(
-									stream);
-							FileOutputStream file = new FileOutputStream(
-									getPDBFileDirectory() + "/" + pdbidvalue
-											+ ".xml.gz");
-							BufferedOutputStream out = new BufferedOutputStream(
-									file);
-							int iy;
-							while ((iy = in.read()) != -1) {
-								out.write(iy);
+							InputStream in = connection.getInputStream();
+							// download to a temporary file first, so a
+							// preloading slide never reads a partial file
+							File part = new File(getPDBFileDirectory() + "/"
+									+ pdbidvalue + ".xml.gz.part");
+							OutputStream out = new FileOutputStream(part);
+							try {
+								byte[] buffer = new byte[64 * 1024];
+								int count;
+								while ((count = in.read(buffer)) != -1) {
+									out.write(buffer, 0, count);
+								}
+							} finally {
+								out.close();
+								in.close();
+							}
+							if (!part.renameTo(new File(getPDBFileDirectory() + "/"
+									+ pdbidvalue + ".xml.gz"))) {
+								part.delete();
+								throw new IOException("could not rename " + part);
 							}
-							out.flush();
 						} catch (Exception e) {
 							e.printStackTrace();
 							failureIndex++;
@@ -366,6 +380,7 @@ public class SlideShow extends Thread
 		ViewMovementThread.setDuration(movementDuration);
 
 		StructureModel model = AppBase.sgetModel();
+		preloader = new StructurePreloader(pdbIdList, getPDBFileDirectory(), getLookAhead());
 
 		while (slideShow)
 		{
@@ -464,33 +479,41 @@ public class SlideShow extends Thread
 		}
 	}
 
+	/*
+	 * Swap in the structure of a slide.  It has normally been read while the previous
+	 * slide was shown, so this only waits if the slide show got ahead of the preloader.
+	 */
 	private void loadStructure(int _index) throws Exception
 	{
 		String pdbId = pdbIdList.get(_index);
+		Structure[] structures = null;
 		try {
-			File lk = new File(getPDBFileDirectory() + "/" + pdbId + ".xml.gz");
-
-			System.out.println("Loading file " + lk.getAbsolutePath());
-			if (lk.exists())
-				loadFromFile(lk, pdbId);
-			else
-				loadFromURL(pdbId);
+			structures = preloader.take(_index);
 		} catch (Exception _e)
 		{
 			throw new Exception("PDB file index " + _index + " id : " + pdbId
 					+ " not found ");
 		}
-	}
 
-	private void loadFromFile(File lk, String _id)
-	{
-		AppBase.sgetDocController().loadStructure(lk.getAbsolutePath(), _id);
+		System.out.println("Showing structure " + pdbId);
+		AppBase.sgetDocController().setStructures(structures, pdbId);
 	}
 
-	private void loadFromURL(String _id)
+	/**
+	 * Returns the number of slides whose structures are read ahead of the current
+	 * slide, from the "slideshow_look_ahead" property.  The default is 1.
+	 */
+	private int getLookAhead()
 	{
-		String url = "http://www.pdb.org/pdb/files/" + _id + ".xml.gz";
-		AppBase.sgetDocController().loadStructure(url, _id);
+		String lookAhead = KioskViewer.getApp().properties.getProperty("slideshow_look_ahead");
+		if (lookAhead != null) {
+			try {
+				return Math.max(0, Integer.parseInt(lookAhead.trim()));
+			} catch (NumberFormatException _e) {
+				System.err.println("Invalid slideshow_look_ahead: " + lookAhead);
+			}
+		}
+		return 1;
 	}
 
 	/**
@@ -566,7 +589,7 @@ public class SlideShow extends Thread
 		Collection<Residue> ligands = getLigandsForAnimation(sm);
 		for (Residue ligand: ligands) {
 			Atom atom = ligand.getAtom(0);
-			double c[] = atom.coordinate;
+			double c[] = atom.getCoordinate();
 			double[] eye = new double[3];
 			eye[0] = c[0] - 20;
 			eye[1] = c[1] - 20;
@@ -0,0 +1,205 @@
+/*
+ * BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence. This should
+ * be distributed with the code. If you do not have a copy,
+ * see:
+ *
+ * http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors. These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ * http://www.biojava.org/
+ *
+ * This code was contributed from the Molecular Biology Toolkit
+ * (MBT) project at the University of California San Diego.
+ *
+ * Please reference J.L. Moreland, A.Gramada, O.V. Buzko, Qing
+ * Zhang and P.E. Bourne 2005 The Molecular Biology Toolkit (MBT):
+ * A Modular Platform for Developing Molecular Visualization
+ * Applications. BMC Bioinformatics, 6:21.
+ *
+ * The MBT project was funded as part of the National Institutes
+ * of Health PPG grant number 1-P01-GM63208 and its National
+ * Institute of General Medical Sciences (NIGMS) division. Ongoing
+ * development for the MBT project is managed by the RCSB
+ * Protein Data Bank(http://www.pdb.org) and supported by funds
+ * from the National Science Foundation (NSF), the National
+ * Institute of General Medical Sciences (NIGMS), the Office of
+ * Science, Department of Energy (DOE), the National Library of
+ * Medicine (NLM), the National Cancer Institute (NCI), the
+ * National Center for Research Resources (NCRR), the National
+ * Institute of Biomedical Imaging and Bioengineering (NIBIB),
+ * the National Institute of Neurological Disorders and Stroke
+ * (NINDS), and the National Institute of Diabetes and Digestive
+ * and Kidney Diseases (NIDDK).
+ *
+ * Created on 2026/10/18
+ *
+ */ 
+package org.rcsb.ks.controllers.app;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import org.rcsb.mbt.model.Chain;
+import org.rcsb.mbt.model.Structure;
+import org.rcsb.mbt.model.StructureMap;
+import org.rcsb.mbt.model.StructureComponentRegistry.ComponentType;
+import org.rcsb.mbt.model.attributes.Style;
+import org.rcsb.mbt.model.attributes.StructureStyles;
+import org.rcsb.uiApp.controllers.app.AppBase;
+import org.rcsb.vf.glscene.jogl.ChainGeometry;
+import org.rcsb.vf.glscene.jogl.ChainMeshBuilder;
+import org.rcsb.vf.glscene.jogl.GlGeometryViewer;
+
+/**
+ * Reads the structures of the next slides while the current slide is shown.
+ * A background thread reads each structure and creates its StructureMap
+ * (bonds, secondary structure, ...), and the ribbons of its chains are
+ * started on the ChainMeshBuilder workers. When the slide show gets to the
+ * slide, the structure only has to be swapped in.
+ * <p>
+ * The structures are read one after the other, in slide order, so the next
+ * slide is always read first. Each read ahead structure is kept in memory
+ * until its slide is shown.
+ * </p>
+ * <p>
+ * Atoms and bonds are not prepared ahead of time. Unless "use_impostors" is
+ * set they are display lists, which need the GL context and are compiled at
+ * the first draw of the slide. They share the viewer's sphere and cylinder
+ * lists, so they have no tessellation that could be moved to this thread.
+ * </p>
+ */
+class StructurePreloader
+{
+	private final List<String> pdbIdList;
+	private final String fileDirectory;
+	private final int lookAhead;
+
+	private final ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactory()
+	{
+		public Thread newThread(final Runnable runnable)
+		{
+			final Thread thread = new Thread(runnable, "StructurePreloader");
+			thread.setDaemon(true);
+			thread.setPriority(Thread.MIN_PRIORITY);
+			return thread;
+		}
+	});
+
+	// key: slide index
+	private final Map<Integer, Future<Structure[]>> pending = new HashMap<Integer, Future<Structure[]>>();
+
+	/**
+	 * @param pdbIdList - the ids of the slides.
+	 * @param fileDirectory - directory of the local .xml.gz files.
+	 * @param lookAhead - number of slides to read ahead of the current one.
+	 */
+	public StructurePreloader(final List<String> pdbIdList, final String fileDirectory, final int lookAhead)
+	{
+		this.pdbIdList = pdbIdList;
+		this.fileDirectory = fileDirectory;
+		this.lookAhead = Math.max(0, lookAhead);
+	}
+
+	/**
+	 * Returns the structures of a slide, waiting for them if they are still
+	 * being read, and starts reading the slides after it.
+	 * 
+	 * @param index - the slide index.
+	 * @throws Exception if the structures could not be read.
+	 */
+	public Structure[] take(final int index) throws Exception
+	{
+		Future<Structure[]> structures = this.pending.remove(index);
+		if (structures == null)
+			structures = this.submit(index);
+
+		final int size = this.pdbIdList.size();
+		for (int i = 1; i <= Math.min(this.lookAhead, size - 1); i++)
+		{
+			final int next = (index + i) % size;
+			if (!this.pending.containsKey(next))
+				this.pending.put(next, this.submit(next));
+		}
+
+		try
+		{
+			return structures.get();
+		}
+
+		catch (final ExecutionException e)
+		{
+			final Throwable cause = e.getCause();
+			throw cause instanceof Exception ? (Exception)cause : e;
+		}
+	}
+
+	private Future<Structure[]> submit(final int index)
+	{
+		return this.executor.submit(new Callable<Structure[]>()
+		{
+			public Structure[] call() throws Exception
+			{
+				return StructurePreloader.this.load(index);
+			}
+		});
+	}
+
+	private Structure[] load(final int index) throws IOException
+	{
+		final String pdbId = this.pdbIdList.get(index);
+		final File file = new File(this.fileDirectory + "/" + pdbId + ".xml.gz");
+
+		System.out.println("Reading ahead " + (file.exists() ? file.getAbsolutePath() : pdbId));
+		final String url = file.exists() ? file.getAbsolutePath() :
+			"http://www.pdb.org/pdb/files/" + pdbId + ".xml.gz";
+
+		final Structure[] structures = AppBase.sgetDocController().readStructuresFromUrl(url);
+		if (structures == null || structures.length == 0)
+			throw new IOException("PDB file index " + index + " id : " + pdbId + " not found ");
+
+		for (Structure structure : structures)
+			this.prebuildRibbons(structure);
+		return structures;
+	}
+
+	/**
+	 * Starts the ribbons of the chains with the default geometry and style
+	 * the viewer gives them when the structure is added.
+	 */
+	private void prebuildRibbons(final Structure structure)
+	{
+		final ChainGeometry geometry = (ChainGeometry)GlGeometryViewer.defaultGeometry.get(ComponentType.CHAIN);
+		if (geometry == null)
+			return;
+
+		final StructureMap structureMap = structure.getStructureMap();
+		final StructureStyles structureStyles = structureMap.getStructureStyles();
+		final Style style = structureStyles.getDefaultStyle(ComponentType.CHAIN);
+
+		final int chainCount = structureMap.getChainCount();
+		for (int i = 0; i < chainCount; i++)
+		{
+			final Chain chain = structureMap.getChain(i);
+			if (structureStyles.isVisible(chain) && ChainMeshBuilder.prebuild(geometry, chain, style) == null)
+				return;
+		}
+	}
+}
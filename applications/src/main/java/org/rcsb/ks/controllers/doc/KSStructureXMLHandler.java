@@ -126,6 +126,9 @@ public class KSStructureXMLHandler extends StructureXMLHandler
 	@Override
 	protected Atom createFinalAtom(Atom src) { return new AnnotatedAtom(src); }
 
+	@Override
+	protected StructureXMLHandler createAtomSiteHandler(String urlString) { return new KSStructureXMLHandler(urlString); }
+
 	public KSStructureXMLHandler(final String urlString)
 	{
 		super(urlString);
@@ -191,28 +194,28 @@ public class KSStructureXMLHandler extends StructureXMLHandler
 	    	insideStruct = false;
 		} else if (isInCitation
 				&& qName.equals(xmlPrefix + "journal_abbrev")) {
-				journalArticle.setAbbreviation(buf.trim());
+				journalArticle.setAbbreviation(buf.getTrimmedString());
 		} else if (isInCitation
 				&& qName.equals(xmlPrefix + "journal_volume")) {
-				journalArticle.setJournalVolume(buf.trim());
+				journalArticle.setJournalVolume(buf.getTrimmedString());
 		} else if (isInCitation
 				&& qName.equals(xmlPrefix + "author")) {
-				journalArticle.appendAuthor(buf.trim());
+				journalArticle.appendAuthor(buf.getTrimmedString());
 		} else if (isInCitation && qName.equals(xmlPrefix + "page_first")) {
 				try {
-					int page = Integer.parseInt(buf.trim());
+					int page = buf.parseInt();
 					journalArticle.setFirstPage(page);
 				} catch (Exception e) {
 				}
 		} else if (isInCitation && qName.equals(xmlPrefix + "page_last")) {
 				try {
-					int page = Integer.parseInt(buf.trim());
+					int page = buf.parseInt();
 					journalArticle.setLastPage(page);
 				} catch (Exception e) {
 				}
 		} else if (isInCitation && qName.equals(xmlPrefix + "year")) {
 				try {
-					int year = Integer.parseInt(buf.trim());
+					int year = buf.parseInt();
 					journalArticle.setYear(year);
 				} catch (Exception e) {
 				}
@@ -221,10 +224,10 @@ public class KSStructureXMLHandler extends StructureXMLHandler
 			insideEntity = false;
 		} else if (insideEntity 
 				&& qName.equals(xmlPrefix + "type")) {
-			currentEntity.setType(buf.trim());
+			currentEntity.setType(buf.getTrimmedString());
 		} else if (insideEntity 
 				&& qName.equals(xmlPrefix + "pdbx_description")) {
-			currentEntity.setDescription(buf.trim()); 
+			currentEntity.setDescription(buf.getTrimmedString()); 
 			String entityId = currentEntity.getId();
 			String description = currentEntity.getDescription();
 			EntityDescriptor ligandEntityDescriptor = new GeneralEntityDescriptor(
@@ -240,12 +243,12 @@ public class KSStructureXMLHandler extends StructureXMLHandler
 			//      <PDBx:name>Boehl, M.</PDBx:name>
 			//   </PDBx:audit_author>
 			//</PDBx:audit_authorCategory>
-			String au = buf.trim();
+			String au = buf.getTrimmedString();
 			if (au != null && au.length() > 0) {
 				authors.add(au);
 			}
 		} else if (insideStruct && qName.equals(xmlPrefix + "title")) {
-			structureTitle = buf.trim();
+			structureTitle = buf.getTrimmedString();
 		}
 		else {
 			super.endElement(namespaceURI, sName, qName);
@@ -303,7 +306,7 @@ public class KSStructureXMLHandler extends StructureXMLHandler
 		public void run ()
 		{
 			if (curAtom instanceof IAtomAnnotator)
-				((IAtomAnnotator)curAtom).setEntityId(buf.trim());				
+				((IAtomAnnotator)curAtom).setEntityId(buf.getTrimmedString());				
 		}
 	}
 	
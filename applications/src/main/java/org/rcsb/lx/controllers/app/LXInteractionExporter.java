@@ -0,0 +1,328 @@
+/*
+ * BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence. This should
+ * be distributed with the code. If you do not have a copy,
+ * see:
+ *
+ * http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors. These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ * http://www.biojava.org/
+ *
+ * This code was contributed from the Molecular Biology Toolkit
+ * (MBT) project at the University of California San Diego.
+ *
+ * Please reference J.L. Moreland, A.Gramada, O.V. Buzko, Qing
+ * Zhang and P.E. Bourne 2005 The Molecular Biology Toolkit (MBT):
+ * A Modular Platform for Developing Molecular Visualization
+ * Applications. BMC Bioinformatics, 6:21.
+ *
+ * The MBT project was funded as part of the National Institutes
+ * of Health PPG grant number 1-P01-GM63208 and its National
+ * Institute of General Medical Sciences (NIGMS) division. Ongoing
+ * development for the MBT project is managed by the RCSB
+ * Protein Data Bank(http://www.pdb.org) and supported by funds
+ * from the National Science Foundation (NSF), the National
+ * Institute of General Medical Sciences (NIGMS), the Office of
+ * Science, Department of Energy (DOE), the National Library of
+ * Medicine (NLM), the National Cancer Institute (NCI), the
+ * National Center for Research Resources (NCRR), the National
+ * Institute of Biomedical Imaging and Bioengineering (NIBIB),
+ * the National Institute of Neurological Disorders and Stroke
+ * (NINDS), and the National Institute of Diabetes and Digestive
+ * and Kidney Diseases (NIDDK).
+ *
+ * Created on 2026/10/18
+ *
+ */
+package org.rcsb.lx.controllers.app;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.rcsb.lx.controllers.scene.InteractionCalculator;
+import org.rcsb.mbt.model.Residue;
+import org.rcsb.mbt.model.Structure;
+import org.rcsb.mbt.model.StructureMap;
+import org.rcsb.mbt.model.util.Status;
+import org.rcsb.mbt.structLoader.IFileStructureLoader;
+import org.rcsb.mbt.structLoader.PdbStructureLoader;
+import org.rcsb.mbt.structLoader.StructureXMLHandler;
+import org.rcsb.mbt.structLoader.XMLStructureLoader;
+
+/**
+ * Headless batch export of ligand interactions. Every PDB or XML file in a
+ * directory is loaded and the hydrogen bond, hydrophobic, metal and water
+ * mediated interactions of each of its ligands are written as tab delimited
+ * lines. Structures are processed in parallel; the lines of one structure are
+ * written together, in the order the structures finish.
+ * <P>
+ * Usage:
+ * <pre>
+ * java org.rcsb.lx.controllers.app.LXInteractionExporter -dir &lt;directory&gt;
+ *      [-out &lt;file.tsv&gt;] [-threads &lt;n&gt;] [-hbond &lt;A&gt;] [-hydrophobic &lt;A&gt;]
+ *      [-metal &lt;A&gt;] [-water &lt;A&gt;]
+ * </pre>
+ * Without -out the interactions are written to standard output. The distance
+ * cutoffs default to the Ligand Explorer defaults.
+ */
+public class LXInteractionExporter
+{
+	public static final String HEADER = "Structure\tLigand\tAtom 1\tAtom 2\tDistance\tType";
+
+	private float hbondUpper = 3.3f;
+	private float hydrophobicUpper = 3.9f;
+	private float metalUpper = 3.5f;
+	private float waterUpper = 3.3f;
+	private int threadCount = Runtime.getRuntime().availableProcessors();
+
+	public void setHbondUpper(float hbondUpper) { this.hbondUpper = hbondUpper; }
+	public void setHydrophobicUpper(float hydrophobicUpper) { this.hydrophobicUpper = hydrophobicUpper; }
+	public void setMetalUpper(float metalUpper) { this.metalUpper = metalUpper; }
+	public void setWaterUpper(float waterUpper) { this.waterUpper = waterUpper; }
+	public void setThreadCount(int threadCount) { this.threadCount = Math.max(1, threadCount); }
+
+	public static void main(final String[] args)
+	{
+		System.setProperty("java.awt.headless", "true");
+		// keep remarks off standard output, it may carry the interactions
+		Status.setOutputLevel(Status.LEVEL_WARNING);
+
+		final LXInteractionExporter exporter = new LXInteractionExporter();
+		String directory = null;
+		String outFile = null;
+
+		try
+		{
+			for (int argIX = 0; argIX < args.length; argIX++)
+			{
+				if (args[argIX].equals("-dir"))
+					directory = getValue(args, ++argIX);
+				else if (args[argIX].equals("-out"))
+					outFile = getValue(args, ++argIX);
+				else if (args[argIX].equals("-threads"))
+					exporter.setThreadCount(Integer.parseInt(getValue(args, ++argIX)));
+				else if (args[argIX].equals("-hbond"))
+					exporter.setHbondUpper(Float.parseFloat(getValue(args, ++argIX)));
+				else if (args[argIX].equals("-hydrophobic"))
+					exporter.setHydrophobicUpper(Float.parseFloat(getValue(args, ++argIX)));
+				else if (args[argIX].equals("-metal"))
+					exporter.setMetalUpper(Float.parseFloat(getValue(args, ++argIX)));
+				else if (args[argIX].equals("-water"))
+					exporter.setWaterUpper(Float.parseFloat(getValue(args, ++argIX)));
+				else
+					throw new IllegalArgumentException("unknown argument '" + args[argIX] + "'");
+			}
+
+			if (directory == null)
+				throw new IllegalArgumentException("missing -dir");
+		}
+
+		catch (final NumberFormatException e)
+		{
+			usage("invalid number: " + e.getMessage());
+		}
+
+		catch (final IllegalArgumentException e)
+		{
+			usage(e.getMessage());
+		}
+
+		try
+		{
+			final PrintWriter out = outFile == null ?
+					new PrintWriter(new OutputStreamWriter(System.out)) :
+					new PrintWriter(new FileWriter(outFile));
+			final int failed = exporter.export(new File(directory), out);
+			out.close();
+			System.exit(failed == 0 ? 0 : 2);
+		}
+
+		catch (final IOException e)
+		{
+			Status.output(Status.LEVEL_ERROR, e.getMessage());
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * @return the value of the option at args[argIX]
+	 * @throws IllegalArgumentException if the option has no value
+	 */
+	private static String getValue(final String[] args, final int argIX)
+	{
+		if (argIX >= args.length)
+			throw new IllegalArgumentException("missing value for " + args[argIX - 1]);
+		return args[argIX];
+	}
+
+	private static void usage(final String message)
+	{
+		System.err.println("Error: " + message);
+		System.err.println("Usage: LXInteractionExporter -dir <directory> [-out <file.tsv>] [-threads <n>]" +
+				" [-hbond <A>] [-hydrophobic <A>] [-metal <A>] [-water <A>]");
+		System.exit(1);
+	}
+
+	/**
+	 * Exports the interactions of all structure files in the directory.
+	 *
+	 * @param directory - directory with .pdb, .ent or .xml files, optionally gzipped.
+	 * @param out - receives the header and the interaction lines.
+	 * @return the number of files that could not be processed.
+	 * @throws IOException if the directory can't be read.
+	 */
+	public int export(final File directory, final PrintWriter out) throws IOException
+	{
+		final File[] files = directory.listFiles();
+		if (files == null)
+			throw new IOException("Error: can't read directory '" + directory + "'");
+		Arrays.sort(files);
+
+		final List<File> structureFiles = new ArrayList<File>();
+		for (File file : files)
+			if (file.isFile() && isStructureFile(file.getName()))
+				structureFiles.add(file);
+
+		out.println(HEADER);
+
+		final ExecutorService executor = Executors.newFixedThreadPool(Math.min(threadCount, Math.max(1, structureFiles.size())));
+		final CompletionService<String> completionService = new ExecutorCompletionService<String>(executor);
+		for (final File file : structureFiles)
+			completionService.submit(new Callable<String>()
+			{
+				public String call() throws Exception
+				{
+					return exportStructure(file);
+				}
+			});
+
+		int failed = 0;
+		try
+		{
+			for (int i = 0; i < structureFiles.size(); i++)
+			{
+				try
+				{
+					out.print(completionService.take().get());
+					out.flush();
+				}
+
+				catch (final ExecutionException e)
+				{
+					Status.output(Status.LEVEL_ERROR, "Could not export interactions: " + e.getCause());
+					failed++;
+				}
+
+				Status.progress((int)(100 * (i + 1) / (float)structureFiles.size()),
+						"Exported " + (i + 1) + " of " + structureFiles.size() + " structures");
+			}
+		}
+
+		catch (final InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while exporting interactions");
+		}
+
+		finally
+		{
+			executor.shutdownNow();
+		}
+
+		return failed;
+	}
+
+	/**
+	 * Loads a structure and returns the interaction lines of all its ligands.
+	 * Each call uses its own loader and calculator, so files can be processed
+	 * on different threads.
+	 */
+	protected String exportStructure(final File file) throws IOException
+	{
+		final Structure structure = loadStructure(file);
+		final String structureId = getStructureId(file.getName());
+		final StructureMap structureMap = structure.getStructureMap();
+
+		final InteractionCalculator calculator = new InteractionCalculator();
+		final StringWriter result = new StringWriter();
+		final PrintWriter resultOut = new PrintWriter(result);
+
+		for (Residue ligand : structureMap.getLigands())
+		{
+			final StringWriter interactions = new StringWriter();
+			final PrintWriter interactionsOut = new PrintWriter(interactions);
+
+			calculator.currentLigandResidues = new Residue[] { ligand };
+			calculator.calWaterInteractions(structure, 0.0f, waterUpper, false, interactionsOut);
+			calculator.calculateInteractions(structure, true, true, true,
+					hbondUpper, 0.0f, hydrophobicUpper, 0.0f, metalUpper, 0.0f, false, interactionsOut);
+			interactionsOut.flush();
+
+			final String prefix = structureId + "\t" + ligand.getAuthorChainId() + ":" +
+				ligand.getAuthorResidueId() + ":" + ligand.getCompoundCode() + "\t";
+			final BufferedReader lines = new BufferedReader(new StringReader(interactions.toString()));
+			for (String line = lines.readLine(); line != null; line = lines.readLine())
+				resultOut.println(prefix + line);
+		}
+
+		resultOut.flush();
+		return result.toString();
+	}
+
+	private Structure loadStructure(final File file) throws IOException
+	{
+		final String fileName = file.getPath();
+		IFileStructureLoader loader = null;
+		if (fileName.endsWith(".xml.gz") || fileName.endsWith(".xml"))
+			loader = new XMLStructureLoader(new StructureXMLHandler(fileName));
+		else
+			loader = new PdbStructureLoader();
+
+		final Structure structure = loader.load(file);
+		if (structure == null)
+			throw new IOException("Error: could not read structure from '" + fileName + "'");
+
+		new StructureMap(structure, loader.getEntityNameMap(), null);
+		return structure;
+	}
+
+	private static boolean isStructureFile(final String fileName)
+	{
+		return fileName.endsWith(".xml.gz") || fileName.endsWith(".xml")
+			|| fileName.matches("^.+\\.pdb\\d*(\\.gz)?$")
+			|| fileName.endsWith(".ent.gz") || fileName.endsWith(".ent");
+	}
+
+	/**
+	 * The structure id is the file name without the structure file extension
+	 * accepted by isStructureFile(), so ids that contain dots are kept whole.
+	 */
+	private static String getStructureId(final String fileName)
+	{
+		return fileName.replaceFirst("(\\.xml\\.gz|\\.xml|\\.pdb\\d*(\\.gz)?|\\.ent\\.gz|\\.ent)$", "");
+	}
+}
@@ -79,6 +79,12 @@ public class InteractionCalculator
 {
 	public Residue[] currentLigandResidues = null;
 	
+	// scratch coordinates for the hydrogen bond angle tests.
+	private final double[] tempCoordinate1 = new double[3];
+	private final double[] tempCoordinate2 = new double[3];
+	private final double[] tempCoordinate3 = new double[3];
+	private final double[] tempCoordinate4 = new double[3];
+	
 	public void calculateInteractions(final Structure structure, boolean hbondflag,
 			boolean hydroflag, boolean otherflag, final double hbondupper,
 			final double hbondlower, final double hydroupper, final double hydrolower,
@@ -97,7 +103,7 @@ public class InteractionCalculator
 			return;
 		}
 		
-		LXGlGeometryViewer glViewer = LigandExplorer.sgetGlGeometryViewer();
+		final LXGlGeometryViewer glViewer = interactionsOut == null ? LigandExplorer.sgetGlGeometryViewer() : null;
 
 		for (Chain chain : structureMap.getChains())
 			if (chain.getClassification() == Residue.Classification.AMINO_ACID ||
@@ -115,13 +121,29 @@ public class InteractionCalculator
 				.getStructureStyles().getDefaultStyle(
 						ComponentType.BOND);
 
+		double upperBound = 0.0;
+		if (hbondflag) {
+			upperBound = hbondupper;
+		}
+		if (hydroflag) {
+			upperBound = Math.max(upperBound, hydroupper);
+		}
+		final InteractionGrid grid = new InteractionGrid(proteinAtoms, upperBound);
+		final double hbondUpperSq = hbondupper * hbondupper;
+		final double hbondLowerSq = squareBound(hbondlower);
+		final double hydroUpperSq = hydroupper * hydroupper;
+		final double hydroLowerSq = squareBound(hydrolower);
+
 		for (int i = 0; i < ligandAtoms.size(); i++) {
 			double distance = 0.0;
 
 			final Atom atom_i = ligandAtoms.get(i);
 
-				for (int j = 0; j < proteinAtoms.size(); j++) {
-				final Atom atom_j = proteinAtoms.get(j);
+			// only visit the protein atoms within the largest upper bound
+			final int neighborCount = (hbondflag || hydroflag) ? grid.find(atom_i, upperBound) : 0;
+			for (int j = 0; j < neighborCount; j++) {
+				final Atom atom_j = grid.getAtom(j);
+				final double distanceSq = grid.getDistanceSquared(j);
 
 				if (hbondflag) {
 					
@@ -158,9 +180,8 @@ public class InteractionCalculator
 							acceptor = atom_j;
 						} 
 						
-						distance = ArrayLinearAlgebra.distance(atom_i.coordinate, atom_j.coordinate);
-						
-						if (distance <= hbondupper && distance >= hbondlower && isDillRoseHydrogenBond(donor, acceptor)) {
+						if (distanceSq <= hbondUpperSq && distanceSq >= hbondLowerSq && isDillRoseHydrogenBond(donor, acceptor)) {
+							distance = Math.sqrt(distanceSq);
 							interactionType = InteractionConstants.hydrogenBondType;
 							distString = LXGlGeometryViewer.getDistString(distance);
 
@@ -168,7 +189,7 @@ public class InteractionCalculator
 								glViewer.renderResidue(structureMap.getResidue(atom_j), as, ag, bs, bg,true);
 							}
 
-							glViewer.drawInteraction(structure, atom_i, atom_j,
+							drawInteraction(structure, atom_i, atom_j,
 									interactionType, displayDisLabel,
 									distString, distance, interactionsOut);
 						}
@@ -178,9 +199,8 @@ public class InteractionCalculator
 
 					if (atom_i.element.equals("C")
 							&& atom_j.element.equals("C")) {
-						distance = ArrayLinearAlgebra.distance(atom_i.coordinate,
-								atom_j.coordinate);
-						if (distance <= hydroupper && distance >= hydrolower) {
+						if (distanceSq <= hydroUpperSq && distanceSq >= hydroLowerSq) {
+							distance = Math.sqrt(distanceSq);
 							interactionType = InteractionConstants.hydrophobicType;
 							distString = LXGlGeometryViewer.getDistString(distance);
 
@@ -190,7 +210,7 @@ public class InteractionCalculator
 										true);
 							}
 
-							glViewer.drawInteraction(structure, atom_i, atom_j,
+							drawInteraction(structure, atom_i, atom_j,
 									interactionType, displayDisLabel,
 									distString, distance, interactionsOut);
 						}
@@ -211,6 +231,8 @@ public class InteractionCalculator
 		String distString = null;
 		final String interactionType = InteractionConstants.waterMediatedType;
 		final HashSet<Atom> waterAtoms = new HashSet<Atom>();
+		final double upperSq = upperBound * upperBound;
+		final double lowerSq = squareBound(lowerBound);
 		
 		for (Chain hohChain : structureMap.getChains())
 		{
@@ -218,27 +240,32 @@ public class InteractionCalculator
 				&& hohChain.getChainId() != "_") continue;
 						// find the water chain
 
+			final List<Atom> hohAtoms = new ArrayList<Atom>();
+			for (Residue hohResidue : hohChain.getResidues())
+				if (hohResidue.getClassification() == Residue.Classification.WATER)
+					hohAtoms.add(hohResidue.getAtom(0));
+								// water residue only contains a single 'O'
+			final InteractionGrid grid = new InteractionGrid(hohAtoms, upperBound);
+
 			//
 			// First, find the closest waters to any of the atoms in the the current ligand.
-			// Traverse all the atoms in the current ligand and compare against all the water
-			// atoms
+			// Traverse all the atoms in the current ligand and compare against the water
+			// atoms within the upper bound
 			//
 			for (Residue residue : currentLigandResidues)
 				for (Atom ligAtom : residue.getAtoms())
 					// restrict to polar atoms
 					if (isNOSAtom(ligAtom)) {
-					for (Residue hohResidue : hohChain.getResidues())
-						if (hohResidue.getClassification() == Residue.Classification.WATER)
+					final int neighborCount = grid.find(ligAtom, upperBound);
+					for (int n = 0; n < neighborCount; n++)
 						{
-							Atom hohAtom = hohResidue.getAtom(0);
-										// water residue only contains a single 'O'
-							
-							distance = ArrayLinearAlgebra.distance(hohAtom.coordinate,
-														ligAtom.coordinate);
-							if (distance < upperBound && distance > lowerBound)
+							Atom hohAtom = grid.getAtom(n);
+							final double distanceSq = grid.getDistanceSquared(n);
+							if (distanceSq < upperSq && distanceSq > lowerSq)
 							{
+								distance = Math.sqrt(distanceSq);
 								distString = LXGlGeometryViewer.getDistString(distance);
-								LigandExplorer.sgetGlGeometryViewer().drawInteraction(structure, ligAtom, hohAtom,
+								drawInteraction(structure, ligAtom, hohAtom,
 										interactionType, displayDisLabel, distString, distance,
 										interactionsOut);
 								
@@ -287,11 +314,14 @@ public class InteractionCalculator
 		for (int i = 0; i < atomCt; i++) {
 			final Atom atom = structureMap.getAtom(i);
 			if (structureMap.getChain(atom).getClassification() ==
-				Residue.Classification.AMINO_ACID)
+				Residue.Classification.AMINO_ACID && isNOSAtom(atom))
 					proAtoms.add(atom);
 		}
+		final InteractionGrid grid = new InteractionGrid(proAtoms, upperBound);
+		final double upperSq = upperBound * upperBound;
+		final double lowerSq = squareBound(lowerBound);
 		
-		LXGlGeometryViewer glViewer = LigandExplorer.sgetGlGeometryViewer();
+		final LXGlGeometryViewer glViewer = interactionsOut == null ? LigandExplorer.sgetGlGeometryViewer() : null;
 
 		final LXSceneNode node = (LXSceneNode)structure.getStructureMap().getUData();
 		final AtomGeometry ag = (AtomGeometry) GlGeometryViewer.defaultGeometry
@@ -308,29 +338,30 @@ public class InteractionCalculator
 
 		for (Atom atom_j : waterAtoms)
 		{
-			for (int k = 0; k < proAtoms.size(); k++) {
-				final Atom atom_k = proAtoms.get(k);
-				if (isNOSAtom(atom_k)) {
-					distance = ArrayLinearAlgebra.distance(atom_j.coordinate,
-							atom_k.coordinate);
-					distString = LXGlGeometryViewer.getDistString(distance);
-					final Residue res = structureMap.getResidue(atom_k);
-					if (!uniqRes.contains(res)) {
-
-						if (distance < upperBound && distance > lowerBound) {
-							glViewer.drawInteraction(structure, atom_j, atom_k,
-									interactionType, displayDisLabel, distString, distance,
-									interactionsOut);
-
-							if (interactionsOut == null) {
-								if (!node.isRendered(atom_j)) {
-									final DisplayListRenderable renderable = new DisplayListRenderable(
-											atom_j, as, ag);
-									node.addRenderable(renderable);
-								}
+			// report the first polar atom in range of each residue (in atom order), once per water
+			uniqRes.clear();
+			final int neighborCount = grid.find(atom_j, upperBound);
+			for (int k = 0; k < neighborCount; k++) {
+				final Atom atom_k = grid.getAtom(k);
+				final double distanceSq = grid.getDistanceSquared(k);
+				final Residue res = structureMap.getResidue(atom_k);
+				if (!uniqRes.contains(res)) {
+
+					if (distanceSq < upperSq && distanceSq > lowerSq) {
+						distance = Math.sqrt(distanceSq);
+						distString = LXGlGeometryViewer.getDistString(distance);
+						drawInteraction(structure, atom_j, atom_k,
+								interactionType, displayDisLabel, distString, distance,
+								interactionsOut);
 
-								glViewer.renderResidue(res, as, ag, bs, bg, true);
+						if (interactionsOut == null) {
+							if (!node.isRendered(atom_j)) {
+								final DisplayListRenderable renderable = new DisplayListRenderable(
+										atom_j, as, ag);
+								node.addRenderable(renderable);
 							}
+
+							glViewer.renderResidue(res, as, ag, bs, bg, true);
 						}
 						uniqRes.add(res);
 					}
@@ -356,6 +387,9 @@ public class InteractionCalculator
 		// atoms
 		//
 		List<Atom> currentLigandAtoms = getCurrentLigandAtoms();
+		final InteractionGrid grid = new InteractionGrid(metalAtoms, upperBound);
+		final double upperSq = upperBound * upperBound;
+		final double lowerSq = squareBound(lowerBound);
 		
 		for (Atom ligAtom : currentLigandAtoms) {
 			Element element = PeriodicTable.getElement(ligAtom.element);
@@ -363,13 +397,15 @@ public class InteractionCalculator
 				coordinatedMetal.add(ligAtom);
 			}
 			if (isNOSAtom(ligAtom)) {
-				for (Atom metalAtom : metalAtoms) {
-					distance = ArrayLinearAlgebra.distance(ligAtom.coordinate,
-							metalAtom.coordinate);
-					if (distance < upperBound && distance > lowerBound)
+				final int neighborCount = grid.find(ligAtom, upperBound);
+				for (int n = 0; n < neighborCount; n++) {
+					final Atom metalAtom = grid.getAtom(n);
+					final double distanceSq = grid.getDistanceSquared(n);
+					if (distanceSq < upperSq && distanceSq > lowerSq)
 					{
+						distance = Math.sqrt(distanceSq);
 						String distString = LXGlGeometryViewer.getDistString(distance);
-						LigandExplorer.sgetGlGeometryViewer().drawInteraction(structure, ligAtom, metalAtom,
+						drawInteraction(structure, ligAtom, metalAtom,
 								interactionType, displayDisLabel, distString, distance,
 								interactionsOut);
 
@@ -420,15 +456,21 @@ public class InteractionCalculator
 		HashSet<Residue> uniqRes = new HashSet<Residue>();
 
 		List<Atom> proAtoms = new ArrayList<Atom>();
-		proAtoms.addAll(ligandAtoms);
+		for (Atom atom : ligandAtoms) {
+			if (isMetalLigandElement(atom))
+				proAtoms.add(atom);
+		}
 		for (int i = 0; i < atomCt; i++) {
 			final Atom atom = structureMap.getAtom(i);
 			if (structureMap.getChain(atom).getClassification() ==
-				Residue.Classification.AMINO_ACID)
+				Residue.Classification.AMINO_ACID && isMetalLigandElement(atom))
 				proAtoms.add(atom);
 		}
+		final InteractionGrid grid = new InteractionGrid(proAtoms, upperBound);
+		final double upperSq = upperBound * upperBound;
+		final double lowerSq = squareBound(lowerBound);
 
-		LXGlGeometryViewer glViewer = LigandExplorer.sgetGlGeometryViewer();
+		final LXGlGeometryViewer glViewer = interactionsOut == null ? LigandExplorer.sgetGlGeometryViewer() : null;
 
 		final LXSceneNode node = (LXSceneNode)structure.getStructureMap().getUData();
 		final AtomGeometry ag = (AtomGeometry) GlGeometryViewer.defaultGeometry
@@ -444,30 +486,29 @@ public class InteractionCalculator
 
 		for (Atom metalAtom : metalAtoms)
 		{
-			for (Atom proteinAtom: proAtoms) {
-				if (proteinAtom.element.equals("N") || proteinAtom.element.equals("O") || proteinAtom.element.equals("S")) {
-					distance = ArrayLinearAlgebra.distance(metalAtom.coordinate,
-							proteinAtom.coordinate);
+			final int neighborCount = grid.find(metalAtom, upperBound);
+			for (int n = 0; n < neighborCount; n++) {
+				final Atom proteinAtom = grid.getAtom(n);
+				final double distanceSq = grid.getDistanceSquared(n);
+				if (distanceSq < upperSq && distanceSq > lowerSq) {
+					distance = Math.sqrt(distanceSq);
 					distString = LXGlGeometryViewer.getDistString(distance);
-				
-					if (distance < upperBound && distance > lowerBound) {
-						glViewer.drawInteraction(structure, metalAtom, proteinAtom,
-								interactionType, displayDisLabel, distString, distance,
-								interactionsOut);
-
-						if (interactionsOut == null) {
-							if (!node.isRendered(metalAtom)) {
-								final DisplayListRenderable renderable = new DisplayListRenderable(
-										metalAtom, as, ag);
-								node.addRenderable(renderable);
-							}
-							
-							Residue res = structureMap.getResidue(proteinAtom);
+					drawInteraction(structure, metalAtom, proteinAtom,
+							interactionType, displayDisLabel, distString, distance,
+							interactionsOut);
+
+					if (interactionsOut == null) {
+						if (!node.isRendered(metalAtom)) {
+							final DisplayListRenderable renderable = new DisplayListRenderable(
+									metalAtom, as, ag);
+							node.addRenderable(renderable);
+						}
 						
-							if (!uniqRes.contains(res) && !node.isRendered(proteinAtom)) {
-								glViewer.renderResidue(res, as, ag, bs, bg, true);
-								uniqRes.add(res);
-							}
+						Residue res = structureMap.getResidue(proteinAtom);
+					
+						if (!uniqRes.contains(res) && !node.isRendered(proteinAtom)) {
+							glViewer.renderResidue(res, as, ag, bs, bg, true);
+							uniqRes.add(res);
 						}
 					}
 				}
@@ -499,12 +540,15 @@ public class InteractionCalculator
 		
 		final LXSceneNode node = (LXSceneNode)structure.getStructureMap().getUData();
 		
+		final InteractionGrid grid = new InteractionGrid(otherAtoms, upperBound);
+		final double upperSq = upperBound * upperBound;
+		
 		for (Atom ligAtom : currentLigandAtoms) {
-			for (Atom otherAtom: otherAtoms) {
-					double distance = ArrayLinearAlgebra.distance(ligAtom.coordinate,
-							otherAtom.coordinate);
+			final int neighborCount = grid.find(ligAtom, upperBound);
+			for (int n = 0; n < neighborCount; n++) {
+					final Atom otherAtom = grid.getAtom(n);
 				
-					if (distance < upperBound) {
+					if (grid.getDistanceSquared(n) < upperSq) {
 						if (interactionsOut == null) {
 							Residue res = structureMap.getResidue(otherAtom);		
 							if (!uniqRes.contains(res) && !node.isRendered(res)) {
@@ -555,6 +599,39 @@ public class InteractionCalculator
 
 		return atoms;
 	}
+	/**
+	 * Writes the interaction to interactionsOut, or creates it in the viewer if
+	 * interactionsOut is null. Writing does not touch the viewer, so the
+	 * interactions can be calculated without a display.
+	 */
+	private void drawInteraction(final Structure structure, final Atom a, final Atom b,
+			final String interactionType, final boolean displayDisLabel, final String distString,
+			final double distance, final PrintWriter interactionsOut) {
+		if (interactionsOut != null) {
+			writeInteraction(interactionsOut, a, b, interactionType, distString);
+		} else {
+			LigandExplorer.sgetGlGeometryViewer().drawInteraction(structure, a, b,
+					interactionType, displayDisLabel, distString, distance, null);
+		}
+	}
+
+	/**
+	 * Writes one tab delimited interaction line: atom 1, atom 2, distance and type.
+	 * Atoms are written as chain:residue:compound:atom.
+	 * @param interactionsOut
+	 * @param a first atom
+	 * @param b second atom
+	 * @param interactionType
+	 * @param distString formatted distance
+	 */
+	public static void writeInteraction(final PrintWriter interactionsOut, final Atom a, final Atom b,
+			final String interactionType, final String distString) {
+		interactionsOut.println(a.authorChain_id + ":" + a.authorResidue_id + ":" + a.compound
+				+ ":" + a.name + "\t" + b.authorChain_id + ":" + b.authorResidue_id + ":"
+				+ b.compound + ":" + b.name + "\t" + distString + "\t"
+				+ interactionType);
+	}
+
 	/**
 	 * Returns a list of current ligand atoms
 	 * @return current ligand atoms
@@ -580,15 +657,53 @@ public class InteractionCalculator
 			return true;
 		}
 		if (atom.element.equals("S")) {
-			Vector<Bond> bonds = atom.structure.getStructureMap().getBonds(atom);
 			// only bivalent sulfur can coordinate metal
-			if (bonds.size() < 3) {
+			if (getBondCount(atom) < 3) {
 				return true;
 			}
 		}
 		return false;
 	}
-	
+
+	/**
+	 * Returns true if passed in atom is a nitrogen, oxygen, or sulfur atom,
+	 * regardless of its valence
+	 * @param atom
+	 * @return true if the atom element is N, O, or S
+	 */
+	private boolean isMetalLigandElement(Atom atom) {
+		return atom.element.equals("N") || atom.element.equals("O") || atom.element.equals("S");
+	}
+
+	/**
+	 * Squares a lower distance bound, so it can be compared against squared
+	 * distances. Negative bounds never exclude an atom pair.
+	 * @param bound lower distance bound
+	 * @return squared bound, or -1 if the bound is negative
+	 */
+	private static double squareBound(double bound) {
+		return bound < 0 ? -1.0 : bound * bound;
+	}
+
+	/**
+	 * Returns the number of bonds of an atom, 0 for an unbonded atom
+	 * @param atom
+	 * @return number of bonds of the atom
+	 */
+	private static int getBondCount(Atom atom) {
+		return atom.structure.getStructureMap().getBondCount(atom);
+	}
+
+	/**
+	 * Returns a bond of an atom without allocating a list of its bonds
+	 * @param atom
+	 * @param index from 0 to getBondCount(atom) - 1
+	 * @return bond of the atom
+	 */
+	private static Bond getBond(Atom atom, int index) {
+		return atom.structure.getStructureMap().getBond(atom, index);
+	}
+
 	/**
 	 * Returns donor acceptor type
 	 * 0: not donor or acceptor
@@ -623,8 +738,8 @@ public class InteractionCalculator
 	 */
 	private int calcValence(Atom atom) {
 		int valence = 0;
-		Vector<Bond> bonds = atom.structure.getStructureMap().getBonds(atom);
-		for (Bond b: bonds) {
+		for (int i = 0, n = getBondCount(atom); i < n; i++) {
+			Bond b = getBond(atom, i);
 			// don't count explicit hydrogens
 			if (b.getAtom(0).element.equals("H")) {
 				continue;
@@ -679,12 +794,10 @@ public class InteractionCalculator
 	 * @return minimum donor-acceptor-acceptor-antecedent angle
 	 */
 	private double minDonorAcceptorAcceptorAntecedentAngle(Atom donor, Atom acceptor) {
-		Vector<Bond> bonds = acceptor.structure.getStructureMap().getBonds(acceptor);
-		
 		double angle = 180.0;
-		for (Bond b: bonds) {
-			Atom antecedent = b.getNeighbor(acceptor);
-			angle = Math.min(ArrayLinearAlgebra.angle(donor.coordinate, acceptor.coordinate, antecedent.coordinate), angle);
+		for (int i = 0, n = getBondCount(acceptor); i < n; i++) {
+			Atom antecedent = getBond(acceptor, i).getNeighbor(acceptor);
+			angle = Math.min(ArrayLinearAlgebra.angle(donor.getCoordinate(tempCoordinate1), acceptor.getCoordinate(tempCoordinate2), antecedent.getCoordinate(tempCoordinate3)), angle);
 		}
 		return angle;
 	}
@@ -697,13 +810,11 @@ public class InteractionCalculator
 	 * @return minimum donor-acceptor-acceptor-antecedent angle
 	 */
 	private double minAcceptorDonorDonorAntecedentAngle(Atom donor, Atom acceptor) {
-		Vector<Bond> bonds = donor.structure.getStructureMap().getBonds(donor);
-		
 		double angle = 180.0;
-		for (Bond b: bonds) {
-			Atom antecedent = b.getNeighbor(donor);
+		for (int i = 0, n = getBondCount(donor); i < n; i++) {
+			Atom antecedent = getBond(donor, i).getNeighbor(donor);
 			if (! antecedent.element.equals("H")) {
-				angle = Math.min(ArrayLinearAlgebra.angle(acceptor.coordinate, donor.coordinate, antecedent.coordinate), angle);
+				angle = Math.min(ArrayLinearAlgebra.angle(acceptor.getCoordinate(tempCoordinate1), donor.getCoordinate(tempCoordinate2), antecedent.getCoordinate(tempCoordinate3)), angle);
 			}
 		}
 		return angle;
@@ -716,14 +827,12 @@ public class InteractionCalculator
 	 * @return out of plane angle of the acceptor from the donor plane
 	 */
 	private double acceptorInDonorPlaneAngle(Atom donor, Atom acceptor) {
-		Vector<Bond> bonds = donor.structure.getStructureMap().getBonds(donor);
-		
 		Atom antecedent1 = null;
 		Atom antecedent2 = null;
 		
 		double angle = 0;
-		for (Bond b: bonds) {
-			Atom antecedent = b.getNeighbor(donor);
+		for (int i = 0, n = getBondCount(donor); i < n; i++) {
+			Atom antecedent = getBond(donor, i).getNeighbor(donor);
 			if (! antecedent.element.equals("H")) {
 				if (antecedent1 == null) {
 					antecedent1 = antecedent;
@@ -735,7 +844,7 @@ public class InteractionCalculator
 		}
 		
 		if (antecedent1 != null && antecedent2 != null) {
-			angle = Math.abs(ArrayLinearAlgebra.dihedralAngle(antecedent1.coordinate, donor.coordinate, antecedent2.coordinate, acceptor.coordinate));
+			angle = Math.abs(ArrayLinearAlgebra.dihedralAngle(antecedent1.getCoordinate(tempCoordinate1), donor.getCoordinate(tempCoordinate2), antecedent2.getCoordinate(tempCoordinate3), acceptor.getCoordinate(tempCoordinate4)));
 			if (angle > 90) {
 				angle = 180 - angle;
 			}
@@ -750,14 +859,12 @@ public class InteractionCalculator
 	 * @return out of plane angle of the donor from the acceptor plane
 	 */
 	private double donorInAcceptorPlaneAngle(Atom donor, Atom acceptor) {
-		Vector<Bond> bonds = acceptor.structure.getStructureMap().getBonds(acceptor);
-		
 		Atom antecedent1 = null;
 		Atom antecedent2 = null;
 		
 		double angle = 0;
-		for (Bond b: bonds) {
-			Atom antecedent = b.getNeighbor(acceptor);
+		for (int i = 0, n = getBondCount(acceptor); i < n; i++) {
+			Atom antecedent = getBond(acceptor, i).getNeighbor(acceptor);
 			if (! antecedent.element.equals("H")) {
 				if (antecedent1 == null) {
 					antecedent1 = antecedent;
@@ -768,9 +875,8 @@ public class InteractionCalculator
 		}
 		
 		if (antecedent1 != null && antecedent2 == null) {
-			bonds = antecedent1.structure.getStructureMap().getBonds(antecedent1);
-			for (Bond b: bonds) {
-				Atom antecedent = b.getNeighbor(antecedent1);
+			for (int i = 0, n = getBondCount(antecedent1); i < n; i++) {
+				Atom antecedent = getBond(antecedent1, i).getNeighbor(antecedent1);
 				if (! antecedent.element.equals("H")) {
 				    if (antecedent2 == null && antecedent1 != acceptor) {
 						antecedent2 = antecedent;
@@ -781,7 +887,7 @@ public class InteractionCalculator
 		}
 		
 		if (antecedent1 != null && antecedent2 != null) {
-			angle = Math.abs(ArrayLinearAlgebra.dihedralAngle(donor.coordinate, acceptor.coordinate, antecedent1.coordinate, antecedent2.coordinate));
+			angle = Math.abs(ArrayLinearAlgebra.dihedralAngle(donor.getCoordinate(tempCoordinate1), acceptor.getCoordinate(tempCoordinate2), antecedent1.getCoordinate(tempCoordinate3), antecedent2.getCoordinate(tempCoordinate4)));
 			if (angle > 90) {
 				angle = 180 - angle;
 			}
@@ -791,19 +897,18 @@ public class InteractionCalculator
 	
 	
 	private boolean isSp2Center(Atom atom) {
-		Vector<Bond> bonds = atom.structure.getStructureMap().getBonds(atom);
-		for (Bond b: bonds) {
-			if (Math.round(b.getOrder()) == 2) {
+		int bondCount = getBondCount(atom);
+		for (int i = 0; i < bondCount; i++) {
+			if (Math.round(getBond(atom, i).getOrder()) == 2) {
 				return true;
 			}
 		}
 		// check if a lone pair on N,O,S is in conjugation with a double bond
 		if (atom.element.equals("N") || atom.element.equals("O") || atom.element.equals("S")) {
-		for (Bond b: bonds) {
-			Atom neighbor = b.getNeighbor(atom);
-			bonds = neighbor.structure.getStructureMap().getBonds(neighbor);
-			for (Bond bn: bonds) {
-				if (Math.round(bn.getOrder()) == 2) {
+		for (int i = 0; i < bondCount; i++) {
+			Atom neighbor = getBond(atom, i).getNeighbor(atom);
+			for (int j = 0, n = getBondCount(neighbor); j < n; j++) {
+				if (Math.round(getBond(neighbor, j).getOrder()) == 2) {
 					return true;
 				}
 			}
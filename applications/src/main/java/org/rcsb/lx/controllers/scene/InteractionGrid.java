@@ -0,0 +1,140 @@
+/*
+ * BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence. This should
+ * be distributed with the code. If you do not have a copy,
+ * see:
+ *
+ * http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors. These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ * http://www.biojava.org/
+ *
+ * This code was contributed from the Molecular Biology Toolkit
+ * (MBT) project at the University of California San Diego.
+ *
+ * Please reference J.L. Moreland, A.Gramada, O.V. Buzko, Qing
+ * Zhang and P.E. Bourne 2005 The Molecular Biology Toolkit (MBT):
+ * A Modular Platform for Developing Molecular Visualization
+ * Applications. BMC Bioinformatics, 6:21.
+ *
+ * The MBT project was funded as part of the National Institutes
+ * of Health PPG grant number 1-P01-GM63208 and its National
+ * Institute of General Medical Sciences (NIGMS) division. Ongoing
+ * development for the MBT project is managed by the RCSB
+ * Protein Data Bank(http://www.pdb.org) and supported by funds
+ * from the National Science Foundation (NSF), the National
+ * Institute of General Medical Sciences (NIGMS), the Office of
+ * Science, Department of Energy (DOE), the National Library of
+ * Medicine (NLM), the National Cancer Institute (NCI), the
+ * National Center for Research Resources (NCRR), the National
+ * Institute of Biomedical Imaging and Bioengineering (NIBIB),
+ * the National Institute of Neurological Disorders and Stroke
+ * (NINDS), and the National Institute of Diabetes and Digestive
+ * and Kidney Diseases (NIDDK).
+ *
+ * Created on 2026/10/18
+ *
+ */ 
+package org.rcsb.lx.controllers.scene;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.rcsb.mbt.model.Atom;
+import org.rcsb.mbt.model.util.CellList;
+
+/**
+ * Spatial index over a list of atoms for the interaction calculations. A query
+ * only visits the atoms within an upper distance bound of the query atom and
+ * returns them in the order of the atom list, together with their squared
+ * distances, so the calculations report the same interactions in the same
+ * order as a loop over the whole list.
+ */
+public class InteractionGrid
+{
+	private final Atom[] atoms;
+	private final CellList cellList;
+
+	// result of the last query
+	private final int[] found;
+	private final double[] distanceSq;
+	private int count;
+
+	/**
+	 * @param atoms - the atoms to search
+	 * @param upperBound - the largest distance that will be queried, used as cell size
+	 */
+	public InteractionGrid(final List<Atom> atoms, final double upperBound)
+	{
+		this.atoms = atoms.toArray(new Atom[atoms.size()]);
+		final float[] xyz = new float[3 * this.atoms.length];
+		for (int i = 0; i < this.atoms.length; i++)
+		{
+			xyz[3 * i] = (float) this.atoms[i].getX();
+			xyz[3 * i + 1] = (float) this.atoms[i].getY();
+			xyz[3 * i + 2] = (float) this.atoms[i].getZ();
+		}
+		cellList = new CellList(xyz, this.atoms.length, (float) Math.max(upperBound, 1.0));
+		found = new int[this.atoms.length];
+		distanceSq = new double[this.atoms.length];
+	}
+
+	/**
+	 * Finds the atoms within upperBound of the center atom, including the
+	 * bound. Use {@link #getAtom(int)} and {@link #getDistanceSquared(int)}
+	 * to get the results.
+	 * 
+	 * @return the number of atoms found
+	 */
+	public int find(final Atom center, final double upperBound)
+	{
+		final double cx = center.getX();
+		final double cy = center.getY();
+		final double cz = center.getZ();
+		// candidates are found in single precision with a small margin
+		final int candidates = cellList.findNeighbors((float) cx, (float) cy, (float) cz,
+				(float) upperBound * 1.001f + 0.001f, found);
+		Arrays.sort(found, 0, candidates);
+
+		final double upperSq = upperBound * upperBound;
+		count = 0;
+		for (int n = 0; n < candidates; n++)
+		{
+			final Atom p = atoms[found[n]];
+			final double d = (p.getX() - cx) * (p.getX() - cx) +
+				(p.getY() - cy) * (p.getY() - cy) +
+				(p.getZ() - cz) * (p.getZ() - cz);
+			if (d <= upperSq)
+			{
+				found[count] = found[n];
+				distanceSq[count] = d;
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the n-th atom found by the last query.
+	 */
+	public Atom getAtom(final int n)
+	{
+		return atoms[found[n]];
+	}
+
+	/**
+	 * Returns the squared distance of the n-th atom found by the last query.
+	 */
+	public double getDistanceSquared(final int n)
+	{
+		return distanceSq[n];
+	}
+}
@@ -90,8 +90,8 @@ public class InteractionGeometry extends DisplayListGeometry
 
 		lists[0].startDefine(0, gl, glu, glut);
 
-		final double[] firstPoint = line.getFirstAtom().coordinate;
-		final double[] secondPoint = line.getSecondAtom().coordinate;
+		final double[] firstPoint = line.getFirstAtom().getCoordinate();
+		final double[] secondPoint = line.getSecondAtom().getCoordinate();
 		
 		if(interactionStyle.lineStyle == LineStyle.DASHED || interactionStyle.lineStyle == LineStyle.DOTTED) {
 			gl.glEnable(GL2.GL_LINE_STIPPLE);
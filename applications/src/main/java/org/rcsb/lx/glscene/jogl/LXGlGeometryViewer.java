@@ -62,6 +62,7 @@ import javax.vecmath.Point3f;
 import javax.vecmath.Vector3f;
 
 import org.rcsb.lx.controllers.app.LigandExplorer;
+import org.rcsb.lx.controllers.scene.InteractionCalculator;
 import org.rcsb.lx.controllers.scene.LXViewMovementThread;
 import org.rcsb.lx.controllers.update.LXUpdateEvent;
 import org.rcsb.lx.model.Interaction;
@@ -196,7 +197,7 @@ public class LXGlGeometryViewer extends GlGeometryViewer implements IUpdateListe
 
 					String chainId = a.authorChain_id;
 					String resId = String.valueOf(a.authorResidue_id);
-					point = a.coordinate;
+					point = a.getCoordinate();
 					description = "Atom: "
 						+ (chainId == null ? "" : chainId + "/") + resId
 						+ "/" + a.number;
@@ -213,9 +214,9 @@ public class LXGlGeometryViewer extends GlGeometryViewer implements IUpdateListe
 					String resId2 = String.valueOf(a2.authorResidue_id);
 
 					point = new double[] {
-							(a1.coordinate[0] + a2.coordinate[0]) / 2,
-							(a1.coordinate[1] + a2.coordinate[1]) / 2,
-							(a1.coordinate[2] + a2.coordinate[2]) / 2 };
+							(a1.getX() + a2.getX()) / 2,
+							(a1.getY() + a2.getY()) / 2,
+							(a1.getZ() + a2.getZ()) / 2 };
 					description = "Bond: between atom "
 						+ (chainId1 == null ? "" : chainId1 + "/") + resId1
 						+ "/" + a1.number + " and atom "
@@ -235,7 +236,7 @@ public class LXGlGeometryViewer extends GlGeometryViewer implements IUpdateListe
 					if (a == null)
 						a = r.getAtom(r.getAtomCount() / 2);
 
-					point = a.coordinate;
+					point = a.getCoordinate();
 					description = "Residue: "
 						+ (chainId == null ? "" : chainId + "/") + resId
 						+ "/" + r.getCompoundCode();
@@ -807,13 +808,13 @@ public class LXGlGeometryViewer extends GlGeometryViewer implements IUpdateListe
 			if (residue == null) continue;
 			for (Atom atom_j : residue.getAtoms())
 			{
-				maxX = Math.max(atom_j.coordinate[0], maxX);
-				maxY = Math.max(atom_j.coordinate[1], maxY);
-				maxZ = Math.max(atom_j.coordinate[2], maxZ);
+				maxX = Math.max(atom_j.getX(), maxX);
+				maxY = Math.max(atom_j.getY(), maxY);
+				maxZ = Math.max(atom_j.getZ(), maxZ);
 
-				minX = Math.min(atom_j.coordinate[0], minX);
-				minY = Math.min(atom_j.coordinate[1], minY);
-				minZ = Math.min(atom_j.coordinate[2], minZ);
+				minX = Math.min(atom_j.getX(), minX);
+				minY = Math.min(atom_j.getY(), minY);
+				minZ = Math.min(atom_j.getZ(), minZ);
 			}
 		}
 
@@ -893,7 +894,7 @@ public class LXGlGeometryViewer extends GlGeometryViewer implements IUpdateListe
         Residue[] residues = LigandExplorer.sgetSceneController().getLigandResidues();	
 		for (Residue r: residues) {
 			for (Atom a: r.getAtoms()) {
-				samplePoints.add(new Point3f((float)a.coordinate[0], (float)a.coordinate[1], (float)a.coordinate[2]));
+				samplePoints.add(new Point3f((float)a.getX(), (float)a.getY(), (float)a.getZ()));
 			}
 		}
 		
@@ -1075,10 +1076,7 @@ public class LXGlGeometryViewer extends GlGeometryViewer implements IUpdateListe
 		}
 		
 		if (interactionsOut != null) {
-			interactionsOut.println(a.authorChain_id + ":" + a.authorResidue_id + ":" + a.compound
-					+ ":" + a.name + "\t" + b.authorChain_id + ":" + b.authorResidue_id + ":"
-					+ b.compound + ":" + b.name + "\t" + distString + "\t"
-					+ interactionType);
+			InteractionCalculator.writeInteraction(interactionsOut, a, b, interactionType, distString);
 			return;
 		}
 
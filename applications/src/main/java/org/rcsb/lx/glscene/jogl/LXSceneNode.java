@@ -483,11 +483,16 @@ public class LXSceneNode extends JoglSceneNode
 				gl2.glMultMatrixf(nc_transform);
 			}
 
+			final boolean drawImpostors = !isPick && this.impostors.isEnabled(gl);
+			if (drawImpostors)
+				this.impostors.begin();
+
 			synchronized (this.renderables)
 			{
 				for (final DisplayListRenderable renderable : renderables.values())
 				{
-					renderable.draw(gl, glu, glut, isPick);
+					if (!drawImpostors || !this.impostors.add(renderable, gl, glu, glut))
+						renderable.draw(gl, glu, glut, isPick);
 
 					// pick cycles do not need to finish, and paints get priority.
 					if (isPick && glViewer.needsRepaint) {
@@ -495,6 +500,9 @@ public class LXSceneNode extends JoglSceneNode
 						return false;
 					}
 				}
+
+				if (drawImpostors)
+					this.impostors.draw(gl);
 			}
 
 			if (!isPick)
@@ -674,11 +682,11 @@ public class LXSceneNode extends JoglSceneNode
 				try {
 					gl2.glPushMatrix();
 
-					for (int i = 0; i < line.getFirstAtom().coordinate.length; i++)
+					for (int i = 0; i < 3; i++)
 					{
 						this.tempMidpoint[i] = (line
-								.getFirstAtom().coordinate[i] + line
-								.getSecondAtom().coordinate[i]) / 2;
+								.getFirstAtom().getCoordinate(i) + line
+								.getSecondAtom().getCoordinate(i)) / 2;
 					}
 					if (! Double.isNaN(tempMidpoint[0])) {
 						gl2.glTranslated(this.tempMidpoint[0] + LABEL_DISPLACEMENT,
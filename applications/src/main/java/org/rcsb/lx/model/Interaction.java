@@ -75,8 +75,8 @@ public class Interaction extends LineSegment {
 						// extended ComponentType
 
 	public Interaction(final Atom fAtom, final Atom sAtom, final String interactionType, final String distance, final double distanceDouble) {
-		super(new Point3d(fAtom.coordinate[0], fAtom.coordinate[1], fAtom.coordinate[2]),
-			  new Point3d(sAtom.coordinate[0], sAtom.coordinate[1], sAtom.coordinate[2]));
+		super(new Point3d(fAtom.getX(), fAtom.getY(), fAtom.getZ()),
+			  new Point3d(sAtom.getX(), sAtom.getY(), sAtom.getZ()));
 		this.firstAtom = fAtom;
 		this.secondAtom = sAtom;
 		this.interactionType = interactionType;
@@ -47,12 +47,14 @@ package org.rcsb.lx.model;
 
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.Vector;
 import java.awt.Color;
 
 import org.rcsb.lx.model.Interaction;
+import org.rcsb.mbt.model.Atom;
 import org.rcsb.mbt.model.Residue;
 import org.rcsb.mbt.model.StructureMap;
 
@@ -79,6 +81,24 @@ public class InteractionMap {
      */
     private final HashMap interactionsByResidue = new HashMap();
     
+    /* Data structure:
+     *   HashMap contactsByResidue
+     *   key: Residue r
+     *   value: HashMap {
+     *     key: Atom a
+     *     value: Integer mask of the *_BIT interaction types between r and a
+     *   }
+     * Only the residue/atom pairs that actually have interactions are stored, so
+     * the contact map can be drawn in time proportional to the number of contacts.
+     */
+    private final HashMap<Residue, HashMap<Atom, Integer>> contactsByResidue = new HashMap<Residue, HashMap<Atom, Integer>>();
+    
+    // interaction type bits used in the contact masks.
+    public static final int HYDROGEN_BOND_BIT = 1;
+    public static final int HYDROPHOBIC_BIT = 2;
+    public static final int METAL_BIT = 4;
+    public static final int WATER_MEDIATED_BIT = 8;
+    
 //    private HashMap colorsByInteractionType = new HashMap();
     private final HashMap defaultColorsByInteractionType = new HashMap();
     
@@ -176,11 +196,53 @@ public class InteractionMap {
         
         else
             v.add(ia);
+        
+        final int typeBit = InteractionMap.getTypeBit(ia.getInteractionType());
+        if(typeBit != 0) {
+            this.putContact(firstResidue, ia.getFirstAtom(), typeBit);
+            this.putContact(firstResidue, ia.getSecondAtom(), typeBit);
+            if(secondResidue != firstResidue) {
+                this.putContact(secondResidue, ia.getFirstAtom(), typeBit);
+                this.putContact(secondResidue, ia.getSecondAtom(), typeBit);
+            }
+        }
+    }
+    
+    private void putContact(final Residue r, final Atom a, final int typeBit) {
+        HashMap<Atom, Integer> contacts = this.contactsByResidue.get(r);
+        if(contacts == null) {
+            contacts = new HashMap<Atom, Integer>();
+            this.contactsByResidue.put(r, contacts);
+        }
+        
+        final Integer mask = contacts.get(a);
+        contacts.put(a, Integer.valueOf(mask == null ? typeBit : mask.intValue() | typeBit));
+    }
+    
+    /**
+     * @return the *_BIT constant for the interaction type, or 0 for types which
+     * aren't shown in the contact map.
+     */
+    public static int getTypeBit(final String type) {
+        if(InteractionConstants.hydrogenBondType.equals(type)) {
+            return InteractionMap.HYDROGEN_BOND_BIT;
+        }
+        if(InteractionConstants.hydrophobicType.equals(type)) {
+            return InteractionMap.HYDROPHOBIC_BIT;
+        }
+        if(InteractionConstants.metalInteractionType.equals(type)) {
+            return InteractionMap.METAL_BIT;
+        }
+        if(InteractionConstants.waterMediatedType.equals(type)) {
+            return InteractionMap.WATER_MEDIATED_BIT;
+        }
+        return 0;
     }
     
     public void clear() {
         this.interactionsByType.clear();
         this.interactionsByResidue.clear();
+        this.contactsByResidue.clear();
         this.selectedTypes.clear();
     }
     
@@ -211,6 +273,15 @@ public class InteractionMap {
         return (Vector)this.interactionsByResidue.get(r);
     }
     
+    /**
+     * @return the atoms in contact with the residue, mapped to the Integer mask
+     * of their interaction types (see the *_BIT constants), or null if the
+     * residue has no interactions.
+     */
+    public Map<Atom, Integer> getContacts(final Residue r) {
+        return this.contactsByResidue.get(r);
+    }
+    
     // returns an array of the type descriptions (Strings).
     public Object[] getInteractionTypes() {
         return this.interactionsByType.keySet().toArray();
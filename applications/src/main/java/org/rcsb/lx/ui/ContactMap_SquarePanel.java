@@ -59,6 +59,8 @@ import java.awt.geom.RoundRectangle2D;
 import java.awt.image.BufferedImage;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Vector;
 
 import javax.swing.BorderFactory;
@@ -66,12 +68,12 @@ import javax.swing.JPanel;
 
 import org.rcsb.lx.controllers.app.LigandExplorer;
 import org.rcsb.lx.glscene.jogl.ResidueFontInfo;
-import org.rcsb.lx.model.Interaction;
 import org.rcsb.lx.model.InteractionConstants;
 import org.rcsb.lx.model.InteractionMap;
 import org.rcsb.lx.model.LXModel;
 import org.rcsb.lx.ui.ContactMap_ContactingResiduesPane.ResidueRange;
 import org.rcsb.lx.ui.ContactMap_LigandAtomsPane.AtomRange;
+import org.rcsb.mbt.model.Atom;
 import org.rcsb.mbt.model.util.Status;
 
 
@@ -168,81 +170,93 @@ public class ContactMap_SquarePanel extends JPanel implements MouseListener, Mou
 			final int outerPadding = 0;
 			final int innerPadding = 2;
 			
+			// every cell gets a black background. A column of cells only depends
+			// on its width, so each width is painted once with a reused shape and
+			// copied to the other columns of the same width...
+			buf.setColor(Color.black);
+			final RoundRectangle2D.Float border = new RoundRectangle2D.Float();
+			final HashMap<Integer, Integer> paintedColumnsByWidth = new HashMap<Integer, Integer>();
+			for(int i = 0; i < resCount; i++) {
+				final ResidueRange resRange = (ResidueRange)residueRanges.get(i);
+				final int startRectangleX = resRange.startX + outerPadding;
+				final int rectWidth = resRange.endX - outerPadding - startRectangleX;
+				
+				final Integer paintedX = paintedColumnsByWidth.get(Integer.valueOf(rectWidth));
+				if(paintedX != null) {
+					buf.copyArea(paintedX.intValue(), 0, rectWidth, this.image.getHeight(), startRectangleX - paintedX.intValue(), 0);
+					continue;
+				}
+				paintedColumnsByWidth.put(Integer.valueOf(rectWidth), Integer.valueOf(startRectangleX));
+				
+				for(int j = 0; j < atomCount; j++) {
+					final AtomRange atomRange = (AtomRange)atomRanges.get(j);
+					final int startRectangleY = atomRange.startY + outerPadding;
+					final int rectHeight = atomRange.endY - outerPadding - startRectangleY;
+					
+					border.setRoundRect( 
+							startRectangleX, startRectangleY, 
+							rectWidth, rectHeight, 
+						    3f, 3f);
+					buf.fill(border);
+				}
+			}
+			
+			// ...but indicators are only drawn for the residue/atom pairs in the contact index.
+			final HashMap<Atom, AtomRange> atomRangesByAtom = new HashMap<Atom, AtomRange>();
+			for(int j = 0; j < atomCount; j++) {
+				final AtomRange atomRange = (AtomRange)atomRanges.get(j);
+				atomRangesByAtom.put(atomRange.atom, atomRange);
+			}
+			
 			for(int i = 0; i < resCount; i++) {
 				final ResidueRange resRange = (ResidueRange)residueRanges.get(i);
 				
+				final Map<Atom, Integer> contacts = im.getContacts(resRange.residue);
+				if(contacts == null) {
+					continue;
+				}
+				
 				final int startRectangleX = resRange.startX + outerPadding;
 				final int endRectangleX = resRange.endX - outerPadding;
-				final int rectWidth = endRectangleX - startRectangleX;
 				final int startIndicatorsX = startRectangleX + innerPadding;
 				final int endIndicatorsX = endRectangleX - innerPadding;
 				final int indicatorsWidth = endIndicatorsX - startIndicatorsX;
 				
-				final Vector interactions = im.getInteractions(resRange.residue);
-				final int interCount = interactions.size();
-				
-				for(int j = 0; j < atomCount; j++) {
-					final AtomRange atomRange = (AtomRange)atomRanges.get(j);
+				for(Map.Entry<Atom, Integer> contact : contacts.entrySet()) {
+					final AtomRange atomRange = atomRangesByAtom.get(contact.getKey());
+					if(atomRange == null) {
+						continue;
+					}
+					final int types = contact.getValue().intValue();
 					
 					final int startRectangleY = atomRange.startY + outerPadding;
 					final int endRectangleY = atomRange.endY - outerPadding;
 					final int startIndicatorsY = startRectangleY + innerPadding;
 					final int endIndicatorsY = endRectangleY - innerPadding;
-					final int rectHeight = endRectangleY - startRectangleY;
 					final int indicatorsHeight = endIndicatorsY - startIndicatorsY;
 					final double interactionTypeIndicatorHeight = indicatorsHeight / 5d;
 					final int interactionTypeIndicatorHeightInt = (int)interactionTypeIndicatorHeight;
 					
-					boolean hasHydrophilic = false, hasHydrophobic = false, hasMetal = false, hasBridgedH2O = false, hasOther = false;
-					for(int k = 0; k < interCount; k++) {
-						final Interaction inter = (Interaction)interactions.get(k);
-						if(inter.getFirstAtom() == atomRange.atom || inter.getSecondAtom() == atomRange.atom) {
-							if(inter.getInteractionType() == InteractionConstants.hydrogenBondType) {
-								hasHydrophilic = true;
-							} else if(inter.getInteractionType() == InteractionConstants.hydrophobicType) {
-								hasHydrophobic = true;
-							} else if(inter.getInteractionType() == InteractionConstants.metalInteractionType) {
-								hasMetal = true;
-							} else if(inter.getInteractionType() == InteractionConstants.metalInteractionType) {
-								hasOther = true;
-							} else if(inter.getInteractionType() == InteractionConstants.waterMediatedType) {
-								hasBridgedH2O = true;
-							}
-						}
-					}
-					
-					buf.setColor(Color.black);
-					final RoundRectangle2D.Float border = new RoundRectangle2D.Float( 
-							startRectangleX, startRectangleY, 
-							rectWidth, rectHeight, 
-						    3f, 3f);
-					buf.fill(border);
-					
 					int tmpY = startIndicatorsY;
-					if(hasMetal) {
+					if((types & InteractionMap.METAL_BIT) != 0) {
 						buf.setColor(InteractionConstants.metalInteractionColor);
 						buf.fillRect(startIndicatorsX, tmpY, indicatorsWidth, interactionTypeIndicatorHeightInt);
 					}
 					tmpY = (int)(startIndicatorsY + interactionTypeIndicatorHeight);
-					if(hasHydrophilic) {
+					if((types & InteractionMap.HYDROGEN_BOND_BIT) != 0) {
 						buf.setColor(InteractionConstants.hydrogenBondColor);
 						buf.fillRect(startIndicatorsX, tmpY, indicatorsWidth, interactionTypeIndicatorHeightInt);
 					}
 					tmpY = (int)(startIndicatorsY + interactionTypeIndicatorHeight * 2);
-					if(hasHydrophobic) {
+					if((types & InteractionMap.HYDROPHOBIC_BIT) != 0) {
 						buf.setColor(InteractionConstants.hydrophobicBondColor);
 						buf.fillRect(startIndicatorsX, tmpY, indicatorsWidth, interactionTypeIndicatorHeightInt);
 					}
 					tmpY = (int)(endIndicatorsY - interactionTypeIndicatorHeight * 2);
-					if(hasBridgedH2O) {
+					if((types & InteractionMap.WATER_MEDIATED_BIT) != 0) {
 						buf.setColor(InteractionConstants.waterMediatedColor);
 						buf.fillRect(startIndicatorsX, tmpY, indicatorsWidth, interactionTypeIndicatorHeightInt);
 					}
-					tmpY = (int)(endIndicatorsY - interactionTypeIndicatorHeight);
-					if(hasOther) {
-						buf.setColor(InteractionConstants.metalInteractionColor);
-						buf.fillRect(startIndicatorsX, tmpY, indicatorsWidth, endIndicatorsY - tmpY);
-					}
 				}
 			}
 		}
@@ -242,7 +242,7 @@ public class LinesMutator extends MutatorBase
 			if (scType == ComponentType.ATOM) {
 				final Atom atom = (Atom) structureComponent;
 
-				System.arraycopy(atom.coordinate, 0, coordinates, 0, atom.coordinate.length);
+				atom.getCoordinate(coordinates);
 			} else if (scType == ComponentType.BOND) {
 				final Bond bond = (Bond) structureComponent;
 
@@ -250,8 +250,8 @@ public class LinesMutator extends MutatorBase
 				final Atom a2 = bond.getAtom(1);
 
 				// the point half way along the bond.
-				for(int i = 0; i < a1.coordinate.length; i++) {
-					coordinates[i] = (a1.coordinate[i] + a2.coordinate[i]) / 2;
+				for(int i = 0; i < 3; i++) {
+					coordinates[i] = (a1.getCoordinate(i) + a2.getCoordinate(i)) / 2;
 				}
 			} else if (scType == ComponentType.RESIDUE) {
 				final Residue r = (Residue) structureComponent;
@@ -104,7 +104,7 @@ public class ReCenterMutator extends MutatorBase
 	}	
 	
 	private void changeCenter(final Atom a) {
-    	VFAppBase.sgetGlGeometryViewer().lookAt(a.coordinate);
+    	VFAppBase.sgetGlGeometryViewer().lookAt(a.getCoordinate());
     }
     
     private void changeCenter(final Bond b) {
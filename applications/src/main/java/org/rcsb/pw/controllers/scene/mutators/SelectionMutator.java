@@ -130,9 +130,7 @@ public class SelectionMutator extends MutatorBase {
 						start = prevIndex;
 						end = curIndex;
 					}
-					for(int i = start; i <= end; i++) {
-						ss.setSelected(sm.getAtom(i), true);						
-					}
+					ss.setSelected(sm.getAtoms().subList(start, end + 1), true);
 				} else {	// act as if nothing is down...
 					ss.setSelected(a, true);
 				}
@@ -169,9 +167,7 @@ public class SelectionMutator extends MutatorBase {
 					final int start = Math.min(b1a1Index, Math.min(b1a2Index, Math.min(b2a1Index, b2a2Index)));
 					final int end = Math.max(b1a1Index, Math.max(b1a2Index, Math.max(b2a1Index, b2a2Index)));
 					
-					for(int i = start; i <= end; i++) {
-						ss.setSelected(sm.getAtom(i), true);						
-					}
+					ss.setSelected(sm.getAtoms().subList(start, end + 1), true);
 				} else {	// act as if nothing is down...
 					ss.setSelected(b, true);
 				}
@@ -204,9 +200,7 @@ public class SelectionMutator extends MutatorBase {
 						start = prevIndex;
 						end = curIndex;
 					}
-					for(int i = start; i <= end; i++) {
-						ss.setSelected(sm.getResidue(i), true);						
-					}
+					ss.setSelected(sm.getResidues().subList(start, end + 1), true);
 				} else {	// act as if nothing is down...
 					ss.setSelected(r, true);
 				}
@@ -239,9 +233,7 @@ public class SelectionMutator extends MutatorBase {
 						start = prevIndex;
 						end = curIndex;
 					}
-					for(int i = start; i <= end; i++) {
-						ss.setSelected(sm.getChain(i), true);						
-					}
+					ss.setSelected(sm.getChains().subList(start, end + 1), true);
 				} else {	// act as if nothing is down...
 					ss.setSelected(c, true);
 				}
@@ -279,9 +271,7 @@ public class SelectionMutator extends MutatorBase {
 						start = prevIndex;
 						end = curIndex;
 					}
-					for(int i = start; i <= end; i++) {
-						ss.setSelected(sm.getFragment(i), true);						
-					}
+					ss.setSelected(sm.getFragments().subList(start, end + 1), true);
 				} else {	// act as if nothing is down...
 					ss.setSelected(f, true);
 				}
@@ -97,6 +97,8 @@ public class SurfacePanel extends JPanel implements IUpdateListener
 	private final JLabel colorLabel = new JLabel("Color by");
 	private final String[] surfaceOptions = {"Chain", "Entity", "Single color", "Hydrophobicity"};
 	private JComboBox surfaceColorType;
+	// true while the lazily created surfaces are calculated
+	private boolean creatingSurfaces = false;
 	
 	JPanel firstPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
 
@@ -172,19 +174,20 @@ public class SurfacePanel extends JPanel implements IUpdateListener
 				Structure structure = AppBase.sgetModel().getStructures().get(0);
 
 				System.out.println("Slider is adjusting");
-				// lazy initialization of the surface
-				boolean newSurface = false;
+				float transparency = ((int)source.getValue()) * 1.0f/TRANSPARENCY_MAX;
+
+				// lazy initialization of the surface. The surfaces are calculated
+				// in the background and shown one by one as they are added.
 				if (structure.getStructureMap().getSurfaceCount() == 0) {
-					SurfaceThread thread = new SurfaceThread();	
-					// can't run this as a thread since transparency needs to be updated
-					// and surfaceRemoved/Added needs to be called.
-					// thread.start();
-					thread.createSurface();
-					newSurface = true;
+					if (!creatingSurfaces && transparency > 0.05f) {
+						creatingSurfaces = true;
+						SurfaceThread thread = new SurfaceThread();	
+						thread.createSurface(new SurfaceCreationListener());
+					}
+					return;
 				}
 
 				float currentTransparency = 1.0f;
-				float transparency = ((int)source.getValue()) * 1.0f/TRANSPARENCY_MAX;
 				for (Surface s: structure.getStructureMap().getSurfaces()) {
 					Color4f[] colors = s.getColors();
 					if (colors != null && colors.length > 0) {
@@ -195,7 +198,7 @@ public class SurfacePanel extends JPanel implements IUpdateListener
 
 				if (currentTransparency > 0.05f && transparency <= 0.05) {
 					ProteinWorkshop.sgetGlGeometryViewer().surfaceRemoved(structure);
-				} else if (newSurface || currentTransparency <= 0.05f && transparency > 0.05f) {
+				} else if (currentTransparency <= 0.05f && transparency > 0.05f) {
 					if (surfaceColorType == null) {
 						addComboBox();
 					}
@@ -211,6 +214,28 @@ public class SurfacePanel extends JPanel implements IUpdateListener
 		}
 	}
 
+	/**
+	 * Shows the lazily created surfaces with the transparency of the slider
+	 * as they are added.
+	 */
+	private class SurfaceCreationListener implements SurfaceThread.SurfaceListener {
+
+		public void surfaceAdded(Structure structure, Surface surface) {
+			float transparency = ((int)transparencySlider.getValue()) * 1.0f/TRANSPARENCY_MAX;
+			SurfaceColorUpdater.setSurfaceTransparency(surface, transparency);
+			if (transparency > 0.05f) {
+				if (surfaceColorType == null) {
+					addComboBox();
+				}
+				ProteinWorkshop.sgetGlGeometryViewer().surfaceAdded(structure, surface);
+			}
+		}
+
+		public void surfacesCreated(Structure structure) {
+			creatingSurfaces = false;
+		}
+	}
+
 	private class SurfaceTypeListener implements ActionListener {
 
 		public void actionPerformed(ActionEvent e) {
@@ -257,8 +257,8 @@ TreeSelectionListener, IStructureStylesEventListener, MouseListener
 					final Atom atom = (Atom) structureComponent;
 					componentText = atom.number + " " + atom.name;
 					imageIcon = this.atomIcon;
-					// setToolTipText( atom.coordinate[0] + ", " +
-					// atom.coordinate[1] + ", " + atom.coordinate[2] );
+					// setToolTipText( atom.getX() + ", " +
+					// atom.getY() + ", " + atom.getZ() );
 
 					// If atom is visible, draw text black else lightGray.
 					// StructureMap structureMap =
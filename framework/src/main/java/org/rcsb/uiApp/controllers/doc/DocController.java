@@ -68,6 +68,23 @@ public class DocController
 {
 	private String initialBiologicalUnitId = null; 
 
+	// time spent by the last readStructuresFromUrl() call
+	private long readNanos = 0;
+	private long structureMapNanos = 0;
+
+	/**
+	 * @return the time the last readStructuresFromUrl() call spent reading
+	 *         the files, in nanoseconds.
+	 */
+	public long getReadNanos() { return this.readNanos; }
+
+	/**
+	 * @return the time the last readStructuresFromUrl() call spent creating
+	 *         the structure maps (bonds, secondary structure, ...), in
+	 *         nanoseconds.
+	 */
+	public long getStructureMapNanos() { return this.structureMapNanos; }
+
 	/**
 	 * This is used by the StructureXMLHandler - nothing seems to set it, though...
 	 * 
@@ -95,12 +112,33 @@ public class DocController
 		if (url == null)
 			; // stick up an error message box?
 
+		clearStructures();
+
+		Structure[] structure = readStructuresFromUrl(url);
+		addStructures(structure, pdbId);
+		
+	}
+
+	/**
+	 * Replaces the current structures with structures that were read ahead of
+	 * time by readStructuresFromUrl(), e.g. on a background thread.
+	 */
+	public void setStructures(final Structure[] structure, final String pdbId)
+	{
+		clearStructures();
+		addStructures(structure, pdbId);
+	}
+
+	private void clearStructures()
+	{
 		AppBase.sgetUpdateController().clear();
 
 		AppBase.sgetUpdateController().fireUpdateViewEvent(UpdateEvent.Action.STRUCTURE_REMOVED);
 		AppBase.sgetUpdateController().fireUpdateViewEvent(UpdateEvent.Action.VIEW_UPDATE);
+	}
 
-		Structure[] structure = readStructuresFromUrl(url);
+	private void addStructures(final Structure[] structure, final String pdbId)
+	{
 		if (structure != null)
 		{
 			if (pdbId != null && structure.length == 1)
@@ -108,7 +146,6 @@ public class DocController
 
 			AppBase.sgetModel().setStructures(structure);
 		}
-		
 	}
 	
 
@@ -122,6 +159,7 @@ public class DocController
 	{
 		final Vector<Structure> structuresVec = new Vector<Structure>();
 		Structure structureTmp = null;
+		this.readNanos = this.structureMapNanos = 0;
 
 		final String[] datasets = structureUrlParam.split(",");
 		for (int i = 0; i < datasets.length; i++)
@@ -131,6 +169,7 @@ public class DocController
 				datasets[i] = datasets[i].trim();
 				final String dataset = datasets[i];
 				IFileStructureLoader loader = null;
+				final long readStart = System.nanoTime();
 
 				if (dataset.endsWith(".xml.gz") || dataset.endsWith(".xml"))
 				{
@@ -172,12 +211,15 @@ public class DocController
 				else
 					System.out.println("Data set loaded: " + dataset);
 
+				final long structureMapStart = System.nanoTime();
+				this.readNanos += structureMapStart - readStart;
 				new StructureMap(structureTmp, loader.getEntityNameMap(), AppBase.sgetAppModuleFactory().createStructureMapUserData());
 				finalizeNewStructure(loader, structureTmp);
 
 				if (loader.getUnitCell() != null)
 					structureTmp.getStructureMap().setUnitCell(loader.getUnitCell());
 
+				this.structureMapNanos += System.nanoTime() - structureMapStart;
 				structuresVec.add(structureTmp);			
 			}
 
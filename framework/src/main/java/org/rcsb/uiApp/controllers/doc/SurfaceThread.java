@@ -47,10 +47,23 @@ package org.rcsb.uiApp.controllers.doc;
 
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
+import javax.vecmath.Matrix4d;
+import javax.vecmath.Matrix4f;
+import javax.vecmath.Point3d;
 import javax.vecmath.Point3f;
 import javax.vecmath.Vector3f;
 
@@ -68,10 +81,12 @@ import org.rcsb.mbt.model.attributes.AtomRadiusRegistry;
 import org.rcsb.mbt.model.attributes.IAtomRadius;
 import org.rcsb.mbt.model.attributes.SurfaceColorUpdater;
 import org.rcsb.mbt.model.geometry.ModelTransformationList;
+import org.rcsb.mbt.model.geometry.SuperPosition;
 import org.rcsb.mbt.model.util.Status;
 import org.rcsb.mbt.surface.BindingSiteSurfaceOrienter;
 import org.rcsb.mbt.surface.EdtMolecularSurface;
 import org.rcsb.mbt.surface.SurfaceCalculator;
+import org.rcsb.mbt.surface.core.EdtSurfaceCalculator;
 import org.rcsb.mbt.surface.datastructure.Sphere;
 import org.rcsb.mbt.surface.datastructure.TriangulatedSurface;
 import org.rcsb.mbt.surface.gamer.ImproveMesh;
@@ -92,11 +107,72 @@ import org.rcsb.uiApp.controllers.update.UpdateEvent;
 	private static float DISTANCE_THRESHOLD = 6.5f;
 	private boolean drawLines = false;
 	private boolean drawDots = false;
+	private static int threadCount = 1;
+	private static long memoryBudget = Runtime.getRuntime().maxMemory() / 2;
+	private static boolean shareEntitySurfaces = false;
+	private static float maxSharedSurfaceRmsd = 1.0f;
 	
+	/**
+	 * Calculates the polymer chain surfaces of the first structure and adds
+	 * them to its structure map. Returns when all surfaces have been added.
+	 */
 	public void createSurface() {
+		Structure structure = AppBase.sgetModel().getStructures().get(0);
+		long t0 = System.nanoTime();
+		// create progress bar
+		ProgressPanelController.StartProgress(AppBase.sgetActiveFrame());
+		try {
+			calculateSurfaces(structure, null);
+		} finally {
+			ProgressPanelController.EndProgress();
+		}
+		long t5 = System.nanoTime();
+		System.out.println("Surface calculation: " + (t5-t0)/1000000 + " ms");
+		AppBase.sgetUpdateController().fireUpdateViewEvent(UpdateEvent.Action.VIEW_UPDATE); 
+	}
+
+	/**
+	 * Calculates the polymer chain surfaces of the first structure on a
+	 * background thread and returns immediately, so it can be called from the
+	 * event dispatch thread. Each finished surface is added to the structure
+	 * map on the event dispatch thread and passed to the listener, so the
+	 * surfaces appear while other chains are still being calculated.
+	 */
+	public void createSurface(final SurfaceListener listener) {
+		final Structure structure = AppBase.sgetModel().getStructures().get(0);
+		final long t0 = System.nanoTime();
+		// create progress bar
+		ProgressPanelController.StartProgress(AppBase.sgetActiveFrame());
+
+		Thread thread = new Thread(new Runnable() {
+			public void run() {
+				try {
+					calculateSurfaces(structure, listener);
+				} finally {
+					// runs after all surfaces queued by calculateSurfaces()
+					SwingUtilities.invokeLater(new Runnable() {
+						public void run() {
+							ProgressPanelController.EndProgress();
+							long t5 = System.nanoTime();
+							System.out.println("Surface calculation: " + (t5-t0)/1000000 + " ms");
+							listener.surfacesCreated(structure);
+							AppBase.sgetUpdateController().fireUpdateViewEvent(UpdateEvent.Action.VIEW_UPDATE);
+						}
+					});
+				}
+			}
+		}, "SurfaceThread");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Calculates the chain surfaces and adds them, either directly or on the
+	 * event dispatch thread if a listener is given.
+	 */
+	private void calculateSurfaces(Structure structure, SurfaceListener listener) {
 		IAtomRadius registry = AtomRadiusRegistry.get("By CPK");
 		
-		Structure structure = AppBase.sgetModel().getStructures().get(0);
 		StructureMap smap = structure.getStructureMap();	
 		List<Chain> polymerChains = getPolymerChains();
 		float resolution = calcResolution(polymerChains);	
@@ -104,67 +180,340 @@ import org.rcsb.uiApp.controllers.update.UpdateEvent;
 			resolution *= 0.75f;
 		}
 		
-		long t0 = System.nanoTime();
-		// create progress bar
-		ProgressPanelController.StartProgress(AppBase.sgetActiveFrame());
 		Status.progress(0, "Creating surfaces");
 		
+		List<ChainSurfaceTask> tasks = new ArrayList<ChainSurfaceTask>();
 		for (Chain c: polymerChains) {
-			List<Sphere> spheres = new ArrayList<Sphere>();
-			Vector<Residue> residues = c.getResidues();
-			
-			// TODO How to deal with non-standard residues in a polymer?
-			for (Residue r: residues) {
-				if (r.getClassification().equals(Classification.AMINO_ACID) ||
-						r.getClassification().equals(Classification.NUCLEIC_ACID)) {
-					Vector<Atom> atoms = r.getAtoms();
-					for (Atom a: atoms) {
-						double[] coord = a.coordinate;
-						Point3f location = new Point3f((float)coord[0], (float)coord[1], (float)coord[2]);
-						float radius = registry.getAtomRadius(a);
-						// enlarge spheres by 10% to avoid that helices touch the surface
-						spheres.add(new Sphere(location, radius *1.1f, a));
-					}
-				}
-			}
+			List<Sphere> spheres = getChainSpheres(c, registry);
 			// TODO should there be a size cutoff? I.e. min 24 residues?
 			if (spheres.size() == 0) {
 				continue;
 			};
-	
-			// calculate molecular surface
-//			System.out.println("Resolution: " + resolution);
-			
-			SurfaceCalculator s = new EdtMolecularSurface(spheres, PROBE_RADIUS, resolution);
-			TriangulatedSurface ts = s.getSurface();
-			s = null; // this is a very large object that should be garbage collected ASAP
+			// colors are assigned in chain order
+			tasks.add(new ChainSurfaceTask(c, spheres, resolution, smap.getSurfaceCount() + tasks.size()));
+		}
+		if (isShareEntitySurfaces()) {
+			tasks = shareEntitySurfaces(tasks);
+		}
 
-			// smooth surface
-//			System.out.println("Surface area before smoothing: " + ts.getSurfaceArea());
-			ts.laplaciansmooth(1);
-		//	ts.laplacianEdgeSmooth(1, resolution*4);
-//			System.out.println("Surface area after smoothing:  " + ts.getSurfaceArea());
-		//	ImproveMesh.Coarse(ts, 1);
-			Surface surface = new Surface(c, structure);
-			surface.setTriangulatedSurface(ts);
-			surface.setMeshSurface(drawLines);
-			surface.setDotSurface(drawDots);
-			
-			// set default surface color
-			SurfaceColorUpdater.setPaletteColor(surface, ColorBrewer.BrBG, polymerChains.size(), smap.getSurfaceCount());
+		int threads = getThreadCount();
+		if (threads > 1 && tasks.size() > 1) {
+			createSurfacesConcurrently(structure, tasks, polymerChains.size(), threads, listener);
+		} else {
+			for (ChainSurfaceTask task: tasks) {
+				surfaceCompleted(structure, task, task.call(), polymerChains.size(), listener);
+			}
+		}
+	}
 
-			smap.addSurface(surface);
-			
-			// update progress bar
-			Status.progress(((int)(100* smap.getSurfaceCount()/(float)polymerChains.size())), "Creating surfaces");
-			
-			AppBase.sgetUpdateController().fireUpdateViewEvent(UpdateEvent.Action.SURFACE_ADDED, surface); // has no effect
-	//		AppBase.sgetUpdateController().fireUpdateViewEvent(UpdateEvent.Action.VIEW_UPDATE); 
+	/**
+	 * Calculates the chain surfaces on a pool of worker threads. A chain is
+	 * only started while the estimated memory of all running calculations
+	 * stays within the memory budget, since each calculation allocates a large
+	 * voxel grid. Finished surfaces are passed to surfaceCompleted() in the
+	 * order they complete, while the other chains are still running.
+	 */
+	private void createSurfacesConcurrently(Structure structure, List<ChainSurfaceTask> tasks, int chainCount, int threads, SurfaceListener listener) {
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, tasks.size()));
+		CompletionService<TriangulatedSurface> completion = new ExecutorCompletionService<TriangulatedSurface>(executor);
+		Map<Future<TriangulatedSurface>, ChainSurfaceTask> running = new HashMap<Future<TriangulatedSurface>, ChainSurfaceTask>();
+		long memoryInUse = 0;
+		int next = 0;
+
+		try {
+			while (next < tasks.size() || !running.isEmpty()) {
+				// start as many chains as the memory budget allows, but always at least one
+				while (next < tasks.size() && running.size() < threads) {
+					ChainSurfaceTask task = tasks.get(next);
+					if (!running.isEmpty() && memoryInUse + task.memory > memoryBudget) {
+						break;
+					}
+					running.put(completion.submit(task), task);
+					memoryInUse += task.memory;
+					next++;
+				}
+
+				Future<TriangulatedSurface> done = completion.take();
+				ChainSurfaceTask task = running.remove(done);
+				memoryInUse -= task.memory;
+				surfaceCompleted(structure, task, done.get(), chainCount, listener);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			Status.output(Status.LEVEL_WARNING, "Surface calculation interrupted");
+		} catch (ExecutionException e) {
+			throw new RuntimeException(e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Adds a finished chain surface. Without a listener it is added on the
+	 * calling thread, otherwise it is handed to the event dispatch thread,
+	 * which owns the structure map and the scene.
+	 */
+	private void surfaceCompleted(final Structure structure, final ChainSurfaceTask task, final TriangulatedSurface ts, final int chainCount, final SurfaceListener listener) {
+		if (listener == null) {
+			addChainSurface(structure, task, ts, chainCount, null);
+			return;
+		}
+		SwingUtilities.invokeLater(new Runnable() {
+			public void run() {
+				// the structure may have been closed during the calculation
+				if (isLoaded(structure)) {
+					addChainSurface(structure, task, ts, chainCount, listener);
+				}
+			}
+		});
+	}
+
+	private static boolean isLoaded(Structure structure) {
+		return AppBase.sgetModel().getStructures().contains(structure);
+	}
+
+	/**
+	 * Calculates the molecular surface of one chain and smooths it. Does not
+	 * modify the structure, so it can run on a worker thread.
+	 */
+	private static TriangulatedSurface calcChainSurface(List<Sphere> spheres, float resolution) {
+		// calculate molecular surface
+		SurfaceCalculator s = new EdtMolecularSurface(spheres, PROBE_RADIUS, resolution);
+		TriangulatedSurface ts = s.getSurface();
+		s = null; // this is a very large object that should be garbage collected ASAP
+
+		// smooth surface
+		ts.laplaciansmooth(1);
+	//	ts.laplacianEdgeSmooth(1, resolution*4);
+	//	ImproveMesh.Coarse(ts, 1);
+		return ts;
+	}
+
+	/**
+	 * Adds the surface of a chain and the transformed copies that share it to
+	 * the structure map.
+	 */
+	private void addChainSurface(Structure structure, ChainSurfaceTask task, TriangulatedSurface ts, int chainCount, SurfaceListener listener) {
+		addChainSurface(structure, task.chain, ts, null, chainCount, task.colorIndex, listener);
+		for (ChainSurfaceTask copy: task.copies) {
+			addChainSurface(structure, copy.chain, ts, copy.transformation, chainCount, copy.colorIndex, listener);
+		}
+	}
+
+	/**
+	 * Adds the surface of a chain to the structure map and notifies the views
+	 * and the listener, if any.
+	 */
+	private void addChainSurface(Structure structure, Chain c, TriangulatedSurface ts, Matrix4f transformation, int chainCount, int colorIndex, SurfaceListener listener) {
+		StructureMap smap = structure.getStructureMap();
+		Surface surface = new Surface(c, structure);
+		surface.setTriangulatedSurface(ts);
+		surface.setTransformation(transformation);
+		surface.setMeshSurface(drawLines);
+		surface.setDotSurface(drawDots);
+		
+		// set default surface color
+		SurfaceColorUpdater.setPaletteColor(surface, ColorBrewer.BrBG, chainCount, colorIndex);
+
+		smap.addSurface(surface);
+		
+		// update progress bar
+		Status.progress(((int)(100* smap.getSurfaceCount()/(float)chainCount)), "Creating surfaces");
+		
+		AppBase.sgetUpdateController().fireUpdateViewEvent(UpdateEvent.Action.SURFACE_ADDED, surface); // has no effect
+		if (listener != null) {
+			listener.surfaceAdded(structure, surface);
+		}
+//		AppBase.sgetUpdateController().fireUpdateViewEvent(UpdateEvent.Action.VIEW_UPDATE); 
+	}
+
+	/**
+	 * Groups the chains by entity and sequence and superposes each chain onto
+	 * the first chain of its group. Chains that superpose within the RMSD
+	 * threshold are removed from the task list and reuse the surface of the
+	 * first chain with their superposition transformation. All other chains
+	 * are still calculated.
+	 */
+	private List<ChainSurfaceTask> shareEntitySurfaces(List<ChainSurfaceTask> tasks) {
+		List<ChainSurfaceTask> representatives = new ArrayList<ChainSurfaceTask>();
+		List<ChainSurfaceTask> remaining = new ArrayList<ChainSurfaceTask>();
+		for (ChainSurfaceTask task: tasks) {
+			ChainSurfaceTask representative = null;
+			for (ChainSurfaceTask r: representatives) {
+				if (isSameEntity(r, task)) {
+					representative = r;
+					break;
+				}
+			}
+
+			if (representative == null) {
+				representatives.add(task);
+				remaining.add(task);
+				continue;
+			}
+
+			Point3d[] x = getCoordinates(representative.spheres);
+			Point3d[] y = getCoordinates(task.spheres);
+			Matrix4d t = SuperPosition.superpose(x, y);
+			if (SuperPosition.rmsd(x, y, t) <= maxSharedSurfaceRmsd) {
+				task.transformation = new Matrix4f(t);
+				representative.copies.add(task);
+			} else {
+				remaining.add(task);
+			}
+		}
+		return remaining;
+	}
+
+	/**
+	 * Returns true if both chains belong to the same entity and have the
+	 * same atoms in the same order, so their spheres can be superposed.
+	 */
+	private static boolean isSameEntity(ChainSurfaceTask t1, ChainSurfaceTask t2) {
+		if (t1.chain.getEntityId() != t2.chain.getEntityId() || t1.spheres.size() != t2.spheres.size()) {
+			return false;
+		}
+		for (int i = 0, n = t1.spheres.size(); i < n; i++) {
+			Atom a1 = (Atom)t1.spheres.get(i).getReference();
+			Atom a2 = (Atom)t2.spheres.get(i).getReference();
+			if (!a1.name.equals(a2.name) || !a1.compound.equals(a2.compound)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static Point3d[] getCoordinates(List<Sphere> spheres) {
+		Point3d[] coordinates = new Point3d[spheres.size()];
+		for (int i = 0; i < coordinates.length; i++) {
+			coordinates[i] = new Point3d(spheres.get(i).getLocation());
+		}
+		return coordinates;
+	}
+
+	/**
+	 * Returns the spheres of the amino acid and nucleic acid residues of a chain
+	 * for the molecular surface.
+	 */
+	private List<Sphere> getChainSpheres(Chain c, IAtomRadius registry) {
+		List<Sphere> spheres = new ArrayList<Sphere>();
+		Vector<Residue> residues = c.getResidues();
+		
+		// TODO How to deal with non-standard residues in a polymer?
+		for (Residue r: residues) {
+			if (r.getClassification().equals(Classification.AMINO_ACID) ||
+					r.getClassification().equals(Classification.NUCLEIC_ACID)) {
+				Vector<Atom> atoms = r.getAtoms();
+				for (Atom a: atoms) {
+					Point3f location = new Point3f((float)a.getX(), (float)a.getY(), (float)a.getZ());
+					float radius = registry.getAtomRadius(a);
+					// enlarge spheres by 10% to avoid that helices touch the surface
+					spheres.add(new Sphere(location, radius *1.1f, a));
+				}
+			}
+		}
+		return spheres;
+	}
+
+	/**
+	 * Sets the number of chain surfaces that are calculated concurrently. The
+	 * default of 1 calculates the chains one after another. The property
+	 * "surface_threads" overrides this value.
+	 */
+	public static void setThreadCount(int threadCount) {
+		SurfaceThread.threadCount = Math.max(1, threadCount);
+	}
+
+	/**
+	 * Sets the memory in bytes that concurrent chain surface calculations
+	 * may use together. The default is half of the maximum heap size.
+	 */
+	public static void setMemoryBudget(long memoryBudget) {
+		SurfaceThread.memoryBudget = memoryBudget;
+	}
+
+	/**
+	 * Enables sharing of one surface by all copies of an entity. The property
+	 * "share_entity_surfaces" overrides this value.
+	 */
+	public static void setShareEntitySurfaces(boolean shareEntitySurfaces) {
+		SurfaceThread.shareEntitySurfaces = shareEntitySurfaces;
+	}
+
+	/**
+	 * Sets the maximum RMSD in Angstrom up to which a copy of an entity reuses
+	 * the surface of the first copy. The default is 1.0.
+	 */
+	public static void setMaxSharedSurfaceRmsd(float rmsd) {
+		SurfaceThread.maxSharedSurfaceRmsd = rmsd;
+	}
+
+	private boolean isShareEntitySurfaces() {
+		final String share = AppBase.getApp().properties.getProperty("share_entity_surfaces");
+		if (share != null) {
+			return share.equals("true");
+		}
+		return shareEntitySurfaces;
+	}
+
+	private int getThreadCount() {
+		final String surfaceThreads = AppBase.getApp().properties.getProperty("surface_threads");
+		if (surfaceThreads != null) {
+			try {
+				return Math.max(1, Integer.parseInt(surfaceThreads.trim()));
+			} catch (NumberFormatException e) {
+				Status.output(Status.LEVEL_WARNING, "SurfaceThread: invalid surface_threads: " + surfaceThreads);
+			}
+		}
+		return threadCount;
+	}
+
+	/**
+	 * Receives the surfaces of {@link SurfaceThread#createSurface(SurfaceListener)}.
+	 * Both methods are called on the event dispatch thread.
+	 */
+	public interface SurfaceListener {
+		/**
+		 * Called after a chain surface has been added to the structure map.
+		 */
+		public void surfaceAdded(Structure structure, Surface surface);
+
+		/**
+		 * Called when the calculation has ended, after the last surface has
+		 * been added. Also called if the calculation failed or the structure
+		 * was closed in the meantime.
+		 */
+		public void surfacesCreated(Structure structure);
+	}
+
+	/**
+	 * Calculates the surface of one chain on a worker thread.
+	 */
+	private static class ChainSurfaceTask implements Callable<TriangulatedSurface> {
+		private Chain chain;
+		private List<Sphere> spheres;
+		private float resolution;
+		private int colorIndex;
+		private long memory;
+		// transformation from the representative chain, if this is a copy
+		private Matrix4f transformation;
+		// copies that share the surface of this chain
+		private List<ChainSurfaceTask> copies = new ArrayList<ChainSurfaceTask>();
+
+		ChainSurfaceTask(Chain chain, List<Sphere> spheres, float resolution, int colorIndex) {
+			this.chain = chain;
+			this.spheres = spheres;
+			this.resolution = resolution;
+			this.colorIndex = colorIndex;
+
+			EdtSurfaceCalculator c = new EdtSurfaceCalculator(spheres, PROBE_RADIUS, resolution);
+			c.initparam();
+			this.memory = c.getEstimatedMemory();
+		}
+
+		public TriangulatedSurface call() {
+			return calcChainSurface(spheres, resolution);
 		}
-		ProgressPanelController.EndProgress();
-		long t5 = System.nanoTime();
-		System.out.println("Surface calculation: " + (t5-t0)/1000000 + " ms");
-		AppBase.sgetUpdateController().fireUpdateViewEvent(UpdateEvent.Action.VIEW_UPDATE); 
 	}
 
 	public void createBindingSiteSurface(Residue[] ligands, int surfaceRepresentation, float thresholdDistance) {
@@ -191,8 +540,7 @@ import org.rcsb.uiApp.controllers.update.UpdateEvent;
 						r.getClassification().equals(Classification.NUCLEIC_ACID)) {
 					Vector<Atom> atoms = r.getAtoms();
 					for (Atom a: atoms) {
-						double[] coord = a.coordinate;
-						Point3f location = new Point3f((float)coord[0], (float)coord[1], (float)coord[2]);
+						Point3f location = new Point3f((float)a.getX(), (float)a.getY(), (float)a.getZ());
 						float radius = registry.getAtomRadius(a);
 						// enlarge spheres by 10% to avoid that helices touch the surface
 						spheres.add(new Sphere(location, radius, a));
@@ -208,8 +556,7 @@ import org.rcsb.uiApp.controllers.update.UpdateEvent;
 			for (Residue r: ligands) {
 				Vector<Atom> atoms = r.getAtoms();
 				for (Atom a: atoms) {
-					double[] coord = a.coordinate;
-					Point3f location = new Point3f((float)coord[0], (float)coord[1], (float)coord[2]);
+					Point3f location = new Point3f((float)a.getX(), (float)a.getY(), (float)a.getZ());
 					float radius = registry.getAtomRadius(a);
 					// enlarge spheres by 10% to avoid that helices touch the surface
 					ligandSpheres.add(new Sphere(location, radius, a));
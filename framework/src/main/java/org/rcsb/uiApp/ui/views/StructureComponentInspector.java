@@ -366,7 +366,7 @@ public class StructureComponentInspector
 					label = (JLabel) this.table.getValueAt( row, 0 );
 					label.setText( "Coordinate:" );
 					label = (JLabel) this.table.getValueAt( row, 1 );
-					label.setText( atom.coordinate[0] + ", " + atom.coordinate[1] + ", " + atom.coordinate[2] );
+					label.setText( atom.getX() + ", " + atom.getY() + ", " + atom.getZ() );
 					row++;
 
 
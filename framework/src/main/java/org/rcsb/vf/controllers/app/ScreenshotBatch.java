@@ -0,0 +1,369 @@
+/*
+ * BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence. This should
+ * be distributed with the code. If you do not have a copy,
+ * see:
+ *
+ * http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors. These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ * http://www.biojava.org/
+ *
+ * This code was contributed from the Molecular Biology Toolkit
+ * (MBT) project at the University of California San Diego.
+ *
+ * Please reference J.L. Moreland, A.Gramada, O.V. Buzko, Qing
+ * Zhang and P.E. Bourne 2005 The Molecular Biology Toolkit (MBT):
+ * A Modular Platform for Developing Molecular Visualization
+ * Applications. BMC Bioinformatics, 6:21.
+ *
+ * The MBT project was funded as part of the National Institutes
+ * of Health PPG grant number 1-P01-GM63208 and its National
+ * Institute of General Medical Sciences (NIGMS) division. Ongoing
+ * development for the MBT project is managed by the RCSB
+ * Protein Data Bank(http://www.pdb.org) and supported by funds
+ * from the National Science Foundation (NSF), the National
+ * Institute of General Medical Sciences (NIGMS), the Office of
+ * Science, Department of Energy (DOE), the National Library of
+ * Medicine (NLM), the National Cancer Institute (NCI), the
+ * National Center for Research Resources (NCRR), the National
+ * Institute of Biomedical Imaging and Bioengineering (NIBIB),
+ * the National Institute of Neurological Disorders and Stroke
+ * (NINDS), and the National Institute of Diabetes and Digestive
+ * and Kidney Diseases (NIDDK).
+ *
+ * Created on 2026/10/18
+ *
+ */ 
+package org.rcsb.vf.controllers.app;
+
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import javax.media.opengl.GLCapabilities;
+import javax.media.opengl.GLDrawableFactory;
+import javax.media.opengl.GLOffscreenAutoDrawable;
+import javax.media.opengl.GLProfile;
+import javax.swing.SwingUtilities;
+
+import org.rcsb.mbt.model.Chain;
+import org.rcsb.mbt.model.Structure;
+import org.rcsb.mbt.model.StructureMap;
+import org.rcsb.mbt.model.StructureComponentRegistry.ComponentType;
+import org.rcsb.mbt.model.attributes.Style;
+import org.rcsb.mbt.model.attributes.StructureStyles;
+import org.rcsb.mbt.model.util.Status;
+import org.rcsb.uiApp.controllers.app.AppBase;
+import org.rcsb.uiApp.ui.dialogs.ImageFileSaver;
+import org.rcsb.vf.controllers.doc.VFDocController;
+import org.rcsb.vf.glscene.SecondaryStructureBuilder.SsMesh;
+import org.rcsb.vf.glscene.jogl.ChainGeometry;
+import org.rcsb.vf.glscene.jogl.ChainMeshBuilder;
+import org.rcsb.vf.glscene.jogl.GlGeometryViewer;
+import org.rcsb.vf.glscene.raytrace.RayTracer;
+
+/**
+ * Renders a queue of screenshots in one process. The offscreen GL context,
+ * the compiled shaders and the display lists shared by all structures are
+ * created once and reused for every job; the display lists of each
+ * structure are released before the next job starts.
+ * <P>
+ * Started with -screenshot_batch &lt;file&gt;, or "-" for standard input.
+ * Each line of the file is one job:
+ * <pre>
+ * structure_url width height output_file [eyeX eyeY eyeZ centerX centerY centerZ upX upY upZ]
+ * </pre>
+ * Without a view the structure is shown with the default view. Blank lines
+ * and lines starting with '#' are skipped.
+ * <P>
+ * For every job a tab delimited line with the time of each phase, in
+ * milliseconds, is written to standard output: reading the file, creating
+ * the structure map, tessellating the ribbons, rendering, and encoding the
+ * image. The process exits with status 0 if all jobs succeeded, or 2.
+ * <P>
+ * The viewer only draws into an offscreen drawable, so this also runs with
+ * Mesa's software OpenGL, e.g. on an Xvfb display on nodes without a GPU. With
+ * -raytrace the images are ray traced on the CPU instead, and no drawable
+ * is created.
+ */
+public class ScreenshotBatch extends Thread
+{
+	public static final String HEADER = "Output\tRead\tStructure map\tTessellate\tRender\tEncode";
+
+	/**
+	 * Size of the offscreen drawable. Larger images are rendered in tiles.
+	 */
+	private static final int TILE_SIZE = 1024;
+
+	private final String jobFile;
+	private final PrintStream out;
+
+	private GLOffscreenAutoDrawable drawable = null;
+
+	private boolean rayTraced = false;
+
+	/**
+	 * @param jobFile - the job file, or "-" for standard input.
+	 * @param out - receives the header and the timing lines.
+	 */
+	public ScreenshotBatch(final String jobFile, final PrintStream out)
+	{
+		super("ScreenshotBatch");
+		this.jobFile = jobFile;
+		this.out = out;
+	}
+
+	/**
+	 * @param rayTraced - render with the RayTracer instead of OpenGL.
+	 */
+	public void setRayTraced(final boolean rayTraced)
+	{
+		this.rayTraced = rayTraced;
+	}
+
+	@Override
+	public void run()
+	{
+		int failed = 0;
+		try
+		{
+			final BufferedReader reader = this.jobFile.equals("-") ?
+					new BufferedReader(new InputStreamReader(System.in)) :
+					new BufferedReader(new FileReader(this.jobFile));
+
+			this.out.println(HEADER);
+			for (String line = reader.readLine(); line != null; line = reader.readLine())
+			{
+				line = line.trim();
+				if (line.length() == 0 || line.startsWith("#"))
+					continue;
+
+				try
+				{
+					this.out.println(this.render(line));
+					this.out.flush();
+				}
+
+				catch (final Exception e)
+				{
+					Status.output(Status.LEVEL_ERROR, "Could not render '" + line + "': " + e);
+					failed++;
+				}
+
+				finally
+				{
+					this.releaseStructures();
+				}
+			}
+			reader.close();
+		}
+
+		catch (final IOException e)
+		{
+			Status.output(Status.LEVEL_ERROR, e.getMessage());
+			failed++;
+		}
+
+		finally
+		{
+			if (this.drawable != null)
+				this.drawable.destroy();
+		}
+
+		System.exit(failed == 0 ? 0 : 2);
+	}
+
+	/**
+	 * Renders one job.
+	 * 
+	 * @return the timing line of the job.
+	 */
+	protected String render(final String job) throws Exception
+	{
+		final String[] fields = job.split("\\s+");
+		if (fields.length != 4 && fields.length != 13)
+			throw new IllegalArgumentException("expected 4 or 13 fields");
+
+		final String url = fields[0];
+		final int width = Integer.parseInt(fields[1]);
+		final int height = Integer.parseInt(fields[2]);
+		final File file = new File(fields[3]);
+
+		final VFDocController docController = VFAppBase.sgetDocController();
+		final GlGeometryViewer viewer = VFAppBase.sgetGlGeometryViewer();
+		if (this.rayTraced)
+			this.waitForUpdates();
+		else
+			this.createDrawable(viewer);
+
+		final Structure[] structures = docController.readStructuresFromUrl(url);
+		if (structures == null || structures.length == 0)
+			throw new IOException("could not read " + url);
+
+		long start = System.nanoTime();
+		final List<Future<SsMesh[]>> meshes = new ArrayList<Future<SsMesh[]>>();
+		for (Structure structure : structures)
+			this.prebuildRibbons(structure, meshes);
+		for (Future<SsMesh[]> chainMeshes : meshes)
+			chainMeshes.get();
+		final long tessellateNanos = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		docController.setStructures(structures, null);
+		this.waitForUpdates();
+
+		if (fields.length == 13)
+		{
+			final double[] view = new double[9];
+			for (int i = 0; i < view.length; i++)
+				view[i] = Double.parseDouble(fields[4 + i]);
+			viewer.lookAt(new double[] { view[0], view[1], view[2] },
+					new double[] { view[3], view[4], view[5] },
+					new double[] { view[6], view[7], view[8] });
+		}
+
+		final BufferedImage image = this.rayTraced ?
+				RayTracer.renderViewer(width, height) : this.renderGL(viewer, width, height);
+		final long renderNanos = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		ImageFileSaver.save(image, file);
+		final long encodeNanos = System.nanoTime() - start;
+
+		return file.getPath() + "\t" + millis(docController.getReadNanos()) + "\t" +
+			millis(docController.getStructureMapNanos()) + "\t" + millis(tessellateNanos) + "\t" +
+			millis(renderNanos) + "\t" + millis(encodeNanos);
+	}
+
+	private BufferedImage renderGL(final GlGeometryViewer viewer, final int width, final int height) throws IOException
+	{
+		viewer.requestScreenShot(width, height);
+		this.drawable.display();
+		final BufferedImage image = viewer.getScreenshot();
+		viewer.removeScreenshotReference();
+		if (image == null || viewer.hasScreenshotFailed())
+			throw new IOException("rendering failed");
+		return image;
+	}
+
+	/**
+	 * Creates the offscreen drawable on the first job. The viewer draws into it
+	 * from then on, and is removed from the frame's canvas: otherwise both
+	 * contexts would call init() and display() on the viewer, and each init()
+	 * replaces the viewer's drawable and display lists with ones of its own
+	 * context.
+	 */
+	private void createDrawable(final GlGeometryViewer viewer) throws InterruptedException, InvocationTargetException
+	{
+		if (this.drawable != null)
+			return;
+
+		// the frame is built on the event dispatch thread
+		SwingUtilities.invokeAndWait(new Runnable()
+		{
+			public void run()
+			{
+				if (viewer.glCanvas != null)
+					viewer.glCanvas.removeGLEventListener(viewer);
+			}
+		});
+
+		final GLProfile profile = GLProfile.getDefault();
+		final GLCapabilities capabilities = new GLCapabilities(profile);
+		capabilities.setOnscreen(false);
+		capabilities.setDoubleBuffered(false);
+
+		this.drawable = GLDrawableFactory.getFactory(profile).createOffscreenAutoDrawable(
+				null, capabilities, null, TILE_SIZE, TILE_SIZE, null);
+		this.drawable.addGLEventListener(viewer);
+		viewer.tileWidth = TILE_SIZE;
+		viewer.tileHeight = TILE_SIZE;
+
+		// runs the viewer's init() and compiles the shaders
+		this.drawable.display();
+	}
+
+	/**
+	 * Starts the ribbons of the chains with the default geometry and style the
+	 * viewer gives them when the structure is added, so their time can be
+	 * measured apart from the rendering.
+	 */
+	private void prebuildRibbons(final Structure structure, final List<Future<SsMesh[]>> meshes)
+	{
+		final ChainGeometry geometry = (ChainGeometry)GlGeometryViewer.defaultGeometry.get(ComponentType.CHAIN);
+		final StructureMap structureMap = structure.getStructureMap();
+		final StructureStyles structureStyles = structureMap.getStructureStyles();
+		final Style style = structureStyles.getDefaultStyle(ComponentType.CHAIN);
+
+		for (int i = 0; i < structureMap.getChainCount(); i++)
+		{
+			final Chain chain = structureMap.getChain(i);
+			if (!structureStyles.isVisible(chain))
+				continue;
+
+			final Future<SsMesh[]> chainMeshes = ChainMeshBuilder.prebuild(geometry, chain, style);
+			if (chainMeshes != null)
+				meshes.add(chainMeshes);
+		}
+	}
+
+	/**
+	 * Removes the structures and deletes their display lists and impostor
+	 * buffers, so the GPU memory of one job is released before the next one.
+	 * The impostor shader programs are shared and kept for the next job.
+	 */
+	private void releaseStructures()
+	{
+		AppBase.sgetUpdateController().clear();
+		try
+		{
+			this.waitForUpdates();
+		}
+
+		catch (final Exception e)
+		{
+			Status.output(Status.LEVEL_WARNING, "ScreenshotBatch: " + e);
+		}
+
+		// the viewer deletes the lists and buffers of removed scene nodes on the next draw
+		if (this.drawable != null)
+			this.drawable.display();
+		else
+			VFAppBase.sgetGlGeometryViewer().discardDeletionsWithoutContext();
+	}
+
+	/**
+	 * Structures are added to the viewer on the event dispatch thread.
+	 */
+	private void waitForUpdates() throws InterruptedException, InvocationTargetException
+	{
+		SwingUtilities.invokeAndWait(new Runnable()
+		{
+			public void run()
+			{
+			}
+		});
+	}
+
+	private static long millis(final long nanos)
+	{
+		return nanos / 1000000;
+	}
+}
@@ -53,12 +53,18 @@ import java.io.PrintStream;
 
 import jogamp.opengl.GLPbufferImpl;
 
+import org.rcsb.mbt.structLoader.ChunkExecutor;
+import org.rcsb.mbt.structLoader.PdbStructureLoader;
 import org.rcsb.uiApp.controllers.app.AppBase;
 import org.rcsb.uiApp.controllers.doc.DocController;
 import org.rcsb.vf.controllers.doc.VFDocController;
 import org.rcsb.vf.controllers.scene.SceneController;
+import org.rcsb.vf.glscene.jogl.DisplayLists;
+import org.rcsb.vf.glscene.jogl.ImpostorRenderer;
+import org.rcsb.vf.glscene.jogl.TessellationLod;
 import org.rcsb.vf.glscene.jogl.GlGeometryViewer;
 import org.rcsb.vf.glscene.jogl.JoglSceneNode;
+import org.rcsb.vf.glscene.raytrace.RayPicker;
 import org.rcsb.vf.ui.VFDocumentFrameBase;
 
 
@@ -120,6 +126,11 @@ public abstract class VFAppBase extends AppBase
 					properties.setProperty("structure_id_list", args[++i]);
 				} else if (args[i].equals("-screenshot_only")) {
 					AppBase.backgroundScreenshotOnly = true;
+				} else if (args[i].equals("-screenshot_batch")) {
+					AppBase.backgroundScreenshotOnly = true;
+					properties.setProperty("screenshot_batch", args[++i]);
+				} else if (args[i].equals("-raytrace")) {
+					properties.setProperty("screenshot_raytrace", "true");
 				} else if (args[i].equals("-screenshot_width")) {
 					properties.setProperty("screenshot_width", args[++i]);
 				} else if (args[i].equals("-screenshot_height")) {
@@ -218,6 +229,32 @@ public abstract class VFAppBase extends AppBase
 		
 		else
 			sceneController.setDebugEnabled(false);
+		
+		final String useVertexBufferObjects = this.properties.getProperty("use_vertex_buffer_objects");
+		if (useVertexBufferObjects != null && useVertexBufferObjects.equals("true"))
+			DisplayLists.useVertexBufferObjects = true;
+		
+		final String useImpostors = this.properties.getProperty("use_impostors");
+		if (useImpostors != null && useImpostors.equals("true"))
+			ImpostorRenderer.useImpostors = true;
+		
+		final String tessellationLod = this.properties.getProperty("tessellation_lod");
+		if (tessellationLod != null && tessellationLod.equals("false"))
+			TessellationLod.enabled = false;
+
+		final String rayPicking = this.properties.getProperty("ray_picking");
+		if (rayPicking != null && rayPicking.equals("false"))
+			RayPicker.enabled = false;
+
+		final String fastPdbParser = this.properties.getProperty("fast_pdb_parser");
+		if (fastPdbParser != null && fastPdbParser.equals("false"))
+			PdbStructureLoader.useFastParser = false;
+
+		// number of threads to parse large structure files with, or "auto"
+		final String parserThreads = this.properties.getProperty("parser_threads");
+		if (parserThreads != null)
+			ChunkExecutor.threadCount = parserThreads.equals("auto")?
+				Runtime.getRuntime().availableProcessors() : Integer.parseInt(parserThreads);
 	}
 
 
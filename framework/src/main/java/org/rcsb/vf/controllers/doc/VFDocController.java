@@ -76,6 +76,18 @@ public class VFDocController extends DocController
 		VFAppBase.sgetGlGeometryViewer().requestRepaint();
 	}
 	
+	/**
+	 * Set the structures, reset the view, and request a repaint.
+	 */
+	@Override
+	public void setStructures(final Structure[] structure, final String pdbId)
+	{
+		super.setStructures(structure, pdbId);
+		
+		VFAppBase.sgetSceneController().resetView(true);
+		VFAppBase.sgetGlGeometryViewer().requestRepaint();
+	}
+	
 	/**
 	 * Override - after reading the url, checks for global transforms in the properties and
 	 * generates them if set.
@@ -224,6 +224,7 @@ public class SceneController implements GvPickEventListener, IUpdateListener
 	// - double[1]: maximum x,y,z values
 	// can be null if the ligand name is not found.
 	private double[] tempDouble = new double[3];
+	private double[] tempCoordinate = new double[3];
 
 	private ModelTransformationList singleElementVectorTemp = new ModelTransformationList(1);
 	private ModelTransformationList singleElementVectorTemp2 = new ModelTransformationList(1);
@@ -309,10 +310,10 @@ public class SceneController implements GvPickEventListener, IUpdateListener
 									
 									// mirror the JoglSceneNode's operation: first transform by the global transform, and then by the per-chain transform. Typically, only one of the two types of transforms is specified.
 									if(globalTransform != null && !ignoreGlobalTransforms)
-										globalTransform.transformPoint(atom_k.coordinate, tempDouble);
+										globalTransform.transformPoint(atom_k.getCoordinate(tempCoordinate), tempDouble);
 
 									if(byChainTransform != null && !ignorePerChainTransforms)
-										byChainTransform.transformPoint(atom_k.coordinate, tempDouble);
+										byChainTransform.transformPoint(atom_k.getCoordinate(tempCoordinate), tempDouble);
 
 									
 									if(byChainTransform != null || globalTransform != null) {
@@ -324,13 +325,13 @@ public class SceneController implements GvPickEventListener, IUpdateListener
 										minY = Math.min(tempDouble[1], minY);
 										minZ = Math.min(tempDouble[2], minZ);
 									} else {
-										maxX = Math.max(atom_k.coordinate[0], maxX);
-										maxY = Math.max(atom_k.coordinate[1], maxY);
-										maxZ = Math.max(atom_k.coordinate[2], maxZ);
+										maxX = Math.max(atom_k.getX(), maxX);
+										maxY = Math.max(atom_k.getY(), maxY);
+										maxZ = Math.max(atom_k.getZ(), maxZ);
 						
-										minX = Math.min(atom_k.coordinate[0], minX);
-										minY = Math.min(atom_k.coordinate[1], minY);
-										minZ = Math.min(atom_k.coordinate[2], minZ);
+										minX = Math.min(atom_k.getX(), minX);
+										minY = Math.min(atom_k.getY(), minY);
+										minZ = Math.min(atom_k.getZ(), minZ);
 									}
 								}
 							}
@@ -1256,17 +1256,14 @@ public class SceneState
 			while(atomIt.hasNext())
 			{
 				final Atom a = (Atom)atomIt.next();
-				final Vector bondsVec = sm.getBonds(a);
-				if(bondsVec != null) {
-					final int bondsVecCount = bondsVec.size();
-					for(int i = 0; i < bondsVecCount; i++) {
-						// make sure both atoms are visible in the bond.
-						final Bond b = (Bond)bondsVec.get(i);
-						final Atom a0 = b.getAtom(0);
-						final Atom a1 = b.getAtom(1);
-						if((a0 == a || visibleAtoms.containsKey(a0)) && (a1 == a || visibleAtoms.containsKey(a1))) {
-							visibleBonds.put(bondsVec.get(i), exists);
-						}
+				final int bondCount = sm.getBondCount(a);
+				for(int i = 0; i < bondCount; i++) {
+					// make sure both atoms are visible in the bond.
+					final Bond b = sm.getBond(a, i);
+					final Atom a0 = b.getAtom(0);
+					final Atom a1 = b.getAtom(1);
+					if((a0 == a || visibleAtoms.containsKey(a0)) && (a1 == a || visibleAtoms.containsKey(a1))) {
+						visibleBonds.put(b, exists);
 					}
 				}
 			}
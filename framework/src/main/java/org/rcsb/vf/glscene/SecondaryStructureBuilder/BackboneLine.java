@@ -66,6 +66,8 @@ import com.jogamp.opengl.util.gl2.GLUT;
 public class BackboneLine {
 
 	private Vector3f[] coords = null;
+
+	private float[][] colorMap = null;
 	
 	public BackboneLine(final int vertexCount, final int[] stripVertexCounts,
 			final Vector3f[] coords, final float[][] colorMap) {
@@ -73,33 +75,35 @@ public class BackboneLine {
 		//		stripVertexCounts);
 
 		this.coords = coords;
+		this.colorMap = colorMap;
 	}
 
 	// possible problem: Apostol doesn't seem to break his backbones when there is a break in sequence. John Moreland does. I'm using Apostol's logic. Is this a problem?
 	public void draw(final DisplayLists lists, final GL gl, final GLU glu, final GLUT glut, final Object[] ranges) {
-//		arrayLists.setupColors(this.vertexCount);
-		
+		this.createMesh(lists, ranges).upload(gl, glu, glut);
+	}
+
+	/**
+	 * Copies the line into a mesh of one line strip per range, without any
+	 * OpenGL calls.
+	 */
+	public SsMesh createMesh(final DisplayLists lists, final Object[] ranges) {
 		lists.mutableColorType = GL2.GL_EMISSION;
-//		lists.primitiveType = GL.GL_TRIANGLE_STRIP;
-		
-		GL2 gl2 = gl.getGL2();
-		
-		lists.setupLists(ranges.length);
-		for(int i = 0; i < ranges.length; i++) {
-			final Object[] tmp = (Object[])ranges[i];
-			final int[] range = (int[])tmp[1];
-			
-			lists.startDefine(i, gl, glu, glut);
-			gl2.glBegin(GL.GL_LINE_STRIP);
-			float coordsArray[] = new float[3];
-			for(int j = range[0]; j <= range[1]; j++)
-			{
-				this.coords[j].get(coordsArray);
-				gl2.glVertex3fv(coordsArray, 0);
+
+		final float[] vertices = new float[3 * this.coords.length];
+		final float[] vertexColors = this.colorMap == null ? null : new float[3 * this.coords.length];
+		for (int i = 0; i < this.coords.length; i++) {
+			final int offset = 3 * i;
+			vertices[offset] = this.coords[i].x;
+			vertices[offset + 1] = this.coords[i].y;
+			vertices[offset + 2] = this.coords[i].z;
+			if (vertexColors != null && i < this.colorMap.length) {
+				System.arraycopy(this.colorMap[i], 0, vertexColors, offset, 3);
 			}
-			gl2.glEnd();
-			lists.endDefine(gl, glu, glut);
 		}
+
+		return new SsMesh(lists, GL.GL_LINE_STRIP, vertices, null, vertexColors,
+				this.coords.length, ranges);
 	}
 	
 	/*
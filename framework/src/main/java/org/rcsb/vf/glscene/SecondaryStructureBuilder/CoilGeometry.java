@@ -47,8 +47,6 @@ package org.rcsb.vf.glscene.SecondaryStructureBuilder;
 
 import java.awt.Color;
 
-import javax.media.opengl.GL;
-import javax.media.opengl.glu.GLU;
 
 
 import javax.vecmath.Vector3f;
@@ -65,7 +63,6 @@ import org.rcsb.vf.glscene.jogl.Color3f;
 import org.rcsb.vf.glscene.jogl.Constants;
 import org.rcsb.vf.glscene.jogl.DisplayLists;
 
-import com.jogamp.opengl.util.gl2.GLUT;
 
 
 /**
@@ -121,7 +118,7 @@ public class CoilGeometry extends SsGeometry {
 	}
 
 	
-	public DisplayLists generateJoglGeometry(final GL gl, final GLU glu, final GLUT glut) {
+	public SsMesh generateMesh() {
 //		float time2;
 
 		this.processQualityInfo(this.quality);
@@ -267,8 +264,8 @@ public class CoilGeometry extends SsGeometry {
 			this.setPathColor(spinePointCount);
 		}
 
-		return this.drawFigure(this.csStyle, pathCoords, pathTrihedron,
-				this.pathColorMap, spinePointCount, gl, glu, glut);
+		return this.createFigureMesh(this.csStyle, pathCoords, pathTrihedron,
+				this.pathColorMap, spinePointCount);
 
 	}
 
@@ -282,10 +279,11 @@ public class CoilGeometry extends SsGeometry {
 	 */
 	private Object[] ranges = null;
 
-	public DisplayLists drawFigure(final CrossSectionStyle style,
+	public SsMesh createFigureMesh(final CrossSectionStyle style,
 			final Vector3f[] coordinates, final FrenetTrihedron[] triheds,
-			final float[][] colorMap, final int pointCount, final GL gl, final GLU glu, final GLUT glut) {
+			final float[][] colorMap, final int pointCount) {
 		final DisplayLists arrayLists = new DisplayLists(this.structureComponent);
+		SsMesh mesh = null;
 		
 		// 
 		// Set an Appearance for the backbone.
@@ -461,13 +459,13 @@ public class CoilGeometry extends SsGeometry {
 			// backboneApp = new Appearance();
 			// backboneApp.setLineAttributes( new LineAttributes( 3.0f,
 			// LineAttributes.PATTERN_SOLID, false ) );
-			backbone.draw(arrayLists, gl, glu, glut, this.ranges);
+			mesh = backbone.createMesh(arrayLists, this.ranges);
 		} else if (this.csType == CrossSectionType.ROUNDED_TUBE ||
 				   this.csType == CrossSectionType.REGULAR_POLYGON)
 		{
 			final Extrusion figure = new Extrusion(pointCount, start, stripVertexCounts, cs,
 					colorMap, start, this.rounded);
-			figure.draw(arrayLists, gl, glu, glut, this.ranges);
+			mesh = figure.createMesh(arrayLists, this.ranges);
 		}
 		
 //		for(int i = 0; i < arrayLists.vertexSize; i++) {
@@ -490,7 +488,7 @@ public class CoilGeometry extends SsGeometry {
 		// branch.addChild( shape );
 
 		// return branch;
-		return arrayLists;
+		return mesh;
 	}
 
 	// Smooth a set of normals
@@ -45,10 +45,7 @@
  */ 
 package org.rcsb.vf.glscene.SecondaryStructureBuilder;
 
-import java.nio.FloatBuffer;
-import java.nio.IntBuffer;
 import java.util.HashMap;
-import java.util.Vector;
 
 
 import javax.media.opengl.GL;
@@ -65,7 +62,6 @@ import org.rcsb.vf.glscene.jogl.DisplayLists;
 
 
 
-import com.jogamp.common.nio.Buffers;
 import com.jogamp.opengl.util.gl2.GLUT;
 
 
@@ -139,112 +135,51 @@ public class Extrusion {
 		this.build();
 	}
 
-	 public static int VERTEX_COUNT = 0;
-	 public static int VERTEX_CACHE_HITS = 0;
 	public static HashMap debugMap = new HashMap();
 
 	public void draw(final DisplayLists lists, final GL gl, final GLU glu,
 			final GLUT glut, final Object[] ranges) {
-		
-		GL2 gl2 = gl.getGL2();
-		
-		// arrayLists.setupVertices(this.vertexCount);
-		// arrayLists.setupColors(this.vertexCount);
-		// arrayLists.setupNormals(this.vertexCount);
-
-		// gl.glColorMaterial(GL.GL_FRONT, GL.GL_AMBIENT_AND_DIFFUSE);
-		// gl.glEnable(GL.GL_COLOR_MATERIAL);
+		this.createMesh(lists, ranges).upload(gl, glu, glut);
+	}
 
+	/**
+	 * Copies the extrusion into a mesh of one triangle strip per range,
+	 * without any OpenGL calls. If vertex buffer objects are enabled, the
+	 * identical vertices of the strips are merged.
+	 * 
+	 * @param lists - receives the mesh when it is uploaded.
+	 * @param ranges - { StructureComponent, int[] {first, last} } for each strip.
+	 */
+	public SsMesh createMesh(final DisplayLists lists, final Object[] ranges) {
 		lists.mutableColorType = GL2.GL_AMBIENT_AND_DIFFUSE;
-		// lists.primitiveType = GL.GL_TRIANGLE_STRIP;
 
-		if (DisplayLists.useVertexBufferObjects) {
-			lists.startDefineVertexBufferObjects(ranges.length);
-		} else {
-			lists.setupLists(ranges.length);
-		}
-		
-		// because of caching, it isn't immediately obvious how many vertices we'll have. Means one additional copy, but it's necessary for this approach.
-		Vector vertexVector = null;
-		Vector normalVector = null;
-		HashMap vertexCache = null;
-		if (DisplayLists.useVertexBufferObjects) {
-			vertexVector = new Vector();
-			normalVector = new Vector();
-			vertexCache = new HashMap();
-		}
-		
-		for (int i = 0; i < ranges.length; i++) {
-			final Object[] tmp = (Object[]) ranges[i];
-			final int[] range = (int[]) tmp[1];
-			
-			int minIndex = Integer.MAX_VALUE;
-			int maxIndex = 0;
-
-			if (DisplayLists.useVertexBufferObjects) {
-				final IntBuffer indexBuffer = Buffers.newDirectIntBuffer(range[1] - range[0] + 1); 
-				for (int j = range[0]; j <= range[1]; j++) {
-					final String key = this.coordinates[j].x + " " + this.coordinates[j].y + " " + this.coordinates[j].z + " " + this.normals[j].x + " " + this.normals[j].y + " " + this.normals[j].z;
-					Integer index = (Integer)vertexCache.get(key);
-					if(index == null) {	// not in the cache - create a new vertex index
-						final int indexNew = vertexVector.size();
-						index = new Integer(indexNew);
-						indexBuffer.put(indexNew);
-						vertexVector.add(this.coordinates[j]);
-						normalVector.add(this.normals[j]);
-						vertexCache.put(key, index);
-						
-						minIndex = Math.min(indexNew, minIndex);
-						maxIndex = Math.max(indexNew, maxIndex);
-					} else {	// in the cache - reuse the old vertex.
-						final int oldIndex = index.intValue();
-						indexBuffer.put(oldIndex);
-						minIndex = Math.min(oldIndex, minIndex);
-						maxIndex = Math.max(oldIndex, maxIndex);
-						Extrusion.VERTEX_CACHE_HITS++;
-					}
-					Extrusion.VERTEX_COUNT++;
-				}
-
-				lists.setIndexArray(i, indexBuffer, new int[] {minIndex, maxIndex});
-			} else {
-				lists.startDefine(i, gl, glu, glut);
-				gl2.glBegin(GL.GL_TRIANGLE_STRIP);
-				float coordsArray[] = new float[3];
-				double vtxArray[] = new double[3];
-				for (int j = range[0]; j <= range[1]; j++)
-				{
-					normals[j].get(coordsArray);
-					coordinates[j].get(vtxArray);
-					gl2.glNormal3fv(coordsArray, 0);
-					gl2.glVertex3dv(vtxArray, 0);
-				}
-				gl2.glEnd();
-				lists.endDefine(gl, glu, glut);
-			}
+		final float[] vertices = new float[3 * this.vertexCount];
+		final float[] normals = new float[3 * this.vertexCount];
+		final float[] vertexColors = new float[3 * this.vertexCount];
+		for (int i = 0; i < this.vertexCount; i++) {
+			final int offset = 3 * i;
+			final Point3d vertex = this.coordinates[i];
+			vertices[offset] = (float)vertex.x;
+			vertices[offset + 1] = (float)vertex.y;
+			vertices[offset + 2] = (float)vertex.z;
+
+			final Vector3f normal = this.normals[i];
+			normals[offset] = normal.x;
+			normals[offset + 1] = normal.y;
+			normals[offset + 2] = normal.z;
+
+			final float[] color = this.colorsLegacy[i].color;
+			vertexColors[offset] = color[0];
+			vertexColors[offset + 1] = color[1];
+			vertexColors[offset + 2] = color[2];
 		}
 
+		final SsMesh mesh = new SsMesh(lists, GL.GL_TRIANGLE_STRIP, vertices,
+				normals, vertexColors, this.vertexCount, ranges);
 		if (DisplayLists.useVertexBufferObjects) {
-			final FloatBuffer vertexBuffer = Buffers.newDirectFloatBuffer(vertexVector.size() * 3);
-			final FloatBuffer normalBuffer = Buffers.newDirectFloatBuffer(normalVector.size() * 3);
-			for(int i = 0; i < vertexVector.size(); i++)
-			{
-				final Point3d vertex = (Point3d)vertexVector.get(i);
-				final Vector3f normal = (Vector3f)normalVector.get(i);
-				
-				vertexBuffer.put((float)vertex.x);
-				vertexBuffer.put((float)vertex.y);
-				vertexBuffer.put((float)vertex.z);
-				
-				normalBuffer.put(normal.x);
-				normalBuffer.put(normal.y);
-				normalBuffer.put(normal.z);
-			}
-			
-			lists.defineVertexBufferObject(gl, glu, glut, vertexBuffer, normalBuffer, vertexBuffer.capacity());
-			
-			lists.endDefineVertexBufferObjects();
+			mesh.weld();
 		}
+		return mesh;
 	}
 
 	public void build() {
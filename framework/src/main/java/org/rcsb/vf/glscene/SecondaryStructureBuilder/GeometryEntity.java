@@ -77,10 +77,19 @@ public class GeometryEntity {
     }
 
     /**
-     * Return the BranchGroup object representing the geometrical shape contained by this GeometryEntity object.
-     * To be actually overridden in each subclass.
+     * Return the display lists representing the geometrical shape contained by this GeometryEntity object.
+     * Generates the mesh and uploads it, so it must be called on the GL thread.
      */    
     public DisplayLists generateJoglGeometry(final GL gl, final GLU glu, final GLUT glut) {
+    	final SsMesh mesh = this.generateMesh();
+    	return mesh == null ? null : mesh.upload(gl, glu, glut);
+    }
+
+    /**
+     * Return the mesh of the geometrical shape contained by this GeometryEntity object. Makes no
+     * OpenGL calls, so it can be called on any thread. To be actually overridden in each subclass.
+     */
+    public SsMesh generateMesh() {
     	return null;
     }
 
@@ -47,8 +47,6 @@ package org.rcsb.vf.glscene.SecondaryStructureBuilder;
 
 import java.awt.Color;
 
-import javax.media.opengl.GL;
-import javax.media.opengl.glu.GLU;
 
 
 import javax.vecmath.Vector3f;
@@ -66,7 +64,6 @@ import org.rcsb.vf.glscene.jogl.Color3f;
 import org.rcsb.vf.glscene.jogl.Constants;
 import org.rcsb.vf.glscene.jogl.DisplayLists;
 
-import com.jogamp.opengl.util.gl2.GLUT;
 
 
 /**
@@ -119,7 +116,7 @@ public class HelixGeometry extends SsGeometry {
 	}
 
 	
-	public DisplayLists generateJoglGeometry(final GL gl, final GLU glu, final GLUT glut) {
+	public SsMesh generateMesh() {
 		this.processQualityInfo(this.quality);
 		if (this.ssShape == ConformationShape.CYLINDER) {
 			this.segments = 2;
@@ -324,11 +321,11 @@ public class HelixGeometry extends SsGeometry {
 		}
 
 		if (this.ssShape == ConformationShape.RIBBON) {
-			return this.drawFigure(this.csStyle, pathCoords, scale, pathTrihedron,
-					this.pathColorMap, spinePointCount, gl, glu, glut);
+			return this.createFigureMesh(this.csStyle, pathCoords, scale, pathTrihedron,
+					this.pathColorMap, spinePointCount);
 		} else if (this.ssShape == ConformationShape.CYLINDER) {
-			return this.drawFigure(this.csStyle, pathCoords, scale, pathTrihedron,
-					this.pathColorMap, spinePointCount, gl, glu, glut);
+			return this.createFigureMesh(this.csStyle, pathCoords, scale, pathTrihedron,
+					this.pathColorMap, spinePointCount);
 		}
 		
 		return null;
@@ -338,10 +335,11 @@ public class HelixGeometry extends SsGeometry {
 	
 	public static final float[] highShininess = { 128f };
 	public static final float[] noShininess = { 0 };
-	private DisplayLists drawFigure(final CrossSectionStyle style, final Vector3f[] coordinates,
+	private SsMesh createFigureMesh(final CrossSectionStyle style, final Vector3f[] coordinates,
 			final Vector3f[] scale, final FrenetTrihedron[] triheds, final float[][] colorMap,
-			final int pointCount, final GL gl, final GLU glu, final GLUT glut) {
+			final int pointCount) {
 		final DisplayLists arrayLists = new DisplayLists(this.structureComponent);
+		SsMesh mesh = null;
 		
 		arrayLists.specularColor = Constants.chainSpecularColor.color;
 		arrayLists.emissiveColor = Constants.chainEmissiveColor.color;
@@ -472,15 +470,15 @@ public class HelixGeometry extends SsGeometry {
 		if (this.csType != CrossSectionType.POINT) {
 			final Extrusion figure = new Extrusion(cs.length, start, stripVertexCounts, cs,
 					colorMap, start, this.rounded);
-			figure.draw(arrayLists, gl, glu, glut, this.ranges);
+			mesh = figure.createMesh(arrayLists, this.ranges);
 		} else {
 			arrayLists.disableLighting();
 			final BackboneLine figure = new BackboneLine(pointCount, stripVertexCounts,
 					coordinates, colorMap);
-			figure.draw(arrayLists, gl, glu, glut, this.ranges);
+			mesh = figure.createMesh(arrayLists, this.ranges);
 		}
 		
-		return arrayLists;
+		return mesh;
 	}
 
 	// Calculates the normals along a path.
@@ -233,7 +233,47 @@ public class SsGeometry extends GeometryEntity {
 			final CrossSectionType coilCsType, final ConformationShape helixSsShape,
 			final GL gl, final GLU glu, final GLUT glut)
 			throws FragmentTooShortException {
-		final DisplayLists[] arrayLists = new DisplayLists[c.getFragmentCount()];
+		return SsGeometry.upload(SsGeometry.createSsMeshes(c, structureMap, styles, ribbon,
+				helixQuality, strandQuality, turnQuality, coilQuality,
+				helixSmoothingSteps, strandSmoothingSteps, turnSmoothingSteps,
+				coilSmoothingSteps, helixCsType, strandCsType, turnCsType,
+				coilCsType, helixSsShape), gl, glu, glut);
+	}
+
+	/**
+	 * Uploads the meshes created by createSsMeshes. Must be called on the GL
+	 * thread.
+	 * 
+	 * @return the display lists of each fragment of the chain, null for the
+	 *         fragments without a mesh.
+	 */
+	public static DisplayLists[] upload(final SsMesh[] meshes, final GL gl, final GLU glu, final GLUT glut) {
+		final DisplayLists[] arrayLists = new DisplayLists[meshes.length];
+		for (int i = 0; i < meshes.length; i++) {
+			if (meshes[i] != null) {
+				arrayLists[i] = meshes[i].upload(gl, glu, glut);
+			}
+		}
+		return arrayLists;
+	}
+
+	/**
+	 * Builds the meshes of the secondary structures of a chain, as createSs
+	 * does, without any OpenGL calls. Can be called on a worker thread; the
+	 * meshes are uploaded with {@link #upload(SsMesh[], GL, GLU, GLUT)}.
+	 * 
+	 * @return the mesh of each fragment of the chain, null for the fragments
+	 *         that are not drawn.
+	 */
+	public static SsMesh[] createSsMeshes(final Chain c,
+			final StructureMap structureMap, final StructureStyles styles, boolean ribbon, final float helixQuality, final float strandQuality,
+			final float turnQuality, final float coilQuality, final int helixSmoothingSteps,
+			final int strandSmoothingSteps, final int turnSmoothingSteps,
+			final int coilSmoothingSteps, final CrossSectionType helixCsType,
+			final CrossSectionType strandCsType, final CrossSectionType turnCsType,
+			final CrossSectionType coilCsType, final ConformationShape helixSsShape)
+			throws FragmentTooShortException {
+		final SsMesh[] meshes = new SsMesh[c.getFragmentCount()];
 		
 		int fragmentCount = 0;
 		int residueCount = 0;
@@ -373,9 +413,9 @@ public class SsGeometry extends GeometryEntity {
 				coords = new Vec3f[allResidueCount];
 				colorMap = new float[allResidueCount][3];
 				if (hasLeading) {
-					coords[0] = new Vec3f((float) leadingCaAtom.coordinate[0],
-							(float) leadingCaAtom.coordinate[1],
-							(float) leadingCaAtom.coordinate[2]);
+					coords[0] = new Vec3f((float) leadingCaAtom.getX(),
+							(float) leadingCaAtom.getY(),
+							(float) leadingCaAtom.getZ());
 					residue = chainItem.getResidue(leadingResidueIndex);
 					final ChainStyle chainStyle = (ChainStyle) styles
 							.getStyle(chainItem);
@@ -384,9 +424,9 @@ public class SsGeometry extends GeometryEntity {
 				}
 				if (hasTrailing) {
 					coords[allResidueCount - 1] = new Vec3f(
-							(float) trailingCaAtom.coordinate[0],
-							(float) trailingCaAtom.coordinate[1],
-							(float) trailingCaAtom.coordinate[2]);
+							(float) trailingCaAtom.getX(),
+							(float) trailingCaAtom.getY(),
+							(float) trailingCaAtom.getZ());
 					residue = chainItem.getResidue(trailingResidueIndex);
 					final ChainStyle chainStyle = (ChainStyle) styles
 							.getStyle(chainItem);
@@ -402,9 +442,9 @@ public class SsGeometry extends GeometryEntity {
 						caAtom = residue.getAtom(0);
 					}
 					coords[i + startIndex] = new Vec3f(
-							(float) caAtom.coordinate[0],
-							(float) caAtom.coordinate[1],
-							(float) caAtom.coordinate[2]);
+							(float) caAtom.getX(),
+							(float) caAtom.getY(),
+							(float) caAtom.getZ());
 					final ChainStyle chainStyle = (ChainStyle) styles
 							.getStyle(chainItem);
 					chainStyle.getResidueColor(residue, colorMap[i
@@ -474,9 +514,9 @@ public class SsGeometry extends GeometryEntity {
 				coords = new Vec3f[allResidueCount];
 				colorMap = new float[allResidueCount][3];
 				if (hasLeading) {
-					coords[0] = new Vec3f((float) leadingCaAtom.coordinate[0],
-							(float) leadingCaAtom.coordinate[1],
-							(float) leadingCaAtom.coordinate[2]);
+					coords[0] = new Vec3f((float) leadingCaAtom.getX(),
+							(float) leadingCaAtom.getY(),
+							(float) leadingCaAtom.getZ());
 					residue = chainItem.getResidue(leadingResidueIndex);
 					final ChainStyle chainStyle = (ChainStyle) styles
 							.getStyle(chainItem);
@@ -485,9 +525,9 @@ public class SsGeometry extends GeometryEntity {
 				}
 				if (hasTrailing) {
 					coords[allResidueCount - 1] = new Vec3f(
-							(float) trailingCaAtom.coordinate[0],
-							(float) trailingCaAtom.coordinate[1],
-							(float) trailingCaAtom.coordinate[2]);
+							(float) trailingCaAtom.getX(),
+							(float) trailingCaAtom.getY(),
+							(float) trailingCaAtom.getZ());
 					residue = chainItem.getResidue(trailingResidueIndex);
 					final ChainStyle chainStyle = (ChainStyle) styles
 							.getStyle(chainItem);
@@ -505,9 +545,9 @@ public class SsGeometry extends GeometryEntity {
 						caAtom = residue.getAtom(0);
 					}
 					coords[i + startIndex] = new Vec3f(
-							(float) caAtom.coordinate[0],
-							(float) caAtom.coordinate[1],
-							(float) caAtom.coordinate[2]);
+							(float) caAtom.getX(),
+							(float) caAtom.getY(),
+							(float) caAtom.getZ());
 					chainStyle.getResidueColor(residue, colorMap[i
 							+ startIndex]);
 				}
@@ -581,9 +621,9 @@ public class SsGeometry extends GeometryEntity {
 					residue = chainItem.getResidue(startResidueIndex + i);
 					caAtom = residue.getAlphaAtom();
 					coords[startIndex + i] = new Vec3f(
-							(float) caAtom.coordinate[0],
-							(float) caAtom.coordinate[1],
-							(float) caAtom.coordinate[2]);
+							(float) caAtom.getX(),
+							(float) caAtom.getY(),
+							(float) caAtom.getZ());
 					final ChainStyle chainStyle = (ChainStyle) styles
 							.getStyle(chainItem);
 					chainStyle.getResidueColor(residue, colorMap[i]);
@@ -591,9 +631,9 @@ public class SsGeometry extends GeometryEntity {
 
 				if (hasTrailing) {
 					coords[allResidueCount - 1] = new Vec3f(
-							(float) trailingCaAtom.coordinate[0],
-							(float) trailingCaAtom.coordinate[1],
-							(float) trailingCaAtom.coordinate[2]);
+							(float) trailingCaAtom.getX(),
+							(float) trailingCaAtom.getY(),
+							(float) trailingCaAtom.getZ());
 					residue = chainItem.getResidue(trailingResidueIndex);
 					final ChainStyle chainStyle = (ChainStyle) styles
 							.getStyle(chainItem);
@@ -672,9 +712,9 @@ public class SsGeometry extends GeometryEntity {
 						System.err.println("No Ca atom returned for residue "
 								+ residue);
 					}
-					coords[i] = new Vec3f((float) caAtom.coordinate[0],
-							(float) caAtom.coordinate[1],
-							(float) caAtom.coordinate[2]);
+					coords[i] = new Vec3f((float) caAtom.getX(),
+							(float) caAtom.getY(),
+							(float) caAtom.getZ());
 					final ChainStyle chainStyle = (ChainStyle) styles
 							.getStyle(chainItem);
 					chainStyle.getResidueColor(residue, colorMap[i]);
@@ -682,9 +722,9 @@ public class SsGeometry extends GeometryEntity {
 
 				if (hasTrailing) {
 					coords[allResidueCount - 1] = new Vec3f(
-							(float) trailingCaAtom.coordinate[0],
-							(float) trailingCaAtom.coordinate[1],
-							(float) trailingCaAtom.coordinate[2]);
+							(float) trailingCaAtom.getX(),
+							(float) trailingCaAtom.getY(),
+							(float) trailingCaAtom.getZ());
 					residue = chainItem.getResidue(trailingResidueIndex);
 					final ChainStyle chainStyle = (ChainStyle) styles
 							.getStyle(chainItem);
@@ -736,10 +776,10 @@ public class SsGeometry extends GeometryEntity {
 				}
 			}
 			
-			arrayLists[fragmentIndex] = entity.generateJoglGeometry(gl, glu, glut);
+			meshes[fragmentIndex] = entity.generateMesh();
 		}
 
-		return arrayLists;
+		return meshes;
 	}
 
 
@@ -0,0 +1,267 @@
+/*
+ * BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence. This should
+ * be distributed with the code. If you do not have a copy,
+ * see:
+ *
+ * http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors. These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ * http://www.biojava.org/
+ *
+ * This code was contributed from the Molecular Biology Toolkit
+ * (MBT) project at the University of California San Diego.
+ *
+ * Please reference J.L. Moreland, A.Gramada, O.V. Buzko, Qing
+ * Zhang and P.E. Bourne 2005 The Molecular Biology Toolkit (MBT):
+ * A Modular Platform for Developing Molecular Visualization
+ * Applications. BMC Bioinformatics, 6:21.
+ *
+ * The MBT project was funded as part of the National Institutes
+ * of Health PPG grant number 1-P01-GM63208 and its National
+ * Institute of General Medical Sciences (NIGMS) division. Ongoing
+ * development for the MBT project is managed by the RCSB
+ * Protein Data Bank(http://www.pdb.org) and supported by funds
+ * from the National Science Foundation (NSF), the National
+ * Institute of General Medical Sciences (NIGMS), the Office of
+ * Science, Department of Energy (DOE), the National Library of
+ * Medicine (NLM), the National Cancer Institute (NCI), the
+ * National Center for Research Resources (NCRR), the National
+ * Institute of Biomedical Imaging and Bioengineering (NIBIB),
+ * the National Institute of Neurological Disorders and Stroke
+ * (NINDS), and the National Institute of Diabetes and Digestive
+ * and Kidney Diseases (NIDDK).
+ *
+ * Created on 2026/10/18
+ *
+ */ 
+package org.rcsb.vf.glscene.SecondaryStructureBuilder;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+import javax.media.opengl.GL;
+import javax.media.opengl.GL2;
+import javax.media.opengl.glu.GLU;
+
+import org.rcsb.vf.glscene.jogl.DisplayLists;
+
+import com.jogamp.common.nio.Buffers;
+import com.jogamp.opengl.util.gl2.GLUT;
+
+/**
+ * SsMesh holds the tessellated geometry of one secondary structure element in
+ * flat arrays: positions, normals and colors of the vertices, and the vertex
+ * indices of one strip per residue.
+ * <P>
+ * A mesh is built without any OpenGL calls, so it can be created on a worker
+ * thread. {@link #upload(GL, GLU, GLUT)} then compiles it into the display
+ * lists or vertex buffer objects of its {@link DisplayLists} and must be
+ * called on the GL thread.
+ */
+public class SsMesh {
+	private final DisplayLists lists;
+
+	private final int primitiveType;
+
+	private float[] vertices;
+
+	private float[] normals;
+
+	private float[] colors;
+
+	private int vertexCount;
+
+	private final int[] indices;
+
+	private final int[] stripOffsets;
+
+	/**
+	 * @param lists - holds the material of the mesh. No display lists are
+	 *        created before the mesh is uploaded.
+	 * @param primitiveType - GL.GL_TRIANGLE_STRIP or GL.GL_LINE_STRIP.
+	 * @param vertices - x, y, z of vertex i at 3 * i.
+	 * @param normals - the vertex normals, in the same layout. May be null for
+	 *        line strips.
+	 * @param colors - the vertex colors, red, green and blue at 3 * i. May be null.
+	 * @param vertexCount - the number of vertices.
+	 * @param ranges - { StructureComponent, int[] {first, last} } for each
+	 *        strip. Each strip is made of the vertices first to last.
+	 */
+	public SsMesh(final DisplayLists lists, final int primitiveType,
+			final float[] vertices, final float[] normals, final float[] colors,
+			final int vertexCount, final Object[] ranges) {
+		this.lists = lists;
+		this.primitiveType = primitiveType;
+		this.vertices = vertices;
+		this.normals = normals;
+		this.colors = colors;
+		this.vertexCount = vertexCount;
+
+		this.stripOffsets = new int[ranges.length + 1];
+		for (int i = 0; i < ranges.length; i++) {
+			final int[] range = (int[]) ((Object[]) ranges[i])[1];
+			this.stripOffsets[i + 1] = this.stripOffsets[i] + range[1] - range[0] + 1;
+		}
+
+		this.indices = new int[this.stripOffsets[ranges.length]];
+		for (int i = 0; i < ranges.length; i++) {
+			final int[] range = (int[]) ((Object[]) ranges[i])[1];
+			int offset = this.stripOffsets[i];
+			for (int j = range[0]; j <= range[1]; j++) {
+				this.indices[offset++] = j;
+			}
+		}
+	}
+
+	/**
+	 * Merges the vertices with identical position and normal, as used by
+	 * vertex buffer objects. A merged vertex keeps the color of its first
+	 * occurrence.
+	 */
+	public void weld() {
+		final VertexWelder welder = new VertexWelder(this.vertexCount);
+		final int[] newIndices = new int[this.vertexCount];
+		final float[] newColors = this.colors == null ? null : new float[3 * this.vertexCount];
+		for (int i = 0; i < this.vertexCount; i++) {
+			final int offset = 3 * i;
+			final int knownCount = welder.getVertexCount();
+			final int newIndex;
+			if (this.normals != null) {
+				newIndex = welder.add(this.vertices[offset], this.vertices[offset + 1], this.vertices[offset + 2],
+						this.normals[offset], this.normals[offset + 1], this.normals[offset + 2]);
+			} else {
+				newIndex = welder.add(this.vertices[offset], this.vertices[offset + 1], this.vertices[offset + 2],
+						0, 0, 0);
+			}
+			if (newColors != null && newIndex == knownCount) {
+				System.arraycopy(this.colors, offset, newColors, 3 * newIndex, 3);
+			}
+			newIndices[i] = newIndex;
+		}
+
+		for (int i = 0; i < this.indices.length; i++) {
+			this.indices[i] = newIndices[this.indices[i]];
+		}
+		this.vertexCount = welder.getVertexCount();
+		this.vertices = welder.getVertices();
+		this.normals = this.normals == null ? null : welder.getNormals();
+		this.colors = newColors;
+	}
+
+	/**
+	 * Compiles the mesh into its display lists, or into vertex buffer objects
+	 * if these are enabled. Must be called on the GL thread.
+	 * 
+	 * @return the display lists of the mesh.
+	 */
+	public DisplayLists upload(final GL gl, final GLU glu, final GLUT glut) {
+		final int stripCount = this.getStripCount();
+
+		if (DisplayLists.useVertexBufferObjects && this.primitiveType == GL.GL_TRIANGLE_STRIP) {
+			this.lists.startDefineVertexBufferObjects(stripCount);
+			for (int i = 0; i < stripCount; i++) {
+				final int start = this.stripOffsets[i];
+				final int length = this.stripOffsets[i + 1] - start;
+				int minIndex = Integer.MAX_VALUE;
+				int maxIndex = 0;
+				for (int j = start; j < start + length; j++) {
+					minIndex = Math.min(this.indices[j], minIndex);
+					maxIndex = Math.max(this.indices[j], maxIndex);
+				}
+				final IntBuffer indexBuffer = Buffers.newDirectIntBuffer(this.indices, start, length);
+				this.lists.setIndexArray(i, indexBuffer, new int[] {minIndex, maxIndex});
+			}
+
+			final int floatCount = 3 * this.vertexCount;
+			final FloatBuffer vertexBuffer = Buffers.newDirectFloatBuffer(this.vertices, 0, floatCount);
+			final FloatBuffer normalBuffer = Buffers.newDirectFloatBuffer(this.normals, 0, floatCount);
+			this.lists.defineVertexBufferObject(gl, glu, glut, vertexBuffer, normalBuffer, floatCount);
+			this.lists.endDefineVertexBufferObjects();
+		} else {
+			final GL2 gl2 = gl.getGL2();
+			this.lists.setupLists(stripCount);
+			for (int i = 0; i < stripCount; i++) {
+				this.lists.startDefine(i, gl, glu, glut);
+				gl2.glBegin(this.primitiveType);
+				for (int j = this.stripOffsets[i]; j < this.stripOffsets[i + 1]; j++) {
+					final int offset = 3 * this.indices[j];
+					if (this.normals != null) {
+						gl2.glNormal3fv(this.normals, offset);
+					}
+					gl2.glVertex3fv(this.vertices, offset);
+				}
+				gl2.glEnd();
+				this.lists.endDefine(gl, glu, glut);
+			}
+		}
+
+		return this.lists;
+	}
+
+	/**
+	 * @return the display lists the mesh is uploaded to.
+	 */
+	public DisplayLists getDisplayLists() {
+		return this.lists;
+	}
+
+	/**
+	 * @return GL.GL_TRIANGLE_STRIP or GL.GL_LINE_STRIP.
+	 */
+	public int getPrimitiveType() {
+		return this.primitiveType;
+	}
+
+	public int getVertexCount() {
+		return this.vertexCount;
+	}
+
+	/**
+	 * @return x, y and z of vertex i at 3 * i.
+	 */
+	public float[] getVertices() {
+		return this.vertices;
+	}
+
+	/**
+	 * @return the vertex normals, or null for line strips.
+	 */
+	public float[] getNormals() {
+		return this.normals;
+	}
+
+	/**
+	 * @return the vertex colors, red, green and blue of vertex i at 3 * i, or null.
+	 */
+	public float[] getColors() {
+		return this.colors;
+	}
+
+	/**
+	 * @return the number of strips, one for each residue.
+	 */
+	public int getStripCount() {
+		return this.stripOffsets.length - 1;
+	}
+
+	/**
+	 * @return the vertex indices of all strips. Strip i uses the indices from
+	 *         getStripOffsets()[i] up to, but not including, getStripOffsets()[i + 1].
+	 */
+	public int[] getIndices() {
+		return this.indices;
+	}
+
+	public int[] getStripOffsets() {
+		return this.stripOffsets;
+	}
+}
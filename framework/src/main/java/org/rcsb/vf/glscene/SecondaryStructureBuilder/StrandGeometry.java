@@ -47,8 +47,6 @@ package org.rcsb.vf.glscene.SecondaryStructureBuilder;
 
 import java.awt.Color;
 
-import javax.media.opengl.GL;
-import javax.media.opengl.glu.GLU;
 
 
 import javax.vecmath.Vector3f;
@@ -65,7 +63,6 @@ import org.rcsb.vf.glscene.jogl.Color3f;
 import org.rcsb.vf.glscene.jogl.Constants;
 import org.rcsb.vf.glscene.jogl.DisplayLists;
 
-import com.jogamp.opengl.util.gl2.GLUT;
 
 
 /**
@@ -116,7 +113,7 @@ public class StrandGeometry extends SsGeometry {
 	 * <code>GeometryEntity</code> that this object contains as a child.
 	 */
 	
-	public DisplayLists generateJoglGeometry(final GL gl, final GLU glu, final GLUT glut) {
+	public SsMesh generateMesh() {
 		this.processQualityInfo(this.quality);
 
 		// Create an object for Hermite sampling
@@ -259,8 +256,8 @@ public class StrandGeometry extends SsGeometry {
 			this.setPathColor(spinePointCount);
 		}
 
-		return this.drawFigure(this.csStyle, arrowScale, pathCoords,
-				pathTrihedron, this.pathColorMap, spinePointCount, gl, glu, glut);
+		return this.createFigureMesh(this.csStyle, arrowScale, pathCoords,
+				pathTrihedron, this.pathColorMap, spinePointCount);
 	}
 
 	private Object[] ranges = null;
@@ -270,10 +267,11 @@ public class StrandGeometry extends SsGeometry {
 	 * the underlying data
 	 * 
 	 */
-	public DisplayLists drawFigure(final CrossSectionStyle style,
+	public SsMesh createFigureMesh(final CrossSectionStyle style,
 			final Vector3f[] arrowScale, final Vector3f[] coordinates,
-			final FrenetTrihedron[] triheds, final float[][] colorMap, final int pointCount, final GL gl, final GLU glu, final GLUT glut) {
+			final FrenetTrihedron[] triheds, final float[][] colorMap, final int pointCount) {
 		final DisplayLists arrayLists = new DisplayLists(this.structureComponent);
+		SsMesh mesh = null;
 		
 		// 
 		// Set an Appearance for the backbone.
@@ -497,14 +495,14 @@ public class StrandGeometry extends SsGeometry {
 
 			final Extrusion figure = new Extrusion(cs.length, start,
 					stripVertexCounts, cs, colorMap, start, this.rounded);
-			figure.draw(arrayLists, gl, glu, glut, this.ranges);
+			mesh = figure.createMesh(arrayLists, this.ranges);
 		} else {
 //			arrayLists.shininess = noShininess;
 			arrayLists.disableLighting();
 			
 			final BackboneLine figure = new BackboneLine(pointCount,
 					stripVertexCounts, coordinates, colorMap);
-			figure.draw(arrayLists, gl, glu, glut, this.ranges);
+			mesh = figure.createMesh(arrayLists, this.ranges);
 		}
 		
 //		for(int i = 0; i < arrayLists.vertexSize; i++) {
@@ -513,7 +511,7 @@ public class StrandGeometry extends SsGeometry {
 //			}
 //		}
 		
-		return arrayLists;
+		return mesh;
 	}
 
 	/**
@@ -0,0 +1,193 @@
+/*
+ * BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence. This should
+ * be distributed with the code. If you do not have a copy,
+ * see:
+ *
+ * http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors. These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ * http://www.biojava.org/
+ *
+ * This code was contributed from the Molecular Biology Toolkit
+ * (MBT) project at the University of California San Diego.
+ *
+ * Please reference J.L. Moreland, A.Gramada, O.V. Buzko, Qing
+ * Zhang and P.E. Bourne 2005 The Molecular Biology Toolkit (MBT):
+ * A Modular Platform for Developing Molecular Visualization
+ * Applications. BMC Bioinformatics, 6:21.
+ *
+ * The MBT project was funded as part of the National Institutes
+ * of Health PPG grant number 1-P01-GM63208 and its National
+ * Institute of General Medical Sciences (NIGMS) division. Ongoing
+ * development for the MBT project is managed by the RCSB
+ * Protein Data Bank(http://www.pdb.org) and supported by funds
+ * from the National Science Foundation (NSF), the National
+ * Institute of General Medical Sciences (NIGMS), the Office of
+ * Science, Department of Energy (DOE), the National Library of
+ * Medicine (NLM), the National Cancer Institute (NCI), the
+ * National Center for Research Resources (NCRR), the National
+ * Institute of Biomedical Imaging and Bioengineering (NIBIB),
+ * the National Institute of Neurological Disorders and Stroke
+ * (NINDS), and the National Institute of Diabetes and Digestive
+ * and Kidney Diseases (NIDDK).
+ *
+ * Created on 2026/10/18
+ *
+ */ 
+package org.rcsb.vf.glscene.SecondaryStructureBuilder;
+
+/**
+ * Merges identical vertices of a triangle strip mesh for vertex buffer objects.
+ * <p>
+ * Vertices are compared by the float values that are uploaded to the buffers,
+ * i.e. positions are quantized to float precision, and a vertex is only
+ * merged with another one if its position and normal are identical. The
+ * vertices are kept in flat float arrays and looked up in an open addressing
+ * table of vertex indices, so no objects are created per vertex.
+ * </p>
+ */
+public class VertexWelder {
+	private float[] vertices;
+	private float[] normals;
+	private int count = 0;
+
+	private int[] table;
+	private int mask;
+
+	/**
+	 * @param expectedVertexCount - the maximum number of vertices that will be added.
+	 * More vertices can be added, at the cost of resizing.
+	 */
+	public VertexWelder(final int expectedVertexCount) {
+		final int capacity = Math.max(expectedVertexCount, 16);
+		this.vertices = new float[3 * capacity];
+		this.normals = new float[3 * capacity];
+		this.createTable(capacity);
+	}
+
+	/**
+	 * Adds a vertex and returns its index. If the same vertex was added
+	 * before, the index of that vertex is returned.
+	 */
+	public int add(final float x, final float y, final float z,
+			final float nx, final float ny, final float nz) {
+		final int bx = Float.floatToIntBits(x);
+		final int by = Float.floatToIntBits(y);
+		final int bz = Float.floatToIntBits(z);
+		final int bnx = Float.floatToIntBits(nx);
+		final int bny = Float.floatToIntBits(ny);
+		final int bnz = Float.floatToIntBits(nz);
+
+		int slot = VertexWelder.hash(bx, by, bz, bnx, bny, bnz) & this.mask;
+		for (int index = this.table[slot]; index >= 0; index = this.table[slot]) {
+			final int offset = 3 * index;
+			if (Float.floatToIntBits(this.vertices[offset]) == bx
+					&& Float.floatToIntBits(this.vertices[offset + 1]) == by
+					&& Float.floatToIntBits(this.vertices[offset + 2]) == bz
+					&& Float.floatToIntBits(this.normals[offset]) == bnx
+					&& Float.floatToIntBits(this.normals[offset + 1]) == bny
+					&& Float.floatToIntBits(this.normals[offset + 2]) == bnz) {
+				return index;
+			}
+			slot = (slot + 1) & this.mask;
+		}
+
+		if (3 * (this.count + 1) > this.vertices.length) {
+			this.grow();
+			return this.add(x, y, z, nx, ny, nz);
+		}
+
+		final int index = this.count++;
+		final int offset = 3 * index;
+		this.vertices[offset] = x;
+		this.vertices[offset + 1] = y;
+		this.vertices[offset + 2] = z;
+		this.normals[offset] = nx;
+		this.normals[offset + 1] = ny;
+		this.normals[offset + 2] = nz;
+		this.table[slot] = index;
+		return index;
+	}
+
+	/**
+	 * @return the number of distinct vertices.
+	 */
+	public int getVertexCount() {
+		return this.count;
+	}
+
+	/**
+	 * @return the vertex coordinates, x, y and z of vertex i at 3 * i. Only the
+	 *         first 3 * getVertexCount() values are used.
+	 */
+	public float[] getVertices() {
+		return this.vertices;
+	}
+
+	/**
+	 * @return the vertex normals, in the same layout as the vertices.
+	 */
+	public float[] getNormals() {
+		return this.normals;
+	}
+
+	private void createTable(final int capacity) {
+		// keep the table at most half full
+		int size = 1;
+		while (size < 2 * capacity) {
+			size <<= 1;
+		}
+		this.table = new int[size];
+		java.util.Arrays.fill(this.table, -1);
+		this.mask = size - 1;
+	}
+
+	private void grow() {
+		final int capacity = 2 * (this.vertices.length / 3);
+		final float[] newVertices = new float[3 * capacity];
+		final float[] newNormals = new float[3 * capacity];
+		System.arraycopy(this.vertices, 0, newVertices, 0, 3 * this.count);
+		System.arraycopy(this.normals, 0, newNormals, 0, 3 * this.count);
+		this.vertices = newVertices;
+		this.normals = newNormals;
+
+		this.createTable(capacity);
+		for (int index = 0; index < this.count; index++) {
+			final int offset = 3 * index;
+			int slot = VertexWelder.hash(Float.floatToIntBits(this.vertices[offset]),
+					Float.floatToIntBits(this.vertices[offset + 1]),
+					Float.floatToIntBits(this.vertices[offset + 2]),
+					Float.floatToIntBits(this.normals[offset]),
+					Float.floatToIntBits(this.normals[offset + 1]),
+					Float.floatToIntBits(this.normals[offset + 2])) & this.mask;
+			while (this.table[slot] >= 0) {
+				slot = (slot + 1) & this.mask;
+			}
+			this.table[slot] = index;
+		}
+	}
+
+	private static int hash(final int bx, final int by, final int bz,
+			final int bnx, final int bny, final int bnz) {
+		int h = bx;
+		h = 31 * h + by;
+		h = 31 * h + bz;
+		h = 31 * h + bnx;
+		h = 31 * h + bny;
+		h = 31 * h + bnz;
+		// spread the low bits, the table size is a power of two
+		h ^= (h >>> 16);
+		h *= 0x85ebca6b;
+		h ^= (h >>> 13);
+		return h;
+	}
+}
@@ -102,6 +102,82 @@ public class AtomGeometry
 
 	
 	
+	/**
+	 * Draws the unit sphere of a shared display list. The slices and segments
+	 * follow the quality, scaled by the current TessellationLod level.
+	 */
+	private static void drawSphere( final int form, final float quality, final GL gl, final GLUT glut )
+	{
+		GL2 gl2 = gl.getGL2();
+		
+		final float lodQuality = quality * TessellationLod.getQualityFactor();
+		final int slices = AtomGeometry.getSlices( lodQuality );
+		final int segments = AtomGeometry.getSegments( lodQuality );
+//System.err.println("Atom: slices " + slices + ", segments " + segments);
+
+		if ( form == Geometry.FORM_POINTS )
+		{
+			gl2.glPointSize( 7.0f );
+			gl2.glBegin( GL.GL_POINTS );
+			gl2.glVertex3f( 0.0f, 0.0f, 0.0f );
+			gl2.glEnd( );
+			gl2.glPointSize( 1.0f );
+		}
+		else if ( form == Geometry.FORM_LINES )
+		{
+			glut.glutWireSphere( 1.0, slices, segments );
+		}
+		else if ( form == Geometry.FORM_FLAT )
+		{
+			glut.glutSolidSphere( 1.0, AtomGeometry.minSlices, AtomGeometry.minSegments );
+		}
+		else if ( form == Geometry.FORM_THICK )
+		{
+			glut.glutSolidSphere( 1.0, slices, segments );
+		}
+		else
+		{
+			throw new IllegalArgumentException( "unknown form " + form );
+		}
+	}
+	
+	static int getSlices( final float quality )
+	{
+		return AtomGeometry.minSlices + (int) ((AtomGeometry.maxSlices - AtomGeometry.minSlices) * quality);
+	}
+	
+	static int getSegments( final float quality )
+	{
+		return AtomGeometry.minSegments + (int) ((AtomGeometry.maxSegments - AtomGeometry.minSegments) * quality);
+	}
+	
+	/**
+	 * Recompiles the shared sphere display lists in place, after the
+	 * TessellationLod level changed. The renderables keep their copies of the
+	 * lists, which refer to the same list ids, so they need not be regenerated.
+	 */
+	public static void recompileSharedDisplayLists( final GL gl, final GLU glu, final GLUT glut )
+	{
+		GL2 gl2 = gl.getGL2();
+		
+		for ( final Object key : AtomGeometry.sharedDisplayLists.keySet() )
+		{
+			final Object value = AtomGeometry.sharedDisplayLists.get( key );
+			if ( !(value instanceof DisplayLists) )
+				continue;		// a label
+			
+			final String dlKey = (String)key;
+			final int separator = dlKey.indexOf( ':' );
+			final int form = Integer.parseInt( dlKey.substring( 0, separator ) );
+			final float quality = Float.parseFloat( dlKey.substring( separator + 1 ) );
+			
+			gl2.glNewList( ((DisplayLists)value).videoMemoryReferences[0], GL2.GL_COMPILE );
+			AtomGeometry.drawSphere( form, quality, gl, glut );
+			gl2.glEndList( );
+		}
+	}
+
+
 	/**
 	 * Please complete the missing tags for main
 	 * @param
@@ -129,41 +205,11 @@ public class AtomGeometry
 		
 		if ( lists[0] == null )
 		{
-			final int slices =
-				AtomGeometry.minSlices + (int) ((AtomGeometry.maxSlices - AtomGeometry.minSlices) * quality);
-			final int segments =
-				AtomGeometry.minSegments + (int) ((AtomGeometry.maxSegments - AtomGeometry.minSegments) * quality);
-//System.err.println("Atom: slices " + slices + ", segments " + segments);
 			lists[0] = new DisplayLists(atom);
 			lists[0].setupLists(1);
 			
 			lists[0].startDefine(0, gl, glu, glut);
-			
-			if ( form == Geometry.FORM_POINTS )
-			{
-				gl2.glPointSize( 7.0f );
-				gl2.glBegin( GL.GL_POINTS );
-				gl2.glVertex3f( 0.0f, 0.0f, 0.0f );
-				gl2.glEnd( );
-				gl2.glPointSize( 1.0f );
-			}
-			else if ( form == Geometry.FORM_LINES )
-			{
-				glut.glutWireSphere( 1.0, slices, segments );
-			}
-			else if ( form == Geometry.FORM_FLAT )
-			{
-				glut.glutSolidSphere( 1.0, AtomGeometry.minSlices, AtomGeometry.minSegments );
-			}
-			else if ( form == Geometry.FORM_THICK )
-			{
-				glut.glutSolidSphere( 1.0, slices, segments );
-			}
-			else
-			{
-				throw new IllegalArgumentException( "unknown form " + form );
-			}
-			
+			AtomGeometry.drawSphere( form, quality, gl, glut );
 			lists[0].endDefine(gl, glu, glut);
 
 			AtomGeometry.sharedDisplayLists.put( dlKey, lists[0] );
@@ -228,7 +274,7 @@ public class AtomGeometry
 		}
 
 		// Position
-		lists[0].translation = new float[] {(float)atom.coordinate[0], (float)atom.coordinate[1], (float)atom.coordinate[2]};
+		lists[0].translation = new float[] {(float)atom.getX(), (float)atom.getY(), (float)atom.getZ()};
 		
 		// Radius
 		lists[0].scale = new float[] {radius, radius, radius};
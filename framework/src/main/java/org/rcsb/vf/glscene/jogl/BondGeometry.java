@@ -150,6 +150,65 @@ public class BondGeometry
 	}
 
 
+	/**
+	 *  Draws the unit cylinder of a shared display list. The slices follow
+	 *  the quality, scaled by the current TessellationLod level.
+	 */
+	private void drawUnitCylinder( final int form, final float quality, final GL gl, final GLU glu, final GLUT glut )
+	{
+		GL2 gl2 = gl.getGL2();
+		
+		final float topPt[] = { 0.0f, +0.5f, 0.0f };
+		final float botPt[] = { 0.0f, -0.5f, 0.0f };
+		final float lodQuality = quality * TessellationLod.getQualityFactor();
+		final int slices =
+			BondGeometry.minSlices + (int) ((BondGeometry.maxSlices - BondGeometry.minSlices) * lodQuality);
+		final int segments =
+			BondGeometry.minSegments + (int) ((BondGeometry.maxSegments - BondGeometry.minSegments) * lodQuality);
+
+		if ( (form == Geometry.FORM_POINTS) ||
+			(form == Geometry.FORM_LINES) )
+		{
+			gl.glLineWidth( 3.0f );
+			gl2.glBegin( GL.GL_LINES );
+			gl2.glVertex3fv( topPt, 0 );
+			gl2.glVertex3fv( botPt, 0 );
+			gl2.glEnd( );
+			gl.glLineWidth( 1.0f );
+		}
+		else if ( form == Geometry.FORM_FLAT ) {
+			this.drawCylinder( gl, glu, glut, 1.0f, false, 1.0f, false, 1.0f, BondGeometry.minSlices, BondGeometry.minSegments );
+		} else if ( form == Geometry.FORM_THICK ) {
+			this.drawCylinder( gl, glu, glut, 1.0f, false, 1.0f, false, 1.0f, slices, segments );
+		} else {
+			throw new IllegalArgumentException( "unknown form " + form );
+		}
+	}
+
+
+	/**
+	 *  Recompiles the shared cylinder display lists in place, after the
+	 *  TessellationLod level changed. The renderables keep their copies of the
+	 *  lists, which refer to the same list ids, so they need not be regenerated.
+	 */
+	public static void recompileSharedDisplayLists( final GL gl, final GLU glu, final GLUT glut )
+	{
+		GL2 gl2 = gl.getGL2();
+		final BondGeometry geometry = new BondGeometry( );
+		
+		for ( final String dlKey : BondGeometry.sharedDisplayLists.keySet() )
+		{
+			final int separator = dlKey.indexOf( ':' );
+			final int form = Integer.parseInt( dlKey.substring( 0, separator ) );
+			final float quality = Float.parseFloat( dlKey.substring( separator + 1 ) );
+			
+			gl2.glNewList( BondGeometry.sharedDisplayLists.get( dlKey ).videoMemoryReferences[0], GL2.GL_COMPILE );
+			geometry.drawUnitCylinder( form, quality, gl, glu, glut );
+			gl2.glEndList( );
+		}
+	}
+
+
 	/**
 	 *  Please complete the missing tags for main
 	 *  <P>
@@ -178,34 +237,10 @@ public class BondGeometry
 		
 		if ( cylinderList == null )
 		{
-			final float topPt[] = { 0.0f, +0.5f, 0.0f };
-			final float botPt[] = { 0.0f, -0.5f, 0.0f };
-			final int slices =
-				BondGeometry.minSlices + (int) ((BondGeometry.maxSlices - BondGeometry.minSlices) * quality);
-			final int segments =
-				BondGeometry.minSegments + (int) ((BondGeometry.maxSegments - BondGeometry.minSegments) * quality);
-
 			cylinderList = new DisplayLists(bond);
 			cylinderList.setupLists(1);
 			cylinderList.startDefine(0, gl, glu, glut);
-			
-			if ( (form == Geometry.FORM_POINTS) ||
-				(form == Geometry.FORM_LINES) )
-			{
-				gl.glLineWidth( 3.0f );
-				gl2.glBegin( GL.GL_LINES );
-				gl2.glVertex3fv( topPt, 0 );
-				gl2.glVertex3fv( botPt, 0 );
-				gl2.glEnd( );
-				gl.glLineWidth( 1.0f );
-			}
-			else if ( form == Geometry.FORM_FLAT ) {
-				this.drawCylinder( gl, glu, glut, 1.0f, false, 1.0f, false, 1.0f, BondGeometry.minSlices, BondGeometry.minSegments );
-			} else if ( form == Geometry.FORM_THICK ) {
-				this.drawCylinder( gl, glu, glut, 1.0f, false, 1.0f, false, 1.0f, slices, segments );
-			} else {
-				throw new IllegalArgumentException( "unknown form " + form );
-			}
+			this.drawUnitCylinder( form, quality, gl, glu, glut );
 
 //			gl.glEndList( );
 			cylinderList.endDefine(gl, glu, glut);
@@ -235,20 +270,20 @@ public class BondGeometry
 		// Compute split bond locations using the two atom locations.
 
 		final double center[] = {
-			(atom0.coordinate[0] + atom1.coordinate[0]) / 2.0f,
-			(atom0.coordinate[1] + atom1.coordinate[1]) / 2.0f,
-			(atom0.coordinate[2] + atom1.coordinate[2]) / 2.0f
+			(atom0.getX() + atom1.getX()) / 2.0f,
+			(atom0.getY() + atom1.getY()) / 2.0f,
+			(atom0.getZ() + atom1.getZ()) / 2.0f
 		};
 		final double locations[][] = {
 			{
-				(atom0.coordinate[0] + center[0]) / 2.0f,
-				(atom0.coordinate[1] + center[1]) / 2.0f,
-				(atom0.coordinate[2] + center[2]) / 2.0f
+				(atom0.getX() + center[0]) / 2.0f,
+				(atom0.getY() + center[1]) / 2.0f,
+				(atom0.getZ() + center[2]) / 2.0f
 			},
 			{
-				(atom1.coordinate[0] + center[0]) / 2.0f,
-				(atom1.coordinate[1] + center[1]) / 2.0f,
-				(atom1.coordinate[2] + center[2]) / 2.0f
+				(atom1.getX() + center[0]) / 2.0f,
+				(atom1.getY() + center[1]) / 2.0f,
+				(atom1.getZ() + center[2]) / 2.0f
 			}
 		};
 
@@ -258,9 +293,9 @@ public class BondGeometry
 		// Compute the bond direction using the relative atom positions.
 
 		final double direction[] = {
-			atom1.coordinate[0] - atom0.coordinate[0],
-			atom1.coordinate[1] - atom0.coordinate[1],
-			atom1.coordinate[2] - atom0.coordinate[2]
+			atom1.getX() - atom0.getX(),
+			atom1.getY() - atom0.getY(),
+			atom1.getZ() - atom0.getZ()
 		};
 		
 		// normalize the vector.
@@ -376,11 +411,12 @@ public class BondGeometry
 				participantAtom0 = ixAtom == 0? atom0 : atom1;
 				centerAtom = ixAtom == 0? atom1 : atom0;
 				
-				Vector<Bond> checkBonds = structureMap.getBonds(centerAtom);
+				int checkBondCount = structureMap.getBondCount(centerAtom);
 				
-				if (checkBonds.size() > 1)		// (if 1, it's this bond and we don't care.)
-					for (Bond checkBond : checkBonds)
+				if (checkBondCount > 1)		// (if 1, it's this bond and we don't care.)
+					for (int ixBond = 0; ixBond < checkBondCount; ixBond++)
 					{
+						Bond checkBond = structureMap.getBond(centerAtom, ixBond);
 						for (int nxAtom = 0; nxAtom < 2; nxAtom++)
 						{
 							Atom checkAtom = checkBond.getAtom(nxAtom);
@@ -414,9 +450,9 @@ public class BondGeometry
 			if (participantAtom1 != null)
 			{			
 				double[] xlatedThirdAtomPoint =
-					new double[] { participantAtom1.coordinate[0] - participantAtom0.coordinate[0], 
-								   participantAtom1.coordinate[1] - participantAtom0.coordinate[1],
-								   participantAtom1.coordinate[2] - participantAtom0.coordinate[2] };
+					new double[] { participantAtom1.getX() - participantAtom0.getX(), 
+								   participantAtom1.getY() - participantAtom0.getY(),
+								   participantAtom1.getZ() - participantAtom0.getZ() };
 			
 				
 				double rotator[] = new double[] { -rotAngleRadians, rotation[0], rotation[1], rotation[2]};			
@@ -470,17 +506,17 @@ public class BondGeometry
 				if ( this.showOrder && bondPartIX == partialIX )
 				{
 					locations[0][0] =
-						atom0.coordinate[0] + direction[0] * segmentDistance0;
+						atom0.getX() + direction[0] * segmentDistance0;
 					locations[0][1] =
-						atom0.coordinate[1] + direction[1] * segmentDistance0;
+						atom0.getY() + direction[1] * segmentDistance0;
 					locations[0][2] =
-						atom0.coordinate[2] + direction[2] * segmentDistance0;
+						atom0.getZ() + direction[2] * segmentDistance0;
 					locations[1][0] =
-						atom0.coordinate[0] + direction[0] * segmentDistance1;
+						atom0.getX() + direction[0] * segmentDistance1;
 					locations[1][1] =
-						atom0.coordinate[1] + direction[1] * segmentDistance1;
+						atom0.getY() + direction[1] * segmentDistance1;
 					locations[1][2] =
-						atom0.coordinate[2] + direction[2] * segmentDistance1;
+						atom0.getZ() + direction[2] * segmentDistance1;
 				}
 				currentList.translation = new float[] {(float)locations[s][0], (float)locations[s][1], (float)locations[s][2]};
 				currentList.rotation = new float[] {(float)rotAngleDegrees, (float)rotation[0], (float)rotation[1], (float)rotation[2]};
@@ -52,6 +52,7 @@ import javax.media.opengl.glu.GLU;
 import org.rcsb.mbt.model.*;
 import org.rcsb.mbt.model.attributes.*;
 import org.rcsb.vf.glscene.SecondaryStructureBuilder.SsGeometry;
+import org.rcsb.vf.glscene.SecondaryStructureBuilder.SsMesh;
 import org.rcsb.vf.glscene.SecondaryStructureBuilder.CrossSectionStyle.CrossSectionType;
 import org.rcsb.vf.glscene.SecondaryStructureBuilder.SsGeometry.ConformationShape;
 
@@ -128,11 +129,24 @@ public class ChainGeometry
 	 */
 
 	public DisplayLists[] getDisplayLists(final StructureComponent structureComponent, final Style style, final GL gl, final GLU glu, final GLUT glut) {
+		final SsMesh[] meshes = this.getMeshes(structureComponent, style);
+		return meshes == null ? null : SsGeometry.upload(meshes, gl, glu, glut);
+	}
+
+	/**
+	 * Tessellates the secondary structure of a chain without any OpenGL
+	 * calls, so this can run on a worker thread. The meshes are uploaded
+	 * with {@link SsGeometry#upload(SsMesh[], GL, GLU, GLUT)}.
+	 * 
+	 * @return the mesh of each fragment of the chain, or null if the chain
+	 *         could not be tessellated.
+	 */
+	public SsMesh[] getMeshes(final StructureComponent structureComponent, final Style style) {
 		//
 		// Handle quality, form, and shared display lists.
 		//
 
-		DisplayLists[] lists = null;
+		SsMesh[] meshes = null;
 
 		final Chain chain = (Chain)structureComponent;
 		
@@ -207,15 +221,15 @@ public class ChainGeometry
         		(new Exception()).printStackTrace();
         	}
 			
-			lists = SsGeometry.createSs(chain, structureMap, structureStyles, ribbon, 
+			meshes = SsGeometry.createSsMeshes(chain, structureMap, structureStyles, ribbon, 
 					helixQuality, strandQuality, turnQuality, coilQuality,
 					helixSmoothingSteps, strandSmoothingSteps, turnSmoothingSteps,
 					coilSmoothingSteps, helixCsType, strandCsType, turnCsType,
-					coilCsType, helixSsShape, gl, glu, glut);
+					coilCsType, helixSsShape);
 		} catch(final Exception e) {
 			e.printStackTrace();
 		}
-		return lists;
+		return meshes;
 	}
 
 
@@ -0,0 +1,238 @@
+/*
+ * BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence. This should
+ * be distributed with the code. If you do not have a copy,
+ * see:
+ *
+ * http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors. These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ * http://www.biojava.org/
+ *
+ * This code was contributed from the Molecular Biology Toolkit
+ * (MBT) project at the University of California San Diego.
+ *
+ * Please reference J.L. Moreland, A.Gramada, O.V. Buzko, Qing
+ * Zhang and P.E. Bourne 2005 The Molecular Biology Toolkit (MBT):
+ * A Modular Platform for Developing Molecular Visualization
+ * Applications. BMC Bioinformatics, 6:21.
+ *
+ * The MBT project was funded as part of the National Institutes
+ * of Health PPG grant number 1-P01-GM63208 and its National
+ * Institute of General Medical Sciences (NIGMS) division. Ongoing
+ * development for the MBT project is managed by the RCSB
+ * Protein Data Bank(http://www.pdb.org) and supported by funds
+ * from the National Science Foundation (NSF), the National
+ * Institute of General Medical Sciences (NIGMS), the Office of
+ * Science, Department of Energy (DOE), the National Library of
+ * Medicine (NLM), the National Cancer Institute (NCI), the
+ * National Center for Research Resources (NCRR), the National
+ * Institute of Biomedical Imaging and Bioengineering (NIBIB),
+ * the National Institute of Neurological Disorders and Stroke
+ * (NINDS), and the National Institute of Diabetes and Digestive
+ * and Kidney Diseases (NIDDK).
+ *
+ * Created on 2026/10/18
+ *
+ */ 
+package org.rcsb.vf.glscene.jogl;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+
+import org.rcsb.mbt.model.StructureComponent;
+import org.rcsb.mbt.model.attributes.Style;
+import org.rcsb.mbt.model.util.Status;
+import org.rcsb.uiApp.controllers.app.AppBase;
+import org.rcsb.vf.controllers.app.VFAppBase;
+import org.rcsb.vf.glscene.SecondaryStructureBuilder.SsMesh;
+import org.rcsb.vf.glscene.jogl.ChainGeometry.RibbonForm;
+
+/**
+ * Tessellates the ribbons of chains on a pool of worker threads, so the GL
+ * thread only has to upload the finished meshes. Each finished chain reports
+ * progress through {@link Status} and requests a repaint of the viewer.
+ * <p>
+ * Chains of a structure that isn't shown yet can be prebuilt. The first
+ * submit() for such a chain, with the same geometry settings and style,
+ * returns the prebuilt meshes instead of starting a new tessellation.
+ * </p>
+ */
+public class ChainMeshBuilder
+{
+	private static int threadCount = Runtime.getRuntime().availableProcessors();
+	private static ExecutorService executor = null;
+
+	private static int submittedCount = 0;
+	private static int completedCount = 0;
+
+	/**
+	 * Meshes of a chain that were started before the chain was shown. They are
+	 * kept by the scene node of the structure until the chain renderable claims
+	 * them, so they are dropped with structures that are never shown.
+	 */
+	static class PrebuiltMeshes
+	{
+		final ChainGeometry geometry;
+		final RibbonForm ribbonForm;
+		final boolean ribbonsAreSmoothed;
+		final Style style;
+		final Future<SsMesh[]> meshes;
+
+		PrebuiltMeshes(final ChainGeometry geometry, final Style style, final Future<SsMesh[]> meshes)
+		{
+			this.geometry = geometry;
+			this.ribbonForm = geometry.getRibbonForm();
+			this.ribbonsAreSmoothed = geometry.isRibbonsAreSmoothed();
+			this.style = style;
+			this.meshes = meshes;
+		}
+
+		boolean matches(final ChainGeometry geometry, final Style style)
+		{
+			return this.geometry == geometry && this.style == style
+				&& this.ribbonForm == geometry.getRibbonForm()
+				&& this.ribbonsAreSmoothed == geometry.isRibbonsAreSmoothed();
+		}
+	}
+
+	/**
+	 * Sets the number of chains that are tessellated concurrently. The default
+	 * is the number of processors. The property "ribbon_threads" overrides
+	 * this value. Takes effect before the first chain is submitted.
+	 */
+	public static synchronized void setThreadCount(final int threadCount)
+	{
+		ChainMeshBuilder.threadCount = Math.max(1, threadCount);
+	}
+
+	/**
+	 * Starts the tessellation of a chain.
+	 * 
+	 * @return the meshes of the chain fragments, as returned by ChainGeometry.getMeshes().
+	 */
+	public static synchronized Future<SsMesh[]> submit(final ChainGeometry geometry,
+			final StructureComponent chain, final Style style)
+	{
+		final Map<StructureComponent, PrebuiltMeshes> prebuilt = ChainMeshBuilder.getPrebuiltMeshes(chain);
+		final PrebuiltMeshes meshes = prebuilt == null ? null : prebuilt.remove(chain);
+		if (meshes != null && meshes.matches(geometry, style))
+			return meshes.meshes;
+
+		ChainMeshBuilder.submittedCount++;
+		return ChainMeshBuilder.start(geometry, chain, style, true);
+	}
+
+	/**
+	 * Starts the tessellation of a chain that isn't shown yet. Prebuilt
+	 * chains don't report progress.
+	 * 
+	 * @return the meshes, or null if the structure of the chain has no scene
+	 *         node to keep them.
+	 */
+	public static synchronized Future<SsMesh[]> prebuild(final ChainGeometry geometry,
+			final StructureComponent chain, final Style style)
+	{
+		final Map<StructureComponent, PrebuiltMeshes> prebuilt = ChainMeshBuilder.getPrebuiltMeshes(chain);
+		if (prebuilt == null)
+			return null;
+
+		final Future<SsMesh[]> meshes = ChainMeshBuilder.start(geometry, chain, style, false);
+		prebuilt.put(chain, new PrebuiltMeshes(geometry, style, meshes));
+		return meshes;
+	}
+
+	private static Map<StructureComponent, PrebuiltMeshes> getPrebuiltMeshes(final StructureComponent chain)
+	{
+		final Object sceneNode = chain.getStructure().getStructureMap().getUData();
+		return sceneNode instanceof JoglSceneNode ? ((JoglSceneNode)sceneNode).prebuiltMeshes : null;
+	}
+
+	private static Future<SsMesh[]> start(final ChainGeometry geometry,
+			final StructureComponent chain, final Style style, final boolean reportProgress)
+	{
+		if (ChainMeshBuilder.executor == null)
+			ChainMeshBuilder.executor = Executors.newFixedThreadPool(ChainMeshBuilder.getThreadCount(),
+				new ThreadFactory()
+				{
+					public Thread newThread(final Runnable runnable)
+					{
+						final Thread thread = new Thread(runnable, "ChainMeshBuilder");
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+
+		// progress is reported when the task is done, which includes tasks
+		// that are cancelled because their renderable became dirty again
+		final FutureTask<SsMesh[]> task = new FutureTask<SsMesh[]>(new Callable<SsMesh[]>()
+		{
+			public SsMesh[] call()
+			{
+				return geometry.getMeshes(chain, style);
+			}
+		})
+		{
+			@Override
+			protected void done()
+			{
+				if (reportProgress)
+					ChainMeshBuilder.chainCompleted();
+			}
+		};
+		ChainMeshBuilder.executor.execute(task);
+		return task;
+	}
+
+	private static void chainCompleted()
+	{
+		synchronized (ChainMeshBuilder.class)
+		{
+			ChainMeshBuilder.completedCount++;
+			Status.progress(100 * ChainMeshBuilder.completedCount / ChainMeshBuilder.submittedCount,
+					"Building ribbons: " + ChainMeshBuilder.completedCount + " of " +
+					ChainMeshBuilder.submittedCount + " chains");
+			if (ChainMeshBuilder.completedCount == ChainMeshBuilder.submittedCount)
+				ChainMeshBuilder.submittedCount = ChainMeshBuilder.completedCount = 0;
+		}
+
+		if (AppBase.getApp() != null)
+		{
+			final GlGeometryViewer viewer = VFAppBase.sgetGlGeometryViewer();
+			if (viewer != null)
+				viewer.requestRepaint();
+		}
+	}
+
+	private static int getThreadCount()
+	{
+		final AppBase app = AppBase.getApp();
+		final String ribbonThreads = app == null ? null : app.properties.getProperty("ribbon_threads");
+		if (ribbonThreads != null)
+		{
+			try
+			{
+				return Math.max(1, Integer.parseInt(ribbonThreads.trim()));
+			}
+
+			catch (final NumberFormatException e)
+			{
+				Status.output(Status.LEVEL_WARNING, "ChainMeshBuilder: invalid ribbon_threads: " + ribbonThreads);
+			}
+		}
+		return ChainMeshBuilder.threadCount;
+	}
+}
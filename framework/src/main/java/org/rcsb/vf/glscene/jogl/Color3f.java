@@ -50,8 +50,6 @@ import java.awt.Color;
 public class Color3f implements Comparable {
 	public final float[] color = {0,0,0,1};
 	
-	private static final float[] scratchArray = {0,0,0,1};	// red, green, blue, alpha
-	
 	public Color3f() {
 		
 	}
@@ -73,8 +71,9 @@ public class Color3f implements Comparable {
 	}
 	
 	public void set(final Color color) {
-		color.getComponents(Color3f.scratchArray);
-		this.set(Color3f.scratchArray[0], Color3f.scratchArray[1], Color3f.scratchArray[2], Color3f.scratchArray[3]);
+		// no shared scratch array, colors are also created on the ribbon worker threads
+		final float[] components = color.getComponents(null);
+		this.set(components[0], components[1], components[2], components[3]);
 	}
 	
 	/**
@@ -48,12 +48,20 @@ package org.rcsb.vf.glscene.jogl;
 // JOGL (OpenGL)
 
 // MBT
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
 import javax.media.opengl.GL;
 import javax.media.opengl.glu.GLU;
 
 import org.rcsb.mbt.model.*;
 import org.rcsb.mbt.model.StructureComponentRegistry.ComponentType;
 import org.rcsb.mbt.model.attributes.*;
+import org.rcsb.mbt.model.util.Status;
+import org.rcsb.uiApp.controllers.app.AppBase;
+import org.rcsb.vf.glscene.SecondaryStructureBuilder.SsGeometry;
+import org.rcsb.vf.glscene.SecondaryStructureBuilder.SsMesh;
+import org.rcsb.vf.glscene.raytrace.RayPicker;
 
 import com.jogamp.opengl.util.gl2.GLUT;
 
@@ -95,6 +103,19 @@ public class DisplayListRenderable
 	private boolean deleteListsOnDeconstruction = true;
 	
 	private final Object lockObject = new Object();
+
+	/**
+	 * Ribbon meshes that are being tessellated in the background, and the
+	 * dirty count they were started for.
+	 */
+	private Future<SsMesh[]> pendingMeshes = null;
+	private int pendingDirtyCount = -1;
+
+	/**
+	 * The ribbon meshes the display lists were uploaded from. They are only
+	 * kept for the RayPicker; the RayTracer tessellates chains without them.
+	 */
+	private SsMesh[] meshes = null;
 	
 	/**
 	 *  Construct a Renderable object.
@@ -126,18 +147,15 @@ public class DisplayListRenderable
 
 	/**
 	 *  If the renderable is dirty, regenerate the display list and set the
-	 *  dirty state to false, then return the display list.
+	 *  dirty state to false, then draw the display list.
 	 */
 	
 	public final void draw( final GL gl, final GLU glu, final GLUT glut, final boolean isPickMode )
 	{
-		if ( this.dirty )
-		{
-			synchronized(this.lockObject) {
-				this.dirty = false;
-				this.displayLists = this.geometry.getDisplayLists(this.structureComponent, this.style, gl, glu, glut );
-			}
-		}
+		this.update(gl, glu, glut);
+		
+		if (this.displayLists == null)
+			return;		// the first ribbon meshes are still being built
 		
 		for(int i = 0; i < this.displayLists.length; i++) {
 			if(this.displayLists[i] != null) {
@@ -147,6 +165,91 @@ public class DisplayListRenderable
 		}
 	}
 	
+	/**
+	 *  If the renderable is dirty, regenerate the display list and set the
+	 *  dirty state to false, without drawing it. Renderables drawn by the
+	 *  ImpostorRenderer are kept up to date with this.
+	 */
+	public final void update( final GL gl, final GLU glu, final GLUT glut )
+	{
+		if ( this.dirty )
+		{
+			synchronized(this.lockObject) {
+				if (this.geometry instanceof ChainGeometry)
+					this.updateChainDisplayLists(gl, glu, glut);
+				
+				else
+				{
+					this.dirty = false;
+					this.displayLists = this.geometry.getDisplayLists(this.structureComponent, this.style, gl, glu, glut );
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Ribbons are tessellated by the ChainMeshBuilder workers; the old display
+	 * lists, if any, are drawn until the meshes are ready to be uploaded. In
+	 * screenshot only mode there is no later frame, so the meshes are waited for.
+	 */
+	private void updateChainDisplayLists(final GL gl, final GLU glu, final GLUT glut)
+	{
+		if (this.pendingMeshes == null || this.pendingDirtyCount != this.getDirtyCount())
+		{
+			// meshes for an older dirty count won't be used
+			if (this.pendingMeshes != null)
+				this.pendingMeshes.cancel(false);
+			this.pendingDirtyCount = this.getDirtyCount();
+			this.pendingMeshes = ChainMeshBuilder.submit((ChainGeometry)this.geometry,
+					this.structureComponent, this.style);
+		}
+		
+		if (!this.pendingMeshes.isDone() && !AppBase.backgroundScreenshotOnly)
+			return;
+		
+		SsMesh[] meshes = null;
+		try
+		{
+			meshes = this.pendingMeshes.get();
+		}
+		
+		catch (final InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			return;
+		}
+		
+		catch (final ExecutionException e)
+		{
+			Status.output(Status.LEVEL_ERROR, "Could not build ribbon: " + e.getCause());
+		}
+		
+		this.pendingMeshes = null;
+		synchronized (this)
+		{
+			// a setDirty() during the tessellation needs another pass
+			if (this.pendingDirtyCount == this.dirtyCount)
+				this.dirty = false;
+		}
+		this.displayLists = meshes == null ? new DisplayLists[0] : SsGeometry.upload(meshes, gl, glu, glut);
+		this.meshes = RayPicker.enabled ? meshes : null;
+		RayPicker.sceneChanged();
+	}
+
+	private synchronized int getDirtyCount()
+	{
+		return this.dirtyCount;
+	}
+
+	/**
+	 * @return the ribbon meshes that are drawn, or null if this isn't a
+	 *         ribbon, it hasn't been drawn yet, or ray picking is disabled.
+	 */
+	public SsMesh[] getMeshes()
+	{
+		return this.meshes;
+	}
+
 	/**
 	 * Destructor - if 'deleteListsOnDeconstruction' is true, clean up lists and unique colors lists
 	 */
@@ -122,6 +122,8 @@ import org.rcsb.vf.controllers.scene.SceneController;
 import org.rcsb.vf.glscene.jogl.ChainGeometry.RibbonForm;
 import org.rcsb.vf.glscene.jogl.tiles.TileRenderer;
 import org.rcsb.vf.glscene.surfaces.SurfaceGeometry;
+import org.rcsb.vf.glscene.raytrace.Bvh;
+import org.rcsb.vf.glscene.raytrace.RayPicker;
 
 
 import com.jogamp.common.nio.Buffers;
@@ -167,6 +169,12 @@ WindowListener, IStructureStylesEventListener {
 
 	public List<Integer> simpleDisplayListsToDestroy = Collections.synchronizedList(new ArrayList<Integer>());
 
+	/**
+	 * Impostor renderers of cleared or removed scene nodes, whose vertex
+	 * buffers are deleted on the next draw.
+	 */
+	public List<ImpostorRenderer> impostorsToDestroy = Collections.synchronizedList(new ArrayList<ImpostorRenderer>());
+
 	// Default geometry for new Renderables defaultGeometry{scType} = Geometry
 	public static Hashtable<ComponentType, DisplayListGeometry> defaultGeometry = new Hashtable<ComponentType, DisplayListGeometry>();
 
@@ -651,7 +659,8 @@ WindowListener, IStructureStylesEventListener {
 		if ( GLCanvas.class.isAssignableFrom(c)) {				
 			drawableViewer = (GLCanvas) drawable;
 //			System.err.println("we got a drawable viewer!");
-		} else {
+		} else if (!AppBase.backgroundScreenshotOnly) {
+			// screenshot batches draw into an offscreen drawable
 			System.err.println("??? not a GlGeometryViewer, but " + drawable.getClass().getName());
 		}
 		
@@ -798,9 +807,11 @@ WindowListener, IStructureStylesEventListener {
 
 	private boolean needsPick = false;
 
-	private static final double fovy = 45.0;
-	private static final double zNear = 1.0; // 1.0, 0.1
-	private static final double zFar = 10000.0; // 80.0, 10000.0
+	private final RayPicker rayPicker = new RayPicker();
+
+	public static final double fovy = 45.0;
+	static final double zNear = 1.0; // 1.0, 0.1
+	static final double zFar = 10000.0; // 80.0, 10000.0
 
 	public void requestPick() {
 		this.needsPick = true;
@@ -1011,6 +1022,14 @@ WindowListener, IStructureStylesEventListener {
 			this.simpleDisplayListsToDestroy.clear();
 		}
 
+		synchronized (this.impostorsToDestroy)
+		{
+			for (ImpostorRenderer impostors : impostorsToDestroy)
+				impostors.destroy(gl);
+
+			this.impostorsToDestroy.clear();
+		}
+
 		int x2D = -1;
 		int y2D = -1;
 
@@ -1086,6 +1105,7 @@ WindowListener, IStructureStylesEventListener {
 					if (!successful)
 					{
 						this.supportsShaderPrograms = false;
+						GlslProgram.supportsShaderPrograms = false;
 						shaderProgram = 0;
 						vertexShader = 0;
 						fragmentShader = 0;
@@ -1130,6 +1150,8 @@ WindowListener, IStructureStylesEventListener {
 						this.viewUp[0], this.viewUp[1], this.viewUp[2]);
 
 			StructureList structures = AppBase.sgetModel().getStructures();
+			this.updateTessellationLod(structures, gl, glu, glut);
+			
 			for (Structure structure : structures)
 			{
 				boolean continuePick = false;
@@ -1349,6 +1371,31 @@ WindowListener, IStructureStylesEventListener {
 		this.invalidateAllGeometry();	
 	}
 
+	/**
+	 * Reports the number of atoms drawn and the zoom at the view center to the
+	 * TessellationLod.
+	 */
+	private void updateTessellationLod(final StructureList structures, final GL gl, final GLU glu, final GLUT glut)
+	{
+		int atomCount = 0;
+		for (Structure structure : structures)
+		{
+			final JoglSceneNode sceneNode = (JoglSceneNode)structure.getStructureMap().getUData();
+			if (sceneNode != null)
+				atomCount += sceneNode.getAtomRenderableCount();
+		}
+		
+		final double distance = Math.sqrt(
+				(this.viewCenter[0] - this.viewEye[0]) * (this.viewCenter[0] - this.viewEye[0]) +
+				(this.viewCenter[1] - this.viewEye[1]) * (this.viewCenter[1] - this.viewEye[1]) +
+				(this.viewCenter[2] - this.viewEye[2]) * (this.viewCenter[2] - this.viewEye[2]));
+		final double pixelsPerAngstrom = this.viewportHeight <= 0 ? Double.NaN :
+			this.viewportHeight / (2.0 * distance * Math.tan(Math.toRadians(fovy / 2.0)));
+		
+		if (TessellationLod.update(atomCount, pixelsPerAngstrom, gl, glu, glut))
+			Status.output(Status.LEVEL_DEBUG, "Tessellation level of detail " + TessellationLod.getLevel());
+	}
+
 	/**
 	 * Check if a) the app is allowing shader support and b) if the GL implementation supports it.
 	 */
@@ -1361,6 +1408,8 @@ WindowListener, IStructureStylesEventListener {
 		gl.isFunctionAvailable("glAttachShader") &&
 		gl.isFunctionAvailable("glLinkProgram") &&
 		gl.isFunctionAvailable("glUseProgram");
+		GlslProgram.supportsShaderPrograms = this.supportsShaderPrograms;
+		ImpostorRenderer.invalidatePrograms();
 	}
 
 	// -----------------------------------------------------------------------------
@@ -1414,7 +1463,8 @@ WindowListener, IStructureStylesEventListener {
 		this.mouseUpLoc[1] = e.getX();
 
 		if ((Math.abs(this.mouseDownLoc[0] - this.mouseUpLoc[0]) <= 1)
-				&& (Math.abs(this.mouseDownLoc[1] - this.mouseUpLoc[1]) <= 1)) {
+				&& (Math.abs(this.mouseDownLoc[1] - this.mouseUpLoc[1]) <= 1)
+				&& !this.rayPick(e.getX(), e.getY())) {
 			this.pickMouseEvent = e; // Do a pick
 		}
 	}
@@ -1673,7 +1723,36 @@ WindowListener, IStructureStylesEventListener {
 		this.lastMouseLocationInPanelForIndicatorBubble = this.mouseLocationInPanel = e
 		.getPoint();
 
-		this.requestPick();
+		if (!this.rayPick(e.getX(), e.getY()))
+			this.requestPick();
+	}
+
+	/**
+	 * Picks the component at a window location on the CPU, without drawing.
+	 * Like a GL pick, it becomes the component the mouse was over and is
+	 * reported; when nothing is hit, the last component is kept.
+	 * 
+	 * @return false if the RayPicker has no index for the current scene yet,
+	 *         or can't follow the view; the caller then picks with GL.
+	 */
+	protected boolean rayPick(final int x, final int y)
+	{
+		if (!RayPicker.enabled || ExternReferences.isLigandExplorer()
+				|| this.viewportWidth <= 0 || this.viewportHeight <= 0 || Double.isNaN(this.viewEye[0]))
+			return false;
+
+		final Bvh index = this.rayPicker.getIndex();
+		if (index == null)
+			return false;
+
+		final StructureComponent component = RayPicker.pick(index, x, y, this.viewportWidth,
+				this.viewportHeight, this.viewEye, this.viewCenter, this.viewUp, fovy);
+		if (component != null)
+		{
+			this.reportAtComponent(component);
+			this.lastComponentMouseWasOver = component;
+		}
+		return true;
 	}
 
 	// -----------------------------------------------------------------------------
@@ -1793,12 +1872,15 @@ WindowListener, IStructureStylesEventListener {
 
 				for (Chain c : sm.getChains())
 				{
-						if (c.getResidueCount() > 0
-								&& (c.getResidue(0).getClassification() == Residue.Classification.AMINO_ACID ||
-										c.getResidue(0).getClassification() == Residue.Classification.NUCLEIC_ACID)) {
-						ss.setVisible(c, true);
+					final ArrayList<StructureComponent> shown = new ArrayList<StructureComponent>();
+					final ArrayList<StructureComponent> hidden = new ArrayList<StructureComponent>();
+
+					if (c.getResidueCount() > 0
+							&& (c.getResidue(0).getClassification() == Residue.Classification.AMINO_ACID ||
+									c.getResidue(0).getClassification() == Residue.Classification.NUCLEIC_ACID)) {
+						shown.add(c);
 					} else {
-						ss.setVisible(c, false);
+						hidden.add(c);
 					}
 
 					for (Fragment f : c.getFragments())
@@ -1806,32 +1888,29 @@ WindowListener, IStructureStylesEventListener {
 						for (Residue r : f.getResidues())
 						{
 							Vector<Atom> atoms = r.getAtoms();
-							for (Atom a : atoms)
-							{
-									if (r.getClassification() != Residue.Classification.AMINO_ACID &&
-											r.getClassification() != Residue.Classification.NUCLEIC_ACID
-											&& !r.getCompoundCode().equals("HOH")) {
-									ss.setVisible(a, true);
-								} else {
-									ss.setVisible(a, false);
-								}
+							if (r.getClassification() != Residue.Classification.AMINO_ACID &&
+									r.getClassification() != Residue.Classification.NUCLEIC_ACID
+									&& !r.getCompoundCode().equals("HOH")) {
+								shown.addAll(atoms);
+							} else {
+								hidden.addAll(atoms);
 							}
 
-							for (Bond b : sm.getBonds(atoms))
-							{
-									if (r.getClassification() != Residue.Classification.AMINO_ACID &&
-											r.getClassification() != Residue.Classification.NUCLEIC_ACID &&
-											r.getClassification() != Residue.Classification.WATER ) {
-											
-									ss.setVisible(b, true);
-								} else {
-									ss.setVisible(b, false);
-								}
+							if (r.getClassification() != Residue.Classification.AMINO_ACID &&
+									r.getClassification() != Residue.Classification.NUCLEIC_ACID &&
+									r.getClassification() != Residue.Classification.WATER ) {
+								shown.addAll(sm.getBonds(atoms));
+							} else {
+								hidden.addAll(sm.getBonds(atoms));
 							}
 						}
 
 					}
 
+					// one visibility event each rather than one per component
+					ss.setVisible(shown, true);
+					ss.setVisible(hidden, false);
+
 					this.structureAdded(s);
 				}
 			}
@@ -2006,6 +2085,31 @@ WindowListener, IStructureStylesEventListener {
 		VFAppBase.sgetGlGeometryViewer().requestRepaint();
 	}
 
+	/**
+	 * Adds a single surface, e.g. one that has just been calculated, without
+	 * rebuilding the other surfaces of the structure.
+	 *
+	 * @param str
+	 * @param surface
+	 */
+	public void surfaceAdded(final Structure str, final Surface surface)
+	{
+		final JoglSceneNode sn = (JoglSceneNode)str.getStructureMap().getUData();
+		if (sn == null) {
+			return;
+		}
+
+		DisplayListRenderable previous;
+		synchronized (sn.renderables) {
+			previous = sn.renderables.put(surface,
+					new DisplayListRenderable(surface, new SurfaceStyle(), new SurfaceGeometry()));
+		}
+		if (previous != null) {
+			this.renderablesToDestroy.add(previous);
+		}
+		VFAppBase.sgetGlGeometryViewer().requestRepaint();
+	}
+
 	public void surfaceRemoved(final Structure str) {
 		final StructureMap structureMap = str.getStructureMap();
 		JoglSceneNode sn = (JoglSceneNode)structureMap.getUData();
@@ -2072,6 +2176,22 @@ WindowListener, IStructureStylesEventListener {
 		}
 	}
 
+	/**
+	 * Empties the queues of renderables, display lists and impostor buffers
+	 * to delete, if the viewer never had a GL context, e.g. in a ray traced
+	 * screenshot batch. Nothing was uploaded then, but without a draw the
+	 * queues would keep the removed structures in memory.
+	 */
+	public void discardDeletionsWithoutContext()
+	{
+		if (this.drawable != null)
+			return;
+
+		this.renderablesToDestroy.clear();
+		this.simpleDisplayListsToDestroy.clear();
+		this.impostorsToDestroy.clear();
+	}
+
 	public void clearStructure()
 	{
 		for (Structure structure : AppBase.sgetModel().getStructures())
@@ -2089,6 +2209,7 @@ WindowListener, IStructureStylesEventListener {
 			sn.clearLabels();
 
 			sn.renderables.clear();
+			this.impostorsToDestroy.add(sn.impostors);
 		}
 
 		/*
@@ -109,13 +109,26 @@ public class GlslProgram {
 		}
 
 		// if one or more steps for creating the shader failed,
-		// disable shaders.
+		// disable shaders. The error is kept, so the program isn't
+		// compiled again.
 		if (!successful) {
-			this.programError = true;
 			this.destroyProgram(gl);
+			this.programError = true;
 		}
 	}
 	
+	/**
+	 * Forgets the program without deleting it, e.g. because the GL context it
+	 * was created in is gone. The next 'loadProgram()' compiles it again.
+	 */
+	public void forgetProgram() {
+		this.vertexShader = 0;
+		this.fragmentShader = 0;
+		this.shaderProgram = 0;
+		this.programError = false;
+		this.isDestroyed = true;
+	}
+	
 	public void destroyProgram(GL gl) {
 		if(!supportsShaderPrograms) {
 			return;
@@ -217,6 +230,7 @@ public class GlslProgram {
 		if (log.indexOf("software") >= 0) {
 			if (this.vertexShader > 0) {
 				gl2.glDeleteShader(this.vertexShader);
+				this.vertexShader = 0;
 			}
 			return false;
 		}
@@ -267,6 +281,7 @@ public class GlslProgram {
 		if (log.indexOf("software") >= 0) {
 			if (this.fragmentShader > 0) {
 				gl2.glDeleteShader(this.fragmentShader);
+				this.fragmentShader = 0;
 			}
 			return false;
 		}
@@ -0,0 +1,96 @@
+/***************************************************************************
+* DESCRIPTION:
+*  Fragment shader for batched cylinder impostors (ImpostorCylinder.vert).
+*  The view ray is intersected with the open cylinder; lighting, depth
+*  and fog follow the VMD sphere fragment shader (VMDSphere.frag), so
+*  cylinders and spheres drawn together shade and intersect consistently.
+***************************************************************************/
+
+varying vec3 oglcolor;        // interpolated color from the vertex shader
+varying vec3 V;               // view direction vector
+varying vec3 rayorigin;
+varying vec3 cylinderstart;
+varying vec3 cylinderaxis;
+varying float cylinderlength;
+varying float cylinderradsq;
+
+uniform int vmdprojectionmode;  // perspective=1 orthographic=0
+uniform vec3 vmdlight0;         // VMD directional lights
+uniform vec3 vmdlight1;
+uniform vec3 vmdlight2;
+uniform vec3 vmdlight3;
+uniform vec4 vmdlightscale;     // VMD light on/off state for all 4 VMD lights
+uniform vec4 vmdmaterial;       // ambient, diffuse, specular, shininess
+uniform vec4 vmdprojparms;      // near, far, 0.5 * (far + near), far - near
+uniform float vmdopacity;       // VMD global alpha value
+uniform int vmdfogmode;         // VMD depth cueing / fog mode
+
+void main(void) {
+  vec3 raydir = normalize(V);
+  vec3 axis = normalize(cylinderaxis);
+
+  // project the ray onto the plane perpendicular to the axis
+  vec3 w = rayorigin - cylinderstart;
+  vec3 d = raydir - dot(raydir, axis) * axis;
+  vec3 wp = w - dot(w, axis) * axis;
+
+  float a = dot(d, d);
+  float b = dot(d, wp);
+  float c = dot(wp, wp) - cylinderradsq;
+  float disc = b*b - a*c;
+
+  if (a < 0.00000001 || disc <= 0.0)
+    discard; // ray parallel to the axis or missed the cylinder entirely
+
+  float tnear = (-b - sqrt(disc)) / a;
+  if (tnear < 0.0)
+    discard;
+
+  vec3 pnt = rayorigin + tnear * raydir;
+  float h = dot(pnt - cylinderstart, axis);
+  if (h < 0.0 || h > cylinderlength)
+    discard; // the cylinder ends are open, atom spheres cap them
+
+  vec3 N = normalize(pnt - cylinderstart - h * axis);
+
+  if (vmdprojectionmode == 1) {
+    gl_FragDepth = 0.5 + (vmdprojparms[2] + (vmdprojparms[1] * vmdprojparms[0] / pnt.z)) / vmdprojparms[3];
+  } else {
+    gl_FragDepth = 0.5 + (-vmdprojparms[2] - pnt.z) / vmdprojparms[3];
+  }
+
+  float ambient = vmdmaterial[0];
+  float diffuse = 0.0;
+  float specular = 0.0;
+  float shininess = vmdmaterial[3];
+
+  diffuse += max(0.0, dot(N, vmdlight0)) * vmdlightscale[0];
+  diffuse += max(0.0, dot(N, vmdlight1)) * vmdlightscale[1];
+  diffuse += max(0.0, dot(N, vmdlight2)) * vmdlightscale[2];
+  diffuse += max(0.0, dot(N, vmdlight3)) * vmdlightscale[3];
+  diffuse *= vmdmaterial[1];
+
+  specular += pow(max(0.0, dot(reflect(vmdlight0, N), V)), shininess) * vmdlightscale[0];
+  specular += pow(max(0.0, dot(reflect(vmdlight1, N), V)), shininess) * vmdlightscale[1];
+  specular += pow(max(0.0, dot(reflect(vmdlight2, N), V)), shininess) * vmdlightscale[2];
+  specular += pow(max(0.0, dot(reflect(vmdlight3, N), V)), shininess) * vmdlightscale[3];
+  specular *= vmdmaterial[2];
+
+  vec3 color = oglcolor * vec3(diffuse) + vec3(ambient + specular);
+
+  const float Log2E = 1.442695; // = log2(2.718281828)
+  float fog = 1.0;
+
+  if (vmdfogmode == 1) {
+    fog = (gl_Fog.end - gl_FogFragCoord) * gl_Fog.scale;
+  } else if (vmdfogmode == 2) {
+    fog = exp2(-gl_Fog.density * gl_FogFragCoord * Log2E);
+  } else if (vmdfogmode == 3) {
+    fog = exp2(-gl_Fog.density * gl_Fog.density * gl_FogFragCoord * gl_FogFragCoord * Log2E);
+  }
+
+  fog = clamp(fog, 0.0, 1.0);
+  color = mix(vec3(gl_Fog.color), color, fog);
+
+  gl_FragColor = vec4(color, vmdopacity);
+}
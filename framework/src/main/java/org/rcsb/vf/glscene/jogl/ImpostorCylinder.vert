@@ -0,0 +1,66 @@
+/***************************************************************************
+* DESCRIPTION:
+*  Vertex shader for batched cylinder impostors (ImpostorCylinder.frag).
+*  Every cylinder is a quad of four vertices that all carry the start of
+*  the cylinder axis in gl_Vertex and its end in gl_MultiTexCoord0.
+*  gl_MultiTexCoord1 holds the end of the axis the vertex belongs to
+*  (0 or 1), the side of the axis (-1 or +1) and the object space radius.
+*  The quad is stretched a radius past both ends and moved a radius
+*  towards the eye, so that it covers the silhouette of the cylinder.
+***************************************************************************/
+
+uniform int vmdprojectionmode;   // perspective=1 orthographic=0
+
+varying vec3 oglcolor;           // output interpolated color to frag shader
+varying vec3 V;                  // output view direction vector
+varying vec3 rayorigin;          // output ray origin
+varying vec3 cylinderstart;      // output transformed start of the axis
+varying vec3 cylinderaxis;       // output transformed unit axis
+varying float cylinderlength;    // output transformed axis length
+varying float cylinderradsq;     // output transformed radius squared
+
+void main(void) {
+  vec4 p0 = gl_ModelViewMatrix * gl_Vertex;
+  vec4 p1 = gl_ModelViewMatrix * vec4(gl_MultiTexCoord0.xyz, 1.0);
+  cylinderstart = vec3(p0) / p0.w;
+  vec3 cylinderend = vec3(p1) / p1.w;
+
+  vec3 axis = cylinderend - cylinderstart;
+  cylinderlength = max(length(axis), 0.000001);
+  cylinderaxis = axis / cylinderlength;
+
+  // the modelview may scale the scene, so scale the radius with it
+  float radius = gl_MultiTexCoord1.z * length(vec3(gl_ModelViewMatrix[0]));
+  cylinderradsq = radius * radius;
+
+  oglcolor = vec3(gl_Color);
+
+  vec3 center = mix(cylinderstart, cylinderend, gl_MultiTexCoord1.x);
+  gl_FogFragCoord = abs(center.z);
+
+  vec3 towards;                  // from the axis towards the eye
+  if (vmdprojectionmode == 1) {
+    towards = -normalize(center);
+  } else {
+    towards = vec3(0.0, 0.0, 1.0);
+  }
+
+  vec3 side = cross(cylinderaxis, towards);
+  if (length(side) < 0.001) {
+    // seen end on, any perpendicular will do
+    side = cross(cylinderaxis, abs(cylinderaxis.y) < 0.99 ? vec3(0.0, 1.0, 0.0) : vec3(1.0, 0.0, 0.0));
+  }
+  side = normalize(side);
+
+  vec3 ecpos = center + radius * (towards + (2.0 * gl_MultiTexCoord1.x - 1.0) * cylinderaxis + gl_MultiTexCoord1.y * side);
+  gl_Position = gl_ProjectionMatrix * vec4(ecpos, 1.0);
+  gl_ClipVertex = vec4(ecpos, 1.0);
+
+  if (vmdprojectionmode == 1) {
+    V = normalize(ecpos);
+    rayorigin = vec3(0.0, 0.0, 0.0);
+  } else {
+    V = vec3(0.0, 0.0, -1.0);
+    rayorigin = vec3(ecpos.xy, 0.0);
+  }
+}
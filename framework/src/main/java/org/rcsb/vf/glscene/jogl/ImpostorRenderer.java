@@ -0,0 +1,499 @@
+/*
+ * BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence. This should
+ * be distributed with the code. If you do not have a copy,
+ * see:
+ *
+ * http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors. These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ * http://www.biojava.org/
+ *
+ * This code was contributed from the Molecular Biology Toolkit
+ * (MBT) project at the University of California San Diego.
+ *
+ * Please reference J.L. Moreland, A.Gramada, O.V. Buzko, Qing
+ * Zhang and P.E. Bourne 2005 The Molecular Biology Toolkit (MBT):
+ * A Modular Platform for Developing Molecular Visualization
+ * Applications. BMC Bioinformatics, 6:21.
+ *
+ * The MBT project was funded as part of the National Institutes
+ * of Health PPG grant number 1-P01-GM63208 and its National
+ * Institute of General Medical Sciences (NIGMS) division. Ongoing
+ * development for the MBT project is managed by the RCSB
+ * Protein Data Bank(http://www.pdb.org) and supported by funds
+ * from the National Science Foundation (NSF), the National
+ * Institute of General Medical Sciences (NIGMS), the Office of
+ * Science, Department of Energy (DOE), the National Library of
+ * Medicine (NLM), the National Cancer Institute (NCI), the
+ * National Center for Research Resources (NCRR), the National
+ * Institute of Biomedical Imaging and Bioengineering (NIBIB),
+ * the National Institute of Neurological Disorders and Stroke
+ * (NINDS), and the National Institute of Diabetes and Digestive
+ * and Kidney Diseases (NIDDK).
+ *
+ * Created on 2026/10/18
+ *
+ */ 
+package org.rcsb.vf.glscene.jogl;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+
+import javax.media.opengl.GL;
+import javax.media.opengl.GL2;
+import javax.media.opengl.glu.GLU;
+
+import org.rcsb.mbt.model.Atom;
+import org.rcsb.mbt.model.Bond;
+import org.rcsb.mbt.model.StructureComponentRegistry.ComponentType;
+import org.rcsb.mbt.model.attributes.AtomStyle;
+import org.rcsb.mbt.model.attributes.BondStyle;
+import org.rcsb.mbt.model.attributes.StructureStyles;
+
+import com.jogamp.common.nio.Buffers;
+import com.jogamp.opengl.util.gl2.GLUT;
+
+/**
+ * Draws the atoms and bonds of a scene node as ray cast sphere and cylinder
+ * impostors. Instead of a tessellated sphere or cylinder display list per atom
+ * or half bond, every atom and half bond is a single quad in one vertex buffer,
+ * and the shaders intersect the view ray with the exact surface. All atoms are
+ * drawn with one call, and all bonds with another.
+ * <P>
+ * The quads are only rebuilt when the set of atoms and bonds, or one of them,
+ * changes. Colors are evaluated every frame, as with the display lists, and
+ * uploaded when they differ from the last frame.
+ * <P>
+ * Only the shaded forms are drawn as impostors. Points, lines, bond orders,
+ * pick passes and biological unit transforms use the display lists.
+ */
+public class ImpostorRenderer
+{
+	/**
+	 * Set from the "use_impostors" property. Impostors are only drawn if the
+	 * GL implementation supports shader programs.
+	 */
+	public static boolean useImpostors = false;
+	
+	/**
+	 * Ambient, diffuse, specular and shininess for the impostor shaders.
+	 */
+	private static final float[] material = { 0.1f, 0.8f, 0.5f, 40.0f };
+
+	private static final float[][] corners = { { -1, -1 }, { 1, -1 }, { 1, 1 }, { -1, 1 } };
+	
+	/**
+	 * The shader programs are compiled once and shared by all scene nodes.
+	 */
+	private static final GlslProgram sphereProgram = new GlslProgram("ImpostorSphere.vert", "VMDSphere.frag");
+	private static final GlslProgram cylinderProgram = new GlslProgram("ImpostorCylinder.vert", "ImpostorCylinder.frag");
+
+	/**
+	 * The atoms and bonds collected during the current draw, and a signature
+	 * of their identity and dirty counts.
+	 */
+	private final ArrayList<Atom> atoms = new ArrayList<Atom>();
+	private final ArrayList<Bond> bonds = new ArrayList<Bond>();
+	private long signature = 0;
+	
+	/**
+	 * The signature and sizes the vertex buffers were built for.
+	 */
+	private long builtSignature = 0;
+	private int builtAtomCount = -1;
+	private int builtBondCount = -1;
+	
+	/**
+	 * Atom colors and two colors per bond, as last uploaded.
+	 */
+	private float[] atomColors = new float[0];
+	private float[] bondColors = new float[0];
+	private boolean colorsUploaded = false;
+
+	/**
+	 * sphere centers, corners and colors; cylinder starts, ends, parameters and colors.
+	 */
+	private final int[] buffers = new int[7];
+	private boolean haveBuffers = false;
+	
+	private final float[] tempColor = new float[4];
+	
+	/**
+	 * Tells whether impostors can be drawn, loading the shader programs the
+	 * first time. If they can't be compiled, e.g. because they would run in
+	 * software, the atoms and bonds are drawn with display lists from then on.
+	 */
+	public boolean isEnabled(final GL gl)
+	{
+		if (!ImpostorRenderer.useImpostors || !GlslProgram.supportsShaderPrograms)
+			return false;
+		
+		synchronized (ImpostorRenderer.class)
+		{
+			if (ImpostorRenderer.sphereProgram.isDestroyed && !ImpostorRenderer.sphereProgram.programError)
+				ImpostorRenderer.sphereProgram.loadProgram(gl);
+			if (ImpostorRenderer.cylinderProgram.isDestroyed && !ImpostorRenderer.cylinderProgram.programError)
+				ImpostorRenderer.cylinderProgram.loadProgram(gl);
+			
+			return !ImpostorRenderer.sphereProgram.programError && ImpostorRenderer.sphereProgram.shaderProgram != 0 &&
+				!ImpostorRenderer.cylinderProgram.programError && ImpostorRenderer.cylinderProgram.shaderProgram != 0;
+		}
+	}
+	
+	/**
+	 * Forgets the shared shader programs, because the GL context or its
+	 * shader support changed. They are compiled again when next used.
+	 */
+	public static synchronized void invalidatePrograms()
+	{
+		ImpostorRenderer.sphereProgram.forgetProgram();
+		ImpostorRenderer.cylinderProgram.forgetProgram();
+	}
+	
+	/**
+	 * Starts collecting the atoms and bonds of a draw.
+	 */
+	public void begin()
+	{
+		this.atoms.clear();
+		this.bonds.clear();
+		this.signature = 0;
+	}
+	
+	/**
+	 * Takes the renderable if it is an atom or bond that can be drawn as an
+	 * impostor. Its display lists are still brought up to date, so labels and
+	 * pick passes see the same state as without impostors.
+	 * 
+	 * @return true if the renderable is drawn by 'draw()', false if the caller
+	 * has to draw it.
+	 */
+	public boolean add(final DisplayListRenderable renderable, final GL gl, final GLU glu, final GLUT glut)
+	{
+		final ComponentType type = renderable.structureComponent.getStructureComponentType();
+		if (type == ComponentType.ATOM)
+		{
+			if (!(renderable.geometry instanceof AtomGeometry) || !ImpostorRenderer.isShaded(renderable.geometry))
+				return false;
+			
+			this.atoms.add((Atom)renderable.structureComponent);
+		}
+		
+		else if (type == ComponentType.BOND)
+		{
+			if (!(renderable.geometry instanceof BondGeometry) || !ImpostorRenderer.isShaded(renderable.geometry))
+				return false;
+
+			final Bond bond = (Bond)renderable.structureComponent;
+			if (((BondGeometry)renderable.geometry).getShowOrder() && Math.round(bond.getOrder()) > 1)
+				return false;		// multiple bonds are offset cylinders, leave them to the display lists
+			
+			this.bonds.add(bond);
+		}
+		
+		else
+			return false;
+		
+		renderable.update(gl, glu, glut);
+		this.signature = this.signature * 31 + System.identityHashCode(renderable.structureComponent) +
+			renderable.dirtyCount;
+		return true;
+	}
+	
+	/**
+	 * Draws the atoms and bonds collected since 'begin()'.
+	 */
+	public void draw(final GL gl)
+	{
+		final GL2 gl2 = gl.getGL2();
+		
+		if (this.atoms.isEmpty() && this.bonds.isEmpty())
+		{
+			this.deleteBuffers(gl);
+			return;
+		}
+		
+		if (!this.haveBuffers || this.signature != this.builtSignature ||
+			this.atoms.size() != this.builtAtomCount || this.bonds.size() != this.builtBondCount)
+			this.build(gl);
+		
+		this.updateColors(gl);
+		
+		gl2.glEnableClientState(GL2.GL_VERTEX_ARRAY);
+		gl2.glEnableClientState(GL2.GL_COLOR_ARRAY);
+		gl2.glEnableClientState(GL2.GL_TEXTURE_COORD_ARRAY);
+		
+		if (!this.atoms.isEmpty())
+		{
+			gl2.glUseProgram(ImpostorRenderer.sphereProgram.shaderProgram);
+			this.setUniforms(gl2, ImpostorRenderer.sphereProgram.shaderProgram);
+			
+			gl.glBindBuffer(GL.GL_ARRAY_BUFFER, this.buffers[0]);
+			gl2.glVertexPointer(3, GL.GL_FLOAT, 0, 0);
+			gl.glBindBuffer(GL.GL_ARRAY_BUFFER, this.buffers[1]);
+			gl2.glTexCoordPointer(3, GL.GL_FLOAT, 0, 0);
+			gl.glBindBuffer(GL.GL_ARRAY_BUFFER, this.buffers[2]);
+			gl2.glColorPointer(3, GL.GL_FLOAT, 0, 0);
+			gl2.glDrawArrays(GL2.GL_QUADS, 0, this.atoms.size() * 4);
+		}
+		
+		if (!this.bonds.isEmpty())
+		{
+			gl2.glUseProgram(ImpostorRenderer.cylinderProgram.shaderProgram);
+			this.setUniforms(gl2, ImpostorRenderer.cylinderProgram.shaderProgram);
+			
+			gl.glBindBuffer(GL.GL_ARRAY_BUFFER, this.buffers[3]);
+			gl2.glVertexPointer(3, GL.GL_FLOAT, 0, 0);
+			gl.glBindBuffer(GL.GL_ARRAY_BUFFER, this.buffers[4]);
+			gl2.glTexCoordPointer(3, GL.GL_FLOAT, 0, 0);
+			gl2.glClientActiveTexture(GL.GL_TEXTURE1);
+			gl2.glEnableClientState(GL2.GL_TEXTURE_COORD_ARRAY);
+			gl.glBindBuffer(GL.GL_ARRAY_BUFFER, this.buffers[5]);
+			gl2.glTexCoordPointer(3, GL.GL_FLOAT, 0, 0);
+			gl.glBindBuffer(GL.GL_ARRAY_BUFFER, this.buffers[6]);
+			gl2.glColorPointer(3, GL.GL_FLOAT, 0, 0);
+			gl2.glDrawArrays(GL2.GL_QUADS, 0, this.bonds.size() * 8);
+			gl2.glDisableClientState(GL2.GL_TEXTURE_COORD_ARRAY);
+			gl2.glClientActiveTexture(GL.GL_TEXTURE0);
+		}
+		
+		gl2.glDisableClientState(GL2.GL_TEXTURE_COORD_ARRAY);
+		gl2.glDisableClientState(GL2.GL_COLOR_ARRAY);
+		gl2.glDisableClientState(GL2.GL_VERTEX_ARRAY);
+		gl.glBindBuffer(GL.GL_ARRAY_BUFFER, 0);
+		
+		gl2.glUseProgram(GlGeometryViewer.currentProgram);
+	}
+	
+	/**
+	 * Releases the vertex buffers. The shared shader programs are kept. The
+	 * buffers are built again if the scene node is drawn later.
+	 */
+	public void destroy(final GL gl)
+	{
+		this.deleteBuffers(gl);
+		this.builtSignature = 0;
+		this.builtAtomCount = -1;
+		this.builtBondCount = -1;
+	}
+	
+	private static boolean isShaded(final DisplayListGeometry geometry)
+	{
+		final int form = geometry.getForm();
+		return form == Geometry.FORM_FLAT || form == Geometry.FORM_THICK;
+	}
+	
+	/**
+	 * Packs the quads of all atoms and bonds into new vertex buffers. Colors
+	 * are filled in by 'updateColors()'.
+	 */
+	private void build(final GL gl)
+	{
+		this.deleteBuffers(gl);
+		gl.glGenBuffers(this.buffers.length, this.buffers, 0);
+		this.haveBuffers = true;
+		
+		final int atomCount = this.atoms.size();
+		final float[] centers = new float[atomCount * 12];
+		final float[] sphereCorners = new float[atomCount * 12];
+		for (int i = 0; i < atomCount; i++)
+		{
+			final Atom atom = this.atoms.get(i);
+			final AtomStyle style = (AtomStyle)ImpostorRenderer.getStyles(atom).getStyle(atom);
+			final float radius = style.getAtomRadius(atom);
+			for (int v = 0; v < 4; v++)
+			{
+				final int ix = i * 12 + v * 3;
+				centers[ix] = (float)atom.getX();
+				centers[ix + 1] = (float)atom.getY();
+				centers[ix + 2] = (float)atom.getZ();
+				sphereCorners[ix] = ImpostorRenderer.corners[v][0];
+				sphereCorners[ix + 1] = ImpostorRenderer.corners[v][1];
+				sphereCorners[ix + 2] = radius;
+			}
+		}
+		
+		// two half bonds per bond, from each atom to the middle of the bond
+		final int bondCount = this.bonds.size();
+		final float[] starts = new float[bondCount * 24];
+		final float[] ends = new float[bondCount * 24];
+		final float[] parameters = new float[bondCount * 24];
+		final double[] startCoordinate = new double[3];
+		final double[] otherCoordinate = new double[3];
+		for (int i = 0; i < bondCount; i++)
+		{
+			final Bond bond = this.bonds.get(i);
+			final BondStyle style = (BondStyle)ImpostorRenderer.getStyles(bond.getAtom(0)).getStyle(bond);
+			final float radius = style.getBondRadius(bond) / 2.0f;
+			for (int s = 0; s < 2; s++)
+			{
+				final double[] start = bond.getAtom(s).getCoordinate(startCoordinate);
+				final double[] other = bond.getAtom(1 - s).getCoordinate(otherCoordinate);
+				for (int v = 0; v < 4; v++)
+				{
+					final int ix = i * 24 + s * 12 + v * 3;
+					for (int k = 0; k < 3; k++)
+					{
+						starts[ix + k] = (float)start[k];
+						ends[ix + k] = (float)((start[k] + other[k]) / 2.0);
+					}
+					parameters[ix] = ImpostorRenderer.corners[v][0] < 0 ? 0.0f : 1.0f;
+					parameters[ix + 1] = ImpostorRenderer.corners[v][1];
+					parameters[ix + 2] = radius;
+				}
+			}
+		}
+		
+		ImpostorRenderer.bufferData(gl, this.buffers[0], centers);
+		ImpostorRenderer.bufferData(gl, this.buffers[1], sphereCorners);
+		ImpostorRenderer.bufferData(gl, this.buffers[3], starts);
+		ImpostorRenderer.bufferData(gl, this.buffers[4], ends);
+		ImpostorRenderer.bufferData(gl, this.buffers[5], parameters);
+		
+		this.atomColors = new float[atomCount * 3];
+		this.bondColors = new float[bondCount * 6];
+		
+		this.builtSignature = this.signature;
+		this.builtAtomCount = atomCount;
+		this.builtBondCount = bondCount;
+		this.colorsUploaded = false;
+	}
+	
+	/**
+	 * Evaluates the atom and bond colors and uploads them if any changed.
+	 */
+	private void updateColors(final GL gl)
+	{
+		boolean atomsChanged = !this.colorsUploaded;
+		for (int i = 0; i < this.atoms.size(); i++)
+		{
+			final Atom atom = this.atoms.get(i);
+			final AtomStyle style = (AtomStyle)ImpostorRenderer.getStyles(atom).getStyle(atom);
+			style.getAtomColor(atom, this.tempColor);
+			atomsChanged |= this.setColor(this.atomColors, i * 3);
+		}
+		
+		boolean bondsChanged = !this.colorsUploaded;
+		for (int i = 0; i < this.bonds.size(); i++)
+		{
+			final Bond bond = this.bonds.get(i);
+			final BondStyle style = (BondStyle)ImpostorRenderer.getStyles(bond.getAtom(0)).getStyle(bond);
+			style.getBondColor(bond, this.tempColor);
+			bondsChanged |= this.setColor(this.bondColors, i * 6);
+			style.getSplitBondColor(bond, this.tempColor);
+			bondsChanged |= this.setColor(this.bondColors, i * 6 + 3);
+		}
+		
+		if (atomsChanged)
+			ImpostorRenderer.bufferData(gl, this.buffers[2], ImpostorRenderer.expandColors(this.atomColors));
+		if (bondsChanged)
+			ImpostorRenderer.bufferData(gl, this.buffers[6], ImpostorRenderer.expandColors(this.bondColors));
+		this.colorsUploaded = true;
+	}
+	
+	/**
+	 * Copies 'tempColor' into the colors at offset, and tells whether it differed.
+	 */
+	private boolean setColor(final float[] colors, final int offset)
+	{
+		boolean changed = false;
+		for (int k = 0; k < 3; k++)
+			if (colors[offset + k] != this.tempColor[k])
+			{
+				colors[offset + k] = this.tempColor[k];
+				changed = true;
+			}
+		
+		return changed;
+	}
+	
+	/**
+	 * Repeats every color for the four vertices of its quad.
+	 */
+	private static float[] expandColors(final float[] colors)
+	{
+		final float[] expanded = new float[colors.length * 4];
+		for (int i = 0; i < colors.length; i += 3)
+			for (int v = 0; v < 4; v++)
+				System.arraycopy(colors, i, expanded, i * 4 + v * 3, 3);
+		
+		return expanded;
+	}
+	
+	private static void bufferData(final GL gl, final int buffer, final float[] data)
+	{
+		final FloatBuffer floats = Buffers.newDirectFloatBuffer(data);
+		floats.rewind();
+		gl.glBindBuffer(GL.GL_ARRAY_BUFFER, buffer);
+		gl.glBufferData(GL.GL_ARRAY_BUFFER, data.length * Buffers.SIZEOF_FLOAT, floats, GL.GL_STATIC_DRAW);
+	}
+	
+	private void deleteBuffers(final GL gl)
+	{
+		if (!this.haveBuffers)
+			return;
+		
+		gl.glDeleteBuffers(this.buffers.length, this.buffers, 0);
+		this.haveBuffers = false;
+	}
+	
+	private static StructureStyles getStyles(final Atom atom)
+	{
+		return atom.structure.getStructureMap().getStructureStyles();
+	}
+	
+	/**
+	 * The shaders take the enabled GL lights as directional lights, in eye
+	 * coordinates. A positional light at the eye (the viewer's headlight)
+	 * shines along the view direction.
+	 */
+	private void setUniforms(final GL2 gl2, final int program)
+	{
+		final float[] lightScale = new float[4];
+		final float[] position = new float[4];
+		for (int i = 0; i < 4; i++)
+		{
+			float[] direction = { 0, 0, 1 };
+			if (gl2.glIsEnabled(GL2.GL_LIGHT0 + i))
+			{
+				lightScale[i] = 1.0f;
+				gl2.glGetLightfv(GL2.GL_LIGHT0 + i, GL2.GL_POSITION, position, 0);
+				final float length = (float)Math.sqrt(position[0] * position[0] +
+						position[1] * position[1] + position[2] * position[2]);
+				if (length > 0.0f)
+					direction = new float[] { position[0] / length, position[1] / length, position[2] / length };
+			}
+			
+			gl2.glUniform3fv(gl2.glGetUniformLocation(program, "vmdlight" + i), 1, direction, 0);
+		}
+		
+		gl2.glUniform4fv(gl2.glGetUniformLocation(program, "vmdlightscale"), 1, lightScale, 0);
+		gl2.glUniform4fv(gl2.glGetUniformLocation(program, "vmdmaterial"), 1, ImpostorRenderer.material, 0);
+		
+		final float near = (float)GlGeometryViewer.zNear;
+		final float far = (float)GlGeometryViewer.zFar;
+		gl2.glUniform4f(gl2.glGetUniformLocation(program, "vmdprojparms"),
+				near, far, 0.5f * (far + near), far - near);
+		gl2.glUniform1i(gl2.glGetUniformLocation(program, "vmdprojectionmode"), 1);
+		gl2.glUniform1f(gl2.glGetUniformLocation(program, "vmdopacity"), 1.0f);
+		gl2.glUniform1i(gl2.glGetUniformLocation(program, "vmdtexturemode"), 0);
+		
+		int fogMode = 0;
+		if (gl2.glIsEnabled(GL2.GL_FOG))
+		{
+			final int[] mode = new int[1];
+			gl2.glGetIntegerv(GL2.GL_FOG_MODE, mode, 0);
+			fogMode = mode[0] == GL.GL_LINEAR ? 1 : mode[0] == GL2.GL_EXP ? 2 : 3;
+		}
+		gl2.glUniform1i(gl2.glGetUniformLocation(program, "vmdfogmode"), fogMode);
+	}
+}
@@ -0,0 +1,53 @@
+/***************************************************************************
+* DESCRIPTION:
+*  Vertex shader for batched sphere impostors, to be paired with the VMD
+*  sphere fragment shader (VMDSphere.frag). Unlike VMDSphere.vert, the
+*  sphere is not at the origin of the modelview: every sphere is a quad of
+*  four vertices that all carry the sphere center in gl_Vertex, and the
+*  quad corner (-1/+1, -1/+1) and the object space radius in
+*  gl_MultiTexCoord0. The quad is placed in front of the sphere, facing
+*  the eye, so that it covers the silhouette of the sphere.
+***************************************************************************/
+
+uniform int vmdprojectionmode;   // perspective=1 orthographic=0
+
+varying vec3 oglcolor;           // output interpolated color to frag shader
+varying vec3 V;                  // output view direction vector
+varying vec3 spherepos;          // output transformed sphere position
+varying vec3 rayorigin;          // output ray origin
+varying float sphereradsq;       // output transformed sphere radius squared
+
+void main(void) {
+  vec4 spos = gl_ModelViewMatrix * gl_Vertex;
+  spherepos = vec3(spos) / spos.w;
+
+  // the modelview may scale the scene, so scale the radius with it
+  float radius = gl_MultiTexCoord0.z * length(vec3(gl_ModelViewMatrix[0]));
+  sphereradsq = radius * radius;
+
+  oglcolor = vec3(gl_Color);
+  gl_FogFragCoord = abs(spherepos.z);
+
+  vec3 towards;                  // from the sphere towards the eye
+  if (vmdprojectionmode == 1) {
+    towards = -normalize(spherepos);
+  } else {
+    towards = vec3(0.0, 0.0, 1.0);
+  }
+
+  vec3 up = abs(towards.y) < 0.99 ? vec3(0.0, 1.0, 0.0) : vec3(1.0, 0.0, 0.0);
+  vec3 right = normalize(cross(up, towards));
+  up = cross(towards, right);
+
+  vec3 ecpos = spherepos + radius * (towards + gl_MultiTexCoord0.x * right + gl_MultiTexCoord0.y * up);
+  gl_Position = gl_ProjectionMatrix * vec4(ecpos, 1.0);
+  gl_ClipVertex = vec4(ecpos, 1.0);
+
+  if (vmdprojectionmode == 1) {
+    V = normalize(ecpos);
+    rayorigin = vec3(0.0, 0.0, 0.0);
+  } else {
+    V = vec3(0.0, 0.0, -1.0);
+    rayorigin = vec3(ecpos.xy, 0.0);
+  }
+}
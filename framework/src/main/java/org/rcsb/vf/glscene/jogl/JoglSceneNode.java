@@ -73,6 +73,7 @@ import org.rcsb.mbt.model.StructureMap.BiologicUnitTransforms;
 import org.rcsb.mbt.model.attributes.ChainStyle;
 import org.rcsb.mbt.model.util.DebugState;
 import org.rcsb.vf.controllers.app.VFAppBase;
+import org.rcsb.vf.glscene.raytrace.RayPicker;
 
 
 import com.jogamp.opengl.util.gl2.GLUT;
@@ -93,7 +94,43 @@ public class JoglSceneNode
 	protected RenderablesMap renderables = new RenderablesMap();
 	public RenderablesMap getRenderablesMap() { return renderables; }
 	
+	private int countedRenderables = -1;
+	private int atomRenderableCount = 0;
+	
+	/**
+	 * The number of atom renderables, recounted when the number of
+	 * renderables changes.
+	 */
+	public int getAtomRenderableCount()
+	{
+		synchronized (this.renderables)
+		{
+			if (this.renderables.size() != this.countedRenderables)
+			{
+				this.countedRenderables = this.renderables.size();
+				this.atomRenderableCount = 0;
+				for (StructureComponent sc : this.renderables.keySet())
+					if (sc.getStructureComponentType() == ComponentType.ATOM)
+						this.atomRenderableCount++;
+			}
+			
+			return this.atomRenderableCount;
+		}
+	}
+	
+	/**
+	 * Ribbon meshes of chains that were built before the structure was shown,
+	 * see {@link ChainMeshBuilder#prebuild(ChainGeometry, StructureComponent, org.rcsb.mbt.model.attributes.Style)}.
+	 */
+	final HashMap<StructureComponent, ChainMeshBuilder.PrebuiltMeshes> prebuiltMeshes =
+		new HashMap<StructureComponent, ChainMeshBuilder.PrebuiltMeshes>();
+
 	protected boolean allowLighting = false;
+	
+	/**
+	 * Draws the atoms and bonds as sphere and cylinder impostors, if enabled.
+	 */
+	protected ImpostorRenderer impostors = new ImpostorRenderer();
 
 	// StructureComponent,
 
@@ -251,6 +288,7 @@ public class JoglSceneNode
 		synchronized (this.renderables) {
 			this.renderables.put(renderable.structureComponent, renderable);
 		}
+		RayPicker.sceneChanged();
 
 		VFAppBase.sgetGlGeometryViewer().requestRepaint();
 	}
@@ -275,6 +313,8 @@ public class JoglSceneNode
 			// }
 		}
 
+		RayPicker.sceneChanged();
+
 		final GlGeometryViewer glViewer = VFAppBase.sgetGlGeometryViewer();
 		synchronized (glViewer.renderablesToDestroy)
 		{
@@ -313,6 +353,8 @@ public class JoglSceneNode
 				// this.model.getStateOrganizer().clearData();
 			}
 		}
+		viewer.impostorsToDestroy.add(this.impostors);
+		RayPicker.sceneChanged();
 
 		viewer.requestRepaint();
 	}
@@ -489,6 +531,10 @@ public class JoglSceneNode
 				buMatrices = bu.getBiologicalUnitGenerationMatricesByChain();
 			}
 
+			final boolean drawImpostors = !isPick && buMatrices == null && this.impostors.isEnabled(gl);
+			if (drawImpostors)
+				this.impostors.begin();
+			
 			synchronized (this.renderables)
 			{
 				for (StructureComponent sc : renderables.keySet())
@@ -552,7 +598,7 @@ public class JoglSceneNode
 //					System.err.println("End " + sc.getStructureComponentType() + "\n\n");
 					}
 					
-					else
+					else if (!drawImpostors || !this.impostors.add(renderable, gl, glu, glut))
 						renderable.draw(gl, glu, glut, isPick);
 
 					// pick cycles do not need to finish, and paints get priority.
@@ -561,6 +607,9 @@ public class JoglSceneNode
 						return false;
 					}
 				}
+				
+				if (drawImpostors)
+					this.impostors.draw(gl);
 			}
 
 			if (!isPick)
@@ -632,12 +681,12 @@ public class JoglSceneNode
 
 				try {
 					gl2.glPushMatrix();
-					if (Double.isNaN(atom.coordinate[0])) {
+					if (Double.isNaN(atom.getX())) {
 						System.out.println("JoglSceneNode: atom.coordinate[] is NaN");
 					}
-					if (! Double.isNaN(atom.coordinate[0])) {
-						gl2.glTranslated(atom.coordinate[0],
-								atom.coordinate[1], atom.coordinate[2]);
+					if (! Double.isNaN(atom.getX())) {
+						gl2.glTranslated(atom.getX(),
+								atom.getY(), atom.getZ());
 						gl2.glRasterPos3f(0, 0, 0);
 
 						gl2.glCallList(list);
@@ -665,12 +714,12 @@ public class JoglSceneNode
 			{
 				try {
 					gl2.glPushMatrix();
-					if (Double.isNaN(atom.coordinate[0])) {
+					if (Double.isNaN(atom.getX())) {
 						System.out.println("JoglSceneNode: atom.coordinate[] is NaN");
 					}
-					if (! Double.isNaN(atom.coordinate[0])) {
-						gl2.glTranslated(atom.coordinate[0],
-								atom.coordinate[1], atom.coordinate[2]);
+					if (! Double.isNaN(atom.getX())) {
+						gl2.glTranslated(atom.getX(),
+								atom.getY(), atom.getZ());
 						gl2.glRasterPos3f(0, 0, 0);
 
 						gl2.glCallList(list);
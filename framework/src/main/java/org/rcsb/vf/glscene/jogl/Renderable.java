@@ -49,6 +49,8 @@ package org.rcsb.vf.glscene.jogl;
 import javax.media.opengl.GL;
 import javax.media.opengl.glu.GLU;
 
+import org.rcsb.vf.glscene.raytrace.RayPicker;
+
 import com.jogamp.opengl.util.gl2.GLUT;
 
 
@@ -66,6 +68,12 @@ public class Renderable
 {
 	protected boolean dirty = true;
 
+	/**
+	 * Counts the calls to setDirty(), so geometry that is generated in the
+	 * background can tell whether it is still current.
+	 */
+	protected int dirtyCount = 0;
+
 
 	/**
 	 * Constructor with basic initialization (empty display list and dirty).
@@ -80,6 +88,8 @@ public class Renderable
 	public synchronized final void setDirty( )
 	{
 		this.dirty = true;
+		this.dirtyCount++;
+		RayPicker.sceneChanged();
 	}
 
 
@@ -0,0 +1,161 @@
+/*
+ * BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence. This should
+ * be distributed with the code. If you do not have a copy,
+ * see:
+ *
+ * http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors. These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ * http://www.biojava.org/
+ *
+ * This code was contributed from the Molecular Biology Toolkit
+ * (MBT) project at the University of California San Diego.
+ *
+ * Please reference J.L. Moreland, A.Gramada, O.V. Buzko, Qing
+ * Zhang and P.E. Bourne 2005 The Molecular Biology Toolkit (MBT):
+ * A Modular Platform for Developing Molecular Visualization
+ * Applications. BMC Bioinformatics, 6:21.
+ *
+ * The MBT project was funded as part of the National Institutes
+ * of Health PPG grant number 1-P01-GM63208 and its National
+ * Institute of General Medical Sciences (NIGMS) division. Ongoing
+ * development for the MBT project is managed by the RCSB
+ * Protein Data Bank(http://www.pdb.org) and supported by funds
+ * from the National Science Foundation (NSF), the National
+ * Institute of General Medical Sciences (NIGMS), the Office of
+ * Science, Department of Energy (DOE), the National Library of
+ * Medicine (NLM), the National Cancer Institute (NCI), the
+ * National Center for Research Resources (NCRR), the National
+ * Institute of Biomedical Imaging and Bioengineering (NIBIB),
+ * the National Institute of Neurological Disorders and Stroke
+ * (NINDS), and the National Institute of Diabetes and Digestive
+ * and Kidney Diseases (NIDDK).
+ *
+ * Created on 2026/10/18
+ *
+ */ 
+package org.rcsb.vf.glscene.jogl;
+
+import javax.media.opengl.GL;
+import javax.media.opengl.glu.GLU;
+
+import com.jogamp.opengl.util.gl2.GLUT;
+
+/**
+ * Level of detail for the shared atom sphere and bond cylinder display lists.
+ * Once per frame, the viewer reports the number of atoms drawn and the zoom,
+ * and a level is picked that keeps the total sphere triangle count within a
+ * budget and does not use more slices than the spheres cover on screen. The
+ * level scales the quality of the AtomGeometry and BondGeometry tessellation.
+ * <P>
+ * All atoms and bonds share a few display lists, so when the level changes
+ * only those are recompiled; the renderables are not regenerated.
+ */
+public class TessellationLod
+{
+	/**
+	 * Set from the "tessellation_lod" property; when false the geometry
+	 * quality is used as is.
+	 */
+	public static boolean enabled = true;
+
+	/**
+	 * Quality factors of the levels, finest first.
+	 */
+	private static final float[] qualityFactors = { 1.0f, 0.6f, 0.3f, 0.0f };
+
+	/**
+	 * Sphere triangles all atoms together may use. Bonds roughly double it.
+	 */
+	private static final long triangleBudget = 2000000;
+
+	/**
+	 * Screen length of one slice around the circumference of a sphere of
+	 * 'referenceRadius' angstroms. Finer slices are not visible.
+	 */
+	private static final double pixelsPerSlice = 4.0;
+	private static final double referenceRadius = 1.5;
+
+	private static int level = 0;
+
+	public static int getLevel()
+	{
+		return TessellationLod.level;
+	}
+
+	/**
+	 * The factor to scale the geometry quality with.
+	 */
+	public static float getQualityFactor()
+	{
+		return TessellationLod.enabled ? TessellationLod.qualityFactors[TessellationLod.level] : 1.0f;
+	}
+
+	/**
+	 * Picks the level for this frame and recompiles the shared display lists
+	 * if it changed. Must be called with a current GL context.
+	 * 
+	 * @param atomCount - number of atoms drawn.
+	 * @param pixelsPerAngstrom - zoom at the view center, or NaN if unknown.
+	 * @return true if the level changed.
+	 */
+	public static boolean update(final int atomCount, final double pixelsPerAngstrom,
+			final GL gl, final GLU glu, final GLUT glut)
+	{
+		if (!TessellationLod.enabled)
+			return false;
+
+		final int newLevel = TessellationLod.selectLevel(atomCount, pixelsPerAngstrom);
+		if (newLevel == TessellationLod.level)
+			return false;
+
+		TessellationLod.level = newLevel;
+		AtomGeometry.recompileSharedDisplayLists(gl, glu, glut);
+		BondGeometry.recompileSharedDisplayLists(gl, glu, glut);
+		return true;
+	}
+
+	/**
+	 * The coarsest level that both the triangle budget and the zoom call for.
+	 */
+	static int selectLevel(final int atomCount, final double pixelsPerAngstrom)
+	{
+		final int coarsest = TessellationLod.qualityFactors.length - 1;
+
+		int budgetLevel = 0;
+		while (budgetLevel < coarsest &&
+				(long)atomCount * TessellationLod.getTriangles(budgetLevel) > TessellationLod.triangleBudget)
+			budgetLevel++;
+
+		int zoomLevel = 0;
+		if (!Double.isNaN(pixelsPerAngstrom) && !Double.isInfinite(pixelsPerAngstrom))
+		{
+			final double visibleSlices = 2.0 * Math.PI * TessellationLod.referenceRadius * pixelsPerAngstrom /
+				TessellationLod.pixelsPerSlice;
+			while (zoomLevel < coarsest && TessellationLod.getSlices(zoomLevel + 1) >= visibleSlices)
+				zoomLevel++;
+		}
+
+		return Math.max(budgetLevel, zoomLevel);
+	}
+
+	private static int getSlices(final int level)
+	{
+		return AtomGeometry.getSlices(TessellationLod.qualityFactors[level]);
+	}
+
+	private static int getTriangles(final int level)
+	{
+		return 2 * AtomGeometry.getSlices(TessellationLod.qualityFactors[level]) *
+			AtomGeometry.getSegments(TessellationLod.qualityFactors[level]);
+	}
+}
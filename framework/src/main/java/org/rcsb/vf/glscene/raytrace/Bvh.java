@@ -0,0 +1,340 @@
+/*
+ * BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence. This should
+ * be distributed with the code. If you do not have a copy,
+ * see:
+ *
+ * http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors. These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ * http://www.biojava.org/
+ *
+ * This code was contributed from the Molecular Biology Toolkit
+ * (MBT) project at the University of California San Diego.
+ *
+ * Please reference J.L. Moreland, A.Gramada, O.V. Buzko, Qing
+ * Zhang and P.E. Bourne 2005 The Molecular Biology Toolkit (MBT):
+ * A Modular Platform for Developing Molecular Visualization
+ * Applications. BMC Bioinformatics, 6:21.
+ *
+ * The MBT project was funded as part of the National Institutes
+ * of Health PPG grant number 1-P01-GM63208 and its National
+ * Institute of General Medical Sciences (NIGMS) division. Ongoing
+ * development for the MBT project is managed by the RCSB
+ * Protein Data Bank(http://www.pdb.org) and supported by funds
+ * from the National Science Foundation (NSF), the National
+ * Institute of General Medical Sciences (NIGMS), the Office of
+ * Science, Department of Energy (DOE), the National Library of
+ * Medicine (NLM), the National Cancer Institute (NCI), the
+ * National Center for Research Resources (NCRR), the National
+ * Institute of Biomedical Imaging and Bioengineering (NIBIB),
+ * the National Institute of Neurological Disorders and Stroke
+ * (NINDS), and the National Institute of Diabetes and Digestive
+ * and Kidney Diseases (NIDDK).
+ *
+ * Created on 2026/10/18
+ *
+ */ 
+package org.rcsb.vf.glscene.raytrace;
+
+/**
+ * Bounding volume hierarchy over the primitives of a RayScene.
+ * <P>
+ * Nodes are split at the median centroid along the longest axis, so the tree
+ * is balanced and at most log2(n) deep. The nodes are stored depth first in
+ * flat arrays: the left child of an inner node directly follows it, and
+ * nodeStart holds the index of the right child, and nodeCount the split axis
+ * as -1 - axis. For a leaf, nodeStart is the first entry in the primitive
+ * order and nodeCount the number of primitives.
+ * <P>
+ * The tree is read-only once built, so any number of threads can trace rays
+ * through it, each with its own stack.
+ */
+public class Bvh
+{
+	private static final int LEAF_SIZE = 4;
+
+	/**
+	 * Enough for any balanced tree of int-indexed primitives.
+	 */
+	static final int STACK_SIZE = 64;
+
+	private final RayScene scene;
+
+	private final int[] order;
+
+	private float[] nodeBounds;
+	private int[] nodeStart;
+	private int[] nodeCount;
+	private int nodes = 0;
+
+	// used while building
+	private float[] bounds;
+	private float[] centroids;
+
+	public Bvh(final RayScene scene)
+	{
+		this.scene = scene;
+
+		final int count = scene.getPrimitiveCount();
+		this.order = new int[count];
+		this.bounds = new float[6 * count];
+		this.centroids = new float[3 * count];
+		for (int i = 0; i < count; i++)
+		{
+			this.order[i] = i;
+			scene.getBounds(i, this.bounds, 6 * i);
+			for (int k = 0; k < 3; k++)
+				this.centroids[3 * i + k] = (this.bounds[6 * i + k] + this.bounds[6 * i + 3 + k]) / 2.0f;
+		}
+
+		final int maxNodes = Math.max(1, 2 * count);
+		this.nodeBounds = new float[6 * maxNodes];
+		this.nodeStart = new int[maxNodes];
+		this.nodeCount = new int[maxNodes];
+		if (count > 0)
+			this.build(0, count);
+
+		// median splits leave two to four primitives per leaf
+		this.nodeBounds = Bvh.trim(this.nodeBounds, 6 * this.nodes);
+		this.nodeStart = Bvh.trim(this.nodeStart, this.nodes);
+		this.nodeCount = Bvh.trim(this.nodeCount, this.nodes);
+		this.bounds = null;
+		this.centroids = null;
+	}
+
+	private static float[] trim(final float[] array, final int length)
+	{
+		final float[] trimmed = new float[length];
+		System.arraycopy(array, 0, trimmed, 0, length);
+		return trimmed;
+	}
+
+	private static int[] trim(final int[] array, final int length)
+	{
+		final int[] trimmed = new int[length];
+		System.arraycopy(array, 0, trimmed, 0, length);
+		return trimmed;
+	}
+
+	public RayScene getScene()
+	{
+		return this.scene;
+	}
+
+	public int getNodeCount()
+	{
+		return this.nodes;
+	}
+
+	private int build(final int start, final int end)
+	{
+		final int node = this.nodes++;
+		final int b = 6 * node;
+
+		float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY, minZ = Float.POSITIVE_INFINITY;
+		float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY, maxZ = Float.NEGATIVE_INFINITY;
+		for (int k = 0; k < 3; k++)
+		{
+			this.nodeBounds[b + k] = Float.POSITIVE_INFINITY;
+			this.nodeBounds[b + 3 + k] = Float.NEGATIVE_INFINITY;
+		}
+		for (int i = start; i < end; i++)
+		{
+			final int p = this.order[i];
+			for (int k = 0; k < 3; k++)
+			{
+				this.nodeBounds[b + k] = Math.min(this.nodeBounds[b + k], this.bounds[6 * p + k]);
+				this.nodeBounds[b + 3 + k] = Math.max(this.nodeBounds[b + 3 + k], this.bounds[6 * p + 3 + k]);
+			}
+			final float x = this.centroids[3 * p], y = this.centroids[3 * p + 1], z = this.centroids[3 * p + 2];
+			minX = Math.min(minX, x);
+			maxX = Math.max(maxX, x);
+			minY = Math.min(minY, y);
+			maxY = Math.max(maxY, y);
+			minZ = Math.min(minZ, z);
+			maxZ = Math.max(maxZ, z);
+		}
+
+		final float extentX = maxX - minX, extentY = maxY - minY, extentZ = maxZ - minZ;
+		if (end - start <= LEAF_SIZE || Math.max(extentX, Math.max(extentY, extentZ)) <= 0.0f)
+		{
+			this.nodeStart[node] = start;
+			this.nodeCount[node] = end - start;
+			return node;
+		}
+
+		final int axis = extentX >= extentY && extentX >= extentZ ? 0 : extentY >= extentZ ? 1 : 2;
+		final int middle = (start + end) >>> 1;
+		this.select(start, end - 1, middle, axis);
+
+		this.build(start, middle);
+		this.nodeStart[node] = this.build(middle, end);
+		this.nodeCount[node] = -1 - axis;
+		return node;
+	}
+
+	/**
+	 * Partially sorts order[left..right] by the centroid coordinate, so that
+	 * entry k is in its sorted place.
+	 */
+	private void select(int left, int right, final int k, final int axis)
+	{
+		while (left < right)
+		{
+			final float pivot = this.centroids[3 * this.order[(left + right) >>> 1] + axis];
+			int i = left, j = right;
+			while (i <= j)
+			{
+				while (this.centroids[3 * this.order[i] + axis] < pivot)
+					i++;
+				while (this.centroids[3 * this.order[j] + axis] > pivot)
+					j--;
+				if (i <= j)
+				{
+					final int swap = this.order[i];
+					this.order[i] = this.order[j];
+					this.order[j] = swap;
+					i++;
+					j--;
+				}
+			}
+
+			if (k <= j)
+				right = j;
+			else if (k >= i)
+				left = i;
+			else
+				return;
+		}
+	}
+
+	/**
+	 * Finds the nearest primitive along a ray. The direction must be normalized.
+	 * 
+	 * @param hit - reset to tMax; holds the nearest hit on return.
+	 * @param stack - STACK_SIZE entries, owned by the calling thread.
+	 * @return true if a primitive is hit between tMin and tMax.
+	 */
+	boolean intersect(final double ox, final double oy, final double oz,
+			final double dx, final double dy, final double dz,
+			final double tMin, final double tMax, final RayScene.Hit hit, final int[] stack)
+	{
+		hit.reset(tMax);
+		if (this.nodes == 0)
+			return false;
+
+		final double ix = Bvh.inverse(dx), iy = Bvh.inverse(dy), iz = Bvh.inverse(dz);
+		int top = 0;
+		stack[top++] = 0;
+		while (top > 0)
+		{
+			final int node = stack[--top];
+			if (!this.hitsBox(node, ox, oy, oz, ix, iy, iz, tMin, hit.t))
+				continue;
+
+			final int count = this.nodeCount[node];
+			if (count > 0)
+			{
+				final int start = this.nodeStart[node];
+				for (int i = start; i < start + count; i++)
+					this.scene.intersect(this.order[i], ox, oy, oz, dx, dy, dz, tMin, hit);
+			}
+
+			// visit the near child first
+			else
+			{
+				final int left = node + 1, right = this.nodeStart[node];
+				final int axis = -1 - count;
+				final boolean leftFirst = (axis == 0 ? dx : axis == 1 ? dy : dz) >= 0.0;
+				stack[top++] = leftFirst ? right : left;
+				stack[top++] = leftFirst ? left : right;
+			}
+		}
+
+		return hit.primitive >= 0;
+	}
+
+	/**
+	 * Tests whether anything opaque lies along a ray, for shadow and occlusion
+	 * rays. Stops at the first hit.
+	 */
+	boolean isOccluded(final double ox, final double oy, final double oz,
+			final double dx, final double dy, final double dz,
+			final double tMin, final double tMax, final RayScene.Hit hit, final int[] stack)
+	{
+		if (this.nodes == 0)
+			return false;
+
+		final double ix = Bvh.inverse(dx), iy = Bvh.inverse(dy), iz = Bvh.inverse(dz);
+		int top = 0;
+		stack[top++] = 0;
+		while (top > 0)
+		{
+			final int node = stack[--top];
+			if (!this.hitsBox(node, ox, oy, oz, ix, iy, iz, tMin, tMax))
+				continue;
+
+			final int count = this.nodeCount[node];
+			if (count > 0)
+			{
+				final int start = this.nodeStart[node];
+				for (int i = start; i < start + count; i++)
+				{
+					final int primitive = this.order[i];
+					hit.reset(tMax);
+					if (!this.scene.isTransparent(primitive) &&
+							this.scene.intersect(primitive, ox, oy, oz, dx, dy, dz, tMin, hit))
+						return true;
+				}
+			}
+
+			else
+			{
+				stack[top++] = this.nodeStart[node];
+				stack[top++] = node + 1;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Avoids infinities, which turn into NaN in the box test for rays in the
+	 * plane of a box face.
+	 */
+	private static double inverse(final double d)
+	{
+		return 1.0 / (Math.abs(d) < 1e-12 ? (d < 0.0 ? -1e-12 : 1e-12) : d);
+	}
+
+	private boolean hitsBox(final int node, final double ox, final double oy, final double oz,
+			final double ix, final double iy, final double iz, final double tMin, final double tMax)
+	{
+		final int b = 6 * node;
+		double t0 = (this.nodeBounds[b] - ox) * ix;
+		double t1 = (this.nodeBounds[b + 3] - ox) * ix;
+		double near = Math.min(t0, t1);
+		double far = Math.max(t0, t1);
+
+		t0 = (this.nodeBounds[b + 1] - oy) * iy;
+		t1 = (this.nodeBounds[b + 4] - oy) * iy;
+		near = Math.max(near, Math.min(t0, t1));
+		far = Math.min(far, Math.max(t0, t1));
+
+		t0 = (this.nodeBounds[b + 2] - oz) * iz;
+		t1 = (this.nodeBounds[b + 5] - oz) * iz;
+		near = Math.max(near, Math.min(t0, t1));
+		far = Math.min(far, Math.max(t0, t1));
+
+		return near <= far && far >= tMin && near <= tMax;
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ * BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence. This should
+ * be distributed with the code. If you do not have a copy,
+ * see:
+ *
+ * http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors. These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ * http://www.biojava.org/
+ *
+ * This code was contributed from the Molecular Biology Toolkit
+ * (MBT) project at the University of California San Diego.
+ *
+ * Please reference J.L. Moreland, A.Gramada, O.V. Buzko, Qing
+ * Zhang and P.E. Bourne 2005 The Molecular Biology Toolkit (MBT):
+ * A Modular Platform for Developing Molecular Visualization
+ * Applications. BMC Bioinformatics, 6:21.
+ *
+ * The MBT project was funded as part of the National Institutes
+ * of Health PPG grant number 1-P01-GM63208 and its National
+ * Institute of General Medical Sciences (NIGMS) division. Ongoing
+ * development for the MBT project is managed by the RCSB
+ * Protein Data Bank(http://www.pdb.org) and supported by funds
+ * from the National Science Foundation (NSF), the National
+ * Institute of General Medical Sciences (NIGMS), the Office of
+ * Science, Department of Energy (DOE), the National Library of
+ * Medicine (NLM), the National Cancer Institute (NCI), the
+ * National Center for Research Resources (NCRR), the National
+ * Institute of Biomedical Imaging and Bioengineering (NIBIB),
+ * the National Institute of Neurological Disorders and Stroke
+ * (NINDS), and the National Institute of Diabetes and Digestive
+ * and Kidney Diseases (NIDDK).
+ *
+ * Created on 2026/10/18
+ *
+ */ 
+package org.rcsb.vf.glscene.raytrace;
+
+/**
+ * Perspective camera, as set up by gluPerspective() and gluLookAt() in the
+ * viewer. The eye is the origin of all primary rays.
+ */
+final class Camera
+{
+	final double[] eye;
+	final int width;
+	final int height;
+
+	private final double[] forward = new double[3];
+	private final double[] right = new double[3];
+	private final double[] up = new double[3];
+	private final double scaleY;
+	private final double scaleX;
+
+	Camera(final double[] eye, final double[] center, final double[] up, final double fovy,
+			final int width, final int height)
+	{
+		this.eye = eye.clone();
+		this.width = width;
+		this.height = height;
+
+		for (int k = 0; k < 3; k++)
+			this.forward[k] = center[k] - eye[k];
+		Camera.normalize(this.forward);
+		Camera.cross(this.forward, up, this.right);
+		Camera.normalize(this.right);
+		Camera.cross(this.right, this.forward, this.up);
+
+		this.scaleY = Math.tan(Math.toRadians(fovy / 2.0));
+		this.scaleX = this.scaleY * width / height;
+	}
+
+	/**
+	 * @param x, y - image coordinates, y down.
+	 */
+	void getDirection(final double x, final double y, final double[] direction)
+	{
+		final double px = (2.0 * x / this.width - 1.0) * this.scaleX;
+		final double py = (1.0 - 2.0 * y / this.height) * this.scaleY;
+		for (int k = 0; k < 3; k++)
+			direction[k] = this.forward[k] + px * this.right[k] + py * this.up[k];
+		Camera.normalize(direction);
+	}
+
+	private static void cross(final double[] a, final double[] b, final double[] out)
+	{
+		out[0] = a[1] * b[2] - a[2] * b[1];
+		out[1] = a[2] * b[0] - a[0] * b[2];
+		out[2] = a[0] * b[1] - a[1] * b[0];
+	}
+
+	private static void normalize(final double[] v)
+	{
+		final double length = Math.sqrt(v[0] * v[0] + v[1] * v[1] + v[2] * v[2]);
+		for (int k = 0; k < 3; k++)
+			v[k] /= length;
+	}
+}
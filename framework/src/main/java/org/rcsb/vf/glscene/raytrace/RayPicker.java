@@ -0,0 +1,216 @@
+/*
+ * BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence. This should
+ * be distributed with the code. If you do not have a copy,
+ * see:
+ *
+ * http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors. These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ * http://www.biojava.org/
+ *
+ * This code was contributed from the Molecular Biology Toolkit
+ * (MBT) project at the University of California San Diego.
+ *
+ * Please reference J.L. Moreland, A.Gramada, O.V. Buzko, Qing
+ * Zhang and P.E. Bourne 2005 The Molecular Biology Toolkit (MBT):
+ * A Modular Platform for Developing Molecular Visualization
+ * Applications. BMC Bioinformatics, 6:21.
+ *
+ * The MBT project was funded as part of the National Institutes
+ * of Health PPG grant number 1-P01-GM63208 and its National
+ * Institute of General Medical Sciences (NIGMS) division. Ongoing
+ * development for the MBT project is managed by the RCSB
+ * Protein Data Bank(http://www.pdb.org) and supported by funds
+ * from the National Science Foundation (NSF), the National
+ * Institute of General Medical Sciences (NIGMS), the Office of
+ * Science, Department of Energy (DOE), the National Library of
+ * Medicine (NLM), the National Cancer Institute (NCI), the
+ * National Center for Research Resources (NCRR), the National
+ * Institute of Biomedical Imaging and Bioengineering (NIBIB),
+ * the National Institute of Neurological Disorders and Stroke
+ * (NINDS), and the National Institute of Diabetes and Digestive
+ * and Kidney Diseases (NIDDK).
+ *
+ * Created on 2026/10/18
+ *
+ */ 
+package org.rcsb.vf.glscene.raytrace;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.rcsb.mbt.model.Structure;
+import org.rcsb.mbt.model.StructureComponent;
+import org.rcsb.mbt.model.util.DebugState;
+import org.rcsb.uiApp.controllers.app.AppBase;
+import org.rcsb.vf.controllers.app.VFAppBase;
+import org.rcsb.vf.controllers.scene.SceneController;
+
+/**
+ * Picks the component under the mouse on the CPU, by casting a ray through a
+ * Bvh of the scene. Picking with GL draws the whole scene once more in unique
+ * colors and reads a pixel back; a ray through the index takes microseconds,
+ * also for very large structures.
+ * <P>
+ * The index holds the atoms, bonds, ribbons and surfaces as the viewer draws
+ * them, with the same transformations. It is rebuilt in the background when
+ * the scene changes: renderables are added, removed or made dirty, ribbons
+ * are uploaded, structures are added or removed, or the global transforms
+ * are switched. Until the new index is ready, getIndex() returns null and
+ * the viewer picks with GL.
+ */
+public class RayPicker
+{
+	/**
+	 * Set from the "ray_picking" property; when false the viewer always picks
+	 * with GL.
+	 */
+	public static boolean enabled = true;
+
+	private static final AtomicInteger sceneVersion = new AtomicInteger(0);
+
+	private final ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactory()
+	{
+		public Thread newThread(final Runnable runnable)
+		{
+			final Thread thread = new Thread(runnable, "RayPicker");
+			thread.setDaemon(true);
+			thread.setPriority(Thread.MIN_PRIORITY);
+			return thread;
+		}
+	});
+
+	private volatile Index index = null;
+
+	// the scene of the index being built
+	private Index pending = null;
+
+	/**
+	 * Called whenever the picking geometry may have changed.
+	 */
+	public static void sceneChanged()
+	{
+		RayPicker.sceneVersion.incrementAndGet();
+	}
+
+	/**
+	 * @return the index of the current scene, or null if it is still being
+	 *         built. A new index is started if the scene has changed.
+	 */
+	public Bvh getIndex()
+	{
+		final Index current = new Index();
+		final Index built = this.index;
+		if (built != null && built.isSameScene(current))
+			return built.bvh;
+
+		synchronized (this)
+		{
+			if (this.pending == null || !this.pending.isSameScene(current))
+			{
+				this.pending = current;
+				this.executor.execute(new Runnable()
+				{
+					public void run()
+					{
+						RayPicker.this.build(current);
+					}
+				});
+			}
+		}
+
+		return null;
+	}
+
+	private void build(final Index scene)
+	{
+		// a later scene has been queued already
+		synchronized (this)
+		{
+			if (this.pending != scene)
+				return;
+		}
+
+		final RayScene rayScene = new RayScene();
+		rayScene.setBuildMissingRibbons(false);
+		try
+		{
+			for (Structure structure : scene.structures)
+				rayScene.addStructure(structure);
+		}
+
+		// the scene was changed while it was read, which starts another index
+		catch (final RuntimeException e)
+		{
+			if (DebugState.isDebug())
+				e.printStackTrace();
+			return;
+		}
+
+		scene.bvh = new Bvh(rayScene);
+		this.index = scene;
+	}
+
+	/**
+	 * Casts a ray through a pixel of the viewport.
+	 * 
+	 * @param x, y - the pixel, in window coordinates with y down.
+	 * @param eye, center, up, fovy - the view, as given to gluLookAt() and gluPerspective().
+	 * @return the nearest atom, bond, ribbon residue or surface under the
+	 *         pixel, or null if there is none.
+	 */
+	public static StructureComponent pick(final Bvh index, final int x, final int y,
+			final int width, final int height, final double[] eye, final double[] center,
+			final double[] up, final double fovy)
+	{
+		final Camera camera = new Camera(eye, center, up, fovy, width, height);
+		final double[] direction = new double[3];
+		camera.getDirection(x + 0.5, y + 0.5, direction);
+
+		final RayScene.Hit hit = new RayScene.Hit();
+		if (!index.intersect(eye[0], eye[1], eye[2], direction[0], direction[1], direction[2],
+				0.0, Double.POSITIVE_INFINITY, hit, new int[Bvh.STACK_SIZE]))
+			return null;
+
+		return index.getScene().getComponent(hit.primitive);
+	}
+
+	/**
+	 * The state of the scene an index was built for, and the index.
+	 */
+	private static final class Index
+	{
+		final int version;
+		final boolean transformsShown;
+		final List<Structure> structures;
+		Bvh bvh = null;
+
+		Index()
+		{
+			this.version = RayPicker.sceneVersion.get();
+			final SceneController sceneController = VFAppBase.sgetSceneController();
+			this.transformsShown = !(sceneController.areGlobalTransformsDisabled() ||
+					sceneController.showAsymmetricUnitOnly());
+			this.structures = new ArrayList<Structure>(AppBase.sgetModel().getStructures());
+		}
+
+		boolean isSameScene(final Index other)
+		{
+			return this.version == other.version && this.transformsShown == other.transformsShown
+				&& this.structures.equals(other.structures);
+		}
+	}
+}
@@ -0,0 +1,833 @@
+/*
+ * BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence. This should
+ * be distributed with the code. If you do not have a copy,
+ * see:
+ *
+ * http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors. These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ * http://www.biojava.org/
+ *
+ * This code was contributed from the Molecular Biology Toolkit
+ * (MBT) project at the University of California San Diego.
+ *
+ * Please reference J.L. Moreland, A.Gramada, O.V. Buzko, Qing
+ * Zhang and P.E. Bourne 2005 The Molecular Biology Toolkit (MBT):
+ * A Modular Platform for Developing Molecular Visualization
+ * Applications. BMC Bioinformatics, 6:21.
+ *
+ * The MBT project was funded as part of the National Institutes
+ * of Health PPG grant number 1-P01-GM63208 and its National
+ * Institute of General Medical Sciences (NIGMS) division. Ongoing
+ * development for the MBT project is managed by the RCSB
+ * Protein Data Bank(http://www.pdb.org) and supported by funds
+ * from the National Science Foundation (NSF), the National
+ * Institute of General Medical Sciences (NIGMS), the Office of
+ * Science, Department of Energy (DOE), the National Library of
+ * Medicine (NLM), the National Cancer Institute (NCI), the
+ * National Center for Research Resources (NCRR), the National
+ * Institute of Biomedical Imaging and Bioengineering (NIBIB),
+ * the National Institute of Neurological Disorders and Stroke
+ * (NINDS), and the National Institute of Diabetes and Digestive
+ * and Kidney Diseases (NIDDK).
+ *
+ * Created on 2026/10/18
+ *
+ */ 
+package org.rcsb.vf.glscene.raytrace;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import javax.media.opengl.GL;
+import javax.vecmath.Color4f;
+import javax.vecmath.Matrix4f;
+
+import org.rcsb.mbt.model.Atom;
+import org.rcsb.mbt.model.Bond;
+import org.rcsb.mbt.model.Chain;
+import org.rcsb.mbt.model.Fragment;
+import org.rcsb.mbt.model.Residue;
+import org.rcsb.mbt.model.Structure;
+import org.rcsb.mbt.model.StructureComponent;
+import org.rcsb.mbt.model.StructureMap;
+import org.rcsb.mbt.model.Surface;
+import org.rcsb.mbt.model.StructureComponentRegistry.ComponentType;
+import org.rcsb.mbt.model.attributes.AtomStyle;
+import org.rcsb.mbt.model.attributes.BondStyle;
+import org.rcsb.mbt.model.attributes.ChainStyle;
+import org.rcsb.mbt.model.attributes.StructureStyles;
+import org.rcsb.mbt.surface.datastructure.FaceInfo;
+import org.rcsb.mbt.surface.datastructure.TriangulatedSurface;
+import org.rcsb.mbt.surface.datastructure.VertInfo;
+import org.rcsb.vf.controllers.app.VFAppBase;
+import org.rcsb.vf.glscene.SecondaryStructureBuilder.SsMesh;
+import org.rcsb.vf.glscene.jogl.ChainGeometry;
+import org.rcsb.vf.glscene.jogl.ChainMeshBuilder;
+import org.rcsb.vf.glscene.jogl.DisplayListRenderable;
+import org.rcsb.vf.glscene.jogl.GLTransformationList;
+import org.rcsb.vf.glscene.jogl.JoglSceneNode;
+import org.rcsb.vf.glscene.surfaces.SurfaceGeometry;
+
+/**
+ * The primitives of a scene, for the ray tracer: spheres, open cylinders and
+ * triangles, in flat arrays.
+ * <P>
+ * addStructure() takes the renderables of a structure's scene node, the way
+ * the viewer draws them: atoms become spheres and bonds two half cylinders,
+ * with the radii and colors of their styles; ribbons and surfaces become
+ * triangles. Biological unit and non-crystallographic transformations are
+ * applied like in JoglSceneNode.draw() and innerDraw().
+ * <P>
+ * Each primitive keeps the component it was made for, the way the display
+ * lists do for picking: the atom, the bond, the residue of a ribbon strip,
+ * or the surface.
+ * <P>
+ * Primitives are numbered spheres first, then cylinders, then triangles.
+ */
+public class RayScene
+{
+	private static final float[] DEFAULT_COLOR = { 0.8f, 0.8f, 0.8f };
+
+	// x, y, z, radius
+	private float[] spheres = new float[4 * 64];
+	private float[] sphereColors = new float[3 * 64];
+	private StructureComponent[] sphereComponents = new StructureComponent[64];
+	private int sphereCount = 0;
+
+	// start x, y, z, end x, y, z, radius
+	private float[] cylinders = new float[7 * 64];
+	private float[] cylinderColors = new float[3 * 64];
+	private StructureComponent[] cylinderComponents = new StructureComponent[64];
+	private int cylinderCount = 0;
+
+	// three vertices, their normals and colors, and the alpha of the triangle
+	private float[] triangles = new float[9 * 64];
+	private float[] triangleNormals = new float[9 * 64];
+	private float[] triangleColors = new float[9 * 64];
+	private float[] triangleAlphas = new float[64];
+	private StructureComponent[] triangleComponents = new StructureComponent[64];
+	private int triangleCount = 0;
+
+	// the transformation of the renderables being added, column-major as in GL
+	private float[] transform = null;
+
+	// the component of the primitives being added
+	private StructureComponent component = null;
+
+	private boolean buildMissingRibbons = true;
+
+	private final float[] tempColor = new float[4];
+	private final double[] tempCoordinate = new double[3];
+	private final float[] tempVertices = new float[9];
+	private final float[] tempNormals = new float[9];
+	private final float[] tempColors = new float[9];
+
+	/**
+	 * @return a scene with the renderables of all structures of the model.
+	 */
+	public static RayScene fromModel()
+	{
+		final RayScene scene = new RayScene();
+		for (Structure structure : VFAppBase.sgetModel().getStructures())
+			scene.addStructure(structure);
+		return scene;
+	}
+
+	/**
+	 * Ribbons are taken from the meshes the viewer has drawn. Chains that
+	 * haven't been drawn yet are tessellated, unless this is turned off.
+	 */
+	public void setBuildMissingRibbons(final boolean buildMissingRibbons)
+	{
+		this.buildMissingRibbons = buildMissingRibbons;
+	}
+
+	public int getSphereCount() { return this.sphereCount; }
+	public int getCylinderCount() { return this.cylinderCount; }
+	public int getTriangleCount() { return this.triangleCount; }
+
+	public int getPrimitiveCount()
+	{
+		return this.sphereCount + this.cylinderCount + this.triangleCount;
+	}
+
+	/**
+	 * @return the component the primitive was made for, or null for
+	 *         primitives added directly.
+	 */
+	public StructureComponent getComponent(final int primitive)
+	{
+		if (primitive < this.sphereCount)
+			return this.sphereComponents[primitive];
+		if (primitive < this.sphereCount + this.cylinderCount)
+			return this.cylinderComponents[primitive - this.sphereCount];
+		return this.triangleComponents[primitive - this.sphereCount - this.cylinderCount];
+	}
+
+	/**
+	 * Adds the renderables of the structure's scene node.
+	 */
+	public void addStructure(final Structure structure)
+	{
+		final StructureMap sm = structure.getStructureMap();
+		if (!(sm.getUData() instanceof JoglSceneNode))
+			return;
+		final JoglSceneNode node = (JoglSceneNode)sm.getUData();
+
+		final boolean transformsShown =
+			!(VFAppBase.sgetSceneController().areGlobalTransformsDisabled() ||
+			  VFAppBase.sgetSceneController().showAsymmetricUnitOnly());
+
+		// transformations of the whole structure, as in JoglSceneNode.draw()
+		GLTransformationList structureMatrices = null;
+		if (transformsShown && sm.hasBiologicUnitTransforms())
+			structureMatrices = GLTransformationList.fromModelTransformationList(
+					sm.getBiologicUnitTransforms().getBiologicalUnitGenerationMatrixVector());
+		else if (transformsShown && sm.hasNonCrystallographicTransforms())
+			structureMatrices = GLTransformationList.fromModelTransformationList(
+					sm.getNonCrystallographicTransforms().getNonCrystallographicTranslations());
+
+		// else by chain, as in JoglSceneNode.innerDraw()
+		StructureMap.BiologicUnitTransforms.BiologicalUnitGenerationMapByChain buMatrices = null;
+		if (structureMatrices == null && transformsShown && sm.hasBiologicUnitTransforms())
+			buMatrices = sm.getBiologicUnitTransforms().getBiologicalUnitGenerationMatricesByChain();
+
+		final List<DisplayListRenderable> renderables;
+		synchronized (node.getRenderablesMap())
+		{
+			renderables = new ArrayList<DisplayListRenderable>(node.getRenderablesMap().values());
+		}
+
+		// start all missing ribbons first, so the chains are tessellated in parallel
+		final List<Future<SsMesh[]>> meshes = new ArrayList<Future<SsMesh[]>>(renderables.size());
+		for (DisplayListRenderable renderable : renderables)
+			meshes.add(this.buildMissingRibbons && renderable.geometry instanceof ChainGeometry &&
+					renderable.getMeshes() == null ?
+					ChainMeshBuilder.submit((ChainGeometry)renderable.geometry,
+							renderable.structureComponent, renderable.style) : null);
+
+		for (int i = 0; i < renderables.size(); i++)
+		{
+			final DisplayListRenderable renderable = renderables.get(i);
+			final StructureComponent sc = renderable.structureComponent;
+			final SsMesh[] chainMeshes = renderable.getMeshes() != null ?
+					renderable.getMeshes() : this.getMeshes(meshes.get(i));
+
+			GLTransformationList matrices = structureMatrices;
+			if (buMatrices != null)
+			{
+				matrices = GLTransformationList.fromModelTransformationList(buMatrices.get(RayScene.getChainId(sc)));
+				if (matrices == null)
+					continue;
+			}
+
+			if (matrices == null)
+			{
+				this.transform = null;
+				this.addRenderable(renderable, chainMeshes);
+				continue;
+			}
+
+			for (FloatBuffer matrix : matrices)
+			{
+				this.transform = new float[16];
+				matrix.rewind();
+				matrix.get(this.transform);
+				this.addRenderable(renderable, chainMeshes);
+			}
+		}
+		this.transform = null;
+		this.component = null;
+	}
+
+	private SsMesh[] getMeshes(final Future<SsMesh[]> meshes)
+	{
+		if (meshes == null)
+			return null;
+
+		try
+		{
+			return meshes.get();
+		}
+
+		catch (final InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		}
+
+		catch (final ExecutionException e)
+		{
+			throw new RuntimeException(e.getCause());
+		}
+	}
+
+	private static String getChainId(final StructureComponent sc)
+	{
+		switch (sc.getStructureComponentType())
+		{
+		case ATOM:
+			return ((Atom)sc).chain_id;
+		case BOND:
+			return ((Bond)sc).getAtom(0).chain_id;
+		case CHAIN:
+			return ((Chain)sc).getChainId();
+		case SURFACE:
+			return ((Surface)sc).getChain().getChainId();
+		default:
+			return null;
+		}
+	}
+
+	private void addRenderable(final DisplayListRenderable renderable, final SsMesh[] chainMeshes)
+	{
+		final StructureComponent sc = renderable.structureComponent;
+		this.component = sc;
+		if (sc.getStructureComponentType() == ComponentType.ATOM)
+			this.addAtom((Atom)sc);
+
+		else if (sc.getStructureComponentType() == ComponentType.BOND)
+			this.addBond((Bond)sc);
+
+		else if (chainMeshes != null)
+		{
+			for (SsMesh mesh : chainMeshes)
+				if (mesh != null)
+					this.addMesh(mesh);
+		}
+
+		else if (renderable.geometry instanceof SurfaceGeometry)
+			this.addSurface((Surface)sc);
+	}
+
+	private void addAtom(final Atom atom)
+	{
+		final AtomStyle style = (AtomStyle)RayScene.getStyles(atom).getStyle(atom);
+		style.getAtomColor(atom, this.tempColor);
+		this.addSphere(atom.getCoordinate(this.tempCoordinate), style.getAtomRadius(atom), this.tempColor);
+	}
+
+	/**
+	 * Two half cylinders, from each atom to the middle of the bond. Where the
+	 * atom isn't shown, a sphere closes the end of the bond.
+	 */
+	private void addBond(final Bond bond)
+	{
+		final StructureStyles styles = RayScene.getStyles(bond.getAtom(0));
+		final BondStyle style = (BondStyle)styles.getStyle(bond);
+		final float radius = style.getBondRadius(bond) / 2.0f;
+		final double[] middle = new double[3];
+		for (int k = 0; k < 3; k++)
+			middle[k] = (bond.getAtom(0).getCoordinate(k) + bond.getAtom(1).getCoordinate(k)) / 2.0;
+
+		for (int s = 0; s < 2; s++)
+		{
+			if (s == 0)
+				style.getBondColor(bond, this.tempColor);
+			else
+				style.getSplitBondColor(bond, this.tempColor);
+
+			final Atom atom = bond.getAtom(s);
+			this.addCylinder(atom.getCoordinate(this.tempCoordinate), middle, radius, this.tempColor);
+			if (!styles.isVisible(atom))
+				this.addSphere(this.tempCoordinate, radius, this.tempColor);
+		}
+	}
+
+	/**
+	 * Adds the triangle strips of a ribbon mesh. Each strip is a residue of
+	 * the fragment and takes the residue color, unless the mesh has vertex
+	 * colors. Line strips are skipped.
+	 */
+	private void addMesh(final SsMesh mesh)
+	{
+		if (mesh.getPrimitiveType() != GL.GL_TRIANGLE_STRIP || mesh.getNormals() == null)
+			return;
+
+		final float[] vertices = mesh.getVertices();
+		final float[] normals = mesh.getNormals();
+		final float[] colors = mesh.getColors();
+		final int[] indices = mesh.getIndices();
+		final int[] stripOffsets = mesh.getStripOffsets();
+
+		final StructureComponent sc = mesh.getDisplayLists().structureComponent;
+		final Fragment fragment = sc instanceof Fragment ? (Fragment)sc : null;
+		final StructureStyles styles = sc.structure.getStructureMap().getStructureStyles();
+		final ChainStyle chainStyle = fragment == null ? null : (ChainStyle)styles.getStyle(fragment.getChain());
+
+		for (int i = 0; i < mesh.getStripCount(); i++)
+		{
+			float[] stripColor = DEFAULT_COLOR;
+			this.component = sc;
+			if (fragment != null && i < fragment.getResidueCount())
+			{
+				final Residue residue = fragment.getResidue(i);
+				if (!styles.isVisible(residue))
+					continue;
+				this.component = residue;
+				chainStyle.getResidueColor(residue, this.tempColor);
+				stripColor = this.tempColor;
+			}
+
+			for (int j = stripOffsets[i]; j + 2 < stripOffsets[i + 1]; j++)
+			{
+				for (int v = 0; v < 3; v++)
+				{
+					final int offset = 3 * indices[j + v];
+					System.arraycopy(vertices, offset, this.tempVertices, 3 * v, 3);
+					System.arraycopy(normals, offset, this.tempNormals, 3 * v, 3);
+					if (colors != null)
+						System.arraycopy(colors, offset, this.tempColors, 3 * v, 3);
+					else
+						System.arraycopy(stripColor, 0, this.tempColors, 3 * v, 3);
+				}
+				this.addTriangle(this.tempVertices, this.tempNormals, this.tempColors, 1.0f);
+			}
+		}
+	}
+
+	/**
+	 * Adds the faces of a surface. Mesh and dot surfaces are drawn with lines
+	 * and points, and are skipped.
+	 */
+	private void addSurface(final Surface surface)
+	{
+		final TriangulatedSurface triangulatedSurface = surface.getTriangulatedSurface();
+		final Color4f[] colors = surface.getColors();
+		if (triangulatedSurface == null || colors == null || surface.isMeshSurface() || surface.isDotSurface())
+			return;
+
+		// surface shared with another chain
+		this.component = surface;
+		final float[] buTransform = this.transform;
+		final Matrix4f transformation = surface.getTransformation();
+		if (transformation != null)
+			this.transform = RayScene.multiply(buTransform, new float[] {
+					transformation.m00, transformation.m10, transformation.m20, transformation.m30,
+					transformation.m01, transformation.m11, transformation.m21, transformation.m31,
+					transformation.m02, transformation.m12, transformation.m22, transformation.m32,
+					transformation.m03, transformation.m13, transformation.m23, transformation.m33});
+
+		final List<VertInfo> vertices = triangulatedSurface.getVertices();
+		for (FaceInfo face : triangulatedSurface.getFaces())
+		{
+			final int[] corners = { face.a, face.b, face.c };
+			float alpha = 0.0f;
+			for (int v = 0; v < 3; v++)
+			{
+				final VertInfo vertex = vertices.get(corners[v]);
+				final Color4f color = colors[corners[v]];
+				this.tempVertices[3 * v] = vertex.p.x;
+				this.tempVertices[3 * v + 1] = vertex.p.y;
+				this.tempVertices[3 * v + 2] = vertex.p.z;
+				this.tempNormals[3 * v] = vertex.normal.x;
+				this.tempNormals[3 * v + 1] = vertex.normal.y;
+				this.tempNormals[3 * v + 2] = vertex.normal.z;
+				this.tempColors[3 * v] = color.x;
+				this.tempColors[3 * v + 1] = color.y;
+				this.tempColors[3 * v + 2] = color.z;
+				alpha += color.w / 3.0f;
+			}
+			this.addTriangle(this.tempVertices, this.tempNormals, this.tempColors,
+					surface.isTransparent() ? alpha : 1.0f);
+		}
+
+		this.transform = buTransform;
+	}
+
+	/**
+	 * @return a * b, for column-major matrices. a may be null.
+	 */
+	private static float[] multiply(final float[] a, final float[] b)
+	{
+		if (a == null)
+			return b;
+
+		final float[] product = new float[16];
+		for (int column = 0; column < 4; column++)
+			for (int row = 0; row < 4; row++)
+				for (int k = 0; k < 4; k++)
+					product[4 * column + row] += a[4 * k + row] * b[4 * column + k];
+		return product;
+	}
+
+	private static StructureStyles getStyles(final Atom atom)
+	{
+		return atom.structure.getStructureMap().getStructureStyles();
+	}
+
+	public void addSphere(final double[] center, final float radius, final float[] color)
+	{
+		if (this.sphereCount * 4 == this.spheres.length)
+		{
+			this.spheres = RayScene.grow(this.spheres);
+			this.sphereColors = RayScene.grow(this.sphereColors);
+			this.sphereComponents = RayScene.grow(this.sphereComponents);
+		}
+
+		final int offset = 4 * this.sphereCount;
+		this.transformPoint(center[0], center[1], center[2], this.spheres, offset);
+		this.spheres[offset + 3] = radius;
+		System.arraycopy(color, 0, this.sphereColors, 3 * this.sphereCount, 3);
+		this.sphereComponents[this.sphereCount] = this.component;
+		this.sphereCount++;
+	}
+
+	public void addCylinder(final double[] start, final double[] end, final float radius, final float[] color)
+	{
+		if (this.cylinderCount * 7 == this.cylinders.length)
+		{
+			this.cylinders = RayScene.grow(this.cylinders);
+			this.cylinderColors = RayScene.grow(this.cylinderColors);
+			this.cylinderComponents = RayScene.grow(this.cylinderComponents);
+		}
+
+		final int offset = 7 * this.cylinderCount;
+		this.transformPoint(start[0], start[1], start[2], this.cylinders, offset);
+		this.transformPoint(end[0], end[1], end[2], this.cylinders, offset + 3);
+		this.cylinders[offset + 6] = radius;
+		System.arraycopy(color, 0, this.cylinderColors, 3 * this.cylinderCount, 3);
+		this.cylinderComponents[this.cylinderCount] = this.component;
+		this.cylinderCount++;
+	}
+
+	/**
+	 * @param vertices - x, y, z of the three vertices.
+	 * @param normals - the vertex normals, in the same layout.
+	 * @param colors - red, green and blue of the three vertices.
+	 * @param alpha - the opacity of the triangle.
+	 */
+	public void addTriangle(final float[] vertices, final float[] normals, final float[] colors, final float alpha)
+	{
+		if (this.triangleCount == this.triangleAlphas.length)
+		{
+			this.triangles = RayScene.grow(this.triangles);
+			this.triangleNormals = RayScene.grow(this.triangleNormals);
+			this.triangleColors = RayScene.grow(this.triangleColors);
+			this.triangleAlphas = RayScene.grow(this.triangleAlphas);
+			this.triangleComponents = RayScene.grow(this.triangleComponents);
+		}
+
+		final int offset = 9 * this.triangleCount;
+		for (int v = 0; v < 9; v += 3)
+		{
+			this.transformPoint(vertices[v], vertices[v + 1], vertices[v + 2], this.triangles, offset + v);
+			this.transformNormal(normals[v], normals[v + 1], normals[v + 2], this.triangleNormals, offset + v);
+		}
+		System.arraycopy(colors, 0, this.triangleColors, offset, 9);
+		this.triangleAlphas[this.triangleCount] = alpha;
+		this.triangleComponents[this.triangleCount] = this.component;
+		this.triangleCount++;
+	}
+
+	private void transformPoint(final double x, final double y, final double z, final float[] out, final int offset)
+	{
+		final float[] m = this.transform;
+		if (m == null)
+		{
+			out[offset] = (float)x;
+			out[offset + 1] = (float)y;
+			out[offset + 2] = (float)z;
+			return;
+		}
+
+		out[offset] = (float)(m[0] * x + m[4] * y + m[8] * z + m[12]);
+		out[offset + 1] = (float)(m[1] * x + m[5] * y + m[9] * z + m[13]);
+		out[offset + 2] = (float)(m[2] * x + m[6] * y + m[10] * z + m[14]);
+	}
+
+	/**
+	 * The transformations are rigid, so normals only need the rotation.
+	 */
+	private void transformNormal(final float x, final float y, final float z, final float[] out, final int offset)
+	{
+		final float[] m = this.transform;
+		if (m == null)
+		{
+			out[offset] = x;
+			out[offset + 1] = y;
+			out[offset + 2] = z;
+			return;
+		}
+
+		out[offset] = m[0] * x + m[4] * y + m[8] * z;
+		out[offset + 1] = m[1] * x + m[5] * y + m[9] * z;
+		out[offset + 2] = m[2] * x + m[6] * y + m[10] * z;
+	}
+
+	private static float[] grow(final float[] array)
+	{
+		final float[] newArray = new float[2 * array.length];
+		System.arraycopy(array, 0, newArray, 0, array.length);
+		return newArray;
+	}
+
+	private static StructureComponent[] grow(final StructureComponent[] array)
+	{
+		final StructureComponent[] newArray = new StructureComponent[2 * array.length];
+		System.arraycopy(array, 0, newArray, 0, array.length);
+		return newArray;
+	}
+
+	/**
+	 * Writes the bounding box of a primitive: minimum x, y, z, then maximum x, y, z.
+	 */
+	void getBounds(final int primitive, final float[] bounds, final int offset)
+	{
+		if (primitive < this.sphereCount)
+		{
+			final int s = 4 * primitive;
+			final float radius = this.spheres[s + 3];
+			for (int k = 0; k < 3; k++)
+			{
+				bounds[offset + k] = this.spheres[s + k] - radius;
+				bounds[offset + 3 + k] = this.spheres[s + k] + radius;
+			}
+		}
+
+		else if (primitive < this.sphereCount + this.cylinderCount)
+		{
+			final int c = 7 * (primitive - this.sphereCount);
+			final float radius = this.cylinders[c + 6];
+			for (int k = 0; k < 3; k++)
+			{
+				bounds[offset + k] = Math.min(this.cylinders[c + k], this.cylinders[c + 3 + k]) - radius;
+				bounds[offset + 3 + k] = Math.max(this.cylinders[c + k], this.cylinders[c + 3 + k]) + radius;
+			}
+		}
+
+		else
+		{
+			final int t = 9 * (primitive - this.sphereCount - this.cylinderCount);
+			for (int k = 0; k < 3; k++)
+			{
+				bounds[offset + k] = Math.min(this.triangles[t + k], Math.min(this.triangles[t + 3 + k], this.triangles[t + 6 + k]));
+				bounds[offset + 3 + k] = Math.max(this.triangles[t + k], Math.max(this.triangles[t + 3 + k], this.triangles[t + 6 + k]));
+			}
+		}
+	}
+
+	/**
+	 * @return true if the primitive is a triangle of a transparent surface.
+	 */
+	boolean isTransparent(final int primitive)
+	{
+		final int t = primitive - this.sphereCount - this.cylinderCount;
+		return t >= 0 && this.triangleAlphas[t] < 1.0f;
+	}
+
+	/**
+	 * Intersects a ray with a primitive. The direction must be normalized.
+	 * 
+	 * @return true if the primitive is hit between tMin and hit.t. The hit is
+	 *         then updated.
+	 */
+	boolean intersect(final int primitive, final double ox, final double oy, final double oz,
+			final double dx, final double dy, final double dz, final double tMin, final Hit hit)
+	{
+		if (primitive < this.sphereCount)
+		{
+			final int s = 4 * primitive;
+			final double px = ox - this.spheres[s], py = oy - this.spheres[s + 1], pz = oz - this.spheres[s + 2];
+			final double radius = this.spheres[s + 3];
+			final double b = px * dx + py * dy + pz * dz;
+			final double c = px * px + py * py + pz * pz - radius * radius;
+			final double discriminant = b * b - c;
+			if (discriminant < 0.0)
+				return false;
+
+			final double root = Math.sqrt(discriminant);
+			double t = -b - root;
+			if (t <= tMin)
+				t = -b + root;
+			if (t <= tMin || t >= hit.t)
+				return false;
+
+			hit.set(primitive, t, 0.0f, 0.0f);
+			return true;
+		}
+
+		if (primitive < this.sphereCount + this.cylinderCount)
+		{
+			// open cylinder, the ends are covered by the atoms
+			final int c = 7 * (primitive - this.sphereCount);
+			final double ax = this.cylinders[c + 3] - this.cylinders[c];
+			final double ay = this.cylinders[c + 4] - this.cylinders[c + 1];
+			final double az = this.cylinders[c + 5] - this.cylinders[c + 2];
+			final double mx = ox - this.cylinders[c], my = oy - this.cylinders[c + 1], mz = oz - this.cylinders[c + 2];
+			final double radius = this.cylinders[c + 6];
+
+			final double aa = ax * ax + ay * ay + az * az;
+			final double ad = ax * dx + ay * dy + az * dz;
+			final double am = ax * mx + ay * my + az * mz;
+			final double md = mx * dx + my * dy + mz * dz;
+			final double mm = mx * mx + my * my + mz * mz;
+
+			final double a = aa - ad * ad;
+			if (a < 1e-12 * aa)
+				return false;
+			final double b = aa * md - ad * am;
+			final double k = aa * (mm - radius * radius) - am * am;
+			final double discriminant = b * b - a * k;
+			if (discriminant < 0.0)
+				return false;
+
+			final double root = Math.sqrt(discriminant);
+			for (int side = -1; side <= 1; side += 2)
+			{
+				final double t = (-b + side * root) / a;
+				if (t <= tMin || t >= hit.t)
+					continue;
+
+				final double axial = am + t * ad;
+				if (axial < 0.0 || axial > aa)
+					continue;
+
+				hit.set(primitive, t, (float)(axial / aa), 0.0f);
+				return true;
+			}
+			return false;
+		}
+
+		// Moller-Trumbore, both sides
+		final int t = 9 * (primitive - this.sphereCount - this.cylinderCount);
+		final float[] v = this.triangles;
+		final double e1x = v[t + 3] - v[t], e1y = v[t + 4] - v[t + 1], e1z = v[t + 5] - v[t + 2];
+		final double e2x = v[t + 6] - v[t], e2y = v[t + 7] - v[t + 1], e2z = v[t + 8] - v[t + 2];
+		final double px = dy * e2z - dz * e2y, py = dz * e2x - dx * e2z, pz = dx * e2y - dy * e2x;
+		final double determinant = e1x * px + e1y * py + e1z * pz;
+		if (Math.abs(determinant) < 1e-12)
+			return false;
+
+		final double inverse = 1.0 / determinant;
+		final double sx = ox - v[t], sy = oy - v[t + 1], sz = oz - v[t + 2];
+		final double u = (sx * px + sy * py + sz * pz) * inverse;
+		if (u < 0.0 || u > 1.0)
+			return false;
+
+		final double qx = sy * e1z - sz * e1y, qy = sz * e1x - sx * e1z, qz = sx * e1y - sy * e1x;
+		final double w = (dx * qx + dy * qy + dz * qz) * inverse;
+		if (w < 0.0 || u + w > 1.0)
+			return false;
+
+		final double distance = (e2x * qx + e2y * qy + e2z * qz) * inverse;
+		if (distance <= tMin || distance >= hit.t)
+			return false;
+
+		hit.set(primitive, distance, (float)u, (float)w);
+		return true;
+	}
+
+	/**
+	 * Computes the unit normal at a hit, facing the ray, and the color.
+	 * 
+	 * @return the alpha at the hit.
+	 */
+	float getSurface(final Hit hit, final double ox, final double oy, final double oz,
+			final double dx, final double dy, final double dz, final double[] normal, final float[] color)
+	{
+		final double x = ox + hit.t * dx, y = oy + hit.t * dy, z = oz + hit.t * dz;
+		final int primitive = hit.primitive;
+		float alpha = 1.0f;
+
+		if (primitive < this.sphereCount)
+		{
+			final int s = 4 * primitive;
+			normal[0] = x - this.spheres[s];
+			normal[1] = y - this.spheres[s + 1];
+			normal[2] = z - this.spheres[s + 2];
+			System.arraycopy(this.sphereColors, 3 * primitive, color, 0, 3);
+		}
+
+		else if (primitive < this.sphereCount + this.cylinderCount)
+		{
+			final int cylinder = primitive - this.sphereCount;
+			final int c = 7 * cylinder;
+			for (int k = 0; k < 3; k++)
+				normal[k] = (k == 0 ? x : k == 1 ? y : z) -
+					(this.cylinders[c + k] + hit.u * (this.cylinders[c + 3 + k] - this.cylinders[c + k]));
+			System.arraycopy(this.cylinderColors, 3 * cylinder, color, 0, 3);
+		}
+
+		else
+		{
+			final int triangle = primitive - this.sphereCount - this.cylinderCount;
+			final int t = 9 * triangle;
+			final float w0 = 1.0f - hit.u - hit.v;
+			for (int k = 0; k < 3; k++)
+			{
+				normal[k] = w0 * this.triangleNormals[t + k] + hit.u * this.triangleNormals[t + 3 + k]
+					+ hit.v * this.triangleNormals[t + 6 + k];
+				color[k] = w0 * this.triangleColors[t + k] + hit.u * this.triangleColors[t + 3 + k]
+					+ hit.v * this.triangleColors[t + 6 + k];
+			}
+			alpha = this.triangleAlphas[triangle];
+
+			// degenerate normals: use the face normal
+			if (normal[0] * normal[0] + normal[1] * normal[1] + normal[2] * normal[2] < 1e-12)
+			{
+				final float[] v = this.triangles;
+				final double e1x = v[t + 3] - v[t], e1y = v[t + 4] - v[t + 1], e1z = v[t + 5] - v[t + 2];
+				final double e2x = v[t + 6] - v[t], e2y = v[t + 7] - v[t + 1], e2z = v[t + 8] - v[t + 2];
+				normal[0] = e1y * e2z - e1z * e2y;
+				normal[1] = e1z * e2x - e1x * e2z;
+				normal[2] = e1x * e2y - e1y * e2x;
+			}
+		}
+
+		double length = Math.sqrt(normal[0] * normal[0] + normal[1] * normal[1] + normal[2] * normal[2]);
+		if (length == 0.0)
+		{
+			normal[0] = -dx;
+			normal[1] = -dy;
+			normal[2] = -dz;
+			length = 1.0;
+		}
+
+		// both sides are lit, as with backface rendering
+		if (normal[0] * dx + normal[1] * dy + normal[2] * dz > 0.0)
+			length = -length;
+		for (int k = 0; k < 3; k++)
+			normal[k] /= length;
+
+		return alpha;
+	}
+
+	/**
+	 * The nearest intersection found so far.
+	 */
+	static final class Hit
+	{
+		int primitive = -1;
+		double t;
+		float u;
+		float v;
+
+		void reset(final double tMax)
+		{
+			this.primitive = -1;
+			this.t = tMax;
+		}
+
+		void set(final int primitive, final double t, final float u, final float v)
+		{
+			this.primitive = primitive;
+			this.t = t;
+			this.u = u;
+			this.v = v;
+		}
+	}
+}
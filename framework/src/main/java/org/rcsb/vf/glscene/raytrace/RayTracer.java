@@ -0,0 +1,318 @@
+/*
+ * BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence. This should
+ * be distributed with the code. If you do not have a copy,
+ * see:
+ *
+ * http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors. These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ * http://www.biojava.org/
+ *
+ * This code was contributed from the Molecular Biology Toolkit
+ * (MBT) project at the University of California San Diego.
+ *
+ * Please reference J.L. Moreland, A.Gramada, O.V. Buzko, Qing
+ * Zhang and P.E. Bourne 2005 The Molecular Biology Toolkit (MBT):
+ * A Modular Platform for Developing Molecular Visualization
+ * Applications. BMC Bioinformatics, 6:21.
+ *
+ * The MBT project was funded as part of the National Institutes
+ * of Health PPG grant number 1-P01-GM63208 and its National
+ * Institute of General Medical Sciences (NIGMS) division. Ongoing
+ * development for the MBT project is managed by the RCSB
+ * Protein Data Bank(http://www.pdb.org) and supported by funds
+ * from the National Science Foundation (NSF), the National
+ * Institute of General Medical Sciences (NIGMS), the Office of
+ * Science, Department of Energy (DOE), the National Library of
+ * Medicine (NLM), the National Cancer Institute (NCI), the
+ * National Center for Research Resources (NCRR), the National
+ * Institute of Biomedical Imaging and Bioengineering (NIBIB),
+ * the National Institute of Neurological Disorders and Stroke
+ * (NINDS), and the National Institute of Diabetes and Digestive
+ * and Kidney Diseases (NIDDK).
+ *
+ * Created on 2026/10/18
+ *
+ */ 
+package org.rcsb.vf.glscene.raytrace;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.rcsb.vf.controllers.app.VFAppBase;
+import org.rcsb.vf.glscene.jogl.GlGeometryViewer;
+
+/**
+ * Renders a RayScene into a BufferedImage on the CPU, without an OpenGL
+ * context.
+ * <P>
+ * The image is cut into tiles of TILE_SIZE pixels, which the threads take in
+ * turn until none are left. The threads share nothing but the read-only
+ * scene and the pixel array, so throughput grows with the number of cores.
+ * Each tile seeds its own random numbers, so the image doesn't depend on the
+ * number of threads.
+ * <P>
+ * Pixels are supersampled on a regular grid. Surfaces are lit by a headlight,
+ * like in the viewer, and darkened by ambient occlusion: random rays over the
+ * hemisphere around the normal that hit something within the occlusion
+ * distance. Transparent surfaces are blended with what lies behind them.
+ */
+public class RayTracer
+{
+	public static final int TILE_SIZE = 32;
+
+	private static final float AMBIENT = 0.3f;
+	private static final float DIFFUSE = 0.8f;
+	private static final float SPECULAR = 0.4f;
+	private static final float SHININESS = 64.0f;
+
+	private static final int MAX_LAYERS = 8;
+
+	/**
+	 * Offsets secondary rays from the surface, in Angstroms.
+	 */
+	private static final double EPSILON = 1e-3;
+
+	private int threadCount = Runtime.getRuntime().availableProcessors();
+	private int supersampling = 2;
+	private int occlusionSamples = 16;
+	private float occlusionDistance = 8.0f;
+	private float[] backgroundColor = { 0.0f, 0.0f, 0.0f };
+
+	public void setThreadCount(final int threadCount) { this.threadCount = Math.max(1, threadCount); }
+
+	/**
+	 * @param supersampling - rays per pixel along each axis.
+	 */
+	public void setSupersampling(final int supersampling) { this.supersampling = Math.max(1, supersampling); }
+
+	/**
+	 * @param occlusionSamples - ambient occlusion rays per pixel, spread over
+	 *        the supersamples. 0 turns ambient occlusion off.
+	 */
+	public void setOcclusionSamples(final int occlusionSamples) { this.occlusionSamples = Math.max(0, occlusionSamples); }
+	public void setOcclusionDistance(final float occlusionDistance) { this.occlusionDistance = occlusionDistance; }
+	public void setBackgroundColor(final float[] backgroundColor) { this.backgroundColor = backgroundColor.clone(); }
+
+	/**
+	 * Renders the structures of the model with the viewer's camera and
+	 * background.
+	 */
+	public static BufferedImage renderViewer(final int width, final int height) throws InterruptedException
+	{
+		final GlGeometryViewer viewer = VFAppBase.sgetGlGeometryViewer();
+		final RayTracer tracer = new RayTracer();
+		tracer.setBackgroundColor(viewer.backgroundColor);
+		return tracer.render(new Bvh(RayScene.fromModel()), viewer.viewEye, viewer.viewCenter, viewer.viewUp,
+				GlGeometryViewer.fovy, width, height);
+	}
+
+	/**
+	 * @param fovy - the vertical field of view, in degrees.
+	 */
+	public BufferedImage render(final Bvh bvh, final double[] eye, final double[] center, final double[] up,
+			final double fovy, final int width, final int height) throws InterruptedException
+	{
+		final Camera camera = new Camera(eye, center, up, fovy, width, height);
+		final int[] pixels = new int[width * height];
+		final int tilesX = (width + TILE_SIZE - 1) / TILE_SIZE;
+		final int tileCount = tilesX * ((height + TILE_SIZE - 1) / TILE_SIZE);
+		final AtomicInteger nextTile = new AtomicInteger(0);
+		final RuntimeException[] failure = new RuntimeException[1];
+
+		final Thread[] threads = new Thread[Math.min(this.threadCount, tileCount)];
+		for (int i = 0; i < threads.length; i++)
+		{
+			threads[i] = new Thread("RayTracer")
+			{
+				@Override
+				public void run()
+				{
+					try
+					{
+						final TraceContext context = new TraceContext(bvh);
+						for (int tile = nextTile.getAndIncrement(); tile < tileCount; tile = nextTile.getAndIncrement())
+							RayTracer.this.renderTile(context, camera, tile % tilesX * TILE_SIZE,
+									tile / tilesX * TILE_SIZE, tile, pixels);
+					}
+
+					catch (final RuntimeException e)
+					{
+						synchronized (failure)
+						{
+							failure[0] = e;
+						}
+						nextTile.set(tileCount);
+					}
+				}
+			};
+			threads[i].setDaemon(true);
+			threads[i].start();
+		}
+
+		try
+		{
+			for (Thread thread : threads)
+				thread.join();
+		}
+
+		finally
+		{
+			nextTile.set(tileCount);
+		}
+
+		synchronized (failure)
+		{
+			if (failure[0] != null)
+				throw failure[0];
+		}
+
+		final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		image.setRGB(0, 0, width, height, pixels, 0, width);
+		return image;
+	}
+
+	private void renderTile(final TraceContext context, final Camera camera, final int x0, final int y0,
+			final int tile, final int[] pixels)
+	{
+		context.random.setSeed(tile * 0x9E3779B97F4A7C15L);
+		final int samples = this.supersampling;
+		final int occlusionRays = (this.occlusionSamples + samples * samples - 1) / (samples * samples);
+		final float[] sum = new float[3];
+		final double[] direction = new double[3];
+
+		for (int y = y0; y < Math.min(y0 + TILE_SIZE, camera.height); y++)
+			for (int x = x0; x < Math.min(x0 + TILE_SIZE, camera.width); x++)
+			{
+				sum[0] = sum[1] = sum[2] = 0.0f;
+				for (int sy = 0; sy < samples; sy++)
+					for (int sx = 0; sx < samples; sx++)
+					{
+						camera.getDirection(x + (sx + 0.5) / samples, y + (sy + 0.5) / samples, direction);
+						this.trace(context, camera.eye[0], camera.eye[1], camera.eye[2],
+								direction[0], direction[1], direction[2], occlusionRays);
+						for (int k = 0; k < 3; k++)
+							sum[k] += context.color[k];
+					}
+
+				int rgb = 0;
+				for (int k = 0; k < 3; k++)
+				{
+					final int value = Math.round(255.0f * Math.min(1.0f, sum[k] / (samples * samples)));
+					rgb = (rgb << 8) | value;
+				}
+				pixels[y * camera.width + x] = rgb;
+			}
+	}
+
+	/**
+	 * Traces a primary ray through up to MAX_LAYERS transparent surfaces. The
+	 * color is left in context.color.
+	 */
+	private void trace(final TraceContext context, double ox, double oy, double oz,
+			final double dx, final double dy, final double dz, final int occlusionRays)
+	{
+		final float[] color = context.color;
+		color[0] = color[1] = color[2] = 0.0f;
+		float transmittance = 1.0f;
+
+		for (int layer = 0; layer < MAX_LAYERS && transmittance > 0.01f; layer++)
+		{
+			if (!context.bvh.intersect(ox, oy, oz, dx, dy, dz, 0.0, Double.POSITIVE_INFINITY,
+					context.hit, context.stack))
+				break;
+
+			final float alpha = context.bvh.getScene().getSurface(context.hit, ox, oy, oz, dx, dy, dz,
+					context.normal, context.baseColor);
+			ox += context.hit.t * dx;
+			oy += context.hit.t * dy;
+			oz += context.hit.t * dz;
+
+			this.shade(context, ox, oy, oz, dx, dy, dz, occlusionRays);
+			for (int k = 0; k < 3; k++)
+				color[k] += transmittance * alpha * context.baseColor[k];
+			transmittance *= 1.0f - alpha;
+
+			// continue behind the surface
+			ox += EPSILON * dx;
+			oy += EPSILON * dy;
+			oz += EPSILON * dz;
+		}
+
+		for (int k = 0; k < 3; k++)
+			color[k] += transmittance * this.backgroundColor[k];
+	}
+
+	/**
+	 * Lights the hit in context.baseColor, in place.
+	 */
+	private void shade(final TraceContext context, final double x, final double y, final double z,
+			final double dx, final double dy, final double dz, final int occlusionRays)
+	{
+		final double[] n = context.normal;
+		final float lambert = (float)Math.max(0.0, -(n[0] * dx + n[1] * dy + n[2] * dz));
+
+		float occlusion = 1.0f;
+		if (occlusionRays > 0)
+		{
+			// orthonormal basis around the normal
+			final double ax = Math.abs(n[0]) > 0.9 ? 0.0 : 1.0, ay = 1.0 - ax;
+			double tx = ay * n[2], ty = -ax * n[2], tz = ax * n[1] - ay * n[0];
+			final double length = Math.sqrt(tx * tx + ty * ty + tz * tz);
+			tx /= length;
+			ty /= length;
+			tz /= length;
+			final double bx = n[1] * tz - n[2] * ty, by = n[2] * tx - n[0] * tz, bz = n[0] * ty - n[1] * tx;
+
+			final double sx = x + EPSILON * n[0], sy = y + EPSILON * n[1], sz = z + EPSILON * n[2];
+			int open = 0;
+			for (int i = 0; i < occlusionRays; i++)
+			{
+				// cosine weighted
+				final double u = context.random.nextDouble();
+				final double phi = 2.0 * Math.PI * context.random.nextDouble();
+				final double r = Math.sqrt(u);
+				final double a = r * Math.cos(phi), b = r * Math.sin(phi), c = Math.sqrt(1.0 - u);
+				if (!context.bvh.isOccluded(sx, sy, sz,
+						a * tx + b * bx + c * n[0], a * ty + b * by + c * n[1], a * tz + b * bz + c * n[2],
+						0.0, this.occlusionDistance, context.hit, context.stack))
+					open++;
+			}
+			occlusion = open / (float)occlusionRays;
+		}
+
+		final float light = occlusion * (AMBIENT + DIFFUSE * lambert);
+		final float highlight = SPECULAR * (float)Math.pow(lambert, SHININESS);
+		for (int k = 0; k < 3; k++)
+			context.baseColor[k] = context.baseColor[k] * light + highlight;
+	}
+
+	/**
+	 * The scratch space of one thread.
+	 */
+	private static final class TraceContext
+	{
+		final Bvh bvh;
+		final RayScene.Hit hit = new RayScene.Hit();
+		final int[] stack = new int[Bvh.STACK_SIZE];
+		final Random random = new Random();
+		final double[] normal = new double[3];
+		final float[] baseColor = new float[3];
+		final float[] color = new float[3];
+
+		TraceContext(final Bvh bvh)
+		{
+			this.bvh = bvh;
+		}
+	}
+}
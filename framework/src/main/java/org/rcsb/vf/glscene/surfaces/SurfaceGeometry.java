@@ -52,6 +52,7 @@ import javax.media.opengl.GL;
 import javax.media.opengl.GL2;
 import javax.media.opengl.glu.GLU;
 import javax.vecmath.Color4f;
+import javax.vecmath.Matrix4f;
 import javax.vecmath.Point3f;
 import javax.vecmath.Vector3f;
 
@@ -94,6 +95,17 @@ public class SurfaceGeometry extends DisplayListGeometry {
 		lists[0].setupLists(1);
 		lists[0].startDefine(0, gl, glu, glut);
 
+		// surface shared with another chain
+		final Matrix4f transformation = surface.getTransformation();
+		if (transformation != null) {
+			gl2.glPushMatrix();
+			gl2.glMultMatrixf(new float[] {
+					transformation.m00, transformation.m10, transformation.m20, transformation.m30,
+					transformation.m01, transformation.m11, transformation.m21, transformation.m31,
+					transformation.m02, transformation.m12, transformation.m22, transformation.m32,
+					transformation.m03, transformation.m13, transformation.m23, transformation.m33}, 0);
+		}
+
 		// enable color tracking with glColor
 		gl2.glPushAttrib(GL2.GL_COLOR_MATERIAL);
 		gl.glEnable(GL2.GL_COLOR_MATERIAL);
@@ -133,6 +145,10 @@ public class SurfaceGeometry extends DisplayListGeometry {
 		gl2.glPopAttrib();
 		gl2.glPopAttrib();
 
+		if (transformation != null) {
+			gl2.glPopMatrix();
+		}
+
 		lists[0].endDefine(gl, glu, glut);
 		lists[0].structureComponent = surface;
 
@@ -55,6 +55,7 @@ import javax.swing.UIManager;
 
 import org.rcsb.uiApp.controllers.doc.LoadThread;
 import org.rcsb.uiApp.ui.mainframe.DocumentFrameBase;
+import org.rcsb.vf.controllers.app.ScreenshotBatch;
 import org.rcsb.vf.controllers.app.VFAppBase;
 import org.rcsb.vf.controllers.doc.VFDocController;
 import org.rcsb.vf.controllers.scene.SceneController;
@@ -148,5 +149,14 @@ public abstract class VFDocumentFrameBase extends DocumentFrameBase
 		super.initialize(showFrame);
 		VFAppBase.sgetGlGeometryViewer();
 		// force the geometryviewer creation
+
+		final String screenshotBatch = VFAppBase.getApp().properties.getProperty("screenshot_batch");
+		if (screenshotBatch != null)
+		{
+			final ScreenshotBatch batch = new ScreenshotBatch(screenshotBatch, System.out);
+			final String rayTraced = VFAppBase.getApp().properties.getProperty("screenshot_raytrace");
+			batch.setRayTraced(rayTraced != null && rayTraced.equals("true"));
+			batch.start();
+		}
 	}
 }
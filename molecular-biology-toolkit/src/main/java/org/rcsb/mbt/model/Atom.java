@@ -106,9 +106,7 @@ public class Atom
 		this.residue_id    = atom.residue_id;
 		this.authorResidue_id    = atom.authorResidue_id;
 		this.insertionCode = atom.insertionCode;
-		this.coordinate[0] = atom.coordinate[0];
-		this.coordinate[1] = atom.coordinate[1];
-		this.coordinate[2] = atom.coordinate[2];
+		this.setCoordinate( atom.getX(), atom.getY(), atom.getZ() );
 		this.occupancy     = atom.occupancy;
 		this.bfactor       = atom.bfactor;
 		this.bird          = atom.bird;
@@ -226,8 +224,17 @@ public class Atom
 	/**
 	 *  The x,y,z coordinate in angstroms.
 	 *  For example, (21.023, 30.128, 12.340).
+	 *  <P>
+	 *  The coordinate is held here until the atom is added to a StructureMap.
+	 *  From then on it is a row of the map's AtomTable and this is null.
+	 *  <P>
+	 *  @see #getX()
+	 *  @see #setCoordinate(double, double, double)
 	 */
-	public double coordinate[] = { 0.0f, 0.0f, 0.0f }; // _atom_site.Cartn_x,y,z
+	private double coordinate[] = { 0.0f, 0.0f, 0.0f }; // _atom_site.Cartn_x,y,z
+
+	private AtomTable atomTable = null;
+	private int atomTableRow = -1;
 
 	/**
 	 *  The fraction (0.0-1.0) of a given atom name that occurs in a residue
@@ -272,6 +279,108 @@ public class Atom
 	 */
 	public Boolean nonpolymer = null;
 	
+	/**
+	 *  Return the x coordinate in angstroms.
+	 */
+	public double getX( )
+	{
+		return this.atomTable == null ? this.coordinate[0] : this.atomTable.getX( this.atomTableRow );
+	}
+
+	/**
+	 *  Return the y coordinate in angstroms.
+	 */
+	public double getY( )
+	{
+		return this.atomTable == null ? this.coordinate[1] : this.atomTable.getY( this.atomTableRow );
+	}
+
+	/**
+	 *  Return the z coordinate in angstroms.
+	 */
+	public double getZ( )
+	{
+		return this.atomTable == null ? this.coordinate[2] : this.atomTable.getZ( this.atomTableRow );
+	}
+
+	/**
+	 *  Return the coordinate along an axis, 0 for x, 1 for y and 2 for z.
+	 */
+	public double getCoordinate( final int axis )
+	{
+		return this.atomTable == null ? this.coordinate[axis] : this.atomTable.getCoordinate( this.atomTableRow, axis );
+	}
+
+	/**
+	 *  Copy the x,y,z coordinate into the array and return it, so it can be
+	 *  passed to the ArrayLinearAlgebra methods without allocating.
+	 */
+	public double[] getCoordinate( final double[] xyz )
+	{
+		xyz[0] = this.getX( );
+		xyz[1] = this.getY( );
+		xyz[2] = this.getZ( );
+		return xyz;
+	}
+
+	/**
+	 *  Return a new array with the x,y,z coordinate.
+	 */
+	public double[] getCoordinate( )
+	{
+		return this.getCoordinate( new double[3] );
+	}
+
+	/**
+	 *  Set the x,y,z coordinate in angstroms.
+	 */
+	public void setCoordinate( final double x, final double y, final double z )
+	{
+		if ( this.atomTable == null )
+		{
+			this.coordinate[0] = x;
+			this.coordinate[1] = y;
+			this.coordinate[2] = z;
+		}
+		else {
+			this.atomTable.setCoordinate( this.atomTableRow, x, y, z );
+		}
+	}
+
+	/**
+	 *  Set the coordinate along an axis, 0 for x, 1 for y and 2 for z.
+	 */
+	public void setCoordinate( final int axis, final double value )
+	{
+		if ( this.atomTable == null ) {
+			this.coordinate[axis] = value;
+		} else {
+			this.atomTable.setCoordinate( this.atomTableRow, axis, value );
+		}
+	}
+
+	/**
+	 *  Return the distance in angstroms to another atom.
+	 */
+	public double distance( final Atom atom )
+	{
+		final double dx = atom.getX( ) - this.getX( );
+		final double dy = atom.getY( ) - this.getY( );
+		final double dz = atom.getZ( ) - this.getZ( );
+		return Math.sqrt( dx * dx + dy * dy + dz * dz );
+	}
+
+	/**
+	 *  Keep the coordinate in the given row of the table from now on. The
+	 *  table has already copied the current coordinate.
+	 */
+	void setAtomTable( final AtomTable atomTable, final int row )
+	{
+		this.atomTable = atomTable;
+		this.atomTableRow = row;
+		this.coordinate = null;
+	}
+
 	/**
 	 * Return true if author chain id, author residue id and atom name match. Note, this is only
 	 * a partial match of atom attributes, for example it does not check for insertion code!
@@ -0,0 +1,282 @@
+/*
+ * BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence. This should
+ * be distributed with the code. If you do not have a copy,
+ * see:
+ *
+ * http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors. These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ * http://www.biojava.org/
+ *
+ * This code was contributed from the Molecular Biology Toolkit
+ * (MBT) project at the University of California San Diego.
+ *
+ * Please reference J.L. Moreland, A.Gramada, O.V. Buzko, Qing
+ * Zhang and P.E. Bourne 2005 The Molecular Biology Toolkit (MBT):
+ * A Modular Platform for Developing Molecular Visualization
+ * Applications. BMC Bioinformatics, 6:21.
+ *
+ * The MBT project was funded as part of the National Institutes
+ * of Health PPG grant number 1-P01-GM63208 and its National
+ * Institute of General Medical Sciences (NIGMS) division. Ongoing
+ * development for the MBT project is managed by the RCSB
+ * Protein Data Bank(http://www.pdb.org) and supported by funds
+ * from the National Science Foundation (NSF), the National
+ * Institute of General Medical Sciences (NIGMS), the Office of
+ * Science, Department of Energy (DOE), the National Library of
+ * Medicine (NLM), the National Cancer Institute (NCI), the
+ * National Center for Research Resources (NCRR), the National
+ * Institute of Biomedical Imaging and Bioengineering (NIBIB),
+ * the National Institute of Neurological Disorders and Stroke
+ * (NINDS), and the National Institute of Diabetes and Digestive
+ * and Kidney Diseases (NIDDK).
+ *
+ * Created on 2026/10/18
+ *
+ */ 
+package org.rcsb.mbt.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+
+/**
+ *  A column store of the atoms of a StructureMap. Coordinates are kept in one
+ *  contiguous array (x,y,z per atom) and the element, name and compound codes
+ *  are dictionary encoded, so geometric code can stream through the atoms
+ *  without visiting each Atom object. Row i is the atom with StructureMap
+ *  index i.
+ *  <P>
+ *  The table owns the coordinates: each Atom drops its own array and reads
+ *  and writes its row of the table instead. While building the table, the
+ *  String fields of each Atom are replaced by one shared instance per
+ *  distinct value, which removes the per-atom copies made by the loaders.
+ *  <P>
+ *  The codes are a snapshot of the String fields when the table was built.
+ *  <P>
+ *  @see	org.rcsb.mbt.model.StructureMap#getAtomTable()
+ */
+public class AtomTable
+{
+	private final int atomCount;
+	private final double[] coordinates;
+
+	private final int[] elementCodes;
+	private final int[] nameCodes;
+	private final int[] compoundCodes;
+	private final String[] elements;
+	private final String[] names;
+	private final String[] compounds;
+
+	/**
+	 * Build the table from the atoms, in order.
+	 */
+	public AtomTable( final List<Atom> atoms )
+	{
+		this.atomCount = atoms.size( );
+		this.coordinates = new double[3 * this.atomCount];
+		this.elementCodes = new int[this.atomCount];
+		this.nameCodes = new int[this.atomCount];
+		this.compoundCodes = new int[this.atomCount];
+
+		final Dictionary elementDictionary = new Dictionary( );
+		final Dictionary nameDictionary = new Dictionary( );
+		final Dictionary compoundDictionary = new Dictionary( );
+		final Dictionary otherDictionary = new Dictionary( );
+
+		for ( int i=0; i<this.atomCount; i++ )
+		{
+			final Atom atom = atoms.get( i );
+			this.coordinates[3*i]   = atom.getX( );
+			this.coordinates[3*i+1] = atom.getY( );
+			this.coordinates[3*i+2] = atom.getZ( );
+			atom.setAtomTable( this, i );
+
+			this.elementCodes[i] = elementDictionary.encode( atom.element );
+			atom.element = elementDictionary.share( atom.element );
+			this.nameCodes[i] = nameDictionary.encode( atom.name );
+			atom.name = nameDictionary.share( atom.name );
+			this.compoundCodes[i] = compoundDictionary.encode( atom.compound );
+			atom.compound = compoundDictionary.share( atom.compound );
+
+			atom.chain_id = otherDictionary.share( atom.chain_id );
+			atom.authorChain_id = otherDictionary.share( atom.authorChain_id );
+			atom.insertionCode = otherDictionary.share( atom.insertionCode );
+			atom.altLoc = otherDictionary.share( atom.altLoc );
+		}
+
+		this.elements = elementDictionary.toArray( );
+		this.names = nameDictionary.toArray( );
+		this.compounds = compoundDictionary.toArray( );
+	}
+
+	/**
+	 * Return the number of atoms (rows) in the table.
+	 */
+	public int getAtomCount( )
+	{
+		return this.atomCount;
+	}
+
+	/**
+	 * Return the coordinates, x,y,z for each atom. This is the internal array
+	 * the atoms read their coordinates from; change them through the atoms.
+	 */
+	public double[] getCoordinates( )
+	{
+		return this.coordinates;
+	}
+
+	/**
+	 * Return a new single precision copy of the coordinates, x,y,z for each
+	 * atom, as used by CellList. The copy is not kept, so it is only in
+	 * memory while the caller uses it.
+	 */
+	public float[] getFloatCoordinates( )
+	{
+		final float[] xyz = new float[this.coordinates.length];
+		for ( int i=0; i<xyz.length; i++ ) {
+			xyz[i] = (float) this.coordinates[i];
+		}
+		return xyz;
+	}
+
+	public double getX( final int atomIndex ) { return this.coordinates[3*atomIndex]; }
+	public double getY( final int atomIndex ) { return this.coordinates[3*atomIndex+1]; }
+	public double getZ( final int atomIndex ) { return this.coordinates[3*atomIndex+2]; }
+	public double getCoordinate( final int atomIndex, final int axis ) { return this.coordinates[3*atomIndex+axis]; }
+
+	void setCoordinate( final int atomIndex, final double x, final double y, final double z )
+	{
+		this.coordinates[3*atomIndex]   = x;
+		this.coordinates[3*atomIndex+1] = y;
+		this.coordinates[3*atomIndex+2] = z;
+	}
+
+	void setCoordinate( final int atomIndex, final int axis, final double value )
+	{
+		this.coordinates[3*atomIndex+axis] = value;
+	}
+
+	/**
+	 * Return the dictionary code of the atom's element. Equal codes mean
+	 * equal element symbols; see getElementDictionary.
+	 */
+	public int getElementCode( final int atomIndex ) { return this.elementCodes[atomIndex]; }
+	public int getNameCode( final int atomIndex ) { return this.nameCodes[atomIndex]; }
+	public int getCompoundCode( final int atomIndex ) { return this.compoundCodes[atomIndex]; }
+
+	public String getElement( final int atomIndex ) { return this.elements[this.elementCodes[atomIndex]]; }
+	public String getName( final int atomIndex ) { return this.names[this.nameCodes[atomIndex]]; }
+	public String getCompound( final int atomIndex ) { return this.compounds[this.compoundCodes[atomIndex]]; }
+
+	/**
+	 * Return the distinct element symbols, indexed by code. This is the
+	 * internal array, do not modify it.
+	 */
+	public String[] getElementDictionary( ) { return this.elements; }
+	public String[] getNameDictionary( ) { return this.names; }
+	public String[] getCompoundDictionary( ) { return this.compounds; }
+
+	/**
+	 * Return the coordinate bounds, as AtomStats.getAtomCoordinateBounds.
+	 */
+	public double[][] getCoordinateBounds( )
+	{
+		final double bounds[][] = new double[2][3];
+		if ( this.atomCount <= 0 ) {
+			return bounds;
+		}
+
+		for ( int k=0; k<3; k++ )
+		{
+			bounds[0][k] = this.coordinates[k];
+			bounds[1][k] = this.coordinates[k];
+		}
+		for ( int i=3; i<this.coordinates.length; i+=3 )
+		{
+			for ( int k=0; k<3; k++ )
+			{
+				final double c = this.coordinates[i+k];
+				if ( c < bounds[0][k] ) {
+					bounds[0][k] = c;
+				} else if ( c > bounds[1][k] ) {
+					bounds[1][k] = c;
+				}
+			}
+		}
+		return bounds;
+	}
+
+	/**
+	 * Return the average of the coordinates.
+	 */
+	public double[] getCoordinateAverage( )
+	{
+		final double average[] = new double[3];
+		if ( this.atomCount <= 0 ) {
+			return average;
+		}
+
+		for ( int i=0; i<this.coordinates.length; i+=3 )
+		{
+			average[0] += this.coordinates[i];
+			average[1] += this.coordinates[i+1];
+			average[2] += this.coordinates[i+2];
+		}
+		average[0] /= this.atomCount;
+		average[1] /= this.atomCount;
+		average[2] /= this.atomCount;
+		return average;
+	}
+
+	/**
+	 * Maps each distinct String to a code and to one shared instance.
+	 */
+	private static class Dictionary
+	{
+		private final HashMap<String, Integer> codes = new HashMap<String, Integer>( );
+		private final ArrayList<String> values = new ArrayList<String>( );
+
+		int encode( final String value )
+		{
+			final String key = value == null ? "" : value;
+			Integer code = this.codes.get( key );
+			if ( code == null )
+			{
+				code = this.values.size( );
+				this.codes.put( key, code );
+				this.values.add( key );
+			}
+			return code;
+		}
+
+		String decode( final int code )
+		{
+			return this.values.get( code );
+		}
+
+		/**
+		 * Return the shared instance of the value (null stays null).
+		 */
+		String share( final String value )
+		{
+			return value == null ? null : this.decode( this.encode( value ) );
+		}
+
+		String[] toArray( )
+		{
+			return this.values.toArray( new String[this.values.size()] );
+		}
+	}
+}
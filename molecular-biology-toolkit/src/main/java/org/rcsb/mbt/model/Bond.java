@@ -47,7 +47,6 @@ package org.rcsb.mbt.model;
 
 
 import org.rcsb.mbt.model.StructureComponentRegistry.ComponentType;
-import org.rcsb.mbt.model.geometry.ArrayLinearAlgebra;
 
 
 /**
@@ -283,12 +282,12 @@ public class Bond
 			return 0.0f;
 		}
 
-		return ArrayLinearAlgebra.distance( this.atoms[0].coordinate, this.atoms[1].coordinate );
+		return this.atoms[0].distance( this.atoms[1] );
 	}
 
 	public static final double getDistance( final Atom atom0, final Atom atom1 )
 	{
-		return ArrayLinearAlgebra.distance( atom0.coordinate, atom1.coordinate );
+		return atom0.distance( atom1 );
 	}
 
 	/**
@@ -164,8 +164,8 @@ public abstract class Structure
 	 * {
 	 *    Atom atom = (Atom) structure.getStructureComponentByIndex(ComponentType.ATOM, i );
 	 *
-	 *    System.err.println( "coord = " + atom.coordinate[0] + ", " +
-     *      atom.coordinate[1] + ", " + atom.coordinate[2] );
+	 *    System.err.println( "coord = " + atom.getX() + ", " +
+     *      atom.getY() + ", " + atom.getZ() );
      *      System.err.println( "name = " + atom.name );
      *    System.err.println( "occupancy = " + atom.occupancy );
 	 * }
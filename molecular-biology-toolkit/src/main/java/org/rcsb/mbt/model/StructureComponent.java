@@ -81,6 +81,12 @@ public abstract class StructureComponent
 	 */
 	public Structure structure = null;
 
+	/**
+	 *  The position of this component in the StructureMap list of its type,
+	 *  or -1. Set by StructureMap so that its index lookups are O(1).
+	 */
+	int structureMapIndex = -1;
+
 	/**
 	 *  Set the Structure to which a StructureComponent instance belongs.
 	 */
@@ -229,7 +229,9 @@ public class StructureMap
 	protected Vector<Bond> bonds = null;      // All Bond objects added to this StructureMap.
 	protected TreeMap<String, Vector<Bond>> calculatedBonds = null;
 	protected Set<Bond> bondUniqueness = null;  // Make sure Bond objects are unique.
-	protected Hashtable<Atom, Vector<Bond>> atomToBonds = null;  // Find all Bonds connected to each Atom.
+	private volatile AtomBondTable atomBondTable = null;  // Find all Bonds connected to each Atom.
+	private int bondModCount = 0;  // Counts bond changes, guarded by this.
+	private AtomTable atomTable = null;  // Column store of the atoms.
 	protected Vector<Surface> surfaces = null; // All Surfaces for this Structure
 
 	protected UnitCell unitCell = null;
@@ -242,6 +244,12 @@ public class StructureMap
 	public Vector<Fragment> getFragments() { return fragments; }
 	public Vector<Residue> getResidues() { return residues; }
 	public Vector<Atom> getAtoms() { return atoms; }
+
+	/**
+	 * Return the column store of the atoms, row i being getAtom(i)
+	 * (null while the map is being built).
+	 */
+	public AtomTable getAtomTable() { return atomTable; }
 	public Vector<Residue> getLigands() { return ligands; }
 	public Vector<Surface> getSurfaces() { return surfaces; }
 
@@ -356,7 +364,6 @@ public class StructureMap
 			this.bonds = new Vector<Bond>( );
 		}
 		this.bondUniqueness = new HashSet<Bond>( ); // Ensure Bonds are unique.
-		this.atomToBonds = new Hashtable<Atom, Vector<Bond>>( );    // All Bonds connected to each Atom.
 
 		// All Chains in the Stucture.
 		this.chains = new Vector<Chain>( );
@@ -388,6 +395,10 @@ public class StructureMap
 		{
 			// Its useless data
 		}
+
+		if ( this.atomTable == null ) {
+			this.atomTable = new AtomTable( this.atoms );
+		}
 	}
 
 
@@ -495,6 +506,25 @@ public class StructureMap
 		residues.trimToSize();
 		ligands.trimToSize();
 		chains.trimToSize();
+
+		this.storeIndices( this.atoms );
+		this.storeIndices( this.residues );
+		this.storeIndices( this.chains );
+
+		// Building the column store also shares the atoms' String fields.
+		this.atomTable = new AtomTable( this.atoms );
+	}
+
+	/**
+	 * Record the position of each component in its list, so that the index
+	 * getters don't have to search for it.
+	 */
+	protected void storeIndices( final Vector<? extends StructureComponent> components )
+	{
+		final int count = components.size( );
+		for ( int i=0; i<count; i++ ) {
+			components.elementAt( i ).structureMapIndex = i;
+		}
 	}
 
 	/**
@@ -580,6 +610,7 @@ public class StructureMap
 			}
 		}
 		fragments.trimToSize();
+		this.storeIndices( this.fragments );
 	}
 
 
@@ -1035,6 +1066,9 @@ public class StructureMap
 			final String chainAndResidueId = chain_id + residue.getResidueId() + residue.getInsertionCode();
 			this.residueByChainKeyId.put( chainAndResidueId, residue );
 		}
+
+		this.storeIndices( this.residues );
+		this.storeIndices( this.chains );
 	}
 
 	/**
@@ -1192,6 +1226,12 @@ public class StructureMap
 			throw new IllegalArgumentException( "no atoms!" );
 		}
 
+		// Use the stored index unless the atom has moved since.
+		final int index = atom.structureMapIndex;
+		if ( index >= 0 && index < this.atoms.size() && this.atoms.elementAt( index ) == atom ) {
+			return index;
+		}
+
 		// Do a binary search of the atoms vector.
 		int low = 0;
 		int high = this.atoms.size() - 1;
@@ -1416,23 +1456,11 @@ public class StructureMap
 		if ( bondUniqueness.contains( bond ))
 			return;
 
-		// Keep track of the atom-to-bonds relationship.
-		for ( int a=0; a<=1; a++ )  // Examine both atoms of the bond
-		{
-			final Atom atom = bond.getAtom( a );
-			Vector<Bond> atomBonds = this.atomToBonds.get( atom );
-			if ( atomBonds == null )
-			{
-				atomBonds = new Vector<Bond>( );
-				this.atomToBonds.put( atom, atomBonds );
-			}
-			atomBonds.add( bond );
-		}
-
 		final int bondCount = this.bonds.size( );
 		if ( bondCount < 1 )
 		{
 			this.bonds.add( bond );
+			this.bondsChanged( );
 			return;
 		}
 
@@ -1472,6 +1500,7 @@ public class StructureMap
 		} else {
 			this.bonds.add( mid+1, bond );
 		}
+		this.bondsChanged( );
 	}
 
 	/**
@@ -1522,20 +1551,7 @@ public class StructureMap
 		// (note: the Bond has a custom hashCode method).
 		this.bondUniqueness.remove( bond );
 
-		// Keep track of the atom-to-bonds relationship.
-		for ( int a=0; a<=1; a++ )  // Examine both atoms of the bond
-		{
-			final Atom atom = bond.getAtom( a );
-			final Vector<Bond> atomBonds = atomToBonds.get( atom );
-			// Does the atom have any Bond objects connected to it?
-			if ( atomBonds != null )
-			{
-				atomBonds.remove( bond ); // Toss the relationship if it exists.
-				if ( atomBonds.size() <= 0 ) {
-					this.atomToBonds.remove( atom );
-				}
-			}
-		}
+		this.bondsChanged( );
 	}
 
 	/**
@@ -1547,19 +1563,189 @@ public class StructureMap
 		// Since we are taking a short cut below by blowing away the data directly,
 		// we will eventually have to generate events for Bond in "bonds" here...
 		this.bonds.clear( );
-		this.atomToBonds.clear( );
 		this.bondUniqueness.clear( );
+		this.bondsChanged( );
+	}
+
+	/**
+	 * Drops the atom-to-bond table after the bonds were changed; it is
+	 * rebuilt on demand. Called after each change, so a table that was being
+	 * built from the old bonds is never published.
+	 */
+	private synchronized void bondsChanged( )
+	{
+		this.bondModCount++;
+		this.atomBondTable = null;
 	}
 
 	/**
-	 *  Return a Vector of all Bond objects connected to the given Atom object.
-	 *  NOTE: The Vector returned here is the internal copy (for speed purposes),
-	 *  so DO NOT MODIFY THE VECTOR!
+	 *  Return a Vector of all Bond objects connected to the given Atom object,
+	 *  or null if there are none.
 	 *  <P>
 	 */
 	public Vector<Bond> getBonds( final Atom atom )
 	{
-		return atomToBonds.get( atom );
+		final AtomBondTable table = this.getAtomBondTable( );
+		final int atomIndex = this.findAtomIndex( atom );
+		if ( atomIndex < 0 || atomIndex >= table.offsets.length - 1 ) {
+			return null;
+		}
+
+		final int start = table.offsets[atomIndex];
+		final int end = table.offsets[atomIndex+1];
+		if ( start == end ) {
+			return null;
+		}
+
+		final Vector<Bond> atomBonds = new Vector<Bond>( end - start );
+		for ( int i=start; i<end; i++ ) {
+			atomBonds.add( table.bonds[table.bondIndices[i]] );
+		}
+		return atomBonds;
+	}
+
+	/**
+	 *  Return the number of Bond objects connected to the given Atom object.
+	 *  Together with getBond(Atom, int) this walks the bonds of an atom
+	 *  without allocating a Vector as getBonds(Atom) does.
+	 *  <P>
+	 */
+	public int getBondCount( final Atom atom )
+	{
+		final AtomBondTable table = this.getAtomBondTable( );
+		final int atomIndex = this.findAtomIndex( atom );
+		if ( atomIndex < 0 || atomIndex >= table.offsets.length - 1 ) {
+			return 0;
+		}
+		return table.offsets[atomIndex+1] - table.offsets[atomIndex];
+	}
+
+	/**
+	 *  Return the Bond with the given index, from 0 to getBondCount(atom)-1,
+	 *  among the bonds connected to the given Atom object.
+	 *  <P>
+	 *  @throws IndexOutOfBoundsException if the index is out of range.
+	 */
+	public Bond getBond( final Atom atom, final int index )
+	{
+		final AtomBondTable table = this.getAtomBondTable( );
+		final int atomIndex = this.findAtomIndex( atom );
+		if ( atomIndex < 0 || atomIndex >= table.offsets.length - 1 ) {
+			throw new IndexOutOfBoundsException( "atom has no bonds" );
+		}
+		final int start = table.offsets[atomIndex];
+		if ( index < 0 || index >= table.offsets[atomIndex+1] - start ) {
+			throw new IndexOutOfBoundsException( "bond index " + index );
+		}
+		return table.bonds[table.bondIndices[start + index]];
+	}
+
+	/**
+	 * Atom-to-bond adjacency in compressed rows: the bonds of the atom with
+	 * index i are bonds[bondIndices[j]] for offsets[i] <= j < offsets[i+1].
+	 * A table is never changed once built, so readers need no lock.
+	 */
+	private static class AtomBondTable
+	{
+		final Bond[] bonds;
+		final int[] offsets;
+		final int[] bondIndices;
+
+		AtomBondTable( final Bond[] bonds, final int[] offsets, final int[] bondIndices )
+		{
+			this.bonds = bonds;
+			this.offsets = offsets;
+			this.bondIndices = bondIndices;
+		}
+	}
+
+	/**
+	 * Return the atom-to-bond table, building it if bonds were added or
+	 * removed since it was last used.
+	 */
+	private AtomBondTable getAtomBondTable( )
+	{
+		final AtomBondTable table = this.atomBondTable;
+		if ( table != null ) {
+			return table;
+		}
+		return this.buildAtomBondTable( );
+	}
+
+	/**
+	 * Builds the table without holding the lock, so bonds can be changed
+	 * meanwhile. The table is only published if they weren't.
+	 */
+	private AtomBondTable buildAtomBondTable( )
+	{
+		final int modCount;
+		synchronized ( this )
+		{
+			if ( this.atomBondTable != null ) {
+				return this.atomBondTable;
+			}
+			modCount = this.bondModCount;
+		}
+
+		final Bond[] bondArray = this.bonds.toArray( new Bond[0] );
+		final int atomCount = this.getAtomCount( );
+
+		// Count the bonds of each atom, then lay them out by atom.
+		final int[] bondAtoms = new int[2 * bondArray.length];
+		final int[] offsets = new int[atomCount + 1];
+		for ( int b=0; b<bondArray.length; b++ )
+		{
+			for ( int a=0; a<=1; a++ )  // Examine both atoms of the bond
+			{
+				final int atomIndex = this.findAtomIndex( bondArray[b].getAtom( a ) );
+				bondAtoms[2*b+a] = atomIndex;
+				if ( atomIndex >= 0 ) {
+					offsets[atomIndex+1]++;
+				}
+			}
+		}
+		for ( int i=0; i<atomCount; i++ ) {
+			offsets[i+1] += offsets[i];
+		}
+
+		final int[] bondIndices = new int[offsets[atomCount]];
+		final int[] next = new int[atomCount];
+		System.arraycopy( offsets, 0, next, 0, atomCount );
+		for ( int b=0; b<bondArray.length; b++ )
+		{
+			for ( int a=0; a<=1; a++ )
+			{
+				final int atomIndex = bondAtoms[2*b+a];
+				if ( atomIndex >= 0 ) {
+					bondIndices[next[atomIndex]++] = b;
+				}
+			}
+		}
+
+		final AtomBondTable table = new AtomBondTable( bondArray, offsets, bondIndices );
+		synchronized ( this )
+		{
+			if ( this.bondModCount == modCount ) {
+				this.atomBondTable = table;
+			}
+		}
+		return table;
+	}
+
+	/**
+	 * Like getAtomIndex, but returns -1 instead of throwing if the atom is
+	 * not in this StructureMap.
+	 */
+	private int findAtomIndex( final Atom atom )
+	{
+		if ( atom == null || this.atoms == null ) {
+			return -1;
+		}
+		try {
+			return this.getAtomIndex( atom );
+		} catch ( final IllegalArgumentException e ) {
+			return -1;
+		}
 	}
 
 	/**
@@ -1568,29 +1754,25 @@ public class StructureMap
 	 */
 	public Vector<Bond> getBonds( final Vector<Atom> atomVector )
 	{
-		final Set<Bond> uniqueBonds = new HashSet<Bond>( );
+		final AtomBondTable table = this.getAtomBondTable( );
+		final BitSet uniqueBonds = new BitSet( table.bonds.length );
 
 		final int atomCount = atomVector.size( );
 		for ( int a=0; a<atomCount; a++ )
 		{
-			final Atom atom = atomVector.elementAt( a );
-			final Vector<Bond> aBonds = this.getBonds( atom );
-			if ( aBonds != null )
-			{
-				final int bondCount = aBonds.size( );
-				for ( int b=0; b<bondCount; b++ )
-				{
-					final Bond bond = aBonds.elementAt( b );
-					uniqueBonds.add( bond );
-				}
+			final int atomIndex = this.findAtomIndex( atomVector.elementAt( a ) );
+			if ( atomIndex < 0 || atomIndex >= table.offsets.length - 1 ) {
+				continue;
+			}
+			for ( int i=table.offsets[atomIndex]; i<table.offsets[atomIndex+1]; i++ ) {
+				uniqueBonds.set( table.bondIndices[i] );
 			}
 		}
 
-		final int uniqueBondCount = uniqueBonds.size();
-		final Vector<Bond> atomBonds = new Vector<Bond>( uniqueBondCount );
-
-		for (Bond uniqueBond : uniqueBonds)
-			atomBonds.add( uniqueBond );
+		final Vector<Bond> atomBonds = new Vector<Bond>( uniqueBonds.cardinality() );
+		for ( int b=uniqueBonds.nextSetBit( 0 ); b>=0; b=uniqueBonds.nextSetBit( b+1 ) ) {
+			atomBonds.add( table.bonds[b] );
+		}
 
 		return atomBonds;
 	}
@@ -1749,6 +1931,12 @@ public class StructureMap
 			throw new IllegalArgumentException( "no residues" );
 		}
 
+		// Use the stored index unless the residue has moved since.
+		final int index = residue.structureMapIndex;
+		if ( index >= 0 && index < this.residues.size() && this.residues.elementAt( index ) == residue ) {
+			return index;
+		}
+
 		// Do a binary search of the residues vector.
 		int low = 0;
 		int high = this.residues.size() - 1;
@@ -1860,6 +2048,12 @@ public class StructureMap
 			throw new IllegalArgumentException( "no fragments!" );
 		}
 
+		// Use the stored index unless the fragment has moved since.
+		final int index = fragment.structureMapIndex;
+		if ( index >= 0 && index < this.fragments.size() && this.fragments.elementAt( index ) == fragment ) {
+			return index;
+		}
+
 		final int fragmentCount = this.fragments.size( );
 		for ( int f=0; f<fragmentCount; f++ )
 		{
@@ -1902,9 +2096,16 @@ public class StructureMap
 	 */
 	public int getChainIndex( final Chain chain )
 	{
-		if ( this.chains == null ) {
+		if ( this.chains == null || chain == null ) {
 			return -1;
 		}
+
+		// Use the stored index unless the chain has moved since.
+		final int index = chain.structureMapIndex;
+		if ( index >= 0 && index < this.chains.size() && this.chains.elementAt( index ) == chain ) {
+			return index;
+		}
+
 		final int chainCount = this.chains.size( );
 
 		// Do a linear search of the chains vector.
@@ -2172,9 +2373,9 @@ public class StructureMap
 					System.err.println(
 							"      atom " + a + " = { " +
 							"element=" + atom.element + ", " +
-							"coordinate=[" + atom.coordinate[0] +
-							"," + atom.coordinate[1] +
-							"," + atom.coordinate[2] + "]" +
+							"coordinate=[" + atom.getX() +
+							"," + atom.getY() +
+							"," + atom.getZ() + "]" +
 							"}"
 					);
 				}
@@ -46,6 +46,7 @@
 package org.rcsb.mbt.model;
 
 import javax.vecmath.Color4f;
+import javax.vecmath.Matrix4f;
 import javax.vecmath.Vector3f;
 
 import org.rcsb.mbt.model.StructureComponentRegistry.ComponentType;
@@ -60,6 +61,7 @@ public class Surface extends StructureComponent {
 	private boolean dotSurface = false;
 	private Color4f[] colors;
 	private Vector3f alignment;
+	private Matrix4f transformation;
 
 	public Surface(final Chain chain, final Structure structure) {
 		super();
@@ -142,4 +144,18 @@ public class Surface extends StructureComponent {
 	public void setAlignment(Vector3f alignment) {
 		this.alignment = alignment;
 	}
+
+	/**
+	 * Returns the transformation that places the triangulated surface onto
+	 * the chain, or null if the surface was calculated for this chain. A
+	 * transformed surface shares its triangulated surface with the chain it
+	 * was calculated for, including the atom references of the vertices.
+	 */
+	public Matrix4f getTransformation() {
+		return transformation;
+	}
+
+	public void setTransformation(Matrix4f transformation) {
+		this.transformation = transformation;
+	}
 }
\ No newline at end of file
@@ -24,15 +24,6 @@
  * Zhang and P.E. Bourne 2005 The Molecular Biology Toolkit (MBT):
  * A Modular Platform for Developing Molecular Visualization
  * Applications. BMC Bioinformatics, 6:21.
- * 
- * The code for surface generation was contributed by Dong Xu
- * and Yang Zhang at the University of Michigan, Ann Arbor. This
- * class represents the Java version translated from the original C++
- * code (http://zhanglab.ccmb.med.umich.edu/EDTSurf).
- * 
- * Please reference D. Xu, Y. Zhang (2009) 
- * Generating Triangulated Macromolecular Surfaces by Euclidean 
- * Distance Transform. PLoS ONE 4(12): e8140.
  *
  * The MBT project was funded as part of the National Institutes
  * of Health PPG grant number 1-P01-GM63208 and its National
@@ -49,20 +40,24 @@
  * (NINDS), and the National Institute of Diabetes and Digestive
  * and Kidney Diseases (NIDDK).
  *
- * Created on 2011/11/08
- */
+ * Created on 2026/10/18
+ *
+ */ 
+package org.rcsb.mbt.model.attributes;
+
+import org.rcsb.mbt.model.StructureComponent;
 
-package org.rcsb.mbt.surface.datastructure;
 
 /**
- * @author Dong Xu (original C++ version)
- * @author Peter Rose (converted to Java)
+ *  Chooses the StructureComponent objects a bulk visibility or selection
+ *  change applies to.
+ *  <P>
+ *  @see	org.rcsb.mbt.model.attributes.StructureStyles
  */
-public class VolumePixel {
-	public int atomid;
-	public Object reference;
-	public float distance;
-	public boolean inout;
-	public boolean isbound;
-	public boolean isdone;	
+public interface IStructureComponentFilter
+{
+	/**
+	 * Return true if the change should be applied to the given component.
+	 */
+	public boolean accept( StructureComponent structureComponent );
 }
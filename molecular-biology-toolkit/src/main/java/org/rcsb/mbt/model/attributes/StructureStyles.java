@@ -48,9 +48,14 @@ package org.rcsb.mbt.model.attributes;
 // MBT
 // Core
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Hashtable;
+import java.util.List;
+import java.util.Vector;
 
 import javax.print.attribute.standard.MediaSize.NA;
 
@@ -144,10 +149,17 @@ public class StructureStyles
 
 	private static final int FLAG_ALL = 2;
 
-	// Holds visibility state (Boolean) for a structure component
+	// Holds visibility state (Boolean) for a structure component that has no
+	// stable StructureMap index (bonds, surfaces)
 	private final Hashtable<StructureComponent, Boolean> visibility =
 		new Hashtable<StructureComponent, Boolean>();
-				// should be a more efficient way of doing this...
+
+	// Visible atoms, residues, fragments and chains, one bit per StructureMap index
+	private final EnumMap<ComponentType, BitSet> visibleIndices =
+		new EnumMap<ComponentType, BitSet>(ComponentType.class);
+
+	// Number of bits set in visibleIndices
+	private int visibleIndexCount = 0;
 	
 	private int visibilityFlag = StructureStyles.FLAG_NONE;
 
@@ -194,6 +206,11 @@ public class StructureStyles
 		}
 		this.structureMap = structureMap;
 
+		this.visibleIndices.put(ComponentType.ATOM, new BitSet(structureMap.getAtomCount()));
+		this.visibleIndices.put(ComponentType.RESIDUE, new BitSet(structureMap.getResidueCount()));
+		this.visibleIndices.put(ComponentType.FRAGMENT, new BitSet(structureMap.getFragmentCount()));
+		this.visibleIndices.put(ComponentType.CHAIN, new BitSet(structureMap.getChainCount()));
+
 		// Create default styles (if available) for registered SC types.
 		String styleClassName = null;
 		for (ComponentType ctype : ComponentType.values())
@@ -238,7 +255,7 @@ public class StructureStyles
 				final Atom atom = residue.getAtom(a);
 				// Handle multiple atom occupancy
 				if (!atom.name.equals(lastAtomName)) {
-					this.setVisible(atom, true);
+					this.changeVisibility(atom, true);
 				}
 				lastAtomName = atom.name;
 			}
@@ -252,7 +269,7 @@ public class StructureStyles
 				for (Atom atom: r.getAtoms()) {
 					// Handle multiple atom occupancy
 					if (!atom.name.equals(lastAtomName)) {
-						this.setVisible(atom, true);
+						this.changeVisibility(atom, true);
 					}
 					lastAtomName = atom.name;
 				}
@@ -264,7 +281,7 @@ public class StructureStyles
 		for (int b = 0; b < bondCount; b++) {
 			final Bond bond = structureMap.getBond(b);
 			if (this.isVisible(bond.getAtom(0)) && this.isVisible(bond.getAtom(1))) {
-				this.setVisible(bond, true);
+				this.changeVisibility(bond, true);
 			}
 		}
 
@@ -281,12 +298,12 @@ public class StructureStyles
 				continue;
 			}
 
-			this.setVisible(chain, true);
+			this.changeVisibility(chain, true);
 		}
 		
 		// SURFACES, by default not visible
 		for (int i = 0; i < structureMap.getSurfaceCount(); i++) {
-			this.setVisible(structureMap.getSurface(i), false);
+			this.changeVisibility(structureMap.getSurface(i), false);
 		}
 	}
 
@@ -479,31 +496,8 @@ public class StructureStyles
 	 */
 	public void setVisible(final StructureComponent structureComponent,
 			boolean newState) {
-		if (structureComponent == null) {
-			throw new NullPointerException("null structureComponent");
-		}
-
-		boolean oldState = this.isVisible(structureComponent);
-
-		// Check special cases where no action needs to be taken.
-		if (newState && oldState) {
-			return; // Already visible
-		} else if (!newState && !oldState) {
-			return; // Already invisible
-		}
-
-		// Check standard cases.
-		if (newState) {
-			this.visibility.put(structureComponent, Boolean.TRUE);
-		} else {
-			this.visibility.remove(structureComponent);
-		}
-
-		// If necessary, set the special case flags.
-		if (this.visibility.size() <= 0) {
-			this.visibilityFlag = StructureStyles.FLAG_NONE;
-		} else {
-			this.visibilityFlag = StructureStyles.FLAG_SOME;
+		if (!this.changeVisibility(structureComponent, newState)) {
+			return; // Already in the requested state
 		}
 
 		// Fire the event
@@ -532,11 +526,198 @@ public class StructureStyles
 			return true;
 		} else if (this.visibilityFlag == StructureStyles.FLAG_NONE) {
 			return false;
-		} else if (this.visibility.get(structureComponent) != null) {
-			return true;
 		} else {
+			return this.isVisible(structureComponent, this.getIndex(structureComponent));
+		}
+	}
+
+	/**
+	 * Set the visibility state for each of the given structure components and
+	 * then fire a single event to all listeners. The event lists the
+	 * components whose state actually changed; no event is fired if none did.
+	 * <P>
+	 * 
+	 * @param structureComponents
+	 *            The components to show or hide.
+	 * @param newState
+	 *            The new visibility state.
+	 * @throws NullPointerException
+	 *             if a StructureComponent is null.
+	 */
+	public void setVisible(final Collection<? extends StructureComponent> structureComponents,
+			final boolean newState) {
+		final ArrayList<StructureComponent> changed = new ArrayList<StructureComponent>();
+		for (final StructureComponent structureComponent : structureComponents) {
+			if (this.changeVisibility(structureComponent, newState)) {
+				changed.add(structureComponent);
+			}
+		}
+
+		this.fireBulkEvent(changed, StructureStyles.ATTRIBUTE_VISIBILITY);
+	}
+
+	/**
+	 * Set the visibility state for every component of the given type accepted
+	 * by the filter and then fire a single event to all listeners.
+	 * <P>
+	 * 
+	 * @param scType
+	 *            The type of the components to show or hide.
+	 * @param filter
+	 *            Chooses the components, or null for all components of the type.
+	 * @param newState
+	 *            The new visibility state.
+	 */
+	public void setVisible(final ComponentType scType,
+			final IStructureComponentFilter filter, final boolean newState) {
+		this.setVisible(this.getComponents(scType, filter), newState);
+	}
+
+	/**
+	 * Set the visibility state for the given structure component without
+	 * firing an event.
+	 * 
+	 * @return true if the state changed.
+	 */
+	private boolean changeVisibility(final StructureComponent structureComponent,
+			final boolean newState) {
+		if (structureComponent == null) {
+			throw new NullPointerException("null structureComponent");
+		}
+
+		final int index = this.getIndex(structureComponent);
+		boolean oldState = false;
+		if (this.visibilityFlag == StructureStyles.FLAG_ALL) {
+			oldState = true;
+		} else if (this.visibilityFlag == StructureStyles.FLAG_SOME) {
+			oldState = this.isVisible(structureComponent, index);
+		}
+
+		// Check special cases where no action needs to be taken.
+		if (newState == oldState) {
 			return false;
 		}
+
+		// Everything is visible but nothing is recorded: record it all
+		// before hiding this one component.
+		if (this.visibilityFlag == StructureStyles.FLAG_ALL) {
+			this.recordAllVisible();
+		}
+
+		// Check standard cases.
+		if (index >= 0) {
+			this.visibleIndices.get(structureComponent.getStructureComponentType()).set(index, newState);
+			this.visibleIndexCount += newState ? 1 : -1;
+		} else if (newState) {
+			this.visibility.put(structureComponent, Boolean.TRUE);
+		} else {
+			this.visibility.remove(structureComponent);
+		}
+
+		// If necessary, set the special case flags.
+		if (this.visibility.size() + this.visibleIndexCount <= 0) {
+			this.visibilityFlag = StructureStyles.FLAG_NONE;
+		} else {
+			this.visibilityFlag = StructureStyles.FLAG_SOME;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Get the recorded visibility state of a component, given its index from
+	 * getIndex.
+	 */
+	private boolean isVisible(final StructureComponent structureComponent, final int index) {
+		if (index >= 0) {
+			return this.visibleIndices.get(structureComponent.getStructureComponentType()).get(index);
+		}
+		return this.visibility.get(structureComponent) != null;
+	}
+
+	/**
+	 * Replace the FLAG_ALL shortcut with an explicit visible state for every
+	 * component of the StructureMap.
+	 */
+	private void recordAllVisible() {
+		this.clearVisible();
+		for (final ComponentType scType : this.visibleIndices.keySet()) {
+			final int count = this.structureMap.getStructureComponentCount(scType);
+			this.visibleIndices.get(scType).set(0, count);
+			this.visibleIndexCount += count;
+		}
+		for (final Bond bond : this.structureMap.getBonds()) {
+			this.visibility.put(bond, Boolean.TRUE);
+		}
+		for (final Surface surface : this.structureMap.getSurfaces()) {
+			this.visibility.put(surface, Boolean.TRUE);
+		}
+	}
+
+	private void clearVisible() {
+		this.visibility.clear();
+		for (final BitSet bits : this.visibleIndices.values()) {
+			bits.clear();
+		}
+		this.visibleIndexCount = 0;
+	}
+
+	/**
+	 * Return the StructureMap index of an atom, residue, fragment or chain,
+	 * or -1 for other components and for components not in the StructureMap.
+	 */
+	private int getIndex(final StructureComponent structureComponent) {
+		try {
+			switch (structureComponent.getStructureComponentType()) {
+			case ATOM:
+				return this.structureMap.getAtomIndex((Atom) structureComponent);
+			case RESIDUE:
+				return this.structureMap.getResidueIndex((Residue) structureComponent);
+			case FRAGMENT:
+				return this.structureMap.getFragmentIndex((Fragment) structureComponent);
+			case CHAIN:
+				return this.structureMap.getChainIndex((Chain) structureComponent);
+			default:
+				return -1;
+			}
+		} catch (final IllegalArgumentException e) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Return the components of the given type accepted by the filter (all of
+	 * them if the filter is null).
+	 */
+	private List<StructureComponent> getComponents(final ComponentType scType,
+			final IStructureComponentFilter filter) {
+		final int count = this.structureMap.getStructureComponentCount(scType);
+		final ArrayList<StructureComponent> components = new ArrayList<StructureComponent>(count);
+		for (int i = 0; i < count; i++) {
+			final StructureComponent structureComponent = this.structureMap.getStructureComponentByIndex(scType, i);
+			if (filter == null || filter.accept(structureComponent)) {
+				components.add(structureComponent);
+			}
+		}
+		return components;
+	}
+
+	/**
+	 * Fire one event for a bulk visibility or selection change. Nothing is
+	 * fired if no component changed.
+	 */
+	private void fireBulkEvent(final List<StructureComponent> changed, final int attribute) {
+		if (changed.isEmpty()) {
+			return;
+		}
+
+		final StructureStylesEvent structureStylesEvent = new StructureStylesEvent();
+		structureStylesEvent.structureComponent = changed.get(changed.size() - 1);
+		structureStylesEvent.structureComponents = changed;
+		structureStylesEvent.style = null;
+		structureStylesEvent.attribute = attribute;
+		structureStylesEvent.property = null;
+		this.processStructureStylesEvent(structureStylesEvent);
 	}
 
 	/**
@@ -549,7 +730,7 @@ public class StructureStyles
 	 * @throws
 	 */
 	public void showAll() {
-		this.visibility.clear();
+		this.clearVisible();
 		this.visibilityFlag = StructureStyles.FLAG_ALL;
 
 		// Fire the event
@@ -608,7 +789,7 @@ public class StructureStyles
 	 * @throws
 	 */
 	public void hideAll() {
-		this.visibility.clear();
+		this.clearVisible();
 		this.visibilityFlag = StructureStyles.FLAG_NONE;
 
 		// Fire the event
@@ -630,7 +811,16 @@ public class StructureStyles
 	 * @throws
 	 */
 	public Enumeration<StructureComponent> getVisible() {
-		return this.visibility.keys();
+		final Vector<StructureComponent> visible = new Vector<StructureComponent>(
+				this.visibleIndexCount + this.visibility.size());
+		for (final ComponentType scType : this.visibleIndices.keySet()) {
+			final BitSet bits = this.visibleIndices.get(scType);
+			for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+				visible.add(this.structureMap.getStructureComponentByIndex(scType, i));
+			}
+		}
+		visible.addAll(this.visibility.keySet());
+		return visible.elements();
 	}
 
 	//
@@ -652,6 +842,74 @@ public class StructureStyles
 	 */
 	public void setSelected(final StructureComponent structureComponent,
 			final boolean newState) {
+		this.changeSelection(structureComponent, newState);
+
+		// Fire the event
+		final StructureStylesEvent structureStylesEvent = new StructureStylesEvent();
+		structureStylesEvent.structureComponent = structureComponent;
+		structureStylesEvent.style = (Style) this.styles.get(structureComponent);
+		structureStylesEvent.attribute = StructureStyles.ATTRIBUTE_SELECTION;
+		structureStylesEvent.property = null;
+		this.processStructureStylesEvent(structureStylesEvent);
+	}
+
+	/**
+	 * Set the selection state for each of the given structure components and
+	 * then fire a single event to all listeners. Components already in the
+	 * requested state are skipped; no event is fired if none changed.
+	 * <P>
+	 * 
+	 * @param structureComponents
+	 *            The components to select or deselect.
+	 * @param newState
+	 *            The new selection state.
+	 */
+	public void setSelected(final Collection<? extends StructureComponent> structureComponents,
+			final boolean newState) {
+		final ArrayList<StructureComponent> changed = new ArrayList<StructureComponent>();
+		for (final StructureComponent structureComponent : structureComponents) {
+			switch (structureComponent.getStructureComponentType()) {
+			case ATOM:
+			case BOND:
+			case RESIDUE:
+			case FRAGMENT:
+			case CHAIN:
+				if (this.isSelected(structureComponent) != newState) {
+					this.changeSelection(structureComponent, newState);
+					changed.add(structureComponent);
+				}
+				break;
+			default:
+				break; // not selectable
+			}
+		}
+
+		this.fireBulkEvent(changed, StructureStyles.ATTRIBUTE_SELECTION);
+	}
+
+	/**
+	 * Set the selection state for every component of the given type accepted
+	 * by the filter and then fire a single event to all listeners.
+	 * <P>
+	 * 
+	 * @param scType
+	 *            The type of the components to select or deselect.
+	 * @param filter
+	 *            Chooses the components, or null for all components of the type.
+	 * @param newState
+	 *            The new selection state.
+	 */
+	public void setSelected(final ComponentType scType,
+			final IStructureComponentFilter filter, final boolean newState) {
+		this.setSelected(this.getComponents(scType, filter), newState);
+	}
+
+	/**
+	 * Set the selection state for the given structure component without
+	 * firing an event.
+	 */
+	private void changeSelection(final StructureComponent structureComponent,
+			final boolean newState) {
 		if (structureComponent.getStructureComponentType() == ComponentType.ATOM) {
 			final Atom a = (Atom) structureComponent;
 			this.setSelected(a, newState, true);
@@ -674,14 +932,6 @@ public class StructureStyles
 					.setSelected(c, newState, null, null, false, false, true,
 							false);
 		}
-
-		// Fire the event
-		final StructureStylesEvent structureStylesEvent = new StructureStylesEvent();
-		structureStylesEvent.structureComponent = structureComponent;
-		structureStylesEvent.style = (Style) this.styles.get(structureComponent);
-		structureStylesEvent.attribute = StructureStyles.ATTRIBUTE_SELECTION;
-		structureStylesEvent.property = null;
-		this.processStructureStylesEvent(structureStylesEvent);
 	}
 
 	// the chain must have been complete, and the child must be being
@@ -46,6 +46,8 @@
 package org.rcsb.mbt.model.attributes;
 
 
+import java.util.List;
+
 import org.rcsb.mbt.model.*;
 import org.rcsb.mbt.model.attributes.Style.StyleProperty;
 
@@ -69,6 +71,13 @@ public class StructureStylesEvent
 	 */
 	public StructureComponent structureComponent;
 
+	/**
+	 *  All StructureComponent objects changed by a bulk visibility or
+	 *  selection change, in the order they were changed (null for an event
+	 *  about a single component). structureComponent is then the last of them.
+	 */
+	public List<StructureComponent> structureComponents;
+
 	/**
 	 *  The main attribute that was changed in the StructureStyles object
 	 *  (see StructureStyles for a list of valid states). For example:
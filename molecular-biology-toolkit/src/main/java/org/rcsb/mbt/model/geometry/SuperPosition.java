@@ -0,0 +1,209 @@
+/*
+ * BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence. This should
+ * be distributed with the code. If you do not have a copy,
+ * see:
+ *
+ * http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors. These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ * http://www.biojava.org/
+ *
+ * This code was contributed from the Molecular Biology Toolkit
+ * (MBT) project at the University of California San Diego.
+ *
+ * Please reference J.L. Moreland, A.Gramada, O.V. Buzko, Qing
+ * Zhang and P.E. Bourne 2005 The Molecular Biology Toolkit (MBT):
+ * A Modular Platform for Developing Molecular Visualization
+ * Applications. BMC Bioinformatics, 6:21.
+ *
+ * The MBT project was funded as part of the National Institutes
+ * of Health PPG grant number 1-P01-GM63208 and its National
+ * Institute of General Medical Sciences (NIGMS) division. Ongoing
+ * development for the MBT project is managed by the RCSB
+ * Protein Data Bank(http://www.pdb.org) and supported by funds
+ * from the National Science Foundation (NSF), the National
+ * Institute of General Medical Sciences (NIGMS), the Office of
+ * Science, Department of Energy (DOE), the National Library of
+ * Medicine (NLM), the National Cancer Institute (NCI), the
+ * National Center for Research Resources (NCRR), the National
+ * Institute of Biomedical Imaging and Bioengineering (NIBIB),
+ * the National Institute of Neurological Disorders and Stroke
+ * (NINDS), and the National Institute of Diabetes and Digestive
+ * and Kidney Diseases (NIDDK).
+ *
+ * Created on 2026/10/18
+ *
+ */ 
+package org.rcsb.mbt.model.geometry;
+
+import javax.vecmath.Matrix4d;
+import javax.vecmath.Point3d;
+import javax.vecmath.Quat4d;
+import javax.vecmath.Vector3d;
+
+/**
+ * Least-squares superposition of two equally sized point sets with the
+ * quaternion method of B.K.P. Horn (1987) Closed-form solution of absolute
+ * orientation using unit quaternions. J. Opt. Soc. Am. A 4:629-642.
+ */
+public final class SuperPosition
+{
+	/**
+	 * Don't let anyone instantiate this class.
+	 */
+	private SuperPosition() {}
+
+	/**
+	 * Returns the rigid transformation that moves the points x onto the
+	 * points y with minimal RMSD.
+	 * 
+	 * @param x - the points to be moved
+	 * @param y - the fixed points, in the same order as x
+	 * @return the rotation and translation as a 4x4 matrix
+	 */
+	public static Matrix4d superpose(final Point3d[] x, final Point3d[] y)
+	{
+		if (x.length != y.length || x.length == 0)
+			throw new IllegalArgumentException("SuperPosition: point sets differ in size or are empty");
+
+		final Point3d xc = centroid(x);
+		final Point3d yc = centroid(y);
+
+		// correlation matrix of the centered points
+		double sxx = 0, sxy = 0, sxz = 0, syx = 0, syy = 0, syz = 0, szx = 0, szy = 0, szz = 0;
+		for (int i = 0; i < x.length; i++)
+		{
+			final double ax = x[i].x - xc.x, ay = x[i].y - xc.y, az = x[i].z - xc.z;
+			final double bx = y[i].x - yc.x, by = y[i].y - yc.y, bz = y[i].z - yc.z;
+			sxx += ax * bx; sxy += ax * by; sxz += ax * bz;
+			syx += ay * bx; syy += ay * by; syz += ay * bz;
+			szx += az * bx; szy += az * by; szz += az * bz;
+		}
+
+		final double[][] n = {
+			{ sxx + syy + szz, syz - szy, szx - sxz, sxy - syx },
+			{ syz - szy, sxx - syy - szz, sxy + syx, szx + sxz },
+			{ szx - sxz, sxy + syx, -sxx + syy - szz, syz + szy },
+			{ sxy - syx, szx + sxz, syz + szy, -sxx - syy + szz } };
+
+		// the optimal rotation is the eigenvector of the largest eigenvalue
+		final double[][] v = new double[4][4];
+		final double[] d = new double[4];
+		jacobi(n, d, v);
+		int max = 0;
+		for (int i = 1; i < 4; i++)
+			if (d[i] > d[max])
+				max = i;
+
+		final Quat4d q = new Quat4d(v[1][max], v[2][max], v[3][max], v[0][max]);
+		q.normalize();
+
+		final Matrix4d transformation = new Matrix4d();
+		transformation.set(q, new Vector3d(), 1.0);
+		final Point3d rxc = new Point3d(xc);
+		transformation.transform(rxc);
+		transformation.setTranslation(new Vector3d(yc.x - rxc.x, yc.y - rxc.y, yc.z - rxc.z));
+		return transformation;
+	}
+
+	/**
+	 * Returns the root mean square deviation between the transformed points x
+	 * and the points y.
+	 */
+	public static double rmsd(final Point3d[] x, final Point3d[] y, final Matrix4d transformation)
+	{
+		if (x.length != y.length || x.length == 0)
+			throw new IllegalArgumentException("SuperPosition: point sets differ in size or are empty");
+
+		final Point3d p = new Point3d();
+		double sum = 0;
+		for (int i = 0; i < x.length; i++)
+		{
+			p.set(x[i]);
+			transformation.transform(p);
+			sum += p.distanceSquared(y[i]);
+		}
+		return Math.sqrt(sum / x.length);
+	}
+
+	private static Point3d centroid(final Point3d[] points)
+	{
+		final Point3d c = new Point3d();
+		for (Point3d p : points)
+			c.add(p);
+		c.scale(1.0 / points.length);
+		return c;
+	}
+
+	/**
+	 * Cyclic Jacobi eigenvalue decomposition of a small symmetric matrix.
+	 * The eigenvalues are returned in d, the eigenvectors in the columns of v.
+	 * The input matrix is destroyed.
+	 */
+	private static void jacobi(final double[][] a, final double[] d, final double[][] v)
+	{
+		final int n = d.length;
+		for (int i = 0; i < n; i++)
+		{
+			for (int j = 0; j < n; j++)
+				v[i][j] = i == j ? 1.0 : 0.0;
+			d[i] = a[i][i];
+		}
+
+		for (int sweep = 0; sweep < 50; sweep++)
+		{
+			double off = 0;
+			for (int p = 0; p < n - 1; p++)
+				for (int q = p + 1; q < n; q++)
+					off += Math.abs(a[p][q]);
+			if (off == 0.0)
+				return;
+
+			for (int p = 0; p < n - 1; p++)
+			{
+				for (int q = p + 1; q < n; q++)
+				{
+					if (a[p][q] == 0.0)
+						continue;
+
+					final double theta = (a[q][q] - a[p][p]) / (2.0 * a[p][q]);
+					double t = 1.0 / (Math.abs(theta) + Math.sqrt(theta * theta + 1.0));
+					if (theta < 0)
+						t = -t;
+					final double c = 1.0 / Math.sqrt(t * t + 1.0);
+					final double s = t * c;
+
+					for (int k = 0; k < n; k++)
+					{
+						final double akp = a[k][p], akq = a[k][q];
+						a[k][p] = c * akp - s * akq;
+						a[k][q] = s * akp + c * akq;
+					}
+					for (int k = 0; k < n; k++)
+					{
+						final double apk = a[p][k], aqk = a[q][k];
+						a[p][k] = c * apk - s * aqk;
+						a[q][k] = s * apk + c * aqk;
+					}
+					for (int k = 0; k < n; k++)
+					{
+						final double vkp = v[k][p], vkq = v[k][q];
+						v[k][p] = c * vkp - s * vkq;
+						v[k][q] = s * vkp + c * vkq;
+					}
+				}
+			}
+			for (int i = 0; i < n; i++)
+				d[i] = a[i][i];
+		}
+	}
+}
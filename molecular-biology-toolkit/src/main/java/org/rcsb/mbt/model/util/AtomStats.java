@@ -83,6 +83,11 @@ public class AtomStats
 		final int atomCount = structure.getStructureComponentCount(
 				ComponentType.ATOM );
 
+		final AtomTable atomTable = AtomStats.getAtomTable( structure, atomCount );
+		if ( atomTable != null ) {
+			return atomTable.getCoordinateBounds( );
+		}
+
 		final double coordinateBounds[][] = new double[2][3];
 		if ( atomCount <= 0 ) {
 			return coordinateBounds;
@@ -91,40 +96,40 @@ public class AtomStats
 		Atom atom = (Atom) structure.getStructureComponentByIndex(
 				ComponentType.ATOM, 0 );
 
-		coordinateBounds[0][0] = atom.coordinate[0];  // min x
-		coordinateBounds[0][1] = atom.coordinate[1];  // min y
-		coordinateBounds[0][2] = atom.coordinate[2];  // min z
-		coordinateBounds[1][0] = atom.coordinate[0];  // max x
-		coordinateBounds[1][1] = atom.coordinate[1];  // max y
-		coordinateBounds[1][2] = atom.coordinate[2];  // max z
+		coordinateBounds[0][0] = atom.getX();  // min x
+		coordinateBounds[0][1] = atom.getY();  // min y
+		coordinateBounds[0][2] = atom.getZ();  // min z
+		coordinateBounds[1][0] = atom.getX();  // max x
+		coordinateBounds[1][1] = atom.getY();  // max y
+		coordinateBounds[1][2] = atom.getZ();  // max z
 
 		for ( int i=1; i<atomCount; i++ )
 		{
 			atom = (Atom) structure.getStructureComponentByIndex(
 					ComponentType.ATOM, i );
 
-			if ( atom.coordinate[0] < coordinateBounds[0][0] ) {
-				coordinateBounds[0][0] = atom.coordinate[0];  // min x
+			if ( atom.getX() < coordinateBounds[0][0] ) {
+				coordinateBounds[0][0] = atom.getX();  // min x
 			}
 
-			if ( atom.coordinate[1] < coordinateBounds[0][1] ) {
-				coordinateBounds[0][1] = atom.coordinate[1];  // min y
+			if ( atom.getY() < coordinateBounds[0][1] ) {
+				coordinateBounds[0][1] = atom.getY();  // min y
 			}
 
-			if ( atom.coordinate[2] < coordinateBounds[0][2] ) {
-				coordinateBounds[0][2] = atom.coordinate[2];  // min z
+			if ( atom.getZ() < coordinateBounds[0][2] ) {
+				coordinateBounds[0][2] = atom.getZ();  // min z
 			}
 
-			if ( atom.coordinate[0] > coordinateBounds[1][0] ) {
-				coordinateBounds[1][0] = atom.coordinate[0];  // max x
+			if ( atom.getX() > coordinateBounds[1][0] ) {
+				coordinateBounds[1][0] = atom.getX();  // max x
 			}
 
-			if ( atom.coordinate[1] > coordinateBounds[1][1] ) {
-				coordinateBounds[1][1] = atom.coordinate[1];  // max y
+			if ( atom.getY() > coordinateBounds[1][1] ) {
+				coordinateBounds[1][1] = atom.getY();  // max y
 			}
 
-			if ( atom.coordinate[2] > coordinateBounds[1][2] ) {
-				coordinateBounds[1][2] = atom.coordinate[2];  // max z
+			if ( atom.getZ() > coordinateBounds[1][2] ) {
+				coordinateBounds[1][2] = atom.getZ();  // max z
 			}
 		}
 
@@ -179,6 +184,7 @@ public class AtomStats
 		coordinateBounds[1][1] = Double.MIN_VALUE;  // max y
 		coordinateBounds[1][2] = Double.MIN_VALUE;  // max z
 		double[] transformedCoordinate = new double[3];
+		double[] atomCoordinate = new double[3];
 
 		for ( int i = 0; i < atomCount; i++ )
 		{
@@ -188,7 +194,7 @@ public class AtomStats
 			ModelTransformationList list = map.get(atom.chain_id);
 			if (list != null) {
 				for (ModelTransformationMatrix m: list) {
-					m.transformPoint(atom.coordinate, transformedCoordinate);
+					m.transformPoint(atom.getCoordinate(atomCoordinate), transformedCoordinate);
 
 					if (transformedCoordinate[0] < coordinateBounds[0][0] ) {
 						coordinateBounds[0][0] = transformedCoordinate[0];  // min x
@@ -264,6 +270,11 @@ public class AtomStats
 		final int atomCount = structure.getStructureComponentCount(
 				ComponentType.ATOM );
 
+		final AtomTable atomTable = AtomStats.getAtomTable( structure, atomCount );
+		if ( atomTable != null ) {
+			return atomTable.getCoordinateAverage( );
+		}
+
 		final double coordinateAverage[] = new double[3];
 		if ( atomCount <= 0 ) {
 			return coordinateAverage;
@@ -277,9 +288,9 @@ public class AtomStats
 			atom = (Atom) structure.getStructureComponentByIndex(
 					ComponentType.ATOM, i );
 
-			coordinateAverage[0] += atom.coordinate[0];
-			coordinateAverage[1] += atom.coordinate[1];
-			coordinateAverage[2] += atom.coordinate[2];
+			coordinateAverage[0] += atom.getX();
+			coordinateAverage[1] += atom.getY();
+			coordinateAverage[2] += atom.getZ();
 		}
 
 		coordinateAverage[0] /= atomCount;
@@ -328,6 +339,7 @@ public class AtomStats
 
 		int count = 0;
 		double[] transformedCoordinate = new double[3];
+		double[] atomCoordinate = new double[3];
 
 		for (int i = 0; i < atomCount; i++)
 		{
@@ -337,7 +349,7 @@ public class AtomStats
 			ModelTransformationList list = map.get(atom.chain_id);
 			if (list != null) {
 				for (ModelTransformationMatrix m: list) {
-					m.transformPoint(atom.coordinate, transformedCoordinate);
+					m.transformPoint(atom.getCoordinate(atomCoordinate), transformedCoordinate);
 					centroid[0] += transformedCoordinate[0];
 					centroid[1] += transformedCoordinate[1];
 					centroid[2] += transformedCoordinate[2];
@@ -352,4 +364,18 @@ public class AtomStats
 
 		return centroid;
 	}
+
+	/**
+	 * Return the column store of the structure's atoms, or null if its
+	 * StructureMap doesn't have a complete one (yet).
+	 */
+	private static AtomTable getAtomTable( final Structure structure, final int atomCount )
+	{
+		final StructureMap structureMap = structure.getStructureMap( );
+		final AtomTable atomTable = structureMap == null ? null : structureMap.getAtomTable( );
+		if ( atomTable == null || atomTable.getAtomCount() != atomCount ) {
+			return null;
+		}
+		return atomTable;
+	}
 }
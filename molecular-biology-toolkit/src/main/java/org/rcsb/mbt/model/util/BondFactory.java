@@ -51,7 +51,6 @@ import java.util.*;
 
 import org.rcsb.mbt.model.*;
 import org.rcsb.mbt.model.StructureComponentRegistry.ComponentType;
-import org.rcsb.mbt.model.geometry.ArrayLinearAlgebra;
 
 
 /**
@@ -90,140 +89,54 @@ public class BondFactory
 	/**
 	 *  Return a vector of Bond objects extracted from a Structure
 	 *  using the specified covalentBondLimit distance.
-	 *  The algorithm uses fixed-size cells to "bucket" the atom neighbors.
+	 *  The algorithm uses a cell list to find all atom pairs within
+	 *  the bond limit.
 	 *  <P>
 	 */
 	public static Vector<Bond> generateBonds( final Structure structure, final float bondLimit)
 	{
-		final double coordinateBounds[][] =
-			AtomStats.getAtomCoordinateBounds( structure );
-
-		//
-		// Get the atom coordinate bounds.
-		//
-
-		final double minCoord[] = coordinateBounds[0];
-		final double maxCoord[] = coordinateBounds[1];
-
-		//
-		// Compute search cell grid dimensions
-		//
-
-		// Range of search space
-		final double gridRange[] = {
-			maxCoord[0] - minCoord[0],
-			maxCoord[1] - minCoord[1],
-			maxCoord[2] - minCoord[2]
-		};
-
-		// Cell grid size
-		// JLM DEBUG: A cell DIAGONAL distance should be bondLimit !?
-		final double cellSize[] = {
-			bondLimit * 0.5f,
-			bondLimit * 0.5f,
-			bondLimit * 0.5f
-		};
-
-		// Cell grid count
-		final int cellCount[] = {
-			(int) (gridRange[0] / cellSize[0]),
-			(int) (gridRange[1] / cellSize[1]),
-			(int) (gridRange[2] / cellSize[2])
-		};
-
-		//
-		// Build the bond search structures.
-		//
-
 		final int atomCount = structure.getStructureComponentCount(
 			ComponentType.ATOM );
 
-		final Hashtable<Integer,Integer> occupiedCells = new Hashtable<Integer,Integer>( atomCount );
-		final int cellCoord[] = new int[3];
-		int cellIndex = -1;
+		final Atom atoms[] = new Atom[atomCount];
+		float xyz[] = null;
 
-		for ( int i=0; i<atomCount; i++ )
+		// Stream the coordinates from the StructureMap's column store if it
+		// has one; otherwise gather them from the atoms.
+		final StructureMap structureMap = structure.getStructureMap( );
+		final AtomTable atomTable = structureMap == null ? null : structureMap.getAtomTable( );
+		if ( atomTable != null && atomTable.getAtomCount() == atomCount )
 		{
-			final Atom atom = (Atom) structure.getStructureComponentByIndex(
-				ComponentType.ATOM, i );
-
-			// Compute the 3D cell coordinate in which the atom lives
-			cellCoord[0] = (int)
-				((atom.coordinate[0] - minCoord[0]) / cellSize[0]);
-			cellCoord[1] = (int)
-				((atom.coordinate[1] - minCoord[1]) / cellSize[1]);
-			cellCoord[2] = (int)
-				((atom.coordinate[2] - minCoord[2]) / cellSize[2]);
-
-			// Map the 3D cell coordinate to a 1D cell index
-			cellIndex =
-				(cellCoord[0]*cellCount[1]+cellCoord[1]) * cellCount[2] + cellCoord[2];
-
-			// Store the atom index that lives at this 1D cell index
-			occupiedCells.put( new Integer( cellIndex ), new Integer( i ) );
+			structureMap.getAtoms().toArray( atoms );
+			xyz = atomTable.getFloatCoordinates( );
+		}
+		else
+		{
+			xyz = new float[3*atomCount];
+			for ( int i=0; i<atomCount; i++ )
+			{
+				atoms[i] = (Atom) structure.getStructureComponentByIndex(
+					ComponentType.ATOM, i );
+				xyz[3*i]   = (float) atoms[i].getX();
+				xyz[3*i+1] = (float) atoms[i].getY();
+				xyz[3*i+2] = (float) atoms[i].getZ();
+			}
 		}
 
-		//
-		// Extract the bonds.
-		//
-
+		final CellList cellList = new CellList( xyz, atomCount, bondLimit );
 		final Vector<Bond> bondList = new Vector<Bond>( );
 
-		for ( int i=0; i<atomCount; i++ )
+		// The cell list compares single precision coordinates, so search
+		// with a small margin and apply the bond limit in double precision.
+		cellList.forEachPair( bondLimit * 1.001f, new CellList.PairVisitor( )
 		{
-			final Atom atom = (Atom) structure.getStructureComponentByIndex(
-				ComponentType.ATOM, i );
-
-			// Compute the cell coordinate in which the atom lives
-			cellCoord[0] = (int)
-				((atom.coordinate[0] - minCoord[0]) / cellSize[0]);
-			cellCoord[1] = (int)
-				((atom.coordinate[1] - minCoord[1]) / cellSize[1]);
-			cellCoord[2] = (int)
-				((atom.coordinate[2] - minCoord[2]) / cellSize[2]);
-
-			// Check the 26 neighbors around this cell for an atom index.
-			for ( int x=-1; x<=1; x++ )
+			public void visit( final int i, final int i2 )
 			{
-				for ( int y=-1; y<=1; y++ )
-				{
-					for ( int z=-1; z<=1; z++ )
-					{
-						// Skip our own cell
-						if ( (x == 0) && (y == 0) && (z == 0) ) {
-							continue;
-						}
-
-						// Map the 3D cell coordinate to a 1D cell index
-						cellIndex =
-							((cellCoord[0]+x)*cellCount[1]+(cellCoord[1]+y)) * cellCount[2] + (cellCoord[2]+z);
-
-						// Try to fetch the neighbor
-						final Integer neighborAtom = occupiedCells.get( new Integer( cellIndex ) );
-
-						// Is there an occupied neighbor cell?
-						if ( neighborAtom != null )
-						{
-							final int i2 = neighborAtom.intValue( );
-							// Only add a bond between two atoms in
-							// one direction (ie: only add a bond once!)
-							if ( i < i2 )
-							{
-								final Atom atom2 = (Atom)
-									structure.getStructureComponentByIndex(
-									ComponentType.ATOM, i2 );
-								// Only add a bond if atoms are close enough
-								if ( BondFactory.distance( atom, atom2 ) <= bondLimit )
-								{
-									final Bond bond = new Bond( atom, atom2 );
-									bondList.add( bond );
-								}
-							}
-						}
-					}
+				if ( BondFactory.distance( atoms[i], atoms[i2] ) <= bondLimit ) {
+					bondList.add( new Bond( atoms[i], atoms[i2] ) );
 				}
 			}
-		}
+		} );
 
 		return bondList;
 	}
@@ -382,7 +295,7 @@ public class BondFactory
 						final Atom headAtom = nextResidue.getPolymerHeadAtom( );
 						if ( (tailAtom != null) && (headAtom != null) )
 						{
-							final double distance = ArrayLinearAlgebra.distance(tailAtom.coordinate, headAtom.coordinate);
+							final double distance = tailAtom.distance(headAtom);
 							if (distance < 5) { // ensure that the maximum bond
 								// length is less than 5
 								// angstroms. Handles cases when
@@ -515,7 +428,7 @@ public class BondFactory
 	 */
 	public static double distance( final Atom atomA, final Atom atomB )
 	{
-		return ArrayLinearAlgebra.distance(atomA.coordinate, atomB.coordinate );
+		return atomA.distance( atomB );
 	}
 }
 
@@ -0,0 +1,281 @@
+/*
+ * BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence. This should
+ * be distributed with the code. If you do not have a copy,
+ * see:
+ *
+ * http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors. These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ * http://www.biojava.org/
+ *
+ * This code was contributed from the Molecular Biology Toolkit
+ * (MBT) project at the University of California San Diego.
+ *
+ * Please reference J.L. Moreland, A.Gramada, O.V. Buzko, Qing
+ * Zhang and P.E. Bourne 2005 The Molecular Biology Toolkit (MBT):
+ * A Modular Platform for Developing Molecular Visualization
+ * Applications. BMC Bioinformatics, 6:21.
+ *
+ * The MBT project was funded as part of the National Institutes
+ * of Health PPG grant number 1-P01-GM63208 and its National
+ * Institute of General Medical Sciences (NIGMS) division. Ongoing
+ * development for the MBT project is managed by the RCSB
+ * Protein Data Bank(http://www.pdb.org) and supported by funds
+ * from the National Science Foundation (NSF), the National
+ * Institute of General Medical Sciences (NIGMS), the Office of
+ * Science, Department of Energy (DOE), the National Library of
+ * Medicine (NLM), the National Cancer Institute (NCI), the
+ * National Center for Research Resources (NCRR), the National
+ * Institute of Biomedical Imaging and Bioengineering (NIBIB),
+ * the National Institute of Neurological Disorders and Stroke
+ * (NINDS), and the National Institute of Diabetes and Digestive
+ * and Kidney Diseases (NIDDK).
+ *
+ * Created on 2026/10/18
+ *
+ */ 
+package org.rcsb.mbt.model.util;
+
+/**
+ * Uniform grid (cell list) over a set of points for fixed radius neighbor
+ * queries. The points are sorted by cell into primitive arrays, so queries do
+ * not allocate any objects. Distances are compared in single precision in
+ * the same way as {@link javax.vecmath.Point3f#distanceSquared}.
+ * <P>
+ * The cell size should be about the largest query radius. Queries with a
+ * larger radius are correct, but visit more cells.
+ */
+public class CellList
+{
+	/**
+	 * Receives the pairs of points found by {@link CellList#forEachPair}.
+	 */
+	public interface PairVisitor
+	{
+		/**
+		 * Called once for each pair of points closer than the cutoff.
+		 * 
+		 * @param i - the index of the first point
+		 * @param j - the index of the second point, always greater than i
+		 */
+		public void visit(int i, int j);
+	}
+
+	// upper limit for the number of cells, the cell size is increased if needed
+	private static final int MAX_CELLS = 1 << 21;
+
+	private final int count;
+	private float cellSize;
+	private float minX, minY, minZ;
+	private int nx, ny, nz;
+
+	// coordinates sorted by cell, x, y, z interleaved
+	private final float[] coordinates;
+	// original index of each sorted point
+	private final int[] index;
+	// the points of cell c are at positions cellStart[c] to cellStart[c+1]-1
+	private int[] cellStart;
+
+	/**
+	 * Creates a cell list.
+	 * 
+	 * @param xyz - x, y, z coordinates of the points, interleaved
+	 * @param count - the number of points
+	 * @param cellSize - the edge length of a cell
+	 */
+	public CellList(final float[] xyz, final int count, final float cellSize)
+	{
+		if (cellSize <= 0)
+			throw new IllegalArgumentException("CellList: cell size must be positive: " + cellSize);
+
+		this.count = count;
+		this.cellSize = cellSize;
+		this.coordinates = new float[3 * count];
+		this.index = new int[count];
+
+		initGrid(xyz);
+
+		// counting sort of the points by cell
+		final int[] cells = new int[count];
+		cellStart = new int[nx * ny * nz + 1];
+		for (int i = 0; i < count; i++)
+		{
+			cells[i] = cellIndex(xyz[3 * i], xyz[3 * i + 1], xyz[3 * i + 2]);
+			cellStart[cells[i] + 1]++;
+		}
+		for (int c = 0; c < cellStart.length - 1; c++)
+			cellStart[c + 1] += cellStart[c];
+
+		final int[] next = new int[cellStart.length - 1];
+		System.arraycopy(cellStart, 0, next, 0, next.length);
+		for (int i = 0; i < count; i++)
+		{
+			final int pos = next[cells[i]]++;
+			index[pos] = i;
+			coordinates[3 * pos] = xyz[3 * i];
+			coordinates[3 * pos + 1] = xyz[3 * i + 1];
+			coordinates[3 * pos + 2] = xyz[3 * i + 2];
+		}
+	}
+
+	private void initGrid(final float[] xyz)
+	{
+		if (count == 0)
+		{
+			nx = ny = nz = 1;
+			return;
+		}
+
+		float maxX, maxY, maxZ;
+		minX = maxX = xyz[0];
+		minY = maxY = xyz[1];
+		minZ = maxZ = xyz[2];
+		for (int i = 1; i < count; i++)
+		{
+			final float x = xyz[3 * i], y = xyz[3 * i + 1], z = xyz[3 * i + 2];
+			if (x < minX) minX = x; else if (x > maxX) maxX = x;
+			if (y < minY) minY = y; else if (y > maxY) maxY = y;
+			if (z < minZ) minZ = z; else if (z > maxZ) maxZ = z;
+		}
+
+		// sparse point sets over a large volume would need too many cells
+		while (true)
+		{
+			nx = (int) ((maxX - minX) / cellSize) + 1;
+			ny = (int) ((maxY - minY) / cellSize) + 1;
+			nz = (int) ((maxZ - minZ) / cellSize) + 1;
+			if ((long) nx * ny * nz <= Math.max(MAX_CELLS, count))
+				break;
+			cellSize *= 2;
+		}
+	}
+
+	private int cellIndex(final float x, final float y, final float z)
+	{
+		return (cell(x, minX, nx) * ny + cell(y, minY, ny)) * nz + cell(z, minZ, nz);
+	}
+
+	private int cell(final float v, final float min, final int n)
+	{
+		final int c = (int) Math.floor((v - min) / cellSize);
+		return c < 0 ? 0 : (c >= n ? n - 1 : c);
+	}
+
+	/**
+	 * Returns the number of points.
+	 */
+	public int size()
+	{
+		return count;
+	}
+
+	/**
+	 * Returns true if at least one point is closer than cutoff to the given
+	 * location.
+	 */
+	public boolean hasNeighbor(final float x, final float y, final float z, final float cutoff)
+	{
+		final float cutoffSq = cutoff * cutoff;
+		// pad the search range, so that rounding can't drop a cell
+		final float reach = cutoff * 1.001f;
+		final int i0 = cell(x - reach, minX, nx), i1 = cell(x + reach, minX, nx);
+		final int j0 = cell(y - reach, minY, ny), j1 = cell(y + reach, minY, ny);
+		final int k0 = cell(z - reach, minZ, nz), k1 = cell(z + reach, minZ, nz);
+
+		for (int i = i0; i <= i1; i++)
+			for (int j = j0; j <= j1; j++)
+			{
+				// cells along z are contiguous
+				final int row = (i * ny + j) * nz;
+				for (int p = cellStart[row + k0], end = cellStart[row + k1 + 1]; p < end; p++)
+				{
+					final float dx = x - coordinates[3 * p];
+					final float dy = y - coordinates[3 * p + 1];
+					final float dz = z - coordinates[3 * p + 2];
+					if (dx * dx + dy * dy + dz * dz < cutoffSq)
+						return true;
+				}
+			}
+		return false;
+	}
+
+	/**
+	 * Finds the points closer than cutoff to the given location.
+	 * 
+	 * @param result - receives the indices of the points, must hold all points found
+	 * @return the number of points found
+	 */
+	public int findNeighbors(final float x, final float y, final float z, final float cutoff, final int[] result)
+	{
+		final float cutoffSq = cutoff * cutoff;
+		final float reach = cutoff * 1.001f;
+		final int i0 = cell(x - reach, minX, nx), i1 = cell(x + reach, minX, nx);
+		final int j0 = cell(y - reach, minY, ny), j1 = cell(y + reach, minY, ny);
+		final int k0 = cell(z - reach, minZ, nz), k1 = cell(z + reach, minZ, nz);
+
+		int found = 0;
+		for (int i = i0; i <= i1; i++)
+			for (int j = j0; j <= j1; j++)
+			{
+				final int row = (i * ny + j) * nz;
+				for (int p = cellStart[row + k0], end = cellStart[row + k1 + 1]; p < end; p++)
+				{
+					final float dx = x - coordinates[3 * p];
+					final float dy = y - coordinates[3 * p + 1];
+					final float dz = z - coordinates[3 * p + 2];
+					if (dx * dx + dy * dy + dz * dz < cutoffSq)
+						result[found++] = index[p];
+				}
+			}
+		return found;
+	}
+
+	/**
+	 * Finds all pairs of points closer than cutoff to each other. Each pair is
+	 * reported once.
+	 */
+	public void forEachPair(final float cutoff, final PairVisitor visitor)
+	{
+		final float cutoffSq = cutoff * cutoff;
+		final float reach = cutoff * 1.001f;
+
+		for (int p = 0; p < count; p++)
+		{
+			final float x = coordinates[3 * p];
+			final float y = coordinates[3 * p + 1];
+			final float z = coordinates[3 * p + 2];
+			final int i0 = cell(x - reach, minX, nx), i1 = cell(x + reach, minX, nx);
+			final int j0 = cell(y - reach, minY, ny), j1 = cell(y + reach, minY, ny);
+			final int k0 = cell(z - reach, minZ, nz), k1 = cell(z + reach, minZ, nz);
+
+			for (int i = i0; i <= i1; i++)
+				for (int j = j0; j <= j1; j++)
+				{
+					final int row = (i * ny + j) * nz;
+					// only visit points sorted after p, so each pair is found once
+					for (int q = Math.max(p + 1, cellStart[row + k0]), end = cellStart[row + k1 + 1]; q < end; q++)
+					{
+						final float dx = x - coordinates[3 * q];
+						final float dy = y - coordinates[3 * q + 1];
+						final float dz = z - coordinates[3 * q + 2];
+						if (dx * dx + dy * dy + dz * dz < cutoffSq)
+						{
+							if (index[p] < index[q])
+								visitor.visit(index[p], index[q]);
+							else
+								visitor.visit(index[q], index[p]);
+						}
+					}
+				}
+		}
+	}
+}
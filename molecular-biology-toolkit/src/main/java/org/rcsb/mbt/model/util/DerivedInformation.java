@@ -211,9 +211,9 @@ public class DerivedInformation
 				// use a random atom as the backbone atom...
 				atom1 = r.getAtom(0);
 			}
-			caCoord[i][0] = atom1.coordinate[0];
-			caCoord[i][1] = atom1.coordinate[1];
-			caCoord[i][2] = atom1.coordinate[2];
+			caCoord[i][0] = atom1.getX();
+			caCoord[i][1] = atom1.getY();
+			caCoord[i][2] = atom1.getZ();
 		    treeData[i] = new OctreeAtomItem(atom1, i);
 			if (!atom1.chain_id.equals(previousChainId)) {
 				chainStarts.add(new Integer(resPointers[i]));
@@ -316,9 +316,9 @@ public class DerivedInformation
 //					time2 = System.currentTimeMillis();
 //					time += (time2 - time1);
 					if (atom1.name.equals("N")) {
-						nCoord1[0] = atom1.coordinate[0];
-						nCoord1[1] = atom1.coordinate[1];
-						nCoord1[2] = atom1.coordinate[2];
+						nCoord1[0] = atom1.getX();
+						nCoord1[1] = atom1.getY();
+						nCoord1[2] = atom1.getZ();
 						atIded++;
 					}
 				}
@@ -333,16 +333,16 @@ public class DerivedInformation
 //					time2 = System.currentTimeMillis();
 //					time += (time2 - time1);
 					if (atom1.name.equals("C") && (!cFound)) {
-						cCoord1[0] = atom1.coordinate[0];
-						cCoord1[1] = atom1.coordinate[1];
-						cCoord1[2] = atom1.coordinate[2];
+						cCoord1[0] = atom1.getX();
+						cCoord1[1] = atom1.getY();
+						cCoord1[2] = atom1.getZ();
 						atIded++;
 						cFound = true;
 					}
 					if (atom1.name.equals("O") && (!oFound)) {
-						oCoord1[0] = atom1.coordinate[0];
-						oCoord1[1] = atom1.coordinate[1];
-						oCoord1[2] = atom1.coordinate[2];
+						oCoord1[0] = atom1.getX();
+						oCoord1[1] = atom1.getY();
+						oCoord1[2] = atom1.getZ();
 						atIded++;
 						oFound = true;
 					}
@@ -373,16 +373,16 @@ public class DerivedInformation
 //						time2 = System.currentTimeMillis();
 //						time += (time2 - time1);
 						if (atom1.name.equals("C") && (!cFound)) {
-							cCoordM1[0] = atom1.coordinate[0];
-							cCoordM1[1] = atom1.coordinate[1];
-							cCoordM1[2] = atom1.coordinate[2];
+							cCoordM1[0] = atom1.getX();
+							cCoordM1[1] = atom1.getY();
+							cCoordM1[2] = atom1.getZ();
 							atIded++;
 							cFound = true;
 						}
 						if (atom1.name.equals("O") && (!oFound)) {
-							oCoordM1[0] = atom1.coordinate[0];
-							oCoordM1[1] = atom1.coordinate[1];
-							oCoordM1[2] = atom1.coordinate[2];
+							oCoordM1[0] = atom1.getX();
+							oCoordM1[1] = atom1.getY();
+							oCoordM1[2] = atom1.getZ();
 							atIded++;
 							oFound = true;
 						}
@@ -415,9 +415,9 @@ public class DerivedInformation
 //				time2 = System.currentTimeMillis();
 //				time += (time2 - time1);
 				if (atom1.name.equals("N")) {
-					nCoord2[0] = atom1.coordinate[0];
-					nCoord2[1] = atom1.coordinate[1];
-					nCoord2[2] = atom1.coordinate[2];
+					nCoord2[0] = atom1.getX();
+					nCoord2[1] = atom1.getY();
+					nCoord2[2] = atom1.getZ();
 					atIded++;
 				}
 			}
@@ -432,16 +432,16 @@ public class DerivedInformation
 //				time2 = System.currentTimeMillis();
 //				time += (time2 - time1);
 				if (atom1.name.equals("C") && (!cFound)) {
-					cCoord2[0] = atom1.coordinate[0];
-					cCoord2[1] = atom1.coordinate[1];
-					cCoord2[2] = atom1.coordinate[2];
+					cCoord2[0] = atom1.getX();
+					cCoord2[1] = atom1.getY();
+					cCoord2[2] = atom1.getZ();
 					atIded++;
 					cFound = true;
 				}
 				if (atom1.name.equals("O") && (!oFound)) {
-					oCoord2[0] = atom1.coordinate[0];
-					oCoord2[1] = atom1.coordinate[1];
-					oCoord2[2] = atom1.coordinate[2];
+					oCoord2[0] = atom1.getX();
+					oCoord2[1] = atom1.getY();
+					oCoord2[2] = atom1.getZ();
 					atIded++;
 					oFound = true;
 				}
@@ -466,16 +466,16 @@ public class DerivedInformation
 //				time2 = System.currentTimeMillis();
 //				time += (time2 - time1);
 				if (atom1.name.equals("C") && (!cFound)) {
-					cCoordM1[0] = atom1.coordinate[0];
-					cCoordM1[1] = atom1.coordinate[1];
-					cCoordM1[2] = atom1.coordinate[2];
+					cCoordM1[0] = atom1.getX();
+					cCoordM1[1] = atom1.getY();
+					cCoordM1[2] = atom1.getZ();
 					atIded++;
 					cFound = true;
 				}
 				if (atom1.name.equals("O")) {
-					oCoordM1[0] = atom1.coordinate[0];
-					oCoordM1[1] = atom1.coordinate[1];
-					oCoordM1[2] = atom1.coordinate[2];
+					oCoordM1[0] = atom1.getX();
+					oCoordM1[1] = atom1.getY();
+					oCoordM1[2] = atom1.getZ();
 					atIded++;
 					oFound = true;
 				}
@@ -1608,9 +1608,9 @@ public class DerivedInformation
 			if(caAtom == null) {	// if no ca atom, use a random atom...
 				caAtom = residue.getAtom(0);
 			}
-			coords1[0] = caAtom.coordinate[0];
-			coords1[1] = caAtom.coordinate[1];
-			coords1[2] = caAtom.coordinate[2];
+			coords1[0] = caAtom.getX();
+			coords1[1] = caAtom.getY();
+			coords1[2] = caAtom.getZ();
 			resCount = frag[1] - frag[0] + 1;
 			newStartIndex = fragIndex + 1;
 			for (int i = 1; i < resCount; i++) {
@@ -1619,9 +1619,9 @@ public class DerivedInformation
 				if(caAtom == null) {	// if no ca atom, use a random atom...
 					caAtom = residue.getAtom(0);
 				}
-				coords2[0] = caAtom.coordinate[0];
-				coords2[1] = caAtom.coordinate[1];
-				coords2[2] = caAtom.coordinate[2];
+				coords2[0] = caAtom.getX();
+				coords2[1] = caAtom.getY();
+				coords2[2] = caAtom.getZ();
 				if (this.dist(coords1, coords2) <= distCutOff) {
 					coords1[0] = coords2[0];
 					coords1[1] = coords2[1];
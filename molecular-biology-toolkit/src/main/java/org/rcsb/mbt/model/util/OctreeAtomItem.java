@@ -61,6 +61,7 @@ public class OctreeAtomItem
 {
 	private Atom atom = null;
 	private int index = -1;
+	private double[] coordinate = null;
 
 	/**
 	 *  Construct an OctreeAtomItem from an Atom object.
@@ -69,6 +70,7 @@ public class OctreeAtomItem
 	{
 		this.atom = atom;
 		this.index = index;
+		this.coordinate = atom.getCoordinate( );
 	}
 
 	/**
@@ -76,7 +78,7 @@ public class OctreeAtomItem
 	 */
 	public double[] getCoordinate( )
 	{
-		return this.atom.coordinate;
+		return this.coordinate;
 	}
 
 	/**
@@ -0,0 +1,186 @@
+/*
+ * BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence. This should
+ * be distributed with the code. If you do not have a copy,
+ * see:
+ *
+ * http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors. These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ * http://www.biojava.org/
+ *
+ * This code was contributed from the Molecular Biology Toolkit
+ * (MBT) project at the University of California San Diego.
+ *
+ * Please reference J.L. Moreland, A.Gramada, O.V. Buzko, Qing
+ * Zhang and P.E. Bourne 2005 The Molecular Biology Toolkit (MBT):
+ * A Modular Platform for Developing Molecular Visualization
+ * Applications. BMC Bioinformatics, 6:21.
+ *
+ * The MBT project was funded as part of the National Institutes
+ * of Health PPG grant number 1-P01-GM63208 and its National
+ * Institute of General Medical Sciences (NIGMS) division. Ongoing
+ * development for the MBT project is managed by the RCSB
+ * Protein Data Bank(http://www.pdb.org) and supported by funds
+ * from the National Science Foundation (NSF), the National
+ * Institute of General Medical Sciences (NIGMS), the Office of
+ * Science, Department of Energy (DOE), the National Library of
+ * Medicine (NLM), the National Cancer Institute (NCI), the
+ * National Center for Research Resources (NCRR), the National
+ * Institute of Biomedical Imaging and Bioengineering (NIBIB),
+ * the National Institute of Neurological Disorders and Stroke
+ * (NINDS), and the National Institute of Diabetes and Digestive
+ * and Kidney Diseases (NIDDK).
+ *
+ * Created on 2026/10/18
+ *
+ */ 
+package org.rcsb.mbt.structLoader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs the chunks of a large structure file through the parser on several
+ * threads, for PdbStructureLoader and XMLStructureLoader.
+ * <p>
+ * The loaders split the atom records of a file into chunks, parse each chunk
+ * on its own thread into a separate buffer, and merge the buffers on the
+ * calling thread in file order. The result is the same Structure as a
+ * parse on one thread.
+ * </p>
+ * <p>
+ * URL loads are always streamed through the serial parsers. Other loads are
+ * read into memory before they are split, so a gzipped file needs about as
+ * much heap as the uncompressed file.
+ * </p>
+ */
+public final class ChunkExecutor
+{
+	/**
+	 * The number of threads large files are parsed with. With 1, which is
+	 * the default, files are parsed on the calling thread.
+	 * This is normally set from the "parser_threads" property.
+	 */
+	public static int threadCount = 1;
+
+	// smaller chunks aren't worth a thread
+	static int minChunkBytes = 1 << 20;
+
+	private ChunkExecutor()
+	{
+	}
+
+	/**
+	 * @return the number of chunks to split the given number of bytes into,
+	 *         or 1 if they should be parsed on the calling thread.
+	 */
+	static int getChunkCount(final long bytes)
+	{
+		if (threadCount < 2)
+			return 1;
+		return (int)Math.max(1, Math.min(threadCount, bytes / minChunkBytes));
+	}
+
+	/**
+	 * Starts the tasks on a new pool of threads. The pool shuts down when
+	 * the tasks are done, or when they are cancelled.
+	 *
+	 * @return the futures of the tasks, in order.
+	 */
+	static <T> List<Future<T>> start(final List<Callable<T>> tasks)
+	{
+		final ExecutorService executor = Executors.newFixedThreadPool(Math.min(threadCount, tasks.size()));
+		final List<Future<T>> futures = new ArrayList<Future<T>>(tasks.size());
+		for (Callable<T> task : tasks)
+			futures.add(executor.submit(task));
+		executor.shutdown();
+		return futures;
+	}
+
+	/**
+	 * Waits for a task and returns its result. Exceptions of the task are
+	 * rethrown as they are, or as IOExceptions if they are checked.
+	 */
+	static <T> T get(final Future<T> future) throws IOException
+	{
+		try
+		{
+			return future.get();
+		}
+
+		catch (final InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while parsing");
+		}
+
+		catch (final ExecutionException e)
+		{
+			final Throwable cause = e.getCause();
+			if (cause instanceof IOException)
+				throw (IOException)cause;
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException)cause;
+			if (cause instanceof Error)
+				throw (Error)cause;
+			final IOException exception = new IOException("Error while parsing: " + cause);
+			exception.initCause(cause);
+			throw exception;
+		}
+	}
+
+	/**
+	 * Cancels the tasks that haven't finished, e.g. after an error or when
+	 * the rest of the file isn't needed.
+	 */
+	static <T> void cancel(final List<Future<T>> futures)
+	{
+		for (Future<T> future : futures)
+			future.cancel(true);
+	}
+
+	/**
+	 * Reads all remaining bytes of the stream into one array, without the
+	 * copies of a ByteArrayOutputStream.
+	 *
+	 * @param sizeHint - the expected number of bytes, or 0.
+	 * @return the bytes, from 0 to the limit of the buffer.
+	 */
+	static ByteBuffer readFully(final InputStream inputStream, final long sizeHint) throws IOException
+	{
+		byte[] bytes = new byte[(int)Math.min(Integer.MAX_VALUE - 8, Math.max(1 << 16, sizeHint + 1))];
+		int length = 0;
+		while (true)
+		{
+			if (length == bytes.length)
+			{
+				final byte[] newBytes = new byte[(int)Math.min(Integer.MAX_VALUE - 8, 2L * bytes.length)];
+				if (newBytes.length == length)
+					throw new IOException("File too large");
+				System.arraycopy(bytes, 0, newBytes, 0, length);
+				bytes = newBytes;
+			}
+			final int n = inputStream.read(bytes, length, bytes.length - length);
+			if (n < 0)
+				return ByteBuffer.wrap(bytes, 0, length);
+			length += n;
+		}
+	}
+}
@@ -0,0 +1,207 @@
+/*
+ * BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence. This should
+ * be distributed with the code. If you do not have a copy,
+ * see:
+ *
+ * http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors. These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ * http://www.biojava.org/
+ *
+ * This code was contributed from the Molecular Biology Toolkit
+ * (MBT) project at the University of California San Diego.
+ *
+ * Please reference J.L. Moreland, A.Gramada, O.V. Buzko, Qing
+ * Zhang and P.E. Bourne 2005 The Molecular Biology Toolkit (MBT):
+ * A Modular Platform for Developing Molecular Visualization
+ * Applications. BMC Bioinformatics, 6:21.
+ *
+ * The MBT project was funded as part of the National Institutes
+ * of Health PPG grant number 1-P01-GM63208 and its National
+ * Institute of General Medical Sciences (NIGMS) division. Ongoing
+ * development for the MBT project is managed by the RCSB
+ * Protein Data Bank(http://www.pdb.org) and supported by funds
+ * from the National Science Foundation (NSF), the National
+ * Institute of General Medical Sciences (NIGMS), the Office of
+ * Science, Department of Energy (DOE), the National Library of
+ * Medicine (NLM), the National Cancer Institute (NCI), the
+ * National Center for Research Resources (NCRR), the National
+ * Institute of Biomedical Imaging and Bioengineering (NIBIB),
+ * the National Institute of Neurological Disorders and Stroke
+ * (NINDS), and the National Institute of Diabetes and Digestive
+ * and Kidney Diseases (NIDDK).
+ *
+ * Created on 2026/10/18
+ *
+ */ 
+package org.rcsb.mbt.structLoader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads the lines of a PDB file from bytes into a reusable character buffer.
+ * <p>
+ * The bytes come either from a (memory-mapped) ByteBuffer or from an input
+ * stream, and are read in large chunks. Each byte is taken as one Latin-1
+ * character, which is all the PDB format uses. Lines end with "\n", "\r\n" or
+ * "\r", as for BufferedReader.readLine(). No String is created unless the
+ * caller asks for one with toString().
+ * </p>
+ */
+final class PdbLineReader
+{
+	private static final int CHUNK_SIZE = 1 << 16;
+
+	private final ByteBuffer buffer;
+	private final InputStream inputStream;
+	private final byte[] bytes;
+	private int position = 0;
+	private int limit = 0;
+	private long bytesRead = 0;
+	private boolean skipLineFeed = false;
+
+	private char[] line = new char[128];
+	private int length = 0;
+
+	/**
+	 * Reads the remaining bytes of the buffer.
+	 */
+	public PdbLineReader(final ByteBuffer buffer)
+	{
+		this.buffer = buffer;
+		this.inputStream = null;
+		this.bytes = new byte[Math.max(1, Math.min(CHUNK_SIZE, buffer.remaining()))];
+	}
+
+	/**
+	 * Reads the stream in chunks of bufferSize bytes.
+	 */
+	public PdbLineReader(final InputStream inputStream, final int bufferSize)
+	{
+		this.buffer = null;
+		this.inputStream = inputStream;
+		this.bytes = new byte[bufferSize];
+	}
+
+	/**
+	 * Reads the next line into the character buffer.
+	 *
+	 * @return false at the end of the input.
+	 */
+	public boolean readLine() throws IOException
+	{
+		length = 0;
+		boolean started = false;
+		while (true)
+		{
+			if (position == limit && !fill())
+				return started;
+
+			int i = position;
+			if (skipLineFeed)
+			{
+				// the "\n" of a "\r\n" line end
+				skipLineFeed = false;
+				if (bytes[i] == '\n')
+					i++;
+			}
+			if (i < limit)
+				started = true;
+
+			while (i < limit)
+			{
+				final int b = bytes[i++] & 0xff;
+				if (b == '\n' || b == '\r')
+				{
+					skipLineFeed = b == '\r';
+					bytesRead += i - position;
+					position = i;
+					return true;
+				}
+
+				if (length == line.length)
+				{
+					final char[] newLine = new char[2 * line.length];
+					System.arraycopy(line, 0, newLine, 0, length);
+					line = newLine;
+				}
+				line[length++] = (char)b;
+			}
+			bytesRead += i - position;
+			position = i;
+		}
+	}
+
+	private boolean fill() throws IOException
+	{
+		position = 0;
+		limit = 0;
+		if (buffer != null)
+		{
+			final int count = Math.min(bytes.length, buffer.remaining());
+			if (count == 0)
+				return false;
+			buffer.get(bytes, 0, count);
+			limit = count;
+			return true;
+		}
+
+		final int count = inputStream.read(bytes, 0, bytes.length);
+		if (count <= 0)
+			return false;
+		limit = count;
+		return true;
+	}
+
+	/**
+	 * @return the characters of the current line. Only the first
+	 *         getLength() characters belong to it.
+	 */
+	public char[] getChars()
+	{
+		return line;
+	}
+
+	public int getLength()
+	{
+		return length;
+	}
+
+	/**
+	 * @return the number of bytes read so far, including line terminators.
+	 */
+	public long getBytesRead()
+	{
+		return bytesRead;
+	}
+
+	public boolean startsWith(final String prefix)
+	{
+		if (prefix.length() > length)
+			return false;
+		for (int i = 0; i < prefix.length(); i++)
+			if (line[i] != prefix.charAt(i))
+				return false;
+		return true;
+	}
+
+	/**
+	 * @return the current line as a new String.
+	 */
+	@Override
+	public String toString()
+	{
+		return new String(line, 0, length);
+	}
+}
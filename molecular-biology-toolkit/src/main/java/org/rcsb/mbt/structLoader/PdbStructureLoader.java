@@ -51,6 +51,10 @@ import java.util.*;
 import java.io.*;
 import java.net.*;
 import java.util.zip.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
 
 import org.rcsb.mbt.model.StructureComponentRegistry.ComponentType;
 import org.rcsb.mbt.model.geometry.ModelTransformationList;
@@ -113,6 +117,31 @@ public class PdbStructureLoader
 	private Structure structure;
 	private boolean treatModelsAsSubunits = false;
 	private Map<Integer, String> entityNameMap = new HashMap<Integer, String>();
+
+	/**
+	 * When set, files and URLs are read as bytes by PdbLineReader (memory
+	 * mapped for local uncompressed files) and the ATOM/HETATM columns are
+	 * parsed without creating a String for each line or field. Otherwise
+	 * they are read line by line through a BufferedReader.
+	 * This is normally set from the "fast_pdb_parser" property.
+	 */
+	public static boolean useFastParser = true;
+
+	// buffer size for compressed and remote input in fast parser mode
+	private static final int STREAM_BUFFER_SIZE = 1 << 16;
+
+	// Parser state of the current load call.
+	private int lines = 0;
+	private int modelCount = 0; // How many models have we seen?
+	private int currentEntityId = 0;
+	private int percentDone = 0;
+	private Map<String, Integer> entityMap = null;
+	private Vector<StructureComponent> atomRecords = null;
+	private Hashtable<Integer, Atom> atomNumberHash = null;
+	private Vector<int[]> conectRecords = null;
+
+	// fixed column buffer of the fast parser
+	private final TextBuffer column = new TextBuffer();
 	
 	/**
 	 * Set this if the models are part of a greater whole.
@@ -237,6 +266,42 @@ public class PdbStructureLoader
 		}
 		
 		this.urlString = file.toURL().toExternalForm();
+		if ( PdbStructureLoader.useFastParser )
+		{
+			try
+			{
+				ByteBuffer bytes = null;
+				if ( this.urlString.endsWith( ".gz" ) )
+				{
+					final InputStream gzipInputStream =
+						new GZIPInputStream( fileInputStream, PdbStructureLoader.STREAM_BUFFER_SIZE );
+					if ( ChunkExecutor.threadCount < 2 )
+					{
+						this.expectedInputBytes *= 4;	// typical compression, as below
+						return this.load( new PdbLineReader( gzipInputStream, PdbStructureLoader.STREAM_BUFFER_SIZE ) );
+					}
+
+					// decompress the whole file, so it can be split into chunks
+					bytes = ChunkExecutor.readFully( gzipInputStream, 4 * this.expectedInputBytes );
+					this.expectedInputBytes = Math.max( 1, bytes.remaining( ) );
+				}
+				else
+				{
+					final FileChannel channel = fileInputStream.getChannel( );
+					bytes = channel.map( FileChannel.MapMode.READ_ONLY, 0, channel.size( ) );
+				}
+
+				if ( ChunkExecutor.getChunkCount( bytes.remaining( ) ) > 1 )
+					return this.loadChunks( bytes );
+				return this.load( new PdbLineReader( bytes ) );
+			}
+
+			finally
+			{
+				fileInputStream.close( );
+			}
+		}
+
 		InputStreamReader ir = null;
 		if ( this.urlString.endsWith( ".gz" ) )
 		{
@@ -297,6 +362,21 @@ public class PdbStructureLoader
 		if ( inputStream != null )
 			this.urlString = url.toExternalForm( );
 
+		if ( PdbStructureLoader.useFastParser )
+		{
+			try
+			{
+				final InputStream in = this.urlString.endsWith( ".gz" )?
+					new GZIPInputStream( inputStream, PdbStructureLoader.STREAM_BUFFER_SIZE ) : inputStream;
+				return this.load( new PdbLineReader( in, PdbStructureLoader.STREAM_BUFFER_SIZE ) );
+			}
+
+			finally
+			{
+				inputStream.close( );
+			}
+		}
+
 		if ( this.urlString.endsWith( ".gz" ) )
 		{
 			final GZIPInputStream gzipInputStream =
@@ -333,202 +413,538 @@ public class PdbStructureLoader
 			return null;
 		}
 
-		this.passComponents = new Hashtable<ComponentType, Vector<StructureComponent>>( );
-		final long expectedBytes = this.expectedInputBytes;
+		this.startLoad( );
 
 		String line;
+		long bytesRead = 0;
 
-		int percentDone = 0;
+		while ( (line = rdr.readLine()) != null )
+		{
+			bytesRead += line.length() + 1;
+			this.updateProgress( bytesRead );
 
-		Status.progress( percentDone, "Loading " + this.urlString );
+			this.lines++;
 
-		// Create a hash for atom numbers that we can use
-		// later if we need to process CONECT records.
-		// We'll free memory when we're done with it.
-		Hashtable<Integer, Atom> atomNumberHash = new Hashtable<Integer, Atom>( );
-		Vector<int[]> conectRecords = new Vector<int[]>( );
-		
-		int bytesRead = 0;
-		int lines = 0;
-		int modelCount = 0; // How many models have we seen?
-		int currentEntityId = 0;
-		Map<String, Integer> entityMap = new HashMap<String, Integer>();
+			boolean isHetAtom = line.startsWith("HETATM");
+			if (line.startsWith("ATOM") || isHetAtom)
+				this.addAtom( this.parseAtomRecord( line ), isHetAtom );
 
-		while ( (line = rdr.readLine()) != null )
+			else if ( !this.processRecord( line ) )
+				break;
+		}
+
+		return this.finishLoad( );
+	}
+
+	/**
+	 * Returns a reference to a Structure read by the fast parser.
+	 * ATOM and HETATM records are parsed from the line characters,
+	 * all other records are handed to processRecord() as Strings.
+	 */
+	protected Structure load( final PdbLineReader reader ) throws IOException
+	{
+		this.startLoad( );
+
+		while ( reader.readLine() )
 		{
+			this.updateProgress( reader.getBytesRead() );
 
-			bytesRead += line.length() + 1;
-			percentDone = (int)((bytesRead * 100L)/ expectedBytes);
-			Status.progress( percentDone, "Loading " + this.urlString );
+			this.lines++;
 
-			lines++;
-			
-			boolean isHetAtom = line.startsWith("HETATM");
+			boolean isHetAtom = reader.startsWith("HETATM");
+			if (reader.startsWith("ATOM") || isHetAtom)
+			{
+				final Atom atom = PdbStructureLoader.parseAtomRecord( this.column, reader.getChars(), reader.getLength() );
+				this.checkElement( atom );
+				this.addAtom( atom, isHetAtom );
+			}
 
-			// Parse the line buffer
-			if (line.startsWith("ATOM") || isHetAtom)
+			else if ( !this.processRecord( reader.toString() ) )
+				break;
+		}
+
+		return this.finishLoad( );
+	}
+
+	/**
+	 * Returns a reference to a Structure parsed in chunks on several threads.
+	 * The bytes are split at line starts. Each chunk is parsed into its own
+	 * buffer of atoms and the MODEL and COMPND records between them, and the
+	 * buffers are merged in file order by the same code as load(PdbLineReader),
+	 * so the result doesn't depend on the chunks.
+	 */
+	protected Structure loadChunks( final ByteBuffer bytes ) throws IOException
+	{
+		this.startLoad( );
+
+		final int start = bytes.position( );
+		int end = bytes.limit( );
+		if ( !this.shouldRecordMoreModels( 1 ) )
+		{
+			// Only the 1st model is loaded, don't parse the others.
+			final int secondModel = PdbStructureLoader.findModelRecord( bytes, start, end, 2 );
+			if ( secondModel >= 0 )
+				end = secondModel;
+		}
+
+		final int chunkCount = ChunkExecutor.getChunkCount( end - start );
+		final int[] bounds = new int[chunkCount + 1];
+		bounds[0] = start;
+		bounds[chunkCount] = end;
+		for ( int i = 1; i < chunkCount; i++ )
+			bounds[i] = PdbStructureLoader.findLineStart( bytes,
+				Math.max( bounds[i - 1], start + (int)((long)(end - start) * i / chunkCount) ), end );
+
+		final List<Callable<PdbChunk>> tasks = new ArrayList<Callable<PdbChunk>>( chunkCount );
+		for ( int i = 0; i < chunkCount; i++ )
+		{
+			final ByteBuffer chunkBytes = bytes.duplicate( );
+			chunkBytes.limit( bounds[i + 1] );
+			chunkBytes.position( bounds[i] );
+			tasks.add( new Callable<PdbChunk>()
 			{
-				// PDB File Atom Record offsets as documented by
-				// http://www.rcsb.org/pdb/docs/format/pdbguide2.2/part_62.html
-				// 1 -  6   RecordName
-				// 7 - 11   serial
-				// 12       -
-				// 13 - 16  name
-				// 17       altLoc
-				// 18 - 20  resName
-				// 21       -
-				// 22       chainID
-				// 23 - 26  resSeq
-				// 27       iCode
-				// 28 - 30  -
-				// 31 - 38  x
-				// 39 - 46  y
-				// 47 - 54  z
-				// 55 - 60  occupancy
-				// 61 - 66  tempFactor
-				// 67 - 72  -
-				// 73 - 76  segID
-				// 77 - 78  element
-				// 79 - 80  charge
-				// NOTE: In this application, we need to subtract 1 from
-				// each index in order to match the 0-based array offsets.
-				
-				// handle the case of a non-standard pdb file
-				// without COMPOUND information
-				if (entityNameMap.size() == 0) {
-					entityNameMap.put(currentEntityId,"");
+				public PdbChunk call( ) throws IOException
+				{
+					return PdbStructureLoader.parseChunk( chunkBytes );
 				}
+			} );
+		}
 
-				Atom atom = new Atom( );
-				String str = null;
+		final List<Future<PdbChunk>> futures = ChunkExecutor.start( tasks );
+		try
+		{
+			for ( int i = 0; i < chunkCount; i++ )
+			{
+				if ( !this.mergeChunk( ChunkExecutor.get( futures.get( i ) ) ) )
+					break;
+				this.updateProgress( bounds[i + 1] - start );
+			}
+		}
 
-				atom.number =  Integer.parseInt(line.substring( 6, 11 ).trim());
+		finally
+		{
+			ChunkExecutor.cancel( futures );
+		}
+
+		return this.finishLoad( );
+	}
+
+	/**
+	 * The records of a chunk, in file order: an Atom for each ATOM or
+	 * HETATM record and a String for each MODEL and COMPND record. The
+	 * other records don't change the atoms, and are only counted.
+	 */
+	private static class PdbChunk
+	{
+		final ArrayList<Object> records = new ArrayList<Object>( );
+		final BitSet hetAtoms = new BitSet( );
+		int lineCount = 0;
+
+		// the chunk ends at the first bad atom record, failedLine is its
+		// line number within the chunk
+		boolean missingElement = false;
+		RuntimeException failure = null;
+		int failedLine = 0;
+	}
 
-				atom.name = line.substring(12, 16 ).trim().replace('*', '\'');	//**JB quick fix: the dictionary expects ' instead of *
+	private static PdbChunk parseChunk( final ByteBuffer bytes ) throws IOException
+	{
+		final PdbChunk chunk = new PdbChunk( );
+		final TextBuffer column = new TextBuffer( );
+		final PdbLineReader reader = new PdbLineReader( bytes );
+		try
+		{
+			while ( reader.readLine() )
+			{
+				chunk.lineCount++;
 
-				atom.element = line.substring(76, 78).trim();
-				atom.element = atom.element.replaceAll( "[0-9]", "" );
-				if ( (atom.element == null) || atom.element.equals("") ||
-						(PeriodicTable.getElement( atom.element ) == null))
+				boolean isHetAtom = reader.startsWith("HETATM");
+				if (reader.startsWith("ATOM") || isHetAtom)
 				{
-					// The element field was not an element,
-					// so, try the first letter of the name.
-					atom.element = atom.name.substring( 0, 1 ).trim();
-					if ( PeriodicTable.getElement( atom.element ) == null ) {
-						throw new IllegalArgumentException( "no atom element symbol around line " + lines );
+					final Atom atom = PdbStructureLoader.parseAtomRecord( column, reader.getChars(), reader.getLength() );
+					if ( !PdbStructureLoader.resolveElement( atom ) )
+					{
+						chunk.missingElement = true;
+						chunk.failedLine = chunk.lineCount;
+						break;
 					}
+					if ( isHetAtom )
+						chunk.hetAtoms.set( chunk.records.size() );
+					chunk.records.add( atom );
 				}
 
-				atom.altLoc = line.substring(16, 17 ).trim();
+				else if (reader.startsWith("MODEL") || reader.startsWith("COMPND"))
+					chunk.records.add( reader.toString() );
+			}
+		}
 
-				atom.compound = line.substring(17, 20 ).trim();
+		catch ( final RuntimeException e )
+		{
+			chunk.failure = e;
+			chunk.failedLine = chunk.lineCount;
+		}
 
-				atom.chain_id = line.substring(21, 22 ).trim();
-				if (entityMap.size() > 0) {
-					atom.entity_id = entityMap.get(atom.chain_id);
-				} else {
-					atom.entity_id = 1;
-				}
+		return chunk;
+	}
 
-				if(treatModelsAsSubunits)
-				{
-					atom.chain_id = atom.chain_id + "$$$" + modelCount;
-				}
-				
-				atom.authorChain_id = atom.chain_id;
-				
-				// Split het atoms into separate chains so they can be displayed as ligands.
-				// Note, ligands and water are included in the protein chain that is closed to the ligand or water.
-				// However, for MBT these entities must be in a different chain for visualization purposes.
-				// For display purposes the original "authorChain_id" is used.
-				
-				if (isHetAtom) {
-					atom.chain_id += " ";
-				}
-				// Make sure waters don't have the same chain id as the macromolecules or ligands,
-				// since they are expected to be in a separate chain, i.e. for ProteinWorkshop
-				// Add a space to enforce uniqueness
-				if (atom.compound.equals("HOH")) {
-					atom.chain_id += " ";
-				}
-				
-				String temp = line.substring(22, 26).trim();
-				atom.residue_id = Integer.parseInt(temp);
-				atom.authorResidue_id = atom.residue_id;
-			
-				atom.insertionCode = line.substring(26, 27).trim();
-	
-				atom.coordinate = new double[3];
-				atom.coordinate[0] = Double.parseDouble(line.substring(30, 38 ).trim());
-				atom.coordinate[1] = Double.parseDouble(line.substring(38, 46 ).trim());
-				atom.coordinate[2] = Double.parseDouble(line.substring(46, 54 ).trim());
+	/**
+	 * Adds the records of a chunk as load(PdbLineReader) would have.
+	 *
+	 * @return false if no more records should be read.
+	 */
+	private boolean mergeChunk( final PdbChunk chunk )
+	{
+		for ( int i = 0; i < chunk.records.size(); i++ )
+		{
+			final Object record = chunk.records.get( i );
+			if ( record instanceof Atom )
+				this.addAtom( (Atom)record, chunk.hetAtoms.get( i ) );
+			else if ( !this.processRecord( (String)record ) )
+				return false;
+		}
 
-				str = line.substring(54, 60 ).trim();
-				atom.occupancy = ( str.length() == 0 )? 1.0f : Float.parseFloat( str );
+		// report the bad record's line like the unchunked parser does
+		final int firstLine = this.lines;
+		this.lines += chunk.lineCount;
+		if ( chunk.missingElement )
+			throw new IllegalArgumentException( "no atom element symbol around line " + (firstLine + chunk.failedLine) );
+		if ( chunk.failure != null )
+			throw chunk.failure;
+		return true;
+	}
 
-				str = line.substring(60, 66 ).trim();
-				atom.bfactor = ( str.length() == 0 )? 0.0f : Float.parseFloat( str );
+	/**
+	 * @return the offset of the n-th line that starts with "MODEL", or -1.
+	 */
+	private static int findModelRecord( final ByteBuffer bytes, final int start, final int end, int n )
+	{
+		for ( int i = start; i < end; i = PdbStructureLoader.findLineStart( bytes, i, end ) )
+		{
+			if ( i + 5 <= end && bytes.get( i ) == 'M' && bytes.get( i + 1 ) == 'O' &&
+					bytes.get( i + 2 ) == 'D' && bytes.get( i + 3 ) == 'E' && bytes.get( i + 4 ) == 'L' &&
+					--n == 0 )
+				return i;
+		}
+		return -1;
+	}
 
-				Vector<StructureComponent> records = this.passComponents.get(ComponentType.ATOM);
-				
-				if ( records == null )
-				{
-					records = new Vector<StructureComponent>( );
-					this.passComponents.put(
-							ComponentType.ATOM, records );
-				}
-				
-				records.add( atom );
+	/**
+	 * @return the offset after the next line end at or after the offset,
+	 *         or the end offset.
+	 */
+	private static int findLineStart( final ByteBuffer bytes, int offset, final int end )
+	{
+		while ( offset < end )
+		{
+			final byte b = bytes.get( offset++ );
+			if ( b == '\n' )
+				return offset;
+			if ( b == '\r' )
+				return (offset < end && bytes.get( offset ) == '\n')? offset + 1 : offset;
+		}
+		return end;
+	}
 
-				// Add atom to cache for conect record processing.
-				atomNumberHash.put( new Integer( atom.number ), atom );
+	private void startLoad( )
+	{
+		this.passComponents = new Hashtable<ComponentType, Vector<StructureComponent>>( );
 
-				continue;
-			}
+		this.percentDone = 0;
+		Status.progress( this.percentDone, "Loading " + this.urlString );
 
-			//
-			// MODEL record
-			//
-			else if (line.startsWith("MODEL"))
-			{
-				modelCount++; // How many models have we seen?
+		// Create a hash for atom numbers that we can use
+		// later if we need to process CONECT records.
+		// We'll free memory when we're done with it.
+		this.atomNumberHash = new Hashtable<Integer, Atom>( );
+		this.conectRecords = new Vector<int[]>( );
+
+		this.lines = 0;
+		this.modelCount = 0;
+		this.currentEntityId = 0;
+		this.entityMap = new HashMap<String, Integer>();
+		this.atomRecords = null;
+	}
 
-				if ( !this.shouldRecordMoreModels(modelCount) ) {
-					break; // Only load 1st model
-				}
+	/**
+	 * Reports progress only when the percentage changes,
+	 * instead of once per line.
+	 */
+	private void updateProgress( final long bytesRead )
+	{
+		final int percent = (int)((bytesRead * 100L) / this.expectedInputBytes);
+		if ( percent != this.percentDone )
+		{
+			this.percentDone = percent;
+			Status.progress( percent, "Loading " + this.urlString );
+		}
+	}
 
-				// Reset linePos to the start of the line buffer.
-				continue;
-				
-			} 
-			//
-			// Compound record
-			//
-			else if (line.startsWith("COMPND")) {
-				if (line.contains("MOL_ID:")) {
-                   String id = line.substring(18);
-                   id = id.replace(';', ' ');
-                   id = id.trim();
-                   currentEntityId = Integer.parseInt(id);
-				} else if (line.contains("CHAIN:")) {
-				   String chainId = line.substring(18);
-				   chainId = chainId.replaceAll(";", "");
-				   chainId = chainId.trim();
-				   String[] ids = chainId.split(",");
-				   for (String id: ids) {
-					   entityMap.put(id.trim(), currentEntityId);
-				   }
-				} else if (line.contains("MOLECULE:")) {
-					String entityName = line.substring(20).trim();
-					entityName = entityName.replaceAll(";","");
-					entityName = entityName.toLowerCase();
-					entityNameMap.put(currentEntityId, entityName);
-				}
-			}
+	// PDB File Atom Record offsets as documented by
+	// http://www.rcsb.org/pdb/docs/format/pdbguide2.2/part_62.html
+	// 1 -  6   RecordName
+	// 7 - 11   serial
+	// 12       -
+	// 13 - 16  name
+	// 17       altLoc
+	// 18 - 20  resName
+	// 21       -
+	// 22       chainID
+	// 23 - 26  resSeq
+	// 27       iCode
+	// 28 - 30  -
+	// 31 - 38  x
+	// 39 - 46  y
+	// 47 - 54  z
+	// 55 - 60  occupancy
+	// 61 - 66  tempFactor
+	// 67 - 72  -
+	// 73 - 76  segID
+	// 77 - 78  element
+	// 79 - 80  charge
+	// NOTE: In this application, we need to subtract 1 from
+	// each index in order to match the 0-based array offsets.
+
+	/**
+	 * Parses the columns of an ATOM or HETATM record.
+	 */
+	private Atom parseAtomRecord( final String line )
+	{
+		Atom atom = new Atom( );
+		String str = null;
+
+		atom.number =  Integer.parseInt(line.substring( 6, 11 ).trim());
+
+		atom.name = line.substring(12, 16 ).trim().replace('*', '\'');	//**JB quick fix: the dictionary expects ' instead of *
+
+		atom.element = line.substring(76, 78).trim();
+		atom.element = atom.element.replaceAll( "[0-9]", "" );
+		this.checkElement( atom );
+
+		atom.altLoc = line.substring(16, 17 ).trim();
+
+		atom.compound = line.substring(17, 20 ).trim();
 
-			if ( !this.shouldRecordMoreModels(modelCount) )
-				break; // Only load 1st model
+		atom.chain_id = line.substring(21, 22 ).trim();
+
+		String temp = line.substring(22, 26).trim();
+		atom.residue_id = Integer.parseInt(temp);
+
+		atom.insertionCode = line.substring(26, 27).trim();
+
+		atom.setCoordinate( 0, Double.parseDouble(line.substring(30, 38 ).trim()) );
+		atom.setCoordinate( 1, Double.parseDouble(line.substring(38, 46 ).trim()) );
+		atom.setCoordinate( 2, Double.parseDouble(line.substring(46, 54 ).trim()) );
+
+		str = line.substring(54, 60 ).trim();
+		atom.occupancy = ( str.length() == 0 )? 1.0f : Float.parseFloat( str );
+
+		str = line.substring(60, 66 ).trim();
+		atom.bfactor = ( str.length() == 0 )? 0.0f : Float.parseFloat( str );
+
+		return atom;
+	}
+
+	/**
+	 * Parses the columns of an ATOM or HETATM record from the line characters.
+	 * The result is the same as for parseAtomRecord(String), except that
+	 * columns missing from a short line are taken as blank, and that the
+	 * element isn't checked yet (see resolveElement()).
+	 *
+	 * @param column - the column buffer of the calling thread.
+	 */
+	private static Atom parseAtomRecord( final TextBuffer column, final char[] line, final int length )
+	{
+		Atom atom = new Atom( );
+
+		atom.number = PdbStructureLoader.column( column, line, length, 6, 11 ).parseInt();
+
+		atom.name = PdbStructureLoader.column( column, line, length, 12, 16 ).getSharedString().replace('*', '\'');
+
+		atom.element = PdbStructureLoader.column( column, line, length, 76, 78 ).getSharedString();
+		if ( PdbStructureLoader.containsDigit( atom.element ) )
+			atom.element = atom.element.replaceAll( "[0-9]", "" );
+
+		atom.altLoc = PdbStructureLoader.column( column, line, length, 16, 17 ).getSharedString();
+
+		atom.compound = PdbStructureLoader.column( column, line, length, 17, 20 ).getSharedString();
+
+		atom.chain_id = PdbStructureLoader.column( column, line, length, 21, 22 ).getSharedString();
+
+		atom.residue_id = PdbStructureLoader.column( column, line, length, 22, 26 ).parseInt();
+
+		atom.insertionCode = PdbStructureLoader.column( column, line, length, 26, 27 ).getSharedString();
+
+		atom.setCoordinate( 0, PdbStructureLoader.column( column, line, length, 30, 38 ).parseDouble() );
+		atom.setCoordinate( 1, PdbStructureLoader.column( column, line, length, 38, 46 ).parseDouble() );
+		atom.setCoordinate( 2, PdbStructureLoader.column( column, line, length, 46, 54 ).parseDouble() );
+
+		TextBuffer str = PdbStructureLoader.column( column, line, length, 54, 60 );
+		atom.occupancy = str.equalsTrimmed( "" )? 1.0f : str.parseFloat();
+
+		str = PdbStructureLoader.column( column, line, length, 60, 66 );
+		atom.bfactor = str.equalsTrimmed( "" )? 0.0f : str.parseFloat();
+
+		return atom;
+	}
+
+	/**
+	 * @return the column buffer holding the characters [start, end) of the line.
+	 */
+	private static TextBuffer column( final TextBuffer column, final char[] line, final int length,
+		final int start, final int end )
+	{
+		column.clear();
+		if ( start < length )
+			column.append( line, start, Math.min(end, length) - start );
+		return column;
+	}
+
+	private static boolean containsDigit( final String string )
+	{
+		for ( int i = 0; i < string.length(); i++ )
+			if ( Character.isDigit(string.charAt(i)) )
+				return true;
+		return false;
+	}
+
+	private void checkElement( final Atom atom )
+	{
+		if ( !PdbStructureLoader.resolveElement( atom ) ) {
+			throw new IllegalArgumentException( "no atom element symbol around line " + this.lines );
+		}
+	}
+
+	/**
+	 * @return false if the atom has neither an element symbol
+	 *         nor a name that starts with one.
+	 */
+	private static boolean resolveElement( final Atom atom )
+	{
+		if ( (atom.element == null) || atom.element.equals("") ||
+				(PeriodicTable.getElement( atom.element ) == null))
+		{
+			// The element field was not an element,
+			// so, try the first letter of the name.
+			atom.element = atom.name.substring( 0, 1 ).trim();
+			return PeriodicTable.getElement( atom.element ) != null;
+		}
+		return true;
+	}
+
+	/**
+	 * Assigns the entity and chain of a parsed atom and adds it to the atom records.
+	 */
+	private void addAtom( final Atom atom, final boolean isHetAtom )
+	{
+		// handle the case of a non-standard pdb file
+		// without COMPOUND information
+		if (entityNameMap.size() == 0) {
+			entityNameMap.put(currentEntityId,"");
+		}
+
+		if (entityMap.size() > 0) {
+			// chains missing from the COMPND records (waters and ligands
+			// without a chain id) keep the default entity id
+			final Integer entityId = entityMap.get(atom.chain_id);
+			if (entityId != null)
+				atom.entity_id = entityId;
+		} else {
+			atom.entity_id = 1;
+		}
+
+		if(treatModelsAsSubunits)
+		{
+			atom.chain_id = atom.chain_id + "$$$" + modelCount;
+		}
+		
+		atom.authorChain_id = atom.chain_id;
+		
+		// Split het atoms into separate chains so they can be displayed as ligands.
+		// Note, ligands and water are included in the protein chain that is closed to the ligand or water.
+		// However, for MBT these entities must be in a different chain for visualization purposes.
+		// For display purposes the original "authorChain_id" is used.
+		
+		if (isHetAtom) {
+			atom.chain_id += " ";
+		}
+		// Make sure waters don't have the same chain id as the macromolecules or ligands,
+		// since they are expected to be in a separate chain, i.e. for ProteinWorkshop
+		// Add a space to enforce uniqueness
+		if (atom.compound.equals("HOH")) {
+			atom.chain_id += " ";
+		}
+		
+		atom.authorResidue_id = atom.residue_id;
+
+		if ( this.atomRecords == null )
+		{
+			this.atomRecords = new Vector<StructureComponent>( );
+			this.passComponents.put(
+					ComponentType.ATOM, this.atomRecords );
+		}
+		
+		this.atomRecords.add( atom );
+
+		// Add atom to cache for conect record processing.
+		atomNumberHash.put( new Integer( atom.number ), atom );
+	}
+
+	/**
+	 * Processes a record other than ATOM or HETATM.
+	 *
+	 * @return false if no more records should be read.
+	 */
+	private boolean processRecord( final String line )
+	{
+		//
+		// MODEL record
+		//
+		if (line.startsWith("MODEL"))
+		{
+			modelCount++; // How many models have we seen?
+
+			return this.shouldRecordMoreModels(modelCount); // Only load 1st model
+		} 
+		//
+		// Compound record
+		//
+		else if (line.startsWith("COMPND")) {
+			if (line.contains("MOL_ID:")) {
+               String id = line.substring(18);
+               id = id.replace(';', ' ');
+               id = id.trim();
+               currentEntityId = Integer.parseInt(id);
+			} else if (line.contains("CHAIN:")) {
+			   String chainId = line.substring(18);
+			   chainId = chainId.replaceAll(";", "");
+			   chainId = chainId.trim();
+			   String[] ids = chainId.split(",");
+			   for (String id: ids) {
+				   entityMap.put(id.trim(), currentEntityId);
+			   }
+			} else if (line.contains("MOLECULE:")) {
+				String entityName = line.substring(20).trim();
+				entityName = entityName.replaceAll(";","");
+				entityName = entityName.toLowerCase();
+				entityNameMap.put(currentEntityId, entityName);
+			}
 		}
+
+		return this.shouldRecordMoreModels(modelCount); // Only load 1st model
+	}
+
+	/**
+	 * Creates the Structure from the records of the current load call.
+	 */
+	private Structure finishLoad( )
+	{
+		Hashtable<Integer, Atom> atomNumberHash = this.atomNumberHash;
+		Vector<int[]> conectRecords = this.conectRecords;
+		this.atomNumberHash = null;
+		this.conectRecords = null;
+		this.atomRecords = null;
+		this.entityMap = null;
+
 		//
 		// Post-process cached CONECT records to produce Bond objects.
 		//
@@ -44,6 +44,7 @@
  */
 package org.rcsb.mbt.structLoader;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -54,6 +55,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Stack;
 import java.util.Vector;
+import java.util.concurrent.Future;
 
 import javax.vecmath.Matrix3f;
 import javax.vecmath.Vector3f;
@@ -262,6 +264,46 @@ public class StructureXMLHandler extends DefaultHandler implements
 		return new Atom(src);
 	}
 
+	/**
+	 * Creates a handler for a part of the atom_site elements, which
+	 * XMLStructureLoader parses on another thread. Override this if the
+	 * subclass parses atoms differently.
+	 */
+	protected StructureXMLHandler createAtomSiteHandler(final String urlString) {
+		return new StructureXMLHandler(urlString);
+	}
+
+	// The handlers of the atom_site elements parsed on other threads, in
+	// file order. Their atoms are added at the end of the atom_siteCategory.
+	private List<Future<StructureXMLHandler>> atomSiteChunks = null;
+
+	void setAtomSiteChunks(final List<Future<StructureXMLHandler>> atomSiteChunks) {
+		this.atomSiteChunks = atomSiteChunks;
+	}
+
+	StructureXMLHandler createAtomSiteHandler() {
+		return createAtomSiteHandler(urlString);
+	}
+
+	/**
+	 * Adds the atoms of the atom_site chunks, and keeps the last model
+	 * number, as if the atom_site elements had been parsed here.
+	 */
+	private void addAtomSiteChunks() throws SAXException {
+		final List<Future<StructureXMLHandler>> chunks = atomSiteChunks;
+		atomSiteChunks = null;
+		try {
+			for (Future<StructureXMLHandler> future : chunks) {
+				final StructureXMLHandler chunk = ChunkExecutor.get(future);
+				atomVector.addAll(chunk.atomVector);
+				if (chunk.currentModelNumber != -1)
+					currentModelNumber = chunk.currentModelNumber;
+			}
+		} catch (final IOException e) {
+			throw new SAXException(e);
+		}
+	}
+
 	public StructureXMLHandler(final String urlString) {
 		this.urlString = urlString;
 
@@ -644,7 +686,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 			runnable.attrs = attrs;
 			runnable.run();
 		}
-		this.buf = emptyString;
+		this.buf.clear();
 	}
 
 	private int currentModelNumber = -1;
@@ -654,6 +696,9 @@ public class StructureXMLHandler extends DefaultHandler implements
 			final String qName // qualified name
 	) throws SAXException {
 
+		if (atomSiteChunks != null && qName.equals(xmlPrefix + "atom_siteCategory"))
+			addAtomSiteChunks();
+
 		try {
 			XMLRunnable runnable = null;
 			switch (getCurrentParsingFlag()) {
@@ -674,7 +719,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 									.equals("1"))
 							|| (initialBioId != null && currentModelTransform.id
 									.equals(initialBioId))) {
-						currentModelTransform.setFullSymmetryOperation(buf.trim());
+						currentModelTransform.setFullSymmetryOperation(buf.getTrimmedString());
 						bioUnitTransformationsStructBiolGens.add(currentModelTransform);
 						currentModelTransform = null;
 						clearParsingFlag(eIsParsing.STRUCT_BIOLGEN); 
@@ -693,20 +738,17 @@ public class StructureXMLHandler extends DefaultHandler implements
 
 			case CELL:
 				if (qName.endsWith("length_a"))
-					this.unitCell.lengthA = Double.parseDouble(this.buf.trim());
+					this.unitCell.lengthA = this.buf.parseDouble();
 				else if (qName.endsWith("length_b"))
-					this.unitCell.lengthB = Double.parseDouble(this.buf.trim());
+					this.unitCell.lengthB = this.buf.parseDouble();
 				else if (qName.endsWith("length_c"))
-					this.unitCell.lengthC = Double.parseDouble(this.buf.trim());
+					this.unitCell.lengthC = this.buf.parseDouble();
 				else if (qName.endsWith("angle_alpha"))
-					this.unitCell.angleAlpha = Double.parseDouble(this.buf
-							.trim());
+					this.unitCell.angleAlpha = this.buf.parseDouble();
 				else if (qName.endsWith("angle_beta"))
-					this.unitCell.angleBeta = Double.parseDouble(this.buf
-							.trim());
+					this.unitCell.angleBeta = this.buf.parseDouble();
 				else if (qName.endsWith("angle_gamma"))
-					this.unitCell.angleGamma = Double.parseDouble(this.buf
-							.trim());
+					this.unitCell.angleGamma = this.buf.parseDouble();
 				else if (qName.endsWith("cell"))
 					clearParsingFlag(eIsParsing.CELL);
 				break;
@@ -747,15 +789,14 @@ public class StructureXMLHandler extends DefaultHandler implements
 		}
 	}
 
-	protected String buf = null; // a running character buffer, for the use of
+	protected final TextBuffer buf = new TextBuffer(); // a running character buffer, for the use of
 									// startCDATA() and endCDATA().
 
 	@Override
 	public void characters(final char inbuf[], final int offset, final int len)
 			throws SAXException {
 		if (curAtom != null || !isParsing(eIsParsing.NONE)) {
-			final String tmpString = new String(inbuf, offset, len);
-			buf += tmpString;
+			buf.append(inbuf, offset, len);
 		}
 	}
 
@@ -962,7 +1003,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 
 	protected class XMLRunnable__code__End extends XMLRunnable {
 		public void run() {
-			final String trim = buf.trim();
+			final String trim = buf.getTrimmedString();
 
 			if (getCurrentParsingFlag() == eIsParsing.LEGACY_BIOLOGIC_UNIT_OPERATIONS) {
 				currentBUTransform.code = trim;
@@ -978,7 +1019,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 
 	protected class XMLRunnable__matrix11_End extends XMLRunnable {
 		public void run() {
-			currentRotationMatrix.m00 = Float.parseFloat(buf.trim());
+			currentRotationMatrix.m00 = buf.parseFloat();
 		}
 	}
 
@@ -988,7 +1029,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 
 	protected class XMLRunnable__matrix12_End extends XMLRunnable {
 		public void run() {
-			currentRotationMatrix.m01 = Float.parseFloat(buf.trim());
+			currentRotationMatrix.m01 = buf.parseFloat();
 		}
 	}
 
@@ -998,7 +1039,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 
 	protected class XMLRunnable__matrix13_End extends XMLRunnable {
 		public void run() {
-			currentRotationMatrix.m02 = Float.parseFloat(buf.trim());
+			currentRotationMatrix.m02 = buf.parseFloat();
 		}
 	}
 
@@ -1008,7 +1049,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 
 	protected class XMLRunnable__matrix21_End extends XMLRunnable {
 		public void run() {
-			currentRotationMatrix.m10 = Float.parseFloat(buf.trim());
+			currentRotationMatrix.m10 = buf.parseFloat();
 		}
 	}
 
@@ -1018,7 +1059,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 
 	protected class XMLRunnable__matrix22_End extends XMLRunnable {
 		public void run() {;
-			currentRotationMatrix.m11 = Float.parseFloat(buf.trim());
+			currentRotationMatrix.m11 = buf.parseFloat();
 		}
 	}
 
@@ -1028,7 +1069,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 
 	protected class XMLRunnable__matrix23_End extends XMLRunnable {
 		public void run() {
-			currentRotationMatrix.m12 = Float.parseFloat(buf.trim());
+			currentRotationMatrix.m12 = buf.parseFloat();
 		}
 	}
 
@@ -1038,7 +1079,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 
 	protected class XMLRunnable__matrix31_End extends XMLRunnable {
 		public void run() {
-			currentRotationMatrix.m20 = Float.parseFloat(buf.trim());
+			currentRotationMatrix.m20 = buf.parseFloat();
 		}
 	}
 
@@ -1048,7 +1089,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 
 	protected class XMLRunnable__matrix32_End extends XMLRunnable {
 		public void run() {
-			currentRotationMatrix.m21 = Float.parseFloat(buf.trim());
+			currentRotationMatrix.m21 = buf.parseFloat();
 		}
 	}
 
@@ -1058,7 +1099,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 
 	protected class XMLRunnable__matrix33_End extends XMLRunnable {
 		public void run() {
-			currentRotationMatrix.m22 = Float.parseFloat(buf.trim());
+			currentRotationMatrix.m22 = buf.parseFloat();
 		}
 	}
 
@@ -1068,7 +1109,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 
 	protected class XMLRunnable__vector1__End extends XMLRunnable {
 		public void run() {
-			currentTranslationVector.x = Float.parseFloat(buf.trim());
+			currentTranslationVector.x = buf.parseFloat();
 		}
 	}
 
@@ -1078,7 +1119,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 
 	protected class XMLRunnable__vector2__End extends XMLRunnable {
 		public void run() {
-			currentTranslationVector.y = Float.parseFloat(buf.trim());
+			currentTranslationVector.y = buf.parseFloat();
 		}
 	}
 
@@ -1088,7 +1129,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 
 	protected class XMLRunnable__vector3__End extends XMLRunnable {
 		public void run() {
-			currentTranslationVector.z = Float.parseFloat(buf.trim());
+			currentTranslationVector.z = buf.parseFloat();
 		}
 	}
 
@@ -1108,7 +1149,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 
 	protected class XMLRunnable__type_symbol__End extends XMLRunnable {
 		public void run() {
-			curAtom.element = buf.trim();
+			curAtom.element = buf.getSharedString();
 		}
 	}
 
@@ -1118,7 +1159,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 
 	protected class XMLRunnable__label_atom_id__End extends XMLRunnable {
 		public void run() {
-				curAtom.name = buf.trim();
+				curAtom.name = buf.getSharedString();
 		}
 	}
 
@@ -1128,7 +1169,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 
 	protected class XMLRunnable__label_comp_id__End extends XMLRunnable {
 		public void run() {
-				curAtom.compound = buf.trim();
+				curAtom.compound = buf.getSharedString();
 		}
 	}
 
@@ -1138,7 +1179,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 	
 	protected class XMLRunnable__label_entity_id__End extends XMLRunnable {
 		public void run() {
-				curAtom.entity_id = Integer.parseInt(buf.trim());
+				curAtom.entity_id = buf.parseInt();
 		}
 	}
 
@@ -1148,7 +1189,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 
 	protected class XMLRunnable__label_asym_id__End extends XMLRunnable {
 		public void run() {
-				curAtom.chain_id = buf.trim();
+				curAtom.chain_id = buf.getSharedString();
 		}
 	}
 
@@ -1158,7 +1199,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 
 	protected class XMLRunnable__auth_asym_id__End extends XMLRunnable {
 		public void run() {
-			    curAtom.authorChain_id = buf.trim();
+			    curAtom.authorChain_id = buf.getSharedString();
 		}
 	}
 
@@ -1169,7 +1210,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 	protected class XMLRunnable__label_seq_id__End extends XMLRunnable {
 		public void run() {
 			    try {
-			    	curAtom.residue_id =  Integer.parseInt(buf.trim());
+			    	curAtom.residue_id =  buf.parseInt();
 				} catch (Exception e) {
 					// mark this residue id as undefined.
 					curAtom.residue_id = Integer.MIN_VALUE;
@@ -1191,7 +1232,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 	protected class XMLRunnable__label_alt_id__End extends XMLRunnable {
 		public void run() {
 			    try {
-			    	curAtom.altLoc =  buf.trim();
+			    	curAtom.altLoc =  buf.getSharedString();
 				} catch (Exception e) {
 					curAtom.altLoc = "";
 				}     
@@ -1204,7 +1245,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 	
 	protected class XMLRunnable__auth_seq_id__End extends XMLRunnable {
 		public void run() {
-			    curAtom.authorResidue_id = Integer.parseInt(buf.trim());
+			    curAtom.authorResidue_id = buf.parseInt();
 		}
 	}
 
@@ -1214,7 +1255,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 
 	protected class XMLRunnable__pdbx_PDB_ins_code__End extends XMLRunnable {
 		public void run() {
-			String insertionCode = buf.trim();
+			String insertionCode = buf.getSharedString();
 			if (insertionCode.equals("?")) {
 				curAtom.insertionCode = "";
 			} else {
@@ -1229,7 +1270,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 	
 	protected class XMLRunnable__Cartn_x__End extends XMLRunnable {
 		public void run() {
-				curAtom.coordinate[0] = Double.parseDouble(buf.trim());
+				curAtom.setCoordinate(0, buf.parseDouble());
 		}
 	}
 
@@ -1239,7 +1280,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 
 	protected class XMLRunnable__Cartn_y__End extends XMLRunnable {
 		public void run() {
-				curAtom.coordinate[1] = Double.parseDouble(buf.trim());
+				curAtom.setCoordinate(1, buf.parseDouble());
 		}
 	}
 
@@ -1249,7 +1290,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 
 	protected class XMLRunnable__Cartn_z__End extends XMLRunnable {
 		public void run() {
-				curAtom.coordinate[2] = Double.parseDouble(buf.trim());
+				curAtom.setCoordinate(2, buf.parseDouble());
 		}
 	}
 
@@ -1259,7 +1300,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 
 	protected class XMLRunnable__occupancy__End extends XMLRunnable {
 		public void run() {
-				curAtom.occupancy = Float.parseFloat(buf.trim());
+				curAtom.occupancy = buf.parseFloat();
 		}
 	}
 
@@ -1269,7 +1310,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 
 	protected class XMLRunnable__B_iso_or_equiv__End extends XMLRunnable {
 		public void run() {
-				curAtom.bfactor = Float.parseFloat(buf.trim());
+				curAtom.bfactor = buf.parseFloat();
 		}
 	}
 
@@ -1295,8 +1336,9 @@ public class StructureXMLHandler extends DefaultHandler implements
 				return;
 			}
 
-			atomVector.add(createFinalAtom(curAtom));
-			assignMissingResidueIds();
+			final Atom atom = createFinalAtom(curAtom);
+			assignMissingResidueId(atom);
+			atomVector.add(atom);
 			prevAtom = curAtom;
 			curAtom = null;
 
@@ -1306,7 +1348,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 	
 	protected class XMLRunnable__pdbx_description__End extends XMLRunnable {
 		public void run() {
-			currentEntityName = buf.trim();
+			currentEntityName = buf.getTrimmedString();
 		}
 
 	}
@@ -1355,7 +1397,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 	protected class XMLRunnable__name_End extends XMLRunnable {
 		public void run() {
 			if (getCurrentParsingFlag() == eIsParsing.MOLECULE_FEATURES) {
-				currentName = buf.trim();
+				currentName = buf.getTrimmedString();
 				moleculeFeatures.setName(currentName);
 				clearParsingFlag(eIsParsing.MOLECULE_FEATURES);
 			}
@@ -1374,12 +1416,10 @@ public class StructureXMLHandler extends DefaultHandler implements
 	 * Heterogen residues (ligands, waters, etc.) don't have a label_seq_id.
 	 * Assign the auth_seq_id as a placeholder and assign it as a non-polymer atom.
 	 */
-	private void assignMissingResidueIds() {
-		for (Atom atom: atomVector) {
-			if (atom.residue_id == Integer.MIN_VALUE) {
-				atom.residue_id = atom.authorResidue_id;
-				atom.nonpolymer = true;
-			}
+	private void assignMissingResidueId(Atom atom) {
+		if (atom.residue_id == Integer.MIN_VALUE) {
+			atom.residue_id = atom.authorResidue_id;
+			atom.nonpolymer = true;
 		}
 	}
 
@@ -1389,7 +1429,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 
 	protected class XMLRunnable__pdbx_PDB_model_num__End extends XMLRunnable {
 		public void run() {
-			currentModelNumber = Integer.parseInt(buf.trim());
+			currentModelNumber = buf.parseInt();
 		}
 	}
 
@@ -1427,7 +1467,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 
 	protected class XMLRunnable__fract_transf_matrix11__End extends XMLRunnable {
 		public void run() {
-			fractionalTransformation.values[0] = Float.parseFloat(buf.trim());
+			fractionalTransformation.values[0] = buf.parseFloat();
 		}
 	}
 
@@ -1437,7 +1477,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 
 	protected class XMLRunnable__fract_transf_matrix12__End extends XMLRunnable {
 		public void run() {
-			fractionalTransformation.values[4] = Float.parseFloat(buf.trim());
+			fractionalTransformation.values[4] = buf.parseFloat();
 		}
 	}
 
@@ -1447,7 +1487,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 
 	protected class XMLRunnable__fract_transf_matrix13__End extends XMLRunnable {
 		public void run() {
-			fractionalTransformation.values[8] = Float.parseFloat(buf.trim());
+			fractionalTransformation.values[8] = buf.parseFloat();
 		}
 	}
 
@@ -1457,7 +1497,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 
 	protected class XMLRunnable__fract_transf_matrix21__End extends XMLRunnable {
 		public void run() {
-			fractionalTransformation.values[1] = Float.parseFloat(buf.trim());
+			fractionalTransformation.values[1] = buf.parseFloat();
 		}
 	}
 
@@ -1467,7 +1507,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 
 	protected class XMLRunnable__fract_transf_matrix22__End extends XMLRunnable {
 		public void run() {
-			fractionalTransformation.values[5] = Float.parseFloat(buf.trim());
+			fractionalTransformation.values[5] = buf.parseFloat();
 		}
 	}
 
@@ -1477,7 +1517,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 
 	protected class XMLRunnable__fract_transf_matrix23__End extends XMLRunnable {
 		public void run() {
-			fractionalTransformation.values[9] = Float.parseFloat(buf.trim());
+			fractionalTransformation.values[9] = buf.parseFloat();
 		}
 	}
 
@@ -1487,7 +1527,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 
 	protected class XMLRunnable__fract_transf_matrix31__End extends XMLRunnable {
 		public void run() {
-			fractionalTransformation.values[2] = Float.parseFloat(buf.trim());
+			fractionalTransformation.values[2] = buf.parseFloat();
 		}
 	}
 
@@ -1497,7 +1537,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 
 	protected class XMLRunnable__fract_transf_matrix32__End extends XMLRunnable {
 		public void run() {
-			fractionalTransformation.values[6] = Float.parseFloat(buf.trim());
+			fractionalTransformation.values[6] = buf.parseFloat();
 		}
 	}
 
@@ -1507,7 +1547,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 
 	protected class XMLRunnable__fract_transf_matrix33__End extends XMLRunnable {
 		public void run() {
-			fractionalTransformation.values[10] = Float.parseFloat(buf.trim());
+			fractionalTransformation.values[10] = buf.parseFloat();
 		}
 	}
 
@@ -1624,7 +1664,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 	
 	protected class XMLRunnable__conn_type_id__End extends XMLRunnable {
 		public void run() {
-            curConnType = buf.trim();
+            curConnType = buf.getTrimmedString();
 		}
 	}
 
@@ -1634,7 +1674,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 	
 	protected class XMLRunnable__ptnr1_auth_asym_id__End extends XMLRunnable {
 		public void run() {
-			curAsymId1 = buf.trim();
+			curAsymId1 = buf.getTrimmedString();
 		}
 	}
 
@@ -1644,7 +1684,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 	
 	protected class XMLRunnable__ptnr2_auth_asym_id__End extends XMLRunnable {
 		public void run() {
-			curAsymId2 = buf.trim();
+			curAsymId2 = buf.getTrimmedString();
 		}
 	}
 
@@ -1654,7 +1694,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 	
 	protected class XMLRunnable__ptnr1_auth_seq_id__End extends XMLRunnable {
 		public void run() {
-			curSeqId1 = Integer.parseInt(buf.trim());
+			curSeqId1 = buf.parseInt();
 		}
 	}
 
@@ -1664,7 +1704,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 	
 	protected class XMLRunnable__ptnr2_auth_seq_id__End extends XMLRunnable {
 		public void run() {
-			curSeqId2 = Integer.parseInt(buf.trim());
+			curSeqId2 = buf.parseInt();
 		}
 	}
 
@@ -1674,7 +1714,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 	
 	protected class XMLRunnable__ptnr1_label_atom_id__End extends XMLRunnable {
 		public void run() {
-			curAtomName1 = buf.trim();
+			curAtomName1 = buf.getTrimmedString();
 		}
 	}
 
@@ -1684,7 +1724,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 	
 	protected class XMLRunnable__ptnr2_label_atom_id__End extends XMLRunnable {
 		public void run() {
-			curAtomName2 = buf.trim();
+			curAtomName2 = buf.getTrimmedString();
 		}
 	}
 
@@ -1696,8 +1736,8 @@ public class StructureXMLHandler extends DefaultHandler implements
 	protected class XMLRunnable__pdbx_ptnr1_label_alt_id__End extends XMLRunnable {
 		public void run() {
 			// this field is missing in .xml files
-			if (! buf.trim().equals("?")) {
-				curAltId1 = buf.trim();
+			if (! buf.equalsTrimmed("?")) {
+				curAltId1 = buf.getTrimmedString();
 			}
 		}
 	}
@@ -1709,8 +1749,8 @@ public class StructureXMLHandler extends DefaultHandler implements
 	protected class XMLRunnable__pdbx_ptnr2_label_alt_id__End extends XMLRunnable {
 		public void run() {
 			// this field is missing in .xml files
-			if (! buf.trim().equals("?")) {
-		    	curAltId2 = buf.trim();
+			if (! buf.equalsTrimmed("?")) {
+		    	curAltId2 = buf.getTrimmedString();
 			}
 		}
 	}
@@ -1723,8 +1763,8 @@ public class StructureXMLHandler extends DefaultHandler implements
 	protected class XMLRunnable__pdbx_ptnr1_PDB_ins_code__End extends XMLRunnable {
 		public void run() {
 			// this field is missing in .xml files
-			if (! buf.trim().equals("?")) {
-			    curInsertionCode1 = buf.trim();
+			if (! buf.equalsTrimmed("?")) {
+			    curInsertionCode1 = buf.getTrimmedString();
 			}
 		}
 	}
@@ -1736,8 +1776,8 @@ public class StructureXMLHandler extends DefaultHandler implements
 	protected class XMLRunnable__pdbx_ptnr2_PDB_ins_code__End extends XMLRunnable {
 		public void run() {
 			// this field is missing in .xml files
-			if (! buf.trim().equals("?")) {
-			    curInsertionCode2 = buf.trim();
+			if (! buf.equalsTrimmed("?")) {
+			    curInsertionCode2 = buf.getTrimmedString();
 			}
 		}
 	}
@@ -1750,7 +1790,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 	
 	protected class XMLRunnable__ptnr1_label_comp_id__End extends XMLRunnable {
 		public void run() {
-			curCompId1 = buf.trim();
+			curCompId1 = buf.getTrimmedString();
 		}
 	}
 
@@ -1760,7 +1800,7 @@ public class StructureXMLHandler extends DefaultHandler implements
 	
 	protected class XMLRunnable__ptnr2_label_comp_id__End extends XMLRunnable {
 		public void run() {
-			curCompId2 = buf.trim();
+			curCompId2 = buf.getTrimmedString();
 		}
 	}
 
@@ -0,0 +1,299 @@
+/*
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence. This should
+ * be distributed with the code. If you do not have a copy,
+ * see:
+ *
+ * http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors. These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ * http://www.biojava.org/
+ *
+ * This code was contributed from the Molecular Biology Toolkit
+ * (MBT) project at the University of California San Diego.
+ *
+ * Please reference J.L. Moreland, A.Gramada, O.V. Buzko, Qing
+ * Zhang and P.E. Bourne 2005 The Molecular Biology Toolkit (MBT):
+ * A Modular Platform for Developing Molecular Visualization
+ * Applications. BMC Bioinformatics, 6:21.
+ *
+ * The MBT project was funded as part of the National Institutes
+ * of Health PPG grant number 1-P01-GM63208 and its National
+ * Institute of General Medical Sciences (NIGMS) division. Ongoing
+ * development for the MBT project is managed by the RCSB
+ * Protein Data Bank(http://www.pdb.org) and supported by funds
+ * from the National Science Foundation (NSF), the National
+ * Institute of General Medical Sciences (NIGMS), the Office of
+ * Science, Department of Energy (DOE), the National Library of
+ * Medicine (NLM), the National Cancer Institute (NCI), the
+ * National Center for Research Resources (NCRR), the National
+ * Institute of Biomedical Imaging and Bioengineering (NIBIB),
+ * the National Institute of Neurological Disorders and Stroke
+ * (NINDS), and the National Institute of Diabetes and Digestive
+ * and Kidney Diseases (NIDDK).
+ *
+ * Created on 2026/10/18
+ *
+ */
+package org.rcsb.mbt.structLoader;
+
+/**
+ * A reusable character buffer for the text content of XML elements.
+ * <p>
+ * SAX delivers element text in one or more calls to characters(). The text is
+ * appended here instead of being concatenated into new Strings, and numbers
+ * are parsed directly from the trimmed characters. Strings are only created
+ * for text fields, and short repeated values such as element symbols, atom
+ * names and compound codes are shared through a small cache. The fast
+ * PdbStructureLoader parser uses it the same way for the fixed columns of
+ * ATOM and HETATM records.
+ * </p>
+ * <p>
+ * The parse methods return exactly what Integer.parseInt(), Float.parseFloat()
+ * and Double.parseDouble() return for the trimmed text, and throw the same
+ * NumberFormatException for malformed text. Plain decimal numbers are parsed
+ * directly; everything else (exponents, very long mantissas, ...) falls back
+ * to the java.lang parsers.
+ * </p>
+ */
+public final class TextBuffer
+{
+	private static final int SHARED_CACHE_SIZE = 1024;
+	private static final int MAX_SHARED_LENGTH = 8;
+
+	private static final double[] DOUBLE_POWERS_OF_TEN = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+		1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+	private static final float[] FLOAT_POWERS_OF_TEN = {
+		1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+	};
+
+	// mantissas up to these limits are exact in double and float
+	private static final long MAX_DOUBLE_MANTISSA = 1L << 53;
+	private static final long MAX_FLOAT_MANTISSA = 1L << 24;
+
+	private char[] chars = new char[64];
+	private int length = 0;
+
+	private final String[] sharedStrings = new String[SHARED_CACHE_SIZE];
+
+	// trimmed range, computed once per element
+	private int trimStart = -1;
+	private int trimEnd;
+
+	/**
+	 * Discards the current text.
+	 */
+	public void clear()
+	{
+		length = 0;
+		trimStart = -1;
+	}
+
+	public void append(final char[] text, final int offset, final int len)
+	{
+		if (length + len > chars.length)
+		{
+			final char[] newChars = new char[Math.max(2 * chars.length, length + len)];
+			System.arraycopy(chars, 0, newChars, 0, length);
+			chars = newChars;
+		}
+		System.arraycopy(text, offset, chars, length, len);
+		length += len;
+		trimStart = -1;
+	}
+
+	public int length()
+	{
+		return length;
+	}
+
+	/**
+	 * Same as String.trim(): skips leading and trailing characters <= ' '.
+	 */
+	private void trim()
+	{
+		if (trimStart >= 0)
+			return;
+
+		int start = 0;
+		int end = length;
+		while (start < end && chars[start] <= ' ')
+			start++;
+		while (end > start && chars[end - 1] <= ' ')
+			end--;
+		trimStart = start;
+		trimEnd = end;
+	}
+
+	/**
+	 * @return the trimmed text as a new String.
+	 */
+	public String getTrimmedString()
+	{
+		trim();
+		return new String(chars, trimStart, trimEnd - trimStart);
+	}
+
+	/**
+	 * Returns the trimmed text. Short values are looked up in a cache first, so
+	 * repeated values are returned as the same String instance.
+	 */
+	public String getSharedString()
+	{
+		trim();
+		final int len = trimEnd - trimStart;
+		if (len > MAX_SHARED_LENGTH)
+			return new String(chars, trimStart, len);
+
+		int hash = 0;
+		for (int i = trimStart; i < trimEnd; i++)
+			hash = 31 * hash + chars[i];
+		final int slot = (hash ^ (hash >>> 16)) & (SHARED_CACHE_SIZE - 1);
+
+		final String shared = sharedStrings[slot];
+		if (shared != null && equalsRange(shared))
+			return shared;
+
+		final String string = new String(chars, trimStart, len);
+		sharedStrings[slot] = string;
+		return string;
+	}
+
+	/**
+	 * @return true if the trimmed text equals the string.
+	 */
+	public boolean equalsTrimmed(final String string)
+	{
+		trim();
+		return equalsRange(string);
+	}
+
+	private boolean equalsRange(final String string)
+	{
+		if (string.length() != trimEnd - trimStart)
+			return false;
+		for (int i = 0; i < string.length(); i++)
+			if (string.charAt(i) != chars[trimStart + i])
+				return false;
+		return true;
+	}
+
+	/**
+	 * @return the trimmed text parsed as by Integer.parseInt().
+	 * @throws NumberFormatException
+	 */
+	public int parseInt()
+	{
+		trim();
+		int i = trimStart;
+		boolean negative = false;
+		if (i < trimEnd && chars[i] == '-')
+		{
+			negative = true;
+			i++;
+		}
+
+		// nine digits always fit into an int
+		final int digits = trimEnd - i;
+		if (digits < 1 || digits > 9)
+			return Integer.parseInt(getTrimmedString());
+
+		int value = 0;
+		for (; i < trimEnd; i++)
+		{
+			final int digit = chars[i] - '0';
+			if (digit < 0 || digit > 9)
+				return Integer.parseInt(getTrimmedString());
+			value = 10 * value + digit;
+		}
+		return negative ? -value : value;
+	}
+
+	/**
+	 * @return the trimmed text parsed as by Double.parseDouble().
+	 * @throws NumberFormatException
+	 */
+	public double parseDouble()
+	{
+		trim();
+		final long mantissa = parseDecimal(MAX_DOUBLE_MANTISSA, DOUBLE_POWERS_OF_TEN.length - 1);
+		if (mantissa < 0)
+			return Double.parseDouble(getTrimmedString());
+
+		// both operands are exact, so the quotient is correctly rounded
+		final double value = mantissa / DOUBLE_POWERS_OF_TEN[fractionDigits];
+		return negativeDecimal ? -value : value;
+	}
+
+	/**
+	 * @return the trimmed text parsed as by Float.parseFloat().
+	 * @throws NumberFormatException
+	 */
+	public float parseFloat()
+	{
+		trim();
+		final long mantissa = parseDecimal(MAX_FLOAT_MANTISSA, FLOAT_POWERS_OF_TEN.length - 1);
+		if (mantissa < 0)
+			return Float.parseFloat(getTrimmedString());
+
+		final float value = mantissa / FLOAT_POWERS_OF_TEN[fractionDigits];
+		return negativeDecimal ? -value : value;
+	}
+
+	// results of parseDecimal() besides the mantissa
+	private boolean negativeDecimal;
+	private int fractionDigits;
+
+	/**
+	 * Parses [+-]digits[.digits] from the trimmed range into an integer
+	 * mantissa and the number of fraction digits.
+	 *
+	 * @return the mantissa, or -1 if the text isn't a plain decimal number
+	 *         within the given limits.
+	 */
+	private long parseDecimal(final long maxMantissa, final int maxFractionDigits)
+	{
+		int i = trimStart;
+		negativeDecimal = false;
+		if (i < trimEnd && (chars[i] == '-' || chars[i] == '+'))
+		{
+			negativeDecimal = chars[i] == '-';
+			i++;
+		}
+
+		long mantissa = 0;
+		int digits = 0;
+		int pointPosition = -1;
+		for (; i < trimEnd; i++)
+		{
+			final char c = chars[i];
+			if (c >= '0' && c <= '9')
+			{
+				mantissa = 10 * mantissa + (c - '0');
+				if (mantissa > maxMantissa)
+					return -1;
+				digits++;
+			}
+			else if (c == '.' && pointPosition < 0)
+				pointPosition = digits;
+			else
+				return -1;
+		}
+		if (digits == 0)
+			return -1;
+
+		fractionDigits = pointPosition < 0 ? 0 : digits - pointPosition;
+		if (fractionDigits > maxFractionDigits)
+			return -1;
+		return mantissa;
+	}
+}
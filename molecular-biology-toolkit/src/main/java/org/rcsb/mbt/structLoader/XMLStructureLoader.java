@@ -46,14 +46,21 @@
 package org.rcsb.mbt.structLoader;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
 import java.net.URL;
+import java.nio.ByteBuffer;
 import java.net.URLConnection;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
 import java.util.zip.GZIPInputStream;
 
 import javax.xml.parsers.ParserConfigurationException;
@@ -93,7 +100,9 @@ public class XMLStructureLoader implements IFileStructureLoader
 
 	public Structure load(File file) throws IOException
 	{
-		parseXMLFile(file.getName(), new FileInputStream(file));
+		// PDBML compresses at least tenfold
+		sizeHint = file.length() * (file.getName().endsWith(".gz") ? 10 : 1);
+		parseXMLFile(file.getName(), new FileInputStream(file), true);
 		return handler.getStructure();
 	}
 
@@ -102,13 +111,14 @@ public class XMLStructureLoader implements IFileStructureLoader
 		URLConnection urlConnection = url.openConnection();
         urlConnection.addRequestProperty("User-agent", "Mozilla/4.0 (compatible; MSIE 6.0;Windows NT 5.1; SV1)");
 		InputStream inputStream = urlConnection.getInputStream();
-		parseXMLFile(url.getFile(), inputStream);
+		// URLs are streamed, they aren't held in memory to be chunked
+		parseXMLFile(url.getFile(), inputStream, false);
 		return handler.getStructure();
 	}
 	
 	public Structure load(String dataset, InputStream is)
 	{
-		parseXMLFile(dataset, is);
+		parseXMLFile(dataset, is, true);
 		return handler.getStructure();
 	}
 
@@ -157,18 +167,32 @@ public class XMLStructureLoader implements IFileStructureLoader
 		handler = in_handler;
 	}
 	
-	private void parseXMLFile(String dataset, InputStream inputStream)
+	// expected size of the uncompressed file, if known
+	private long sizeHint = 0;
+
+	/**
+	 * @param chunked - if true and there are parser threads, the whole
+	 *        (uncompressed) document is read into memory first, so its atom
+	 *        sites can be parsed in chunks.
+	 */
+	private void parseXMLFile(String dataset, InputStream inputStream, boolean chunked)
 	{
 		try 
 		{
-			BufferedReader reader;
 			if (dataset.endsWith(".gz"))
-				reader = new BufferedReader(
-						    new InputStreamReader(
-								new GZIPInputStream(inputStream)));
-			
-			else
-				reader = new BufferedReader(
+				inputStream = new GZIPInputStream(inputStream);
+
+			if (chunked && ChunkExecutor.threadCount > 1)
+			{
+				// read the whole file, so the atom sites can be split into chunks
+				final ByteBuffer bytes = ChunkExecutor.readFully(inputStream, sizeHint);
+				sizeHint = 0;
+				if (parseChunks(bytes.array(), bytes.limit()))
+					return;
+				inputStream = new ByteArrayInputStream(bytes.array(), 0, bytes.limit());
+			}
+
+			BufferedReader reader = new BufferedReader(
 						new InputStreamReader(inputStream));
 
 
@@ -193,6 +217,130 @@ public class XMLStructureLoader implements IFileStructureLoader
 		}
 	}
 
+	private static final String ATOM_SITE_CATEGORY = "PDBx:atom_siteCategory";
+	private static final String ATOM_SITE = "<PDBx:atom_site";
+
+	/**
+	 * Parses the atom_site elements in chunks on several threads, each with
+	 * its own handler, while the handler of this loader parses the rest of
+	 * the document. The handler picks up the atoms of the chunks, in order,
+	 * at the end of the atom_siteCategory.
+	 * 
+	 * @return false if the file is too small to be split, or has no atom sites.
+	 */
+	private boolean parseChunks(final byte[] bytes, final int length)
+		throws IOException, ParserConfigurationException, SAXException
+	{
+		final int categoryStart = indexOf(bytes, "<" + ATOM_SITE_CATEGORY, 0, length);
+		if (categoryStart < 0)
+			return false;
+		final int tagEnd = indexOf(bytes, ">", categoryStart, length);
+		if (tagEnd < 0 || bytes[tagEnd - 1] == '/')
+			return false;
+		final int contentStart = tagEnd + 1;
+		final int contentEnd = indexOf(bytes, "</" + ATOM_SITE_CATEGORY, contentStart, length);
+		if (contentEnd < 0)
+			return false;
+
+		final int chunkCount = ChunkExecutor.getChunkCount(contentEnd - contentStart);
+		if (chunkCount < 2)
+			return false;
+
+		// split at the start tags of atom_site elements
+		final int[] bounds = new int[chunkCount + 1];
+		bounds[0] = contentStart;
+		bounds[chunkCount] = contentEnd;
+		for (int i = 1; i < chunkCount; i++)
+		{
+			final int offset = Math.max(bounds[i - 1],
+					contentStart + (int)((long)(contentEnd - contentStart) * i / chunkCount));
+			bounds[i] = indexOfAtomSite(bytes, offset, contentEnd);
+		}
+
+		final List<Callable<StructureXMLHandler>> tasks = new ArrayList<Callable<StructureXMLHandler>>();
+		for (int i = 0; i < chunkCount; i++)
+		{
+			final int start = bounds[i];
+			final int end = bounds[i + 1];
+			tasks.add(new Callable<StructureXMLHandler>()
+			{
+				public StructureXMLHandler call() throws Exception
+				{
+					// the atom sites, wrapped in their category element
+					final InputStream chunk = new SequenceInputStream(
+							new SequenceInputStream(
+									new ByteArrayInputStream(("<" + ATOM_SITE_CATEGORY + ">").getBytes("US-ASCII")),
+									new ByteArrayInputStream(bytes, start, end - start)),
+							new ByteArrayInputStream(("</" + ATOM_SITE_CATEGORY + ">").getBytes("US-ASCII")));
+
+					final StructureXMLHandler chunkHandler = handler.createAtomSiteHandler();
+					SAXParserFactory.newInstance().newSAXParser().parse(
+							new InputSource(new BufferedReader(new InputStreamReader(chunk))), chunkHandler);
+					return chunkHandler;
+				}
+			});
+		}
+
+		final List<Future<StructureXMLHandler>> futures = ChunkExecutor.start(tasks);
+		try
+		{
+			handler.setAtomSiteChunks(futures);
+
+			// the document without the atom sites
+			final InputStream rest = new SequenceInputStream(
+					new ByteArrayInputStream(bytes, 0, contentStart),
+					new ByteArrayInputStream(bytes, contentEnd, length - contentEnd));
+			SAXParser saxParser = SAXParserFactory.newInstance().newSAXParser();
+			saxParser.parse(new InputSource(new BufferedReader(new InputStreamReader(rest))), handler);
+		}
+
+		finally
+		{
+			handler.setAtomSiteChunks(null);
+			ChunkExecutor.cancel(futures);
+		}
+
+		return true;
+	}
+
+	/**
+	 * @return the offset of the first atom_site start tag at or after the
+	 *         offset, or the end offset.
+	 */
+	private static int indexOfAtomSite(final byte[] bytes, int offset, final int end)
+	{
+		while ((offset = indexOf(bytes, ATOM_SITE, offset, end)) >= 0)
+		{
+			final int next = offset + ATOM_SITE.length();
+			// skip atom_siteCategory, atom_sites, ...
+			if (next < end && (bytes[next] == ' ' || bytes[next] == '>' || bytes[next] == '/'))
+				return offset;
+			offset = next;
+		}
+		return end;
+	}
+
+	/**
+	 * @return the offset of the first occurrence of the ASCII string
+	 *         in bytes[offset, end), or -1.
+	 */
+	private static int indexOf(final byte[] bytes, final String string, final int offset, final int end)
+	{
+		final byte first = (byte)string.charAt(0);
+		final int last = end - string.length();
+		for (int i = offset; i <= last; i++)
+		{
+			if (bytes[i] != first)
+				continue;
+			int j = 1;
+			while (j < string.length() && bytes[i + j] == (byte)string.charAt(j))
+				j++;
+			if (j == string.length())
+				return i;
+		}
+		return -1;
+	}
+
 	public ModelTransformationList getBiologicalUnitTransformationMatrices() {
 		return handler.getBiologicalUnitTransformationMatrices();
 	}
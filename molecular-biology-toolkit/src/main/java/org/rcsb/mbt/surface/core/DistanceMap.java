@@ -53,14 +53,27 @@
  *
  */ 
 
+
 package org.rcsb.mbt.surface.core;
 
-import javax.vecmath.Point3i;
+import java.util.Arrays;
 
-import org.rcsb.mbt.surface.datastructure.VolumePixel;
+import org.rcsb.mbt.surface.datastructure.VoxelGrid;
 
 
 /**
+ * Euclidean distance map from the boundary voxels into the solid. Voxels are
+ * addressed by their linear index in the {@link VoxelGrid}, the nearest
+ * boundary voxel of each voxel is kept in a flat int array.
+ * <p>
+ * {@link #fastdistancemap} is the original EDTSurf algorithm, which
+ * propagates shell by shell from the boundary up to the probe radius.
+ * {@link #exactdistancemap} computes the exact distance transform with three
+ * separable one-dimensional passes (P. Felzenszwalb, D. Huttenlocher (2012)
+ * Distance Transforms of Sampled Functions. Theory of Computing 8:415-428).
+ * Each pass processes independent grid lines and can be run on several
+ * threads.
+ *
  * @author Dong Xu (original C++ version)
  * @author Peter Rose (converted and refactored in Java)
  */
@@ -73,468 +86,398 @@ public class DistanceMap {
     int plength;
     int pwidth;
     int pheight;
-    VolumePixel[][][] vp;
+    VoxelGrid vp;
+    private static final int INF = Integer.MAX_VALUE;
+
+    int[] boundpoint;
+    int[] inarray;
+    int[] outarray;
     int positin;
-    int allocout;
     int positout;
     int eliminate;
     int totalinnervox;
 
-    public void fastdistancemap(VolumePixel[][][] vp, float cutradis, float scalefactor) // used for MS and SES surfaces
+    public void fastdistancemap(VoxelGrid vp, float cutradis, float scalefactor) // used for MS and SES surfaces
 {
         this.vp = vp;
-        this.plength = vp.length;
-        this.pwidth = vp[0].length;
-        this.pheight = vp[0][0].length;
-  //      System.out.println("[" + plength + "*" + pwidth + "*" + pheight +"]");
-
-	int i,j,k;
-//	int positin,positout;
-//        int eliminate = 0;
+        this.plength = vp.getLength();
+        this.pwidth = vp.getWidth();
+        this.pheight = vp.getHeight();
+        int size = vp.size();
+
+	int index;
         eliminate = 0;
 
 	int certificate;
 	int totalsurfacevox=0;
-//	int totalinnervox=0;
         totalinnervox=0;
-//	voxel2 ***boundpoint;
-//	boundpoint=new voxel2 **[plength];
-//	for(i=0;i<plength;i++)
-//	{
-//		boundpoint[i]=new voxel2*[pwidth];
-//	}
-//	for(i=0;i<plength;i++)
-//	{
-//		for(j=0;j<pwidth;j++)
-//		{
-//			boundpoint[i][j]=new voxel2[pheight];
-//		}
-//	}
-    Point3i[][][] boundpoint = new Point3i[plength][pwidth][pheight];
-    for (i = 0; i < plength; i++) {
-        for (j = 0; j < pwidth; j++) {
-            for (k = 0; k < pheight; k++) {
-                boundpoint[i][j][k] = new Point3i();
-            }
-        }
-    }
 
+    // linear index of the closest boundary voxel
+    boundpoint = new int[size];
 
-	for(i=0;i<plength;i++)
+    vp.clearDone();
+	for(index=0;index<size;index++)
 	{
-		for(j=0;j<pwidth;j++)
+		if(vp.isInout(index))
 		{
-			for(k=0;k<pheight;k++)
+			if(vp.isBound(index))
 			{
-				vp[i][j][k].isdone=false;
-				if(vp[i][j][k].inout)
-				{
-					if(vp[i][j][k].isbound)
-					{
-						totalsurfacevox++;
-						boundpoint[i][j][k].x=i;
-						boundpoint[i][j][k].y=j;
-						boundpoint[i][j][k].z=k;
-						vp[i][j][k].distance=0;
-						vp[i][j][k].isdone=true;
-					}
-				    else
-					{
-						totalinnervox++;
-					}
-				}
+				totalsurfacevox++;
+				boundpoint[index]=index;
+				vp.setDistance(index, 0);
+				vp.setDone(index, true);
+			}
+			else
+			{
+				totalinnervox++;
 			}
 		}
 	}
 	int allocin= (int)(1.2*totalsurfacevox);
-//	int allocout= (int)(1.2*totalsurfacevox);
-        allocout= (int)(1.2*totalsurfacevox);
+	int allocout= (int)(1.2*totalsurfacevox);
 	if(allocin>totalinnervox)
 		allocin=totalinnervox;
 	if(allocin<totalsurfacevox)
 		allocin=totalsurfacevox;
 	if(allocout>totalinnervox)
 		allocout=totalinnervox;
-	 Point3i[] inarray=new Point3i[allocin];
-         for (int ii = 0; ii < inarray.length; ii++) {
-             inarray[ii] = new Point3i();
-         }
-	 Point3i[] outarray=new Point3i[allocout];
-         for (int ii = 0; ii < outarray.length; ii++) {
-             outarray[ii] = new Point3i();
-         }
-	 positin=0;positout=0;
-
-	 for(i=0;i<plength;i++)
-	 {
-		 for(j=0;j<pwidth;j++)
-		 {
-			 for(k=0;k<pheight;k++)
-			 {
-				 if(vp[i][j][k].isbound)
-				 {
-					 inarray[positin].x=i;
-					 inarray[positin].y=j;
-					 inarray[positin].z=k;
-					 positin++;
-					 vp[i][j][k].isbound=false;//as flag of outarray
-				 }
-			 }
-		 }
-	 }
+	inarray=new int[allocin];
+	outarray=new int[allocout];
+	positin=0;positout=0;
+
+	for(index=0;index<size;index++)
+	{
+		if(vp.isBound(index))
+		{
+			inarray[positin++]=index;
+			vp.setBound(index, false);//as flag of outarray
+		}
+	}
 	certificate=totalinnervox;
 ///////////////////////////////////////////////////
 
 	do {
-            fastoneshell(boundpoint, inarray, outarray);
-	//	printf("%d %d %d %d %d\n",positin,allocout,positout,totalsurfacevox,totalinnervox);
+		fastoneshell();
 		certificate-=eliminate;
-	/*
-		for(i=0;i<positout;i++)
-			{
-			  inarray[i].ix=outarray[i].ix;
-			  inarray[i].iy=outarray[i].iy;
-			  inarray[i].iz=outarray[i].iz;
-			}
-			positin=positout;*/
+
 		//new code only less dist
+		if(inarray.length<positout)
+		{
+			inarray=Arrays.copyOf(inarray, Math.max(2*inarray.length, positout));
+		}
 		positin=0;
-		for(i=0;i<positout;i++)
+		for(int i=0;i<positout;i++)
 		{
-			vp[outarray[i].x][outarray[i].y][outarray[i].z].isbound=false;
-			if(vp[outarray[i].x][outarray[i].y][outarray[i].z].distance<=1.02*cutradis)
-			{
-				inarray[positin].x=outarray[i].x;
-				inarray[positin].y=outarray[i].y;
-				inarray[positin].z=outarray[i].z;
-				positin++;
-			}
-			if(positin>=allocin)
+			index=outarray[i];
+			vp.setBound(index, false);
+			if(vp.getDistance(index)<=1.02*cutradis)
 			{
-				int inLength = allocin;
-                                allocin*=2;
-				if(allocin>totalinnervox) allocin=totalinnervox;
-//				inarray=(voxel2 *)realloc(inarray,allocin*sizeof(voxel2));
-                                System.arraycopy(inarray, 0, inarray, positout, allocin);
-                                for (int ii = inLength; ii < allocin; ii++) {
-                                    inarray[ii] = new Point3i();
-                                }
+				inarray[positin++]=index;
 			}
 		}
 	}
 	while(positin!=0);
-	//while(positout!=0);
-	if(certificate!=0)
-	{
-	//	printf("wrong number\n");
-	}
-
-//	 free(inarray);
-//	 free(outarray);
 
 	 double cutsf=scalefactor-0.5;
 	 if(cutsf<0) cutsf=0;
-//	 cutsf=100000000;
-	 for(i=0;i<plength;i++)
+	 for(index=0;index<size;index++)
 	 {
-		 for(j=0;j<pwidth;j++)
+		 vp.setBound(index, false);
+		 //ses solid
+		 if(vp.isInout(index))
 		 {
-			 for(k=0;k<pheight;k++)
+			 if(!vp.isDone(index)
+				 || (vp.isDone(index) && vp.getDistance(index)>=cutradis-0.50/(0.1+cutsf))//0.33  0.75/scalefactor
+				 )
 			 {
-				 vp[i][j][k].isbound=false;
-				 //ses solid
-				 if(vp[i][j][k].inout)
-				 {
-					 if(!vp[i][j][k].isdone
-						 || (vp[i][j][k].isdone && vp[i][j][k].distance>=cutradis-0.50/(0.1+cutsf))//0.33  0.75/scalefactor
-						 )
-					 {
-						 vp[i][j][k].isbound=true;
-						 //new add
-						 if(vp[i][j][k].isdone)
-							vp[i][j][k].atomid=vp[boundpoint[i][j][k].x][boundpoint[i][j][k].y][boundpoint[i][j][k].z].atomid;
-					 }
-				 }
+				 vp.setBound(index, true);
+				 //new add
+				 if(vp.isDone(index))
+					vp.setAtomId(index, vp.getAtomId(boundpoint[index]));
 			 }
 		 }
 	 }
 
+	 boundpoint = null;
+	 inarray = null;
+	 outarray = null;
+}
 
-//	 for(i=0;i<plength;i++)
-//	 {
-//		 for(j=0;j<pwidth;j++)
-//		 {
-//			 delete[]boundpoint[i][j];
-//		 }
-//	 }
-//
-//	 for(i=0;i<plength;i++)
-//	 {
-//		 delete[]boundpoint[i];
-//	 }
-//	 delete[] boundpoint;
+private void fastoneshell() // used for MS and SES surfaces
+{
+        eliminate=0;
+	positout=0;
+	if(positin==0) return;
+
+	// 6 face neighbors first, then 12 edge and 8 corner neighbors
+	oneshell(0, 6);
+	oneshell(6, 18);
+	oneshell(18, 26);
 }
 
-private void fastoneshell(Point3i[][][] boundpoint, Point3i[] inarray, Point3i[] outarray) // used for MS and SES surfaces
+private void oneshell(int nbstart, int nbend)
 {
-//	int i, number,positout;
-        int i, number;
+	int i,j;
+	int t,tnv;
 	int tx,ty,tz;
+	int bx,by,bz;
+	int nx,ny,nz;
 	int dx,dy,dz;
-//	int eliminate=0;
-        eliminate=0;
 	float squre;
-	positout=0;
-//	number=*innum;
-        number = positin;
-	if(number==0) return;
-	//new code
-	int j;
-//	voxel tnv;
-        Point3i tnv = new Point3i();
-        tnv.x = 0;
-        tnv.y = 0;
-        tnv.z = 0;
-	for(i=0;i<number;i++)
-	{
-//		if(positout>=(*allocout)-6)
-//		{
-//			(*allocout)=int(1.2*(*allocout));
-//			if(*allocout>totalinnervox) *allocout=totalinnervox;
-//			outarray=(voxel2 *)realloc(outarray,(*allocout)*sizeof(voxel2));
-//		}
-//		tx=inarray[i].ix;
-//        ty=inarray[i].iy;
-//		tz=inarray[i].iz;
-               if(positout >= allocout - 6)
-	       {
-			int outLength = allocout;
-                        allocout = (int) 1.2*allocout;
-			if(allocout>totalinnervox) allocout=totalinnervox;
-//			outarray=(voxel2 *)realloc(outarray,(*allocout)*sizeof(voxel2));
-                        System.arraycopy(outarray, 0, outarray, 0, allocout);
-                        for (int ii = outLength; ii < allocout; ii++) {
-                            outarray[ii] = new Point3i();
-                        }
-		}
-		tx=inarray[i].x;
-                ty=inarray[i].y;
-		tz=inarray[i].z;
-		for(j=0;j<6;j++)
-		{
-			tnv.x=tx+nb[j][0];
-			tnv.y=ty+nb[j][1];
-			tnv.z=tz+nb[j][2];
-			if( tnv.x<plength && tnv.x>-1 &&
-				tnv.y<pwidth && tnv.y>-1 &&
-				tnv.z<pheight && tnv.z>-1 &&
-				vp[tnv.x][tnv.y][tnv.z].inout &&
-				!vp[tnv.x][tnv.y][tnv.z].isdone)
-			{
-				boundpoint[tnv.x][tnv.y][tz+nb[j][2]].x=boundpoint[tx][ty][tz].x;
-				boundpoint[tnv.x][tnv.y][tz+nb[j][2]].y=boundpoint[tx][ty][tz].y;
-				boundpoint[tnv.x][tnv.y][tz+nb[j][2]].z=boundpoint[tx][ty][tz].z;
-				dx=tnv.x-boundpoint[tx][ty][tz].x;
-				dy=tnv.y-boundpoint[tx][ty][tz].y;
-				dz=tnv.z-boundpoint[tx][ty][tz].z;
-				squre=(float)(dx*dx+dy*dy+dz*dz);
-				vp[tnv.x][tnv.y][tnv.z].distance=(float)(Math.sqrt(squre));
-				vp[tnv.x][tnv.y][tnv.z].isdone=true;
-				vp[tnv.x][tnv.y][tnv.z].isbound=true;
-				outarray[positout].x=tnv.x;
-				outarray[positout].y=tnv.y;
-				outarray[positout].z=tnv.z;
-				positout++;eliminate++;
-			}
-			else if( tnv.x<plength && tnv.x>-1 &&
-				tnv.y<pwidth && tnv.y>-1 &&
-				tnv.z<pheight && tnv.z>-1 &&
-				vp[tnv.x][tnv.y][tnv.z].inout &&
-				vp[tnv.x][tnv.y][tnv.z].isdone)
-			{
-
-				dx=tnv.x-boundpoint[tx][ty][tz].x;
-				dy=tnv.y-boundpoint[tx][ty][tz].y;
-				dz=tnv.z-boundpoint[tx][ty][tz].z;
-				squre=(float)(dx*dx+dy*dy+dz*dz);
-				squre=(float)(Math.sqrt(squre));
-				if(squre<vp[tnv.x][tnv.y][tnv.z].distance)
-				{
-					boundpoint[tnv.x][tnv.y][tnv.z].x=boundpoint[tx][ty][tz].x;
-					boundpoint[tnv.x][tnv.y][tnv.z].y=boundpoint[tx][ty][tz].y;
-					boundpoint[tnv.x][tnv.y][tnv.z].z=boundpoint[tx][ty][tz].z;
-					vp[tnv.x][tnv.y][tnv.z].distance=(float)(squre);
-					if(!vp[tnv.x][tnv.y][tnv.z].isbound)
-					{
-						vp[tnv.x][tnv.y][tnv.z].isbound=true;
-						outarray[positout].x=tnv.x;
-						outarray[positout].y=tnv.y;
-						outarray[positout].z=tnv.z;
-						positout++;
-					}
-				}
+	int slack=nbend-nbstart;
+	int stride=pwidth*pheight;
 
-			}
-		}
-	}
-	for(i=0;i<number;i++)
+	for(i=0;i<positin;i++)
 	{
-//		if(positout>=(*allocout)-12)
-//		{
-//			(*allocout)=int(1.2*(*allocout));
-//			if(*allocout>totalinnervox) *allocout=totalinnervox;
-//			outarray=(voxel2 *)realloc(outarray,(*allocout)*sizeof(voxel2));
-//		}
-                if(positout >= allocout - 12)
+		if(positout+slack>outarray.length)
 		{
-			int outLength = allocout;
-                        allocout = (int)1.2*allocout;
-			if(allocout > totalinnervox) allocout=totalinnervox;
-                        System.arraycopy(outarray, 0, outarray, 0, allocout);
-                        for (int ii = outLength; ii < allocout; ii++) {
-                            outarray[ii] = new Point3i();
-                        }
+			int alloc=Math.max((int)(1.2*outarray.length), positout+slack);
+			if(alloc>totalinnervox) alloc=Math.max(totalinnervox, positout+slack);
+			outarray=Arrays.copyOf(outarray, alloc);
 		}
-		tx=inarray[i].x;
-                ty=inarray[i].y;
-		tz=inarray[i].z;
-		for(j=6;j<18;j++)
+		t=inarray[i];
+		tx=t/stride;
+		ty=(t/pheight)%pwidth;
+		tz=t%pheight;
+		int b=boundpoint[t];
+		bx=b/stride;
+		by=(b/pheight)%pwidth;
+		bz=b%pheight;
+		for(j=nbstart;j<nbend;j++)
 		{
-			tnv.x=tx+nb[j][0];
-			tnv.y=ty+nb[j][1];
-			tnv.z=tz+nb[j][2];
-			if( tnv.x<plength && tnv.x>-1 &&
-				tnv.y<pwidth && tnv.y>-1 &&
-				tnv.z<pheight && tnv.z>-1 &&
-				vp[tnv.x][tnv.y][tnv.z].inout &&
-				!vp[tnv.x][tnv.y][tnv.z].isdone)
+			nx=tx+nb[j][0];
+			ny=ty+nb[j][1];
+			nz=tz+nb[j][2];
+			if(nx>=plength || nx<0 ||
+				ny>=pwidth || ny<0 ||
+				nz>=pheight || nz<0)
 			{
-				boundpoint[tnv.x][tnv.y][tz+nb[j][2]].x=boundpoint[tx][ty][tz].x;
-				boundpoint[tnv.x][tnv.y][tz+nb[j][2]].y=boundpoint[tx][ty][tz].y;
-				boundpoint[tnv.x][tnv.y][tz+nb[j][2]].z=boundpoint[tx][ty][tz].z;
-				dx=tnv.x-boundpoint[tx][ty][tz].x;
-				dy=tnv.y-boundpoint[tx][ty][tz].y;
-				dz=tnv.z-boundpoint[tx][ty][tz].z;
-				squre=(float)(dx*dx+dy*dy+dz*dz);
-				vp[tnv.x][tnv.y][tnv.z].distance=(float)(Math.sqrt(squre));
-				vp[tnv.x][tnv.y][tnv.z].isdone=true;
-				vp[tnv.x][tnv.y][tnv.z].isbound=true;
-				outarray[positout].x=tnv.x;
-				outarray[positout].y=tnv.y;
-				outarray[positout].z=tnv.z;
-				positout++;eliminate++;
+				continue;
 			}
-			else if( tnv.x<plength && tnv.x>-1 &&
-				tnv.y<pwidth && tnv.y>-1 &&
-				tnv.z<pheight && tnv.z>-1 &&
-				vp[tnv.x][tnv.y][tnv.z].inout &&
-				vp[tnv.x][tnv.y][tnv.z].isdone)
+			tnv=(nx*pwidth+ny)*pheight+nz;
+			if(!vp.isInout(tnv))
 			{
-				dx=tnv.x-boundpoint[tx][ty][tz].x;
-				dy=tnv.y-boundpoint[tx][ty][tz].y;
-				dz=tnv.z-boundpoint[tx][ty][tz].z;
-				squre=(float)(dx*dx+dy*dy+dz*dz);
-				squre=(float)(Math.sqrt(squre));
-				if(squre<vp[tnv.x][tnv.y][tnv.z].distance)
-				{
-					boundpoint[tnv.x][tnv.y][tnv.z].x=boundpoint[tx][ty][tz].x;
-					boundpoint[tnv.x][tnv.y][tnv.z].y=boundpoint[tx][ty][tz].y;
-					boundpoint[tnv.x][tnv.y][tnv.z].z=boundpoint[tx][ty][tz].z;
-					vp[tnv.x][tnv.y][tnv.z].distance=(float)(squre);
-					if(!vp[tnv.x][tnv.y][tnv.z].isbound)
-					{
-						vp[tnv.x][tnv.y][tnv.z].isbound=true;
-						outarray[positout].x=tnv.x;
-						outarray[positout].y=tnv.y;
-						outarray[positout].z=tnv.z;
-						positout++;
-					}
-				}
-
+				continue;
 			}
-		}
-	}
-	for(i=0;i<number;i++)
-	{
-//		if(positout>=(*allocout)-9)
-//		{
-//			(*allocout)=int(1.2*(*allocout));
-//			if(*allocout>totalinnervox) *allocout=totalinnervox;
-//			outarray=(voxel2 *)realloc(outarray,(*allocout)*sizeof(voxel2));
-//		}
-                if(positout >= allocout -9)
-		{
-                        int outLength = allocout;
-			allocout = (int)(1.2*allocout);
-			if(allocout>totalinnervox) allocout=totalinnervox;
-                        System.arraycopy(outarray, 0, outarray, 0, allocout);
-                        for (int ii = outLength; ii < allocout; ii++) {
-                            outarray[ii] = new Point3i();
-                        }
-		}
-		tx=inarray[i].x;
-                ty=inarray[i].y;
-		tz=inarray[i].z;
-		for(j=18;j<26;j++)
-		{
-			tnv.x=tx+nb[j][0];
-			tnv.y=ty+nb[j][1];
-			tnv.z=tz+nb[j][2];
-			if( tnv.x<plength && tnv.x>-1 &&
-				tnv.y<pwidth && tnv.y>-1 &&
-				tnv.z<pheight && tnv.z>-1 &&
-				vp[tnv.x][tnv.y][tnv.z].inout &&
-				!vp[tnv.x][tnv.y][tnv.z].isdone)
+			dx=nx-bx;
+			dy=ny-by;
+			dz=nz-bz;
+			squre=(float)(dx*dx+dy*dy+dz*dz);
+			if(!vp.isDone(tnv))
 			{
-				boundpoint[tnv.x][tnv.y][tz+nb[j][2]].x=boundpoint[tx][ty][tz].x;
-				boundpoint[tnv.x][tnv.y][tz+nb[j][2]].y=boundpoint[tx][ty][tz].y;
-				boundpoint[tnv.x][tnv.y][tz+nb[j][2]].z=boundpoint[tx][ty][tz].z;
-				dx=tnv.x-boundpoint[tx][ty][tz].x;
-				dy=tnv.y-boundpoint[tx][ty][tz].y;
-				dz=tnv.z-boundpoint[tx][ty][tz].z;
-				squre=(float)(dx*dx+dy*dy+dz*dz);
-				vp[tnv.x][tnv.y][tnv.z].distance=(float)(Math.sqrt(squre));
-				vp[tnv.x][tnv.y][tnv.z].isdone=true;
-				vp[tnv.x][tnv.y][tnv.z].isbound=true;
-				outarray[positout].x=tnv.x;
-				outarray[positout].y=tnv.y;
-				outarray[positout].z=tnv.z;
-				positout++;eliminate++;
+				boundpoint[tnv]=b;
+				vp.setDistance(tnv, (float)(Math.sqrt(squre)));
+				vp.setDone(tnv, true);
+				vp.setBound(tnv, true);
+				outarray[positout++]=tnv;
+				eliminate++;
 			}
-			else if( tnv.x<plength && tnv.x>-1 &&
-				tnv.y<pwidth && tnv.y>-1 &&
-				tnv.z<pheight && tnv.z>-1 &&
-				vp[tnv.x][tnv.y][tnv.z].inout &&
-				vp[tnv.x][tnv.y][tnv.z].isdone)
+			else
 			{
-
-				dx=tnv.x-boundpoint[tx][ty][tz].x;
-				dy=tnv.y-boundpoint[tx][ty][tz].y;
-				dz=tnv.z-boundpoint[tx][ty][tz].z;
-				squre=(float)(dx*dx+dy*dy+dz*dz);
 				squre=(float)(Math.sqrt(squre));
-				if(squre<vp[tnv.x][tnv.y][tnv.z].distance)
+				if(squre<vp.getDistance(tnv))
 				{
-					boundpoint[tnv.x][tnv.y][tnv.z].x=boundpoint[tx][ty][tz].x;
-					boundpoint[tnv.x][tnv.y][tnv.z].y=boundpoint[tx][ty][tz].y;
-					boundpoint[tnv.x][tnv.y][tnv.z].z=boundpoint[tx][ty][tz].z;
-					vp[tnv.x][tnv.y][tnv.z].distance=(float)(squre);
-					if(!vp[tnv.x][tnv.y][tnv.z].isbound)
+					boundpoint[tnv]=b;
+					vp.setDistance(tnv, squre);
+					if(!vp.isBound(tnv))
 					{
-						vp[tnv.x][tnv.y][tnv.z].isbound=true;
-						outarray[positout].x=tnv.x;
-						outarray[positout].y=tnv.y;
-						outarray[positout].z=tnv.z;
-						positout++;
+						vp.setBound(tnv, true);
+						outarray[positout++]=tnv;
 					}
 				}
-
 			}
 		}
 	}
+}
+
+/**
+ * Computes the exact Euclidean distance of every voxel inside the solid to the
+ * closest boundary voxel and marks the voxels beyond the probe radius, like
+ * {@link #fastdistancemap}. Distances are exact rather than propagated, so
+ * the resulting surface may differ slightly from the fast distance map.
+ */
+public void exactdistancemap(VoxelGrid vp, float cutradis, float scalefactor, int threadCount) // used for MS and SES surfaces
+{
+    this.vp = vp;
+    this.plength = vp.getLength();
+    this.pwidth = vp.getWidth();
+    this.pheight = vp.getHeight();
+    final int size = vp.size();
+
+    // squared distance and linear index of the closest boundary voxel
+    final int[] sqdist = new int[size];
+    boundpoint = new int[size];
 
-//	outnum=positout;
-//	elimi=eliminate;
+    SlabExecutor executor = new SlabExecutor(threadCount);
+    final int maxlength = Math.max(plength, Math.max(pwidth, pheight));
 
+    // pass 1: lines along z, seeded with the boundary voxels
+    executor.run(plength, pwidth*pheight, new SlabExecutor.Slab() {
+        public void run(int start, int end) {
+            LineBuffer buf = new LineBuffer(maxlength);
+            for (int i = start; i < end; i++) {
+                for (int j = 0; j < pwidth; j++) {
+                    int base = (i*pwidth + j)*pheight;
+                    for (int k = 0; k < pheight; k++) {
+                        int index = base + k;
+                        boolean site = DistanceMap.this.vp.isInout(index) && DistanceMap.this.vp.isBound(index);
+                        buf.f[k] = site ? 0 : INF;
+                        buf.fsite[k] = index;
+                    }
+                    transform(pheight, buf);
+                    for (int k = 0; k < pheight; k++) {
+                        sqdist[base + k] = buf.d[k];
+                        boundpoint[base + k] = buf.site[k];
+                    }
+                }
+            }
+        }
+    });
+
+    // pass 2: lines along y
+    executor.run(plength, pwidth*pheight, new SlabExecutor.Slab() {
+        public void run(int start, int end) {
+            LineBuffer buf = new LineBuffer(maxlength);
+            for (int i = start; i < end; i++) {
+                for (int k = 0; k < pheight; k++) {
+                    int base = i*pwidth*pheight + k;
+                    linepass(base, pheight, pwidth, sqdist, buf);
+                }
+            }
+        }
+    });
+
+    // pass 3: lines along x
+    executor.run(pwidth, plength*pheight, new SlabExecutor.Slab() {
+        public void run(int start, int end) {
+            LineBuffer buf = new LineBuffer(maxlength);
+            for (int j = start; j < end; j++) {
+                for (int k = 0; k < pheight; k++) {
+                    int base = j*pheight + k;
+                    linepass(base, pwidth*pheight, plength, sqdist, buf);
+                }
+            }
+        }
+    });
+
+    double cutsf=scalefactor-0.5;
+    if(cutsf<0) cutsf=0;
+    final double threshold = cutradis-0.50/(0.1+cutsf);
+
+    // the atom id of a boundary voxel (distance 0) is never modified below,
+    // so slabs can safely read the atom ids of boundary voxels in other slabs
+    executor.run(plength, pwidth*pheight, new SlabExecutor.Slab() {
+        public void run(int start, int end) {
+            VoxelGrid vp = DistanceMap.this.vp;
+            int stride = pwidth*pheight;
+            for (int index = start*stride; index < end*stride; index++) {
+                vp.setBound(index, false);
+                boolean done = vp.isInout(index) && sqdist[index] != INF;
+                vp.setDone(index, done);
+                if (done) {
+                    vp.setDistance(index, (float)(Math.sqrt((float)sqdist[index])));
+                }
+                //ses solid
+                if(vp.isInout(index))
+                {
+                    if(!done || vp.getDistance(index)>=threshold)
+                    {
+                        vp.setBound(index, true);
+                        if(done)
+                            vp.setAtomId(index, vp.getAtomId(boundpoint[index]));
+                    }
+                }
+            }
+        }
+    });
+
+    boundpoint = null;
+}
+
+/**
+ * Runs the one-dimensional transform on the line of n voxels starting at
+ * base with the given stride, using the squared distances of the previous pass.
+ */
+private void linepass(int base, int stride, int n, int[] sqdist, LineBuffer buf)
+{
+    for (int q = 0, index = base; q < n; q++, index += stride) {
+        buf.f[q] = sqdist[index];
+        buf.fsite[q] = boundpoint[index];
+    }
+    transform(n, buf);
+    for (int q = 0, index = base; q < n; q++, index += stride) {
+        sqdist[index] = buf.d[q];
+        boundpoint[index] = buf.site[q];
+    }
+}
+
+/**
+ * One-dimensional squared distance transform d(q) = min_p((q-p)^2 + f(p)),
+ * computed from the lower envelope of the parabolas rooted at the sampled
+ * points. Points with f(p) = INF are ignored. The closest site of the
+ * minimizing point p is carried along.
+ */
+private static void transform(int n, LineBuffer buf)
+{
+    int[] f = buf.f;
+    int[] v = buf.v;
+    double[] z = buf.z;
+    int k = -1;
+    for (int q = 0; q < n; q++) {
+        if (f[q] == INF) {
+            continue;
+        }
+        double s = Double.NEGATIVE_INFINITY;
+        while (k >= 0) {
+            int p = v[k];
+            s = ((f[q] + (double)q*q) - (f[p] + (double)p*p)) / (2.0*(q - p));
+            if (s <= z[k]) {
+                k--;
+            } else {
+                break;
+            }
+        }
+        k++;
+        v[k] = q;
+        z[k] = k == 0 ? Double.NEGATIVE_INFINITY : s;
+    }
+
+    if (k < 0) {
+        Arrays.fill(buf.d, 0, n, INF);
+        Arrays.fill(buf.site, 0, n, 0);
+        return;
+    }
+    z[k+1] = Double.POSITIVE_INFINITY;
+
+    int j = 0;
+    for (int q = 0; q < n; q++) {
+        while (z[j+1] < q) {
+            j++;
+        }
+        int p = v[j];
+        buf.d[q] = (q-p)*(q-p) + f[p];
+        buf.site[q] = buf.fsite[p];
+    }
+}
+
+/**
+ * Work arrays for the transform of a single grid line, one per thread.
+ */
+private static class LineBuffer {
+    int[] f;
+    int[] fsite;
+    int[] d;
+    int[] site;
+    int[] v;
+    double[] z;
+
+    LineBuffer(int n) {
+        f = new int[n];
+        fsite = new int[n];
+        d = new int[n];
+        site = new int[n];
+        v = new int[n];
+        z = new double[n + 1];
+    }
 }
 }
@@ -60,6 +60,7 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -69,7 +70,7 @@ import org.rcsb.mbt.surface.datastructure.FaceInfo;
 import org.rcsb.mbt.surface.datastructure.Sphere;
 import org.rcsb.mbt.surface.datastructure.TriangulatedSurface;
 import org.rcsb.mbt.surface.datastructure.VertInfo;
-import org.rcsb.mbt.surface.datastructure.VolumePixel;
+import org.rcsb.mbt.surface.datastructure.VoxelGrid;
 
 
 /**
@@ -90,7 +91,7 @@ public class EdtSurfaceCalculator {
     private int[] widxz = null;
     private int[][] depty = null;
     private float scalefactor=1;
-    private VolumePixel[][][] vp = null;
+    private VoxelGrid vp = null;
     private Point3f ptran = null;
 
     private List<FaceInfo> faceList = new ArrayList<FaceInfo>(0);
@@ -101,6 +102,15 @@ public class EdtSurfaceCalculator {
     private List<Float> radiiSet = new ArrayList<Float>();
     private int[] radiusIndex = null;
 
+    // voxel grid (3 bits, atom id, reference id, distance), distance map
+    // and marching cube work arrays
+    private static final int BYTES_PER_VOXEL = 24;
+
+    private static int defaultThreadCount = 1;
+    private int threadCount = defaultThreadCount;
+    private static boolean defaultExactDistanceMap = false;
+    private boolean exactDistanceMap = defaultExactDistanceMap;
+
     // nb[26][3]
     private static int nb[][]={{1,0,0}, {-1,0,0}, {0,1,0}, {0,-1,0}, {0,0,1}, {0,0,-1},
     {1,1,0}, {1,-1,0}, {-1,1,0}, {-1,-1,0}, {1,0,1}, {1,0,-1}, {-1,0,1}, {-1,0,-1}, {0,1,1}, {0,1,-1}, {0,-1,1}, {0,-1,-1},
@@ -118,6 +128,67 @@ public class EdtSurfaceCalculator {
         return surface;
     }
 
+    /**
+     * Sets the number of threads used by new calculators. The default of 1
+     * runs all voxel passes serially.
+     */
+    public static void setDefaultThreadCount(int threadCount) {
+        defaultThreadCount = Math.max(1, threadCount);
+    }
+
+    public static int getDefaultThreadCount() {
+        return defaultThreadCount;
+    }
+
+    /**
+     * Sets the number of threads used to fill the voxels and build the
+     * boundary. The grid is split into slabs along x, and each slab applies
+     * the spheres in their original order, so the result is identical to the
+     * serial calculation for any thread count.
+     */
+    public void setThreadCount(int threadCount) {
+        this.threadCount = Math.max(1, threadCount);
+    }
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    /**
+     * Selects the distance map used by new calculators. By default the fast
+     * EDTSurf distance map is used.
+     */
+    public static void setDefaultExactDistanceMap(boolean exact) {
+        defaultExactDistanceMap = exact;
+    }
+
+    public static boolean isDefaultExactDistanceMap() {
+        return defaultExactDistanceMap;
+    }
+
+    /**
+     * Selects the exact Euclidean distance transform instead of the fast
+     * shell propagation. The exact transform runs on the configured number
+     * of threads, the fast distance map is always serial. The two may
+     * classify a few voxels at the probe radius differently.
+     */
+    public void setExactDistanceMap(boolean exact) {
+        this.exactDistanceMap = exact;
+    }
+
+    public boolean isExactDistanceMap() {
+        return exactDistanceMap;
+    }
+
+    /**
+     * Returns an estimate of the memory in bytes that is allocated while the
+     * surface is calculated. Only requires {@link #initparam()} to be called,
+     * so it can be used to schedule calculations before the grid is created.
+     */
+    public long getEstimatedMemory() {
+        return (long)plength * pwidth * pheight * BYTES_PER_VOXEL;
+    }
+
     private void createRadiusIndex() {
         radiusIndex = new int[spheres.size()];
         for (int i = 0; i < spheres.size(); i++) {
@@ -316,11 +387,12 @@ public void boundbox(Point3f minP, Point3f maxP)
     }
 
 // void ProteinSurface::fillvoxels(int seqinit,int seqterm,bool atomtype,atom* proseq,bool bcolor) // used
-public void fillvoxels(boolean bcolor) // used
+public void fillvoxels(final boolean bcolor) // used
 {
 
-	int i,j,k;
-    vp = new VolumePixel[plength][pwidth][pheight];
+    // all voxels are initialized to inout=false, isdone=false, isbound=false,
+    // distance=-1, atomid=-1 and no reference
+    vp = new VoxelGrid(plength, pwidth, pheight);
 //	if(vp==NULL)
 //	{
 //		vp=new volumepixel**[plength];
@@ -335,26 +407,24 @@ public void fillvoxels(boolean bcolor) // used
 //		}
 //	}
 
-	for(i=0;i<plength;i++)
-	{
-		for(j=0;j<pwidth;j++)
-		{
-			for(k=0;k<pheight;k++)
-			{
-                vp[i][j][k] = new VolumePixel();
-				vp[i][j][k].inout=false;
-				vp[i][j][k].isdone=false;
-				vp[i][j][k].isbound=false;
-				vp[i][j][k].distance=-1;
-				vp[i][j][k].atomid=-1;
-				vp[i][j][k].reference=null;
-			}
-		}
-	}
+    new SlabExecutor(threadCount).run(plength, pwidth*pheight, new SlabExecutor.Slab() {
+        public void run(int start, int end) {
+            fillslab(bcolor, start, end);
+        }
+    });
+}
+
+/**
+ * Fills the voxels of the x-planes [imin, imax). Spheres are applied in their
+ * original order, so the closest-atom-wins ownership of each voxel is the
+ * same no matter how the grid is split into slabs.
+ */
+private void fillslab(boolean bcolor, int imin, int imax) {
+	int i,j,k;
 //	int totnum=0;
     for (int ii = 0; ii < spheres.size(); ii++) {
 //        fillatom(ii, bcolor);
-        fillatom(ii, bcolor);
+        fillatom(ii, bcolor, imin, imax);
     }
 //	for(i=seqinit;i<=seqterm;i++)
 //	{
@@ -370,28 +440,27 @@ public void fillvoxels(boolean bcolor) // used
 //	}
 //	printf("%d\n",totnum);
 
-	for(i=0;i<plength;i++)
+	for(i=imin;i<imax;i++)
 	{
 		for(j=0;j<pwidth;j++)
 		{
 			for(k=0;k<pheight;k++)
 			{
-				if(vp[i][j][k].inout)
+				if(vp.isInout(i,j,k))
 				{
-					vp[i][j][k].isdone=true;
+					vp.setDone(i,j,k, true);
 				}
 			}
 		}
 	}
 }
 
-private void fillatom(int indx, boolean bcolor) {
+private void fillatom(int indx, boolean bcolor, int imin, int imax) {
 	int cx,cy,cz;
 	int ox,oy,oz;
         Point3f cp = new Point3f();
 //	point3d cp;
         Sphere s = spheres.get(indx);
-        Object r = s.getReference();
         Point3f c = s.getLocation();
         cp.x=c.x+ptran.x;
 	cp.y=c.y+ptran.y;
@@ -407,6 +476,9 @@ private void fillatom(int indx, boolean bcolor) {
 	cz= (int) (cp.z+0.5f);
 //    int at = spheres.get(indx).getReferenceId();
     int at = radiusIndex[indx];
+    // skip spheres that do not reach into this slab
+    if(cx+widxz[at]-1<imin || cx-widxz[at]+1>=imax)
+        return;
 //	cx=int(cp.x+0.5);
 //	cy=int(cp.y+0.5);
 //	cz=int(cp.z+0.5);
@@ -440,27 +512,27 @@ private void fillatom(int indx, boolean bcolor) {
 									si=cx+mi;
 									sj=cy+mj;
 									sk=cz+mk;
-									if(si<0 || sj<0 || sk<0 || si>=plength || sj>=pwidth || sk>=pheight)
+									if(si<imin || sj<0 || sk<0 || si>=imax || sj>=pwidth || sk>=pheight)
 									{
 										continue;
 									}
 								if(!bcolor)
 									{
-										vp[si][sj][sk].inout=true;
+										vp.setInout(si,sj,sk, true);
 										continue;
 									}
 								else{
-									if(vp[si][sj][sk].inout==false)
+									if(vp.isInout(si,sj,sk)==false)
 									{
-										vp[si][sj][sk].inout=true;
-										vp[si][sj][sk].atomid=indx;
-										vp[si][sj][sk].reference=r;
+										vp.setInout(si,sj,sk, true);
+										vp.setAtomId(si,sj,sk, indx);
+										vp.setReferenceId(si,sj,sk, indx);
 									}
 									//no atomic info to each voxel change above line
 								//*
-								    else if(vp[si][sj][sk].inout)
+								    else if(vp.isInout(si,sj,sk))
 									{
-										tind=vp[si][sj][sk].atomid;
+										tind=vp.getAtomId(si,sj,sk);
                                         Sphere t = spheres.get(tind);
                                         Point3f tc = t.getLocation();
                                         cp.x=tc.x+ptran.x;
@@ -479,8 +551,8 @@ private void fillatom(int indx, boolean bcolor) {
 //										oy=int(cp.y+0.5)-sj;
 //										oz=int(cp.z+0.5)-sk;
 										if(mi*mi+mj*mj+mk*mk<ox*ox+oy*oy+oz*oz)
-											vp[si][sj][sk].atomid=indx;
-										    vp[si][sj][sk].reference=r;
+											vp.setAtomId(si,sj,sk, indx);
+										    vp.setReferenceId(si,sj,sk, indx);
 									}
 								//	*/
 								}//k
@@ -499,23 +571,39 @@ private void fillatom(int indx, boolean bcolor) {
 
 public void fastdistancemap() {
      DistanceMap dm = new DistanceMap();
-     dm.fastdistancemap(vp, cutradis, scalefactor);
+     if (exactDistanceMap) {
+         dm.exactdistancemap(vp, cutradis, scalefactor, threadCount);
+     } else {
+         dm.fastdistancemap(vp, cutradis, scalefactor);
+     }
 }
 
 // void ProteinSurface::buildboundary() // used
 //{
 public void buildbounary() {
+    new SlabExecutor(threadCount).run(plength, pwidth*pheight, new SlabExecutor.Slab() {
+        public void run(int start, int end) {
+            buildboundary(start, end);
+        }
+    });
+}
+
+/**
+ * Marks the boundary voxels of the x-planes [imin, imax). Only the isbound
+ * flags inside the slab are written, neighbor inout flags are read-only.
+ */
+private void buildboundary(int imin, int imax) {
 	int i,j,k;
 	int ii;
 	boolean flagbound;
  //   System.out.println(plength + "," + pheight + "," + pwidth);
-	for(i=0;i<plength;i++)
+	for(i=imin;i<imax;i++)
 	{
 		for(j=0;j<pheight;j++)
 		{
 			for(k=0;k<pwidth;k++)
 			{
-				if(vp[i][k][j].inout)
+				if(vp.isInout(i,k,j))
 				{
 					//6 neighbors
 //					if(( k-1>-1 && !vp[i][k-1][j].inout) || ( k+1<pwidth &&!vp[i][k+1][j].inout)
@@ -531,9 +619,9 @@ public void buildbounary() {
 						if(i+nb[ii][0]>-1 && i+nb[ii][0]<plength
 							&& k+nb[ii][1]>-1 && k+nb[ii][1]<pwidth
 							&& j+nb[ii][2]>-1 && j+nb[ii][2]<pheight
-							&& !vp[i+nb[ii][0]][k+nb[ii][1]][j+nb[ii][2]].inout)
+							&& !vp.isInout(i+nb[ii][0],k+nb[ii][1],j+nb[ii][2]))
 						{
-							vp[i][k][j].isbound=true;
+							vp.setBound(i,k,j, true);
 							flagbound=true;
 						}
 						else ii++;
@@ -552,7 +640,7 @@ public void buildbounary() {
 public void marchingcube(int stype) {
 	int i,j,k;
 	marchingcubeinit(stype);
-    int[][][] vertseq = new int[plength][pwidth][pheight];
+    int[] vertseq = new int[vp.size()];
 //	int ***vertseq;
 //	vertseq=new int**[plength];
 //	for(i=0;i<plength;i++)
@@ -566,16 +654,7 @@ public void marchingcube(int stype) {
 //			vertseq[i][j]=new int[pheight];
 //		}
 //	}
-	for(i=0;i<plength;i++)
-	{
-		for(j=0;j<pwidth;j++)
-		{
-			for(k=0;k<pheight;k++)
-            {
-                vertseq[i][j][k]=-1;
-			}
-		}
-	}
+    Arrays.fill(vertseq, -1);
 
 //	if(faces!=NULL)
 //	{
@@ -617,8 +696,8 @@ public void marchingcube(int stype) {
 		{
 			for(k=0;k<pheight-1;k++)
 			{
-				if(vp[i][j][k].isdone && vp[i][j+1][k].isdone && vp[i][j+1][k+1].isdone
-					&& vp[i][j][k+1].isdone)
+				if(vp.isDone(i,j,k) && vp.isDone(i,j+1,k) && vp.isDone(i,j+1,k+1)
+					&& vp.isDone(i,j,k+1))
 				{
 					tp[0][0]=i;tp[0][1]=j;tp[0][2]=k;
 					tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k;
@@ -626,9 +705,9 @@ public void marchingcube(int stype) {
 				    tp[3][0]=i;tp[3][1]=j;tp[3][2]=k+1;
 					for(ii=0;ii<4;ii++)
 					{
-						if(vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]==-1)
+						if(vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]==-1)
 						{
-							vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]=vertices.size();
+							vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]=vertices.size();
 //							verts[vertnumber].p.x=tp[ii][0];
 //							verts[vertnumber].p.y=tp[ii][1];
 //							verts[vertnumber].p.z=tp[ii][2];
@@ -644,44 +723,44 @@ public void marchingcube(int stype) {
 //					faces[facenumber].c=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
 //					faces[facenumber++].b=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
                                         FaceInfo face = new FaceInfo();
-                                        face.a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
-					face.c=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
-					face.b=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
+                                        face.a=vertseq[vp.index(tp[0][0],tp[0][1],tp[0][2])];
+					face.c=vertseq[vp.index(tp[1][0],tp[1][1],tp[1][2])];
+					face.b=vertseq[vp.index(tp[2][0],tp[2][1],tp[2][2])];
                                         faceList.add(face);
 
 //					faces[facenumber].a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
 //					faces[facenumber].c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
 //					faces[facenumber++].b=vertseq[tp[3][0]][tp[3][1]][tp[3][2]];
                                         face = new FaceInfo();
-                                        face.a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
-					face.c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
-					face.b=vertseq[tp[3][0]][tp[3][1]][tp[3][2]];
+                                        face.a=vertseq[vp.index(tp[0][0],tp[0][1],tp[0][2])];
+					face.c=vertseq[vp.index(tp[2][0],tp[2][1],tp[2][2])];
+					face.b=vertseq[vp.index(tp[3][0],tp[3][1],tp[3][2])];
                                         faceList.add(face);
 				}
-				else if((vp[i][j][k].isdone && vp[i][j+1][k].isdone && vp[i][j+1][k+1].isdone)
-					||( vp[i][j+1][k].isdone && vp[i][j+1][k+1].isdone && vp[i][j][k+1].isdone)
-					||( vp[i][j+1][k+1].isdone && vp[i][j][k+1].isdone && vp[i][j][k].isdone)
-					||(vp[i][j][k+1].isdone && vp[i][j][k].isdone && vp[i][j+1][k].isdone))
+				else if((vp.isDone(i,j,k) && vp.isDone(i,j+1,k) && vp.isDone(i,j+1,k+1))
+					||( vp.isDone(i,j+1,k) && vp.isDone(i,j+1,k+1) && vp.isDone(i,j,k+1))
+					||( vp.isDone(i,j+1,k+1) && vp.isDone(i,j,k+1) && vp.isDone(i,j,k))
+					||(vp.isDone(i,j,k+1) && vp.isDone(i,j,k) && vp.isDone(i,j+1,k)))
 				{
-					if(vp[i][j][k].isdone && vp[i][j+1][k].isdone && vp[i][j+1][k+1].isdone)
+					if(vp.isDone(i,j,k) && vp.isDone(i,j+1,k) && vp.isDone(i,j+1,k+1))
 					{
 						tp[0][0]=i;tp[0][1]=j;tp[0][2]=k;
 						tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k;
 						tp[2][0]=i;tp[2][1]=j+1;tp[2][2]=k+1;
 					}
-				    else if( vp[i][j+1][k].isdone && vp[i][j+1][k+1].isdone && vp[i][j][k+1].isdone)
+				    else if( vp.isDone(i,j+1,k) && vp.isDone(i,j+1,k+1) && vp.isDone(i,j,k+1))
 					{
 						tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k;
 						tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k+1;
 						tp[2][0]=i;tp[2][1]=j;tp[2][2]=k+1;
 					}
-					else if( vp[i][j+1][k+1].isdone && vp[i][j][k+1].isdone && vp[i][j][k].isdone)
+					else if( vp.isDone(i,j+1,k+1) && vp.isDone(i,j,k+1) && vp.isDone(i,j,k))
 					{
 						tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k+1;
 						tp[1][0]=i;tp[1][1]=j;tp[1][2]=k+1;
 						tp[2][0]=i;tp[2][1]=j;tp[2][2]=k;
 					}
-					else if(vp[i][j][k+1].isdone && vp[i][j][k].isdone && vp[i][j+1][k].isdone)
+					else if(vp.isDone(i,j,k+1) && vp.isDone(i,j,k) && vp.isDone(i,j+1,k))
 					{
 						tp[0][0]=i;tp[0][1]=j;tp[0][2]=k+1;
 						tp[1][0]=i;tp[1][1]=j;tp[1][2]=k;
@@ -689,9 +768,9 @@ public void marchingcube(int stype) {
 					}
 					for(ii=0;ii<3;ii++)
 					{
-						if(vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]==-1)
+						if(vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]==-1)
 						{
-							vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]=vertices.size();
+							vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]=vertices.size();
 //							verts[vertnumber].p.x=tp[ii][0];
 //							verts[vertnumber].p.y=tp[ii][1];
 //							verts[vertnumber].p.z=tp[ii][2];
@@ -707,9 +786,9 @@ public void marchingcube(int stype) {
 //					faces[facenumber].c=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
 //					faces[facenumber++].b=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
                                         FaceInfo face = new FaceInfo();
-                                        face.a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
-					face.c=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
-					face.b=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
+                                        face.a=vertseq[vp.index(tp[0][0],tp[0][1],tp[0][2])];
+					face.c=vertseq[vp.index(tp[1][0],tp[1][1],tp[1][2])];
+					face.b=vertseq[vp.index(tp[2][0],tp[2][1],tp[2][2])];
                                         faceList.add(face);
 				}
 
@@ -723,8 +802,8 @@ public void marchingcube(int stype) {
 		{
 			for(k=0;k<pheight-1;k++)
 			{
-				if(vp[i][j][k].isdone && vp[i+1][j][k].isdone && vp[i+1][j][k+1].isdone
-					&& vp[i][j][k+1].isdone)
+				if(vp.isDone(i,j,k) && vp.isDone(i+1,j,k) && vp.isDone(i+1,j,k+1)
+					&& vp.isDone(i,j,k+1))
 				{
 					tp[0][0]=i;tp[0][1]=j;tp[0][2]=k;
 					tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k;
@@ -732,9 +811,9 @@ public void marchingcube(int stype) {
 					tp[3][0]=i;tp[3][1]=j;tp[3][2]=k+1;
 					for(ii=0;ii<4;ii++)
 					{
-						if(vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]==-1)
+						if(vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]==-1)
 						{
-							vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]=vertices.size();
+							vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]=vertices.size();
 //							verts[vertnumber].p.x=tp[ii][0];
 //							verts[vertnumber].p.y=tp[ii][1];
 //							verts[vertnumber].p.z=tp[ii][2];
@@ -750,9 +829,9 @@ public void marchingcube(int stype) {
 //					faces[facenumber].b=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
 //					faces[facenumber++].c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
                                         FaceInfo face = new FaceInfo();
-                                        face.a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
-					face.b=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
-					face.c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
+                                        face.a=vertseq[vp.index(tp[0][0],tp[0][1],tp[0][2])];
+					face.b=vertseq[vp.index(tp[1][0],tp[1][1],tp[1][2])];
+					face.c=vertseq[vp.index(tp[2][0],tp[2][1],tp[2][2])];
                                         faceList.add(face);
 
 
@@ -760,35 +839,35 @@ public void marchingcube(int stype) {
 //					faces[facenumber].b=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
 //					faces[facenumber++].c=vertseq[tp[3][0]][tp[3][1]][tp[3][2]];
                                         face = new FaceInfo();
-                                        face.a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
-					face.b=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
-					face.c=vertseq[tp[3][0]][tp[3][1]][tp[3][2]];
+                                        face.a=vertseq[vp.index(tp[0][0],tp[0][1],tp[0][2])];
+					face.b=vertseq[vp.index(tp[2][0],tp[2][1],tp[2][2])];
+					face.c=vertseq[vp.index(tp[3][0],tp[3][1],tp[3][2])];
                                         faceList.add(face);
 				}
-				else if((vp[i][j][k].isdone && vp[i+1][j][k].isdone && vp[i+1][j][k+1].isdone)
-					||( vp[i+1][j][k].isdone && vp[i+1][j][k+1].isdone && vp[i][j][k+1].isdone)
-					||( vp[i+1][j][k+1].isdone && vp[i][j][k+1].isdone && vp[i][j][k].isdone)
-					||(vp[i][j][k+1].isdone && vp[i][j][k].isdone && vp[i+1][j][k].isdone))
+				else if((vp.isDone(i,j,k) && vp.isDone(i+1,j,k) && vp.isDone(i+1,j,k+1))
+					||( vp.isDone(i+1,j,k) && vp.isDone(i+1,j,k+1) && vp.isDone(i,j,k+1))
+					||( vp.isDone(i+1,j,k+1) && vp.isDone(i,j,k+1) && vp.isDone(i,j,k))
+					||(vp.isDone(i,j,k+1) && vp.isDone(i,j,k) && vp.isDone(i+1,j,k)))
 				{
-					if(vp[i][j][k].isdone && vp[i+1][j][k].isdone && vp[i+1][j][k+1].isdone)
+					if(vp.isDone(i,j,k) && vp.isDone(i+1,j,k) && vp.isDone(i+1,j,k+1))
 					{
 						tp[0][0]=i;tp[0][1]=j;tp[0][2]=k;
 						tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k;
 						tp[2][0]=i+1;tp[2][1]=j;tp[2][2]=k+1;
 					}
-					else if( vp[i+1][j][k].isdone && vp[i+1][j][k+1].isdone && vp[i][j][k+1].isdone)
+					else if( vp.isDone(i+1,j,k) && vp.isDone(i+1,j,k+1) && vp.isDone(i,j,k+1))
 					{
 						tp[0][0]=i+1;tp[0][1]=j;tp[0][2]=k;
 						tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k+1;
 						tp[2][0]=i;tp[2][1]=j;tp[2][2]=k+1;
 					}
-					else if( vp[i+1][j][k+1].isdone && vp[i][j][k+1].isdone && vp[i][j][k].isdone)
+					else if( vp.isDone(i+1,j,k+1) && vp.isDone(i,j,k+1) && vp.isDone(i,j,k))
 					{
 						tp[0][0]=i+1;tp[0][1]=j;tp[0][2]=k+1;
 						tp[1][0]=i;tp[1][1]=j;tp[1][2]=k+1;
 						tp[2][0]=i;tp[2][1]=j;tp[2][2]=k;
 					}
-					else if(vp[i][j][k+1].isdone && vp[i][j][k].isdone && vp[i+1][j][k].isdone)
+					else if(vp.isDone(i,j,k+1) && vp.isDone(i,j,k) && vp.isDone(i+1,j,k))
 					{
 						tp[0][0]=i;tp[0][1]=j;tp[0][2]=k+1;
 						tp[1][0]=i;tp[1][1]=j;tp[1][2]=k;
@@ -796,9 +875,9 @@ public void marchingcube(int stype) {
 					}
 					for(ii=0;ii<3;ii++)
 					{
-						if(vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]==-1)
+						if(vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]==-1)
 						{
-							vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]=vertices.size();
+							vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]=vertices.size();
 //							verts[vertnumber].p.x=tp[ii][0];
 //							verts[vertnumber].p.y=tp[ii][1];
 //							verts[vertnumber].p.z=tp[ii][2];
@@ -814,9 +893,9 @@ public void marchingcube(int stype) {
 //					faces[facenumber].b=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
 //					faces[facenumber++].c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
                                         FaceInfo face = new FaceInfo();
-                                        face.a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
-					face.b=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
-					face.c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
+                                        face.a=vertseq[vp.index(tp[0][0],tp[0][1],tp[0][2])];
+					face.b=vertseq[vp.index(tp[1][0],tp[1][1],tp[1][2])];
+					face.c=vertseq[vp.index(tp[2][0],tp[2][1],tp[2][2])];
                                         faceList.add(face);
 				}
 
@@ -830,8 +909,8 @@ public void marchingcube(int stype) {
 		{
 			for(k=0;k<1;k++)
 			{
-				if(vp[i][j][k].isdone && vp[i+1][j][k].isdone && vp[i+1][j+1][k].isdone
-					&& vp[i][j+1][k].isdone)
+				if(vp.isDone(i,j,k) && vp.isDone(i+1,j,k) && vp.isDone(i+1,j+1,k)
+					&& vp.isDone(i,j+1,k))
 				{
 					tp[0][0]=i;tp[0][1]=j;tp[0][2]=k;
 					tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k;
@@ -839,9 +918,9 @@ public void marchingcube(int stype) {
 					tp[3][0]=i;tp[3][1]=j+1;tp[3][2]=k;
 					for(ii=0;ii<4;ii++)
 					{
-						if(vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]==-1)
+						if(vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]==-1)
 						{
-							vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]=vertices.size();
+							vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]=vertices.size();
 //							verts[vertnumber].p.x=tp[ii][0];
 //							verts[vertnumber].p.y=tp[ii][1];
 //							verts[vertnumber].p.z=tp[ii][2];
@@ -857,44 +936,44 @@ public void marchingcube(int stype) {
 //					faces[facenumber].c=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
 //					faces[facenumber++].b=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
                                         FaceInfo face = new FaceInfo();
-                                        face.a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
-					face.c=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
-					face.b=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
+                                        face.a=vertseq[vp.index(tp[0][0],tp[0][1],tp[0][2])];
+					face.c=vertseq[vp.index(tp[1][0],tp[1][1],tp[1][2])];
+					face.b=vertseq[vp.index(tp[2][0],tp[2][1],tp[2][2])];
                                         faceList.add(face);
 
 //					faces[facenumber].a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
 //					faces[facenumber].c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
 //					faces[facenumber++].b=vertseq[tp[3][0]][tp[3][1]][tp[3][2]];
                                         face = new FaceInfo();
-                                        face.a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
-					face.c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
-					face.b=vertseq[tp[3][0]][tp[3][1]][tp[3][2]];
+                                        face.a=vertseq[vp.index(tp[0][0],tp[0][1],tp[0][2])];
+					face.c=vertseq[vp.index(tp[2][0],tp[2][1],tp[2][2])];
+					face.b=vertseq[vp.index(tp[3][0],tp[3][1],tp[3][2])];
                                         faceList.add(face);
 				}
-				else if((vp[i][j][k].isdone && vp[i+1][j][k].isdone && vp[i+1][j+1][k].isdone)
-					||( vp[i+1][j][k].isdone && vp[i+1][j+1][k].isdone && vp[i][j+1][k].isdone)
-					||( vp[i+1][j+1][k].isdone && vp[i][j+1][k].isdone && vp[i][j][k].isdone)
-					||(vp[i][j+1][k].isdone && vp[i][j][k].isdone && vp[i+1][j][k].isdone))
+				else if((vp.isDone(i,j,k) && vp.isDone(i+1,j,k) && vp.isDone(i+1,j+1,k))
+					||( vp.isDone(i+1,j,k) && vp.isDone(i+1,j+1,k) && vp.isDone(i,j+1,k))
+					||( vp.isDone(i+1,j+1,k) && vp.isDone(i,j+1,k) && vp.isDone(i,j,k))
+					||(vp.isDone(i,j+1,k) && vp.isDone(i,j,k) && vp.isDone(i+1,j,k)))
 				{
-					if(vp[i][j][k].isdone && vp[i+1][j][k].isdone && vp[i+1][j+1][k].isdone)
+					if(vp.isDone(i,j,k) && vp.isDone(i+1,j,k) && vp.isDone(i+1,j+1,k))
 					{
 						tp[0][0]=i;tp[0][1]=j;tp[0][2]=k;
 						tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k;
 						tp[2][0]=i+1;tp[2][1]=j+1;tp[2][2]=k;
 					}
-					else if( vp[i+1][j][k].isdone && vp[i+1][j+1][k].isdone && vp[i][j+1][k].isdone)
+					else if( vp.isDone(i+1,j,k) && vp.isDone(i+1,j+1,k) && vp.isDone(i,j+1,k))
 					{
 						tp[0][0]=i+1;tp[0][1]=j;tp[0][2]=k;
 						tp[1][0]=i+1;tp[1][1]=j+1;tp[1][2]=k;
 						tp[2][0]=i;tp[2][1]=j+1;tp[2][2]=k;
 					}
-					else if( vp[i+1][j+1][k].isdone && vp[i][j+1][k].isdone && vp[i][j][k].isdone)
+					else if( vp.isDone(i+1,j+1,k) && vp.isDone(i,j+1,k) && vp.isDone(i,j,k))
 					{
 						tp[0][0]=i+1;tp[0][1]=j+1;tp[0][2]=k;
 						tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k;
 						tp[2][0]=i;tp[2][1]=j;tp[2][2]=k;
 					}
-					else if(vp[i][j+1][k].isdone && vp[i][j][k].isdone && vp[i+1][j][k].isdone)
+					else if(vp.isDone(i,j+1,k) && vp.isDone(i,j,k) && vp.isDone(i+1,j,k))
 					{
 						tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k;
 						tp[1][0]=i;tp[1][1]=j;tp[1][2]=k;
@@ -902,9 +981,9 @@ public void marchingcube(int stype) {
 					}
 					for(ii=0;ii<3;ii++)
 					{
-						if(vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]==-1)
+						if(vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]==-1)
 						{
-							vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]=vertices.size();
+							vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]=vertices.size();
 //							verts[vertnumber].p.x=tp[ii][0];
 //							verts[vertnumber].p.y=tp[ii][1];
 //							verts[vertnumber].p.z=tp[ii][2];
@@ -920,9 +999,9 @@ public void marchingcube(int stype) {
 //					faces[facenumber].c=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
 //					faces[facenumber++].b=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
                                         FaceInfo face = new FaceInfo();
-                                        face.a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
-					face.c=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
-					face.b=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
+                                        face.a=vertseq[vp.index(tp[0][0],tp[0][1],tp[0][2])];
+					face.c=vertseq[vp.index(tp[1][0],tp[1][1],tp[1][2])];
+					face.b=vertseq[vp.index(tp[2][0],tp[2][1],tp[2][2])];
                                         faceList.add(face);
 				}
 
@@ -936,8 +1015,8 @@ public void marchingcube(int stype) {
 		{
 			for(k=0;k<pheight-1;k++)
 			{
-				if(vp[i][j][k].isdone && vp[i][j+1][k].isdone && vp[i][j+1][k+1].isdone
-					&& vp[i][j][k+1].isdone)
+				if(vp.isDone(i,j,k) && vp.isDone(i,j+1,k) && vp.isDone(i,j+1,k+1)
+					&& vp.isDone(i,j,k+1))
 				{
 					tp[0][0]=i;tp[0][1]=j;tp[0][2]=k;
 					tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k;
@@ -945,9 +1024,9 @@ public void marchingcube(int stype) {
 					tp[3][0]=i;tp[3][1]=j;tp[3][2]=k+1;
 					for(ii=0;ii<4;ii++)
 					{
-						if(vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]==-1)
+						if(vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]==-1)
 						{
-							vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]=vertices.size();
+							vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]=vertices.size();
 //							verts[vertnumber].p.x=tp[ii][0];
 //							verts[vertnumber].p.y=tp[ii][1];
 //							verts[vertnumber].p.z=tp[ii][2];
@@ -963,44 +1042,44 @@ public void marchingcube(int stype) {
 //					faces[facenumber].b=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
 //					faces[facenumber++].c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
                                         FaceInfo face = new FaceInfo();
-                                        face.a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
-					face.b=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
-					face.c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
+                                        face.a=vertseq[vp.index(tp[0][0],tp[0][1],tp[0][2])];
+					face.b=vertseq[vp.index(tp[1][0],tp[1][1],tp[1][2])];
+					face.c=vertseq[vp.index(tp[2][0],tp[2][1],tp[2][2])];
                                         faceList.add(face);
 
 //					faces[facenumber].a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
 //					faces[facenumber].b=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
 //					faces[facenumber++].c=vertseq[tp[3][0]][tp[3][1]][tp[3][2]];
                                         face = new FaceInfo();
-                                        face.a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
-					face.b=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
-					face.c=vertseq[tp[3][0]][tp[3][1]][tp[3][2]];
+                                        face.a=vertseq[vp.index(tp[0][0],tp[0][1],tp[0][2])];
+					face.b=vertseq[vp.index(tp[2][0],tp[2][1],tp[2][2])];
+					face.c=vertseq[vp.index(tp[3][0],tp[3][1],tp[3][2])];
                                         faceList.add(face);
 				}
-				else if((vp[i][j][k].isdone && vp[i][j+1][k].isdone && vp[i][j+1][k+1].isdone)
-					||( vp[i][j+1][k].isdone && vp[i][j+1][k+1].isdone && vp[i][j][k+1].isdone)
-					||( vp[i][j+1][k+1].isdone && vp[i][j][k+1].isdone && vp[i][j][k].isdone)
-					||(vp[i][j][k+1].isdone && vp[i][j][k].isdone && vp[i][j+1][k].isdone))
+				else if((vp.isDone(i,j,k) && vp.isDone(i,j+1,k) && vp.isDone(i,j+1,k+1))
+					||( vp.isDone(i,j+1,k) && vp.isDone(i,j+1,k+1) && vp.isDone(i,j,k+1))
+					||( vp.isDone(i,j+1,k+1) && vp.isDone(i,j,k+1) && vp.isDone(i,j,k))
+					||(vp.isDone(i,j,k+1) && vp.isDone(i,j,k) && vp.isDone(i,j+1,k)))
 				{
-					if(vp[i][j][k].isdone && vp[i][j+1][k].isdone && vp[i][j+1][k+1].isdone)
+					if(vp.isDone(i,j,k) && vp.isDone(i,j+1,k) && vp.isDone(i,j+1,k+1))
 					{
 						tp[0][0]=i;tp[0][1]=j;tp[0][2]=k;
 						tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k;
 						tp[2][0]=i;tp[2][1]=j+1;tp[2][2]=k+1;
 					}
-					else if( vp[i][j+1][k].isdone && vp[i][j+1][k+1].isdone && vp[i][j][k+1].isdone)
+					else if( vp.isDone(i,j+1,k) && vp.isDone(i,j+1,k+1) && vp.isDone(i,j,k+1))
 					{
 						tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k;
 						tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k+1;
 						tp[2][0]=i;tp[2][1]=j;tp[2][2]=k+1;
 					}
-					else if( vp[i][j+1][k+1].isdone && vp[i][j][k+1].isdone && vp[i][j][k].isdone)
+					else if( vp.isDone(i,j+1,k+1) && vp.isDone(i,j,k+1) && vp.isDone(i,j,k))
 					{
 						tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k+1;
 						tp[1][0]=i;tp[1][1]=j;tp[1][2]=k+1;
 						tp[2][0]=i;tp[2][1]=j;tp[2][2]=k;
 					}
-					else if(vp[i][j][k+1].isdone && vp[i][j][k].isdone && vp[i][j+1][k].isdone)
+					else if(vp.isDone(i,j,k+1) && vp.isDone(i,j,k) && vp.isDone(i,j+1,k))
 					{
 						tp[0][0]=i;tp[0][1]=j;tp[0][2]=k+1;
 						tp[1][0]=i;tp[1][1]=j;tp[1][2]=k;
@@ -1008,9 +1087,9 @@ public void marchingcube(int stype) {
 					}
 					for(ii=0;ii<3;ii++)
 					{
-						if(vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]==-1)
+						if(vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]==-1)
 						{
-							vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]=vertices.size();
+							vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]=vertices.size();
 //							verts[vertnumber].p.x=tp[ii][0];
 //							verts[vertnumber].p.y=tp[ii][1];
 //							verts[vertnumber].p.z=tp[ii][2];
@@ -1026,9 +1105,9 @@ public void marchingcube(int stype) {
 //					faces[facenumber].b=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
 //					faces[facenumber++].c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
                                         FaceInfo face = new FaceInfo();
-                                        face.a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
-					face.b=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
-					face.c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
+                                        face.a=vertseq[vp.index(tp[0][0],tp[0][1],tp[0][2])];
+					face.b=vertseq[vp.index(tp[1][0],tp[1][1],tp[1][2])];
+					face.c=vertseq[vp.index(tp[2][0],tp[2][1],tp[2][2])];
                                         faceList.add(face);
 				}
 
@@ -1042,8 +1121,8 @@ public void marchingcube(int stype) {
 		{
 			for(k=0;k<pheight-1;k++)
 			{
-				if(vp[i][j][k].isdone && vp[i+1][j][k].isdone && vp[i+1][j][k+1].isdone
-					&& vp[i][j][k+1].isdone)
+				if(vp.isDone(i,j,k) && vp.isDone(i+1,j,k) && vp.isDone(i+1,j,k+1)
+					&& vp.isDone(i,j,k+1))
 				{
 					tp[0][0]=i;tp[0][1]=j;tp[0][2]=k;
 					tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k;
@@ -1051,9 +1130,9 @@ public void marchingcube(int stype) {
 					tp[3][0]=i;tp[3][1]=j;tp[3][2]=k+1;
 					for(ii=0;ii<4;ii++)
 					{
-						if(vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]==-1)
+						if(vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]==-1)
 						{
-							vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]=vertices.size();
+							vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]=vertices.size();
 //							verts[vertnumber].p.x=tp[ii][0];
 //							verts[vertnumber].p.y=tp[ii][1];
 //							verts[vertnumber].p.z=tp[ii][2];
@@ -1069,44 +1148,44 @@ public void marchingcube(int stype) {
 //					faces[facenumber].c=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
 //					faces[facenumber++].b=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
                                         FaceInfo face = new FaceInfo();
-                                        face.a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
-					face.c=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
-					face.b=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
+                                        face.a=vertseq[vp.index(tp[0][0],tp[0][1],tp[0][2])];
+					face.c=vertseq[vp.index(tp[1][0],tp[1][1],tp[1][2])];
+					face.b=vertseq[vp.index(tp[2][0],tp[2][1],tp[2][2])];
                                         faceList.add(face);
 
 //					faces[facenumber].a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
 //					faces[facenumber].c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
 //					faces[facenumber++].b=vertseq[tp[3][0]][tp[3][1]][tp[3][2]];
                                         face = new FaceInfo();
-                                        face.a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
-					face.c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
-					face.b=vertseq[tp[3][0]][tp[3][1]][tp[3][2]];
+                                        face.a=vertseq[vp.index(tp[0][0],tp[0][1],tp[0][2])];
+					face.c=vertseq[vp.index(tp[2][0],tp[2][1],tp[2][2])];
+					face.b=vertseq[vp.index(tp[3][0],tp[3][1],tp[3][2])];
                                         faceList.add(face);
 				}
-				else if((vp[i][j][k].isdone && vp[i+1][j][k].isdone && vp[i+1][j][k+1].isdone)
-					||( vp[i+1][j][k].isdone && vp[i+1][j][k+1].isdone && vp[i][j][k+1].isdone)
-					||( vp[i+1][j][k+1].isdone && vp[i][j][k+1].isdone && vp[i][j][k].isdone)
-					||(vp[i][j][k+1].isdone && vp[i][j][k].isdone && vp[i+1][j][k].isdone))
+				else if((vp.isDone(i,j,k) && vp.isDone(i+1,j,k) && vp.isDone(i+1,j,k+1))
+					||( vp.isDone(i+1,j,k) && vp.isDone(i+1,j,k+1) && vp.isDone(i,j,k+1))
+					||( vp.isDone(i+1,j,k+1) && vp.isDone(i,j,k+1) && vp.isDone(i,j,k))
+					||(vp.isDone(i,j,k+1) && vp.isDone(i,j,k) && vp.isDone(i+1,j,k)))
 				{
-					if(vp[i][j][k].isdone && vp[i+1][j][k].isdone && vp[i+1][j][k+1].isdone)
+					if(vp.isDone(i,j,k) && vp.isDone(i+1,j,k) && vp.isDone(i+1,j,k+1))
 					{
 						tp[0][0]=i;tp[0][1]=j;tp[0][2]=k;
 						tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k;
 						tp[2][0]=i+1;tp[2][1]=j;tp[2][2]=k+1;
 					}
-					else if( vp[i+1][j][k].isdone && vp[i+1][j][k+1].isdone && vp[i][j][k+1].isdone)
+					else if( vp.isDone(i+1,j,k) && vp.isDone(i+1,j,k+1) && vp.isDone(i,j,k+1))
 					{
 						tp[0][0]=i+1;tp[0][1]=j;tp[0][2]=k;
 						tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k+1;
 						tp[2][0]=i;tp[2][1]=j;tp[2][2]=k+1;
 					}
-					else if( vp[i+1][j][k+1].isdone && vp[i][j][k+1].isdone && vp[i][j][k].isdone)
+					else if( vp.isDone(i+1,j,k+1) && vp.isDone(i,j,k+1) && vp.isDone(i,j,k))
 					{
 						tp[0][0]=i+1;tp[0][1]=j;tp[0][2]=k+1;
 						tp[1][0]=i;tp[1][1]=j;tp[1][2]=k+1;
 						tp[2][0]=i;tp[2][1]=j;tp[2][2]=k;
 					}
-					else if(vp[i][j][k+1].isdone && vp[i][j][k].isdone && vp[i+1][j][k].isdone)
+					else if(vp.isDone(i,j,k+1) && vp.isDone(i,j,k) && vp.isDone(i+1,j,k))
 					{
 						tp[0][0]=i;tp[0][1]=j;tp[0][2]=k+1;
 						tp[1][0]=i;tp[1][1]=j;tp[1][2]=k;
@@ -1114,9 +1193,9 @@ public void marchingcube(int stype) {
 					}
 					for(ii=0;ii<3;ii++)
 					{
-						if(vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]==-1)
+						if(vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]==-1)
 						{
-							vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]=vertices.size();
+							vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]=vertices.size();
 //							verts[vertnumber].p.x=tp[ii][0];
 //							verts[vertnumber].p.y=tp[ii][1];
 //							verts[vertnumber].p.z=tp[ii][2];
@@ -1132,9 +1211,9 @@ public void marchingcube(int stype) {
 //					faces[facenumber].c=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
 //					faces[facenumber++].b=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
                                         FaceInfo face = new FaceInfo();
-                                        face.a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
-					face.c=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
-					face.b=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
+                                        face.a=vertseq[vp.index(tp[0][0],tp[0][1],tp[0][2])];
+					face.c=vertseq[vp.index(tp[1][0],tp[1][1],tp[1][2])];
+					face.b=vertseq[vp.index(tp[2][0],tp[2][1],tp[2][2])];
                                         faceList.add(face);
 				}
 
@@ -1148,8 +1227,8 @@ public void marchingcube(int stype) {
 		{
 			for(k=pheight-1;k<pheight;k++)
 			{
-				if(vp[i][j][k].isdone && vp[i+1][j][k].isdone && vp[i+1][j+1][k].isdone
-					&& vp[i][j+1][k].isdone)
+				if(vp.isDone(i,j,k) && vp.isDone(i+1,j,k) && vp.isDone(i+1,j+1,k)
+					&& vp.isDone(i,j+1,k))
 				{
 					tp[0][0]=i;tp[0][1]=j;tp[0][2]=k;
 					tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k;
@@ -1157,9 +1236,9 @@ public void marchingcube(int stype) {
 					tp[3][0]=i;tp[3][1]=j+1;tp[3][2]=k;
 					for(ii=0;ii<4;ii++)
 					{
-						if(vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]==-1)
+						if(vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]==-1)
 						{
-							vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]=vertices.size();
+							vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]=vertices.size();
 //							verts[vertnumber].p.x=tp[ii][0];
 //							verts[vertnumber].p.y=tp[ii][1];
 //							verts[vertnumber].p.z=tp[ii][2];
@@ -1175,45 +1254,45 @@ public void marchingcube(int stype) {
 //					faces[facenumber].b=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
 //					faces[facenumber++].c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
                                         FaceInfo face = new FaceInfo();
-                                        face.a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
-					face.b=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
-					face.c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
+                                        face.a=vertseq[vp.index(tp[0][0],tp[0][1],tp[0][2])];
+					face.b=vertseq[vp.index(tp[1][0],tp[1][1],tp[1][2])];
+					face.c=vertseq[vp.index(tp[2][0],tp[2][1],tp[2][2])];
                                         faceList.add(face);
 
 //                  			faces[facenumber].a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
 //					faces[facenumber].b=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
 //					faces[facenumber++].c=vertseq[tp[3][0]][tp[3][1]][tp[3][2]];
                                         face = new FaceInfo();
-                                        face.a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
-					face.b=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
-					face.c=vertseq[tp[3][0]][tp[3][1]][tp[3][2]];
+                                        face.a=vertseq[vp.index(tp[0][0],tp[0][1],tp[0][2])];
+					face.b=vertseq[vp.index(tp[2][0],tp[2][1],tp[2][2])];
+					face.c=vertseq[vp.index(tp[3][0],tp[3][1],tp[3][2])];
                                         faceList.add(face);
 
 				}
-				else if((vp[i][j][k].isdone && vp[i+1][j][k].isdone && vp[i+1][j+1][k].isdone)
-					||( vp[i+1][j][k].isdone && vp[i+1][j+1][k].isdone && vp[i][j+1][k].isdone)
-					||( vp[i+1][j+1][k].isdone && vp[i][j+1][k].isdone && vp[i][j][k].isdone)
-					||(vp[i][j+1][k].isdone && vp[i][j][k].isdone && vp[i+1][j][k].isdone))
+				else if((vp.isDone(i,j,k) && vp.isDone(i+1,j,k) && vp.isDone(i+1,j+1,k))
+					||( vp.isDone(i+1,j,k) && vp.isDone(i+1,j+1,k) && vp.isDone(i,j+1,k))
+					||( vp.isDone(i+1,j+1,k) && vp.isDone(i,j+1,k) && vp.isDone(i,j,k))
+					||(vp.isDone(i,j+1,k) && vp.isDone(i,j,k) && vp.isDone(i+1,j,k)))
 				{
-					if(vp[i][j][k].isdone && vp[i+1][j][k].isdone && vp[i+1][j+1][k].isdone)
+					if(vp.isDone(i,j,k) && vp.isDone(i+1,j,k) && vp.isDone(i+1,j+1,k))
 					{
 						tp[0][0]=i;tp[0][1]=j;tp[0][2]=k;
 						tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k;
 						tp[2][0]=i+1;tp[2][1]=j+1;tp[2][2]=k;
 					}
-					else if( vp[i+1][j][k].isdone && vp[i+1][j+1][k].isdone && vp[i][j+1][k].isdone)
+					else if( vp.isDone(i+1,j,k) && vp.isDone(i+1,j+1,k) && vp.isDone(i,j+1,k))
 					{
 						tp[0][0]=i+1;tp[0][1]=j;tp[0][2]=k;
 						tp[1][0]=i+1;tp[1][1]=j+1;tp[1][2]=k;
 						tp[2][0]=i;tp[2][1]=j+1;tp[2][2]=k;
 					}
-					else if( vp[i+1][j+1][k].isdone && vp[i][j+1][k].isdone && vp[i][j][k].isdone)
+					else if( vp.isDone(i+1,j+1,k) && vp.isDone(i,j+1,k) && vp.isDone(i,j,k))
 					{
 						tp[0][0]=i+1;tp[0][1]=j+1;tp[0][2]=k;
 						tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k;
 						tp[2][0]=i;tp[2][1]=j;tp[2][2]=k;
 					}
-					else if(vp[i][j+1][k].isdone && vp[i][j][k].isdone && vp[i+1][j][k].isdone)
+					else if(vp.isDone(i,j+1,k) && vp.isDone(i,j,k) && vp.isDone(i+1,j,k))
 					{
 						tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k;
 						tp[1][0]=i;tp[1][1]=j;tp[1][2]=k;
@@ -1221,9 +1300,9 @@ public void marchingcube(int stype) {
 					}
 					for(ii=0;ii<3;ii++)
 					{
-						if(vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]==-1)
+						if(vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]==-1)
 						{
-							vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]=vertices.size();
+							vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]=vertices.size();
 //							verts[vertnumber].p.x=tp[ii][0];
 //							verts[vertnumber].p.y=tp[ii][1];
 //							verts[vertnumber].p.z=tp[ii][2];
@@ -1239,9 +1318,9 @@ public void marchingcube(int stype) {
 //					faces[facenumber].b=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
 //					faces[facenumber++].c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
                                         FaceInfo face = new FaceInfo();
-                                        face.a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
-					face.b=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
-					face.c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
+                                        face.a=vertseq[vp.index(tp[0][0],tp[0][1],tp[0][2])];
+					face.b=vertseq[vp.index(tp[1][0],tp[1][1],tp[1][2])];
+					face.c=vertseq[vp.index(tp[2][0],tp[2][1],tp[2][2])];
                                         faceList.add(face);
 				}
 
@@ -1263,7 +1342,7 @@ public void marchingcube(int stype) {
 					{
 						for( kk=0;kk<2;kk++)
 						{
-							if(vp[i+ii][j+jj][k+kk].isdone)
+							if(vp.isDone(i+ii,j+jj,k+kk))
 								sumtype++;
 						}
 					}
@@ -1308,170 +1387,170 @@ public void marchingcube(int stype) {
 
 				else if(sumtype==3)
 				{
-					if((vp[i][j][k].isdone && vp[i+1][j][k].isdone && vp[i+1][j+1][k].isdone)
-					   ||(vp[i][j][k].isdone && vp[i][j+1][k].isdone && vp[i+1][j+1][k].isdone)
-					   ||(vp[i][j+1][k].isdone && vp[i+1][j][k].isdone && vp[i+1][j+1][k].isdone)
-					   ||(vp[i][j][k].isdone && vp[i][j+1][k].isdone && vp[i+1][j][k].isdone)
-					   ||(vp[i][j][k+1].isdone && vp[i+1][j][k+1].isdone && vp[i+1][j+1][k+1].isdone)
-					   ||(vp[i][j][k+1].isdone && vp[i][j+1][k+1].isdone && vp[i+1][j+1][k+1].isdone)
-					   ||(vp[i][j+1][k+1].isdone && vp[i+1][j][k+1].isdone && vp[i+1][j+1][k+1].isdone)
-					   ||(vp[i][j][k+1].isdone && vp[i][j+1][k+1].isdone && vp[i+1][j][k+1].isdone)
-					   ||(vp[i][j][k].isdone && vp[i+1][j][k].isdone && vp[i+1][j][k+1].isdone)
-					   ||(vp[i+1][j][k].isdone && vp[i+1][j][k+1].isdone && vp[i][j][k+1].isdone)
-					   ||(vp[i][j][k].isdone && vp[i+1][j][k+1].isdone && vp[i][j][k+1].isdone)
-					   ||(vp[i][j][k].isdone && vp[i+1][j][k].isdone && vp[i][j][k+1].isdone)
-					   ||(vp[i+1][j+1][k].isdone && vp[i+1][j][k].isdone && vp[i+1][j+1][k+1].isdone)
-					   ||(vp[i+1][j+1][k].isdone && vp[i+1][j][k+1].isdone && vp[i+1][j+1][k+1].isdone)
-					   ||(vp[i+1][j][k].isdone && vp[i+1][j][k+1].isdone && vp[i+1][j+1][k+1].isdone)
-					   ||(vp[i+1][j+1][k].isdone && vp[i+1][j][k].isdone && vp[i+1][j][k+1].isdone)
-					   ||(vp[i+1][j+1][k].isdone && vp[i][j+1][k].isdone && vp[i][j+1][k+1].isdone)
-					   ||(vp[i][j+1][k].isdone && vp[i][j+1][k+1].isdone && vp[i+1][j+1][k+1].isdone)
-					   ||(vp[i+1][j+1][k].isdone && vp[i][j+1][k+1].isdone && vp[i+1][j+1][k+1].isdone)
-					   ||(vp[i+1][j+1][k].isdone && vp[i][j+1][k].isdone && vp[i+1][j+1][k+1].isdone)
-					   ||(vp[i][j][k].isdone && vp[i][j+1][k].isdone && vp[i][j][k+1].isdone)
-					   ||(vp[i][j][k].isdone && vp[i][j][k+1].isdone && vp[i][j+1][k+1].isdone)
-					   ||(vp[i][j][k+1].isdone && vp[i][j+1][k].isdone && vp[i][j+1][k+1].isdone)
-					   ||(vp[i][j][k].isdone && vp[i][j+1][k].isdone && vp[i][j+1][k+1].isdone))
-					{
-						if(vp[i][j][k].isdone && vp[i+1][j][k].isdone && vp[i+1][j+1][k].isdone)
+					if((vp.isDone(i,j,k) && vp.isDone(i+1,j,k) && vp.isDone(i+1,j+1,k))
+					   ||(vp.isDone(i,j,k) && vp.isDone(i,j+1,k) && vp.isDone(i+1,j+1,k))
+					   ||(vp.isDone(i,j+1,k) && vp.isDone(i+1,j,k) && vp.isDone(i+1,j+1,k))
+					   ||(vp.isDone(i,j,k) && vp.isDone(i,j+1,k) && vp.isDone(i+1,j,k))
+					   ||(vp.isDone(i,j,k+1) && vp.isDone(i+1,j,k+1) && vp.isDone(i+1,j+1,k+1))
+					   ||(vp.isDone(i,j,k+1) && vp.isDone(i,j+1,k+1) && vp.isDone(i+1,j+1,k+1))
+					   ||(vp.isDone(i,j+1,k+1) && vp.isDone(i+1,j,k+1) && vp.isDone(i+1,j+1,k+1))
+					   ||(vp.isDone(i,j,k+1) && vp.isDone(i,j+1,k+1) && vp.isDone(i+1,j,k+1))
+					   ||(vp.isDone(i,j,k) && vp.isDone(i+1,j,k) && vp.isDone(i+1,j,k+1))
+					   ||(vp.isDone(i+1,j,k) && vp.isDone(i+1,j,k+1) && vp.isDone(i,j,k+1))
+					   ||(vp.isDone(i,j,k) && vp.isDone(i+1,j,k+1) && vp.isDone(i,j,k+1))
+					   ||(vp.isDone(i,j,k) && vp.isDone(i+1,j,k) && vp.isDone(i,j,k+1))
+					   ||(vp.isDone(i+1,j+1,k) && vp.isDone(i+1,j,k) && vp.isDone(i+1,j+1,k+1))
+					   ||(vp.isDone(i+1,j+1,k) && vp.isDone(i+1,j,k+1) && vp.isDone(i+1,j+1,k+1))
+					   ||(vp.isDone(i+1,j,k) && vp.isDone(i+1,j,k+1) && vp.isDone(i+1,j+1,k+1))
+					   ||(vp.isDone(i+1,j+1,k) && vp.isDone(i+1,j,k) && vp.isDone(i+1,j,k+1))
+					   ||(vp.isDone(i+1,j+1,k) && vp.isDone(i,j+1,k) && vp.isDone(i,j+1,k+1))
+					   ||(vp.isDone(i,j+1,k) && vp.isDone(i,j+1,k+1) && vp.isDone(i+1,j+1,k+1))
+					   ||(vp.isDone(i+1,j+1,k) && vp.isDone(i,j+1,k+1) && vp.isDone(i+1,j+1,k+1))
+					   ||(vp.isDone(i+1,j+1,k) && vp.isDone(i,j+1,k) && vp.isDone(i+1,j+1,k+1))
+					   ||(vp.isDone(i,j,k) && vp.isDone(i,j+1,k) && vp.isDone(i,j,k+1))
+					   ||(vp.isDone(i,j,k) && vp.isDone(i,j,k+1) && vp.isDone(i,j+1,k+1))
+					   ||(vp.isDone(i,j,k+1) && vp.isDone(i,j+1,k) && vp.isDone(i,j+1,k+1))
+					   ||(vp.isDone(i,j,k) && vp.isDone(i,j+1,k) && vp.isDone(i,j+1,k+1)))
+					{
+						if(vp.isDone(i,j,k) && vp.isDone(i+1,j,k) && vp.isDone(i+1,j+1,k))
 						{
 							tp[0][0]=i;tp[0][1]=j;tp[0][2]=k;
 							tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k;
 							tp[2][0]=i+1;tp[2][1]=j+1;tp[2][2]=k;
 						}//11
-						else if(vp[i][j][k].isdone && vp[i][j+1][k].isdone && vp[i+1][j+1][k].isdone)
+						else if(vp.isDone(i,j,k) && vp.isDone(i,j+1,k) && vp.isDone(i+1,j+1,k))
 						{
 							tp[0][0]=i+1;tp[0][1]=j+1;tp[0][2]=k;
 							tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k;
 							tp[2][0]=i;tp[2][1]=j;tp[2][2]=k;
 						}//12
-						else if(vp[i][j+1][k].isdone && vp[i+1][j][k].isdone&& vp[i+1][j+1][k].isdone)
+						else if(vp.isDone(i,j+1,k) && vp.isDone(i+1,j,k)&& vp.isDone(i+1,j+1,k))
 						{
 							tp[0][0]=i+1;tp[0][1]=j;tp[0][2]=k;
 							tp[1][0]=i+1;tp[1][1]=j+1;tp[1][2]=k;
 							tp[2][0]=i;tp[2][1]=j+1;tp[2][2]=k;
 						}//13
-						else if(vp[i][j][k].isdone && vp[i][j+1][k].isdone&& vp[i+1][j][k].isdone)
+						else if(vp.isDone(i,j,k) && vp.isDone(i,j+1,k)&& vp.isDone(i+1,j,k))
 						{
 							tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k;
 							tp[1][0]=i;tp[1][1]=j;tp[1][2]=k;
 							tp[2][0]=i+1;tp[2][1]=j;tp[2][2]=k;
 						}//14
-						else if(vp[i][j][k+1].isdone && vp[i+1][j][k+1].isdone&& vp[i+1][j+1][k+1].isdone)
+						else if(vp.isDone(i,j,k+1) && vp.isDone(i+1,j,k+1)&& vp.isDone(i+1,j+1,k+1))
 						{
 							tp[0][0]=i+1;tp[0][1]=j+1;tp[0][2]=k+1;
 							tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k+1;
 							tp[2][0]=i;tp[2][1]=j;tp[2][2]=k+1;
 						}//21
-						else if(vp[i][j][k+1].isdone && vp[i][j+1][k+1].isdone&& vp[i+1][j+1][k+1].isdone)
+						else if(vp.isDone(i,j,k+1) && vp.isDone(i,j+1,k+1)&& vp.isDone(i+1,j+1,k+1))
 						{
 							tp[0][0]=i;tp[0][1]=j;tp[0][2]=k+1;
 							tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k+1;
 							tp[2][0]=i+1;tp[2][1]=j+1;tp[2][2]=k+1;
 						}//22
-						else if(vp[i][j+1][k+1].isdone && vp[i+1][j][k+1].isdone&& vp[i+1][j+1][k+1].isdone)
+						else if(vp.isDone(i,j+1,k+1) && vp.isDone(i+1,j,k+1)&& vp.isDone(i+1,j+1,k+1))
 						{
 							tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k+1;
 							tp[1][0]=i+1;tp[1][1]=j+1;tp[1][2]=k+1;
 							tp[2][0]=i+1;tp[2][1]=j;tp[2][2]=k+1;
 						}//23
-						else if(vp[i][j][k+1].isdone && vp[i][j+1][k+1].isdone&& vp[i+1][j][k+1].isdone)
+						else if(vp.isDone(i,j,k+1) && vp.isDone(i,j+1,k+1)&& vp.isDone(i+1,j,k+1))
 						{
 							tp[0][0]=i+1;tp[0][1]=j;tp[0][2]=k+1;
 							tp[1][0]=i;tp[1][1]=j;tp[1][2]=k+1;
 							tp[2][0]=i;tp[2][1]=j+1;tp[2][2]=k+1;
 						}//24
-						else if(vp[i][j][k].isdone && vp[i+1][j][k].isdone&& vp[i+1][j][k+1].isdone)
+						else if(vp.isDone(i,j,k) && vp.isDone(i+1,j,k)&& vp.isDone(i+1,j,k+1))
 						{
 							tp[0][0]=i+1;tp[0][1]=j;tp[0][2]=k+1;
 							tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k;
 							tp[2][0]=i;tp[2][1]=j;tp[2][2]=k;
 						}//31
-						else if(vp[i+1][j][k].isdone && vp[i+1][j][k+1].isdone && vp[i][j][k+1].isdone)
+						else if(vp.isDone(i+1,j,k) && vp.isDone(i+1,j,k+1) && vp.isDone(i,j,k+1))
 						{
 							tp[0][0]=i;tp[0][1]=j;tp[0][2]=k+1;
 							tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k+1;
 							tp[2][0]=i+1;tp[2][1]=j;tp[2][2]=k;
 						}//32
-						else if(vp[i][j][k].isdone && vp[i+1][j][k+1].isdone && vp[i][j][k+1].isdone)
+						else if(vp.isDone(i,j,k) && vp.isDone(i+1,j,k+1) && vp.isDone(i,j,k+1))
 						{
 							tp[0][0]=i;tp[0][1]=j;tp[0][2]=k;
 							tp[1][0]=i;tp[1][1]=j;tp[1][2]=k+1;
 							tp[2][0]=i+1;tp[2][1]=j;tp[2][2]=k+1;
 						}//33
-						else if(vp[i][j][k].isdone && vp[i+1][j][k].isdone && vp[i][j][k+1].isdone)
+						else if(vp.isDone(i,j,k) && vp.isDone(i+1,j,k) && vp.isDone(i,j,k+1))
 						{
 							tp[0][0]=i+1;tp[0][1]=j;tp[0][2]=k;
 							tp[1][0]=i;tp[1][1]=j;tp[1][2]=k;
 							tp[2][0]=i;tp[2][1]=j;tp[2][2]=k+1;
 						}//34
-						else if(vp[i+1][j+1][k].isdone && vp[i+1][j][k].isdone && vp[i+1][j+1][k+1].isdone)
+						else if(vp.isDone(i+1,j+1,k) && vp.isDone(i+1,j,k) && vp.isDone(i+1,j+1,k+1))
 						{
 							tp[0][0]=i+1;tp[0][1]=j+1;tp[0][2]=k+1;
 							tp[1][0]=i+1;tp[1][1]=j+1;tp[1][2]=k;
 							tp[2][0]=i+1;tp[2][1]=j;tp[2][2]=k;
 						}//41
-						else if(vp[i+1][j+1][k].isdone && vp[i+1][j][k+1].isdone && vp[i+1][j+1][k+1].isdone)
+						else if(vp.isDone(i+1,j+1,k) && vp.isDone(i+1,j,k+1) && vp.isDone(i+1,j+1,k+1))
 						{
 							tp[0][0]=i+1;tp[0][1]=j;tp[0][2]=k+1;
 							tp[1][0]=i+1;tp[1][1]=j+1;tp[1][2]=k+1;
 							tp[2][0]=i+1;tp[2][1]=j+1;tp[2][2]=k;
 						}//42
-						else if(vp[i+1][j][k].isdone && vp[i+1][j][k+1].isdone && vp[i+1][j+1][k+1].isdone)
+						else if(vp.isDone(i+1,j,k) && vp.isDone(i+1,j,k+1) && vp.isDone(i+1,j+1,k+1))
 						{
 							tp[0][0]=i+1;tp[0][1]=j;tp[0][2]=k;
 							tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k+1;
 							tp[2][0]=i+1;tp[2][1]=j+1;tp[2][2]=k+1;
 						}//43
-						else if(vp[i+1][j+1][k].isdone && vp[i+1][j][k].isdone	&& vp[i+1][j][k+1].isdone)
+						else if(vp.isDone(i+1,j+1,k) && vp.isDone(i+1,j,k)	&& vp.isDone(i+1,j,k+1))
 						{
 							tp[0][0]=i+1;tp[0][1]=j+1;tp[0][2]=k;
 							tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k;
 							tp[2][0]=i+1;tp[2][1]=j;tp[2][2]=k+1;
 						}//44
-						else if(vp[i+1][j+1][k].isdone && vp[i][j+1][k].isdone && vp[i][j+1][k+1].isdone )
+						else if(vp.isDone(i+1,j+1,k) && vp.isDone(i,j+1,k) && vp.isDone(i,j+1,k+1) )
 						{
 							tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k+1;
 							tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k;
 							tp[2][0]=i+1;tp[2][1]=j+1;tp[2][2]=k;
 						}//51
-						else if( vp[i][j+1][k].isdone && vp[i][j+1][k+1].isdone && vp[i+1][j+1][k+1].isdone)
+						else if( vp.isDone(i,j+1,k) && vp.isDone(i,j+1,k+1) && vp.isDone(i+1,j+1,k+1))
 						{
 							tp[0][0]=i+1;tp[0][1]=j+1;tp[0][2]=k+1;
 							tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k+1;
 							tp[2][0]=i;tp[2][1]=j+1;tp[2][2]=k;
 						}//52
-						else if(vp[i+1][j+1][k].isdone && vp[i][j+1][k+1].isdone && vp[i+1][j+1][k+1].isdone)
+						else if(vp.isDone(i+1,j+1,k) && vp.isDone(i,j+1,k+1) && vp.isDone(i+1,j+1,k+1))
 						{
 							tp[0][0]=i+1;tp[0][1]=j+1;tp[0][2]=k;
 							tp[1][0]=i+1;tp[1][1]=j+1;tp[1][2]=k+1;
 							tp[2][0]=i;tp[2][1]=j+1;tp[2][2]=k+1;
 						}//53
-						else if(vp[i+1][j+1][k].isdone && vp[i][j+1][k].isdone && vp[i+1][j+1][k+1].isdone)
+						else if(vp.isDone(i+1,j+1,k) && vp.isDone(i,j+1,k) && vp.isDone(i+1,j+1,k+1))
 						{
 							tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k;
 							tp[1][0]=i+1;tp[1][1]=j+1;tp[1][2]=k;
 							tp[2][0]=i+1;tp[2][1]=j+1;tp[2][2]=k+1;
 						}//54
-						else if(vp[i][j][k].isdone && vp[i][j+1][k].isdone	&& vp[i][j][k+1].isdone )
+						else if(vp.isDone(i,j,k) && vp.isDone(i,j+1,k)	&& vp.isDone(i,j,k+1) )
 						{
 							tp[0][0]=i;tp[0][1]=j;tp[0][2]=k+1;
 							tp[1][0]=i;tp[1][1]=j;tp[1][2]=k;
 							tp[2][0]=i;tp[2][1]=j+1;tp[2][2]=k;
 						}//61
-						else if(vp[i][j][k].isdone 	&& vp[i][j][k+1].isdone && vp[i][j+1][k+1].isdone)
+						else if(vp.isDone(i,j,k) 	&& vp.isDone(i,j,k+1) && vp.isDone(i,j+1,k+1))
 						{
 							tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k+1;
 							tp[1][0]=i;tp[1][1]=j;tp[1][2]=k+1;
 							tp[2][0]=i;tp[2][1]=j;tp[2][2]=k;
 						}//62
-						else if(vp[i][j][k+1].isdone && vp[i][j+1][k].isdone && vp[i][j+1][k+1].isdone)
+						else if(vp.isDone(i,j,k+1) && vp.isDone(i,j+1,k) && vp.isDone(i,j+1,k+1))
 						{
 							tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k;
 							tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k+1;
 							tp[2][0]=i;tp[2][1]=j;tp[2][2]=k+1;
 						}//63
-						else if(vp[i][j][k].isdone && vp[i][j+1][k].isdone	&& vp[i][j+1][k+1].isdone)
+						else if(vp.isDone(i,j,k) && vp.isDone(i,j+1,k)	&& vp.isDone(i,j+1,k+1))
 						{
 							tp[0][0]=i;tp[0][1]=j;tp[0][2]=k;
 							tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k;
@@ -1479,9 +1558,9 @@ public void marchingcube(int stype) {
 						}//64
 						for(ii=0;ii<3;ii++)
 						{
-							if(vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]==-1)
+							if(vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]==-1)
 							{
-								vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]=vertices.size();
+								vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]=vertices.size();
 //								verts[vertnumber].p.x=tp[ii][0];
 //								verts[vertnumber].p.y=tp[ii][1];
 //								verts[vertnumber].p.z=tp[ii][2];
@@ -1497,29 +1576,29 @@ public void marchingcube(int stype) {
 //						faces[facenumber].b=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
 //						faces[facenumber++].c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
                                                 FaceInfo face = new FaceInfo();
-                                                face.a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
-						face.b=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
-						face.c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
+                                                face.a=vertseq[vp.index(tp[0][0],tp[0][1],tp[0][2])];
+						face.b=vertseq[vp.index(tp[1][0],tp[1][1],tp[1][2])];
+						face.c=vertseq[vp.index(tp[2][0],tp[2][1],tp[2][2])];
                                                 faceList.add(face);
 					}//no5 24
 				}//total3
 				else if(sumtype==4)
 				{
-					if((vp[i][j][k].isdone && vp[i+1][j][k].isdone
-						&& vp[i+1][j+1][k].isdone && vp[i][j+1][k].isdone)
-						|| (vp[i][j][k+1].isdone && vp[i+1][j][k+1].isdone
-						&& vp[i+1][j+1][k+1].isdone && vp[i][j+1][k+1].isdone)
-						|| (vp[i][j][k].isdone && vp[i+1][j][k].isdone
-						&& vp[i+1][j][k+1].isdone && vp[i][j][k+1].isdone)
-						|| (vp[i+1][j+1][k].isdone && vp[i+1][j][k].isdone
-						&& vp[i+1][j][k+1].isdone && vp[i+1][j+1][k+1].isdone)
-						|| (vp[i+1][j+1][k].isdone && vp[i][j+1][k].isdone
-						&& vp[i][j+1][k+1].isdone && vp[i+1][j+1][k+1].isdone)
-						|| (vp[i][j][k].isdone && vp[i][j+1][k].isdone
-						&& vp[i][j][k+1].isdone && vp[i][j+1][k+1].isdone))
-					{
-						if(vp[i][j][k].isdone && vp[i+1][j][k].isdone
-							&& vp[i+1][j+1][k].isdone && vp[i][j+1][k].isdone)
+					if((vp.isDone(i,j,k) && vp.isDone(i+1,j,k)
+						&& vp.isDone(i+1,j+1,k) && vp.isDone(i,j+1,k))
+						|| (vp.isDone(i,j,k+1) && vp.isDone(i+1,j,k+1)
+						&& vp.isDone(i+1,j+1,k+1) && vp.isDone(i,j+1,k+1))
+						|| (vp.isDone(i,j,k) && vp.isDone(i+1,j,k)
+						&& vp.isDone(i+1,j,k+1) && vp.isDone(i,j,k+1))
+						|| (vp.isDone(i+1,j+1,k) && vp.isDone(i+1,j,k)
+						&& vp.isDone(i+1,j,k+1) && vp.isDone(i+1,j+1,k+1))
+						|| (vp.isDone(i+1,j+1,k) && vp.isDone(i,j+1,k)
+						&& vp.isDone(i,j+1,k+1) && vp.isDone(i+1,j+1,k+1))
+						|| (vp.isDone(i,j,k) && vp.isDone(i,j+1,k)
+						&& vp.isDone(i,j,k+1) && vp.isDone(i,j+1,k+1)))
+					{
+						if(vp.isDone(i,j,k) && vp.isDone(i+1,j,k)
+							&& vp.isDone(i+1,j+1,k) && vp.isDone(i,j+1,k))
 						{
 							tp[0][0]=i;tp[0][1]=j;tp[0][2]=k;
 							tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k;
@@ -1527,40 +1606,40 @@ public void marchingcube(int stype) {
 							tp[3][0]=i;tp[3][1]=j+1;tp[3][2]=k;
 
 						}
-						else if (vp[i][j][k+1].isdone && vp[i+1][j][k+1].isdone
-							&& vp[i+1][j+1][k+1].isdone && vp[i][j+1][k+1].isdone)
+						else if (vp.isDone(i,j,k+1) && vp.isDone(i+1,j,k+1)
+							&& vp.isDone(i+1,j+1,k+1) && vp.isDone(i,j+1,k+1))
 						{
 							tp[0][0]=i;tp[0][1]=j;tp[0][2]=k+1;
 							tp[3][0]=i+1;tp[3][1]=j;tp[3][2]=k+1;
 							tp[2][0]=i+1;tp[2][1]=j+1;tp[2][2]=k+1;
 							tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k+1;
 						}
-						else if(vp[i][j][k].isdone && vp[i+1][j][k].isdone
-							&& vp[i+1][j][k+1].isdone && vp[i][j][k+1].isdone)
+						else if(vp.isDone(i,j,k) && vp.isDone(i+1,j,k)
+							&& vp.isDone(i+1,j,k+1) && vp.isDone(i,j,k+1))
 						{
 							tp[0][0]=i;tp[0][1]=j;tp[0][2]=k;
 							tp[3][0]=i+1;tp[3][1]=j;tp[3][2]=k;
 							tp[2][0]=i+1;tp[2][1]=j;tp[2][2]=k+1;
 							tp[1][0]=i;tp[1][1]=j;tp[1][2]=k+1;
 						}
-						else if(vp[i+1][j+1][k].isdone && vp[i+1][j][k].isdone
-							&& vp[i+1][j][k+1].isdone && vp[i+1][j+1][k+1].isdone)
+						else if(vp.isDone(i+1,j+1,k) && vp.isDone(i+1,j,k)
+							&& vp.isDone(i+1,j,k+1) && vp.isDone(i+1,j+1,k+1))
 						{
 							tp[0][0]=i+1;tp[0][1]=j;tp[0][2]=k;
 							tp[3][0]=i+1;tp[3][1]=j+1;tp[3][2]=k;
 							tp[2][0]=i+1;tp[2][1]=j+1;tp[2][2]=k+1;
 							tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k+1;
 						}
-						else if(vp[i+1][j+1][k].isdone && vp[i][j+1][k].isdone
-							&& vp[i][j+1][k+1].isdone && vp[i+1][j+1][k+1].isdone)
+						else if(vp.isDone(i+1,j+1,k) && vp.isDone(i,j+1,k)
+							&& vp.isDone(i,j+1,k+1) && vp.isDone(i+1,j+1,k+1))
 						{
 							tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k;
 							tp[1][0]=i+1;tp[1][1]=j+1;tp[1][2]=k;
 							tp[2][0]=i+1;tp[2][1]=j+1;tp[2][2]=k+1;
 							tp[3][0]=i;tp[3][1]=j+1;tp[3][2]=k+1;
 						}
-						else if(vp[i][j][k].isdone && vp[i][j+1][k].isdone
-							&& vp[i][j][k+1].isdone && vp[i][j+1][k+1].isdone)
+						else if(vp.isDone(i,j,k) && vp.isDone(i,j+1,k)
+							&& vp.isDone(i,j,k+1) && vp.isDone(i,j+1,k+1))
 						{
 							tp[0][0]=i;tp[0][1]=j;tp[0][2]=k;
 							tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k;
@@ -1569,9 +1648,9 @@ public void marchingcube(int stype) {
 						}
 						for(ii=0;ii<4;ii++)
 						{
-							if(vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]==-1)
+							if(vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]==-1)
 							{
-								vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]=vertices.size();
+								vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]=vertices.size();
 //								verts[vertnumber].p.x=tp[ii][0];
 //								verts[vertnumber].p.y=tp[ii][1];
 //								verts[vertnumber].p.z=tp[ii][2];
@@ -1587,185 +1666,185 @@ public void marchingcube(int stype) {
 //						faces[facenumber].b=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
 //						faces[facenumber++].c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
                                                 FaceInfo face = new FaceInfo();
-                                                face.a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
-						face.b=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
-						face.c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
+                                                face.a=vertseq[vp.index(tp[0][0],tp[0][1],tp[0][2])];
+						face.b=vertseq[vp.index(tp[1][0],tp[1][1],tp[1][2])];
+						face.c=vertseq[vp.index(tp[2][0],tp[2][1],tp[2][2])];
                                                 faceList.add(face);
 
 //						faces[facenumber].a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
 //						faces[facenumber].b=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
 //						faces[facenumber++].c=vertseq[tp[3][0]][tp[3][1]][tp[3][2]];
                                                 face = new FaceInfo();
-                                                face.a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
-						face.b=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
-						face.c=vertseq[tp[3][0]][tp[3][1]][tp[3][2]];
+                                                face.a=vertseq[vp.index(tp[0][0],tp[0][1],tp[0][2])];
+						face.b=vertseq[vp.index(tp[2][0],tp[2][1],tp[2][2])];
+						face.c=vertseq[vp.index(tp[3][0],tp[3][1],tp[3][2])];
                                                 faceList.add(face);
 					}//no.8 6
 
-				  else if((vp[i][j][k].isdone && vp[i+1][j][k].isdone && vp[i+1][j+1][k].isdone  && vp[i][j+1][k+1].isdone)//11
-					   ||(vp[i][j][k].isdone && vp[i][j+1][k].isdone && vp[i+1][j+1][k].isdone && vp[i+1][j][k+1].isdone)//12
-					   ||(vp[i][j+1][k].isdone && vp[i+1][j][k].isdone && vp[i+1][j+1][k].isdone && vp[i][j][k+1].isdone)//13
-					   ||(vp[i][j][k].isdone && vp[i][j+1][k].isdone && vp[i+1][j][k].isdone && vp[i+1][j+1][k+1].isdone)//14
-					   ||(vp[i][j][k+1].isdone && vp[i+1][j][k+1].isdone && vp[i+1][j+1][k+1].isdone && vp[i][j+1][k].isdone)//21
-					   ||(vp[i][j][k+1].isdone && vp[i][j+1][k+1].isdone && vp[i+1][j+1][k+1].isdone && vp[i+1][j][k].isdone)//22
-					   ||(vp[i][j+1][k+1].isdone && vp[i+1][j][k+1].isdone && vp[i+1][j+1][k+1].isdone && vp[i][j][k].isdone)//23
-					   ||(vp[i][j][k+1].isdone && vp[i][j+1][k+1].isdone && vp[i+1][j][k+1].isdone && vp[i+1][j+1][k].isdone)//24
-					   ||(vp[i][j][k].isdone && vp[i+1][j][k].isdone && vp[i+1][j][k+1].isdone && vp[i][j+1][k+1].isdone)//31
-					   ||(vp[i+1][j][k].isdone && vp[i+1][j][k+1].isdone && vp[i][j][k+1].isdone && vp[i][j+1][k].isdone)//32
-					   ||(vp[i][j][k].isdone && vp[i+1][j][k+1].isdone && vp[i][j][k+1].isdone && vp[i+1][j+1][k].isdone)//33
-					   ||(vp[i][j][k].isdone && vp[i+1][j][k].isdone && vp[i][j][k+1].isdone && vp[i+1][j+1][k+1].isdone)//34
-					   ||(vp[i+1][j+1][k].isdone && vp[i+1][j][k].isdone && vp[i+1][j+1][k+1].isdone && vp[i][j][k+1].isdone)//41
-					   ||(vp[i+1][j+1][k].isdone && vp[i+1][j][k+1].isdone && vp[i+1][j+1][k+1].isdone && vp[i][j][k].isdone)//42
-					   ||(vp[i+1][j][k].isdone && vp[i+1][j][k+1].isdone && vp[i+1][j+1][k+1].isdone && vp[i][j+1][k].isdone)//43
-					   ||(vp[i+1][j+1][k].isdone && vp[i+1][j][k].isdone && vp[i+1][j][k+1].isdone  && vp[i][j+1][k+1].isdone)//44
-					   ||(vp[i+1][j+1][k].isdone && vp[i][j+1][k].isdone && vp[i][j+1][k+1].isdone  && vp[i+1][j][k+1].isdone)//51
-					   ||( vp[i][j+1][k].isdone && vp[i][j+1][k+1].isdone && vp[i+1][j+1][k+1].isdone && vp[i+1][j][k].isdone)//52
-					   ||(vp[i+1][j+1][k].isdone && vp[i][j+1][k+1].isdone && vp[i+1][j+1][k+1].isdone && vp[i][j][k].isdone)//53
-					   ||(vp[i+1][j+1][k].isdone && vp[i][j+1][k].isdone && vp[i+1][j+1][k+1].isdone && vp[i][j][k+1].isdone)//54
-					   ||(vp[i][j][k].isdone && vp[i][j+1][k].isdone && vp[i][j][k+1].isdone  && vp[i+1][j+1][k+1].isdone)//61
-					   ||(vp[i][j][k].isdone && vp[i][j][k+1].isdone && vp[i][j+1][k+1].isdone && vp[i+1][j+1][k].isdone)//62
-					   ||(vp[i][j][k+1].isdone && vp[i][j+1][k].isdone && vp[i][j+1][k+1].isdone && vp[i+1][j][k].isdone)//63
-					   ||(vp[i][j][k].isdone && vp[i][j+1][k].isdone&& vp[i][j+1][k+1].isdone && vp[i+1][j][k+1].isdone))
+				  else if((vp.isDone(i,j,k) && vp.isDone(i+1,j,k) && vp.isDone(i+1,j+1,k)  && vp.isDone(i,j+1,k+1))//11
+					   ||(vp.isDone(i,j,k) && vp.isDone(i,j+1,k) && vp.isDone(i+1,j+1,k) && vp.isDone(i+1,j,k+1))//12
+					   ||(vp.isDone(i,j+1,k) && vp.isDone(i+1,j,k) && vp.isDone(i+1,j+1,k) && vp.isDone(i,j,k+1))//13
+					   ||(vp.isDone(i,j,k) && vp.isDone(i,j+1,k) && vp.isDone(i+1,j,k) && vp.isDone(i+1,j+1,k+1))//14
+					   ||(vp.isDone(i,j,k+1) && vp.isDone(i+1,j,k+1) && vp.isDone(i+1,j+1,k+1) && vp.isDone(i,j+1,k))//21
+					   ||(vp.isDone(i,j,k+1) && vp.isDone(i,j+1,k+1) && vp.isDone(i+1,j+1,k+1) && vp.isDone(i+1,j,k))//22
+					   ||(vp.isDone(i,j+1,k+1) && vp.isDone(i+1,j,k+1) && vp.isDone(i+1,j+1,k+1) && vp.isDone(i,j,k))//23
+					   ||(vp.isDone(i,j,k+1) && vp.isDone(i,j+1,k+1) && vp.isDone(i+1,j,k+1) && vp.isDone(i+1,j+1,k))//24
+					   ||(vp.isDone(i,j,k) && vp.isDone(i+1,j,k) && vp.isDone(i+1,j,k+1) && vp.isDone(i,j+1,k+1))//31
+					   ||(vp.isDone(i+1,j,k) && vp.isDone(i+1,j,k+1) && vp.isDone(i,j,k+1) && vp.isDone(i,j+1,k))//32
+					   ||(vp.isDone(i,j,k) && vp.isDone(i+1,j,k+1) && vp.isDone(i,j,k+1) && vp.isDone(i+1,j+1,k))//33
+					   ||(vp.isDone(i,j,k) && vp.isDone(i+1,j,k) && vp.isDone(i,j,k+1) && vp.isDone(i+1,j+1,k+1))//34
+					   ||(vp.isDone(i+1,j+1,k) && vp.isDone(i+1,j,k) && vp.isDone(i+1,j+1,k+1) && vp.isDone(i,j,k+1))//41
+					   ||(vp.isDone(i+1,j+1,k) && vp.isDone(i+1,j,k+1) && vp.isDone(i+1,j+1,k+1) && vp.isDone(i,j,k))//42
+					   ||(vp.isDone(i+1,j,k) && vp.isDone(i+1,j,k+1) && vp.isDone(i+1,j+1,k+1) && vp.isDone(i,j+1,k))//43
+					   ||(vp.isDone(i+1,j+1,k) && vp.isDone(i+1,j,k) && vp.isDone(i+1,j,k+1)  && vp.isDone(i,j+1,k+1))//44
+					   ||(vp.isDone(i+1,j+1,k) && vp.isDone(i,j+1,k) && vp.isDone(i,j+1,k+1)  && vp.isDone(i+1,j,k+1))//51
+					   ||( vp.isDone(i,j+1,k) && vp.isDone(i,j+1,k+1) && vp.isDone(i+1,j+1,k+1) && vp.isDone(i+1,j,k))//52
+					   ||(vp.isDone(i+1,j+1,k) && vp.isDone(i,j+1,k+1) && vp.isDone(i+1,j+1,k+1) && vp.isDone(i,j,k))//53
+					   ||(vp.isDone(i+1,j+1,k) && vp.isDone(i,j+1,k) && vp.isDone(i+1,j+1,k+1) && vp.isDone(i,j,k+1))//54
+					   ||(vp.isDone(i,j,k) && vp.isDone(i,j+1,k) && vp.isDone(i,j,k+1)  && vp.isDone(i+1,j+1,k+1))//61
+					   ||(vp.isDone(i,j,k) && vp.isDone(i,j,k+1) && vp.isDone(i,j+1,k+1) && vp.isDone(i+1,j+1,k))//62
+					   ||(vp.isDone(i,j,k+1) && vp.isDone(i,j+1,k) && vp.isDone(i,j+1,k+1) && vp.isDone(i+1,j,k))//63
+					   ||(vp.isDone(i,j,k) && vp.isDone(i,j+1,k)&& vp.isDone(i,j+1,k+1) && vp.isDone(i+1,j,k+1)))
 				   {
-						if(vp[i][j][k].isdone && vp[i+1][j][k].isdone && vp[i+1][j+1][k].isdone  && vp[i][j+1][k+1].isdone)
+						if(vp.isDone(i,j,k) && vp.isDone(i+1,j,k) && vp.isDone(i+1,j+1,k)  && vp.isDone(i,j+1,k+1))
 						{
 							tp[0][0]=i;tp[0][1]=j;tp[0][2]=k;
 							tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k;
 							tp[2][0]=i+1;tp[2][1]=j+1;tp[2][2]=k;
 						}//11
-						else if(vp[i][j][k].isdone && vp[i][j+1][k].isdone && vp[i+1][j+1][k].isdone && vp[i+1][j][k+1].isdone)
+						else if(vp.isDone(i,j,k) && vp.isDone(i,j+1,k) && vp.isDone(i+1,j+1,k) && vp.isDone(i+1,j,k+1))
 						{
 							tp[0][0]=i+1;tp[0][1]=j+1;tp[0][2]=k;
 							tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k;
 							tp[2][0]=i;tp[2][1]=j;tp[2][2]=k;
 						}//12
-						else if(vp[i][j+1][k].isdone && vp[i+1][j][k].isdone&& vp[i+1][j+1][k].isdone && vp[i][j][k+1].isdone)
+						else if(vp.isDone(i,j+1,k) && vp.isDone(i+1,j,k)&& vp.isDone(i+1,j+1,k) && vp.isDone(i,j,k+1))
 						{
 							tp[0][0]=i+1;tp[0][1]=j;tp[0][2]=k;
 							tp[1][0]=i+1;tp[1][1]=j+1;tp[1][2]=k;
 							tp[2][0]=i;tp[2][1]=j+1;tp[2][2]=k;
 						}//13
-						else if(vp[i][j][k].isdone && vp[i][j+1][k].isdone&& vp[i+1][j][k].isdone && vp[i+1][j+1][k+1].isdone)
+						else if(vp.isDone(i,j,k) && vp.isDone(i,j+1,k)&& vp.isDone(i+1,j,k) && vp.isDone(i+1,j+1,k+1))
 						{
 							tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k;
 							tp[1][0]=i;tp[1][1]=j;tp[1][2]=k;
 							tp[2][0]=i+1;tp[2][1]=j;tp[2][2]=k;
 						}//14
-						else if(vp[i][j][k+1].isdone && vp[i+1][j][k+1].isdone&& vp[i+1][j+1][k+1].isdone && vp[i][j+1][k].isdone)
+						else if(vp.isDone(i,j,k+1) && vp.isDone(i+1,j,k+1)&& vp.isDone(i+1,j+1,k+1) && vp.isDone(i,j+1,k))
 						{
 							tp[0][0]=i+1;tp[0][1]=j+1;tp[0][2]=k+1;
 							tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k+1;
 							tp[2][0]=i;tp[2][1]=j;tp[2][2]=k+1;
 						}//21
-						else if(vp[i][j][k+1].isdone && vp[i][j+1][k+1].isdone&& vp[i+1][j+1][k+1].isdone && vp[i+1][j][k].isdone)
+						else if(vp.isDone(i,j,k+1) && vp.isDone(i,j+1,k+1)&& vp.isDone(i+1,j+1,k+1) && vp.isDone(i+1,j,k))
 						{
 							tp[0][0]=i;tp[0][1]=j;tp[0][2]=k+1;
 							tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k+1;
 							tp[2][0]=i+1;tp[2][1]=j+1;tp[2][2]=k+1;
 						}//22
-						else if(vp[i][j+1][k+1].isdone && vp[i+1][j][k+1].isdone&& vp[i+1][j+1][k+1].isdone && vp[i][j][k].isdone)
+						else if(vp.isDone(i,j+1,k+1) && vp.isDone(i+1,j,k+1)&& vp.isDone(i+1,j+1,k+1) && vp.isDone(i,j,k))
 						{
 							tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k+1;
 							tp[1][0]=i+1;tp[1][1]=j+1;tp[1][2]=k+1;
 							tp[2][0]=i+1;tp[2][1]=j;tp[2][2]=k+1;
 						}//23
-						else if(vp[i][j][k+1].isdone && vp[i][j+1][k+1].isdone&& vp[i+1][j][k+1].isdone && vp[i+1][j+1][k].isdone)
+						else if(vp.isDone(i,j,k+1) && vp.isDone(i,j+1,k+1)&& vp.isDone(i+1,j,k+1) && vp.isDone(i+1,j+1,k))
 						{
 							tp[0][0]=i+1;tp[0][1]=j;tp[0][2]=k+1;
 							tp[1][0]=i;tp[1][1]=j;tp[1][2]=k+1;
 							tp[2][0]=i;tp[2][1]=j+1;tp[2][2]=k+1;
 						}//24
-						else if(vp[i][j][k].isdone && vp[i+1][j][k].isdone&& vp[i+1][j][k+1].isdone && vp[i][j+1][k+1].isdone)
+						else if(vp.isDone(i,j,k) && vp.isDone(i+1,j,k)&& vp.isDone(i+1,j,k+1) && vp.isDone(i,j+1,k+1))
 						{
 							tp[0][0]=i+1;tp[0][1]=j;tp[0][2]=k+1;
 							tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k;
 							tp[2][0]=i;tp[2][1]=j;tp[2][2]=k;
 						}//31
-						else if(vp[i+1][j][k].isdone && vp[i+1][j][k+1].isdone && vp[i][j][k+1].isdone && vp[i][j+1][k].isdone)
+						else if(vp.isDone(i+1,j,k) && vp.isDone(i+1,j,k+1) && vp.isDone(i,j,k+1) && vp.isDone(i,j+1,k))
 						{
 							tp[0][0]=i;tp[0][1]=j;tp[0][2]=k+1;
 							tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k+1;
 							tp[2][0]=i+1;tp[2][1]=j;tp[2][2]=k;
 						}//32
-						else if(vp[i][j][k].isdone && vp[i+1][j][k+1].isdone && vp[i][j][k+1].isdone && vp[i+1][j+1][k].isdone)
+						else if(vp.isDone(i,j,k) && vp.isDone(i+1,j,k+1) && vp.isDone(i,j,k+1) && vp.isDone(i+1,j+1,k))
 						{
 							tp[0][0]=i;tp[0][1]=j;tp[0][2]=k;
 							tp[1][0]=i;tp[1][1]=j;tp[1][2]=k+1;
 							tp[2][0]=i+1;tp[2][1]=j;tp[2][2]=k+1;
 						}//33
-						else if(vp[i][j][k].isdone && vp[i+1][j][k].isdone && vp[i][j][k+1].isdone && vp[i+1][j+1][k+1].isdone)
+						else if(vp.isDone(i,j,k) && vp.isDone(i+1,j,k) && vp.isDone(i,j,k+1) && vp.isDone(i+1,j+1,k+1))
 						{
 							tp[0][0]=i+1;tp[0][1]=j;tp[0][2]=k;
 							tp[1][0]=i;tp[1][1]=j;tp[1][2]=k;
 							tp[2][0]=i;tp[2][1]=j;tp[2][2]=k+1;
 						}//34
-						else if(vp[i+1][j+1][k].isdone && vp[i+1][j][k].isdone && vp[i+1][j+1][k+1].isdone && vp[i][j][k+1].isdone)
+						else if(vp.isDone(i+1,j+1,k) && vp.isDone(i+1,j,k) && vp.isDone(i+1,j+1,k+1) && vp.isDone(i,j,k+1))
 						{
 							tp[0][0]=i+1;tp[0][1]=j+1;tp[0][2]=k+1;
 							tp[1][0]=i+1;tp[1][1]=j+1;tp[1][2]=k;
 							tp[2][0]=i+1;tp[2][1]=j;tp[2][2]=k;
 						}//41
-						else if(vp[i+1][j+1][k].isdone && vp[i+1][j][k+1].isdone && vp[i+1][j+1][k+1].isdone && vp[i][j][k].isdone)
+						else if(vp.isDone(i+1,j+1,k) && vp.isDone(i+1,j,k+1) && vp.isDone(i+1,j+1,k+1) && vp.isDone(i,j,k))
 						{
 							tp[0][0]=i+1;tp[0][1]=j;tp[0][2]=k+1;
 							tp[1][0]=i+1;tp[1][1]=j+1;tp[1][2]=k+1;
 							tp[2][0]=i+1;tp[2][1]=j+1;tp[2][2]=k;
 						}//42
-						else if(vp[i+1][j][k].isdone && vp[i+1][j][k+1].isdone && vp[i+1][j+1][k+1].isdone && vp[i][j+1][k].isdone)
+						else if(vp.isDone(i+1,j,k) && vp.isDone(i+1,j,k+1) && vp.isDone(i+1,j+1,k+1) && vp.isDone(i,j+1,k))
 						{
 							tp[0][0]=i+1;tp[0][1]=j;tp[0][2]=k;
 							tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k+1;
 							tp[2][0]=i+1;tp[2][1]=j+1;tp[2][2]=k+1;
 						}//43
-						else if(vp[i+1][j+1][k].isdone && vp[i+1][j][k].isdone	&& vp[i+1][j][k+1].isdone && vp[i][j+1][k+1].isdone)
+						else if(vp.isDone(i+1,j+1,k) && vp.isDone(i+1,j,k)	&& vp.isDone(i+1,j,k+1) && vp.isDone(i,j+1,k+1))
 						{
 							tp[0][0]=i+1;tp[0][1]=j+1;tp[0][2]=k;
 							tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k;
 							tp[2][0]=i+1;tp[2][1]=j;tp[2][2]=k+1;
 						}//44
-						else if(vp[i+1][j+1][k].isdone && vp[i][j+1][k].isdone && vp[i][j+1][k+1].isdone && vp[i+1][j][k+1].isdone )
+						else if(vp.isDone(i+1,j+1,k) && vp.isDone(i,j+1,k) && vp.isDone(i,j+1,k+1) && vp.isDone(i+1,j,k+1) )
 						{
 							tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k+1;
 							tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k;
 							tp[2][0]=i+1;tp[2][1]=j+1;tp[2][2]=k;
 						}//51
-						else if( vp[i][j+1][k].isdone && vp[i][j+1][k+1].isdone && vp[i+1][j+1][k+1].isdone && vp[i+1][j][k].isdone)
+						else if( vp.isDone(i,j+1,k) && vp.isDone(i,j+1,k+1) && vp.isDone(i+1,j+1,k+1) && vp.isDone(i+1,j,k))
 						{
 							tp[0][0]=i+1;tp[0][1]=j+1;tp[0][2]=k+1;
 							tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k+1;
 							tp[2][0]=i;tp[2][1]=j+1;tp[2][2]=k;
 						}//52
-						else if(vp[i+1][j+1][k].isdone && vp[i][j+1][k+1].isdone && vp[i+1][j+1][k+1].isdone && vp[i][j][k].isdone)
+						else if(vp.isDone(i+1,j+1,k) && vp.isDone(i,j+1,k+1) && vp.isDone(i+1,j+1,k+1) && vp.isDone(i,j,k))
 						{
 							tp[0][0]=i+1;tp[0][1]=j+1;tp[0][2]=k;
 							tp[1][0]=i+1;tp[1][1]=j+1;tp[1][2]=k+1;
 							tp[2][0]=i;tp[2][1]=j+1;tp[2][2]=k+1;
 						}//53
-						else if(vp[i+1][j+1][k].isdone && vp[i][j+1][k].isdone && vp[i+1][j+1][k+1].isdone && vp[i][j][k+1].isdone)
+						else if(vp.isDone(i+1,j+1,k) && vp.isDone(i,j+1,k) && vp.isDone(i+1,j+1,k+1) && vp.isDone(i,j,k+1))
 						{
 							tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k;
 							tp[1][0]=i+1;tp[1][1]=j+1;tp[1][2]=k;
 							tp[2][0]=i+1;tp[2][1]=j+1;tp[2][2]=k+1;
 						}//54
-						else if(vp[i][j][k].isdone && vp[i][j+1][k].isdone	&& vp[i][j][k+1].isdone && vp[i+1][j+1][k+1].isdone)
+						else if(vp.isDone(i,j,k) && vp.isDone(i,j+1,k)	&& vp.isDone(i,j,k+1) && vp.isDone(i+1,j+1,k+1))
 						{
 							tp[0][0]=i;tp[0][1]=j;tp[0][2]=k+1;
 							tp[1][0]=i;tp[1][1]=j;tp[1][2]=k;
 							tp[2][0]=i;tp[2][1]=j+1;tp[2][2]=k;
 						}//61
-						else if(vp[i][j][k].isdone 	&& vp[i][j][k+1].isdone && vp[i][j+1][k+1].isdone && vp[i+1][j+1][k].isdone)
+						else if(vp.isDone(i,j,k) 	&& vp.isDone(i,j,k+1) && vp.isDone(i,j+1,k+1) && vp.isDone(i+1,j+1,k))
 						{
 							tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k+1;
 							tp[1][0]=i;tp[1][1]=j;tp[1][2]=k+1;
 							tp[2][0]=i;tp[2][1]=j;tp[2][2]=k;
 						}//62
-						else if(vp[i][j][k+1].isdone && vp[i][j+1][k].isdone && vp[i][j+1][k+1].isdone && vp[i+1][j][k].isdone)
+						else if(vp.isDone(i,j,k+1) && vp.isDone(i,j+1,k) && vp.isDone(i,j+1,k+1) && vp.isDone(i+1,j,k))
 						{
 							tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k;
 							tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k+1;
 							tp[2][0]=i;tp[2][1]=j;tp[2][2]=k+1;
 						}//63
-						else if(vp[i][j][k].isdone && vp[i][j+1][k].isdone	&& vp[i][j+1][k+1].isdone && vp[i+1][j][k+1].isdone)
+						else if(vp.isDone(i,j,k) && vp.isDone(i,j+1,k)	&& vp.isDone(i,j+1,k+1) && vp.isDone(i+1,j,k+1))
 						{
 							tp[0][0]=i;tp[0][1]=j;tp[0][2]=k;
 							tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k;
@@ -1773,9 +1852,9 @@ public void marchingcube(int stype) {
 						}//64
 						for(ii=0;ii<3;ii++)
 						{
-							if(vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]==-1)
+							if(vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]==-1)
 							{
-								vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]=vertices.size();
+								vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]=vertices.size();
 //								verts[vertnumber].p.x=tp[ii][0];
 //								verts[vertnumber].p.y=tp[ii][1];
 //								verts[vertnumber].p.z=tp[ii][2];
@@ -1791,79 +1870,79 @@ public void marchingcube(int stype) {
 //						faces[facenumber].b=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
 //						faces[facenumber++].c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
                                                 FaceInfo face = new FaceInfo();
-                                                face.a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
-						face.b=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
-						face.c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
+                                                face.a=vertseq[vp.index(tp[0][0],tp[0][1],tp[0][2])];
+						face.b=vertseq[vp.index(tp[1][0],tp[1][1],tp[1][2])];
+						face.c=vertseq[vp.index(tp[2][0],tp[2][1],tp[2][2])];
                                                 faceList.add(face);
 				   }//no12 24
-					else if((vp[i][j][k].isdone && vp[i][j+1][k+1].isdone
-						&& vp[i+1][j+1][k].isdone && vp[i][j+1][k].isdone)
-						|| (vp[i][j][k].isdone && vp[i+1][j][k].isdone
-						&& vp[i+1][j+1][k].isdone && vp[i+1][j][k+1].isdone)
-						|| (vp[i][j][k].isdone && vp[i][j][k+1].isdone
-						&& vp[i+1][j][k].isdone && vp[i][j+1][k].isdone)
-						|| (vp[i][j+1][k].isdone && vp[i+1][j][k].isdone
-						&& vp[i+1][j+1][k].isdone && vp[i+1][j+1][k+1].isdone)
-						|| (vp[i][j][k+1].isdone && vp[i][j+1][k+1].isdone
-						&& vp[i+1][j+1][k+1].isdone && vp[i][j+1][k].isdone)
-						|| (vp[i][j][k+1].isdone && vp[i+1][j][k].isdone
-						&& vp[i+1][j+1][k+1].isdone && vp[i+1][j][k+1].isdone)
-						|| (vp[i][j][k].isdone && vp[i][j][k+1].isdone
-						&& vp[i+1][j][k+1].isdone && vp[i][j+1][k+1].isdone)
-						|| (vp[i][j+1][k+1].isdone && vp[i+1][j][k+1].isdone
-						&& vp[i+1][j+1][k].isdone && vp[i+1][j+1][k+1].isdone))
-					{
-						if(vp[i][j+1][k].isdone && vp[i][j+1][k+1].isdone
-							&& vp[i][j][k].isdone && vp[i+1][j+1][k].isdone )
+					else if((vp.isDone(i,j,k) && vp.isDone(i,j+1,k+1)
+						&& vp.isDone(i+1,j+1,k) && vp.isDone(i,j+1,k))
+						|| (vp.isDone(i,j,k) && vp.isDone(i+1,j,k)
+						&& vp.isDone(i+1,j+1,k) && vp.isDone(i+1,j,k+1))
+						|| (vp.isDone(i,j,k) && vp.isDone(i,j,k+1)
+						&& vp.isDone(i+1,j,k) && vp.isDone(i,j+1,k))
+						|| (vp.isDone(i,j+1,k) && vp.isDone(i+1,j,k)
+						&& vp.isDone(i+1,j+1,k) && vp.isDone(i+1,j+1,k+1))
+						|| (vp.isDone(i,j,k+1) && vp.isDone(i,j+1,k+1)
+						&& vp.isDone(i+1,j+1,k+1) && vp.isDone(i,j+1,k))
+						|| (vp.isDone(i,j,k+1) && vp.isDone(i+1,j,k)
+						&& vp.isDone(i+1,j+1,k+1) && vp.isDone(i+1,j,k+1))
+						|| (vp.isDone(i,j,k) && vp.isDone(i,j,k+1)
+						&& vp.isDone(i+1,j,k+1) && vp.isDone(i,j+1,k+1))
+						|| (vp.isDone(i,j+1,k+1) && vp.isDone(i+1,j,k+1)
+						&& vp.isDone(i+1,j+1,k) && vp.isDone(i+1,j+1,k+1)))
+					{
+						if(vp.isDone(i,j+1,k) && vp.isDone(i,j+1,k+1)
+							&& vp.isDone(i,j,k) && vp.isDone(i+1,j+1,k) )
 						{
 							tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k+1;
 							tp[1][0]=i;tp[1][1]=j;tp[1][2]=k;
 							tp[2][0]=i+1;tp[2][1]=j+1;tp[2][2]=k;
 						}//1
-						else if(vp[i+1][j][k].isdone && vp[i+1][j][k+1].isdone
-							&& vp[i+1][j+1][k].isdone && vp[i][j][k].isdone )
+						else if(vp.isDone(i+1,j,k) && vp.isDone(i+1,j,k+1)
+							&& vp.isDone(i+1,j+1,k) && vp.isDone(i,j,k) )
 						{
 							tp[0][0]=i+1;tp[0][1]=j;tp[0][2]=k+1;
 							tp[1][0]=i+1;tp[1][1]=j+1;tp[1][2]=k;
 							tp[2][0]=i;tp[2][1]=j;tp[2][2]=k;
 						}//2
-						else if(vp[i][j][k].isdone && vp[i][j][k+1].isdone
-							&& vp[i+1][j][k].isdone && vp[i][j+1][k].isdone)
+						else if(vp.isDone(i,j,k) && vp.isDone(i,j,k+1)
+							&& vp.isDone(i+1,j,k) && vp.isDone(i,j+1,k))
 						{
 							tp[0][0]=i;tp[0][1]=j;tp[0][2]=k+1;
 							tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k;
 							tp[2][0]=i;tp[2][1]=j+1;tp[2][2]=k;
 						}//3
-						else if(vp[i+1][j+1][k].isdone && vp[i+1][j+1][k+1].isdone
-							&& vp[i][j+1][k].isdone && vp[i+1][j][k].isdone)
+						else if(vp.isDone(i+1,j+1,k) && vp.isDone(i+1,j+1,k+1)
+							&& vp.isDone(i,j+1,k) && vp.isDone(i+1,j,k))
 						{
 							tp[0][0]=i+1;tp[0][1]=j+1;tp[0][2]=k+1;
 							tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k;
 							tp[2][0]=i+1;tp[2][1]=j;tp[2][2]=k;
 						}//4
-						else if(vp[i][j+1][k].isdone && vp[i][j+1][k+1].isdone
-							&& vp[i+1][j+1][k+1].isdone && vp[i][j][k+1].isdone)
+						else if(vp.isDone(i,j+1,k) && vp.isDone(i,j+1,k+1)
+							&& vp.isDone(i+1,j+1,k+1) && vp.isDone(i,j,k+1))
 						{
 							tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k;
 							tp[2][0]=i;tp[2][1]=j;tp[2][2]=k+1;
 							tp[1][0]=i+1;tp[1][1]=j+1;tp[1][2]=k+1;
 						}//5
-						else if(vp[i+1][j][k].isdone && vp[i+1][j][k+1].isdone
-							&& vp[i+1][j+1][k+1].isdone && vp[i][j][k+1].isdone)
+						else if(vp.isDone(i+1,j,k) && vp.isDone(i+1,j,k+1)
+							&& vp.isDone(i+1,j+1,k+1) && vp.isDone(i,j,k+1))
 						{
 							tp[0][0]=i+1;tp[0][1]=j;tp[0][2]=k;
 							tp[2][0]=i+1;tp[2][1]=j+1;tp[2][2]=k+1;
 							tp[1][0]=i;tp[1][1]=j;tp[1][2]=k+1;
 						}//6
-						else if(vp[i][j][k].isdone && vp[i][j][k+1].isdone
-							&& vp[i+1][j][k+1].isdone && vp[i][j+1][k+1].isdone)
+						else if(vp.isDone(i,j,k) && vp.isDone(i,j,k+1)
+							&& vp.isDone(i+1,j,k+1) && vp.isDone(i,j+1,k+1))
 						{
 							tp[0][0]=i;tp[0][1]=j;tp[0][2]=k;
 							tp[2][0]=i+1;tp[2][1]=j;tp[2][2]=k+1;
 							tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k+1;
 						}//7
-						else if(vp[i][j+1][k+1].isdone && vp[i+1][j][k+1].isdone
-							&& vp[i+1][j+1][k].isdone && vp[i+1][j+1][k+1].isdone)
+						else if(vp.isDone(i,j+1,k+1) && vp.isDone(i+1,j,k+1)
+							&& vp.isDone(i+1,j+1,k) && vp.isDone(i+1,j+1,k+1))
 						{
 							tp[0][0]=i+1;tp[0][1]=j+1;tp[0][2]=k;
 							tp[2][0]=i;tp[2][1]=j+1;tp[2][2]=k+1;
@@ -1871,9 +1950,9 @@ public void marchingcube(int stype) {
 						}//8
 						for(ii=0;ii<3;ii++)
 						{
-							if(vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]==-1)
+							if(vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]==-1)
 							{
-								vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]=vertices.size();
+								vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]=vertices.size();
 //								verts[vertnumber].p.x=tp[ii][0];
 //								verts[vertnumber].p.y=tp[ii][1];
 //								verts[vertnumber].p.z=tp[ii][2];
@@ -1889,126 +1968,126 @@ public void marchingcube(int stype) {
 //						faces[facenumber].b=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
 //						faces[facenumber++].c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
                                                 FaceInfo face = new FaceInfo();
-                                                face.a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
-						face.b=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
-						face.c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
+                                                face.a=vertseq[vp.index(tp[0][0],tp[0][1],tp[0][2])];
+						face.b=vertseq[vp.index(tp[1][0],tp[1][1],tp[1][2])];
+						face.c=vertseq[vp.index(tp[2][0],tp[2][1],tp[2][2])];
                                                 faceList.add(face);
 					}// no.9 8
-					else if((vp[i][j][k].isdone && vp[i+1][j][k].isdone
-						&& vp[i+1][j+1][k].isdone && vp[i][j][k+1].isdone)
-						||(vp[i][j+1][k].isdone && vp[i+1][j][k].isdone
-						&& vp[i+1][j+1][k].isdone && vp[i+1][j][k+1].isdone)
-						||(vp[i][j+1][k].isdone && vp[i][j][k].isdone
-						&& vp[i+1][j+1][k].isdone && vp[i+1][j+1][k+1].isdone)
-						||(vp[i][j+1][k].isdone && vp[i][j][k].isdone
-						&& vp[i+1][j][k].isdone && vp[i][j+1][k+1].isdone)
-						||(vp[i][j+1][k+1].isdone && vp[i][j][k+1].isdone
-						&& vp[i+1][j][k+1].isdone && vp[i+1][j][k].isdone)
-						||(vp[i+1][j+1][k+1].isdone && vp[i][j][k+1].isdone
-						&& vp[i+1][j][k+1].isdone && vp[i+1][j+1][k].isdone)
-						||(vp[i+1][j+1][k+1].isdone && vp[i][j+1][k+1].isdone
-						&& vp[i+1][j][k+1].isdone && vp[i][j+1][k].isdone)
-						||(vp[i+1][j+1][k+1].isdone && vp[i][j+1][k+1].isdone
-						&& vp[i][j][k+1].isdone && vp[i][j][k].isdone)
-						||(vp[i+1][j+1][k].isdone && vp[i][j+1][k+1].isdone
-						&& vp[i][j][k+1].isdone && vp[i][j+1][k].isdone)
-						||(vp[i+1][j][k+1].isdone && vp[i][j][k].isdone
-						&& vp[i][j][k+1].isdone && vp[i][j+1][k].isdone)
-						||(vp[i+1][j][k+1].isdone && vp[i][j][k].isdone
-						&& vp[i+1][j+1][k+1].isdone && vp[i+1][j][k].isdone)
-						||(vp[i][j+1][k+1].isdone && vp[i+1][j+1][k].isdone
-						&& vp[i+1][j+1][k+1].isdone && vp[i+1][j][k].isdone))
-					{
-						if(vp[i][j][k].isdone && vp[i+1][j][k].isdone
-							&& vp[i+1][j+1][k].isdone && vp[i][j][k+1].isdone)
+					else if((vp.isDone(i,j,k) && vp.isDone(i+1,j,k)
+						&& vp.isDone(i+1,j+1,k) && vp.isDone(i,j,k+1))
+						||(vp.isDone(i,j+1,k) && vp.isDone(i+1,j,k)
+						&& vp.isDone(i+1,j+1,k) && vp.isDone(i+1,j,k+1))
+						||(vp.isDone(i,j+1,k) && vp.isDone(i,j,k)
+						&& vp.isDone(i+1,j+1,k) && vp.isDone(i+1,j+1,k+1))
+						||(vp.isDone(i,j+1,k) && vp.isDone(i,j,k)
+						&& vp.isDone(i+1,j,k) && vp.isDone(i,j+1,k+1))
+						||(vp.isDone(i,j+1,k+1) && vp.isDone(i,j,k+1)
+						&& vp.isDone(i+1,j,k+1) && vp.isDone(i+1,j,k))
+						||(vp.isDone(i+1,j+1,k+1) && vp.isDone(i,j,k+1)
+						&& vp.isDone(i+1,j,k+1) && vp.isDone(i+1,j+1,k))
+						||(vp.isDone(i+1,j+1,k+1) && vp.isDone(i,j+1,k+1)
+						&& vp.isDone(i+1,j,k+1) && vp.isDone(i,j+1,k))
+						||(vp.isDone(i+1,j+1,k+1) && vp.isDone(i,j+1,k+1)
+						&& vp.isDone(i,j,k+1) && vp.isDone(i,j,k))
+						||(vp.isDone(i+1,j+1,k) && vp.isDone(i,j+1,k+1)
+						&& vp.isDone(i,j,k+1) && vp.isDone(i,j+1,k))
+						||(vp.isDone(i+1,j,k+1) && vp.isDone(i,j,k)
+						&& vp.isDone(i,j,k+1) && vp.isDone(i,j+1,k))
+						||(vp.isDone(i+1,j,k+1) && vp.isDone(i,j,k)
+						&& vp.isDone(i+1,j+1,k+1) && vp.isDone(i+1,j,k))
+						||(vp.isDone(i,j+1,k+1) && vp.isDone(i+1,j+1,k)
+						&& vp.isDone(i+1,j+1,k+1) && vp.isDone(i+1,j,k)))
+					{
+						if(vp.isDone(i,j,k) && vp.isDone(i+1,j,k)
+							&& vp.isDone(i+1,j+1,k) && vp.isDone(i,j,k+1))
 						{
 							tp[0][0]=i+1;tp[0][1]=j;tp[0][2]=k;
 							tp[1][0]=i+1;tp[1][1]=j+1;tp[1][2]=k;
 							tp[2][0]=i;tp[2][1]=j;tp[2][2]=k;
 							tp[3][0]=i;tp[3][1]=j;tp[3][2]=k+1;
 						}//1
-						else if(vp[i][j+1][k].isdone && vp[i+1][j][k].isdone
-							&& vp[i+1][j+1][k].isdone && vp[i+1][j][k+1].isdone)
+						else if(vp.isDone(i,j+1,k) && vp.isDone(i+1,j,k)
+							&& vp.isDone(i+1,j+1,k) && vp.isDone(i+1,j,k+1))
 						{
 							tp[0][0]=i+1;tp[0][1]=j+1;tp[0][2]=k;
 							tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k;
 							tp[2][0]=i+1;tp[2][1]=j;tp[2][2]=k;
 							tp[3][0]=i+1;tp[3][1]=j;tp[3][2]=k+1;
 						}//2
-						else if(vp[i][j+1][k].isdone && vp[i][j][k].isdone
-							&& vp[i+1][j+1][k].isdone && vp[i+1][j+1][k+1].isdone)
+						else if(vp.isDone(i,j+1,k) && vp.isDone(i,j,k)
+							&& vp.isDone(i+1,j+1,k) && vp.isDone(i+1,j+1,k+1))
 						{
 							tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k;
 							tp[1][0]=i;tp[1][1]=j;tp[1][2]=k;
 							tp[2][0]=i+1;tp[2][1]=j+1;tp[2][2]=k;
 							tp[3][0]=i+1;tp[3][1]=j+1;tp[3][2]=k+1;
 						}//3
-						else if(vp[i][j+1][k].isdone && vp[i][j][k].isdone
-							&& vp[i+1][j][k].isdone && vp[i][j+1][k+1].isdone)
+						else if(vp.isDone(i,j+1,k) && vp.isDone(i,j,k)
+							&& vp.isDone(i+1,j,k) && vp.isDone(i,j+1,k+1))
 						{
 							tp[0][0]=i;tp[0][1]=j;tp[0][2]=k;
 							tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k;
 							tp[2][0]=i;tp[2][1]=j+1;tp[2][2]=k;
 							tp[3][0]=i;tp[3][1]=j+1;tp[3][2]=k+1;
 						}//4
-						else if(vp[i][j+1][k+1].isdone && vp[i][j][k+1].isdone
-							&& vp[i+1][j][k+1].isdone && vp[i+1][j][k].isdone)
+						else if(vp.isDone(i,j+1,k+1) && vp.isDone(i,j,k+1)
+							&& vp.isDone(i+1,j,k+1) && vp.isDone(i+1,j,k))
 						{
 							tp[0][0]=i+1;tp[0][1]=j;tp[0][2]=k+1;
 							tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k;
 							tp[2][0]=i;tp[2][1]=j;tp[2][2]=k+1;
 							tp[3][0]=i;tp[3][1]=j+1;tp[3][2]=k+1;
 						}//5
-						else if(vp[i+1][j+1][k+1].isdone && vp[i][j][k+1].isdone
-							&& vp[i+1][j][k+1].isdone && vp[i+1][j+1][k].isdone)
+						else if(vp.isDone(i+1,j+1,k+1) && vp.isDone(i,j,k+1)
+							&& vp.isDone(i+1,j,k+1) && vp.isDone(i+1,j+1,k))
 						{
 							tp[0][0]=i+1;tp[0][1]=j+1;tp[0][2]=k+1;
 							tp[1][0]=i+1;tp[1][1]=j+1;tp[1][2]=k;
 							tp[2][0]=i+1;tp[2][1]=j;tp[2][2]=k+1;
 							tp[3][0]=i;tp[3][1]=j;tp[3][2]=k+1;
 						}//6
-						else if(vp[i+1][j+1][k+1].isdone && vp[i][j+1][k+1].isdone
-							&& vp[i+1][j][k+1].isdone && vp[i][j+1][k].isdone)
+						else if(vp.isDone(i+1,j+1,k+1) && vp.isDone(i,j+1,k+1)
+							&& vp.isDone(i+1,j,k+1) && vp.isDone(i,j+1,k))
 						{
 							tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k+1;
 							tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k;
 							tp[2][0]=i+1;tp[2][1]=j+1;tp[2][2]=k+1;
 							tp[3][0]=i+1;tp[3][1]=j;tp[3][2]=k+1;
 						}//7
-						else if(vp[i+1][j+1][k+1].isdone && vp[i][j+1][k+1].isdone
-							&& vp[i][j][k+1].isdone && vp[i][j][k].isdone)
+						else if(vp.isDone(i+1,j+1,k+1) && vp.isDone(i,j+1,k+1)
+							&& vp.isDone(i,j,k+1) && vp.isDone(i,j,k))
 						{
 							tp[0][0]=i;tp[0][1]=j;tp[0][2]=k+1;
 							tp[1][0]=i;tp[1][1]=j;tp[1][2]=k;
 							tp[2][0]=i;tp[2][1]=j+1;tp[2][2]=k+1;
 							tp[3][0]=i+1;tp[3][1]=j+1;tp[3][2]=k+1;
 						}//8
-						else if(vp[i+1][j+1][k].isdone && vp[i][j+1][k+1].isdone
-							&& vp[i][j][k+1].isdone && vp[i][j+1][k].isdone)
+						else if(vp.isDone(i+1,j+1,k) && vp.isDone(i,j+1,k+1)
+							&& vp.isDone(i,j,k+1) && vp.isDone(i,j+1,k))
 						{
 							tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k;
 							tp[1][0]=i+1;tp[1][1]=j+1;tp[1][2]=k;
 							tp[2][0]=i;tp[2][1]=j+1;tp[2][2]=k+1;
 							tp[3][0]=i;tp[3][1]=j;tp[3][2]=k+1;
 						}//9
-						else if(vp[i+1][j][k+1].isdone && vp[i][j][k].isdone
-							&& vp[i][j][k+1].isdone && vp[i][j+1][k].isdone)
+						else if(vp.isDone(i+1,j,k+1) && vp.isDone(i,j,k)
+							&& vp.isDone(i,j,k+1) && vp.isDone(i,j+1,k))
 						{
 							tp[0][0]=i;tp[0][1]=j;tp[0][2]=k;
 							tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k;
 							tp[2][0]=i;tp[2][1]=j;tp[2][2]=k+1;
 							tp[3][0]=i+1;tp[3][1]=j;tp[3][2]=k+1;
 						}//10
-						else if(vp[i+1][j][k+1].isdone && vp[i][j][k].isdone
-							&& vp[i+1][j+1][k+1].isdone && vp[i+1][j][k].isdone)
+						else if(vp.isDone(i+1,j,k+1) && vp.isDone(i,j,k)
+							&& vp.isDone(i+1,j+1,k+1) && vp.isDone(i+1,j,k))
 						{
 							tp[0][0]=i+1;tp[0][1]=j;tp[0][2]=k;
 							tp[1][0]=i;tp[1][1]=j;tp[1][2]=k;
 							tp[2][0]=i+1;tp[2][1]=j;tp[2][2]=k+1;
 							tp[3][0]=i+1;tp[3][1]=j+1;tp[3][2]=k+1;
 						}//11
-						else if(vp[i][j+1][k+1].isdone && vp[i+1][j+1][k].isdone
-							&& vp[i+1][j+1][k+1].isdone && vp[i+1][j][k].isdone)
+						else if(vp.isDone(i,j+1,k+1) && vp.isDone(i+1,j+1,k)
+							&& vp.isDone(i+1,j+1,k+1) && vp.isDone(i+1,j,k))
 						{
 							tp[0][0]=i+1;tp[0][1]=j+1;tp[0][2]=k;
 							tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k;
@@ -2017,9 +2096,9 @@ public void marchingcube(int stype) {
 						}//12
 						for(ii=0;ii<4;ii++)
 						{
-							if(vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]==-1)
+							if(vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]==-1)
 							{
-								vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]=vertices.size();
+								vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]=vertices.size();
 //								verts[vertnumber].p.x=tp[ii][0];
 //								verts[vertnumber].p.y=tp[ii][1];
 //								verts[vertnumber].p.z=tp[ii][2];
@@ -2035,135 +2114,135 @@ public void marchingcube(int stype) {
 //						faces[facenumber].b=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
 //						faces[facenumber++].c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
                                                 FaceInfo face = new FaceInfo();
-                                                face.a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
-						face.b=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
-						face.c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
+                                                face.a=vertseq[vp.index(tp[0][0],tp[0][1],tp[0][2])];
+						face.b=vertseq[vp.index(tp[1][0],tp[1][1],tp[1][2])];
+						face.c=vertseq[vp.index(tp[2][0],tp[2][1],tp[2][2])];
                                                 faceList.add(face);
 
 //						faces[facenumber].a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
 //						faces[facenumber].b=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
 //						faces[facenumber++].c=vertseq[tp[3][0]][tp[3][1]][tp[3][2]];
                                                 face = new FaceInfo();
-                                                face.a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
-						face.b=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
-						face.c=vertseq[tp[3][0]][tp[3][1]][tp[3][2]];
+                                                face.a=vertseq[vp.index(tp[0][0],tp[0][1],tp[0][2])];
+						face.b=vertseq[vp.index(tp[2][0],tp[2][1],tp[2][2])];
+						face.c=vertseq[vp.index(tp[3][0],tp[3][1],tp[3][2])];
                                                 faceList.add(face);
 					}//no.11 12
-					else if((vp[i][j][k].isdone && vp[i+1][j][k].isdone
-						&& vp[i][j+1][k].isdone && vp[i+1][j][k+1].isdone)
-						||(vp[i][j][k].isdone && vp[i+1][j][k].isdone
-						&& vp[i+1][j+1][k].isdone && vp[i+1][j+1][k+1].isdone)
-						||(vp[i][j+1][k].isdone && vp[i+1][j][k].isdone
-						&& vp[i+1][j+1][k].isdone && vp[i][j+1][k+1].isdone)
-						||(vp[i][j+1][k].isdone && vp[i][j][k].isdone
-						&& vp[i+1][j+1][k].isdone && vp[i][j][k+1].isdone)
-						||(vp[i+1][j+1][k+1].isdone && vp[i][j][k+1].isdone
-						&& vp[i+1][j][k+1].isdone && vp[i][j][k].isdone)
-						||(vp[i+1][j+1][k+1].isdone && vp[i][j+1][k+1].isdone
-						&& vp[i+1][j][k+1].isdone && vp[i+1][j][k].isdone)
-						||(vp[i+1][j+1][k+1].isdone && vp[i][j+1][k+1].isdone
-						&& vp[i][j][k+1].isdone && vp[i+1][j+1][k].isdone)
-						||(vp[i+1][j][k+1].isdone && vp[i][j+1][k+1].isdone
-						&& vp[i][j][k+1].isdone && vp[i][j+1][k].isdone)
-						||(vp[i+1][j+1][k+1].isdone && vp[i][j+1][k+1].isdone
-						&& vp[i][j][k].isdone && vp[i][j+1][k].isdone)
-						||(vp[i+1][j][k].isdone && vp[i][j][k].isdone
-						&& vp[i][j][k+1].isdone && vp[i][j+1][k+1].isdone)
-						||(vp[i+1][j][k+1].isdone && vp[i][j][k+1].isdone
-						&& vp[i+1][j+1][k].isdone && vp[i+1][j][k].isdone)
-						||(vp[i][j+1][k].isdone && vp[i+1][j+1][k].isdone
-						&& vp[i+1][j+1][k+1].isdone && vp[i+1][j][k+1].isdone))
-					{
-						if(vp[i][j][k].isdone && vp[i+1][j][k].isdone
-							&& vp[i][j+1][k].isdone && vp[i+1][j][k+1].isdone)
+					else if((vp.isDone(i,j,k) && vp.isDone(i+1,j,k)
+						&& vp.isDone(i,j+1,k) && vp.isDone(i+1,j,k+1))
+						||(vp.isDone(i,j,k) && vp.isDone(i+1,j,k)
+						&& vp.isDone(i+1,j+1,k) && vp.isDone(i+1,j+1,k+1))
+						||(vp.isDone(i,j+1,k) && vp.isDone(i+1,j,k)
+						&& vp.isDone(i+1,j+1,k) && vp.isDone(i,j+1,k+1))
+						||(vp.isDone(i,j+1,k) && vp.isDone(i,j,k)
+						&& vp.isDone(i+1,j+1,k) && vp.isDone(i,j,k+1))
+						||(vp.isDone(i+1,j+1,k+1) && vp.isDone(i,j,k+1)
+						&& vp.isDone(i+1,j,k+1) && vp.isDone(i,j,k))
+						||(vp.isDone(i+1,j+1,k+1) && vp.isDone(i,j+1,k+1)
+						&& vp.isDone(i+1,j,k+1) && vp.isDone(i+1,j,k))
+						||(vp.isDone(i+1,j+1,k+1) && vp.isDone(i,j+1,k+1)
+						&& vp.isDone(i,j,k+1) && vp.isDone(i+1,j+1,k))
+						||(vp.isDone(i+1,j,k+1) && vp.isDone(i,j+1,k+1)
+						&& vp.isDone(i,j,k+1) && vp.isDone(i,j+1,k))
+						||(vp.isDone(i+1,j+1,k+1) && vp.isDone(i,j+1,k+1)
+						&& vp.isDone(i,j,k) && vp.isDone(i,j+1,k))
+						||(vp.isDone(i+1,j,k) && vp.isDone(i,j,k)
+						&& vp.isDone(i,j,k+1) && vp.isDone(i,j+1,k+1))
+						||(vp.isDone(i+1,j,k+1) && vp.isDone(i,j,k+1)
+						&& vp.isDone(i+1,j+1,k) && vp.isDone(i+1,j,k))
+						||(vp.isDone(i,j+1,k) && vp.isDone(i+1,j+1,k)
+						&& vp.isDone(i+1,j+1,k+1) && vp.isDone(i+1,j,k+1)))
+					{
+						if(vp.isDone(i,j,k) && vp.isDone(i+1,j,k)
+							&& vp.isDone(i,j+1,k) && vp.isDone(i+1,j,k+1))
 						{
 							tp[0][0]=i+1;tp[0][1]=j;tp[0][2]=k;
 							tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k;
 							tp[2][0]=i;tp[2][1]=j;tp[2][2]=k;
 							tp[3][0]=i+1;tp[3][1]=j;tp[3][2]=k+1;
 						}//1
-						else if(vp[i][j][k].isdone && vp[i+1][j][k].isdone
-							&& vp[i+1][j+1][k].isdone && vp[i+1][j+1][k+1].isdone)
+						else if(vp.isDone(i,j,k) && vp.isDone(i+1,j,k)
+							&& vp.isDone(i+1,j+1,k) && vp.isDone(i+1,j+1,k+1))
 						{
 							tp[0][0]=i+1;tp[0][1]=j+1;tp[0][2]=k;
 							tp[1][0]=i;tp[1][1]=j;tp[1][2]=k;
 							tp[2][0]=i+1;tp[2][1]=j;tp[2][2]=k;
 							tp[3][0]=i+1;tp[3][1]=j+1;tp[3][2]=k+1;
 						}//2
-						else if(vp[i][j+1][k].isdone && vp[i+1][j][k].isdone
-							&& vp[i+1][j+1][k].isdone && vp[i][j+1][k+1].isdone)
+						else if(vp.isDone(i,j+1,k) && vp.isDone(i+1,j,k)
+							&& vp.isDone(i+1,j+1,k) && vp.isDone(i,j+1,k+1))
 						{
 							tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k;
 							tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k;
 							tp[2][0]=i+1;tp[2][1]=j+1;tp[2][2]=k;
 							tp[3][0]=i;tp[3][1]=j+1;tp[3][2]=k+1;
 						}//3
-						else if(vp[i][j+1][k].isdone && vp[i][j][k].isdone
-							&& vp[i+1][j+1][k].isdone && vp[i][j][k+1].isdone)
+						else if(vp.isDone(i,j+1,k) && vp.isDone(i,j,k)
+							&& vp.isDone(i+1,j+1,k) && vp.isDone(i,j,k+1))
 						{
 							tp[0][0]=i;tp[0][1]=j;tp[0][2]=k;
 							tp[1][0]=i+1;tp[1][1]=j+1;tp[1][2]=k;
 							tp[2][0]=i;tp[2][1]=j+1;tp[2][2]=k;
 							tp[3][0]=i;tp[3][1]=j;tp[3][2]=k+1;
 						}//4
-						else if(vp[i+1][j+1][k+1].isdone && vp[i][j][k+1].isdone
-							&& vp[i+1][j][k+1].isdone && vp[i][j][k].isdone)
+						else if(vp.isDone(i+1,j+1,k+1) && vp.isDone(i,j,k+1)
+							&& vp.isDone(i+1,j,k+1) && vp.isDone(i,j,k))
 						{
 							tp[0][0]=i+1;tp[0][1]=j;tp[0][2]=k+1;
 							tp[1][0]=i;tp[1][1]=j;tp[1][2]=k;
 							tp[2][0]=i;tp[2][1]=j;tp[2][2]=k+1;
 							tp[3][0]=i+1;tp[3][1]=j+1;tp[3][2]=k+1;
 						}//5
-						else if(vp[i+1][j+1][k+1].isdone && vp[i][j+1][k+1].isdone
-							&& vp[i+1][j][k+1].isdone && vp[i+1][j][k].isdone)
+						else if(vp.isDone(i+1,j+1,k+1) && vp.isDone(i,j+1,k+1)
+							&& vp.isDone(i+1,j,k+1) && vp.isDone(i+1,j,k))
 						{
 							tp[0][0]=i+1;tp[0][1]=j+1;tp[0][2]=k+1;
 							tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k;
 							tp[2][0]=i+1;tp[2][1]=j;tp[2][2]=k+1;
 							tp[3][0]=i;tp[3][1]=j+1;tp[3][2]=k+1;
 						}//6
-						else if(vp[i+1][j+1][k+1].isdone && vp[i][j+1][k+1].isdone
-							&& vp[i][j][k+1].isdone && vp[i+1][j+1][k].isdone)
+						else if(vp.isDone(i+1,j+1,k+1) && vp.isDone(i,j+1,k+1)
+							&& vp.isDone(i,j,k+1) && vp.isDone(i+1,j+1,k))
 						{
 							tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k+1;
 							tp[1][0]=i+1;tp[1][1]=j+1;tp[1][2]=k;
 							tp[2][0]=i+1;tp[2][1]=j+1;tp[2][2]=k+1;
 							tp[3][0]=i;tp[3][1]=j;tp[3][2]=k+1;
 						}//7
-						else if(vp[i+1][j][k+1].isdone && vp[i][j+1][k+1].isdone
-							&& vp[i][j][k+1].isdone && vp[i][j+1][k].isdone)
+						else if(vp.isDone(i+1,j,k+1) && vp.isDone(i,j+1,k+1)
+							&& vp.isDone(i,j,k+1) && vp.isDone(i,j+1,k))
 						{
 							tp[0][0]=i;tp[0][1]=j;tp[0][2]=k+1;
 							tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k;
 							tp[2][0]=i;tp[2][1]=j+1;tp[2][2]=k+1;
 							tp[3][0]=i+1;tp[3][1]=j;tp[3][2]=k+1;
 						}//8
-						else if(vp[i+1][j+1][k+1].isdone && vp[i][j+1][k+1].isdone
-							&& vp[i][j][k].isdone && vp[i][j+1][k].isdone)
+						else if(vp.isDone(i+1,j+1,k+1) && vp.isDone(i,j+1,k+1)
+							&& vp.isDone(i,j,k) && vp.isDone(i,j+1,k))
 						{
 							tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k;
 							tp[1][0]=i+1;tp[1][1]=j+1;tp[1][2]=k+1;
 							tp[2][0]=i;tp[2][1]=j+1;tp[2][2]=k+1;
 							tp[3][0]=i;tp[3][1]=j;tp[3][2]=k;
 						}//9
-						else if(vp[i+1][j][k].isdone && vp[i][j][k].isdone
-							&& vp[i][j][k+1].isdone && vp[i][j+1][k+1].isdone)
+						else if(vp.isDone(i+1,j,k) && vp.isDone(i,j,k)
+							&& vp.isDone(i,j,k+1) && vp.isDone(i,j+1,k+1))
 						{
 							tp[0][0]=i;tp[0][1]=j;tp[0][2]=k;
 							tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k+1;
 							tp[2][0]=i;tp[2][1]=j;tp[2][2]=k+1;
 							tp[3][0]=i+1;tp[3][1]=j;tp[3][2]=k;
 						}//10
-						else if(vp[i+1][j][k+1].isdone && vp[i][j][k+1].isdone
-							&& vp[i+1][j+1][k].isdone && vp[i+1][j][k].isdone)
+						else if(vp.isDone(i+1,j,k+1) && vp.isDone(i,j,k+1)
+							&& vp.isDone(i+1,j+1,k) && vp.isDone(i+1,j,k))
 						{
 							tp[0][0]=i+1;tp[0][1]=j;tp[0][2]=k;
 							tp[1][0]=i;tp[1][1]=j;tp[1][2]=k+1;
 							tp[2][0]=i+1;tp[2][1]=j;tp[2][2]=k+1;
 							tp[3][0]=i+1;tp[3][1]=j+1;tp[3][2]=k;
 						}//11
-						else if(vp[i][j+1][k].isdone && vp[i+1][j+1][k].isdone
-							&& vp[i+1][j+1][k+1].isdone && vp[i+1][j][k+1].isdone)
+						else if(vp.isDone(i,j+1,k) && vp.isDone(i+1,j+1,k)
+							&& vp.isDone(i+1,j+1,k+1) && vp.isDone(i+1,j,k+1))
 						{
 							tp[0][0]=i+1;tp[0][1]=j+1;tp[0][2]=k;
 							tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k+1;
@@ -2172,9 +2251,9 @@ public void marchingcube(int stype) {
 						}//12
 						for(ii=0;ii<4;ii++)
 						{
-							if(vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]==-1)
+							if(vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]==-1)
 							{
-								vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]=vertices.size();
+								vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]=vertices.size();
 //								verts[vertnumber].p.x=tp[ii][0];
 //								verts[vertnumber].p.y=tp[ii][1];
 //								verts[vertnumber].p.z=tp[ii][2];
@@ -2190,75 +2269,75 @@ public void marchingcube(int stype) {
 //						faces[facenumber].b=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
 //						faces[facenumber++].c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
                                                 FaceInfo face = new FaceInfo();
-                                                face.a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
-						face.b=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
-						face.c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
+                                                face.a=vertseq[vp.index(tp[0][0],tp[0][1],tp[0][2])];
+						face.b=vertseq[vp.index(tp[1][0],tp[1][1],tp[1][2])];
+						face.c=vertseq[vp.index(tp[2][0],tp[2][1],tp[2][2])];
                                                 faceList.add(face);
 
 //						faces[facenumber].a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
 //						faces[facenumber].b=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
 //						faces[facenumber++].c=vertseq[tp[3][0]][tp[3][1]][tp[3][2]];
                                                 face = new FaceInfo();
-                                                face.a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
-						face.b=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
-						face.c=vertseq[tp[3][0]][tp[3][1]][tp[3][2]];
+                                                face.a=vertseq[vp.index(tp[0][0],tp[0][1],tp[0][2])];
+						face.b=vertseq[vp.index(tp[2][0],tp[2][1],tp[2][2])];
+						face.c=vertseq[vp.index(tp[3][0],tp[3][1],tp[3][2])];
                                                 faceList.add(face);
 					}//no.14 12
 				}//total4
 				else if(sumtype==5)
 				{
-					if((!vp[i+1][j][k].isdone && !vp[i][j][k+1].isdone && !vp[i+1][j+1][k+1].isdone)
-						|| (!vp[i][j+1][k].isdone && !vp[i][j][k+1].isdone && !vp[i+1][j+1][k+1].isdone)
-						|| (!vp[i+1][j+1][k].isdone && !vp[i+1][j][k+1].isdone && !vp[i][j+1][k+1].isdone)
-						|| (!vp[i][j][k].isdone && !vp[i+1][j][k+1].isdone && !vp[i][j+1][k+1].isdone)
-						|| (!vp[i+1][j][k+1].isdone && !vp[i][j][k].isdone && !vp[i+1][j+1][k].isdone)
-						|| (!vp[i][j+1][k+1].isdone && !vp[i][j][k].isdone && !vp[i+1][j+1][k].isdone)
-						|| (!vp[i+1][j+1][k+1].isdone && !vp[i+1][j][k].isdone && !vp[i][j+1][k].isdone)
-						|| (!vp[i][j][k+1].isdone && !vp[i+1][j][k].isdone && !vp[i][j+1][k].isdone))
+					if((!vp.isDone(i+1,j,k) && !vp.isDone(i,j,k+1) && !vp.isDone(i+1,j+1,k+1))
+						|| (!vp.isDone(i,j+1,k) && !vp.isDone(i,j,k+1) && !vp.isDone(i+1,j+1,k+1))
+						|| (!vp.isDone(i+1,j+1,k) && !vp.isDone(i+1,j,k+1) && !vp.isDone(i,j+1,k+1))
+						|| (!vp.isDone(i,j,k) && !vp.isDone(i+1,j,k+1) && !vp.isDone(i,j+1,k+1))
+						|| (!vp.isDone(i+1,j,k+1) && !vp.isDone(i,j,k) && !vp.isDone(i+1,j+1,k))
+						|| (!vp.isDone(i,j+1,k+1) && !vp.isDone(i,j,k) && !vp.isDone(i+1,j+1,k))
+						|| (!vp.isDone(i+1,j+1,k+1) && !vp.isDone(i+1,j,k) && !vp.isDone(i,j+1,k))
+						|| (!vp.isDone(i,j,k+1) && !vp.isDone(i+1,j,k) && !vp.isDone(i,j+1,k)))
 					{
-						if(!vp[i+1][j][k].isdone && !vp[i][j][k+1].isdone && !vp[i+1][j+1][k+1].isdone)
+						if(!vp.isDone(i+1,j,k) && !vp.isDone(i,j,k+1) && !vp.isDone(i+1,j+1,k+1))
 						{
 							tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k+1;
 							tp[1][0]=i;tp[1][1]=j;tp[1][2]=k;
 							tp[2][0]=i+1;tp[2][1]=j+1;tp[2][2]=k;
 						}//1
-						else if(!vp[i][j+1][k].isdone && !vp[i][j][k+1].isdone && !vp[i+1][j+1][k+1].isdone)
+						else if(!vp.isDone(i,j+1,k) && !vp.isDone(i,j,k+1) && !vp.isDone(i+1,j+1,k+1))
 						{
 							tp[0][0]=i+1;tp[0][1]=j;tp[0][2]=k+1;
 							tp[1][0]=i+1;tp[1][1]=j+1;tp[1][2]=k;
 							tp[2][0]=i;tp[2][1]=j;tp[2][2]=k;
 						}//2
-						else if(!vp[i+1][j+1][k].isdone && !vp[i+1][j][k+1].isdone && !vp[i][j+1][k+1].isdone)
+						else if(!vp.isDone(i+1,j+1,k) && !vp.isDone(i+1,j,k+1) && !vp.isDone(i,j+1,k+1))
 						{
 							tp[0][0]=i;tp[0][1]=j;tp[0][2]=k+1;
 							tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k;
 							tp[2][0]=i;tp[2][1]=j+1;tp[2][2]=k;
 						}//3
-						else if(!vp[i][j][k].isdone && !vp[i+1][j][k+1].isdone && !vp[i][j+1][k+1].isdone)
+						else if(!vp.isDone(i,j,k) && !vp.isDone(i+1,j,k+1) && !vp.isDone(i,j+1,k+1))
 						{
 							tp[0][0]=i+1;tp[0][1]=j+1;tp[0][2]=k+1;
 							tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k;
 							tp[2][0]=i+1;tp[2][1]=j;tp[2][2]=k;
 						}//4
-						else if(!vp[i+1][j][k+1].isdone && !vp[i][j][k].isdone && !vp[i+1][j+1][k].isdone)
+						else if(!vp.isDone(i+1,j,k+1) && !vp.isDone(i,j,k) && !vp.isDone(i+1,j+1,k))
 						{
 							tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k;
 							tp[2][0]=i;tp[2][1]=j;tp[2][2]=k+1;
 							tp[1][0]=i+1;tp[1][1]=j+1;tp[1][2]=k+1;
 						}//5
-						else if(!vp[i][j+1][k+1].isdone && !vp[i][j][k].isdone && !vp[i+1][j+1][k].isdone)
+						else if(!vp.isDone(i,j+1,k+1) && !vp.isDone(i,j,k) && !vp.isDone(i+1,j+1,k))
 						{
 							tp[0][0]=i+1;tp[0][1]=j;tp[0][2]=k;
 							tp[2][0]=i+1;tp[2][1]=j+1;tp[2][2]=k+1;
 							tp[1][0]=i;tp[1][1]=j;tp[1][2]=k+1;
 						}//6
-						else if(!vp[i+1][j+1][k+1].isdone && !vp[i+1][j][k].isdone && !vp[i][j+1][k].isdone)
+						else if(!vp.isDone(i+1,j+1,k+1) && !vp.isDone(i+1,j,k) && !vp.isDone(i,j+1,k))
 						{
 							tp[0][0]=i;tp[0][1]=j;tp[0][2]=k;
 							tp[2][0]=i+1;tp[2][1]=j;tp[2][2]=k+1;
 							tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k+1;
 						}//7
-						else if(!vp[i][j][k+1].isdone && !vp[i+1][j][k].isdone && !vp[i][j+1][k].isdone)
+						else if(!vp.isDone(i,j,k+1) && !vp.isDone(i+1,j,k) && !vp.isDone(i,j+1,k))
 						{
 							tp[0][0]=i+1;tp[0][1]=j+1;tp[0][2]=k;
 							tp[2][0]=i;tp[2][1]=j+1;tp[2][2]=k+1;
@@ -2266,9 +2345,9 @@ public void marchingcube(int stype) {
 						}//8
 						for(ii=0;ii<3;ii++)
 						{
-							if(vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]==-1)
+							if(vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]==-1)
 							{
-								vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]=vertices.size();
+								vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]=vertices.size();
 //								verts[vertnumber].p.x=tp[ii][0];
 //								verts[vertnumber].p.y=tp[ii][1];
 //								verts[vertnumber].p.z=tp[ii][2];
@@ -2284,199 +2363,199 @@ public void marchingcube(int stype) {
 //						faces[facenumber].b=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
 //						faces[facenumber++].c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
                                                 FaceInfo face = new FaceInfo();
-                                                face.a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
-						face.b=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
-						face.c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
+                                                face.a=vertseq[vp.index(tp[0][0],tp[0][1],tp[0][2])];
+						face.b=vertseq[vp.index(tp[1][0],tp[1][1],tp[1][2])];
+						face.c=vertseq[vp.index(tp[2][0],tp[2][1],tp[2][2])];
                                                 faceList.add(face);
 
 					}//no.7 8
-					else if((!vp[i][j][k].isdone && !vp[i+1][j][k].isdone && !vp[i+1][j+1][k].isdone)
-				   ||(!vp[i][j][k].isdone && !vp[i][j+1][k].isdone && !vp[i+1][j+1][k].isdone)
-				   ||(!vp[i][j+1][k].isdone && !vp[i+1][j][k].isdone && !vp[i+1][j+1][k].isdone)
-				   ||(!vp[i][j][k].isdone && !vp[i][j+1][k].isdone && !vp[i+1][j][k].isdone)
-				   ||(!vp[i][j][k+1].isdone && !vp[i+1][j][k+1].isdone && !vp[i+1][j+1][k+1].isdone)
-				   ||(!vp[i][j][k+1].isdone && !vp[i][j+1][k+1].isdone && !vp[i+1][j+1][k+1].isdone)
-				   ||(!vp[i][j+1][k+1].isdone && !vp[i+1][j][k+1].isdone && !vp[i+1][j+1][k+1].isdone)
-				   ||(!vp[i][j][k+1].isdone && !vp[i][j+1][k+1].isdone && !vp[i+1][j][k+1].isdone)
-				   ||(!vp[i][j][k].isdone && !vp[i+1][j][k].isdone && !vp[i+1][j][k+1].isdone)
-				   ||(!vp[i+1][j][k].isdone && !vp[i+1][j][k+1].isdone && !vp[i][j][k+1].isdone)
-				   ||(!vp[i][j][k].isdone && !vp[i+1][j][k+1].isdone && !vp[i][j][k+1].isdone)
-				   ||(!vp[i][j][k].isdone && !vp[i+1][j][k].isdone && !vp[i][j][k+1].isdone)
-				   ||(!vp[i+1][j+1][k].isdone && !vp[i+1][j][k].isdone && !vp[i+1][j+1][k+1].isdone)
-				   ||(!vp[i+1][j+1][k].isdone && !vp[i+1][j][k+1].isdone && !vp[i+1][j+1][k+1].isdone)
-				   ||(!vp[i+1][j][k].isdone && !vp[i+1][j][k+1].isdone && !vp[i+1][j+1][k+1].isdone)
-				   ||(!vp[i+1][j+1][k].isdone && !vp[i+1][j][k].isdone && !vp[i+1][j][k+1].isdone )
-				   ||(!vp[i+1][j+1][k].isdone && !vp[i][j+1][k].isdone && !vp[i][j+1][k+1].isdone )
-				   ||(!vp[i][j+1][k].isdone && !vp[i][j+1][k+1].isdone && !vp[i+1][j+1][k+1].isdone)
-				   ||(!vp[i+1][j+1][k].isdone && !vp[i][j+1][k+1].isdone && !vp[i+1][j+1][k+1].isdone)
-				   ||(!vp[i+1][j+1][k].isdone && !vp[i][j+1][k].isdone && !vp[i+1][j+1][k+1].isdone)
-				   ||(!vp[i][j][k].isdone && !vp[i][j+1][k].isdone && !vp[i][j][k+1].isdone )
-				   ||(!vp[i][j][k].isdone && !vp[i][j][k+1].isdone && !vp[i][j+1][k+1].isdone)
-				   ||(!vp[i][j][k+1].isdone && !vp[i][j+1][k].isdone && !vp[i][j+1][k+1].isdone)
-				   ||(!vp[i][j][k].isdone && !vp[i][j+1][k].isdone && !vp[i][j+1][k+1].isdone))
+					else if((!vp.isDone(i,j,k) && !vp.isDone(i+1,j,k) && !vp.isDone(i+1,j+1,k))
+				   ||(!vp.isDone(i,j,k) && !vp.isDone(i,j+1,k) && !vp.isDone(i+1,j+1,k))
+				   ||(!vp.isDone(i,j+1,k) && !vp.isDone(i+1,j,k) && !vp.isDone(i+1,j+1,k))
+				   ||(!vp.isDone(i,j,k) && !vp.isDone(i,j+1,k) && !vp.isDone(i+1,j,k))
+				   ||(!vp.isDone(i,j,k+1) && !vp.isDone(i+1,j,k+1) && !vp.isDone(i+1,j+1,k+1))
+				   ||(!vp.isDone(i,j,k+1) && !vp.isDone(i,j+1,k+1) && !vp.isDone(i+1,j+1,k+1))
+				   ||(!vp.isDone(i,j+1,k+1) && !vp.isDone(i+1,j,k+1) && !vp.isDone(i+1,j+1,k+1))
+				   ||(!vp.isDone(i,j,k+1) && !vp.isDone(i,j+1,k+1) && !vp.isDone(i+1,j,k+1))
+				   ||(!vp.isDone(i,j,k) && !vp.isDone(i+1,j,k) && !vp.isDone(i+1,j,k+1))
+				   ||(!vp.isDone(i+1,j,k) && !vp.isDone(i+1,j,k+1) && !vp.isDone(i,j,k+1))
+				   ||(!vp.isDone(i,j,k) && !vp.isDone(i+1,j,k+1) && !vp.isDone(i,j,k+1))
+				   ||(!vp.isDone(i,j,k) && !vp.isDone(i+1,j,k) && !vp.isDone(i,j,k+1))
+				   ||(!vp.isDone(i+1,j+1,k) && !vp.isDone(i+1,j,k) && !vp.isDone(i+1,j+1,k+1))
+				   ||(!vp.isDone(i+1,j+1,k) && !vp.isDone(i+1,j,k+1) && !vp.isDone(i+1,j+1,k+1))
+				   ||(!vp.isDone(i+1,j,k) && !vp.isDone(i+1,j,k+1) && !vp.isDone(i+1,j+1,k+1))
+				   ||(!vp.isDone(i+1,j+1,k) && !vp.isDone(i+1,j,k) && !vp.isDone(i+1,j,k+1) )
+				   ||(!vp.isDone(i+1,j+1,k) && !vp.isDone(i,j+1,k) && !vp.isDone(i,j+1,k+1) )
+				   ||(!vp.isDone(i,j+1,k) && !vp.isDone(i,j+1,k+1) && !vp.isDone(i+1,j+1,k+1))
+				   ||(!vp.isDone(i+1,j+1,k) && !vp.isDone(i,j+1,k+1) && !vp.isDone(i+1,j+1,k+1))
+				   ||(!vp.isDone(i+1,j+1,k) && !vp.isDone(i,j+1,k) && !vp.isDone(i+1,j+1,k+1))
+				   ||(!vp.isDone(i,j,k) && !vp.isDone(i,j+1,k) && !vp.isDone(i,j,k+1) )
+				   ||(!vp.isDone(i,j,k) && !vp.isDone(i,j,k+1) && !vp.isDone(i,j+1,k+1))
+				   ||(!vp.isDone(i,j,k+1) && !vp.isDone(i,j+1,k) && !vp.isDone(i,j+1,k+1))
+				   ||(!vp.isDone(i,j,k) && !vp.isDone(i,j+1,k) && !vp.isDone(i,j+1,k+1)))
 				{
-					if(!vp[i][j][k].isdone && !vp[i+1][j][k].isdone && !vp[i+1][j+1][k].isdone)
+					if(!vp.isDone(i,j,k) && !vp.isDone(i+1,j,k) && !vp.isDone(i+1,j+1,k))
 					{
 						tp[2][0]=i;tp[2][1]=j;tp[2][2]=k+1;
 						tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k+1;
 						tp[0][0]=i+1;tp[0][1]=j+1;tp[0][2]=k+1;
 						tp[3][0]=i;tp[3][1]=j+1;tp[3][2]=k;
 					}//11
-					else if(!vp[i][j][k].isdone && !vp[i][j+1][k].isdone && !vp[i+1][j+1][k].isdone)
+					else if(!vp.isDone(i,j,k) && !vp.isDone(i,j+1,k) && !vp.isDone(i+1,j+1,k))
 					{
 						tp[2][0]=i+1;tp[2][1]=j+1;tp[2][2]=k+1;
 						tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k+1;
 						tp[0][0]=i;tp[0][1]=j;tp[0][2]=k+1;
 						tp[3][0]=i+1;tp[3][1]=j;tp[3][2]=k;
 					}//12
-					else if(!vp[i][j+1][k].isdone && !vp[i+1][j][k].isdone&& !vp[i+1][j+1][k].isdone)
+					else if(!vp.isDone(i,j+1,k) && !vp.isDone(i+1,j,k)&& !vp.isDone(i+1,j+1,k))
 					{
 						tp[2][0]=i+1;tp[2][1]=j;tp[2][2]=k+1;
 						tp[1][0]=i+1;tp[1][1]=j+1;tp[1][2]=k+1;
 						tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k+1;
 						tp[3][0]=i;tp[3][1]=j;tp[3][2]=k;
 					}//13
-					else if(!vp[i][j][k].isdone && !vp[i][j+1][k].isdone&& !vp[i+1][j][k].isdone)
+					else if(!vp.isDone(i,j,k) && !vp.isDone(i,j+1,k)&& !vp.isDone(i+1,j,k))
 					{
 						tp[2][0]=i;tp[2][1]=j+1;tp[2][2]=k+1;
 						tp[1][0]=i;tp[1][1]=j;tp[1][2]=k+1;
 						tp[0][0]=i+1;tp[0][1]=j;tp[0][2]=k+1;
 						tp[3][0]=i+1;tp[3][1]=j+1;tp[3][2]=k;
 					}//14
-					else if(!vp[i][j][k+1].isdone && !vp[i+1][j][k+1].isdone&& !vp[i+1][j+1][k+1].isdone)
+					else if(!vp.isDone(i,j,k+1) && !vp.isDone(i+1,j,k+1)&& !vp.isDone(i+1,j+1,k+1))
 					{
 						tp[2][0]=i+1;tp[2][1]=j+1;tp[2][2]=k;
 						tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k;
 						tp[0][0]=i;tp[0][1]=j;tp[0][2]=k;
 						tp[3][0]=i;tp[3][1]=j+1;tp[3][2]=k+1;
 					}//21
-					else if(!vp[i][j][k+1].isdone && !vp[i][j+1][k+1].isdone&& !vp[i+1][j+1][k+1].isdone)
+					else if(!vp.isDone(i,j,k+1) && !vp.isDone(i,j+1,k+1)&& !vp.isDone(i+1,j+1,k+1))
 					{
 						tp[2][0]=i;tp[2][1]=j;tp[2][2]=k;
 						tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k;
 						tp[0][0]=i+1;tp[0][1]=j+1;tp[0][2]=k;
 						tp[3][0]=i+1;tp[3][1]=j;tp[3][2]=k+1;
 					}//22
-					else if(!vp[i][j+1][k+1].isdone && !vp[i+1][j][k+1].isdone&& !vp[i+1][j+1][k+1].isdone)
+					else if(!vp.isDone(i,j+1,k+1) && !vp.isDone(i+1,j,k+1)&& !vp.isDone(i+1,j+1,k+1))
 					{
 						tp[2][0]=i;tp[2][1]=j+1;tp[2][2]=k;
 						tp[1][0]=i+1;tp[1][1]=j+1;tp[1][2]=k;
 						tp[0][0]=i+1;tp[0][1]=j;tp[0][2]=k;
 						tp[3][0]=i;tp[3][1]=j;tp[3][2]=k+1;
 					}//23
-					else if(!vp[i][j][k+1].isdone && !vp[i][j+1][k+1].isdone&& !vp[i+1][j][k+1].isdone)
+					else if(!vp.isDone(i,j,k+1) && !vp.isDone(i,j+1,k+1)&& !vp.isDone(i+1,j,k+1))
 					{
 						tp[2][0]=i+1;tp[2][1]=j;tp[2][2]=k;
 						tp[1][0]=i;tp[1][1]=j;tp[1][2]=k;
 						tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k;
 						tp[3][0]=i+1;tp[3][1]=j+1;tp[3][2]=k+1;
 					}//24
-					else if(!vp[i][j][k].isdone && !vp[i+1][j][k].isdone&& !vp[i+1][j][k+1].isdone)
+					else if(!vp.isDone(i,j,k) && !vp.isDone(i+1,j,k)&& !vp.isDone(i+1,j,k+1))
 					{
 						tp[2][0]=i+1;tp[2][1]=j+1;tp[2][2]=k+1;
 						tp[1][0]=i+1;tp[1][1]=j+1;tp[1][2]=k;
 						tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k;
 						tp[3][0]=i;tp[3][1]=j;tp[3][2]=k+1;
 					}//31
-					else if(!vp[i+1][j][k].isdone && !vp[i+1][j][k+1].isdone && !vp[i][j][k+1].isdone)
+					else if(!vp.isDone(i+1,j,k) && !vp.isDone(i+1,j,k+1) && !vp.isDone(i,j,k+1))
 					{
 						tp[2][0]=i;tp[2][1]=j+1;tp[2][2]=k+1;
 						tp[1][0]=i+1;tp[1][1]=j+1;tp[1][2]=k+1;
 						tp[0][0]=i+1;tp[0][1]=j+1;tp[0][2]=k;
 						tp[3][0]=i;tp[3][1]=j;tp[3][2]=k;
 					}//32
-					else if(!vp[i][j][k].isdone && !vp[i+1][j][k+1].isdone && !vp[i][j][k+1].isdone)
+					else if(!vp.isDone(i,j,k) && !vp.isDone(i+1,j,k+1) && !vp.isDone(i,j,k+1))
 					{
 						tp[2][0]=i;tp[2][1]=j+1;tp[2][2]=k;
 						tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k+1;
 						tp[0][0]=i+1;tp[0][1]=j+1;tp[0][2]=k+1;
 						tp[3][0]=i+1;tp[3][1]=j;tp[3][2]=k;
 					}//33
-					else if(!vp[i][j][k].isdone && !vp[i+1][j][k].isdone && !vp[i][j][k+1].isdone)
+					else if(!vp.isDone(i,j,k) && !vp.isDone(i+1,j,k) && !vp.isDone(i,j,k+1))
 					{
 						tp[2][0]=i+1;tp[2][1]=j+1;tp[2][2]=k;
 						tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k;
 						tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k+1;
 						tp[3][0]=i+1;tp[3][1]=j;tp[3][2]=k+1;
 					}//34
-					else if(!vp[i+1][j+1][k].isdone && !vp[i+1][j][k].isdone && !vp[i+1][j+1][k+1].isdone)
+					else if(!vp.isDone(i+1,j+1,k) && !vp.isDone(i+1,j,k) && !vp.isDone(i+1,j+1,k+1))
 					{
 						tp[2][0]=i;tp[2][1]=j+1;tp[2][2]=k+1;
 						tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k;
 						tp[0][0]=i;tp[0][1]=j;tp[0][2]=k;
 						tp[3][0]=i+1;tp[3][1]=j;tp[3][2]=k+1;
 					}//41
-					else if(!vp[i+1][j+1][k].isdone && !vp[i+1][j][k+1].isdone && !vp[i+1][j+1][k+1].isdone)
+					else if(!vp.isDone(i+1,j+1,k) && !vp.isDone(i+1,j,k+1) && !vp.isDone(i+1,j+1,k+1))
 					{
 						tp[2][0]=i;tp[2][1]=j;tp[2][2]=k+1;
 						tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k+1;
 						tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k;
 						tp[3][0]=i+1;tp[3][1]=j;tp[3][2]=k;
 					}//42
-					else if(!vp[i+1][j][k].isdone && !vp[i+1][j][k+1].isdone && !vp[i+1][j+1][k+1].isdone)
+					else if(!vp.isDone(i+1,j,k) && !vp.isDone(i+1,j,k+1) && !vp.isDone(i+1,j+1,k+1))
 					{
 						tp[2][0]=i;tp[2][1]=j;tp[2][2]=k;
 						tp[1][0]=i;tp[1][1]=j;tp[1][2]=k+1;
 						tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k+1;
 						tp[3][0]=i+1;tp[3][1]=j+1;tp[3][2]=k;
 					}//43
-					else if(!vp[i+1][j+1][k].isdone && !vp[i+1][j][k].isdone && !vp[i+1][j][k+1].isdone)
+					else if(!vp.isDone(i+1,j+1,k) && !vp.isDone(i+1,j,k) && !vp.isDone(i+1,j,k+1))
 					{
 						tp[2][0]=i;tp[2][1]=j+1;tp[2][2]=k;
 						tp[1][0]=i;tp[1][1]=j;tp[1][2]=k;
 						tp[0][0]=i;tp[0][1]=j;tp[0][2]=k+1;
 						tp[3][0]=i+1;tp[3][1]=j+1;tp[3][2]=k+1;
 					}//44
-					else if(!vp[i+1][j+1][k].isdone && !vp[i][j+1][k].isdone && !vp[i][j+1][k+1].isdone )
+					else if(!vp.isDone(i+1,j+1,k) && !vp.isDone(i,j+1,k) && !vp.isDone(i,j+1,k+1) )
 					{
 						tp[2][0]=i;tp[2][1]=j;tp[2][2]=k+1;
 						tp[1][0]=i;tp[1][1]=j;tp[1][2]=k;
 						tp[0][0]=i+1;tp[0][1]=j;tp[0][2]=k;
 						tp[3][0]=i+1;tp[3][1]=j+1;tp[3][2]=k+1;
 					}//51
-					else if( !vp[i][j+1][k].isdone && !vp[i][j+1][k+1].isdone && !vp[i+1][j+1][k+1].isdone)
+					else if( !vp.isDone(i,j+1,k) && !vp.isDone(i,j+1,k+1) && !vp.isDone(i+1,j+1,k+1))
 					{
 						tp[2][0]=i+1;tp[2][1]=j;tp[2][2]=k+1;
 						tp[1][0]=i;tp[1][1]=j;tp[1][2]=k+1;
 						tp[0][0]=i;tp[0][1]=j;tp[0][2]=k;
 						tp[3][0]=i+1;tp[3][1]=j+1;tp[3][2]=k;
 					}//52
-					else if(!vp[i+1][j+1][k].isdone && !vp[i][j+1][k+1].isdone && !vp[i+1][j+1][k+1].isdone)
+					else if(!vp.isDone(i+1,j+1,k) && !vp.isDone(i,j+1,k+1) && !vp.isDone(i+1,j+1,k+1))
 					{
 						tp[2][0]=i+1;tp[2][1]=j;tp[2][2]=k;
 						tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k+1;
 						tp[0][0]=i;tp[0][1]=j;tp[0][2]=k+1;
 						tp[3][0]=i;tp[3][1]=j+1;tp[3][2]=k;
 					}//53
-					else if(!vp[i+1][j+1][k].isdone && !vp[i][j+1][k].isdone && !vp[i+1][j+1][k+1].isdone)
+					else if(!vp.isDone(i+1,j+1,k) && !vp.isDone(i,j+1,k) && !vp.isDone(i+1,j+1,k+1))
 					{
 						tp[2][0]=i;tp[2][1]=j;tp[2][2]=k;
 						tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k;
 						tp[0][0]=i+1;tp[0][1]=j;tp[0][2]=k+1;
 						tp[3][0]=i;tp[3][1]=j+1;tp[3][2]=k+1;
 					}//54
-					else if(!vp[i][j][k].isdone && !vp[i][j+1][k].isdone && !vp[i][j][k+1].isdone )
+					else if(!vp.isDone(i,j,k) && !vp.isDone(i,j+1,k) && !vp.isDone(i,j,k+1) )
 					{
 						tp[2][0]=i+1;tp[2][1]=j;tp[2][2]=k+1;
 						tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k;
 						tp[0][0]=i+1;tp[0][1]=j+1;tp[0][2]=k;
 						tp[3][0]=i;tp[3][1]=j+1;tp[3][2]=k+1;
 					}//61
-					else if(!vp[i][j][k].isdone && !vp[i][j][k+1].isdone && !vp[i][j+1][k+1].isdone)
+					else if(!vp.isDone(i,j,k) && !vp.isDone(i,j,k+1) && !vp.isDone(i,j+1,k+1))
 					{
 						tp[2][0]=i+1;tp[2][1]=j+1;tp[2][2]=k+1;
 						tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k+1;
 						tp[0][0]=i+1;tp[0][1]=j;tp[0][2]=k;
 						tp[3][0]=i;tp[3][1]=j+1;tp[3][2]=k;
 					}//62
-					else if(!vp[i][j][k+1].isdone && !vp[i][j+1][k].isdone && !vp[i][j+1][k+1].isdone)
+					else if(!vp.isDone(i,j,k+1) && !vp.isDone(i,j+1,k) && !vp.isDone(i,j+1,k+1))
 					{
 						tp[2][0]=i+1;tp[2][1]=j+1;tp[2][2]=k;
 						tp[1][0]=i+1;tp[1][1]=j+1;tp[1][2]=k+1;
 						tp[0][0]=i+1;tp[0][1]=j;tp[0][2]=k+1;
 						tp[3][0]=i;tp[3][1]=j;tp[3][2]=k;
 					}//63
-					else if(!vp[i][j][k].isdone && !vp[i][j+1][k].isdone && !vp[i][j+1][k+1].isdone)
+					else if(!vp.isDone(i,j,k) && !vp.isDone(i,j+1,k) && !vp.isDone(i,j+1,k+1))
 					{
 						tp[2][0]=i+1;tp[2][1]=j;tp[2][2]=k;
 						tp[1][0]=i+1;tp[1][1]=j+1;tp[1][2]=k;
@@ -2485,9 +2564,9 @@ public void marchingcube(int stype) {
 					}//64
 					for(ii=0;ii<4;ii++)
 					{
-						if(vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]==-1)
+						if(vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]==-1)
 						{
-							vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]=vertices.size();
+							vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]=vertices.size();
 //							verts[vertnumber].p.x=tp[ii][0];
 //							verts[vertnumber].p.y=tp[ii][1];
 //							verts[vertnumber].p.z=tp[ii][2];
@@ -2503,34 +2582,34 @@ public void marchingcube(int stype) {
 //					faces[facenumber].b=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
 //					faces[facenumber++].c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
                                         FaceInfo face = new FaceInfo();
-                                        face.a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
-					face.b=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
-					face.c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
+                                        face.a=vertseq[vp.index(tp[0][0],tp[0][1],tp[0][2])];
+					face.b=vertseq[vp.index(tp[1][0],tp[1][1],tp[1][2])];
+					face.c=vertseq[vp.index(tp[2][0],tp[2][1],tp[2][2])];
                                         faceList.add(face);
 
 //					faces[facenumber].a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
 //					faces[facenumber].b=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
 //					faces[facenumber++].c=vertseq[tp[3][0]][tp[3][1]][tp[3][2]];
                                         face = new FaceInfo();
-                                        face.a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
-					face.b=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
-					face.c=vertseq[tp[3][0]][tp[3][1]][tp[3][2]];
+                                        face.a=vertseq[vp.index(tp[0][0],tp[0][1],tp[0][2])];
+					face.b=vertseq[vp.index(tp[2][0],tp[2][1],tp[2][2])];
+					face.c=vertseq[vp.index(tp[3][0],tp[3][1],tp[3][2])];
                                         faceList.add(face);
 				}//no5 24
-					else if((!vp[i][j][k].isdone && !vp[i+1][j][k].isdone && !vp[i+1][j+1][k+1].isdone)//1
-						||(!vp[i][j+1][k].isdone && !vp[i+1][j+1][k].isdone && !vp[i][j][k+1].isdone)//2
-						||(!vp[i][j+1][k+1].isdone && !vp[i+1][j+1][k+1].isdone && !vp[i+1][j][k].isdone)//3
-						||(!vp[i][j][k+1].isdone && !vp[i+1][j][k+1].isdone && !vp[i+1][j+1][k].isdone)//4
-						||(!vp[i][j][k].isdone && !vp[i][j+1][k].isdone && !vp[i+1][j+1][k+1].isdone)//5
-						||(!vp[i+1][j][k+1].isdone && !vp[i+1][j+1][k+1].isdone && !vp[i][j+1][k].isdone)//6
-						||(!vp[i+1][j][k].isdone && !vp[i+1][j+1][k].isdone && !vp[i][j+1][k+1].isdone)//7
-						||(!vp[i][j][k+1].isdone && !vp[i][j+1][k+1].isdone && !vp[i+1][j+1][k].isdone)//8
-						||(!vp[i][j][k].isdone && !vp[i][j][k+1].isdone && !vp[i+1][j+1][k+1].isdone)//9
-						||(!vp[i+1][j+1][k].isdone && !vp[i+1][j+1][k+1].isdone && !vp[i][j][k].isdone)//10
-						||(!vp[i+1][j][k].isdone && !vp[i+1][j][k+1].isdone && !vp[i][j+1][k+1].isdone)//11
-						||(!vp[i][j+1][k].isdone && !vp[i][j+1][k+1].isdone && !vp[i+1][j][k+1].isdone))
-					{
-						if(!vp[i][j][k].isdone && !vp[i+1][j][k].isdone && !vp[i+1][j+1][k+1].isdone)
+					else if((!vp.isDone(i,j,k) && !vp.isDone(i+1,j,k) && !vp.isDone(i+1,j+1,k+1))//1
+						||(!vp.isDone(i,j+1,k) && !vp.isDone(i+1,j+1,k) && !vp.isDone(i,j,k+1))//2
+						||(!vp.isDone(i,j+1,k+1) && !vp.isDone(i+1,j+1,k+1) && !vp.isDone(i+1,j,k))//3
+						||(!vp.isDone(i,j,k+1) && !vp.isDone(i+1,j,k+1) && !vp.isDone(i+1,j+1,k))//4
+						||(!vp.isDone(i,j,k) && !vp.isDone(i,j+1,k) && !vp.isDone(i+1,j+1,k+1))//5
+						||(!vp.isDone(i+1,j,k+1) && !vp.isDone(i+1,j+1,k+1) && !vp.isDone(i,j+1,k))//6
+						||(!vp.isDone(i+1,j,k) && !vp.isDone(i+1,j+1,k) && !vp.isDone(i,j+1,k+1))//7
+						||(!vp.isDone(i,j,k+1) && !vp.isDone(i,j+1,k+1) && !vp.isDone(i+1,j+1,k))//8
+						||(!vp.isDone(i,j,k) && !vp.isDone(i,j,k+1) && !vp.isDone(i+1,j+1,k+1))//9
+						||(!vp.isDone(i+1,j+1,k) && !vp.isDone(i+1,j+1,k+1) && !vp.isDone(i,j,k))//10
+						||(!vp.isDone(i+1,j,k) && !vp.isDone(i+1,j,k+1) && !vp.isDone(i,j+1,k+1))//11
+						||(!vp.isDone(i,j+1,k) && !vp.isDone(i,j+1,k+1) && !vp.isDone(i+1,j,k+1)))
+					{
+						if(!vp.isDone(i,j,k) && !vp.isDone(i+1,j,k) && !vp.isDone(i+1,j+1,k+1))
 						{
 							tp[0][0]=i;tp[0][1]=j;tp[0][2]=k+1;
 							tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k;
@@ -2538,7 +2617,7 @@ public void marchingcube(int stype) {
 							tp[3][0]=i+1;tp[3][1]=j;tp[3][2]=k+1;
 							tp[4][0]=i;tp[4][1]=j+1;tp[4][2]=k+1;
 						}//1
-						else if(!vp[i][j+1][k].isdone && !vp[i+1][j+1][k].isdone && !vp[i][j][k+1].isdone)
+						else if(!vp.isDone(i,j+1,k) && !vp.isDone(i+1,j+1,k) && !vp.isDone(i,j,k+1))
 						{
 							tp[0][0]=i+1;tp[0][1]=j+1;tp[0][2]=k+1;
 							tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k;
@@ -2546,7 +2625,7 @@ public void marchingcube(int stype) {
 							tp[3][0]=i;tp[3][1]=j+1;tp[3][2]=k+1;
 							tp[4][0]=i+1;tp[4][1]=j;tp[4][2]=k+1;
 						}//2
-						else if(!vp[i][j+1][k+1].isdone && !vp[i+1][j+1][k+1].isdone && !vp[i+1][j][k].isdone)
+						else if(!vp.isDone(i,j+1,k+1) && !vp.isDone(i+1,j+1,k+1) && !vp.isDone(i+1,j,k))
 						{
 							tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k;
 							tp[1][0]=i;tp[1][1]=j;tp[1][2]=k+1;
@@ -2554,7 +2633,7 @@ public void marchingcube(int stype) {
 							tp[3][0]=i+1;tp[3][1]=j+1;tp[3][2]=k;
 							tp[4][0]=i;tp[4][1]=j;tp[4][2]=k;
 						}//3
-						else if(!vp[i][j][k+1].isdone && !vp[i+1][j][k+1].isdone && !vp[i+1][j+1][k].isdone)
+						else if(!vp.isDone(i,j,k+1) && !vp.isDone(i+1,j,k+1) && !vp.isDone(i+1,j+1,k))
 						{
 							tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k+1;
 							tp[1][0]=i;tp[1][1]=j;tp[1][2]=k;
@@ -2562,7 +2641,7 @@ public void marchingcube(int stype) {
 							tp[3][0]=i+1;tp[3][1]=j+1;tp[3][2]=k+1;
 							tp[4][0]=i;tp[4][1]=j+1;tp[4][2]=k;
 						}//4
-						else if(!vp[i][j][k].isdone && !vp[i][j+1][k].isdone && !vp[i+1][j+1][k+1].isdone)
+						else if(!vp.isDone(i,j,k) && !vp.isDone(i,j+1,k) && !vp.isDone(i+1,j+1,k+1))
 						{
 						    //tp[0][0]=i;tp[0][1]=j;tp[0][2]=k+1;
 							//tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k;
@@ -2574,7 +2653,7 @@ public void marchingcube(int stype) {
 							tp[2][0]=i;tp[2][1]=j+1;tp[2][2]=k+1;
 							tp[4][0]=i+1;tp[4][1]=j;tp[4][2]=k+1;
 						}//5
-						else if(!vp[i+1][j][k+1].isdone && !vp[i+1][j+1][k+1].isdone && !vp[i][j+1][k].isdone)
+						else if(!vp.isDone(i+1,j,k+1) && !vp.isDone(i+1,j+1,k+1) && !vp.isDone(i,j+1,k))
 						{
 							tp[0][0]=i;tp[0][1]=j;tp[0][2]=k+1;
 							tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k;
@@ -2582,7 +2661,7 @@ public void marchingcube(int stype) {
 							tp[3][0]=i;tp[3][1]=j+1;tp[3][2]=k+1;
 							tp[4][0]=i;tp[4][1]=j;tp[4][2]=k;
 						}//6
-						else if(!vp[i+1][j][k].isdone && !vp[i+1][j+1][k].isdone && !vp[i][j+1][k+1].isdone)
+						else if(!vp.isDone(i+1,j,k) && !vp.isDone(i+1,j+1,k) && !vp.isDone(i,j+1,k+1))
 						{
 							tp[0][0]=i+1;tp[0][1]=j;tp[0][2]=k+1;
 							tp[1][0]=i;tp[1][1]=j;tp[1][2]=k;
@@ -2590,7 +2669,7 @@ public void marchingcube(int stype) {
 							tp[3][0]=i+1;tp[3][1]=j+1;tp[3][2]=k+1;
 							tp[4][0]=i;tp[4][1]=j;tp[4][2]=k+1;
 						}//7
-						else if(!vp[i][j][k+1].isdone && !vp[i][j+1][k+1].isdone && !vp[i+1][j+1][k].isdone)
+						else if(!vp.isDone(i,j,k+1) && !vp.isDone(i,j+1,k+1) && !vp.isDone(i+1,j+1,k))
 						{
 							tp[0][0]=i;tp[0][1]=j;tp[0][2]=k;
 							tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k+1;
@@ -2598,7 +2677,7 @@ public void marchingcube(int stype) {
 							tp[3][0]=i;tp[3][1]=j+1;tp[3][2]=k;
 							tp[4][0]=i+1;tp[4][1]=j;tp[4][2]=k;
 						}//8
-						else if(!vp[i][j][k].isdone && !vp[i][j][k+1].isdone && !vp[i+1][j+1][k+1].isdone)
+						else if(!vp.isDone(i,j,k) && !vp.isDone(i,j,k+1) && !vp.isDone(i+1,j+1,k+1))
 						{
 							tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k;
 							tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k;
@@ -2606,7 +2685,7 @@ public void marchingcube(int stype) {
 							tp[3][0]=i;tp[3][1]=j+1;tp[3][2]=k+1;
 							tp[4][0]=i+1;tp[4][1]=j+1;tp[4][2]=k;
 						}//9
-						else if(!vp[i+1][j+1][k].isdone && !vp[i+1][j+1][k+1].isdone && !vp[i][j][k].isdone)
+						else if(!vp.isDone(i+1,j+1,k) && !vp.isDone(i+1,j+1,k+1) && !vp.isDone(i,j,k))
 						{
 							tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k+1;
 							tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k+1;
@@ -2614,7 +2693,7 @@ public void marchingcube(int stype) {
 							tp[3][0]=i;tp[3][1]=j+1;tp[3][2]=k;
 							tp[4][0]=i;tp[4][1]=j;tp[4][2]=k+1;
 						}//10
-						else if(!vp[i+1][j][k].isdone && !vp[i+1][j][k+1].isdone && !vp[i][j+1][k+1].isdone)
+						else if(!vp.isDone(i+1,j,k) && !vp.isDone(i+1,j,k+1) && !vp.isDone(i,j+1,k+1))
 						{
 							tp[0][0]=i;tp[0][1]=j;tp[0][2]=k;
 							tp[1][0]=i+1;tp[1][1]=j+1;tp[1][2]=k;
@@ -2622,7 +2701,7 @@ public void marchingcube(int stype) {
 							tp[3][0]=i;tp[3][1]=j;tp[3][2]=k+1;
 							tp[4][0]=i;tp[4][1]=j+1;tp[4][2]=k;
 						}//11
-						else if(!vp[i][j+1][k].isdone && !vp[i][j+1][k+1].isdone && !vp[i+1][j][k+1].isdone)
+						else if(!vp.isDone(i,j+1,k) && !vp.isDone(i,j+1,k+1) && !vp.isDone(i+1,j,k+1))
 						{
 							tp[0][0]=i+1;tp[0][1]=j+1;tp[0][2]=k;
 							tp[1][0]=i;tp[1][1]=j;tp[1][2]=k;
@@ -2632,9 +2711,9 @@ public void marchingcube(int stype) {
 						}//12
 						for(ii=0;ii<5;ii++)
 						{
-							if(vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]==-1)
+							if(vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]==-1)
 							{
-								vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]=vertices.size();
+								vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]=vertices.size();
 //								verts[vertnumber].p.x=tp[ii][0];
 //								verts[vertnumber].p.y=tp[ii][1];
 //								verts[vertnumber].p.z=tp[ii][2];
@@ -2650,44 +2729,44 @@ public void marchingcube(int stype) {
 //						faces[facenumber].b=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
 //						faces[facenumber++].c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
                                                 FaceInfo face = new FaceInfo();
-                                                face.a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
-						face.b=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
-						face.c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
+                                                face.a=vertseq[vp.index(tp[0][0],tp[0][1],tp[0][2])];
+						face.b=vertseq[vp.index(tp[1][0],tp[1][1],tp[1][2])];
+						face.c=vertseq[vp.index(tp[2][0],tp[2][1],tp[2][2])];
                                                 faceList.add(face);
 
 //						faces[facenumber].a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
 //						faces[facenumber].b=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
 //						faces[facenumber++].c=vertseq[tp[3][0]][tp[3][1]][tp[3][2]];
                                                 face = new FaceInfo();
-                                                face.a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
-						face.b=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
-						face.c=vertseq[tp[3][0]][tp[3][1]][tp[3][2]];
+                                                face.a=vertseq[vp.index(tp[0][0],tp[0][1],tp[0][2])];
+						face.b=vertseq[vp.index(tp[2][0],tp[2][1],tp[2][2])];
+						face.c=vertseq[vp.index(tp[3][0],tp[3][1],tp[3][2])];
                                                 faceList.add(face);
 
 //						faces[facenumber].a=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
 //						faces[facenumber].b=vertseq[tp[4][0]][tp[4][1]][tp[4][2]];
 //						faces[facenumber++].c=vertseq[tp[3][0]][tp[3][1]][tp[3][2]];
                                                 face = new FaceInfo();
-                                                face.a=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
-						face.b=vertseq[tp[4][0]][tp[4][1]][tp[4][2]];
-						face.c=vertseq[tp[3][0]][tp[3][1]][tp[3][2]];
+                                                face.a=vertseq[vp.index(tp[2][0],tp[2][1],tp[2][2])];
+						face.b=vertseq[vp.index(tp[4][0],tp[4][1],tp[4][2])];
+						face.c=vertseq[vp.index(tp[3][0],tp[3][1],tp[3][2])];
                                                 faceList.add(face);
 
 					}//no.6 12-1
-					else if((!vp[i][j][k].isdone && !vp[i+1][j][k].isdone && !vp[i][j+1][k+1].isdone)//1
-						||(!vp[i][j+1][k].isdone && !vp[i+1][j+1][k].isdone && !vp[i+1][j][k+1].isdone)//2
-						||(!vp[i][j+1][k+1].isdone && !vp[i+1][j+1][k+1].isdone && !vp[i][j][k].isdone)//3
-						||(!vp[i][j][k+1].isdone && !vp[i+1][j][k+1].isdone && !vp[i][j+1][k].isdone)//4
-						||(!vp[i][j][k].isdone && !vp[i][j+1][k].isdone && !vp[i+1][j][k+1].isdone)//5
-						||(!vp[i+1][j][k+1].isdone && !vp[i+1][j+1][k+1].isdone && !vp[i][j][k].isdone)//6
-						||(!vp[i+1][j][k].isdone && !vp[i+1][j+1][k].isdone && !vp[i][j][k+1].isdone)//7
-						||(!vp[i][j][k+1].isdone && !vp[i][j+1][k+1].isdone && !vp[i+1][j][k].isdone)//8
-						||(!vp[i][j][k].isdone && !vp[i][j][k+1].isdone && !vp[i+1][j+1][k].isdone)//9
-						||(!vp[i+1][j+1][k].isdone && !vp[i+1][j+1][k+1].isdone && !vp[i][j][k+1].isdone)//10
-						||(!vp[i+1][j][k].isdone && !vp[i+1][j][k+1].isdone && !vp[i][j+1][k].isdone)//11
-						||(!vp[i][j+1][k].isdone && !vp[i][j+1][k+1].isdone && !vp[i+1][j][k].isdone))
-					{
-						if(!vp[i][j][k].isdone && !vp[i+1][j][k].isdone && !vp[i][j+1][k+1].isdone)
+					else if((!vp.isDone(i,j,k) && !vp.isDone(i+1,j,k) && !vp.isDone(i,j+1,k+1))//1
+						||(!vp.isDone(i,j+1,k) && !vp.isDone(i+1,j+1,k) && !vp.isDone(i+1,j,k+1))//2
+						||(!vp.isDone(i,j+1,k+1) && !vp.isDone(i+1,j+1,k+1) && !vp.isDone(i,j,k))//3
+						||(!vp.isDone(i,j,k+1) && !vp.isDone(i+1,j,k+1) && !vp.isDone(i,j+1,k))//4
+						||(!vp.isDone(i,j,k) && !vp.isDone(i,j+1,k) && !vp.isDone(i+1,j,k+1))//5
+						||(!vp.isDone(i+1,j,k+1) && !vp.isDone(i+1,j+1,k+1) && !vp.isDone(i,j,k))//6
+						||(!vp.isDone(i+1,j,k) && !vp.isDone(i+1,j+1,k) && !vp.isDone(i,j,k+1))//7
+						||(!vp.isDone(i,j,k+1) && !vp.isDone(i,j+1,k+1) && !vp.isDone(i+1,j,k))//8
+						||(!vp.isDone(i,j,k) && !vp.isDone(i,j,k+1) && !vp.isDone(i+1,j+1,k))//9
+						||(!vp.isDone(i+1,j+1,k) && !vp.isDone(i+1,j+1,k+1) && !vp.isDone(i,j,k+1))//10
+						||(!vp.isDone(i+1,j,k) && !vp.isDone(i+1,j,k+1) && !vp.isDone(i,j+1,k))//11
+						||(!vp.isDone(i,j+1,k) && !vp.isDone(i,j+1,k+1) && !vp.isDone(i+1,j,k)))
+					{
+						if(!vp.isDone(i,j,k) && !vp.isDone(i+1,j,k) && !vp.isDone(i,j+1,k+1))
 						{
 							tp[0][0]=i;tp[0][1]=j;tp[0][2]=k+1;
 							tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k;
@@ -2695,7 +2774,7 @@ public void marchingcube(int stype) {
 							tp[3][0]=i+1;tp[3][1]=j;tp[3][2]=k+1;
 							tp[4][0]=i+1;tp[4][1]=j+1;tp[4][2]=k+1;
 						}//1
-						else if(!vp[i][j+1][k].isdone && !vp[i+1][j+1][k].isdone && !vp[i+1][j][k+1].isdone)
+						else if(!vp.isDone(i,j+1,k) && !vp.isDone(i+1,j+1,k) && !vp.isDone(i+1,j,k+1))
 						{
 							tp[0][0]=i+1;tp[0][1]=j+1;tp[0][2]=k+1;
 							tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k;
@@ -2703,7 +2782,7 @@ public void marchingcube(int stype) {
 							tp[3][0]=i;tp[3][1]=j+1;tp[3][2]=k+1;
 							tp[4][0]=i;tp[4][1]=j;tp[4][2]=k+1;
 						}//2
-						else if(!vp[i][j+1][k+1].isdone && !vp[i+1][j+1][k+1].isdone && !vp[i][j][k].isdone)
+						else if(!vp.isDone(i,j+1,k+1) && !vp.isDone(i+1,j+1,k+1) && !vp.isDone(i,j,k))
 						{
 							tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k;
 							tp[1][0]=i;tp[1][1]=j;tp[1][2]=k+1;
@@ -2711,7 +2790,7 @@ public void marchingcube(int stype) {
 							tp[3][0]=i+1;tp[3][1]=j+1;tp[3][2]=k;
 							tp[4][0]=i+1;tp[4][1]=j;tp[4][2]=k;
 						}//3
-						else if(!vp[i][j][k+1].isdone && !vp[i+1][j][k+1].isdone && !vp[i][j+1][k].isdone)
+						else if(!vp.isDone(i,j,k+1) && !vp.isDone(i+1,j,k+1) && !vp.isDone(i,j+1,k))
 						{
 							tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k+1;
 							tp[1][0]=i;tp[1][1]=j;tp[1][2]=k;
@@ -2719,7 +2798,7 @@ public void marchingcube(int stype) {
 							tp[3][0]=i+1;tp[3][1]=j+1;tp[3][2]=k+1;
 							tp[4][0]=i+1;tp[4][1]=j+1;tp[4][2]=k;
 						}//4
-						else if(!vp[i][j][k].isdone && !vp[i][j+1][k].isdone && !vp[i+1][j][k+1].isdone)
+						else if(!vp.isDone(i,j,k) && !vp.isDone(i,j+1,k) && !vp.isDone(i+1,j,k+1))
 						{
 							//tp[0][0]=i;tp[0][1]=j;tp[0][2]=k+1;
 							//tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k;
@@ -2731,7 +2810,7 @@ public void marchingcube(int stype) {
 							tp[2][0]=i;tp[2][1]=j+1;tp[2][2]=k+1;
 							tp[4][0]=i+1;tp[4][1]=j+1;tp[4][2]=k+1;
 						}//5
-						else if(!vp[i+1][j][k+1].isdone && !vp[i+1][j+1][k+1].isdone && !vp[i][j][k].isdone)
+						else if(!vp.isDone(i+1,j,k+1) && !vp.isDone(i+1,j+1,k+1) && !vp.isDone(i,j,k))
 						{
 							tp[0][0]=i;tp[0][1]=j;tp[0][2]=k+1;
 							tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k;
@@ -2739,7 +2818,7 @@ public void marchingcube(int stype) {
 							tp[3][0]=i;tp[3][1]=j+1;tp[3][2]=k+1;
 							tp[4][0]=i;tp[4][1]=j+1;tp[4][2]=k;
 						}//6
-						else if(!vp[i+1][j][k].isdone && !vp[i+1][j+1][k].isdone && !vp[i][j][k+1].isdone)
+						else if(!vp.isDone(i+1,j,k) && !vp.isDone(i+1,j+1,k) && !vp.isDone(i,j,k+1))
 						{
 							tp[0][0]=i+1;tp[0][1]=j;tp[0][2]=k+1;
 							tp[1][0]=i;tp[1][1]=j;tp[1][2]=k;
@@ -2747,7 +2826,7 @@ public void marchingcube(int stype) {
 							tp[3][0]=i+1;tp[3][1]=j+1;tp[3][2]=k+1;
 							tp[4][0]=i;tp[4][1]=j+1;tp[4][2]=k+1;
 						}//7
-						else if(!vp[i][j][k+1].isdone && !vp[i][j+1][k+1].isdone && !vp[i+1][j][k].isdone)
+						else if(!vp.isDone(i,j,k+1) && !vp.isDone(i,j+1,k+1) && !vp.isDone(i+1,j,k))
 						{
 							tp[0][0]=i;tp[0][1]=j;tp[0][2]=k;
 							tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k+1;
@@ -2755,7 +2834,7 @@ public void marchingcube(int stype) {
 							tp[3][0]=i;tp[3][1]=j+1;tp[3][2]=k;
 							tp[4][0]=i+1;tp[4][1]=j+1;tp[4][2]=k;
 						}//8
-						else if(!vp[i][j][k].isdone && !vp[i][j][k+1].isdone && !vp[i+1][j+1][k].isdone)
+						else if(!vp.isDone(i,j,k) && !vp.isDone(i,j,k+1) && !vp.isDone(i+1,j+1,k))
 						{
 							tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k;
 							tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k;
@@ -2763,7 +2842,7 @@ public void marchingcube(int stype) {
 							tp[3][0]=i;tp[3][1]=j+1;tp[3][2]=k+1;
 							tp[4][0]=i+1;tp[4][1]=j+1;tp[4][2]=k+1;
 						}//9
-						else if(!vp[i+1][j+1][k].isdone && !vp[i+1][j+1][k+1].isdone && !vp[i][j][k+1].isdone)
+						else if(!vp.isDone(i+1,j+1,k) && !vp.isDone(i+1,j+1,k+1) && !vp.isDone(i,j,k+1))
 						{
 							tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k+1;
 							tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k+1;
@@ -2771,7 +2850,7 @@ public void marchingcube(int stype) {
 							tp[3][0]=i;tp[3][1]=j+1;tp[3][2]=k;
 							tp[4][0]=i;tp[4][1]=j;tp[4][2]=k;
 						}//10
-						else if(!vp[i+1][j][k].isdone && !vp[i+1][j][k+1].isdone && !vp[i][j+1][k].isdone)
+						else if(!vp.isDone(i+1,j,k) && !vp.isDone(i+1,j,k+1) && !vp.isDone(i,j+1,k))
 						{
 							tp[0][0]=i;tp[0][1]=j;tp[0][2]=k;
 							tp[1][0]=i+1;tp[1][1]=j+1;tp[1][2]=k;
@@ -2779,7 +2858,7 @@ public void marchingcube(int stype) {
 							tp[3][0]=i;tp[3][1]=j;tp[3][2]=k+1;
 							tp[4][0]=i;tp[4][1]=j+1;tp[4][2]=k+1;
 						}//11
-						else if(!vp[i][j+1][k].isdone && !vp[i][j+1][k+1].isdone && !vp[i+1][j][k].isdone)
+						else if(!vp.isDone(i,j+1,k) && !vp.isDone(i,j+1,k+1) && !vp.isDone(i+1,j,k))
 						{
 							tp[0][0]=i+1;tp[0][1]=j+1;tp[0][2]=k;
 							tp[1][0]=i;tp[1][1]=j;tp[1][2]=k;
@@ -2789,9 +2868,9 @@ public void marchingcube(int stype) {
 						}//12
 						for(ii=0;ii<5;ii++)
 						{
-							if(vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]==-1)
+							if(vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]==-1)
 							{
-								vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]=vertices.size();
+								vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]=vertices.size();
 //								verts[vertnumber].p.x=tp[ii][0];
 //								verts[vertnumber].p.y=tp[ii][1];
 //								verts[vertnumber].p.z=tp[ii][2];
@@ -2807,27 +2886,27 @@ public void marchingcube(int stype) {
 //						faces[facenumber].b=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
 //						faces[facenumber++].c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
                                                 FaceInfo face = new FaceInfo();
-                                                face.a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
-						face.b=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
-						face.c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
+                                                face.a=vertseq[vp.index(tp[0][0],tp[0][1],tp[0][2])];
+						face.b=vertseq[vp.index(tp[1][0],tp[1][1],tp[1][2])];
+						face.c=vertseq[vp.index(tp[2][0],tp[2][1],tp[2][2])];
                                                 faceList.add(face);
 
 //						faces[facenumber].a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
 //						faces[facenumber].b=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
 //						faces[facenumber++].c=vertseq[tp[3][0]][tp[3][1]][tp[3][2]];
                                                 face = new FaceInfo();
-                                                face.a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
-						face.b=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
-						face.c=vertseq[tp[3][0]][tp[3][1]][tp[3][2]];
+                                                face.a=vertseq[vp.index(tp[0][0],tp[0][1],tp[0][2])];
+						face.b=vertseq[vp.index(tp[2][0],tp[2][1],tp[2][2])];
+						face.c=vertseq[vp.index(tp[3][0],tp[3][1],tp[3][2])];
                                                 faceList.add(face);
 
 //						faces[facenumber].a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
 //						faces[facenumber].b=vertseq[tp[4][0]][tp[4][1]][tp[4][2]];
 //						faces[facenumber++].c=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
                                                 face = new FaceInfo();
-                                                face.a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
-						face.b=vertseq[tp[4][0]][tp[4][1]][tp[4][2]];
-						face.c=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
+                                                face.a=vertseq[vp.index(tp[0][0],tp[0][1],tp[0][2])];
+						face.b=vertseq[vp.index(tp[4][0],tp[4][1],tp[4][2])];
+						face.c=vertseq[vp.index(tp[1][0],tp[1][1],tp[1][2])];
                                                 faceList.add(face);
 
 					}//no.6 12-2
@@ -2836,97 +2915,97 @@ public void marchingcube(int stype) {
 
 				else if(sumtype==6)
 				{
-					if((!vp[i][j][k].isdone && !vp[i+1][j][k].isdone)
-						||(!vp[i][j+1][k].isdone && !vp[i+1][j+1][k].isdone)
-						||(!vp[i][j+1][k+1].isdone && !vp[i+1][j+1][k+1].isdone)
-						||(!vp[i][j][k+1].isdone && !vp[i+1][j][k+1].isdone)
-						||(!vp[i][j][k].isdone && !vp[i][j+1][k].isdone)
-						||(!vp[i+1][j][k+1].isdone && !vp[i+1][j+1][k+1].isdone)
-						||(!vp[i+1][j][k].isdone && !vp[i+1][j+1][k].isdone)
-						||(!vp[i][j][k+1].isdone && !vp[i][j+1][k+1].isdone)
-						||(!vp[i][j][k].isdone && !vp[i][j][k+1].isdone)
-						||(!vp[i+1][j+1][k].isdone && !vp[i+1][j+1][k+1].isdone)
-						||(!vp[i+1][j][k].isdone && !vp[i+1][j][k+1].isdone)
-						||(!vp[i][j+1][k].isdone && !vp[i][j+1][k+1].isdone))
-					{
-						if(!vp[i][j][k].isdone && !vp[i+1][j][k].isdone)
+					if((!vp.isDone(i,j,k) && !vp.isDone(i+1,j,k))
+						||(!vp.isDone(i,j+1,k) && !vp.isDone(i+1,j+1,k))
+						||(!vp.isDone(i,j+1,k+1) && !vp.isDone(i+1,j+1,k+1))
+						||(!vp.isDone(i,j,k+1) && !vp.isDone(i+1,j,k+1))
+						||(!vp.isDone(i,j,k) && !vp.isDone(i,j+1,k))
+						||(!vp.isDone(i+1,j,k+1) && !vp.isDone(i+1,j+1,k+1))
+						||(!vp.isDone(i+1,j,k) && !vp.isDone(i+1,j+1,k))
+						||(!vp.isDone(i,j,k+1) && !vp.isDone(i,j+1,k+1))
+						||(!vp.isDone(i,j,k) && !vp.isDone(i,j,k+1))
+						||(!vp.isDone(i+1,j+1,k) && !vp.isDone(i+1,j+1,k+1))
+						||(!vp.isDone(i+1,j,k) && !vp.isDone(i+1,j,k+1))
+						||(!vp.isDone(i,j+1,k) && !vp.isDone(i,j+1,k+1)))
+					{
+						if(!vp.isDone(i,j,k) && !vp.isDone(i+1,j,k))
 						{
 							tp[0][0]=i;tp[0][1]=j;tp[0][2]=k+1;
 							tp[3][0]=i+1;tp[3][1]=j;tp[3][2]=k+1;
 							tp[2][0]=i+1;tp[2][1]=j+1;tp[2][2]=k;
 							tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k;
 						}//1
-						else if(!vp[i][j+1][k].isdone && !vp[i+1][j+1][k].isdone)
+						else if(!vp.isDone(i,j+1,k) && !vp.isDone(i+1,j+1,k))
 						{
 							tp[0][0]=i;tp[0][1]=j;tp[0][2]=k;
 							tp[3][0]=i+1;tp[3][1]=j;tp[3][2]=k;
 							tp[2][0]=i+1;tp[2][1]=j+1;tp[2][2]=k+1;
 							tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k+1;
 						}//2
-						else if(!vp[i][j+1][k+1].isdone && !vp[i+1][j+1][k+1].isdone)
+						else if(!vp.isDone(i,j+1,k+1) && !vp.isDone(i+1,j+1,k+1))
 						{
 							tp[0][0]=i;tp[0][1]=j;tp[0][2]=k+1;
 							tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k+1;
 							tp[2][0]=i+1;tp[2][1]=j+1;tp[2][2]=k;
 							tp[3][0]=i;tp[3][1]=j+1;tp[3][2]=k;
 						}//3
-						else if(!vp[i][j][k+1].isdone && !vp[i+1][j][k+1].isdone)
+						else if(!vp.isDone(i,j,k+1) && !vp.isDone(i+1,j,k+1))
 						{
 							tp[0][0]=i;tp[0][1]=j;tp[0][2]=k;
 							tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k;
 							tp[2][0]=i+1;tp[2][1]=j+1;tp[2][2]=k+1;
 							tp[3][0]=i;tp[3][1]=j+1;tp[3][2]=k+1;
 						}//4
-						else if(!vp[i][j][k].isdone && !vp[i][j+1][k].isdone)
+						else if(!vp.isDone(i,j,k) && !vp.isDone(i,j+1,k))
 						{
 							tp[0][0]=i;tp[0][1]=j;tp[0][2]=k+1;
 							tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k+1;
 							tp[2][0]=i+1;tp[2][1]=j+1;tp[2][2]=k;
 							tp[3][0]=i+1;tp[3][1]=j;tp[3][2]=k;
 						}//5
-						else if(!vp[i+1][j][k+1].isdone && !vp[i+1][j+1][k+1].isdone)
+						else if(!vp.isDone(i+1,j,k+1) && !vp.isDone(i+1,j+1,k+1))
 						{
 							tp[0][0]=i;tp[0][1]=j;tp[0][2]=k+1;
 							tp[3][0]=i;tp[3][1]=j+1;tp[3][2]=k+1;
 							tp[2][0]=i+1;tp[2][1]=j+1;tp[2][2]=k;
 							tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k;
 						}//6
-						else if(!vp[i+1][j][k].isdone && !vp[i+1][j+1][k].isdone)
+						else if(!vp.isDone(i+1,j,k) && !vp.isDone(i+1,j+1,k))
 						{
 							tp[0][0]=i+1;tp[0][1]=j+1;tp[0][2]=k+1;
 							tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k+1;
 							tp[2][0]=i;tp[2][1]=j;tp[2][2]=k;
 							tp[3][0]=i;tp[3][1]=j+1;tp[3][2]=k;
 						}//7
-						else if(!vp[i][j][k+1].isdone && !vp[i][j+1][k+1].isdone)
+						else if(!vp.isDone(i,j,k+1) && !vp.isDone(i,j+1,k+1))
 						{
 							tp[0][0]=i+1;tp[0][1]=j+1;tp[0][2]=k+1;
 							tp[3][0]=i+1;tp[3][1]=j;tp[3][2]=k+1;
 							tp[2][0]=i;tp[2][1]=j;tp[2][2]=k;
 							tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k;
 						}//8
-						else if(!vp[i][j][k].isdone && !vp[i][j][k+1].isdone)
+						else if(!vp.isDone(i,j,k) && !vp.isDone(i,j,k+1))
 						{
 							tp[0][0]=i+1;tp[0][1]=j;tp[0][2]=k+1;
 							tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k+1;
 							tp[2][0]=i;tp[2][1]=j+1;tp[2][2]=k;
 							tp[3][0]=i+1;tp[3][1]=j;tp[3][2]=k;
 						}//9
-						else if(!vp[i+1][j+1][k].isdone && !vp[i+1][j+1][k+1].isdone)
+						else if(!vp.isDone(i+1,j+1,k) && !vp.isDone(i+1,j+1,k+1))
 						{
 							tp[0][0]=i+1;tp[0][1]=j;tp[0][2]=k+1;
 							tp[3][0]=i;tp[3][1]=j+1;tp[3][2]=k+1;
 							tp[2][0]=i;tp[2][1]=j+1;tp[2][2]=k;
 							tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k;
 						}//10
-						else if(!vp[i+1][j][k].isdone && !vp[i+1][j][k+1].isdone)
+						else if(!vp.isDone(i+1,j,k) && !vp.isDone(i+1,j,k+1))
 						{
 							tp[0][0]=i+1;tp[0][1]=j+1;tp[0][2]=k+1;
 							tp[1][0]=i;tp[1][1]=j;tp[1][2]=k+1;
 							tp[2][0]=i;tp[2][1]=j;tp[2][2]=k;
 							tp[3][0]=i+1;tp[3][1]=j+1;tp[3][2]=k;
 						}//11
-						else if(!vp[i][j+1][k].isdone && !vp[i][j+1][k+1].isdone)
+						else if(!vp.isDone(i,j+1,k) && !vp.isDone(i,j+1,k+1))
 						{
 							tp[0][0]=i+1;tp[0][1]=j+1;tp[0][2]=k+1;
 							tp[3][0]=i;tp[3][1]=j;tp[3][2]=k+1;
@@ -2935,9 +3014,9 @@ public void marchingcube(int stype) {
 						}//12
 						for(ii=0;ii<4;ii++)
 						{
-							if(vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]==-1)
+							if(vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]==-1)
 							{
-								vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]=vertices.size();
+								vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]=vertices.size();
 //								verts[vertnumber].p.x=tp[ii][0];
 //								verts[vertnumber].p.y=tp[ii][1];
 //								verts[vertnumber].p.z=tp[ii][2];
@@ -2953,28 +3032,28 @@ public void marchingcube(int stype) {
 //						faces[facenumber].b=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
 //						faces[facenumber++].c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
                                                 FaceInfo face = new FaceInfo();
-                                                face.a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
-						face.b=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
-						face.c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
+                                                face.a=vertseq[vp.index(tp[0][0],tp[0][1],tp[0][2])];
+						face.b=vertseq[vp.index(tp[1][0],tp[1][1],tp[1][2])];
+						face.c=vertseq[vp.index(tp[2][0],tp[2][1],tp[2][2])];
                                                 faceList.add(face);
 
 //						faces[facenumber].a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
 //						faces[facenumber].b=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
 //						faces[facenumber++].c=vertseq[tp[3][0]][tp[3][1]][tp[3][2]];
                                                 face = new FaceInfo();
-                                                face.a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
-						face.b=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
-						face.c=vertseq[tp[3][0]][tp[3][1]][tp[3][2]];
+                                                face.a=vertseq[vp.index(tp[0][0],tp[0][1],tp[0][2])];
+						face.b=vertseq[vp.index(tp[2][0],tp[2][1],tp[2][2])];
+						face.c=vertseq[vp.index(tp[3][0],tp[3][1],tp[3][2])];
                                                 faceList.add(face);
 
 					}//no.2 12
 
-					else if((!vp[i][j][k].isdone && !vp[i+1][j+1][k+1].isdone)
-						||(!vp[i+1][j][k].isdone && !vp[i][j+1][k+1].isdone)
-						||(!vp[i][j+1][k].isdone && !vp[i+1][j][k+1].isdone)
-						||(!vp[i+1][j+1][k].isdone && !vp[i][j][k+1].isdone))
+					else if((!vp.isDone(i,j,k) && !vp.isDone(i+1,j+1,k+1))
+						||(!vp.isDone(i+1,j,k) && !vp.isDone(i,j+1,k+1))
+						||(!vp.isDone(i,j+1,k) && !vp.isDone(i+1,j,k+1))
+						||(!vp.isDone(i+1,j+1,k) && !vp.isDone(i,j,k+1)))
 					{
-						if(!vp[i][j][k].isdone && !vp[i+1][j+1][k+1].isdone)
+						if(!vp.isDone(i,j,k) && !vp.isDone(i+1,j+1,k+1))
 						{
 							tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k+1;
 							tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k+1;
@@ -2983,7 +3062,7 @@ public void marchingcube(int stype) {
 							tp[4][0]=i;tp[4][1]=j+1;tp[4][2]=k;
 							tp[5][0]=i+1;tp[5][1]=j;tp[5][2]=k;
 						}//1
-						else if(!vp[i+1][j][k].isdone && !vp[i][j+1][k+1].isdone)
+						else if(!vp.isDone(i+1,j,k) && !vp.isDone(i,j+1,k+1))
 						{
 							tp[0][0]=i;tp[0][1]=j;tp[0][2]=k+1;
 							tp[1][0]=i+1;tp[1][1]=j+1;tp[1][2]=k+1;
@@ -2992,7 +3071,7 @@ public void marchingcube(int stype) {
 							tp[4][0]=i;tp[4][1]=j;tp[4][2]=k;
 							tp[5][0]=i+1;tp[5][1]=j+1;tp[5][2]=k;
 						}//2
-						else if(!vp[i][j+1][k].isdone && !vp[i+1][j][k+1].isdone)
+						else if(!vp.isDone(i,j+1,k) && !vp.isDone(i+1,j,k+1))
 						{
 							tp[0][0]=i+1;tp[0][1]=j+1;tp[0][2]=k+1;
 							tp[1][0]=i;tp[1][1]=j;tp[1][2]=k+1;
@@ -3001,7 +3080,7 @@ public void marchingcube(int stype) {
 							tp[4][0]=i+1;tp[4][1]=j+1;tp[4][2]=k;
 							tp[5][0]=i;tp[5][1]=j;tp[5][2]=k;
 						}//3
-						else if(!vp[i+1][j+1][k].isdone && !vp[i][j][k+1].isdone)
+						else if(!vp.isDone(i+1,j+1,k) && !vp.isDone(i,j,k+1))
 						{
 							tp[0][0]=i+1;tp[0][1]=j;tp[0][2]=k+1;
 							tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k+1;
@@ -3012,9 +3091,9 @@ public void marchingcube(int stype) {
 						}//4
 						for(ii=0;ii<6;ii++)
 						{
-							if(vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]==-1)
+							if(vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]==-1)
 							{
-								vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]=vertices.size();
+								vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]=vertices.size();
 //								verts[vertnumber].p.x=tp[ii][0];
 //								verts[vertnumber].p.y=tp[ii][1];
 //								verts[vertnumber].p.z=tp[ii][2];
@@ -3030,112 +3109,112 @@ public void marchingcube(int stype) {
 //						faces[facenumber].b=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
 //						faces[facenumber++].c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
                                                 FaceInfo face = new FaceInfo();
-                                                face.a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
-						face.b=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
-						face.c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
+                                                face.a=vertseq[vp.index(tp[0][0],tp[0][1],tp[0][2])];
+						face.b=vertseq[vp.index(tp[1][0],tp[1][1],tp[1][2])];
+						face.c=vertseq[vp.index(tp[2][0],tp[2][1],tp[2][2])];
                                                 faceList.add(face);
 
 //						faces[facenumber].a=vertseq[tp[3][0]][tp[3][1]][tp[3][2]];
 //						faces[facenumber].b=vertseq[tp[4][0]][tp[4][1]][tp[4][2]];
 //						faces[facenumber++].c=vertseq[tp[5][0]][tp[5][1]][tp[5][2]];
                                                 face = new FaceInfo();
-                                                face.a=vertseq[tp[3][0]][tp[3][1]][tp[3][2]];
-						face.b=vertseq[tp[4][0]][tp[4][1]][tp[4][2]];
-						face.c=vertseq[tp[5][0]][tp[5][1]][tp[5][2]];
+                                                face.a=vertseq[vp.index(tp[3][0],tp[3][1],tp[3][2])];
+						face.b=vertseq[vp.index(tp[4][0],tp[4][1],tp[4][2])];
+						face.c=vertseq[vp.index(tp[5][0],tp[5][1],tp[5][2])];
                                                 faceList.add(face);
 					}//no.4 4
 
-					else if((!vp[i][j][k].isdone && !vp[i+1][j][k+1].isdone)
-						||(!vp[i+1][j][k].isdone && !vp[i][j][k+1].isdone)
-						||(!vp[i+1][j][k].isdone && !vp[i+1][j+1][k+1].isdone)
-						||(!vp[i+1][j+1][k].isdone && !vp[i+1][j][k+1].isdone)
-						||(!vp[i+1][j+1][k].isdone && !vp[i][j+1][k+1].isdone)
-						||(!vp[i][j+1][k].isdone && !vp[i+1][j+1][k+1].isdone)
-						||(!vp[i][j+1][k].isdone && !vp[i][j][k+1].isdone)
-						||(!vp[i][j][k].isdone && !vp[i][j+1][k+1].isdone)
-						||(!vp[i][j][k+1].isdone && !vp[i+1][j+1][k+1].isdone)
-						||(!vp[i+1][j][k+1].isdone && !vp[i][j+1][k+1].isdone)
-						||(!vp[i][j][k].isdone && !vp[i+1][j+1][k].isdone)
-						||(!vp[i+1][j][k].isdone && !vp[i][j+1][k].isdone))
-					{
-						if(!vp[i][j][k].isdone && !vp[i+1][j][k+1].isdone)
+					else if((!vp.isDone(i,j,k) && !vp.isDone(i+1,j,k+1))
+						||(!vp.isDone(i+1,j,k) && !vp.isDone(i,j,k+1))
+						||(!vp.isDone(i+1,j,k) && !vp.isDone(i+1,j+1,k+1))
+						||(!vp.isDone(i+1,j+1,k) && !vp.isDone(i+1,j,k+1))
+						||(!vp.isDone(i+1,j+1,k) && !vp.isDone(i,j+1,k+1))
+						||(!vp.isDone(i,j+1,k) && !vp.isDone(i+1,j+1,k+1))
+						||(!vp.isDone(i,j+1,k) && !vp.isDone(i,j,k+1))
+						||(!vp.isDone(i,j,k) && !vp.isDone(i,j+1,k+1))
+						||(!vp.isDone(i,j,k+1) && !vp.isDone(i+1,j+1,k+1))
+						||(!vp.isDone(i+1,j,k+1) && !vp.isDone(i,j+1,k+1))
+						||(!vp.isDone(i,j,k) && !vp.isDone(i+1,j+1,k))
+						||(!vp.isDone(i+1,j,k) && !vp.isDone(i,j+1,k)))
+					{
+						if(!vp.isDone(i,j,k) && !vp.isDone(i+1,j,k+1))
 						{
 							tp[0][0]=i;tp[0][1]=j;tp[0][2]=k+1;
 							tp[2][0]=i+1;tp[2][1]=j;tp[2][2]=k;
 							tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k;
 							tp[3][0]=i+1;tp[3][1]=j+1;tp[3][2]=k+1;
 						}//1
-						else if(!vp[i+1][j][k].isdone && !vp[i][j][k+1].isdone)
+						else if(!vp.isDone(i+1,j,k) && !vp.isDone(i,j,k+1))
 						{
 							tp[0][0]=i+1;tp[0][1]=j;tp[0][2]=k+1;
 							tp[2][0]=i;tp[2][1]=j;tp[2][2]=k;
 							tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k+1;
 							tp[3][0]=i+1;tp[3][1]=j+1;tp[3][2]=k;
 						}//2
-						else if(!vp[i+1][j][k].isdone && !vp[i+1][j+1][k+1].isdone)
+						else if(!vp.isDone(i+1,j,k) && !vp.isDone(i+1,j+1,k+1))
 						{
 							tp[0][0]=i+1;tp[0][1]=j;tp[0][2]=k+1;
 							tp[2][0]=i+1;tp[2][1]=j+1;tp[2][2]=k;
 							tp[1][0]=i;tp[1][1]=j;tp[1][2]=k;
 							tp[3][0]=i;tp[3][1]=j+1;tp[3][2]=k+1;
 						}//3
-						else if(!vp[i+1][j+1][k].isdone && !vp[i+1][j][k+1].isdone)
+						else if(!vp.isDone(i+1,j+1,k) && !vp.isDone(i+1,j,k+1))
 						{
 							tp[0][0]=i+1;tp[0][1]=j+1;tp[0][2]=k+1;
 							tp[2][0]=i+1;tp[2][1]=j;tp[2][2]=k;
 							tp[1][0]=i;tp[1][1]=j;tp[1][2]=k+1;
 							tp[3][0]=i;tp[3][1]=j+1;tp[3][2]=k;
 						}//4
-						else if(!vp[i+1][j+1][k].isdone && !vp[i][j+1][k+1].isdone)
+						else if(!vp.isDone(i+1,j+1,k) && !vp.isDone(i,j+1,k+1))
 						{
 							tp[0][0]=i+1;tp[0][1]=j+1;tp[0][2]=k+1;
 							tp[2][0]=i;tp[2][1]=j+1;tp[2][2]=k;
 							tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k;
 							tp[3][0]=i;tp[3][1]=j;tp[3][2]=k+1;
 						}//5
-						else if(!vp[i][j+1][k].isdone && !vp[i+1][j+1][k+1].isdone)
+						else if(!vp.isDone(i,j+1,k) && !vp.isDone(i+1,j+1,k+1))
 						{
 							tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k+1;
 							tp[2][0]=i+1;tp[2][1]=j+1;tp[2][2]=k;
 							tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k+1;
 							tp[3][0]=i;tp[3][1]=j;tp[3][2]=k;
 						}//6
-						else if(!vp[i][j+1][k].isdone && !vp[i][j][k+1].isdone)
+						else if(!vp.isDone(i,j+1,k) && !vp.isDone(i,j,k+1))
 						{
 							tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k+1;
 							tp[2][0]=i;tp[2][1]=j;tp[2][2]=k;
 							tp[1][0]=i+1;tp[1][1]=j+1;tp[1][2]=k;
 							tp[3][0]=i+1;tp[3][1]=j;tp[3][2]=k+1;
 						}//7
-						else if(!vp[i][j][k].isdone && !vp[i][j+1][k+1].isdone)
+						else if(!vp.isDone(i,j,k) && !vp.isDone(i,j+1,k+1))
 						{
 							tp[0][0]=i;tp[0][1]=j;tp[0][2]=k+1;
 							tp[2][0]=i;tp[2][1]=j+1;tp[2][2]=k;
 							tp[1][0]=i+1;tp[1][1]=j+1;tp[1][2]=k+1;
 							tp[3][0]=i+1;tp[3][1]=j;tp[3][2]=k;
 						}//8
-						else if(!vp[i][j][k+1].isdone && !vp[i+1][j+1][k+1].isdone)
+						else if(!vp.isDone(i,j,k+1) && !vp.isDone(i+1,j+1,k+1))
 						{
 							tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k+1;
 							tp[2][0]=i+1;tp[2][1]=j;tp[2][2]=k+1;
 							tp[1][0]=i;tp[1][1]=j;tp[1][2]=k;
 							tp[3][0]=i+1;tp[3][1]=j+1;tp[3][2]=k;
 						}//9
-						else if(!vp[i+1][j][k+1].isdone && !vp[i][j+1][k+1].isdone)
+						else if(!vp.isDone(i+1,j,k+1) && !vp.isDone(i,j+1,k+1))
 						{
 							tp[0][0]=i;tp[0][1]=j;tp[0][2]=k+1;
 							tp[2][0]=i+1;tp[2][1]=j+1;tp[2][2]=k+1;
 							tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k;
 							tp[3][0]=i;tp[3][1]=j+1;tp[3][2]=k;
 						}//10
-						else if(!vp[i][j][k].isdone && !vp[i+1][j+1][k].isdone)
+						else if(!vp.isDone(i,j,k) && !vp.isDone(i+1,j+1,k))
 						{
 							tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k;
 							tp[2][0]=i+1;tp[2][1]=j;tp[2][2]=k;
 							tp[1][0]=i+1;tp[1][1]=j+1;tp[1][2]=k+1;
 							tp[3][0]=i;tp[3][1]=j;tp[3][2]=k+1;
 						}//11
-						else if(!vp[i+1][j][k].isdone && !vp[i][j+1][k].isdone)
+						else if(!vp.isDone(i+1,j,k) && !vp.isDone(i,j+1,k))
 						{
 							tp[0][0]=i;tp[0][1]=j;tp[0][2]=k;
 							tp[2][0]=i+1;tp[2][1]=j+1;tp[2][2]=k;
@@ -3144,9 +3223,9 @@ public void marchingcube(int stype) {
 						}//12
 						for(ii=0;ii<4;ii++)
 						{
-							if(vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]==-1)
+							if(vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]==-1)
 							{
-								vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]=vertices.size();
+								vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]=vertices.size();
 //								verts[vertnumber].p.x=tp[ii][0];
 //								verts[vertnumber].p.y=tp[ii][1];
 //								verts[vertnumber].p.z=tp[ii][2];
@@ -3162,18 +3241,18 @@ public void marchingcube(int stype) {
 //						faces[facenumber].b=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
 //						faces[facenumber++].c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
                                                 FaceInfo face = new FaceInfo();
-                                                face.a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
-						face.b=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
-						face.c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
+                                                face.a=vertseq[vp.index(tp[0][0],tp[0][1],tp[0][2])];
+						face.b=vertseq[vp.index(tp[1][0],tp[1][1],tp[1][2])];
+						face.c=vertseq[vp.index(tp[2][0],tp[2][1],tp[2][2])];
                                                 faceList.add(face);
 
 //						faces[facenumber].a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
 //						faces[facenumber].b=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
 //						faces[facenumber++].c=vertseq[tp[3][0]][tp[3][1]][tp[3][2]];
                                                 face = new FaceInfo();
-                                                face.a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
-						face.b=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
-						face.c=vertseq[tp[3][0]][tp[3][1]][tp[3][2]];
+                                                face.a=vertseq[vp.index(tp[0][0],tp[0][1],tp[0][2])];
+						face.b=vertseq[vp.index(tp[2][0],tp[2][1],tp[2][2])];
+						face.c=vertseq[vp.index(tp[3][0],tp[3][1],tp[3][2])];
                                                 faceList.add(face);
 					}//no.3 12
 
@@ -3181,49 +3260,49 @@ public void marchingcube(int stype) {
 
 				else if(sumtype==7)
 				{
-					if(!vp[i][j][k].isdone)
+					if(!vp.isDone(i,j,k))
 					{
 						tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k;
 						tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k;
 						tp[2][0]=i;tp[2][1]=j;tp[2][2]=k+1;
 					}//1
-					else if(!vp[i+1][j][k].isdone)
+					else if(!vp.isDone(i+1,j,k))
 					{
 						tp[0][0]=i;tp[0][1]=j;tp[0][2]=k;
 						tp[1][0]=i+1;tp[1][1]=j+1;tp[1][2]=k;
 						tp[2][0]=i+1;tp[2][1]=j;tp[2][2]=k+1;
 					}//2
-					else if(!vp[i+1][j+1][k].isdone)
+					else if(!vp.isDone(i+1,j+1,k))
 					{
 						tp[0][0]=i+1;tp[0][1]=j;tp[0][2]=k;
 						tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k;
 						tp[2][0]=i+1;tp[2][1]=j+1;tp[2][2]=k+1;
 					}//3
-					else if(!vp[i][j+1][k].isdone)
+					else if(!vp.isDone(i,j+1,k))
 					{
 						tp[0][0]=i+1;tp[0][1]=j+1;tp[0][2]=k;
 						tp[1][0]=i;tp[1][1]=j;tp[1][2]=k;
 						tp[2][0]=i;tp[2][1]=j+1;tp[2][2]=k+1;
 					}//4
-					else if(!vp[i][j][k+1].isdone)
+					else if(!vp.isDone(i,j,k+1))
 					{
 						tp[0][0]=i+1;tp[0][1]=j;tp[0][2]=k+1;
 						tp[1][0]=i;tp[1][1]=j+1;tp[1][2]=k+1;
 						tp[2][0]=i;tp[2][1]=j;tp[2][2]=k;
 					}//5
-					else if(!vp[i+1][j][k+1].isdone)
+					else if(!vp.isDone(i+1,j,k+1))
 					{
 						tp[0][0]=i+1;tp[0][1]=j+1;tp[0][2]=k+1;
 						tp[1][0]=i;tp[1][1]=j;tp[1][2]=k+1;
 						tp[2][0]=i+1;tp[2][1]=j;tp[2][2]=k;
 					}//6
-					else if(!vp[i+1][j+1][k+1].isdone)
+					else if(!vp.isDone(i+1,j+1,k+1))
 					{
 						tp[0][0]=i;tp[0][1]=j+1;tp[0][2]=k+1;
 						tp[1][0]=i+1;tp[1][1]=j;tp[1][2]=k+1;
 						tp[2][0]=i+1;tp[2][1]=j+1;tp[2][2]=k;
 					}//7
-					else if(!vp[i][j+1][k+1].isdone)
+					else if(!vp.isDone(i,j+1,k+1))
 					{
 						tp[0][0]=i;tp[0][1]=j;tp[0][2]=k+1;
 						tp[1][0]=i+1;tp[1][1]=j+1;tp[1][2]=k+1;
@@ -3231,9 +3310,9 @@ public void marchingcube(int stype) {
 					}//8
 					for(ii=0;ii<3;ii++)
 					{
-						if(vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]==-1)
+						if(vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]==-1)
 						{
-							vertseq[tp[ii][0]][tp[ii][1]][tp[ii][2]]=vertices.size();
+							vertseq[vp.index(tp[ii][0],tp[ii][1],tp[ii][2])]=vertices.size();
 //							verts[vertnumber].p.x=tp[ii][0];
 //							verts[vertnumber].p.y=tp[ii][1];
 //							verts[vertnumber].p.z=tp[ii][2];
@@ -3249,9 +3328,9 @@ public void marchingcube(int stype) {
 //					faces[facenumber].b=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
 //					faces[facenumber++].c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
                                         FaceInfo face = new FaceInfo();
-                                        face.a=vertseq[tp[0][0]][tp[0][1]][tp[0][2]];
-					face.b=vertseq[tp[1][0]][tp[1][1]][tp[1][2]];
-					face.c=vertseq[tp[2][0]][tp[2][1]][tp[2][2]];
+                                        face.a=vertseq[vp.index(tp[0][0],tp[0][1],tp[0][2])];
+					face.b=vertseq[vp.index(tp[1][0],tp[1][1],tp[1][2])];
+					face.c=vertseq[vp.index(tp[2][0],tp[2][1],tp[2][2])];
                                         faceList.add(face);
 				}//total7
 
@@ -3277,8 +3356,10 @@ public void marchingcube(int stype) {
 //		verts[i].atomid=vp[int(verts[i].x)][int(verts[i].y)][int(verts[i].z)].atomid;
 //        verts[i].atomid=vp[(int)(verts[i].p.x)][(int)(verts[i].p.y)][(int)(verts[i].p.z)].atomid;
         VertInfo vertex = vertices.get(i);
-        vertex.atomid = vp[(int)(vertex.p.x)][(int)(vertex.p.y)][(int)(vertex.p.z)].atomid;
-        vertex.reference = vp[(int)(vertex.p.x)][(int)(vertex.p.y)][(int)(vertex.p.z)].reference;
+        int index = vp.index((int)(vertex.p.x), (int)(vertex.p.y), (int)(vertex.p.z));
+        vertex.atomid = vp.getAtomId(index);
+        int referenceid = vp.getReferenceId(index);
+        vertex.reference = referenceid < 0 ? null : spheres.get(referenceid).getReference();
 
 
 //		verts[i].iscont=false;
@@ -3286,7 +3367,7 @@ public void marchingcube(int stype) {
 //        if(vp[int(verts[i].x)][int(verts[i].y)][int(verts[i].z)].isbound)
 //		if(vp[(int)(verts[i].p.x)][(int)(verts[i].p.y)][(int)(verts[i].p.z)].isbound)
 //			verts[i].iscont=true;
-                if(vp[(int)(vertex.p.x)][(int)(vertex.p.y)][(int)(vertex.p.z)].isbound)
+                if(vp.isBound(index))
 			vertex.iscont=true;
 	}
     vertseq = null;
@@ -3317,16 +3398,7 @@ private void marchingcubeinit(int stype) {
 	//vdw
 	if(stype==1)
 	{
-		for(i=0;i<plength;i++)
-		{
-			for(j=0;j<pwidth;j++)
-			{
-				for(k=0;k<pheight;k++)
-				{
-					vp[i][j][k].isbound=false;
-				}
-			}
-		}
+		vp.clearBound();
 
 	}
 	//ses
@@ -3339,13 +3411,13 @@ private void marchingcubeinit(int stype) {
 			{
 				for(k=0;k<pheight;k++)
 				{
-					vp[i][j][k].isdone=false;
-					if(vp[i][j][k].isbound)
+					vp.setDone(i,j,k, false);
+					if(vp.isBound(i,j,k))
 					{
-						vp[i][j][k].isdone=true;
+						vp.setDone(i,j,k, true);
 					}
 					//new add
-					vp[i][j][k].isbound=false;
+					vp.setBound(i,j,k, false);
 				}
 			}
 		}
@@ -3361,13 +3433,13 @@ private void marchingcubeinit(int stype) {
 				for(k=0;k<pheight;k++)
 				{
 				//	if(vp[i][j][k].inout && vp[i][j][k].distance>=cutradis)
-					if(vp[i][j][k].isbound && vp[i][j][k].isdone)
+					if(vp.isBound(i,j,k) && vp.isDone(i,j,k))
 					{
-						vp[i][j][k].isbound=false;
+						vp.setBound(i,j,k, false);
 					}
-					else if(vp[i][j][k].isbound && !vp[i][j][k].isdone)
+					else if(vp.isBound(i,j,k) && !vp.isDone(i,j,k))
 					{
-						vp[i][j][k].isdone=true;
+						vp.setDone(i,j,k, true);
 					}
 				}
 			}
@@ -3377,16 +3449,7 @@ private void marchingcubeinit(int stype) {
 	//sas
 	else if(stype==3)
 	{
-		for(i=0;i<plength;i++)
-		{
-			for(j=0;j<pwidth;j++)
-			{
-				for(k=0;k<pheight;k++)
-				{
-					vp[i][j][k].isbound=false;
-				}
-			}
-		}
+		vp.clearBound();
 	}
 
 }
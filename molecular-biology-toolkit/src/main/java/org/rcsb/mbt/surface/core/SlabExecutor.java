@@ -0,0 +1,134 @@
+/*
+ * BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence. This should
+ * be distributed with the code. If you do not have a copy,
+ * see:
+ *
+ * http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors. These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ * http://www.biojava.org/
+ *
+ * This code was contributed from the Molecular Biology Toolkit
+ * (MBT) project at the University of California San Diego.
+ *
+ * Please reference J.L. Moreland, A.Gramada, O.V. Buzko, Qing
+ * Zhang and P.E. Bourne 2005 The Molecular Biology Toolkit (MBT):
+ * A Modular Platform for Developing Molecular Visualization
+ * Applications. BMC Bioinformatics, 6:21.
+ * 
+ * The code for surface generation was contributed by Dong Xu
+ * and Yang Zhang at the University of Michigan, Ann Arbor. This
+ * class represents the Java version translated from the original C++
+ * code (http://zhanglab.ccmb.med.umich.edu/EDTSurf).
+ * 
+ * Please reference D. Xu, Y. Zhang (2009) 
+ * Generating Triangulated Macromolecular Surfaces by Euclidean 
+ * Distance Transform. PLoS ONE 4(12): e8140.
+ *
+ * The MBT project was funded as part of the National Institutes
+ * of Health PPG grant number 1-P01-GM63208 and its National
+ * Institute of General Medical Sciences (NIGMS) division. Ongoing
+ * development for the MBT project is managed by the RCSB
+ * Protein Data Bank(http://www.pdb.org) and supported by funds
+ * from the National Science Foundation (NSF), the National
+ * Institute of General Medical Sciences (NIGMS), the Office of
+ * Science, Department of Energy (DOE), the National Library of
+ * Medicine (NLM), the National Cancer Institute (NCI), the
+ * National Center for Research Resources (NCRR), the National
+ * Institute of Biomedical Imaging and Bioengineering (NIBIB),
+ * the National Institute of Neurological Disorders and Stroke
+ * (NINDS), and the National Institute of Diabetes and Digestive
+ * and Kidney Diseases (NIDDK).
+ *
+ * Created on 2026/10/18
+ *
+ */
+
+package org.rcsb.mbt.surface.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs a task over slabs of the first (x) dimension of a voxel grid on a
+ * fixed number of threads. Each slab is processed by exactly one thread, so a
+ * task that only writes voxels inside its own slab produces the same result
+ * as the serial loop.
+ * <p>
+ * The inout/isbound/isdone flags of the {@link org.rcsb.mbt.surface.datastructure.VoxelGrid}
+ * are packed 64 per long word, so the last voxels of one slab and the first
+ * voxels of the next slab may share a word. Slabs are therefore run in two
+ * phases, first all even and then all odd slabs, which guarantees that no two
+ * slabs running at the same time touch the same word.
+ */
+class SlabExecutor {
+    /**
+     * Work on the slab of x-planes [start, end).
+     */
+    interface Slab {
+        void run(int start, int end);
+    }
+
+    private int threadCount;
+
+    SlabExecutor(int threadCount) {
+        this.threadCount = threadCount;
+    }
+
+    /**
+     * Runs the task over planes [0, length). Falls back to a single serial
+     * call if only one thread is requested, or if a plane holds fewer than
+     * 64 voxels, in which case a packed word could span more than two slabs.
+     */
+    void run(int length, int planeSize, final Slab task) {
+        int slabCount = Math.min(2 * threadCount, length);
+        if (threadCount < 2 || slabCount < 2 || planeSize < 64) {
+            task.run(0, length);
+            return;
+        }
+
+        int[] bounds = new int[slabCount + 1];
+        for (int s = 0; s <= slabCount; s++) {
+            bounds[s] = (int) ((long) length * s / slabCount);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            for (int phase = 0; phase < 2; phase++) {
+                List<Future<?>> futures = new ArrayList<Future<?>>();
+                for (int s = phase; s < slabCount; s += 2) {
+                    final int start = bounds[s];
+                    final int end = bounds[s + 1];
+                    futures.add(executor.submit(new Runnable() {
+                        public void run() {
+                            task.run(start, end);
+                        }
+                    }));
+                }
+                for (Future<?> f : futures) {
+                    f.get();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
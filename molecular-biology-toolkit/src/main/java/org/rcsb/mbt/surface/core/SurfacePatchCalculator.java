@@ -55,6 +55,7 @@ import java.util.Map;
 import javax.vecmath.Point3f;
 import javax.vecmath.Vector3f;
 
+import org.rcsb.mbt.model.util.CellList;
 import org.rcsb.mbt.surface.datastructure.FaceInfo;
 import org.rcsb.mbt.surface.datastructure.Sphere;
 import org.rcsb.mbt.surface.datastructure.TriangulatedSurface;
@@ -98,19 +99,15 @@ public class SurfacePatchCalculator {
     	 List<VertInfo> truncatedVertices = new ArrayList<VertInfo>();
          List<VertInfo> vertices = surface.getVertices();
   
-         float thresholdSq = distanceThreshold * distanceThreshold;
+         CellList grid = createCellList(context, distanceThreshold);
          
          int vertCount = 0;
          for (int i = 0, n = vertices.size(); i < n; i++ ) {
         	 VertInfo v = vertices.get(i);
-             for (Sphere s : context) {
-                 Point3f ps = s.getLocation();       
-                 if (ps.distanceSquared(v.p) < thresholdSq) {
-                     vertexMap.put(i,vertCount);
-                     vertCount++;
-                     truncatedVertices.add(v);
-                     break;
-                 }
+             if (grid.hasNeighbor(v.p.x, v.p.y, v.p.z, distanceThreshold)) {
+                 vertexMap.put(i,vertCount);
+                 vertCount++;
+                 truncatedVertices.add(v);
              }
          }
          
@@ -379,18 +376,30 @@ public class SurfacePatchCalculator {
 
     public static List<Sphere> calcSurroundings(List<Sphere> patch, List<Sphere> context, float distanceThreshold) {
         List<Sphere> surroundings = new ArrayList<Sphere>();
-        float thresholdSq = distanceThreshold * distanceThreshold;
+        CellList grid = createCellList(context, distanceThreshold);
         for (Sphere s : patch) {
             Point3f ps = s.getLocation();
-            for (Sphere p: context) {
-                Point3f pp = p.getLocation();
-                if (ps.distanceSquared(pp) < thresholdSq) {
-                    surroundings.add(s);
-                    break;
-                }
+            if (grid.hasNeighbor(ps.x, ps.y, ps.z, distanceThreshold)) {
+                surroundings.add(s);
             }
         }
 
         return surroundings;
     }
+
+    /**
+     * Returns a cell list of the sphere locations for distance queries up
+     * to the distance threshold.
+     */
+    static CellList createCellList(List<Sphere> spheres, float distanceThreshold) {
+        float[] xyz = new float[3 * spheres.size()];
+        int i = 0;
+        for (Sphere s: spheres) {
+            Point3f p = s.getLocation();
+            xyz[i++] = p.x;
+            xyz[i++] = p.y;
+            xyz[i++] = p.z;
+        }
+        return new CellList(xyz, spheres.size(), Math.max(distanceThreshold, 1.0f));
+    }
 }
@@ -0,0 +1,86 @@
+package org.rcsb.mbt.model;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.rcsb.mbt.model.util.AtomStats;
+import org.rcsb.mbt.structLoader.PdbStructureLoader;
+
+/**
+ * Compares the column store of a StructureMap with its Atom objects.
+ */
+public class AtomTableTest {
+
+    private StructureMap structureMap;
+    private AtomTable table;
+
+    @Before
+    public void setUp() throws Exception {
+        PdbStructureLoader loader = new PdbStructureLoader();
+        Structure structure = loader.load(new File("src/test/resources/test-input/SurfaceTest/1STP.pdb"));
+        structureMap = new StructureMap(structure, loader.getEntityNameMap(), null);
+        table = structureMap.getAtomTable();
+    }
+
+    @Test
+    public void testColumns() {
+        assertEquals(structureMap.getAtomCount(), table.getAtomCount());
+        for (int i = 0; i < table.getAtomCount(); i++) {
+            Atom atom = structureMap.getAtom(i);
+            assertEquals(atom.getX(), table.getX(i), 0.0);
+            assertEquals(atom.getY(), table.getY(i), 0.0);
+            assertEquals(atom.getZ(), table.getZ(i), 0.0);
+            assertEquals((float) atom.getY(), table.getFloatCoordinates()[3 * i + 1], 0.0f);
+            assertEquals(atom.element, table.getElement(i));
+            assertEquals(atom.name, table.getName(i));
+            assertEquals(atom.compound, table.getCompound(i));
+        }
+    }
+
+    @Test
+    public void testSharedStrings() {
+        String[] names = table.getNameDictionary();
+        assertTrue(names.length < table.getAtomCount());
+        for (int i = 0; i < table.getAtomCount(); i++) {
+            Atom atom = structureMap.getAtom(i);
+            assertSame(names[table.getNameCode(i)], atom.name);
+            assertSame(table.getElementDictionary()[table.getElementCode(i)], atom.element);
+            assertEquals(table.getNameCode(i) == table.getNameCode(0), atom.name.equals(structureMap.getAtom(0).name));
+        }
+    }
+
+    @Test
+    public void testBoundsAndAverage() {
+        double[][] bounds = AtomStats.getAtomCoordinateBounds(structureMap.getStructure());
+        double[] average = new double[3];
+        for (Atom atom : structureMap.getAtoms()) {
+            for (int k = 0; k < 3; k++) {
+                assertTrue(atom.getCoordinate(k) >= bounds[0][k]);
+                assertTrue(atom.getCoordinate(k) <= bounds[1][k]);
+                average[k] += atom.getCoordinate(k) / table.getAtomCount();
+            }
+        }
+        assertArrayEquals(average, AtomStats.getAtomCoordinateAverage(structureMap.getStructure()), 1e-9);
+    }
+
+    @Test
+    public void testAtomsShareTableCoordinates() {
+        Atom atom = structureMap.getAtom(7);
+        atom.setCoordinate(1.5, -2.5, 3.5);
+        assertEquals(1.5, table.getX(7), 0.0);
+        assertEquals(-2.5, table.getY(7), 0.0);
+        assertEquals(3.5, table.getZ(7), 0.0);
+
+        atom.setCoordinate(1, 4.0);
+        assertEquals(4.0, table.getCoordinates()[3 * 7 + 1], 0.0);
+        assertArrayEquals(new double[] {1.5, 4.0, 3.5}, atom.getCoordinate(), 0.0);
+
+        Atom copy = new Atom(atom);
+        copy.setCoordinate(0.0, 0.0, 0.0);
+        assertEquals(1.5, atom.getX(), 0.0);
+        assertEquals(1.5, table.getX(7), 0.0);
+    }
+}
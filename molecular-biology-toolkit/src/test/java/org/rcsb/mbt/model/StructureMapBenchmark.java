@@ -0,0 +1,147 @@
+package org.rcsb.mbt.model;
+
+import java.io.File;
+import java.util.Vector;
+
+import org.rcsb.mbt.structLoader.IFileStructureLoader;
+import org.rcsb.mbt.structLoader.PdbStructureLoader;
+import org.rcsb.mbt.structLoader.StructureXMLHandler;
+import org.rcsb.mbt.structLoader.XMLStructureLoader;
+
+/**
+ * Measures the heap retained by a structure and its StructureMap and the
+ * throughput of the map's index and atom-to-bond lookups on 1STP, 4HHB and
+ * 1GIX. This is not a unit test, run it from the test classpath:
+ * <pre>
+ * java org.rcsb.mbt.model.StructureMapBenchmark
+ * </pre>
+ */
+public class StructureMapBenchmark {
+	private static final String[] FILES = {
+		"src/test/resources/test-input/SurfaceTest/1STP.pdb",
+		"src/test/resources/test-input/General/molecules/4hhb.xml.gz",
+		"src/test/resources/test-input/General/molecules/1GIX.pdb"
+	};
+	private static final int WARMUP = 20;
+	private static final int RUNS = 50;
+
+	public static void main(String[] args) throws Exception {
+		for (String fileName : FILES) {
+			long empty = usedMemory();
+			IFileStructureLoader loader = createLoader(fileName);
+			Structure structure = loader.load(new File(fileName));
+
+			long before = usedMemory();
+			long start = System.nanoTime();
+			StructureMap structureMap = new StructureMap(structure, loader.getEntityNameMap(), null);
+			long build = System.nanoTime() - start;
+			long after = usedMemory();
+			long retained = after - before;
+			long total = after - empty;
+
+			int atomCount = structureMap.getAtomCount();
+			System.out.printf("%s: %d atoms, %d residues, %d bonds%n", new File(fileName).getName(),
+					atomCount, structureMap.getResidueCount(), structureMap.getBondCount());
+			System.out.printf("  build            %8.1f ms, %8.1f KB retained%n", build / 1e6, retained / 1024.0);
+			System.out.printf("  structure + map  %8.1f KB retained, %6.1f bytes per atom%n",
+					total / 1024.0, total / (double) atomCount);
+
+			for (int i = 0; i < WARMUP; i++) {
+				atomIndices(structureMap);
+				residueIndices(structureMap);
+				atomBonds(structureMap);
+				atomBondCounts(structureMap);
+			}
+
+			long atomTime = 0;
+			long residueTime = 0;
+			long bondTime = 0;
+			long bondCountTime = 0;
+			int check = 0;
+			for (int i = 0; i < RUNS; i++) {
+				long t0 = System.nanoTime();
+				check += atomIndices(structureMap);
+				long t1 = System.nanoTime();
+				check += residueIndices(structureMap);
+				long t2 = System.nanoTime();
+				check += atomBonds(structureMap);
+				long t3 = System.nanoTime();
+				check += atomBondCounts(structureMap);
+				long t4 = System.nanoTime();
+				atomTime += t1 - t0;
+				residueTime += t2 - t1;
+				bondTime += t3 - t2;
+				bondCountTime += t4 - t3;
+			}
+
+			report("getAtomIndex", atomTime, atomCount);
+			report("getResidueIndex", residueTime, structureMap.getResidueCount());
+			report("getBonds(Atom)", bondTime, atomCount);
+			report("getBond(Atom,i)", bondCountTime, atomCount);
+			if (check == 42) {
+				System.out.println();
+			}
+		}
+	}
+
+	private static int atomIndices(StructureMap structureMap) {
+		int sum = 0;
+		for (Atom atom : structureMap.getAtoms()) {
+			sum += structureMap.getAtomIndex(atom);
+		}
+		return sum;
+	}
+
+	private static int residueIndices(StructureMap structureMap) {
+		int sum = 0;
+		for (Residue residue : structureMap.getResidues()) {
+			sum += structureMap.getResidueIndex(residue);
+		}
+		return sum;
+	}
+
+	private static int atomBonds(StructureMap structureMap) {
+		int sum = 0;
+		for (Atom atom : structureMap.getAtoms()) {
+			Vector<Bond> bonds = structureMap.getBonds(atom);
+			if (bonds != null) {
+				sum += bonds.size();
+			}
+		}
+		return sum;
+	}
+
+	private static int atomBondCounts(StructureMap structureMap) {
+		int sum = 0;
+		for (Atom atom : structureMap.getAtoms()) {
+			int count = structureMap.getBondCount(atom);
+			for (int i = 0; i < count; i++) {
+				if (structureMap.getBond(atom, i) != null) {
+					sum++;
+				}
+			}
+		}
+		return sum;
+	}
+
+	private static void report(String name, long time, int count) {
+		double ns = time / ((double) RUNS * count);
+		System.out.printf("  %-16s %8.1f ns per call, %10.0f calls/ms%n", name, ns, 1e6 / ns);
+	}
+
+	private static long usedMemory() throws InterruptedException {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 4; i++) {
+			System.gc();
+			Thread.sleep(50);
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	private static IFileStructureLoader createLoader(String fileName) {
+		if (fileName.contains(".pdb")) {
+			return new PdbStructureLoader();
+		}
+		return new XMLStructureLoader(new StructureXMLHandler(fileName));
+	}
+}
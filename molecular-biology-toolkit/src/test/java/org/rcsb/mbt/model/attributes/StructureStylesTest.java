@@ -0,0 +1,136 @@
+package org.rcsb.mbt.model.attributes;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.rcsb.mbt.model.Atom;
+import org.rcsb.mbt.model.Residue;
+import org.rcsb.mbt.model.Structure;
+import org.rcsb.mbt.model.StructureComponent;
+import org.rcsb.mbt.model.StructureMap;
+import org.rcsb.mbt.model.StructureComponentRegistry.ComponentType;
+import org.rcsb.mbt.structLoader.PdbStructureLoader;
+
+/**
+ * Tests the bulk visibility and selection changes of StructureStyles.
+ */
+public class StructureStylesTest {
+
+    private StructureMap structureMap;
+    private StructureStyles styles;
+    private final List<StructureStylesEvent> events = new ArrayList<StructureStylesEvent>();
+
+    @Before
+    public void setUp() throws Exception {
+        PdbStructureLoader loader = new PdbStructureLoader();
+        Structure structure = loader.load(new File("src/test/resources/test-input/SurfaceTest/1STP.pdb"));
+        structureMap = new StructureMap(structure, loader.getEntityNameMap(), null);
+        styles = structureMap.getStructureStyles();
+        styles.addStructureStylesEventListener(new IStructureStylesEventListener() {
+            public void processStructureStylesEvent(StructureStylesEvent structureStylesEvent) {
+                events.add(structureStylesEvent);
+            }
+        });
+    }
+
+    @Test
+    public void testBulkVisibility() {
+        styles.hideAll();
+        events.clear();
+
+        List<Atom> atoms = structureMap.getAtoms().subList(10, 110);
+        styles.setVisible(atoms, true);
+        assertEquals(1, events.size());
+        assertEquals(StructureStyles.ATTRIBUTE_VISIBILITY, events.get(0).attribute);
+        assertEquals(atoms, events.get(0).structureComponents);
+        assertSame(atoms.get(atoms.size() - 1), events.get(0).structureComponent);
+
+        for (int i = 0; i < structureMap.getAtomCount(); i++) {
+            assertEquals(i >= 10 && i < 110, styles.isVisible(structureMap.getAtom(i)));
+        }
+
+        // nothing changes, nothing is fired
+        events.clear();
+        styles.setVisible(atoms, true);
+        assertTrue(events.isEmpty());
+
+        Set<StructureComponent> visible = new HashSet<StructureComponent>();
+        for (Enumeration<StructureComponent> e = styles.getVisible(); e.hasMoreElements();) {
+            visible.add(e.nextElement());
+        }
+        assertEquals(new HashSet<StructureComponent>(atoms), visible);
+
+        styles.setVisible(atoms, false);
+        assertFalse(styles.isVisible(atoms.get(0)));
+        assertFalse(styles.getVisible().hasMoreElements());
+    }
+
+    @Test
+    public void testFilterVisibility() {
+        styles.hideAll();
+        events.clear();
+
+        styles.setVisible(ComponentType.RESIDUE, new IStructureComponentFilter() {
+            public boolean accept(StructureComponent structureComponent) {
+                return ((Residue) structureComponent).getCompoundCode().equals("HOH");
+            }
+        }, true);
+        assertEquals(1, events.size());
+
+        int waters = 0;
+        for (Residue residue : structureMap.getResidues()) {
+            boolean water = residue.getCompoundCode().equals("HOH");
+            assertEquals(water, styles.isVisible(residue));
+            if (water) {
+                waters++;
+            }
+        }
+        assertTrue(waters > 0);
+        assertEquals(waters, events.get(0).structureComponents.size());
+    }
+
+    @Test
+    public void testHideAfterShowAll() {
+        styles.showAll();
+        Atom hidden = structureMap.getAtom(5);
+        styles.setVisible(hidden, false);
+
+        assertFalse(styles.isVisible(hidden));
+        assertTrue(styles.isVisible(structureMap.getAtom(6)));
+        assertTrue(styles.isVisible(structureMap.getChain(0)));
+        assertTrue(styles.isVisible(structureMap.getBond(0)));
+    }
+
+    @Test
+    public void testBulkSelection() {
+        events.clear();
+        List<Residue> residues = structureMap.getResidues().subList(3, 13);
+        styles.setSelected(residues, true);
+        assertEquals(1, events.size());
+        assertEquals(StructureStyles.ATTRIBUTE_SELECTION, events.get(0).attribute);
+
+        for (int i = 0; i < structureMap.getResidueCount(); i++) {
+            Residue residue = structureMap.getResidue(i);
+            assertEquals(i >= 3 && i < 13, styles.isSelected(residue));
+            assertEquals(i >= 3 && i < 13, styles.isSelected(residue.getAtom(0)));
+        }
+
+        // already selected: no change, no event
+        events.clear();
+        styles.setSelected(residues, true);
+        assertTrue(events.isEmpty());
+
+        styles.setSelected(ComponentType.RESIDUE, null, false);
+        assertEquals(1, events.size());
+        assertEquals(residues, events.get(0).structureComponents);
+        assertFalse(styles.isSelected(residues.get(0)));
+    }
+}
@@ -0,0 +1,60 @@
+package org.rcsb.mbt.model.geometry;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import javax.vecmath.AxisAngle4d;
+import javax.vecmath.Matrix4d;
+import javax.vecmath.Point3d;
+import javax.vecmath.Vector3d;
+
+import org.junit.Test;
+
+/**
+ * Tests the least-squares superposition of point sets.
+ */
+public class SuperPositionTest {
+
+	@Test
+	public void testRigidCopy() {
+		Random random = new Random(42);
+		Point3d[] x = new Point3d[50];
+		for (int i = 0; i < x.length; i++) {
+			x[i] = new Point3d(20 * random.nextDouble(), 20 * random.nextDouble(), 20 * random.nextDouble());
+		}
+
+		Matrix4d expected = new Matrix4d();
+		expected.set(new AxisAngle4d(new Vector3d(1, 2, 3), 2.5));
+		expected.setTranslation(new Vector3d(10, -5, 30));
+
+		Point3d[] y = new Point3d[x.length];
+		for (int i = 0; i < x.length; i++) {
+			y[i] = new Point3d(x[i]);
+			expected.transform(y[i]);
+		}
+
+		Matrix4d transformation = SuperPosition.superpose(x, y);
+		assertTrue(expected.epsilonEquals(transformation, 1.0E-6));
+		assertEquals(0.0, SuperPosition.rmsd(x, y, transformation), 1.0E-6);
+	}
+
+	@Test
+	public void testRmsd() {
+		Point3d[] x = { new Point3d(0, 0, 0), new Point3d(1, 0, 0), new Point3d(0, 1, 0), new Point3d(0, 0, 1) };
+		Point3d[] y = { new Point3d(0, 0, 0), new Point3d(1, 0, 0), new Point3d(0, 1, 0), new Point3d(0, 0, 3) };
+
+		Matrix4d identity = new Matrix4d();
+		identity.setIdentity();
+		assertEquals(1.0, SuperPosition.rmsd(x, y, identity), 1.0E-9);
+
+		// the best superposition can only be closer
+		Matrix4d transformation = SuperPosition.superpose(x, y);
+		assertTrue(SuperPosition.rmsd(x, y, transformation) < 1.0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSizeMismatch() {
+		SuperPosition.superpose(new Point3d[] { new Point3d() }, new Point3d[0]);
+	}
+}
@@ -0,0 +1,83 @@
+package org.rcsb.mbt.model.util;
+
+import java.io.File;
+import java.util.Vector;
+
+import org.rcsb.mbt.model.Atom;
+import org.rcsb.mbt.model.Bond;
+import org.rcsb.mbt.model.Structure;
+import org.rcsb.mbt.model.StructureComponentRegistry.ComponentType;
+import org.rcsb.mbt.structLoader.IFileStructureLoader;
+import org.rcsb.mbt.structLoader.PdbStructureLoader;
+import org.rcsb.mbt.structLoader.StructureXMLHandler;
+import org.rcsb.mbt.structLoader.XMLStructureLoader;
+
+/**
+ * Compares the cell list bond search of BondFactory.generateBonds(Structure, float)
+ * with the octree search of BondFactory.generateBonds(Vector, float, boolean)
+ * on 1GIX and 4HHB. Both searches find all atom pairs within the bond limit,
+ * so the bond counts should agree. This is not a unit test, run it from the
+ * test classpath:
+ * <pre>
+ * java org.rcsb.mbt.model.util.BondFactoryBenchmark
+ * </pre>
+ */
+public class BondFactoryBenchmark {
+	private static final String[] FILES = {
+		"src/test/resources/test-input/General/molecules/1GIX.pdb",
+		"src/test/resources/test-input/General/molecules/4hhb.xml.gz"
+	};
+	private static final float BOND_LIMIT = 1.9f;
+	private static final int WARMUP = 3;
+	private static final int RUNS = 10;
+
+	public static void main(String[] args) throws Exception {
+		for (String fileName : FILES) {
+			Structure structure = load(fileName);
+			int atomCount = structure.getStructureComponentCount(ComponentType.ATOM);
+			Vector<Atom> atoms = new Vector<Atom>(atomCount);
+			for (int i = 0; i < atomCount; i++) {
+				atoms.add((Atom) structure.getStructureComponentByIndex(ComponentType.ATOM, i));
+			}
+			System.out.println(new File(fileName).getName() + ": " + atomCount + " atoms");
+
+			for (int i = 0; i < WARMUP; i++) {
+				BondFactory.generateBonds(structure, BOND_LIMIT);
+				BondFactory.generateBonds(atoms, BOND_LIMIT, false);
+			}
+
+			long cellList = 0;
+			long octree = 0;
+			Vector<Bond> cellListBonds = null;
+			Vector<Bond> octreeBonds = null;
+			for (int i = 0; i < RUNS; i++) {
+				long t0 = System.nanoTime();
+				cellListBonds = BondFactory.generateBonds(structure, BOND_LIMIT);
+				long t1 = System.nanoTime();
+				octreeBonds = BondFactory.generateBonds(atoms, BOND_LIMIT, false);
+				long t2 = System.nanoTime();
+				cellList += t1 - t0;
+				octree += t2 - t1;
+			}
+
+			report("cell list", cellList, cellListBonds, atomCount);
+			report("octree", octree, octreeBonds, atomCount);
+		}
+	}
+
+	private static void report(String name, long time, Vector<Bond> bonds, int atomCount) {
+		double ms = time / (RUNS * 1e6);
+		int bondCount = bonds == null ? 0 : bonds.size();
+		System.out.printf("  %-9s %8.2f ms, %7.0f atoms/ms, %d bonds%n", name, ms, atomCount / ms, bondCount);
+	}
+
+	private static Structure load(String fileName) throws Exception {
+		IFileStructureLoader loader = null;
+		if (fileName.contains(".pdb")) {
+			loader = new PdbStructureLoader();
+		} else {
+			loader = new XMLStructureLoader(new StructureXMLHandler(fileName));
+		}
+		return loader.load(new File(fileName));
+	}
+}
@@ -0,0 +1,113 @@
+package org.rcsb.mbt.model.util;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Compares the cell list queries with a brute force search.
+ */
+public class CellListTest {
+
+	private static final int COUNT = 2000;
+	private float[] xyz;
+
+	@Before
+	public void setUp() throws Exception {
+		Random random = new Random(7);
+		xyz = new float[3 * COUNT];
+		for (int i = 0; i < xyz.length; i++) {
+			xyz[i] = 40.0f * random.nextFloat() - 20.0f;
+		}
+	}
+
+	@Test
+	public void testHasNeighbor() {
+		CellList cellList = new CellList(xyz, COUNT, 3.0f);
+		Random random = new Random(11);
+		for (int q = 0; q < 1000; q++) {
+			float x = 50.0f * random.nextFloat() - 25.0f;
+			float y = 50.0f * random.nextFloat() - 25.0f;
+			float z = 50.0f * random.nextFloat() - 25.0f;
+			float cutoff = 0.5f + 4.0f * random.nextFloat();
+			boolean expected = bruteForce(x, y, z, cutoff, null) > 0;
+			assertEquals(expected, cellList.hasNeighbor(x, y, z, cutoff));
+		}
+	}
+
+	@Test
+	public void testFindNeighbors() {
+		CellList cellList = new CellList(xyz, COUNT, 2.0f);
+		int[] expected = new int[COUNT];
+		int[] found = new int[COUNT];
+		Random random = new Random(13);
+		for (int q = 0; q < 200; q++) {
+			float x = 40.0f * random.nextFloat() - 20.0f;
+			float y = 40.0f * random.nextFloat() - 20.0f;
+			float z = 40.0f * random.nextFloat() - 20.0f;
+			int n = bruteForce(x, y, z, 3.5f, expected);
+			assertEquals(n, cellList.findNeighbors(x, y, z, 3.5f, found));
+			Arrays.sort(found, 0, n);
+			assertArrayEquals(Arrays.copyOf(expected, n), Arrays.copyOf(found, n));
+		}
+	}
+
+	@Test
+	public void testForEachPair() {
+		final float cutoff = 1.9f;
+		CellList cellList = new CellList(xyz, COUNT, cutoff);
+		final boolean[][] found = new boolean[COUNT][COUNT];
+		final int[] pairs = new int[1];
+		cellList.forEachPair(cutoff, new CellList.PairVisitor() {
+			public void visit(int i, int j) {
+				assertTrue(i < j);
+				assertFalse(found[i][j]);
+				found[i][j] = true;
+				pairs[0]++;
+			}
+		});
+
+		int expected = 0;
+		for (int i = 0; i < COUNT; i++) {
+			for (int j = i + 1; j < COUNT; j++) {
+				float dx = xyz[3 * i] - xyz[3 * j];
+				float dy = xyz[3 * i + 1] - xyz[3 * j + 1];
+				float dz = xyz[3 * i + 2] - xyz[3 * j + 2];
+				boolean close = dx * dx + dy * dy + dz * dz < cutoff * cutoff;
+				assertEquals(close, found[i][j]);
+				if (close) {
+					expected++;
+				}
+			}
+		}
+		assertEquals(expected, pairs[0]);
+	}
+
+	@Test
+	public void testEmpty() {
+		CellList cellList = new CellList(new float[0], 0, 1.0f);
+		assertEquals(0, cellList.size());
+		assertFalse(cellList.hasNeighbor(0, 0, 0, 10.0f));
+	}
+
+	private int bruteForce(float x, float y, float z, float cutoff, int[] result) {
+		float cutoffSq = cutoff * cutoff;
+		int n = 0;
+		for (int i = 0; i < COUNT; i++) {
+			float dx = x - xyz[3 * i];
+			float dy = y - xyz[3 * i + 1];
+			float dz = z - xyz[3 * i + 2];
+			if (dx * dx + dy * dy + dz * dz < cutoffSq) {
+				if (result != null) {
+					result[n] = i;
+				}
+				n++;
+			}
+		}
+		return n;
+	}
+}
@@ -0,0 +1,82 @@
+package org.rcsb.mbt.structLoader;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests that PdbLineReader splits lines like BufferedReader.readLine().
+ */
+public class PdbLineReaderTest {
+
+    private static final String[] TEXTS = {
+        "",
+        "\n",
+        "ATOM",
+        "ATOM\nHETATM\n",
+        "ATOM\r\nHETATM\r\n\r\nEND",
+        "ATOM\rHETATM\r\r\nEND\n",
+        "HEADER    A LINE LONGER THAN THE INITIAL CHARACTER BUFFER OF THE READER, "
+            + "WHICH HAS TO GROW TO HOLD IT ............................................\nEND"
+    };
+
+    private static List<String> readLines(PdbLineReader reader) throws IOException {
+        List<String> lines = new ArrayList<String>();
+        while (reader.readLine()) {
+            lines.add(reader.toString());
+        }
+        return lines;
+    }
+
+    private static List<String> expectedLines(String text) throws IOException {
+        List<String> lines = new ArrayList<String>();
+        BufferedReader reader = new BufferedReader(new StringReader(text));
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            lines.add(line);
+        }
+        return lines;
+    }
+
+    @Test
+    public void testByteBuffer() throws IOException {
+        for (String text : TEXTS) {
+            PdbLineReader reader = new PdbLineReader(ByteBuffer.wrap(text.getBytes("ISO-8859-1")));
+            assertEquals(expectedLines(text), readLines(reader));
+            assertEquals(text.length(), reader.getBytesRead());
+        }
+    }
+
+    @Test
+    public void testSmallChunks() throws IOException {
+        // line ends and "\r\n" pairs split across chunks
+        for (String text : TEXTS) {
+            for (int bufferSize = 1; bufferSize <= 4; bufferSize++) {
+                PdbLineReader reader = new PdbLineReader(
+                        new ByteArrayInputStream(text.getBytes("ISO-8859-1")), bufferSize);
+                assertEquals(expectedLines(text), readLines(reader));
+                assertEquals(text.length(), reader.getBytesRead());
+            }
+        }
+    }
+
+    @Test
+    public void testStartsWith() throws IOException {
+        PdbLineReader reader = new PdbLineReader(ByteBuffer.wrap("HETATM\nATOM\nAT\n".getBytes("ISO-8859-1")));
+        assertTrue(reader.readLine());
+        assertTrue(reader.startsWith("HETATM"));
+        assertFalse(reader.startsWith("ATOM"));
+        assertTrue(reader.readLine());
+        assertTrue(reader.startsWith("ATOM"));
+        assertTrue(reader.readLine());
+        assertFalse(reader.startsWith("ATOM"));
+        assertFalse(reader.readLine());
+    }
+}
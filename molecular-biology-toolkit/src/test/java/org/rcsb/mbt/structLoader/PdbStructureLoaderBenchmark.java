@@ -0,0 +1,89 @@
+package org.rcsb.mbt.structLoader;
+
+import java.io.File;
+import java.util.Arrays;
+
+import org.rcsb.mbt.model.Structure;
+import org.rcsb.mbt.model.StructureComponentRegistry.ComponentType;
+import org.rcsb.mbt.model.util.Status;
+import org.rcsb.mbt.model.util.StatusEvent;
+import org.rcsb.mbt.model.util.StatusListener;
+
+/**
+ * Compares the throughput of the line based and the fast PdbStructureLoader
+ * parser over the PDB files in test-input, and counts the progress events
+ * each load sends. Files are loaded from disk, so the fast parser maps the
+ * uncompressed ones. With more than one thread, the fast parser is also run
+ * in chunks; the test files are small, so the chunks are made small too.
+ * This is not a unit test, run it from the test classpath:
+ * <pre>
+ * java org.rcsb.mbt.structLoader.PdbStructureLoaderBenchmark [runs] [threads]
+ * </pre>
+ */
+public class PdbStructureLoaderBenchmark {
+    private static final String DIRECTORY = "src/test/resources/test-input/General/molecules";
+    private static final int WARMUP = 5;
+
+    private static int progressEvents = 0;
+
+    public static void main(String[] args) throws Exception {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        int modes = threads > 1 ? 3 : 2;
+        ChunkExecutor.minChunkBytes = 64 * 1024;
+
+        Status.addStatusListener(new StatusListener() {
+            public void processStatusEvent(StatusEvent statusEvent) {
+                if (statusEvent.type == StatusEvent.TYPE_PROGRESS) {
+                    progressEvents++;
+                }
+            }
+        });
+
+        File[] files = new File(DIRECTORY).listFiles();
+        Arrays.sort(files);
+        long[] totalTime = new long[modes];
+        long totalAtoms = 0;
+        for (File file : files) {
+            if (!file.getName().matches(".+\\.pdb\\d*(\\.gz)?")) {
+                continue;
+            }
+            int atoms = 0;
+            for (int mode = 0; mode < modes; mode++) {
+                boolean fast = mode > 0;
+                ChunkExecutor.threadCount = mode == 2 ? threads : 1;
+                for (int i = 0; i < WARMUP; i++) {
+                    atoms = load(file, fast);
+                }
+                progressEvents = 0;
+                long best = Long.MAX_VALUE;
+                long time = 0;
+                for (int i = 0; i < runs; i++) {
+                    long start = System.nanoTime();
+                    load(file, fast);
+                    long elapsed = System.nanoTime() - start;
+                    time += elapsed;
+                    best = Math.min(best, elapsed);
+                }
+                System.out.printf("%-14s %-5s %6d atoms: mean %7.2f ms, best %7.2f ms, %9.0f atoms/s, %5d progress events%n",
+                        file.getName(), mode == 2 ? "x" + threads : fast ? "fast" : "lines", atoms, time / (runs * 1e6), best / 1e6,
+                        atoms / (best / 1e9), progressEvents / runs);
+                totalTime[mode] += time / runs;
+            }
+            totalAtoms += atoms;
+        }
+        System.out.printf("total: %d atoms, lines %.1f ms (%.0f atoms/s), fast %.1f ms (%.0f atoms/s)%n",
+                totalAtoms, totalTime[0] / 1e6, totalAtoms / (totalTime[0] / 1e9),
+                totalTime[1] / 1e6, totalAtoms / (totalTime[1] / 1e9));
+        if (threads > 1) {
+            System.out.printf("       x%d threads %.1f ms (%.0f atoms/s)%n",
+                    threads, totalTime[2] / 1e6, totalAtoms / (totalTime[2] / 1e9));
+        }
+    }
+
+    private static int load(File file, boolean fast) throws Exception {
+        PdbStructureLoader.useFastParser = fast;
+        Structure structure = new PdbStructureLoader().load(file);
+        return structure.getStructureComponentCount(ComponentType.ATOM);
+    }
+}
@@ -0,0 +1,149 @@
+package org.rcsb.mbt.structLoader;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.PrintWriter;
+
+import org.junit.After;
+import org.junit.Test;
+import org.rcsb.mbt.model.Atom;
+import org.rcsb.mbt.model.Structure;
+import org.rcsb.mbt.model.StructureComponentRegistry.ComponentType;
+
+/**
+ * Tests that the fast and the chunked PDB parsers read the same atoms as the
+ * line based one.
+ */
+public class PdbStructureLoaderTest {
+    private static final String DIRECTORY = "src/test/resources/test-input/General/molecules/";
+
+    @After
+    public void resetParser() {
+        PdbStructureLoader.useFastParser = true;
+        ChunkExecutor.threadCount = 1;
+        ChunkExecutor.minChunkBytes = 1 << 20;
+    }
+
+    private static Structure load(String fileName, boolean fast, boolean modelsAsSubunits) throws Exception {
+        PdbStructureLoader.useFastParser = fast;
+        PdbStructureLoader loader = new PdbStructureLoader();
+        loader.setTreatModelsAsSubunits(modelsAsSubunits);
+        Structure structure = loader.load(new File(DIRECTORY + fileName));
+        assertNotNull(fileName, structure);
+        return structure;
+    }
+
+    private static void assertSameAtoms(String fileName, boolean modelsAsSubunits) throws Exception {
+        int threadCount = ChunkExecutor.threadCount;
+        ChunkExecutor.threadCount = 1;
+        Structure expected = load(fileName, false, modelsAsSubunits);
+        ChunkExecutor.threadCount = threadCount;
+        Structure actual = load(fileName, true, modelsAsSubunits);
+
+        int atomCount = expected.getStructureComponentCount(ComponentType.ATOM);
+        assertTrue(fileName, atomCount > 0);
+        assertEquals(fileName, atomCount, actual.getStructureComponentCount(ComponentType.ATOM));
+        for (int i = 0; i < atomCount; i++) {
+            Atom e = (Atom) expected.getStructureComponentByIndex(ComponentType.ATOM, i);
+            Atom a = (Atom) actual.getStructureComponentByIndex(ComponentType.ATOM, i);
+            String message = fileName + " atom " + e.number;
+            assertEquals(message, e.number, a.number);
+            assertEquals(message, e.name, a.name);
+            assertEquals(message, e.element, a.element);
+            assertEquals(message, e.altLoc, a.altLoc);
+            assertEquals(message, e.compound, a.compound);
+            assertEquals(message, e.chain_id, a.chain_id);
+            assertEquals(message, e.authorChain_id, a.authorChain_id);
+            assertEquals(message, e.entity_id, a.entity_id);
+            assertEquals(message, e.residue_id, a.residue_id);
+            assertEquals(message, e.insertionCode, a.insertionCode);
+            assertEquals(message, e.occupancy, a.occupancy, 0.0f);
+            assertEquals(message, e.bfactor, a.bfactor, 0.0f);
+            for (int j = 0; j < 3; j++) {
+                assertEquals(message, e.getCoordinate(j), a.getCoordinate(j), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testMappedFile() throws Exception {
+        assertSameAtoms("1GIX.pdb", false);
+        assertSameAtoms("1Q70.pdb", false);
+        assertSameAtoms("1ES0.pdb", false);
+    }
+
+    @Test
+    public void testCompressedFile() throws Exception {
+        assertSameAtoms("4hhb.pdb.gz", false);
+        assertSameAtoms("1STP.pdb1.gz", false);
+    }
+
+    @Test
+    public void testChunks() throws Exception {
+        // several chunks even for the small test files
+        ChunkExecutor.threadCount = 3;
+        ChunkExecutor.minChunkBytes = 4096;
+        assertSameAtoms("1GIX.pdb", false);
+        assertSameAtoms("1ES0.pdb", false);
+        assertSameAtoms("4hhb.pdb.gz", false);
+    }
+
+    @Test
+    public void testChunkedModels() throws Exception {
+        // 1STP.pdb1 has four models
+        ChunkExecutor.threadCount = 3;
+        ChunkExecutor.minChunkBytes = 4096;
+        assertSameAtoms("1STP.pdb1.gz", false);
+        assertSameAtoms("1STP.pdb1.gz", true);
+    }
+
+    @Test
+    public void testChunkedErrorLine() throws Exception {
+        // an atom without element symbol in a later chunk
+        File file = writeWithBadAtom("1GIX.pdb", 5000);
+        try {
+            String expected = "no atom element symbol around line 5000";
+            assertEquals(expected, loadError(file));
+            ChunkExecutor.threadCount = 3;
+            ChunkExecutor.minChunkBytes = 4096;
+            assertEquals(expected, loadError(file));
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static String loadError(File file) throws Exception {
+        try {
+            new PdbStructureLoader().load(file);
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+        fail("no error for " + file);
+        return null;
+    }
+
+    /**
+     * Copies the file and replaces the atom on the given line by one whose
+     * element can't be determined.
+     */
+    private static File writeWithBadAtom(String fileName, int badLine) throws Exception {
+        File file = File.createTempFile("bad", ".pdb");
+        BufferedReader in = new BufferedReader(new FileReader(DIRECTORY + fileName));
+        PrintWriter out = new PrintWriter(new FileWriter(file));
+        String line;
+        for (int i = 1; (line = in.readLine()) != null; i++) {
+            if (i == badLine) {
+                assertTrue(line, line.startsWith("ATOM") || line.startsWith("HETATM"));
+                line = line.substring(0, 12) + " QX1" + line.substring(16, 76);
+            }
+            out.println(line);
+        }
+        in.close();
+        out.close();
+        return file;
+    }
+}
@@ -0,0 +1,87 @@
+package org.rcsb.mbt.structLoader;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+import org.rcsb.mbt.model.Structure;
+import org.rcsb.mbt.model.StructureComponentRegistry.ComponentType;
+
+/**
+ * Measures the PDBML parsing throughput of StructureXMLHandler over the
+ * test-input XML files. The files are decompressed into memory first, so only
+ * the SAX parse and the handler are timed. With more than one thread, the
+ * atom sites are parsed in chunks of at least 64 KB. This is not a unit test,
+ * run it from the test classpath:
+ * <pre>
+ * java org.rcsb.mbt.structLoader.StructureXMLHandlerBenchmark [runs] [threads]
+ * </pre>
+ */
+public class StructureXMLHandlerBenchmark {
+    private static final String DIRECTORY = "src/test/resources/test-input/General/molecules";
+    private static final int WARMUP = 3;
+
+    public static void main(String[] args) throws Exception {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        ChunkExecutor.threadCount = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        ChunkExecutor.minChunkBytes = 64 * 1024;
+
+        File[] files = new File(DIRECTORY).listFiles();
+        Arrays.sort(files);
+        long totalBytes = 0;
+        long totalAtoms = 0;
+        long totalTime = 0;
+        for (File file : files) {
+            if (!file.getName().endsWith(".xml.gz")) {
+                continue;
+            }
+            byte[] xml = decompress(file);
+            String name = file.getName().substring(0, file.getName().length() - 3);
+
+            int atoms = 0;
+            for (int i = 0; i < WARMUP; i++) {
+                atoms = parse(name, xml);
+            }
+            long best = Long.MAX_VALUE;
+            long time = 0;
+            for (int i = 0; i < runs; i++) {
+                long start = System.nanoTime();
+                parse(name, xml);
+                long elapsed = System.nanoTime() - start;
+                time += elapsed;
+                best = Math.min(best, elapsed);
+            }
+            System.out.printf("%-12s %6d atoms %8.1f KB: mean %7.2f ms, best %7.2f ms, %6.1f MB/s%n",
+                    file.getName(), atoms, xml.length / 1024.0, time / (runs * 1e6), best / 1e6,
+                    xml.length / (best / 1e9) / (1024 * 1024));
+            totalBytes += xml.length;
+            totalAtoms += atoms;
+            totalTime += time / runs;
+        }
+        System.out.printf("total: %d atoms in %.1f ms, %.1f MB/s, %.0f atoms/s%n",
+                totalAtoms, totalTime / 1e6, totalBytes / (totalTime / 1e9) / (1024 * 1024),
+                totalAtoms / (totalTime / 1e9));
+    }
+
+    private static int parse(String name, byte[] xml) {
+        XMLStructureLoader loader = new XMLStructureLoader(new StructureXMLHandler(name));
+        Structure structure = loader.load(name, new ByteArrayInputStream(xml));
+        return structure.getStructureComponentCount(ComponentType.ATOM);
+    }
+
+    private static byte[] decompress(File file) throws IOException {
+        InputStream in = new GZIPInputStream(new FileInputStream(file));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[65536];
+        for (int n = in.read(buffer); n > 0; n = in.read(buffer)) {
+            out.write(buffer, 0, n);
+        }
+        in.close();
+        return out.toByteArray();
+    }
+}
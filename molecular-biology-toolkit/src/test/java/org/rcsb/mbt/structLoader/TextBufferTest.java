@@ -0,0 +1,123 @@
+package org.rcsb.mbt.structLoader;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests that TextBuffer parses exactly like the java.lang parsers.
+ */
+public class TextBufferTest {
+
+    private static TextBuffer buffer(String text) {
+        TextBuffer buffer = new TextBuffer();
+        // deliver the text in two pieces, as SAX may do
+        char[] chars = text.toCharArray();
+        int half = chars.length / 2;
+        buffer.append(chars, 0, half);
+        buffer.append(chars, half, chars.length - half);
+        return buffer;
+    }
+
+    private static void assertParsed(String text) {
+        TextBuffer buffer = buffer(text);
+        String trimmed = text.trim();
+        assertEquals(text, trimmed, buffer.getTrimmedString());
+        assertEquals(text, Double.doubleToLongBits(Double.parseDouble(trimmed)),
+                Double.doubleToLongBits(buffer.parseDouble()));
+        assertEquals(text, Float.floatToIntBits(Float.parseFloat(trimmed)),
+                Float.floatToIntBits(buffer.parseFloat()));
+    }
+
+    @Test
+    public void testTrim() {
+        TextBuffer buffer = buffer("\n    CA \t");
+        assertEquals("CA", buffer.getTrimmedString());
+        assertTrue(buffer.equalsTrimmed("CA"));
+        assertFalse(buffer.equalsTrimmed("C"));
+        buffer.clear();
+        assertEquals(0, buffer.length());
+        assertEquals("", buffer.getTrimmedString());
+    }
+
+    @Test
+    public void testSharedString() {
+        String first = buffer(" HOH ").getSharedString();
+        TextBuffer buffer = new TextBuffer();
+        buffer.append("HOH".toCharArray(), 0, 3);
+        String a = buffer.getSharedString();
+        buffer.clear();
+        buffer.append(" HOH".toCharArray(), 0, 4);
+        assertEquals("HOH", first);
+        assertSame(a, buffer.getSharedString());
+        buffer.clear();
+        buffer.append("HOHX".toCharArray(), 0, 4);
+        assertEquals("HOHX", buffer.getSharedString());
+    }
+
+    @Test
+    public void testParseInt() {
+        String[] texts = { "0", " 42 ", "-17", "000123", "123456789", "-999999999",
+                "2147483647", "-2147483648", "1234567890" };
+        for (String text : texts) {
+            assertEquals(text, Integer.parseInt(text.trim()), buffer(text).parseInt());
+        }
+        String[] invalid = { "", "?", ".", "1.5", "-", "2147483648", "12a" };
+        for (String text : invalid) {
+            try {
+                buffer(text).parseInt();
+                fail(text);
+            } catch (NumberFormatException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testParseDecimal() {
+        String[] texts = { "0", "0.0", "-0.0", "-0", "1.", ".5", "+1.5", " 12.345 ",
+                "-112.073", "1.00", "99.99", "0.1", "0.3", "1234567.891", "16777217",
+                "16777216.5", "9007199254740993", "123456789012345678901234.5",
+                "1.0000000000000000001", "1e3", "-2.5E-4", "NaN", "-Infinity" };
+        for (String text : texts) {
+            assertParsed(text);
+        }
+        String[] invalid = { "", "?", ".", "-", "1.2.3", "1,5" };
+        for (String text : invalid) {
+            try {
+                buffer(text).parseFloat();
+                fail(text);
+            } catch (NumberFormatException e) {
+                // expected
+            }
+            try {
+                buffer(text).parseDouble();
+                fail(text);
+            } catch (NumberFormatException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testParseRandomCoordinates() {
+        Random random = new Random(7);
+        for (int i = 0; i < 100000; i++) {
+            int fractionDigits = random.nextInt(8);
+            long mantissa = (long) (random.nextDouble() * 1e9) - 500000000L;
+            StringBuilder text = new StringBuilder(Long.toString(Math.abs(mantissa)));
+            while (text.length() <= fractionDigits) {
+                text.insert(0, '0');
+            }
+            if (fractionDigits > 0) {
+                text.insert(text.length() - fractionDigits, '.');
+            }
+            if (mantissa < 0) {
+                text.insert(0, '-');
+            }
+            assertParsed(text.toString());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package org.rcsb.mbt.structLoader;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+
+import org.junit.After;
+import org.junit.Test;
+import org.rcsb.mbt.model.Atom;
+import org.rcsb.mbt.model.Structure;
+import org.rcsb.mbt.model.StructureComponentRegistry.ComponentType;
+
+/**
+ * Tests that parsing the atom sites of a PDBML file in chunks gives the same
+ * structure as parsing the file on one thread.
+ */
+public class XMLStructureLoaderTest {
+    private static final String DIRECTORY = "src/test/resources/test-input/General/molecules/";
+
+    @After
+    public void resetParser() {
+        ChunkExecutor.threadCount = 1;
+        ChunkExecutor.minChunkBytes = 1 << 20;
+    }
+
+    private static Structure load(String fileName, int threadCount) throws Exception {
+        ChunkExecutor.threadCount = threadCount;
+        XMLStructureLoader loader = new XMLStructureLoader(new StructureXMLHandler(fileName));
+        Structure structure = loader.load(new File(DIRECTORY + fileName));
+        assertNotNull(fileName, structure);
+        return structure;
+    }
+
+    private static void assertSameStructure(String fileName) throws Exception {
+        Structure expected = load(fileName, 1);
+        Structure actual = load(fileName, 3);
+
+        int atomCount = expected.getStructureComponentCount(ComponentType.ATOM);
+        assertTrue(fileName, atomCount > 0);
+        assertEquals(fileName, atomCount, actual.getStructureComponentCount(ComponentType.ATOM));
+        assertEquals(fileName, expected.getStructureComponentCount(ComponentType.BOND),
+                actual.getStructureComponentCount(ComponentType.BOND));
+        for (int i = 0; i < atomCount; i++) {
+            Atom e = (Atom) expected.getStructureComponentByIndex(ComponentType.ATOM, i);
+            Atom a = (Atom) actual.getStructureComponentByIndex(ComponentType.ATOM, i);
+            String message = fileName + " atom " + e.number;
+            assertEquals(message, e.number, a.number);
+            assertEquals(message, e.name, a.name);
+            assertEquals(message, e.element, a.element);
+            assertEquals(message, e.compound, a.compound);
+            assertEquals(message, e.chain_id, a.chain_id);
+            assertEquals(message, e.authorChain_id, a.authorChain_id);
+            assertEquals(message, e.residue_id, a.residue_id);
+            assertEquals(message, e.authorResidue_id, a.authorResidue_id);
+            assertEquals(message, e.nonpolymer, a.nonpolymer);
+            for (int j = 0; j < 3; j++) {
+                assertEquals(message, e.getCoordinate(j), a.getCoordinate(j), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testChunks() throws Exception {
+        // several chunks even for the small test files
+        ChunkExecutor.minChunkBytes = 4096;
+        assertSameStructure("1GIX.xml.gz");
+        assertSameStructure("4hhb.xml.gz");
+    }
+}
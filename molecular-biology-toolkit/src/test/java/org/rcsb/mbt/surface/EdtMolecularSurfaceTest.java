@@ -11,8 +11,11 @@ import java.util.List;
 import javax.vecmath.Point3f;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.rcsb.mbt.surface.core.EdtSurfaceCalculator;
+import org.rcsb.mbt.surface.datastructure.FaceInfo;
 import org.rcsb.mbt.surface.datastructure.Sphere;
 import org.rcsb.mbt.surface.datastructure.TriangulatedSurface;
+import org.rcsb.mbt.surface.datastructure.VertInfo;
 
 import static org.junit.Assert.*;
 
@@ -132,4 +135,80 @@ public class EdtMolecularSurfaceTest {
 
     }
 
-}
\ No newline at end of file
+    /**
+     * Tests that the multi-threaded voxel passes produce exactly the same
+     * surface as the serial calculation.
+     */
+    @Test
+    public void testMS3Parallel() {
+        List<Sphere>spheres = new ArrayList<Sphere>();
+        spheres.add(s1);
+        spheres.add(s2);
+        spheres.add(s3);
+
+        TriangulatedSurface serial = new EdtMolecularSurface(spheres, PROBE_RADIUS, 1.0f).getSurface();
+        TriangulatedSurface parallel = null;
+        int threadCount = EdtSurfaceCalculator.getDefaultThreadCount();
+        try {
+            EdtSurfaceCalculator.setDefaultThreadCount(4);
+            parallel = new EdtMolecularSurface(spheres, PROBE_RADIUS, 1.0f).getSurface();
+        } finally {
+            EdtSurfaceCalculator.setDefaultThreadCount(threadCount);
+        }
+
+        assertEquals(serial.getVertices().size(), parallel.getVertices().size());
+        assertEquals(serial.getFaces().size(), parallel.getFaces().size());
+        for (int i = 0; i < serial.getVertices().size(); i++) {
+            VertInfo v1 = serial.getVertices().get(i);
+            VertInfo v2 = parallel.getVertices().get(i);
+            assertEquals(v1.p, v2.p);
+            assertEquals(v1.atomid, v2.atomid);
+            assertEquals(v1.iscont, v2.iscont);
+        }
+        for (int i = 0; i < serial.getFaces().size(); i++) {
+            FaceInfo f1 = serial.getFaces().get(i);
+            FaceInfo f2 = parallel.getFaces().get(i);
+            assertEquals(f1.a, f2.a);
+            assertEquals(f1.b, f2.b);
+            assertEquals(f1.c, f2.c);
+        }
+    }
+
+    /**
+     * Tests the exact distance transform against the fast distance map and
+     * checks that its result does not depend on the thread count.
+     */
+    @Test
+    public void testMS3Exact() {
+        List<Sphere>spheres = new ArrayList<Sphere>();
+        spheres.add(s1);
+        spheres.add(s2);
+        spheres.add(s3);
+
+        TriangulatedSurface exact = null;
+        TriangulatedSurface parallel = null;
+        int threadCount = EdtSurfaceCalculator.getDefaultThreadCount();
+        try {
+            EdtSurfaceCalculator.setDefaultExactDistanceMap(true);
+            exact = new EdtMolecularSurface(spheres, PROBE_RADIUS, 1.0f).getSurface();
+            EdtSurfaceCalculator.setDefaultThreadCount(4);
+            parallel = new EdtMolecularSurface(spheres, PROBE_RADIUS, 1.0f).getSurface();
+        } finally {
+            EdtSurfaceCalculator.setDefaultExactDistanceMap(false);
+            EdtSurfaceCalculator.setDefaultThreadCount(threadCount);
+        }
+
+        float expArea = 57.850f;
+        assertEquals(expArea, exact.getSurfaceArea(), expArea*maxDeviation);
+
+        assertEquals(exact.getVertices().size(), parallel.getVertices().size());
+        assertEquals(exact.getFaces().size(), parallel.getFaces().size());
+        for (int i = 0; i < exact.getVertices().size(); i++) {
+            VertInfo v1 = exact.getVertices().get(i);
+            VertInfo v2 = parallel.getVertices().get(i);
+            assertEquals(v1.p, v2.p);
+            assertEquals(v1.atomid, v2.atomid);
+        }
+    }
+
+}
@@ -0,0 +1,102 @@
+package org.rcsb.mbt.surface.core;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.vecmath.Point3f;
+
+import org.rcsb.mbt.model.Atom;
+import org.rcsb.mbt.model.Structure;
+import org.rcsb.mbt.model.StructureComponentRegistry.ComponentType;
+import org.rcsb.mbt.model.attributes.AtomRadiusRegistry;
+import org.rcsb.mbt.model.attributes.IAtomRadius;
+import org.rcsb.mbt.structLoader.IFileStructureLoader;
+import org.rcsb.mbt.structLoader.PdbStructureLoader;
+import org.rcsb.mbt.structLoader.StructureXMLHandler;
+import org.rcsb.mbt.structLoader.XMLStructureLoader;
+import org.rcsb.mbt.surface.datastructure.Sphere;
+
+/**
+ * Compares the run time of the fast and the exact distance map for the
+ * molecular surface of 1STP and 4HHB. This is not a unit test, run it
+ * from the test classpath:
+ * <pre>
+ * java org.rcsb.mbt.surface.core.DistanceMapBenchmark [threads] [resolution]
+ * </pre>
+ * Every configuration is warmed up before it is timed.
+ */
+public class DistanceMapBenchmark {
+    private static final String[] FILES = {
+        "src/test/resources/test-input/SurfaceTest/1STP.pdb",
+        "src/test/resources/test-input/General/molecules/4hhb.xml.gz"
+    };
+    private static final float PROBE_RADIUS = 1.4f;
+    private static final int WARMUP = 2;
+    private static final int RUNS = 5;
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        float resolution = args.length > 1 ? Float.parseFloat(args[1]) : 0.4f;
+
+        for (String fileName : FILES) {
+            List<Sphere> spheres = loadSpheres(fileName);
+            System.out.println(new File(fileName).getName() + ": " + spheres.size() + " atoms, resolution " + resolution);
+            report("fast", spheres, resolution, false, 1);
+            report("exact", spheres, resolution, true, 1);
+            if (threads > 1) {
+                report("exact x" + threads, spheres, resolution, true, threads);
+            }
+        }
+    }
+
+    private static void report(String name, List<Sphere> spheres, float resolution, boolean exact, int threads) {
+        for (int i = 0; i < WARMUP; i++) {
+            run(spheres, resolution, exact, threads);
+        }
+        long total = 0;
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < RUNS; i++) {
+            long time = run(spheres, resolution, exact, threads);
+            total += time;
+            best = Math.min(best, time);
+        }
+        System.out.printf("  %-10s distance map: mean %6.1f ms, best %6.1f ms%n",
+                name, total / (RUNS * 1e6), best / 1e6);
+    }
+
+    /**
+     * Prepares the voxel grid and returns the time spent in the distance map.
+     */
+    private static long run(List<Sphere> spheres, float resolution, boolean exact, int threads) {
+        EdtSurfaceCalculator c = new EdtSurfaceCalculator(spheres, PROBE_RADIUS, resolution);
+        c.setThreadCount(threads);
+        c.setExactDistanceMap(exact);
+        c.initparam();
+        c.boundingatom();
+        c.fillvoxels(false);
+        c.buildbounary();
+        long start = System.nanoTime();
+        c.fastdistancemap();
+        return System.nanoTime() - start;
+    }
+
+    static List<Sphere> loadSpheres(String fileName) throws Exception {
+        IFileStructureLoader loader = null;
+        if (fileName.contains(".pdb")) {
+            loader = new PdbStructureLoader();
+        } else {
+            loader = new XMLStructureLoader(new StructureXMLHandler(fileName));
+        }
+        Structure structure = loader.load(new File(fileName));
+        IAtomRadius registry = AtomRadiusRegistry.get("By CPK");
+        List<Sphere> spheres = new ArrayList<Sphere>();
+        int atomCount = structure.getStructureComponentCount(ComponentType.ATOM);
+        for (int i = 0; i < atomCount; i++) {
+            Atom a = (Atom)structure.getStructureComponentByIndex(ComponentType.ATOM, i);
+            Point3f location = new Point3f((float)a.getX(), (float)a.getY(), (float)a.getZ());
+            spheres.add(new Sphere(location, registry.getAtomRadius(a), a));
+        }
+        return spheres;
+    }
+}
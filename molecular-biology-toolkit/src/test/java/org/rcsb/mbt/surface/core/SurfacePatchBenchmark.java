@@ -0,0 +1,102 @@
+package org.rcsb.mbt.surface.core;
+
+import java.io.File;
+import java.util.List;
+
+import javax.vecmath.Point3f;
+
+import org.rcsb.mbt.model.util.CellList;
+import org.rcsb.mbt.surface.EdtMolecularSurface;
+import org.rcsb.mbt.surface.datastructure.Sphere;
+import org.rcsb.mbt.surface.datastructure.TriangulatedSurface;
+import org.rcsb.mbt.surface.datastructure.VertInfo;
+
+/**
+ * Compares the brute force distance truncation of surface vertices with the
+ * cell list used by SurfacePatchCalculator for growing vertex counts. The
+ * first 30 atoms (a binding site) and the first half of the atoms of each
+ * structure are used as context.
+ * This is not a unit test, run it from the test classpath:
+ * <pre>
+ * java org.rcsb.mbt.surface.core.SurfacePatchBenchmark
+ * </pre>
+ */
+public class SurfacePatchBenchmark {
+    private static final String[] FILES = {
+        "src/test/resources/test-input/SurfaceTest/1STP.pdb",
+        "src/test/resources/test-input/General/molecules/4hhb.xml.gz"
+    };
+    private static final float[] RESOLUTIONS = {0.25f, 0.5f, 1.0f};
+    private static final float PROBE_RADIUS = 1.4f;
+    private static final float DISTANCE_THRESHOLD = 6.5f;
+    private static final int RUNS = 5;
+
+    public static void main(String[] args) throws Exception {
+        for (String fileName : FILES) {
+            List<Sphere> spheres = DistanceMapBenchmark.loadSpheres(fileName);
+            System.out.println(new File(fileName).getName() + ": " + spheres.size() + " atoms");
+
+            for (float resolution : RESOLUTIONS) {
+                TriangulatedSurface surface = new EdtMolecularSurface(spheres, PROBE_RADIUS, resolution).getSurface();
+                List<VertInfo> vertices = surface.getVertices();
+                for (int contextSize : new int[] {30, spheres.size() / 2}) {
+                    List<Sphere> context = spheres.subList(0, contextSize);
+                    report(vertices, context);
+                }
+            }
+
+            List<Sphere> context = spheres.subList(0, 30);
+            long t0 = System.nanoTime();
+            int surroundings = 0;
+            for (int r = 0; r < RUNS; r++) {
+                surroundings = SurfacePatchCalculator.calcSurroundings(spheres, context, DISTANCE_THRESHOLD + 10.0f).size();
+            }
+            System.out.printf("  calcSurroundings: %.2f ms, %d spheres%n", (System.nanoTime() - t0) / (RUNS * 1e6), surroundings);
+        }
+    }
+
+    private static void report(List<VertInfo> vertices, List<Sphere> context) {
+        int expected = 0;
+        int found = 0;
+        long bruteForce = Long.MAX_VALUE;
+        long grid = Long.MAX_VALUE;
+        for (int r = 0; r < RUNS; r++) {
+            long t0 = System.nanoTime();
+            expected = truncateBruteForce(vertices, context);
+            long t1 = System.nanoTime();
+            found = truncateGrid(vertices, context);
+            long t2 = System.nanoTime();
+            bruteForce = Math.min(bruteForce, t1 - t0);
+            grid = Math.min(grid, t2 - t1);
+        }
+        System.out.printf("  %7d vertices, %5d context atoms: brute force %9.2f ms, cell list %7.2f ms, kept %d%s%n",
+                vertices.size(), context.size(), bruteForce / 1e6, grid / 1e6, found,
+                found == expected ? "" : " MISMATCH (expected " + expected + ")");
+    }
+
+    private static int truncateBruteForce(List<VertInfo> vertices, List<Sphere> context) {
+        float thresholdSq = DISTANCE_THRESHOLD * DISTANCE_THRESHOLD;
+        int kept = 0;
+        for (VertInfo v : vertices) {
+            for (Sphere s : context) {
+                Point3f ps = s.getLocation();
+                if (ps.distanceSquared(v.p) < thresholdSq) {
+                    kept++;
+                    break;
+                }
+            }
+        }
+        return kept;
+    }
+
+    private static int truncateGrid(List<VertInfo> vertices, List<Sphere> context) {
+        CellList grid = SurfacePatchCalculator.createCellList(context, DISTANCE_THRESHOLD);
+        int kept = 0;
+        for (VertInfo v : vertices) {
+            if (grid.hasNeighbor(v.p.x, v.p.y, v.p.z, DISTANCE_THRESHOLD)) {
+                kept++;
+            }
+        }
+        return kept;
+    }
+}
@@ -0,0 +1,67 @@
+package org.rcsb.mbt.surface.datastructure;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Tests the flat voxel storage used by the EDT surface calculation.
+ */
+public class VoxelGridTest {
+
+    @Test
+    public void testInitialState() {
+        VoxelGrid grid = new VoxelGrid(3, 4, 5);
+        assertEquals(60, grid.size());
+        for (int index = 0; index < grid.size(); index++) {
+            assertFalse(grid.isInout(index));
+            assertFalse(grid.isBound(index));
+            assertFalse(grid.isDone(index));
+            assertEquals(-1, grid.getAtomId(index));
+            assertEquals(-1, grid.getReferenceId(index));
+            assertEquals(-1.0f, grid.getDistance(index), 0.0f);
+        }
+    }
+
+    @Test
+    public void testIndex() {
+        VoxelGrid grid = new VoxelGrid(7, 5, 3);
+        int expected = 0;
+        for (int i = 0; i < 7; i++) {
+            for (int j = 0; j < 5; j++) {
+                for (int k = 0; k < 3; k++) {
+                    int index = grid.index(i, j, k);
+                    assertEquals(expected++, index);
+                    assertEquals(i, grid.getI(index));
+                    assertEquals(j, grid.getJ(index));
+                    assertEquals(k, grid.getK(index));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFlags() {
+        // 130 voxels span three 64-bit words
+        VoxelGrid grid = new VoxelGrid(2, 5, 13);
+        grid.setInout(1, 4, 12, true);
+        grid.setBound(0, 4, 12, true);
+        grid.setDone(63, true);
+        grid.setDone(64, true);
+
+        assertTrue(grid.isInout(grid.size() - 1));
+        assertTrue(grid.isBound(64));
+        assertTrue(grid.isDone(63));
+        assertTrue(grid.isDone(64));
+        assertFalse(grid.isDone(62));
+        assertFalse(grid.isDone(65));
+
+        grid.setDone(63, false);
+        assertFalse(grid.isDone(63));
+        assertTrue(grid.isDone(64));
+
+        grid.clearBound();
+        assertFalse(grid.isBound(64));
+        assertTrue(grid.isInout(grid.size() - 1));
+    }
+}